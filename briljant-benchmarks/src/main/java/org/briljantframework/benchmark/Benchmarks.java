@@ -0,0 +1,84 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 Isak Karlsson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.briljantframework.benchmark;
+
+import java.util.Random;
+
+import org.briljantframework.array.DoubleArray;
+import org.briljantframework.array.api.AbstractArrayRoutines;
+import org.briljantframework.array.api.ArrayBackend;
+import org.briljantframework.array.api.ArrayFactory;
+import org.briljantframework.array.api.ArrayRoutines;
+import org.briljantframework.array.netlib.BlasPolicy;
+import org.briljantframework.array.netlib.NetlibArrayBackend;
+
+/**
+ * Utilities shared by the benchmarks.
+ *
+ * @author Isak Karlsson
+ */
+final class Benchmarks {
+
+  /**
+   * The backend used by all benchmarks
+   */
+  static final ArrayBackend BACKEND = new NetlibArrayBackend();
+
+  private Benchmarks() {}
+
+  /**
+   * Returns the routines with the given name:
+   * <ul>
+   * <li>{@code netlib} the routines of the netlib backend</li>
+   * <li>{@code native} the routines of a netlib backend which always calls the native BLAS</li>
+   * <li>{@code java} the base routines implemented in Java ({@link AbstractArrayRoutines})</li>
+   * </ul>
+   *
+   * @param name the name
+   * @return the routines
+   */
+  static ArrayRoutines routines(String name) {
+    switch (name) {
+      case "netlib":
+        return BACKEND.getArrayRoutines();
+      case "native":
+        return new NetlibArrayBackend(BlasPolicy.alwaysNative()).getArrayRoutines();
+      case "java":
+        return new AbstractArrayRoutines(BACKEND) {};
+      default:
+        throw new IllegalArgumentException("unknown routines: " + name);
+    }
+  }
+
+  /**
+   * Returns an array of the given shape with normally distributed elements
+   *
+   * @param shape the shape
+   * @return a new array
+   */
+  static DoubleArray randn(int... shape) {
+    ArrayFactory bj = BACKEND.getArrayFactory();
+    Random random = new Random(shape.length * 31 + shape[0]);
+    DoubleArray x = bj.newDoubleArray(shape);
+    x.assign(random::nextGaussian);
+    return x;
+  }
+}
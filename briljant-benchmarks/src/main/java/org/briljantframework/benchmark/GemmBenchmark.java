@@ -0,0 +1,108 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 Isak Karlsson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.briljantframework.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.briljantframework.array.ArrayOperation;
+import org.briljantframework.array.DoubleArray;
+import org.briljantframework.array.api.ArrayRoutines;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Matrix-matrix and matrix-vector products of {@code n x n} matrices using the netlib routines
+ * (with the default BLAS policy), the native BLAS and the base routines implemented in Java.
+ *
+ * @author Isak Karlsson
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GemmBenchmark {
+
+  @Param({"4", "16", "64", "256"})
+  public int n;
+
+  @Param({"netlib", "native", "java"})
+  public String routines;
+
+  private ArrayRoutines bjr;
+  private DoubleArray a, b, c, block, x, y;
+
+  @Setup
+  public void setup() {
+    bjr = Benchmarks.routines(routines);
+    a = Benchmarks.randn(n, n);
+    b = Benchmarks.randn(n, n);
+    c = Benchmarks.randn(n, n);
+    block = Benchmarks.randn(2 * n, 2 * n).getView(n / 2, n / 2, n, n);
+    x = Benchmarks.randn(n);
+    y = Benchmarks.randn(n);
+  }
+
+  @Benchmark
+  public DoubleArray gemm() {
+    bjr.gemm(ArrayOperation.KEEP, ArrayOperation.KEEP, 1, a, b, 0, c);
+    return c;
+  }
+
+  @Benchmark
+  public DoubleArray gemmTransposed() {
+    bjr.gemm(ArrayOperation.TRANSPOSE, ArrayOperation.KEEP, 1, a, a, 0, c);
+    return c;
+  }
+
+  @Benchmark
+  public DoubleArray gemmView() {
+    bjr.gemm(ArrayOperation.KEEP, ArrayOperation.KEEP, 1, block, b, 0, c);
+    return c;
+  }
+
+  @Benchmark
+  public DoubleArray gemv() {
+    bjr.gemv(ArrayOperation.KEEP, 1, a, x, 0, y);
+    return y;
+  }
+
+  @Benchmark
+  public DoubleArray gemvTransposed() {
+    bjr.gemv(ArrayOperation.TRANSPOSE, 1, a, x, 0, y);
+    return y;
+  }
+
+  @Benchmark
+  public double inner() {
+    return bjr.inner(x, y);
+  }
+}
@@ -0,0 +1,101 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 Isak Karlsson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.briljantframework.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.briljantframework.array.DoubleArray;
+import org.briljantframework.array.api.LinearAlgebraRoutines;
+import org.briljantframework.array.linalg.decomposition.LuDecomposition;
+import org.briljantframework.array.linalg.decomposition.SingularValueDecomposition;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Decompositions of (and solutions of linear systems with) {@code n x n} matrices.
+ *
+ * @author Isak Karlsson
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LinearAlgebraBenchmark {
+
+  @Param({"8", "64", "256"})
+  public int n;
+
+  private LinearAlgebraRoutines linalg;
+  private DoubleArray a, symmetric;
+
+  @Setup
+  public void setup() {
+    linalg = Benchmarks.BACKEND.getLinearAlgebraRoutines();
+    a = Benchmarks.randn(n, n);
+    symmetric = a.copy();
+    Benchmarks.BACKEND.getArrayRoutines().plusAssign(a.transpose(), symmetric);
+  }
+
+  @Benchmark
+  public LuDecomposition lu() {
+    return linalg.lu(a);
+  }
+
+  @Benchmark
+  public SingularValueDecomposition svd() {
+    return linalg.svd(a);
+  }
+
+  @Benchmark
+  public DoubleArray inv() {
+    return linalg.inv(a);
+  }
+
+  @Benchmark
+  public double det() {
+    return linalg.det(a);
+  }
+
+  @Benchmark
+  public DoubleArray qr() {
+    DoubleArray qr = a.copy();
+    linalg.geqrf(qr, Benchmarks.BACKEND.getArrayFactory().newDoubleArray(n));
+    return qr;
+  }
+
+  @Benchmark
+  public DoubleArray syev() {
+    DoubleArray v = symmetric.copy();
+    linalg.syev('v', 'u', v, Benchmarks.BACKEND.getArrayFactory().newDoubleArray(n));
+    return v;
+  }
+}
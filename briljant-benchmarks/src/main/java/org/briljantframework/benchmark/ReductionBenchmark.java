@@ -0,0 +1,101 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 Isak Karlsson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.briljantframework.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.briljantframework.array.DoubleArray;
+import org.briljantframework.array.api.ArrayRoutines;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Reductions of {@code n x n} matrices, both of all elements and along each dimension.
+ *
+ * @author Isak Karlsson
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReductionBenchmark {
+
+  @Param({"16", "256", "1024"})
+  public int n;
+
+  @Param({"netlib", "java"})
+  public String routines;
+
+  private ArrayRoutines bjr;
+  private DoubleArray x;
+
+  @Setup
+  public void setup() {
+    bjr = Benchmarks.routines(routines);
+    x = Benchmarks.randn(n, n);
+  }
+
+  @Benchmark
+  public double sum() {
+    return bjr.sum(x);
+  }
+
+  @Benchmark
+  public DoubleArray sumRows() {
+    return bjr.sum(0, x);
+  }
+
+  @Benchmark
+  public DoubleArray sumColumns() {
+    return bjr.sum(1, x);
+  }
+
+  @Benchmark
+  public DoubleArray meanColumns() {
+    return bjr.mean(1, x);
+  }
+
+  @Benchmark
+  public double var() {
+    return bjr.var(x);
+  }
+
+  @Benchmark
+  public DoubleArray varRows() {
+    return bjr.var(0, x);
+  }
+
+  @Benchmark
+  public DoubleArray maxRows() {
+    return bjr.max(0, x);
+  }
+}
@@ -80,9 +80,7 @@ public abstract class AbstractArray<T> extends AbstractBaseArray<Array<T>> imple
   @Override
   public Array<T> copy() {
     Array<T> array = newEmptyArray(getShape());
-    for (int i = 0; i < size(); i++) {
-      array.set(i, get(i));
-    }
+    array.assign(this);
     return array;
   }
 
@@ -110,15 +108,23 @@ public abstract class AbstractArray<T> extends AbstractBaseArray<Array<T>> imple
 
   @Override
   public void assign(T value) {
-    for (int i = 0; i < size(); i++) {
-      set(i, value);
+    StridedLoop loop = StridedLoop.of(this);
+    while (loop.next()) {
+      int p = loop.offset(0), ps = loop.stride(0);
+      for (int i = 0, n = loop.length(); i < n; i++, p += ps) {
+        setElement(p, value);
+      }
     }
   }
 
   @Override
   public void assign(Supplier<T> supplier) {
-    for (int i = 0; i < size(); i++) {
-      set(i, supplier.get());
+    StridedLoop loop = StridedLoop.of(this);
+    while (loop.next()) {
+      int p = loop.offset(0), ps = loop.stride(0);
+      for (int i = 0, n = loop.length(); i < n; i++, p += ps) {
+        setElement(p, supplier.get());
+      }
     }
   }
 
@@ -134,8 +140,14 @@ public abstract class AbstractArray<T> extends AbstractBaseArray<Array<T>> imple
   @Override
   public DoubleArray mapToDouble(ToDoubleFunction<? super T> f) {
     DoubleArray array = getArrayBackend().getArrayFactory().newDoubleArray(getShape());
-    for (int i = 0; i < size(); i++) {
-      array.set(i, f.applyAsDouble(get(i)));
+    AbstractDoubleArray z = AbstractDoubleArray.strided(array);
+    StridedLoop loop = StridedLoop.of(this, z);
+    while (loop.next()) {
+      int p = loop.offset(0), ps = loop.stride(0);
+      int q = loop.offset(1), qs = loop.stride(1);
+      for (int i = 0, n = loop.length(); i < n; i++, p += ps, q += qs) {
+        z.setElement(q, f.applyAsDouble(getElement(p)));
+      }
     }
     return array;
   }
@@ -143,8 +155,14 @@ public abstract class AbstractArray<T> extends AbstractBaseArray<Array<T>> imple
   @Override
   public LongArray mapToLong(ToLongFunction<? super T> f) {
     LongArray array = getArrayBackend().getArrayFactory().newLongArray(getShape());
-    for (int i = 0; i < size(); i++) {
-      array.set(i, f.applyAsLong(get(i)));
+    AbstractLongArray z = AbstractLongArray.strided(array);
+    StridedLoop loop = StridedLoop.of(this, z);
+    while (loop.next()) {
+      int p = loop.offset(0), ps = loop.stride(0);
+      int q = loop.offset(1), qs = loop.stride(1);
+      for (int i = 0, n = loop.length(); i < n; i++, p += ps, q += qs) {
+        z.setElement(q, f.applyAsLong(getElement(p)));
+      }
     }
     return array;
   }
@@ -152,8 +170,14 @@ public abstract class AbstractArray<T> extends AbstractBaseArray<Array<T>> imple
   @Override
   public IntArray mapToInt(ToIntFunction<? super T> f) {
     IntArray array = getArrayBackend().getArrayFactory().newIntArray(getShape());
-    for (int i = 0; i < size(); i++) {
-      array.set(i, f.applyAsInt(get(i)));
+    AbstractIntArray z = AbstractIntArray.strided(array);
+    StridedLoop loop = StridedLoop.of(this, z);
+    while (loop.next()) {
+      int p = loop.offset(0), ps = loop.stride(0);
+      int q = loop.offset(1), qs = loop.stride(1);
+      for (int i = 0, n = loop.length(); i < n; i++, p += ps, q += qs) {
+        z.setElement(q, f.applyAsInt(getElement(p)));
+      }
     }
     return array;
   }
@@ -161,16 +185,28 @@ public abstract class AbstractArray<T> extends AbstractBaseArray<Array<T>> imple
   @Override
   public ComplexArray mapToComplex(Function<? super T, Complex> f) {
     ComplexArray array = getArrayBackend().getArrayFactory().newComplexArray(getShape());
-    for (int i = 0; i < size(); i++) {
-      array.set(i, f.apply(get(i)));
+    AbstractComplexArray z = AbstractComplexArray.strided(array);
+    StridedLoop loop = StridedLoop.of(this, z);
+    while (loop.next()) {
+      int p = loop.offset(0), ps = loop.stride(0);
+      int q = loop.offset(1), qs = loop.stride(1);
+      for (int i = 0, n = loop.length(); i < n; i++, p += ps, q += qs) {
+        z.setElement(q, f.apply(getElement(p)));
+      }
     }
     return array;
   }
 
   public BooleanArray mapToBoolean(Function<? super T, Boolean> f) {
     BooleanArray array = getArrayBackend().getArrayFactory().newBooleanArray(getShape());
-    for (int i = 0; i < size(); i++) {
-      array.set(i, f.apply(get(i)));
+    AbstractBooleanArray z = AbstractBooleanArray.strided(array);
+    StridedLoop loop = StridedLoop.of(this, z);
+    while (loop.next()) {
+      int p = loop.offset(0), ps = loop.stride(0);
+      int q = loop.offset(1), qs = loop.stride(1);
+      for (int i = 0, n = loop.length(); i < n; i++, p += ps, q += qs) {
+        z.setElement(q, f.apply(getElement(p)));
+      }
     }
     return array;
   }
@@ -186,8 +222,12 @@ public abstract class AbstractArray<T> extends AbstractBaseArray<Array<T>> imple
 
   @Override
   public void apply(UnaryOperator<T> operator) {
-    for (int i = 0; i < size(); i++) {
-      set(i, operator.apply(get(i)));
+    StridedLoop loop = StridedLoop.of(this);
+    while (loop.next()) {
+      int p = loop.offset(0), ps = loop.stride(0);
+      for (int i = 0, n = loop.length(); i < n; i++, p += ps) {
+        setElement(p, operator.apply(getElement(p)));
+      }
     }
   }
 
@@ -282,20 +322,14 @@ public abstract class AbstractArray<T> extends AbstractBaseArray<Array<T>> imple
   @Override
   public void set(BooleanArray array, T value) {
     Check.dimension(array, this);
-    for (int i = 0; i < this.size(); i++) {
-      this.set(i, array.get(i) ? value : this.get(i));
-    }
+    array.forEachTrue(i -> this.set(i, value));
   }
 
   @Override
   public Array<T> get(BooleanArray array) {
     Check.dimension(array, this);
     List<T> elements = new ArrayList<>();
-    for (int i = 0; i < this.size(); i++) {
-      if (array.get(i)) {
-        elements.add(get(i));
-      }
-    }
+    array.forEachTrue(i -> elements.add(get(i)));
     return convertToArray(elements);
   }
   /**
@@ -424,6 +458,23 @@ public abstract class AbstractArray<T> extends AbstractBaseArray<Array<T>> imple
 
   protected abstract T getElement(int i);
 
+  @Override
+  protected void assignElements(Array<T> from) {
+    if (!(from instanceof AbstractArray)) {
+      super.assignElements(from);
+      return;
+    }
+    AbstractArray<T> y = (AbstractArray<T>) from;
+    StridedLoop loop = StridedLoop.of(this, y);
+    while (loop.next()) {
+      int p = loop.offset(0), ps = loop.stride(0);
+      int q = loop.offset(1), qs = loop.stride(1);
+      for (int i = 0, n = loop.length(); i < n; i++, p += ps, q += qs) {
+        setElement(p, y.getElement(q));
+      }
+    }
+  }
+
   @Override
   public void swap(int a, int b) {
     T tmp = get(a);
@@ -20,6 +20,7 @@
  */
 package org.briljantframework.array;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
@@ -30,6 +31,7 @@ import org.apache.commons.lang3.ArrayUtils;
 import org.briljantframework.Check;
 import org.briljantframework.array.api.ArrayBackend;
 import org.briljantframework.array.api.ArrayFactory;
+import org.briljantframework.array.api.ParallelPolicy;
 import org.briljantframework.util.sort.ElementSwapper;
 
 /**
@@ -167,6 +169,16 @@ public abstract class AbstractBaseArray<E extends BaseArray<E>> implements BaseA
     return backend;
   }
 
+  /**
+   * Returns the policy for parallel operations on this array, i.e., the policy set for the current
+   * thread (if any) or the policy of the array routines of the backend.
+   *
+   * @return the current policy
+   */
+  protected ParallelPolicy parallelPolicy() {
+    return ParallelPolicy.current(getArrayBackend().getArrayRoutines().getParallelPolicy());
+  }
+
   @Override
   public E reverse() {
     E e = newEmptyArray(getShape());
@@ -186,12 +198,23 @@ public abstract class AbstractBaseArray<E extends BaseArray<E>> implements BaseA
   public void assign(E o) {
     org.briljantframework.array.Arrays.broadcastWith(this, o, (x, y) -> {
       Check.size(x, y);
-      for (int i = 0, size = x.size(); i < size; i++) {
-        x.set(i, y, i);
-      }
+      assignElements(y);
     });
   }
 
+  /**
+   * Assign the elements of {@code from} (which has the same shape as this array) to this array.
+   * Subclasses should override this method and use a {@link StridedLoop} to avoid computing the
+   * memory location of each element from its linear index.
+   *
+   * @param from the array to assign
+   */
+  protected void assignElements(E from) {
+    for (int i = 0, size = size(); i < size; i++) {
+      set(i, from, i);
+    }
+  }
+
   @Override
   public void forEach(int dim, Consumer<E> consumer) {
     int size = vectors(dim);
@@ -410,6 +433,18 @@ public abstract class AbstractBaseArray<E extends BaseArray<E>> implements BaseA
     Check.argument(arrays.size() <= dims(), "too many indicies for array");
     Check.argument(arrays.size() > 0, "too few indices for array");
 
+    int dim = Gather.singleAdvancedIndex(arrays);
+    if (dim >= 0 && Gather.isSupported(this)) {
+      // a single 1d index array; gather along the dimension from the view of the other indexers
+      E view = getView(basicView(arrays, dim));
+      int[] indexes = Gather.indexes(arrays.get(dim), dim, view.size(dim));
+      int[] newShape = view.getShape();
+      newShape[dim] = indexes.length;
+      E to = newEmptyArray(newShape);
+      Gather.takeAlong(view, dim, indexes, to, parallelPolicy());
+      return to;
+    }
+
     AdvancedIndexer indexer = new AdvancedIndexer(getShape(), arrays);
     if (indexer.isBasicIndexer()) {
       List<Range> ranges = arrays.stream().map(Range.class::cast).collect(Collectors.toList());
@@ -446,6 +481,17 @@ public abstract class AbstractBaseArray<E extends BaseArray<E>> implements BaseA
     Check.argument(arrays.size() <= dims(), "too many indicies for array");
     Check.argument(arrays.size() > 0, "too few indices for array");
 
+    int dim = Gather.singleAdvancedIndex(arrays);
+    if (dim >= 0 && Gather.isSupported(this)) {
+      E view = getView(basicView(arrays, dim));
+      int[] indexes = Gather.indexes(arrays.get(dim), dim, view.size(dim));
+      int[] valueShape = view.getShape();
+      valueShape[dim] = indexes.length;
+      value = org.briljantframework.array.Arrays.broadcastTo(value, valueShape);
+      Gather.putAlong(view, dim, indexes, value, parallelPolicy());
+      return;
+    }
+
     AdvancedIndexer indexer = new AdvancedIndexer(getShape(), arrays);
     if (indexer.isBasicIndexer()) {
       // if we got a basic indexer simply select the intended region and assign the value
@@ -472,6 +518,18 @@ public abstract class AbstractBaseArray<E extends BaseArray<E>> implements BaseA
     }
   }
 
+  /**
+   * Returns the basic indexers of the list with the indexer at {@code dim} replaced by
+   * {@link BasicIndex#ALL}
+   */
+  private static List<Range> basicView(List<? extends IntArray> arrays, int dim) {
+    List<Range> ranges = new ArrayList<>(arrays.size());
+    for (int i = 0; i < arrays.size(); i++) {
+      ranges.add(i == dim ? BasicIndex.ALL : (Range) arrays.get(i));
+    }
+    return ranges;
+  }
+
   @Override
   public final E getView(int rowOffset, int colOffset, int rows, int columns) {
     Check.state(isMatrix(), "Can only get view from 2d-arrays");
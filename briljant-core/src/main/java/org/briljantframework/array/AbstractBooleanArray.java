@@ -24,6 +24,7 @@ import java.util.*;
 import java.util.Arrays;
 import java.util.function.BinaryOperator;
 import java.util.function.Function;
+import java.util.function.IntConsumer;
 import java.util.function.Supplier;
 import java.util.function.UnaryOperator;
 import java.util.stream.Stream;
@@ -172,16 +173,18 @@ public abstract class AbstractBooleanArray extends AbstractBaseArray<BooleanArra
   @Override
   public BooleanArray copy() {
     BooleanArray n = newEmptyArray(getShape());
-    for (int i = 0; i < size(); i++) {
-      n.set(i, get(i));
-    }
+    n.assign(this);
     return n;
   }
 
   @Override
   public void assign(boolean value) {
-    for (int i = 0; i < size(); i++) {
-      set(i, value);
+    StridedLoop loop = StridedLoop.of(this);
+    while (loop.next()) {
+      int p = loop.offset(0), ps = loop.stride(0);
+      for (int i = 0, n = loop.length(); i < n; i++, p += ps) {
+        setElement(p, value);
+      }
     }
   }
 
@@ -192,8 +195,12 @@ public abstract class AbstractBooleanArray extends AbstractBaseArray<BooleanArra
 
   @Override
   public void assign(Supplier<Boolean> supplier) {
-    for (int i = 0; i < size(); i++) {
-      set(i, supplier.get());
+    StridedLoop loop = StridedLoop.of(this);
+    while (loop.next()) {
+      int p = loop.offset(0), ps = loop.stride(0);
+      for (int i = 0, n = loop.length(); i < n; i++, p += ps) {
+        setElement(p, supplier.get());
+      }
     }
   }
 
@@ -227,24 +234,40 @@ public abstract class AbstractBooleanArray extends AbstractBaseArray<BooleanArra
   @Override
   public BooleanArray map(Function<Boolean, Boolean> mapper) {
     BooleanArray empty = newEmptyArray(getShape());
-    for (int i = 0, size = size(); i < size; i++) {
-      empty.set(i, mapper.apply(get(i)));
+    AbstractBooleanArray z = strided(empty);
+    StridedLoop loop = StridedLoop.of(this, z);
+    while (loop.next()) {
+      int p = loop.offset(0), ps = loop.stride(0);
+      int q = loop.offset(1), qs = loop.stride(1);
+      for (int i = 0, n = loop.length(); i < n; i++, p += ps, q += qs) {
+        z.setElement(q, mapper.apply(getElement(p)));
+      }
     }
     return empty;
   }
 
   @Override
   public void apply(UnaryOperator<Boolean> operator) {
-    for (int i = 0; i < size(); i++) {
-      set(i, operator.apply(get(i)));
+    StridedLoop loop = StridedLoop.of(this);
+    while (loop.next()) {
+      int p = loop.offset(0), ps = loop.stride(0);
+      for (int i = 0, n = loop.length(); i < n; i++, p += ps) {
+        setElement(p, operator.apply(getElement(p)));
+      }
     }
   }
 
   @Override
   public BooleanArray not() {
     BooleanArray bm = newEmptyArray(getShape());
-    for (int i = 0; i < size(); i++) {
-      bm.set(i, !get(i));
+    AbstractBooleanArray z = strided(bm);
+    StridedLoop loop = StridedLoop.of(this, z);
+    while (loop.next()) {
+      int p = loop.offset(0), ps = loop.stride(0);
+      int q = loop.offset(1), qs = loop.stride(1);
+      for (int i = 0, n = loop.length(); i < n; i++, p += ps, q += qs) {
+        z.setElement(q, !getElement(p));
+      }
     }
     return bm;
   }
@@ -272,9 +295,13 @@ public abstract class AbstractBooleanArray extends AbstractBaseArray<BooleanArra
 
   @Override
   public boolean any() {
-    for (int i = 0; i < size(); i++) {
-      if (get(i)) {
-        return true;
+    StridedLoop loop = StridedLoop.of(this);
+    while (loop.next()) {
+      int p = loop.offset(0), ps = loop.stride(0);
+      for (int i = 0, n = loop.length(); i < n; i++, p += ps) {
+        if (getElement(p)) {
+          return true;
+        }
       }
     }
     return false;
@@ -287,14 +314,31 @@ public abstract class AbstractBooleanArray extends AbstractBaseArray<BooleanArra
 
   @Override
   public boolean all() {
-    for (int i = 0; i < size(); i++) {
-      if (!get(i)) {
-        return false;
+    StridedLoop loop = StridedLoop.of(this);
+    while (loop.next()) {
+      int p = loop.offset(0), ps = loop.stride(0);
+      for (int i = 0, n = loop.length(); i < n; i++, p += ps) {
+        if (!getElement(p)) {
+          return false;
+        }
       }
     }
     return true;
   }
 
+  @Override
+  public void forEachTrue(IntConsumer action) {
+    StridedLoop loop = StridedLoop.of(this);
+    while (loop.next()) {
+      int p = loop.offset(0), ps = loop.stride(0), index = loop.position();
+      for (int i = 0, n = loop.length(); i < n; i++, p += ps) {
+        if (getElement(p)) {
+          action.accept(index + i);
+        }
+      }
+    }
+  }
+
   @Override
   public Array<Boolean> boxed() {
     return new AsArray<Boolean>(this) {
@@ -361,6 +405,50 @@ public abstract class AbstractBooleanArray extends AbstractBaseArray<BooleanArra
 
   protected abstract void setElement(int i, boolean value);
 
+  @Override
+  protected void assignElements(BooleanArray from) {
+    AbstractBooleanArray y = strided(from);
+    StridedLoop loop = StridedLoop.of(this, y);
+    while (loop.next()) {
+      int p = loop.offset(0), ps = loop.stride(0);
+      int q = loop.offset(1), qs = loop.stride(1);
+      for (int i = 0, n = loop.length(); i < n; i++, p += ps, q += qs) {
+        setElement(p, y.getElement(q));
+      }
+    }
+  }
+
+  /**
+   * Returns the given array if its elements can be accessed by memory location (i.e., using
+   * {@link #getElement(int)}); otherwise a (contiguous) view which delegates to the linear index of
+   * the given array.
+   *
+   * @param array the array
+   * @return an array whose elements are accessible by memory location
+   */
+  static AbstractBooleanArray strided(BooleanArray array) {
+    if (array instanceof AbstractBooleanArray) {
+      return (AbstractBooleanArray) array;
+    }
+    return new AsBooleanArray(org.briljantframework.array.Arrays.getArrayBackend(), 0,
+        array.getShape(), StrideUtils.computeStride(array.getShape())) {
+      @Override
+      protected boolean getElement(int i) {
+        return array.get(i);
+      }
+
+      @Override
+      protected void setElement(int i, boolean value) {
+        array.set(i, value);
+      }
+
+      @Override
+      protected int elementSize() {
+        return array.size();
+      }
+    };
+  }
+
   @Override
   public int hashCode() {
     int value = Objects.hash(getShape(), getStride());
@@ -54,33 +54,48 @@ public abstract class AbstractComplexArray extends AbstractBaseArray<ComplexArra
 
   @Override
   public void assign(Complex value) {
-    for (int i = 0; i < size(); i++) {
-      set(i, value);
+    StridedLoop loop = StridedLoop.of(this);
+    while (loop.next()) {
+      int p = loop.offset(0), ps = loop.stride(0);
+      for (int i = 0, n = loop.length(); i < n; i++, p += ps) {
+        setElement(p, value);
+      }
     }
   }
 
   @Override
   public void assign(double[] value) {
     Check.argument(value.length == size() * 2);
-    int j = 0;
-    for (int i = 0; i < size(); i++) {
-      Complex c = Complex.valueOf(value[j], value[j + 1]);
-      j += 2;
+    StridedLoop loop = StridedLoop.of(this);
+    while (loop.next()) {
+      int p = loop.offset(0), ps = loop.stride(0), j = loop.position();
+      for (int i = 0, n = loop.length(); i < n; i++, p += ps) {
+        int k = 2 * (j + i);
+        setElement(p, Complex.valueOf(value[k], value[k + 1]));
+      }
     }
   }
 
   @Override
   public void assign(Complex[] value) {
     Check.dimension(size(), value.length);
-    for (int i = 0; i < value.length; i++) {
-      set(i, value[i]);
+    StridedLoop loop = StridedLoop.of(this);
+    while (loop.next()) {
+      int p = loop.offset(0), ps = loop.stride(0), j = loop.position();
+      for (int i = 0, n = loop.length(); i < n; i++, p += ps) {
+        setElement(p, value[j + i]);
+      }
     }
   }
 
   @Override
   public void assign(Supplier<Complex> supplier) {
-    for (int i = 0; i < size(); i++) {
-      set(i, supplier.get());
+    StridedLoop loop = StridedLoop.of(this);
+    while (loop.next()) {
+      int p = loop.offset(0), ps = loop.stride(0);
+      for (int i = 0, n = loop.length(); i < n; i++, p += ps) {
+        setElement(p, supplier.get());
+      }
     }
   }
 
@@ -90,8 +105,15 @@ public abstract class AbstractComplexArray extends AbstractBaseArray<ComplexArra
     other = pair.getRight();
     ComplexArray me = pair.getLeft();
     Check.size(this, other);
-    for (int i = 0, size = me.size(); i < size; i++) {
-      me.set(i, operator.apply(other.get(i)));
+    AbstractComplexArray x = strided(me);
+    AbstractComplexArray y = strided(other);
+    StridedLoop loop = StridedLoop.of(x, y);
+    while (loop.next()) {
+      int p = loop.offset(0), ps = loop.stride(0);
+      int q = loop.offset(1), qs = loop.stride(1);
+      for (int i = 0, n = loop.length(); i < n; i++, p += ps, q += qs) {
+        x.setElement(p, operator.apply(y.getElement(q)));
+      }
     }
   }
 
@@ -101,8 +123,15 @@ public abstract class AbstractComplexArray extends AbstractBaseArray<ComplexArra
     other = pair.getRight();
     ComplexArray me = pair.getLeft();
     Check.size(this, other);
-    for (int i = 0, size = me.size(); i < size; i++) {
-      me.set(i, combine.apply(me.get(i), other.get(i)));
+    AbstractComplexArray x = strided(me);
+    AbstractComplexArray y = strided(other);
+    StridedLoop loop = StridedLoop.of(x, y);
+    while (loop.next()) {
+      int p = loop.offset(0), ps = loop.stride(0);
+      int q = loop.offset(1), qs = loop.stride(1);
+      for (int i = 0, n = loop.length(); i < n; i++, p += ps, q += qs) {
+        x.setElement(p, combine.apply(x.getElement(p), y.getElement(q)));
+      }
     }
   }
 
@@ -112,8 +141,15 @@ public abstract class AbstractComplexArray extends AbstractBaseArray<ComplexArra
     other = pair.getRight();
     ComplexArray me = pair.getLeft();
     Check.size(this, other);
-    for (int i = 0, size = me.size(); i < size; i++) {
-      me.set(i, Complex.valueOf(other.get(i)));
+    AbstractComplexArray x = strided(me);
+    AbstractDoubleArray y = AbstractDoubleArray.strided(other);
+    StridedLoop loop = StridedLoop.of(x, y);
+    while (loop.next()) {
+      int p = loop.offset(0), ps = loop.stride(0);
+      int q = loop.offset(1), qs = loop.stride(1);
+      for (int i = 0, n = loop.length(); i < n; i++, p += ps, q += qs) {
+        x.setElement(p, Complex.valueOf(y.getElement(q)));
+      }
     }
   }
 
@@ -123,8 +159,15 @@ public abstract class AbstractComplexArray extends AbstractBaseArray<ComplexArra
     other = pair.getRight();
     ComplexArray me = pair.getLeft();
     Check.size(this, other);
-    for (int i = 0, size = me.size(); i < size; i++) {
-      me.set(i, operator.apply(other.get(i)));
+    AbstractComplexArray x = strided(me);
+    AbstractDoubleArray y = AbstractDoubleArray.strided(other);
+    StridedLoop loop = StridedLoop.of(x, y);
+    while (loop.next()) {
+      int p = loop.offset(0), ps = loop.stride(0);
+      int q = loop.offset(1), qs = loop.stride(1);
+      for (int i = 0, n = loop.length(); i < n; i++, p += ps, q += qs) {
+        x.setElement(p, operator.apply(y.getElement(q)));
+      }
     }
   }
 
@@ -134,8 +177,15 @@ public abstract class AbstractComplexArray extends AbstractBaseArray<ComplexArra
     other = pair.getRight();
     ComplexArray me = pair.getLeft();
     Check.size(me, other);
-    for (int i = 0, size = me.size(); i < size; i++) {
-      me.set(i, operator.apply(other.get(i)));
+    AbstractComplexArray x = strided(me);
+    AbstractLongArray y = AbstractLongArray.strided(other);
+    StridedLoop loop = StridedLoop.of(x, y);
+    while (loop.next()) {
+      int p = loop.offset(0), ps = loop.stride(0);
+      int q = loop.offset(1), qs = loop.stride(1);
+      for (int i = 0, n = loop.length(); i < n; i++, p += ps, q += qs) {
+        x.setElement(p, operator.apply(y.getElement(q)));
+      }
     }
   }
 
@@ -145,16 +195,29 @@ public abstract class AbstractComplexArray extends AbstractBaseArray<ComplexArra
     other = pair.getRight();
     ComplexArray me = pair.getLeft();
     Check.size(me, other);
-    for (int i = 0, size = me.size(); i < size; i++) {
-      me.set(i, operator.apply(other.get(i)));
+    AbstractComplexArray x = strided(me);
+    AbstractIntArray y = AbstractIntArray.strided(other);
+    StridedLoop loop = StridedLoop.of(x, y);
+    while (loop.next()) {
+      int p = loop.offset(0), ps = loop.stride(0);
+      int q = loop.offset(1), qs = loop.stride(1);
+      for (int i = 0, n = loop.length(); i < n; i++, p += ps, q += qs) {
+        x.setElement(p, operator.apply(y.getElement(q)));
+      }
     }
   }
 
   @Override
   public ComplexArray map(UnaryOperator<Complex> operator) {
     ComplexArray m = newEmptyArray(getShape());
-    for (int i = 0; i < size(); i++) {
-      m.set(i, operator.apply(get(i)));
+    AbstractComplexArray z = strided(m);
+    StridedLoop loop = StridedLoop.of(this, z);
+    while (loop.next()) {
+      int p = loop.offset(0), ps = loop.stride(0);
+      int q = loop.offset(1), qs = loop.stride(1);
+      for (int i = 0, n = loop.length(); i < n; i++, p += ps, q += qs) {
+        z.setElement(q, operator.apply(getElement(p)));
+      }
     }
     return m;
   }
@@ -197,8 +260,12 @@ public abstract class AbstractComplexArray extends AbstractBaseArray<ComplexArra
 
   @Override
   public void apply(UnaryOperator<Complex> operator) {
-    for (int i = 0; i < size(); i++) {
-      set(i, operator.apply(get(i)));
+    StridedLoop loop = StridedLoop.of(this);
+    while (loop.next()) {
+      int p = loop.offset(0), ps = loop.stride(0);
+      for (int i = 0, n = loop.length(); i < n; i++, p += ps) {
+        setElement(p, operator.apply(getElement(p)));
+      }
     }
   }
 
@@ -253,8 +320,12 @@ public abstract class AbstractComplexArray extends AbstractBaseArray<ComplexArra
   @Override
   public Complex reduce(Complex identity, BinaryOperator<Complex> reduce,
       UnaryOperator<Complex> map) {
-    for (int i = 0; i < size(); i++) {
-      identity = reduce.apply(map.apply(get(i)), identity);
+    StridedLoop loop = StridedLoop.of(this);
+    while (loop.next()) {
+      int p = loop.offset(0), ps = loop.stride(0);
+      for (int i = 0, n = loop.length(); i < n; i++, p += ps) {
+        identity = reduce.apply(map.apply(getElement(p)), identity);
+      }
     }
     return identity;
   }
@@ -374,6 +445,50 @@ public abstract class AbstractComplexArray extends AbstractBaseArray<ComplexArra
    */
   protected abstract void setElement(int i, Complex value);
 
+  @Override
+  protected void assignElements(ComplexArray from) {
+    AbstractComplexArray y = strided(from);
+    StridedLoop loop = StridedLoop.of(this, y);
+    while (loop.next()) {
+      int p = loop.offset(0), ps = loop.stride(0);
+      int q = loop.offset(1), qs = loop.stride(1);
+      for (int i = 0, n = loop.length(); i < n; i++, p += ps, q += qs) {
+        setElement(p, y.getElement(q));
+      }
+    }
+  }
+
+  /**
+   * Returns the given array if its elements can be accessed by memory location (i.e., using
+   * {@link #getElement(int)}); otherwise a (contiguous) view which delegates to the linear index of
+   * the given array.
+   *
+   * @param array the array
+   * @return an array whose elements are accessible by memory location
+   */
+  static AbstractComplexArray strided(ComplexArray array) {
+    if (array instanceof AbstractComplexArray) {
+      return (AbstractComplexArray) array;
+    }
+    return new AsComplexArray(org.briljantframework.array.Arrays.getArrayBackend(), 0,
+        array.getShape(), StrideUtils.computeStride(array.getShape())) {
+      @Override
+      protected Complex getElement(int i) {
+        return array.get(i);
+      }
+
+      @Override
+      protected void setElement(int i, Complex value) {
+        array.set(i, value);
+      }
+
+      @Override
+      protected int elementSize() {
+        return array.size();
+      }
+    };
+  }
+
   @Override
   public int hashCode() {
     int result = 1;
@@ -34,7 +34,8 @@ import org.briljantframework.Check;
 import org.briljantframework.array.api.ArrayBackend;
 import org.briljantframework.function.DoubleBiPredicate;
 import org.briljantframework.util.primitive.DoubleList;
-import org.briljantframework.util.sort.QuickSort;
+import org.briljantframework.util.sort.MergeSort;
+import org.briljantframework.util.sort.RadixSort;
 
 import net.mintern.primitive.comparators.DoubleComparator;
 
@@ -145,12 +146,30 @@ public abstract class AbstractDoubleArray extends AbstractBaseArray<DoubleArray>
     };
   }
 
+  @Override
+  public FloatArray floatArray() {
+    return new AsFloatArray(getArrayBackend(), getOffset(), getShape(), getStride()) {
+      @Override
+      protected float getElement(int i) {
+        return (float) AbstractDoubleArray.this.getElement(i);
+      }
+
+      @Override
+      protected void setElement(int i, float value) {
+        AbstractDoubleArray.this.setElement(i, value);
+      }
+
+      @Override
+      protected int elementSize() {
+        return AbstractDoubleArray.this.elementSize();
+      }
+    };
+  }
+
   @Override
   public DoubleArray copy() {
     DoubleArray n = newEmptyArray(getShape());
-    for (int i = 0; i < size(); i++) {
-      n.set(i, get(i));
-    }
+    n.assign(this);
     return n;
   }
 
@@ -162,24 +181,35 @@ public abstract class AbstractDoubleArray extends AbstractBaseArray<DoubleArray>
 
   @Override
   public void assign(double value) {
-    final int size = size();
-    for (int i = 0; i < size; i++) {
-      set(i, value);
+    StridedLoop loop = StridedLoop.of(this);
+    while (loop.next()) {
+      int p = loop.offset(0), ps = loop.stride(0);
+      for (int i = 0, n = loop.length(); i < n; i++, p += ps) {
+        setElement(p, value);
+      }
     }
   }
 
   @Override
   public void assign(double[] array) {
     Check.dimension(this.size(), array.length);
-    for (int i = 0; i < array.length; i++) {
-      set(i, array[i]);
+    StridedLoop loop = StridedLoop.of(this);
+    while (loop.next()) {
+      int p = loop.offset(0), ps = loop.stride(0), j = loop.position();
+      for (int i = 0, n = loop.length(); i < n; i++, p += ps) {
+        setElement(p, array[j + i]);
+      }
     }
   }
 
   @Override
   public void assign(DoubleSupplier supplier) {
-    for (int i = 0; i < size(); i++) {
-      set(i, supplier.getAsDouble());
+    StridedLoop loop = StridedLoop.of(this);
+    while (loop.next()) {
+      int p = loop.offset(0), ps = loop.stride(0);
+      for (int i = 0, n = loop.length(); i < n; i++, p += ps) {
+        setElement(p, supplier.getAsDouble());
+      }
     }
   }
 
@@ -187,8 +217,14 @@ public abstract class AbstractDoubleArray extends AbstractBaseArray<DoubleArray>
   public void assign(DoubleArray other, DoubleUnaryOperator operator) {
     org.briljantframework.array.Arrays.broadcastWith(this, other, (a, b) -> {
       Check.size(a, b);
-      for (int i = 0, size = a.size(); i < size; i++) {
-        a.set(i, operator.applyAsDouble(b.get(i)));
+      AbstractDoubleArray y = strided(b);
+      StridedLoop loop = StridedLoop.of(this, y);
+      while (loop.next()) {
+        int p = loop.offset(0), ps = loop.stride(0);
+        int q = loop.offset(1), qs = loop.stride(1);
+        for (int i = 0, n = loop.length(); i < n; i++, p += ps, q += qs) {
+          setElement(p, operator.applyAsDouble(y.getElement(q)));
+        }
       }
     });
   }
@@ -197,8 +233,14 @@ public abstract class AbstractDoubleArray extends AbstractBaseArray<DoubleArray>
   public void assign(IntArray other, IntToDoubleFunction function) {
     org.briljantframework.array.Arrays.broadcastWith(this, other, (a, b) -> {
       Check.size(a, b);
-      for (int i = 0, size = a.size(); i < size; i++) {
-        a.set(i, function.applyAsDouble(b.get(i)));
+      AbstractIntArray y = AbstractIntArray.strided(b);
+      StridedLoop loop = StridedLoop.of(this, y);
+      while (loop.next()) {
+        int p = loop.offset(0), ps = loop.stride(0);
+        int q = loop.offset(1), qs = loop.stride(1);
+        for (int i = 0, n = loop.length(); i < n; i++, p += ps, q += qs) {
+          setElement(p, function.applyAsDouble(y.getElement(q)));
+        }
       }
     });
   }
@@ -207,8 +249,14 @@ public abstract class AbstractDoubleArray extends AbstractBaseArray<DoubleArray>
   public void assign(LongArray other, LongToDoubleFunction function) {
     org.briljantframework.array.Arrays.broadcastWith(this, other, (a, b) -> {
       Check.size(a, b);
-      for (int i = 0, size = a.size(); i < size; i++) {
-        a.set(i, function.applyAsDouble(b.get(i)));
+      AbstractLongArray y = AbstractLongArray.strided(b);
+      StridedLoop loop = StridedLoop.of(this, y);
+      while (loop.next()) {
+        int p = loop.offset(0), ps = loop.stride(0);
+        int q = loop.offset(1), qs = loop.stride(1);
+        for (int i = 0, n = loop.length(); i < n; i++, p += ps, q += qs) {
+          setElement(p, function.applyAsDouble(y.getElement(q)));
+        }
       }
     });
   }
@@ -217,8 +265,14 @@ public abstract class AbstractDoubleArray extends AbstractBaseArray<DoubleArray>
   public void assign(ComplexArray other, ToDoubleFunction<? super Complex> function) {
     org.briljantframework.array.Arrays.broadcastWith(this, other, (a, b) -> {
       Check.size(a, b);
-      for (int i = 0, size = a.size(); i < size; i++) {
-        a.set(i, function.applyAsDouble(b.get(i)));
+      AbstractComplexArray y = AbstractComplexArray.strided(b);
+      StridedLoop loop = StridedLoop.of(this, y);
+      while (loop.next()) {
+        int p = loop.offset(0), ps = loop.stride(0);
+        int q = loop.offset(1), qs = loop.stride(1);
+        for (int i = 0, n = loop.length(); i < n; i++, p += ps, q += qs) {
+          setElement(p, function.applyAsDouble(y.getElement(q)));
+        }
       }
     });
   }
@@ -227,8 +281,14 @@ public abstract class AbstractDoubleArray extends AbstractBaseArray<DoubleArray>
   public void combineAssign(DoubleArray other, DoubleBinaryOperator combine) {
     org.briljantframework.array.Arrays.broadcastWith(this, other, (a, b) -> {
       Check.size(a, b);
-      for (int i = 0, size = a.size(); i < size; i++) {
-        a.set(i, combine.applyAsDouble(a.get(i), b.get(i)));
+      AbstractDoubleArray y = strided(b);
+      StridedLoop loop = StridedLoop.of(this, y);
+      while (loop.next()) {
+        int p = loop.offset(0), ps = loop.stride(0);
+        int q = loop.offset(1), qs = loop.stride(1);
+        for (int i = 0, n = loop.length(); i < n; i++, p += ps, q += qs) {
+          setElement(p, combine.applyAsDouble(getElement(p), y.getElement(q)));
+        }
       }
     });
   }
@@ -237,8 +297,15 @@ public abstract class AbstractDoubleArray extends AbstractBaseArray<DoubleArray>
   public DoubleArray combine(DoubleArray other, DoubleBinaryOperator combine) {
     return org.briljantframework.array.Arrays.broadcastCombine(this, other, (a, b) -> {
       DoubleArray out = newEmptyArray(a.getShape());
-      for (int i = 0, size = a.size(); i < size; i++) {
-        out.set(i, combine.applyAsDouble(a.get(i), b.get(i)));
+      AbstractDoubleArray x = strided(a), y = strided(b), z = strided(out);
+      StridedLoop loop = StridedLoop.of(x, y, z);
+      while (loop.next()) {
+        int p = loop.offset(0), ps = loop.stride(0);
+        int q = loop.offset(1), qs = loop.stride(1);
+        int r = loop.offset(2), rs = loop.stride(2);
+        for (int i = 0, n = loop.length(); i < n; i++, p += ps, q += qs, r += rs) {
+          z.setElement(r, combine.applyAsDouble(x.getElement(p), y.getElement(q)));
+        }
       }
       return out;
     });
@@ -247,8 +314,13 @@ public abstract class AbstractDoubleArray extends AbstractBaseArray<DoubleArray>
   @Override
   public <R, C> R collect(Collector<? super Double, C, R> collector) {
     C accum = collector.supplier().get();
-    for (int i = 0; i < size(); i++) {
-      collector.accumulator().accept(accum, get(i));
+    BiConsumer<C, ? super Double> accumulator = collector.accumulator();
+    StridedLoop loop = StridedLoop.of(this);
+    while (loop.next()) {
+      int p = loop.offset(0), ps = loop.stride(0);
+      for (int i = 0, n = loop.length(); i < n; i++, p += ps) {
+        accumulator.accept(accum, getElement(p));
+      }
     }
     return collector.finisher().apply(accum);
   }
@@ -256,8 +328,12 @@ public abstract class AbstractDoubleArray extends AbstractBaseArray<DoubleArray>
   @Override
   public <T> T collect(Supplier<T> supplier, ObjDoubleConsumer<T> consumer) {
     T accumulator = supplier.get();
-    for (int i = 0; i < size(); i++) {
-      consumer.accept(accumulator, get(i));
+    StridedLoop loop = StridedLoop.of(this);
+    while (loop.next()) {
+      int p = loop.offset(0), ps = loop.stride(0);
+      for (int i = 0, n = loop.length(); i < n; i++, p += ps) {
+        consumer.accept(accumulator, getElement(p));
+      }
     }
     return accumulator;
   }
@@ -265,8 +341,14 @@ public abstract class AbstractDoubleArray extends AbstractBaseArray<DoubleArray>
   @Override
   public DoubleArray map(DoubleUnaryOperator operator) {
     DoubleArray mat = newEmptyArray(getShape());
-    for (int i = 0; i < size(); i++) {
-      mat.set(i, operator.applyAsDouble(get(i)));
+    AbstractDoubleArray z = strided(mat);
+    StridedLoop loop = StridedLoop.of(this, z);
+    while (loop.next()) {
+      int p = loop.offset(0), ps = loop.stride(0);
+      int r = loop.offset(1), rs = loop.stride(1);
+      for (int i = 0, n = loop.length(); i < n; i++, p += ps, r += rs) {
+        z.setElement(r, operator.applyAsDouble(getElement(p)));
+      }
     }
     return mat;
   }
@@ -274,8 +356,14 @@ public abstract class AbstractDoubleArray extends AbstractBaseArray<DoubleArray>
   @Override
   public IntArray mapToInt(DoubleToIntFunction function) {
     IntArray m = getArrayBackend().getArrayFactory().newIntArray(getShape());
-    for (int i = 0; i < size(); i++) {
-      m.set(i, function.applyAsInt(get(i)));
+    AbstractIntArray z = AbstractIntArray.strided(m);
+    StridedLoop loop = StridedLoop.of(this, z);
+    while (loop.next()) {
+      int p = loop.offset(0), ps = loop.stride(0);
+      int r = loop.offset(1), rs = loop.stride(1);
+      for (int i = 0, n = loop.length(); i < n; i++, p += ps, r += rs) {
+        z.setElement(r, function.applyAsInt(getElement(p)));
+      }
     }
     return m;
   }
@@ -283,8 +371,14 @@ public abstract class AbstractDoubleArray extends AbstractBaseArray<DoubleArray>
   @Override
   public LongArray mapToLong(DoubleToLongFunction function) {
     LongArray m = getArrayBackend().getArrayFactory().newLongArray(getShape());
-    for (int i = 0; i < size(); i++) {
-      m.set(i, function.applyAsLong(get(i)));
+    AbstractLongArray z = AbstractLongArray.strided(m);
+    StridedLoop loop = StridedLoop.of(this, z);
+    while (loop.next()) {
+      int p = loop.offset(0), ps = loop.stride(0);
+      int r = loop.offset(1), rs = loop.stride(1);
+      for (int i = 0, n = loop.length(); i < n; i++, p += ps, r += rs) {
+        z.setElement(r, function.applyAsLong(getElement(p)));
+      }
     }
     return m;
   }
@@ -292,8 +386,14 @@ public abstract class AbstractDoubleArray extends AbstractBaseArray<DoubleArray>
   @Override
   public ComplexArray mapToComplex(DoubleFunction<Complex> function) {
     ComplexArray m = getArrayBackend().getArrayFactory().newComplexArray(getShape());
-    for (int i = 0; i < size(); i++) {
-      m.set(i, function.apply(get(i)));
+    AbstractComplexArray z = AbstractComplexArray.strided(m);
+    StridedLoop loop = StridedLoop.of(this, z);
+    while (loop.next()) {
+      int p = loop.offset(0), ps = loop.stride(0);
+      int r = loop.offset(1), rs = loop.stride(1);
+      for (int i = 0, n = loop.length(); i < n; i++, p += ps, r += rs) {
+        z.setElement(r, function.apply(getElement(p)));
+      }
     }
     return m;
   }
@@ -301,26 +401,38 @@ public abstract class AbstractDoubleArray extends AbstractBaseArray<DoubleArray>
   @Override
   public <T> Array<T> mapToObj(DoubleFunction<? extends T> mapper) {
     Array<T> array = getArrayBackend().getArrayFactory().newArray(getShape());
-    for (int i = 0; i < size(); i++) {
-      array.set(i, mapper.apply(get(i)));
+    StridedLoop loop = StridedLoop.of(this);
+    while (loop.next()) {
+      int p = loop.offset(0), ps = loop.stride(0), j = loop.position();
+      for (int i = 0, n = loop.length(); i < n; i++, p += ps) {
+        array.set(j + i, mapper.apply(getElement(p)));
+      }
     }
     return array;
   }
 
   @Override
   public void apply(DoubleUnaryOperator operator) {
-    for (int i = 0; i < size(); i++) {
-      set(i, operator.applyAsDouble(get(i)));
+    StridedLoop loop = StridedLoop.of(this);
+    while (loop.next()) {
+      int p = loop.offset(0), ps = loop.stride(0);
+      for (int i = 0, n = loop.length(); i < n; i++, p += ps) {
+        setElement(p, operator.applyAsDouble(getElement(p)));
+      }
     }
   }
 
   @Override
   public DoubleArray filter(DoublePredicate predicate) {
     DoubleList builder = new DoubleList();
-    for (int i = 0; i < size(); i++) {
-      double value = get(i);
-      if (predicate.test(value)) {
-        builder.add(value);
+    StridedLoop loop = StridedLoop.of(this);
+    while (loop.next()) {
+      int p = loop.offset(0), ps = loop.stride(0);
+      for (int i = 0, n = loop.length(); i < n; i++, p += ps) {
+        double value = getElement(p);
+        if (predicate.test(value)) {
+          builder.add(value);
+        }
       }
     }
     return getArrayBackend().getArrayFactory()
@@ -331,8 +443,16 @@ public abstract class AbstractDoubleArray extends AbstractBaseArray<DoubleArray>
   public BooleanArray where(DoubleArray other, DoubleBiPredicate predicate) {
     return org.briljantframework.array.Arrays.broadcastCombine(this, other, (a, b) -> {
       BooleanArray out = getArrayBackend().getArrayFactory().newBooleanArray(a.getShape());
-      for (int i = 0, size = a.size(); i < size; i++) {
-        out.set(i, predicate.test(a.get(i), b.get(i)));
+      AbstractDoubleArray x = strided(a), y = strided(b);
+      AbstractBooleanArray z = AbstractBooleanArray.strided(out);
+      StridedLoop loop = StridedLoop.of(x, y, z);
+      while (loop.next()) {
+        int p = loop.offset(0), ps = loop.stride(0);
+        int q = loop.offset(1), qs = loop.stride(1);
+        int r = loop.offset(2), rs = loop.stride(2);
+        for (int i = 0, n = loop.length(); i < n; i++, p += ps, q += qs, r += rs) {
+          z.setElement(r, predicate.test(x.getElement(p), y.getElement(q)));
+        }
       }
       return out;
     });
@@ -340,15 +460,35 @@ public abstract class AbstractDoubleArray extends AbstractBaseArray<DoubleArray>
 
   @Override
   public void forEachDouble(DoubleConsumer consumer) {
-    for (int i = 0; i < size(); i++) {
-      consumer.accept(get(i));
+    StridedLoop loop = StridedLoop.of(this);
+    while (loop.next()) {
+      int p = loop.offset(0), ps = loop.stride(0);
+      for (int i = 0, n = loop.length(); i < n; i++, p += ps) {
+        consumer.accept(getElement(p));
+      }
+    }
+  }
+
+  @Override
+  public void forEachDouble(int start, int end, DoubleConsumer consumer) {
+    Check.argument(0 <= start && start <= end && end <= size(), "illegal range");
+    StridedLoop loop = StridedLoop.range(start, end, this);
+    while (loop.next()) {
+      int p = loop.offset(0), ps = loop.stride(0);
+      for (int i = 0, n = loop.length(); i < n; i++, p += ps) {
+        consumer.accept(getElement(p));
+      }
     }
   }
 
   @Override
   public double reduce(double identity, DoubleBinaryOperator reduce) {
-    for (int i = 0; i < size(); i++) {
-      identity = reduce.applyAsDouble(identity, get(i));
+    StridedLoop loop = StridedLoop.of(this);
+    while (loop.next()) {
+      int p = loop.offset(0), ps = loop.stride(0);
+      for (int i = 0, n = loop.length(); i < n; i++, p += ps) {
+        identity = reduce.applyAsDouble(identity, getElement(p));
+      }
     }
     return identity;
   }
@@ -398,27 +538,47 @@ public abstract class AbstractDoubleArray extends AbstractBaseArray<DoubleArray>
   @Override
   public void set(BooleanArray array, double value) {
     Check.dimension(array, this);
-    for (int i = 0; i < size(); i++) {
-      set(i, array.get(i) ? value : get(i));
-    }
+    array.forEachTrue(i -> set(i, value));
   }
 
   @Override
   public DoubleArray get(BooleanArray array) {
     Check.dimension(array, this);
-    double[] data = new double[size()];
-    int idx = 0;
-    for (int i = 0; i < size(); i++) {
-      if (array.get(i)) {
-        data[idx++] = get(i);
-      }
-    }
-    return getArrayBackend().getArrayFactory().newDoubleVector(Arrays.copyOf(data, idx));
+    double[] data = new double[org.briljantframework.array.Arrays.sum(array)];
+    int[] idx = {0};
+    array.forEachTrue(i -> data[idx[0]++] = get(i));
+    return getArrayBackend().getArrayFactory().newDoubleVector(data);
+  }
+
+  @Override
+  public void sort() {
+    double[] elements = elements();
+    RadixSort.sort(elements, 0, elements.length);
+    assign(elements);
   }
 
   @Override
   public void sort(DoubleComparator cmp) {
-    QuickSort.quickSort(0, size(), (left, right) -> cmp.compare(get(left), get(right)), this);
+    double[] elements = elements();
+    MergeSort.sort(parallelPolicy(), elements, 0, elements.length, cmp);
+    assign(elements);
+  }
+
+  /**
+   * Returns a new primitive array with the elements of this array in linear order.
+   *
+   * @return the elements
+   */
+  double[] elements() {
+    double[] elements = new double[size()];
+    StridedLoop loop = StridedLoop.of(this);
+    while (loop.next()) {
+      int p = loop.offset(0), ps = loop.stride(0), j = loop.position();
+      for (int i = 0, n = loop.length(); i < n; i++, p += ps) {
+        elements[j + i] = getElement(p);
+      }
+    }
+    return elements;
   }
 
   @Override
@@ -470,26 +630,83 @@ public abstract class AbstractDoubleArray extends AbstractBaseArray<DoubleArray>
 
   @Override
   public DoubleArray negate() {
-    DoubleArray n = newEmptyArray(getShape());
-    for (int i = 0; i < size(); i++) {
-      n.set(i, -get(i));
-    }
-    return n;
+    return map(v -> -v);
   }
 
   @Override
   public BooleanArray where(DoublePredicate predicate) {
     BooleanArray bits = getArrayBackend().getArrayFactory().newBooleanArray(getShape());
-    for (int i = 0; i < size(); i++) {
-      bits.set(i, predicate.test(get(i)));
+    AbstractBooleanArray z = AbstractBooleanArray.strided(bits);
+    StridedLoop loop = StridedLoop.of(this, z);
+    while (loop.next()) {
+      int p = loop.offset(0), ps = loop.stride(0);
+      int r = loop.offset(1), rs = loop.stride(1);
+      for (int i = 0, n = loop.length(); i < n; i++, p += ps, r += rs) {
+        z.setElement(r, predicate.test(getElement(p)));
+      }
     }
     return bits;
   }
 
   protected abstract double getElement(int i);
 
+  /**
+   * Returns the heap array storing the elements of this array (i.e., the array indexed by
+   * {@link #getElement(int)}) or {@code null} if the elements are not stored in a heap array. Bulk
+   * routines use the array to bypass the element accessors.
+   *
+   * @return the backing array or {@code null}
+   */
+  protected double[] getBackingArray() {
+    return null;
+  }
+
   protected abstract void setElement(int i, double value);
 
+  @Override
+  protected void assignElements(DoubleArray from) {
+    AbstractDoubleArray y = strided(from);
+    StridedLoop loop = StridedLoop.of(this, y);
+    while (loop.next()) {
+      int p = loop.offset(0), ps = loop.stride(0);
+      int q = loop.offset(1), qs = loop.stride(1);
+      for (int i = 0, n = loop.length(); i < n; i++, p += ps, q += qs) {
+        setElement(p, y.getElement(q));
+      }
+    }
+  }
+
+  /**
+   * Returns the given array if its elements can be accessed by memory location (i.e., using
+   * {@link #getElement(int)}); otherwise a (contiguous) view which delegates to the linear index of
+   * the given array.
+   *
+   * @param array the array
+   * @return an array whose elements are accessible by memory location
+   */
+  static AbstractDoubleArray strided(DoubleArray array) {
+    if (array instanceof AbstractDoubleArray) {
+      return (AbstractDoubleArray) array;
+    }
+    return new AsDoubleArray(org.briljantframework.array.Arrays.getArrayBackend(), 0,
+        array.getShape(), StrideUtils.computeStride(array.getShape())) {
+      @Override
+      protected double getElement(int i) {
+        return array.get(i);
+      }
+
+      @Override
+      protected void setElement(int i, double value) {
+        array.set(i, value);
+      }
+
+      @Override
+      protected int elementSize() {
+        return array.size();
+      }
+    };
+  }
+
   @Override
   public int hashCode() {
     int result = 1;
@@ -0,0 +1,509 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 Isak Karlsson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.briljantframework.array;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoublePredicate;
+import java.util.function.DoubleUnaryOperator;
+
+import org.apache.commons.math3.complex.Complex;
+import org.briljantframework.Check;
+import org.briljantframework.array.api.ArrayBackend;
+
+/**
+ * This class provides a skeletal implementation of a float array.
+ *
+ * @author Isak Karlsson
+ */
+public abstract class AbstractFloatArray extends AbstractBaseArray<FloatArray>
+    implements FloatArray {
+
+  protected AbstractFloatArray(ArrayBackend backend, int[] shape) {
+    super(backend, shape);
+  }
+
+  protected AbstractFloatArray(ArrayBackend backend, int offset, int[] shape, int[] stride) {
+    super(backend, offset, shape, stride);
+  }
+
+  @Override
+  public void swap(int a, int b) {
+    float tmp = get(a);
+    set(a, get(b));
+    set(b, tmp);
+  }
+
+  @Override
+  public void set(int toIndex, FloatArray from, int fromIndex) {
+    set(toIndex, from.get(fromIndex));
+  }
+
+  @Override
+  public void set(int toRow, int toColumn, FloatArray from, int fromRow, int fromColumn) {
+    set(toRow, toColumn, from.get(fromRow, fromColumn));
+  }
+
+  @Override
+  public void set(int[] toIndex, FloatArray from, int[] fromIndex) {
+    set(toIndex, from.get(fromIndex));
+  }
+
+  @Override
+  public void set(int[] toIndex, FloatArray from, int fromIndex) {
+    set(toIndex, from.get(fromIndex));
+  }
+
+  @Override
+  public void set(int toIndex, FloatArray from, int[] fromIndex) {
+    set(toIndex, from.get(fromIndex));
+  }
+
+  @Override
+  public DoubleArray doubleArray() {
+    return new AsDoubleArray(getArrayBackend(), getOffset(), getShape(), getStride()) {
+      @Override
+      public FloatArray floatArray() {
+        return AbstractFloatArray.this;
+      }
+
+      @Override
+      protected double getElement(int i) {
+        return AbstractFloatArray.this.getElement(i);
+      }
+
+      @Override
+      protected void setElement(int i, double value) {
+        AbstractFloatArray.this.setElement(i, (float) value);
+      }
+
+      @Override
+      protected int elementSize() {
+        return AbstractFloatArray.this.elementSize();
+      }
+    };
+  }
+
+  @Override
+  public IntArray intArray() {
+    return new AsIntArray(getArrayBackend(), getOffset(), getShape(), getStride()) {
+      @Override
+      public int getElement(int index) {
+        return (int) AbstractFloatArray.this.getElement(index);
+      }
+
+      @Override
+      public void setElement(int index, int value) {
+        AbstractFloatArray.this.setElement(index, value);
+      }
+
+      @Override
+      protected int elementSize() {
+        return AbstractFloatArray.this.elementSize();
+      }
+    };
+  }
+
+  @Override
+  public LongArray longArray() {
+    return new AsLongArray(getArrayBackend(), getOffset(), getShape(), getStride()) {
+      @Override
+      public long getElement(int index) {
+        return (long) AbstractFloatArray.this.getElement(index);
+      }
+
+      @Override
+      public void setElement(int index, long value) {
+        AbstractFloatArray.this.setElement(index, value);
+      }
+
+      @Override
+      protected int elementSize() {
+        return AbstractFloatArray.this.elementSize();
+      }
+    };
+  }
+
+  @Override
+  public ComplexArray complexArray() {
+    return new AsComplexArray(getArrayBackend(), getOffset(), getShape(), getStride()) {
+      @Override
+      public Complex getElement(int index) {
+        return Complex.valueOf(AbstractFloatArray.this.getElement(index));
+      }
+
+      @Override
+      public void setElement(int index, Complex value) {
+        AbstractFloatArray.this.setElement(index, (float) value.getReal());
+      }
+
+      @Override
+      protected int elementSize() {
+        return AbstractFloatArray.this.elementSize();
+      }
+    };
+  }
+
+  @Override
+  public FloatArray copy() {
+    FloatArray array = newEmptyArray(getShape());
+    array.assign(this);
+    return array;
+  }
+
+  @Override
+  public FloatArray assign(float value) {
+    StridedLoop loop = StridedLoop.of(this);
+    while (loop.next()) {
+      int p = loop.offset(0), ps = loop.stride(0);
+      for (int i = 0, n = loop.length(); i < n; i++, p += ps) {
+        setElement(p, value);
+      }
+    }
+    return this;
+  }
+
+  @Override
+  public void assign(float[] values) {
+    Check.dimension(this.size(), values.length);
+    StridedLoop loop = StridedLoop.of(this);
+    while (loop.next()) {
+      int p = loop.offset(0), ps = loop.stride(0), j = loop.position();
+      for (int i = 0, n = loop.length(); i < n; i++, p += ps) {
+        setElement(p, values[j + i]);
+      }
+    }
+  }
+
+  @Override
+  public void assign(FloatArray other, DoubleUnaryOperator operator) {
+    org.briljantframework.array.Arrays.broadcastWith(this, other, (a, b) -> {
+      Check.size(a, b);
+      AbstractFloatArray y = strided(b);
+      StridedLoop loop = StridedLoop.of(this, y);
+      while (loop.next()) {
+        int p = loop.offset(0), ps = loop.stride(0);
+        int q = loop.offset(1), qs = loop.stride(1);
+        for (int i = 0, n = loop.length(); i < n; i++, p += ps, q += qs) {
+          setElement(p, (float) operator.applyAsDouble(y.getElement(q)));
+        }
+      }
+    });
+  }
+
+  @Override
+  public void combineAssign(FloatArray other, DoubleBinaryOperator combine) {
+    org.briljantframework.array.Arrays.broadcastWith(this, other, (a, b) -> {
+      Check.size(a, b);
+      AbstractFloatArray y = strided(b);
+      StridedLoop loop = StridedLoop.of(this, y);
+      while (loop.next()) {
+        int p = loop.offset(0), ps = loop.stride(0);
+        int q = loop.offset(1), qs = loop.stride(1);
+        for (int i = 0, n = loop.length(); i < n; i++, p += ps, q += qs) {
+          setElement(p, (float) combine.applyAsDouble(getElement(p), y.getElement(q)));
+        }
+      }
+    });
+  }
+
+  @Override
+  public void assign(DoubleArray other) {
+    org.briljantframework.array.Arrays.broadcastWith(this, other, (a, b) -> {
+      Check.size(a, b);
+      AbstractDoubleArray y = AbstractDoubleArray.strided(b);
+      StridedLoop loop = StridedLoop.of(this, y);
+      while (loop.next()) {
+        int p = loop.offset(0), ps = loop.stride(0);
+        int q = loop.offset(1), qs = loop.stride(1);
+        for (int i = 0, n = loop.length(); i < n; i++, p += ps, q += qs) {
+          setElement(p, (float) y.getElement(q));
+        }
+      }
+    });
+  }
+
+  @Override
+  public FloatArray map(DoubleUnaryOperator operator) {
+    FloatArray array = newEmptyArray(getShape());
+    AbstractFloatArray z = strided(array);
+    StridedLoop loop = StridedLoop.of(this, z);
+    while (loop.next()) {
+      int p = loop.offset(0), ps = loop.stride(0);
+      int q = loop.offset(1), qs = loop.stride(1);
+      for (int i = 0, n = loop.length(); i < n; i++, p += ps, q += qs) {
+        z.setElement(q, (float) operator.applyAsDouble(getElement(p)));
+      }
+    }
+    return array;
+  }
+
+  @Override
+  public void apply(DoubleUnaryOperator operator) {
+    StridedLoop loop = StridedLoop.of(this);
+    while (loop.next()) {
+      int p = loop.offset(0), ps = loop.stride(0);
+      for (int i = 0, n = loop.length(); i < n; i++, p += ps) {
+        setElement(p, (float) operator.applyAsDouble(getElement(p)));
+      }
+    }
+  }
+
+  @Override
+  public BooleanArray where(DoublePredicate predicate) {
+    BooleanArray bits = getArrayBackend().getArrayFactory().newBooleanArray(getShape());
+    AbstractBooleanArray z = AbstractBooleanArray.strided(bits);
+    StridedLoop loop = StridedLoop.of(this, z);
+    while (loop.next()) {
+      int p = loop.offset(0), ps = loop.stride(0);
+      int q = loop.offset(1), qs = loop.stride(1);
+      for (int i = 0, n = loop.length(); i < n; i++, p += ps, q += qs) {
+        z.setElement(q, predicate.test(getElement(p)));
+      }
+    }
+    return bits;
+  }
+
+  @Override
+  public float reduce(float identity, DoubleBinaryOperator reduce) {
+    StridedLoop loop = StridedLoop.of(this);
+    while (loop.next()) {
+      int p = loop.offset(0), ps = loop.stride(0);
+      for (int i = 0, n = loop.length(); i < n; i++, p += ps) {
+        identity = (float) reduce.applyAsDouble(getElement(p), identity);
+      }
+    }
+    return identity;
+  }
+
+  @Override
+  public final float get(int i, int j) {
+    Check.argument(isMatrix());
+    return getElement(getOffset() + i * stride(0) + j * stride(1));
+  }
+
+  @Override
+  public final float get(int index) {
+    return getElement(StrideUtils.index(index, getOffset(), stride, shape));
+  }
+
+  @Override
+  public final void set(int index, float value) {
+    setElement(StrideUtils.index(index, getOffset(), stride, shape), value);
+  }
+
+  @Override
+  public final void set(int[] ix, float value) {
+    Check.argument(ix.length == dims());
+    setElement(StrideUtils.index(ix, getOffset(), getStride()), value);
+  }
+
+  @Override
+  public final float get(int... ix) {
+    Check.argument(ix.length == dims());
+    return getElement(StrideUtils.index(ix, getOffset(), getStride()));
+  }
+
+  @Override
+  public final void set(int i, int j, float value) {
+    Check.argument(isMatrix());
+    setElement(getOffset() + i * stride(0) + j * stride(1), value);
+  }
+
+  @Override
+  public FloatArray times(FloatArray other) {
+    return combine(other, (a, b) -> a * b);
+  }
+
+  @Override
+  public FloatArray times(float scalar) {
+    return map(v -> v * scalar);
+  }
+
+  @Override
+  public FloatArray plus(FloatArray other) {
+    return combine(other, (a, b) -> a + b);
+  }
+
+  @Override
+  public FloatArray plus(float scalar) {
+    return map(v -> v + scalar);
+  }
+
+  @Override
+  public FloatArray minus(FloatArray other) {
+    return combine(other, (a, b) -> a - b);
+  }
+
+  @Override
+  public FloatArray minus(float scalar) {
+    return map(v -> v - scalar);
+  }
+
+  @Override
+  public FloatArray div(FloatArray other) {
+    return combine(other, (a, b) -> a / b);
+  }
+
+  @Override
+  public FloatArray div(float other) {
+    return map(v -> v / other);
+  }
+
+  @Override
+  public FloatArray negate() {
+    return map(v -> -v);
+  }
+
+  private FloatArray combine(FloatArray other, DoubleBinaryOperator combine) {
+    return org.briljantframework.array.Arrays.broadcastCombine(this, other, (a, b) -> {
+      FloatArray out = newEmptyArray(a.getShape());
+      out.assign(a);
+      out.combineAssign(b, combine);
+      return out;
+    });
+  }
+
+  @Override
+  public float[] data() {
+    float[] data = new float[size()];
+    StridedLoop loop = StridedLoop.of(this);
+    while (loop.next()) {
+      int p = loop.offset(0), ps = loop.stride(0), j = loop.position();
+      for (int i = 0, n = loop.length(); i < n; i++, p += ps) {
+        data[j + i] = getElement(p);
+      }
+    }
+    return data;
+  }
+
+  protected abstract void setElement(int i, float value);
+
+  protected abstract float getElement(int i);
+
+  /**
+   * Returns the heap array storing the elements of this array (i.e., the array indexed by
+   * {@link #getElement(int)}) or {@code null} if the elements are not stored in a heap array.
+   *
+   * @return the backing array or {@code null}
+   */
+  protected float[] getBackingArray() {
+    return null;
+  }
+
+  @Override
+  protected void assignElements(FloatArray from) {
+    AbstractFloatArray y = strided(from);
+    StridedLoop loop = StridedLoop.of(this, y);
+    while (loop.next()) {
+      int p = loop.offset(0), ps = loop.stride(0);
+      int q = loop.offset(1), qs = loop.stride(1);
+      for (int i = 0, n = loop.length(); i < n; i++, p += ps, q += qs) {
+        setElement(p, y.getElement(q));
+      }
+    }
+  }
+
+  /**
+   * Returns the given array if its elements can be accessed by memory location (i.e., using
+   * {@link #getElement(int)}); otherwise a (contiguous) view which delegates to the linear index of
+   * the given array.
+   *
+   * @param array the array
+   * @return an array whose elements are accessible by memory location
+   */
+  static AbstractFloatArray strided(FloatArray array) {
+    if (array instanceof AbstractFloatArray) {
+      return (AbstractFloatArray) array;
+    }
+    return new AsFloatArray(org.briljantframework.array.Arrays.getArrayBackend(), 0,
+        array.getShape(), StrideUtils.computeStride(array.getShape())) {
+      @Override
+      protected float getElement(int i) {
+        return array.get(i);
+      }
+
+      @Override
+      protected void setElement(int i, float value) {
+        array.set(i, value);
+      }
+
+      @Override
+      protected int elementSize() {
+        return array.size();
+      }
+    };
+  }
+
+  @Override
+  public int hashCode() {
+    int result = 1;
+    for (int i = 0; i < size(); i++) {
+      result = 31 * result + Float.floatToIntBits(get(i));
+    }
+    return Objects.hash(shape, result);
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (obj instanceof FloatArray) {
+      FloatArray array = (FloatArray) obj;
+      if (!Arrays.equals(shape, array.getShape())) {
+        return false;
+      }
+      for (int i = 0; i < size(); i++) {
+        if (Float.compare(get(i), array.get(i)) != 0) {
+          return false;
+        }
+      }
+      return true;
+    } else {
+      return false;
+    }
+  }
+
+  @Override
+  public String toString() {
+    return ArrayPrinter.toString(this);
+  }
+
+  @Override
+  public Iterator<Float> iterator() {
+    return new Iterator<Float>() {
+      private int index = 0;
+
+      @Override
+      public boolean hasNext() {
+        return index < size();
+      }
+
+      @Override
+      public Float next() {
+        return get(index++);
+      }
+    };
+  }
+}
@@ -34,7 +34,8 @@ import org.briljantframework.Check;
 import org.briljantframework.array.api.ArrayBackend;
 import org.briljantframework.function.IntBiPredicate;
 import org.briljantframework.util.primitive.IntList;
-import org.briljantframework.util.sort.QuickSort;
+import org.briljantframework.util.sort.MergeSort;
+import org.briljantframework.util.sort.RadixSort;
 
 /**
  * This class provides a skeletal implementation of an int array.
@@ -151,39 +152,55 @@ public abstract class AbstractIntArray extends AbstractBaseArray<IntArray> imple
   @Override
   public IntArray copy() {
     IntArray matrix = newEmptyArray(getShape());
-    for (int i = 0; i < size(); i++) {
-      matrix.set(i, get(i));
-    }
+    matrix.assign(this);
     return matrix;
   }
 
   @Override
   public void assign(int value) {
-    for (int i = 0; i < size(); i++) {
-      set(i, value);
+    StridedLoop loop = StridedLoop.of(this);
+    while (loop.next()) {
+      int p = loop.offset(0), ps = loop.stride(0);
+      for (int i = 0, n = loop.length(); i < n; i++, p += ps) {
+        setElement(p, value);
+      }
     }
   }
 
   @Override
   public void assign(int[] data) {
     Check.dimension(this.size(), data.length);
-    for (int i = 0; i < data.length; i++) {
-      set(i, data[i]);
+    StridedLoop loop = StridedLoop.of(this);
+    while (loop.next()) {
+      int p = loop.offset(0), ps = loop.stride(0), j = loop.position();
+      for (int i = 0, n = loop.length(); i < n; i++, p += ps) {
+        setElement(p, data[j + i]);
+      }
     }
   }
 
   @Override
   public void assign(IntSupplier supplier) {
-    for (int i = 0; i < size(); i++) {
-      set(i, supplier.getAsInt());
+    StridedLoop loop = StridedLoop.of(this);
+    while (loop.next()) {
+      int p = loop.offset(0), ps = loop.stride(0);
+      for (int i = 0, n = loop.length(); i < n; i++, p += ps) {
+        setElement(p, supplier.getAsInt());
+      }
     }
   }
 
   @Override
   public void assign(IntArray array, IntUnaryOperator operator) {
     Check.dimension(this, array);
-    for (int i = 0; i < size(); i++) {
-      set(i, operator.applyAsInt(array.get(i)));
+    AbstractIntArray y = strided(array);
+    StridedLoop loop = StridedLoop.of(this, y);
+    while (loop.next()) {
+      int p = loop.offset(0), ps = loop.stride(0);
+      int q = loop.offset(1), qs = loop.stride(1);
+      for (int i = 0, n = loop.length(); i < n; i++, p += ps, q += qs) {
+        setElement(p, operator.applyAsInt(y.getElement(q)));
+      }
     }
   }
 
@@ -191,8 +208,14 @@ public abstract class AbstractIntArray extends AbstractBaseArray<IntArray> imple
   public void combineAssign(IntArray other, IntBinaryOperator combine) {
     org.briljantframework.array.Arrays.broadcastWith(this, other, (a, b) -> {
       Check.size(a, b);
-      for (int i = 0, size = a.size(); i < size; i++) {
-        a.set(i, combine.applyAsInt(a.get(i), b.get(i)));
+      AbstractIntArray y = strided(b);
+      StridedLoop loop = StridedLoop.of(this, y);
+      while (loop.next()) {
+        int p = loop.offset(0), ps = loop.stride(0);
+        int q = loop.offset(1), qs = loop.stride(1);
+        for (int i = 0, n = loop.length(); i < n; i++, p += ps, q += qs) {
+          setElement(p, combine.applyAsInt(getElement(p), y.getElement(q)));
+        }
       }
     });
   }
@@ -201,8 +224,14 @@ public abstract class AbstractIntArray extends AbstractBaseArray<IntArray> imple
   public void assign(ComplexArray other, ToIntFunction<? super Complex> function) {
     org.briljantframework.array.Arrays.broadcastWith(this, other, (a, b) -> {
       Check.size(a, b);
-      for (int i = 0, size = a.size(); i < size; i++) {
-        a.set(i, function.applyAsInt(b.get(i)));
+      AbstractComplexArray y = AbstractComplexArray.strided(b);
+      StridedLoop loop = StridedLoop.of(this, y);
+      while (loop.next()) {
+        int p = loop.offset(0), ps = loop.stride(0);
+        int q = loop.offset(1), qs = loop.stride(1);
+        for (int i = 0, n = loop.length(); i < n; i++, p += ps, q += qs) {
+          setElement(p, function.applyAsInt(y.getElement(q)));
+        }
       }
     });
   }
@@ -211,8 +240,14 @@ public abstract class AbstractIntArray extends AbstractBaseArray<IntArray> imple
   public void assign(DoubleArray other, DoubleToIntFunction function) {
     org.briljantframework.array.Arrays.broadcastWith(this, other, (a, b) -> {
       Check.size(a, b);
-      for (int i = 0, size = a.size(); i < size; i++) {
-        a.set(i, function.applyAsInt(b.get(i)));
+      AbstractDoubleArray y = AbstractDoubleArray.strided(b);
+      StridedLoop loop = StridedLoop.of(this, y);
+      while (loop.next()) {
+        int p = loop.offset(0), ps = loop.stride(0);
+        int q = loop.offset(1), qs = loop.stride(1);
+        for (int i = 0, n = loop.length(); i < n; i++, p += ps, q += qs) {
+          setElement(p, function.applyAsInt(y.getElement(q)));
+        }
       }
     });
   }
@@ -221,8 +256,14 @@ public abstract class AbstractIntArray extends AbstractBaseArray<IntArray> imple
   public void assign(LongArray other, LongToIntFunction function) {
     org.briljantframework.array.Arrays.broadcastWith(this, other, (a, b) -> {
       Check.size(a, b);
-      for (int i = 0, size = a.size(); i < size; i++) {
-        a.set(i, function.applyAsInt(b.get(i)));
+      AbstractLongArray y = AbstractLongArray.strided(b);
+      StridedLoop loop = StridedLoop.of(this, y);
+      while (loop.next()) {
+        int p = loop.offset(0), ps = loop.stride(0);
+        int q = loop.offset(1), qs = loop.stride(1);
+        for (int i = 0, n = loop.length(); i < n; i++, p += ps, q += qs) {
+          setElement(p, function.applyAsInt(y.getElement(q)));
+        }
       }
     });
   }
@@ -231,24 +272,40 @@ public abstract class AbstractIntArray extends AbstractBaseArray<IntArray> imple
   public void assign(BooleanArray other, ToIntFunction<Boolean> function) {
     org.briljantframework.array.Arrays.broadcastWith(this, other, (a, b) -> {
       Check.size(a, b);
-      for (int i = 0, size = a.size(); i < size; i++) {
-        a.set(i, function.applyAsInt(b.get(i)));
+      AbstractBooleanArray y = AbstractBooleanArray.strided(b);
+      StridedLoop loop = StridedLoop.of(this, y);
+      while (loop.next()) {
+        int p = loop.offset(0), ps = loop.stride(0);
+        int q = loop.offset(1), qs = loop.stride(1);
+        for (int i = 0, n = loop.length(); i < n; i++, p += ps, q += qs) {
+          setElement(p, function.applyAsInt(y.getElement(q)));
+        }
       }
     });
   }
 
   @Override
   public void apply(IntUnaryOperator operator) {
-    for (int i = 0; i < size(); i++) {
-      set(i, operator.applyAsInt(get(i)));
+    StridedLoop loop = StridedLoop.of(this);
+    while (loop.next()) {
+      int p = loop.offset(0), ps = loop.stride(0);
+      for (int i = 0, n = loop.length(); i < n; i++, p += ps) {
+        setElement(p, operator.applyAsInt(getElement(p)));
+      }
     }
   }
 
   @Override
   public IntArray map(IntUnaryOperator operator) {
     IntArray mat = newEmptyArray(getShape());
-    for (int i = 0; i < size(); i++) {
-      mat.set(i, operator.applyAsInt(get(i)));
+    AbstractIntArray z = strided(mat);
+    StridedLoop loop = StridedLoop.of(this, z);
+    while (loop.next()) {
+      int p = loop.offset(0), ps = loop.stride(0);
+      int q = loop.offset(1), qs = loop.stride(1);
+      for (int i = 0, n = loop.length(); i < n; i++, p += ps, q += qs) {
+        z.setElement(q, operator.applyAsInt(getElement(p)));
+      }
     }
     return mat;
   }
@@ -256,8 +313,14 @@ public abstract class AbstractIntArray extends AbstractBaseArray<IntArray> imple
   @Override
   public LongArray mapToLong(IntToLongFunction function) {
     LongArray matrix = getArrayBackend().getArrayFactory().newLongArray(getShape());
-    for (int i = 0; i < size(); i++) {
-      matrix.set(i, function.applyAsLong(get(i)));
+    AbstractLongArray z = AbstractLongArray.strided(matrix);
+    StridedLoop loop = StridedLoop.of(this, z);
+    while (loop.next()) {
+      int p = loop.offset(0), ps = loop.stride(0);
+      int q = loop.offset(1), qs = loop.stride(1);
+      for (int i = 0, n = loop.length(); i < n; i++, p += ps, q += qs) {
+        z.setElement(q, function.applyAsLong(getElement(p)));
+      }
     }
     return matrix;
   }
@@ -265,17 +328,29 @@ public abstract class AbstractIntArray extends AbstractBaseArray<IntArray> imple
   @Override
   public DoubleArray mapToDouble(IntToDoubleFunction function) {
     DoubleArray matrix = getArrayBackend().getArrayFactory().newDoubleArray(getShape());
-    for (int i = 0; i < size(); i++) {
-      matrix.set(i, function.applyAsDouble(get(i)));
+    AbstractDoubleArray z = AbstractDoubleArray.strided(matrix);
+    StridedLoop loop = StridedLoop.of(this, z);
+    while (loop.next()) {
+      int p = loop.offset(0), ps = loop.stride(0);
+      int q = loop.offset(1), qs = loop.stride(1);
+      for (int i = 0, n = loop.length(); i < n; i++, p += ps, q += qs) {
+        z.setElement(q, function.applyAsDouble(getElement(p)));
+      }
     }
     return matrix;
   }
 
   @Override
   public ComplexArray mapToComplex(IntFunction<Complex> function) {
-    ComplexArray matrix = getArrayBackend().getArrayFactory().newComplexArray();
-    for (int i = 0; i < size(); i++) {
-      matrix.set(i, function.apply(get(i)));
+    ComplexArray matrix = getArrayBackend().getArrayFactory().newComplexArray(getShape());
+    AbstractComplexArray z = AbstractComplexArray.strided(matrix);
+    StridedLoop loop = StridedLoop.of(this, z);
+    while (loop.next()) {
+      int p = loop.offset(0), ps = loop.stride(0);
+      int q = loop.offset(1), qs = loop.stride(1);
+      for (int i = 0, n = loop.length(); i < n; i++, p += ps, q += qs) {
+        z.setElement(q, function.apply(getElement(p)));
+      }
     }
     return matrix;
   }
@@ -283,8 +358,12 @@ public abstract class AbstractIntArray extends AbstractBaseArray<IntArray> imple
   @Override
   public <U> Array<U> mapToObj(IntFunction<? extends U> function) {
     Array<U> array = getArrayBackend().getArrayFactory().newArray(getShape());
-    for (int i = 0; i < size(); i++) {
-      array.set(i, function.apply(get(i)));
+    StridedLoop loop = StridedLoop.of(this);
+    while (loop.next()) {
+      int p = loop.offset(0), ps = loop.stride(0), j = loop.position();
+      for (int i = 0, n = loop.length(); i < n; i++, p += ps) {
+        array.set(j + i, function.apply(getElement(p)));
+      }
     }
     return array;
   }
@@ -292,10 +371,14 @@ public abstract class AbstractIntArray extends AbstractBaseArray<IntArray> imple
   @Override
   public IntArray filter(IntPredicate operator) {
     IntList builder = new IntList();
-    for (int i = 0; i < size(); i++) {
-      int value = get(i);
-      if (operator.test(value)) {
-        builder.add(value);
+    StridedLoop loop = StridedLoop.of(this);
+    while (loop.next()) {
+      int p = loop.offset(0), ps = loop.stride(0);
+      for (int i = 0, n = loop.length(); i < n; i++, p += ps) {
+        int value = getElement(p);
+        if (operator.test(value)) {
+          builder.add(value);
+        }
       }
     }
     return getArrayBackend().getArrayFactory()
@@ -305,8 +388,14 @@ public abstract class AbstractIntArray extends AbstractBaseArray<IntArray> imple
   @Override
   public BooleanArray where(IntPredicate predicate) {
     BooleanArray bits = getArrayBackend().getArrayFactory().newBooleanArray(getShape());
-    for (int i = 0; i < size(); i++) {
-      bits.set(i, predicate.test(get(i)));
+    AbstractBooleanArray z = AbstractBooleanArray.strided(bits);
+    StridedLoop loop = StridedLoop.of(this, z);
+    while (loop.next()) {
+      int p = loop.offset(0), ps = loop.stride(0);
+      int q = loop.offset(1), qs = loop.stride(1);
+      for (int i = 0, n = loop.length(); i < n; i++, p += ps, q += qs) {
+        z.setElement(q, predicate.test(getElement(p)));
+      }
     }
     return bits;
   }
@@ -315,8 +404,16 @@ public abstract class AbstractIntArray extends AbstractBaseArray<IntArray> imple
   public BooleanArray where(IntArray other, IntBiPredicate predicate) {
     return org.briljantframework.array.Arrays.broadcastCombine(this, other, (a, b) -> {
       BooleanArray out = getArrayBackend().getArrayFactory().newBooleanArray(a.getShape());
-      for (int i = 0, size = a.size(); i < size; i++) {
-        out.set(i, predicate.test(a.get(i), b.get(i)));
+      AbstractIntArray x = strided(a), y = strided(b);
+      AbstractBooleanArray z = AbstractBooleanArray.strided(out);
+      StridedLoop loop = StridedLoop.of(x, y, z);
+      while (loop.next()) {
+        int p = loop.offset(0), ps = loop.stride(0);
+        int q = loop.offset(1), qs = loop.stride(1);
+        int r = loop.offset(2), rs = loop.stride(2);
+        for (int i = 0, n = loop.length(); i < n; i++, p += ps, q += qs, r += rs) {
+          z.setElement(r, predicate.test(x.getElement(p), y.getElement(q)));
+        }
       }
       return out;
     });
@@ -324,8 +421,12 @@ public abstract class AbstractIntArray extends AbstractBaseArray<IntArray> imple
 
   @Override
   public void forEachPrimitive(IntConsumer consumer) {
-    for (int i = 0; i < size(); i++) {
-      consumer.accept(get(i));
+    StridedLoop loop = StridedLoop.of(this);
+    while (loop.next()) {
+      int p = loop.offset(0), ps = loop.stride(0);
+      for (int i = 0, n = loop.length(); i < n; i++, p += ps) {
+        consumer.accept(getElement(p));
+      }
     }
   }
 
@@ -336,8 +437,12 @@ public abstract class AbstractIntArray extends AbstractBaseArray<IntArray> imple
 
   @Override
   public int reduce(int identity, IntBinaryOperator reduce, IntUnaryOperator map) {
-    for (int i = 0, size = size(); i < size; i++) {
-      identity = reduce.applyAsInt(map.applyAsInt(get(i)), identity);
+    StridedLoop loop = StridedLoop.of(this);
+    while (loop.next()) {
+      int p = loop.offset(0), ps = loop.stride(0);
+      for (int i = 0, n = loop.length(); i < n; i++, p += ps) {
+        identity = reduce.applyAsInt(map.applyAsInt(getElement(p)), identity);
+      }
     }
     return identity;
   }
@@ -432,12 +537,33 @@ public abstract class AbstractIntArray extends AbstractBaseArray<IntArray> imple
 
   @Override
   public void sort() {
-    sort(Integer::compare);
+    int[] elements = elements();
+    RadixSort.sort(elements, 0, elements.length);
+    assign(elements);
   }
 
   @Override
   public void sort(IntComparator cmp) {
-    QuickSort.quickSort(0, size(), (left, right) -> cmp.compare(get(left), get(right)), this);
+    int[] elements = elements();
+    MergeSort.sort(parallelPolicy(), elements, 0, elements.length, cmp);
+    assign(elements);
+  }
+
+  /**
+   * Returns a new primitive array with the elements of this array in linear order.
+   *
+   * @return the elements
+   */
+  int[] elements() {
+    int[] elements = new int[size()];
+    StridedLoop loop = StridedLoop.of(this);
+    while (loop.next()) {
+      int p = loop.offset(0), ps = loop.stride(0), j = loop.position();
+      for (int i = 0, n = loop.length(); i < n; i++, p += ps) {
+        elements[j + i] = getElement(p);
+      }
+    }
+    return elements;
   }
 
   private IntArray plus(int scalar) {
@@ -450,17 +576,68 @@ public abstract class AbstractIntArray extends AbstractBaseArray<IntArray> imple
 
   @Override
   public IntArray negate() {
-    IntArray n = newEmptyArray(getShape());
-    for (int i = 0; i < size(); i++) {
-      n.set(i, -get(i));
-    }
-    return n;
+    return map(v -> -v);
   }
 
   protected abstract int getElement(int i);
 
+  /**
+   * Returns the heap array storing the elements of this array (i.e., the array indexed by
+   * {@link #getElement(int)}) or {@code null} if the elements are not stored in a heap array. Bulk
+   * routines use the array to bypass the element accessors.
+   *
+   * @return the backing array or {@code null}
+   */
+  protected int[] getBackingArray() {
+    return null;
+  }
+
   protected abstract void setElement(int i, int value);
 
+  @Override
+  protected void assignElements(IntArray from) {
+    AbstractIntArray y = strided(from);
+    StridedLoop loop = StridedLoop.of(this, y);
+    while (loop.next()) {
+      int p = loop.offset(0), ps = loop.stride(0);
+      int q = loop.offset(1), qs = loop.stride(1);
+      for (int i = 0, n = loop.length(); i < n; i++, p += ps, q += qs) {
+        setElement(p, y.getElement(q));
+      }
+    }
+  }
+
+  /**
+   * Returns the given array if its elements can be accessed by memory location (i.e., using
+   * {@link #getElement(int)}); otherwise a (contiguous) view which delegates to the linear index of
+   * the given array.
+   *
+   * @param array the array
+   * @return an array whose elements are accessible by memory location
+   */
+  static AbstractIntArray strided(IntArray array) {
+    if (array instanceof AbstractIntArray) {
+      return (AbstractIntArray) array;
+    }
+    return new AsIntArray(org.briljantframework.array.Arrays.getArrayBackend(), 0,
+        array.getShape(), StrideUtils.computeStride(array.getShape())) {
+      @Override
+      protected int getElement(int i) {
+        return array.get(i);
+      }
+
+      @Override
+      protected void setElement(int i, int value) {
+        array.set(i, value);
+      }
+
+      @Override
+      protected int elementSize() {
+        return array.size();
+      }
+    };
+  }
+
   @Override
   public int hashCode() {
     int result = 1;
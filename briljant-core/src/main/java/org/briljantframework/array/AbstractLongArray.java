@@ -36,7 +36,8 @@ import org.briljantframework.array.api.ArrayBackend;
 import org.briljantframework.exceptions.MultiDimensionMismatchException;
 import org.briljantframework.function.LongBiPredicate;
 import org.briljantframework.util.primitive.ArrayAllocations;
-import org.briljantframework.util.sort.QuickSort;
+import org.briljantframework.util.sort.MergeSort;
+import org.briljantframework.util.sort.RadixSort;
 
 import net.mintern.primitive.comparators.LongComparator;
 
@@ -162,9 +163,7 @@ public abstract class AbstractLongArray extends AbstractBaseArray<LongArray> imp
   @Override
   public final LongArray copy() {
     LongArray matrix = newEmptyArray(getShape());
-    for (int i = 0; i < size(); i++) {
-      matrix.set(i, get(i));
-    }
+    matrix.assign(this);
     return matrix;
   }
 
@@ -225,8 +224,12 @@ public abstract class AbstractLongArray extends AbstractBaseArray<LongArray> imp
 
   @Override
   public LongArray assign(long value) {
-    for (int i = 0; i < size(); i++) {
-      set(i, value);
+    StridedLoop loop = StridedLoop.of(this);
+    while (loop.next()) {
+      int p = loop.offset(0), ps = loop.stride(0);
+      for (int i = 0, n = loop.length(); i < n; i++, p += ps) {
+        setElement(p, value);
+      }
     }
     return this;
   }
@@ -234,15 +237,23 @@ public abstract class AbstractLongArray extends AbstractBaseArray<LongArray> imp
   @Override
   public void assign(long[] values) {
     Check.dimension(this.size(), values.length);
-    for (int i = 0; i < values.length; i++) {
-      set(i, values[i]);
+    StridedLoop loop = StridedLoop.of(this);
+    while (loop.next()) {
+      int p = loop.offset(0), ps = loop.stride(0), j = loop.position();
+      for (int i = 0, n = loop.length(); i < n; i++, p += ps) {
+        setElement(p, values[j + i]);
+      }
     }
   }
 
   @Override
   public void assign(LongSupplier supplier) {
-    for (int i = 0; i < size(); i++) {
-      set(i, supplier.getAsLong());
+    StridedLoop loop = StridedLoop.of(this);
+    while (loop.next()) {
+      int p = loop.offset(0), ps = loop.stride(0);
+      for (int i = 0, n = loop.length(); i < n; i++, p += ps) {
+        setElement(p, supplier.getAsLong());
+      }
     }
   }
 
@@ -250,8 +261,14 @@ public abstract class AbstractLongArray extends AbstractBaseArray<LongArray> imp
   public void assign(LongArray other, LongUnaryOperator operator) {
     org.briljantframework.array.Arrays.broadcastWith(this, other, (a, b) -> {
       Check.size(a, b);
-      for (int i = 0, size = a.size(); i < size; i++) {
-        a.set(i, operator.applyAsLong(b.get(i)));
+      AbstractLongArray y = strided(b);
+      StridedLoop loop = StridedLoop.of(this, y);
+      while (loop.next()) {
+        int p = loop.offset(0), ps = loop.stride(0);
+        int q = loop.offset(1), qs = loop.stride(1);
+        for (int i = 0, n = loop.length(); i < n; i++, p += ps, q += qs) {
+          setElement(p, operator.applyAsLong(y.getElement(q)));
+        }
       }
     });
   }
@@ -260,8 +277,14 @@ public abstract class AbstractLongArray extends AbstractBaseArray<LongArray> imp
   public void combineAssign(LongArray other, LongBinaryOperator combine) {
     org.briljantframework.array.Arrays.broadcastWith(this, other, (a, b) -> {
       Check.size(a, b);
-      for (int i = 0, size = a.size(); i < size; i++) {
-        a.set(i, combine.applyAsLong(a.get(i), b.get(i)));
+      AbstractLongArray y = strided(b);
+      StridedLoop loop = StridedLoop.of(this, y);
+      while (loop.next()) {
+        int p = loop.offset(0), ps = loop.stride(0);
+        int q = loop.offset(1), qs = loop.stride(1);
+        for (int i = 0, n = loop.length(); i < n; i++, p += ps, q += qs) {
+          setElement(p, combine.applyAsLong(getElement(p), y.getElement(q)));
+        }
       }
     });
   }
@@ -270,8 +293,14 @@ public abstract class AbstractLongArray extends AbstractBaseArray<LongArray> imp
   public void assign(ComplexArray other, ToLongFunction<? super Complex> function) {
     org.briljantframework.array.Arrays.broadcastWith(this, other, (a, b) -> {
       Check.size(a, b);
-      for (int i = 0, size = a.size(); i < size; i++) {
-        a.set(i, function.applyAsLong(b.get(i)));
+      AbstractComplexArray y = AbstractComplexArray.strided(b);
+      StridedLoop loop = StridedLoop.of(this, y);
+      while (loop.next()) {
+        int p = loop.offset(0), ps = loop.stride(0);
+        int q = loop.offset(1), qs = loop.stride(1);
+        for (int i = 0, n = loop.length(); i < n; i++, p += ps, q += qs) {
+          setElement(p, function.applyAsLong(y.getElement(q)));
+        }
       }
     });
   }
@@ -280,8 +309,14 @@ public abstract class AbstractLongArray extends AbstractBaseArray<LongArray> imp
   public void assign(IntArray other, IntToLongFunction function) {
     org.briljantframework.array.Arrays.broadcastWith(this, other, (a, b) -> {
       Check.size(a, b);
-      for (int i = 0, size = a.size(); i < size; i++) {
-        a.set(i, function.applyAsLong(b.get(i)));
+      AbstractIntArray y = AbstractIntArray.strided(b);
+      StridedLoop loop = StridedLoop.of(this, y);
+      while (loop.next()) {
+        int p = loop.offset(0), ps = loop.stride(0);
+        int q = loop.offset(1), qs = loop.stride(1);
+        for (int i = 0, n = loop.length(); i < n; i++, p += ps, q += qs) {
+          setElement(p, function.applyAsLong(y.getElement(q)));
+        }
       }
     });
   }
@@ -290,8 +325,14 @@ public abstract class AbstractLongArray extends AbstractBaseArray<LongArray> imp
   public void assign(DoubleArray other, DoubleToLongFunction function) {
     org.briljantframework.array.Arrays.broadcastWith(this, other, (a, b) -> {
       Check.size(a, b);
-      for (int i = 0, size = a.size(); i < size; i++) {
-        a.set(i, function.applyAsLong(b.get(i)));
+      AbstractDoubleArray y = AbstractDoubleArray.strided(b);
+      StridedLoop loop = StridedLoop.of(this, y);
+      while (loop.next()) {
+        int p = loop.offset(0), ps = loop.stride(0);
+        int q = loop.offset(1), qs = loop.stride(1);
+        for (int i = 0, n = loop.length(); i < n; i++, p += ps, q += qs) {
+          setElement(p, function.applyAsLong(y.getElement(q)));
+        }
       }
     });
   }
@@ -299,17 +340,29 @@ public abstract class AbstractLongArray extends AbstractBaseArray<LongArray> imp
   @Override
   public LongArray map(LongUnaryOperator operator) {
     LongArray mat = newEmptyArray(getShape());
-    for (int i = 0; i < size(); i++) {
-      mat.set(i, operator.applyAsLong(get(i)));
+    AbstractLongArray z = strided(mat);
+    StridedLoop loop = StridedLoop.of(this, z);
+    while (loop.next()) {
+      int p = loop.offset(0), ps = loop.stride(0);
+      int q = loop.offset(1), qs = loop.stride(1);
+      for (int i = 0, n = loop.length(); i < n; i++, p += ps, q += qs) {
+        z.setElement(q, operator.applyAsLong(getElement(p)));
+      }
     }
     return mat;
   }
 
   @Override
   public IntArray mapToInt(LongToIntFunction map) {
-    IntArray matrix = getArrayBackend().getArrayFactory().newIntArray(3, 3);
-    for (int i = 0; i < size(); i++) {
-      matrix.set(i, map.applyAsInt(get(i)));
+    IntArray matrix = getArrayBackend().getArrayFactory().newIntArray(getShape());
+    AbstractIntArray z = AbstractIntArray.strided(matrix);
+    StridedLoop loop = StridedLoop.of(this, z);
+    while (loop.next()) {
+      int p = loop.offset(0), ps = loop.stride(0);
+      int q = loop.offset(1), qs = loop.stride(1);
+      for (int i = 0, n = loop.length(); i < n; i++, p += ps, q += qs) {
+        z.setElement(q, map.applyAsInt(getElement(p)));
+      }
     }
     return matrix;
   }
@@ -317,17 +370,29 @@ public abstract class AbstractLongArray extends AbstractBaseArray<LongArray> imp
   @Override
   public DoubleArray mapToDouble(LongToDoubleFunction map) {
     DoubleArray matrix = getArrayBackend().getArrayFactory().newDoubleArray(getShape());
-    for (int i = 0; i < size(); i++) {
-      matrix.set(i, map.applyAsDouble(get(i)));
+    AbstractDoubleArray z = AbstractDoubleArray.strided(matrix);
+    StridedLoop loop = StridedLoop.of(this, z);
+    while (loop.next()) {
+      int p = loop.offset(0), ps = loop.stride(0);
+      int q = loop.offset(1), qs = loop.stride(1);
+      for (int i = 0, n = loop.length(); i < n; i++, p += ps, q += qs) {
+        z.setElement(q, map.applyAsDouble(getElement(p)));
+      }
     }
     return matrix;
   }
 
   @Override
   public ComplexArray mapToComplex(LongFunction<Complex> map) {
-    ComplexArray matrix = getArrayBackend().getArrayFactory().newComplexArray();
-    for (int i = 0; i < size(); i++) {
-      matrix.set(i, map.apply(get(i)));
+    ComplexArray matrix = getArrayBackend().getArrayFactory().newComplexArray(getShape());
+    AbstractComplexArray z = AbstractComplexArray.strided(matrix);
+    StridedLoop loop = StridedLoop.of(this, z);
+    while (loop.next()) {
+      int p = loop.offset(0), ps = loop.stride(0);
+      int q = loop.offset(1), qs = loop.stride(1);
+      for (int i = 0, n = loop.length(); i < n; i++, p += ps, q += qs) {
+        z.setElement(q, map.apply(getElement(p)));
+      }
     }
     return matrix;
   }
@@ -335,24 +400,38 @@ public abstract class AbstractLongArray extends AbstractBaseArray<LongArray> imp
   @Override
   public <T> Array<T> mapToObj(LongFunction<? extends T> mapper) {
     Array<T> array = getArrayBackend().getArrayFactory().newArray(getShape());
-    for (int i = 0; i < size(); i++) {
-      array.set(i, mapper.apply(get(i)));
+    StridedLoop loop = StridedLoop.of(this);
+    while (loop.next()) {
+      int p = loop.offset(0), ps = loop.stride(0), j = loop.position();
+      for (int i = 0, n = loop.length(); i < n; i++, p += ps) {
+        array.set(j + i, mapper.apply(getElement(p)));
+      }
     }
     return array;
   }
 
   @Override
   public void apply(LongUnaryOperator operator) {
-    for (int i = 0; i < size(); i++) {
-      set(i, operator.applyAsLong(get(i)));
+    StridedLoop loop = StridedLoop.of(this);
+    while (loop.next()) {
+      int p = loop.offset(0), ps = loop.stride(0);
+      for (int i = 0, n = loop.length(); i < n; i++, p += ps) {
+        setElement(p, operator.applyAsLong(getElement(p)));
+      }
     }
   }
 
   @Override
   public BooleanArray where(LongPredicate predicate) {
-    BooleanArray bits = getArrayBackend().getArrayFactory().newBooleanArray();
-    for (int i = 0; i < size(); i++) {
-      bits.set(i, predicate.test(get(i)));
+    BooleanArray bits = getArrayBackend().getArrayFactory().newBooleanArray(getShape());
+    AbstractBooleanArray z = AbstractBooleanArray.strided(bits);
+    StridedLoop loop = StridedLoop.of(this, z);
+    while (loop.next()) {
+      int p = loop.offset(0), ps = loop.stride(0);
+      int q = loop.offset(1), qs = loop.stride(1);
+      for (int i = 0, n = loop.length(); i < n; i++, p += ps, q += qs) {
+        z.setElement(q, predicate.test(getElement(p)));
+      }
     }
     return bits;
   }
@@ -361,8 +440,16 @@ public abstract class AbstractLongArray extends AbstractBaseArray<LongArray> imp
   public BooleanArray where(LongArray other, LongBiPredicate predicate) {
     return org.briljantframework.array.Arrays.broadcastCombine(this, other, (a, b) -> {
       BooleanArray out = getArrayBackend().getArrayFactory().newBooleanArray(a.getShape());
-      for (int i = 0, size = a.size(); i < size; i++) {
-        out.set(i, predicate.test(a.get(i), b.get(i)));
+      AbstractLongArray x = strided(a), y = strided(b);
+      AbstractBooleanArray z = AbstractBooleanArray.strided(out);
+      StridedLoop loop = StridedLoop.of(x, y, z);
+      while (loop.next()) {
+        int p = loop.offset(0), ps = loop.stride(0);
+        int q = loop.offset(1), qs = loop.stride(1);
+        int r = loop.offset(2), rs = loop.stride(2);
+        for (int i = 0, n = loop.length(); i < n; i++, p += ps, q += qs, r += rs) {
+          z.setElement(r, predicate.test(x.getElement(p), y.getElement(q)));
+        }
       }
       return out;
     });
@@ -375,8 +462,12 @@ public abstract class AbstractLongArray extends AbstractBaseArray<LongArray> imp
 
   @Override
   public long reduce(long identity, LongBinaryOperator reduce, LongUnaryOperator map) {
-    for (int i = 0; i < size(); i++) {
-      identity = reduce.applyAsLong(map.applyAsLong(get(i)), identity);
+    StridedLoop loop = StridedLoop.of(this);
+    while (loop.next()) {
+      int p = loop.offset(0), ps = loop.stride(0);
+      for (int i = 0, n = loop.length(); i < n; i++, p += ps) {
+        identity = reduce.applyAsLong(map.applyAsLong(getElement(p)), identity);
+      }
     }
     return identity;
   }
@@ -396,10 +487,14 @@ public abstract class AbstractLongArray extends AbstractBaseArray<LongArray> imp
   @Override
   public LongArray filter(LongPredicate operator) {
     IncrementalBuilder builder = new IncrementalBuilder();
-    for (int i = 0; i < size(); i++) {
-      long value = get(i);
-      if (operator.test(value)) {
-        builder.add(value);
+    StridedLoop loop = StridedLoop.of(this);
+    while (loop.next()) {
+      int p = loop.offset(0), ps = loop.stride(0);
+      for (int i = 0, n = loop.length(); i < n; i++, p += ps) {
+        long value = getElement(p);
+        if (operator.test(value)) {
+          builder.add(value);
+        }
       }
     }
     return builder.build();
@@ -437,9 +532,35 @@ public abstract class AbstractLongArray extends AbstractBaseArray<LongArray> imp
     setElement(getOffset() + i * stride(0) + j * stride(1), value);
   }
 
+  @Override
+  public void sort() {
+    long[] elements = elements();
+    RadixSort.sort(elements, 0, elements.length);
+    assign(elements);
+  }
+
   @Override
   public void sort(LongComparator cmp) {
-    QuickSort.quickSort(0, size(), (left, right) -> cmp.compare(get(left), get(right)), this);
+    long[] elements = elements();
+    MergeSort.sort(parallelPolicy(), elements, 0, elements.length, cmp);
+    assign(elements);
+  }
+
+  /**
+   * Returns a new primitive array with the elements of this array in linear order.
+   *
+   * @return the elements
+   */
+  long[] elements() {
+    long[] elements = new long[size()];
+    StridedLoop loop = StridedLoop.of(this);
+    while (loop.next()) {
+      int p = loop.offset(0), ps = loop.stride(0), j = loop.position();
+      for (int i = 0, n = loop.length(); i < n; i++, p += ps) {
+        elements[j + i] = getElement(p);
+      }
+    }
+    return elements;
   }
 
   @Override
@@ -624,18 +745,18 @@ public abstract class AbstractLongArray extends AbstractBaseArray<LongArray> imp
 
   @Override
   public LongArray negate() {
-    LongArray n = newEmptyArray(getShape());
-    for (int i = 0; i < size(); i++) {
-      n.set(i, -get(i));
-    }
-    return n;
+    return map(v -> -v);
   }
 
   @Override
   public long[] data() {
     long[] data = new long[size()];
-    for (int i = 0; i < size(); i++) {
-      data[i] = get(i);
+    StridedLoop loop = StridedLoop.of(this);
+    while (loop.next()) {
+      int p = loop.offset(0), ps = loop.stride(0), j = loop.position();
+      for (int i = 0, n = loop.length(); i < n; i++, p += ps) {
+        data[j + i] = getElement(p);
+      }
     }
     return data;
   }
@@ -644,6 +765,61 @@ public abstract class AbstractLongArray extends AbstractBaseArray<LongArray> imp
 
   protected abstract long getElement(int i);
 
+  /**
+   * Returns the heap array storing the elements of this array (i.e., the array indexed by
+   * {@link #getElement(int)}) or {@code null} if the elements are not stored in a heap array. Bulk
+   * routines use the array to bypass the element accessors.
+   *
+   * @return the backing array or {@code null}
+   */
+  protected long[] getBackingArray() {
+    return null;
+  }
+
+  @Override
+  protected void assignElements(LongArray from) {
+    AbstractLongArray y = strided(from);
+    StridedLoop loop = StridedLoop.of(this, y);
+    while (loop.next()) {
+      int p = loop.offset(0), ps = loop.stride(0);
+      int q = loop.offset(1), qs = loop.stride(1);
+      for (int i = 0, n = loop.length(); i < n; i++, p += ps, q += qs) {
+        setElement(p, y.getElement(q));
+      }
+    }
+  }
+
+  /**
+   * Returns the given array if its elements can be accessed by memory location (i.e., using
+   * {@link #getElement(int)}); otherwise a (contiguous) view which delegates to the linear index of
+   * the given array.
+   *
+   * @param array the array
+   * @return an array whose elements are accessible by memory location
+   */
+  static AbstractLongArray strided(LongArray array) {
+    if (array instanceof AbstractLongArray) {
+      return (AbstractLongArray) array;
+    }
+    return new AsLongArray(org.briljantframework.array.Arrays.getArrayBackend(), 0,
+        array.getShape(), StrideUtils.computeStride(array.getShape())) {
+      @Override
+      protected long getElement(int i) {
+        return array.get(i);
+      }
+
+      @Override
+      protected void setElement(int i, long value) {
+        array.set(i, value);
+      }
+
+      @Override
+      protected int elementSize() {
+        return array.size();
+      }
+    };
+  }
+
   public LongArray mmul(long alpha, LongArray other) {
     return mmul(alpha, ArrayOperation.KEEP, other, ArrayOperation.KEEP);
   }
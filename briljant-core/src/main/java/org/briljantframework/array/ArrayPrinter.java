@@ -73,6 +73,12 @@ public final class ArrayPrinter {
     return builder.toString();
   }
 
+  public static String toString(FloatArray array) {
+    StringBuilder builder = new StringBuilder();
+    append(builder, array);
+    return builder.toString();
+  }
+
   public static String toString(BooleanArray array) {
     StringBuilder builder = new StringBuilder();
     append(builder, array);
@@ -93,6 +99,10 @@ public final class ArrayPrinter {
     append(out, new DoubleToStringArray(matrix, floatFormat), "[", "]");
   }
 
+  public static void append(StringBuilder out, FloatArray matrix) {
+    append(out, new DoubleToStringArray(matrix.doubleArray(), floatFormat), "[", "]");
+  }
+
   public static void append(StringBuilder out, BooleanArray matrix) {
     append(out, new LongToStringArray(matrix.longArray(), intFormat), "[", "]");
   }
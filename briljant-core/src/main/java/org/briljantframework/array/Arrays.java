@@ -21,10 +21,22 @@
 package org.briljantframework.array;
 
 import java.io.*;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.*;
 import java.util.function.*;
 import java.util.stream.*;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
 
+import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.math3.complex.Complex;
 import org.apache.commons.math3.distribution.IntegerDistribution;
 import org.apache.commons.math3.distribution.RealDistribution;
@@ -35,14 +47,21 @@ import org.briljantframework.array.api.ArrayBackend;
 import org.briljantframework.array.api.ArrayFactory;
 import org.briljantframework.array.api.ArrayRoutines;
 import org.briljantframework.array.api.LinearAlgebraRoutines;
+import org.briljantframework.array.api.ParallelPolicy;
+import org.briljantframework.array.api.Workspace;
+import org.briljantframework.array.direct.DirectArrayBackend;
 import org.briljantframework.array.netlib.NetlibArrayBackend;
+import org.briljantframework.array.sparse.SparseDoubleArray;
 import org.briljantframework.data.statistics.FastStatistics;
 import org.briljantframework.exceptions.MultiDimensionMismatchException;
 import org.briljantframework.function.DoubleBiPredicate;
 import org.briljantframework.function.IntBiPredicate;
 import org.briljantframework.function.LongBiPredicate;
 import org.briljantframework.util.sort.IndexComparator;
+import org.briljantframework.util.sort.MergeSort;
 import org.briljantframework.util.sort.QuickSort;
+import org.briljantframework.util.sort.RadixSort;
+import org.briljantframework.util.sort.Selection;
 
 import net.mintern.primitive.comparators.DoubleComparator;
 import net.mintern.primitive.comparators.IntComparator;
@@ -90,21 +109,26 @@ import net.mintern.primitive.comparators.LongComparator;
 public final class Arrays {
 
   /**
-   * A link to the selected linear algebra routines
+   * A link to the linear algebra routines of the default backend
    *
    * @see LinearAlgebraRoutines
+   * @see #getArrayBackend()
    */
   public static final LinearAlgebraRoutines linalg;
 
   private static final ArrayBackend ARRAY_BACKEND;
   private static final ArrayFactory ARRAY_FACTORY;
   private static final ArrayRoutines ARRAY_ROUTINES;
+  private static final ThreadLocal<ArrayBackend> scopedBackend = new ThreadLocal<>();
+  private static final ThreadLocal<Workspace> threadWorkspace = new ThreadLocal<>();
 
-  // TODO(isak): allow for swapping array backends
   static {
+    // the default backend is either named by the system property or the available backend with
+    // the highest priority
+    String name = System.getProperty("briljant.array.backend");
     ARRAY_BACKEND =
         StreamSupport.stream(ServiceLoader.load(ArrayBackend.class).spliterator(), false)
-            .filter(ArrayBackend::isAvailable)
+            .filter(b -> name == null ? b.isAvailable() : b.getClass().getName().equals(name))
             .sorted((a, b) -> Integer.compare(b.getPriority(), a.getPriority())).findFirst()
             .orElse(new NetlibArrayBackend());
 
@@ -115,8 +139,132 @@ public final class Arrays {
 
   private Arrays() {}
 
+  /**
+   * Returns the backend used by the current thread, i.e., the backend set using
+   * {@link #callWith(ArrayBackend, Supplier)} or the default backend.
+   *
+   * @return the current backend
+   */
   public static ArrayBackend getArrayBackend() {
-    return ARRAY_BACKEND;
+    ArrayBackend backend = scopedBackend.get();
+    return backend != null ? backend : ARRAY_BACKEND;
+  }
+
+  /**
+   * Run the given action using the given backend for all arrays created, and routines invoked, by
+   * the static methods of this class in the current thread.
+   *
+   * @param backend the backend
+   * @param action the action
+   * @see #callWith(ArrayBackend, Supplier)
+   */
+  public static void runWith(ArrayBackend backend, Runnable action) {
+    callWith(backend, () -> {
+      action.run();
+      return null;
+    });
+  }
+
+  /**
+   * Call the given function using the given backend for all arrays created, and routines invoked,
+   * by the static methods of this class in the current thread. For example,
+   *
+   * <pre>
+   * DoubleArray x = Arrays.callWith(new DirectArrayBackend(), () -&gt; Arrays.zeros(1000, 1000));
+   * </pre>
+   *
+   * <p/>
+   * Note that {@link #linalg} always refers to the routines of the default backend.
+   *
+   * @param backend the backend
+   * @param function the function
+   * @param <T> the return type
+   * @return the value returned by the function
+   */
+  public static <T> T callWith(ArrayBackend backend, Supplier<T> function) {
+    Check.argument(backend != null, "backend is required");
+    ArrayBackend previous = scopedBackend.get();
+    scopedBackend.set(backend);
+    try {
+      return function.get();
+    } finally {
+      if (previous == null) {
+        scopedBackend.remove();
+      } else {
+        scopedBackend.set(previous);
+      }
+    }
+  }
+
+  /**
+   * Returns the workspace of the current thread, allocating arrays using the factory of the
+   * {@linkplain #getArrayBackend() current backend}. Scratch arrays are requested in a scope:
+   *
+   * <pre>
+   * try (Workspace ws = Arrays.workspace().open()) {
+   *   DoubleArray c = Arrays.dot(ArrayOperation.KEEP, ArrayOperation.KEEP, a, 1, b, ws);
+   *   ...
+   * }
+   * </pre>
+   *
+   * @return the workspace of the current thread
+   * @see Workspace
+   */
+  public static Workspace workspace() {
+    ArrayFactory factory = factory();
+    Workspace ws = threadWorkspace.get();
+    if (ws == null || ws.getArrayFactory() != factory) {
+      ws = factory.newWorkspace();
+      threadWorkspace.set(ws);
+    }
+    return ws;
+  }
+
+  private static ArrayFactory factory() {
+    ArrayBackend backend = scopedBackend.get();
+    return backend != null ? backend.getArrayFactory() : ARRAY_FACTORY;
+  }
+
+  private static ArrayRoutines routines() {
+    ArrayBackend backend = scopedBackend.get();
+    return backend != null ? backend.getArrayRoutines() : ARRAY_ROUTINES;
+  }
+
+  private static ParallelPolicy parallelPolicy() {
+    return ParallelPolicy.current(routines().getParallelPolicy());
+  }
+
+  /**
+   * Apply the action to the index of each vector along the given dimension. The vectors are
+   * processed in parallel if the policy allows it (based on the number of elements) and the vectors
+   * of {@code x} can be written independently of each other.
+   */
+  private static void forEachVector(int dim, BaseArray<?> x, IntConsumer action) {
+    int length = x.size(dim);
+    if (length == 0) {
+      return;
+    }
+    if (!hasIndependentVectors(x)) {
+      for (int i = 0, n = x.size() / length; i < n; i++) {
+        action.accept(i);
+      }
+      return;
+    }
+    parallelPolicy().execute(x.size(), (start, end) -> {
+      // the vector starting at element i * length belongs to the range
+      for (int i = (start + length - 1) / length, n = (end + length - 1) / length; i < n; i++) {
+        action.accept(i);
+      }
+    });
+  }
+
+  /**
+   * Returns false if setting an element of one vector may modify the storage of another, e.g., for
+   * (bit-packed) boolean arrays whose vectors share storage words and sparse arrays where setting
+   * an element may move the stored elements of all vectors.
+   */
+  private static boolean hasIndependentVectors(BaseArray<?> x) {
+    return !(x instanceof BooleanArray) && !(x instanceof SparseDoubleArray);
   }
 
   /**
@@ -127,67 +275,262 @@ public final class Arrays {
    * @throws IOException if an IO error occurs
    */
   public static DoubleArray readIdx(InputStream inputStream) throws IOException {
-    DataInputStream dis = new DataInputStream(new BufferedInputStream(inputStream));
-    int magic = dis.readInt();
-    int first = magic >> 24 & 0xFF;
-    int second = magic >> 16 & 0xFF;
-    int size = magic >> 8 & 0xFF;
-    int dims = magic & 0xFF;
-
-    Check.state(first == 0 && second == 0);
-    int[] shape = new int[dims];
-    int sum = 1;
-    for (int i = 0; i < dims; i++) {
-      shape[i] = dis.readInt();
-      sum *= shape[i];
-    }
-
-    int[] stride = StrideUtils.computeStride(shape);
-    double[] data = new double[sum];
-    for (int i = 0; i < data.length; i++) {
-      double value;
-      switch (size) {
-        case 0x08:
-          value = dis.readUnsignedByte();
-          break;
-        case 0x09:
-          value = dis.readByte();
-          break;
-        case 0x0B:
-          value = dis.readShort();
-          break;
-        case 0x0C:
-          value = dis.readInt();
-          break;
-        case 0x0D:
-          value = dis.readFloat();
-          break;
-        case 0x0E:
-          value = dis.readDouble();
-          break;
+    DataInputStream in = new DataInputStream(new BufferedInputStream(inputStream));
+    Idx.Header header = Idx.readHeader(in);
+    double[] data = new double[header.size];
+    Idx.read(in, header, data);
+    return fromIdxOrder(factory().newDoubleVector(data), header);
+  }
+
+  /**
+   * Reads an array from an IDX file. The elements are memory mapped and decoded in bulk.
+   *
+   * @param path the path of the file
+   * @return a double array
+   * @throws IOException if an IO error occurs
+   */
+  public static DoubleArray readIdx(Path path) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      Idx.Header header = Idx.readHeader(channel);
+      double[] data = new double[header.size];
+      Idx.read(channel, header, data);
+      return fromIdxOrder(factory().newDoubleVector(data), header);
+    }
+  }
+
+  /**
+   * Reads an array of integers (i.e., unsigned bytes, bytes, shorts or ints) from an IDX file. The
+   * elements are memory mapped and decoded in bulk.
+   *
+   * @param path the path of the file
+   * @return an int array
+   * @throws IOException if an IO error occurs
+   * @throws IllegalArgumentException if the elements are not integers
+   */
+  public static IntArray readIntIdx(Path path) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      Idx.Header header = Idx.readHeader(channel);
+      int[] data = new int[header.size];
+      Idx.read(channel, header, data);
+      return fromIdxOrder(factory().newIntVector(data), header);
+    }
+  }
+
+  /**
+   * Memory maps an IDX file of ints or doubles as an array stored in direct memory, without copying
+   * the elements. The returned array is an {@link IntArray} or a {@link DoubleArray} (depending on
+   * the element type of the file) and changes are written to the file if the mode is
+   * {@link FileChannel.MapMode#READ_WRITE}.
+   *
+   * @param path the path of the file
+   * @param mode the map mode
+   * @return an int or double array
+   * @throws IOException if an IO error occurs
+   * @throws IllegalArgumentException if the elements are neither ints nor doubles
+   * @see DirectArrayBackend
+   */
+  public static BaseArray<?> mapIdx(Path path, FileChannel.MapMode mode) throws IOException {
+    DirectArrayBackend backend = directArrayBackend();
+    try (FileChannel channel = FileChannel.open(path, openOptions(mode))) {
+      Idx.Header header = Idx.readHeader(channel);
+      switch (header.type) {
+        case Idx.INT:
+          return fromIdxOrder(backend.mapIntArray(channel, mode, header.length(),
+              ByteOrder.BIG_ENDIAN, header.reversedShape()), header);
+        case Idx.DOUBLE:
+          return fromIdxOrder(backend.mapDoubleArray(channel, mode, header.length(),
+              ByteOrder.BIG_ENDIAN, header.reversedShape()), header);
         default:
-          throw new IllegalStateException("illegal size");
+          throw new IllegalArgumentException(
+              "Only IDX files of ints or doubles can be mapped (use readIdx)");
       }
-      int cindex = StrideUtils.cindex(i, 0, stride, shape);
-      data[cindex] = value;
     }
+  }
 
-    return DoubleArray.of(data).reshape(shape);
+  private static DirectArrayBackend directArrayBackend() {
+    ArrayBackend current = getArrayBackend();
+    return current instanceof DirectArrayBackend ? (DirectArrayBackend) current
+        : new DirectArrayBackend();
   }
 
-  public static void writeIdx(BaseArray<?> array, OutputStream outputStream) {
-    DataOutputStream dis = new DataOutputStream(new BufferedOutputStream(outputStream));
-    int dims = array.dims();
-    int size;
-    if (array instanceof DoubleArray) {
-      size = 0x0E;
-    } else if (array instanceof IntArray) {
-      size = 0x0C;
-    } else {
-      throw new IllegalArgumentException();
+  private static OpenOption[] openOptions(FileChannel.MapMode mode) {
+    return mode == FileChannel.MapMode.READ_ONLY ? new OpenOption[] {StandardOpenOption.READ}
+        : new OpenOption[] {StandardOpenOption.READ, StandardOpenOption.WRITE};
+  }
+
+  /**
+   * Returns the array of elements in IDX (row-major) order with the shape of the IDX file.
+   */
+  private static <E extends BaseArray<E>> E fromIdxOrder(E x, Idx.Header header) {
+    if (header.shape.length <= 1) {
+      return x;
+    }
+    return x.reshape(header.reversedShape()).transpose();
+  }
+
+  /**
+   * Writes a double or int array to an IDX file. The elements are written in bulk directly from the
+   * memory of the array.
+   *
+   * @param array the array
+   * @param outputStream the output stream
+   * @throws IOException if an IO error occurs
+   * @throws IllegalArgumentException if the array is neither a double nor an int array
+   */
+  public static void writeIdx(BaseArray<?> array, OutputStream outputStream) throws IOException {
+    Idx.write(array, Channels.newChannel(outputStream));
+    outputStream.flush();
+  }
+
+  /**
+   * Writes a double or int array to an IDX file.
+   *
+   * @param array the array
+   * @param path the path of the file
+   * @throws IOException if an IO error occurs
+   * @see #writeIdx(BaseArray, OutputStream)
+   */
+  public static void writeIdx(BaseArray<?> array, Path path) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+      Idx.write(array, channel);
+    }
+  }
+
+  /**
+   * Reads an array from a NumPy {@code .npy} stream. Depending on the element type of the file, the
+   * array is a {@link DoubleArray} (floats and doubles), an {@link IntArray} (signed integers of at
+   * most 32 bits and unsigned integers of at most 16 bits), a {@link LongArray} (64-bit signed and
+   * 32-bit unsigned integers), a {@link BooleanArray} or a {@link ComplexArray}.
+   *
+   * @param inputStream the input stream
+   * @return a new array
+   * @throws IOException if an IO error occurs
+   */
+  public static BaseArray<?> readNpy(InputStream inputStream) throws IOException {
+    DataInputStream in = new DataInputStream(new BufferedInputStream(inputStream));
+    return Npy.read(in, Npy.readHeader(in), factory());
+  }
+
+  /**
+   * Reads an array from a NumPy {@code .npy} file. The elements are memory mapped and decoded in
+   * bulk.
+   *
+   * @param path the path of the file
+   * @return a new array
+   * @throws IOException if an IO error occurs
+   * @see #readNpy(InputStream)
+   */
+  public static BaseArray<?> readNpy(Path path) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      return Npy.read(channel, Npy.readHeader(channel), factory());
+    }
+  }
+
+  /**
+   * Memory maps a NumPy {@code .npy} file of doubles ({@code f8}), ints ({@code i4}) or longs
+   * ({@code i8}) as an array stored in direct memory, without copying the elements. Both Fortran
+   * and C ordered files are mapped; the latter as a transposed view. Changes to the array are
+   * written to the file if the mode is {@link FileChannel.MapMode#READ_WRITE}.
+   *
+   * @param path the path of the file
+   * @param mode the map mode
+   * @return a {@link DoubleArray}, {@link IntArray} or {@link LongArray}
+   * @throws IOException if an IO error occurs
+   * @throws IllegalArgumentException if the element type cannot be mapped
+   */
+  public static BaseArray<?> mapNpy(Path path, FileChannel.MapMode mode) throws IOException {
+    DirectArrayBackend backend = directArrayBackend();
+    try (FileChannel channel = FileChannel.open(path, openOptions(mode))) {
+      Npy.Header header = Npy.readHeader(channel);
+      if (header.kind == 'f' && header.elementBytes == 8) {
+        return Npy.fromFileOrder(backend.mapDoubleArray(channel, mode, header.length,
+            header.order, header.fileShape()), header);
+      } else if (header.kind == 'i' && header.elementBytes == 4) {
+        return Npy.fromFileOrder(backend.mapIntArray(channel, mode, header.length, header.order,
+            header.fileShape()), header);
+      } else if (header.kind == 'i' && header.elementBytes == 8) {
+        return Npy.fromFileOrder(backend.mapLongArray(channel, mode, header.length, header.order,
+            header.fileShape()), header);
+      } else {
+        throw new IllegalArgumentException(
+            "Cannot map elements of type " + header.descr() + " (use readNpy)");
+      }
+    }
+  }
+
+  /**
+   * Writes a double, int, long, boolean or complex array in the NumPy {@code .npy} format. The
+   * array is written in Fortran (i.e., column-major) order.
+   *
+   * @param array the array
+   * @param outputStream the output stream
+   * @throws IOException if an IO error occurs
+   */
+  public static void writeNpy(BaseArray<?> array, OutputStream outputStream) throws IOException {
+    Npy.write(array, Channels.newChannel(outputStream));
+    outputStream.flush();
+  }
+
+  /**
+   * Writes an array to a NumPy {@code .npy} file.
+   *
+   * @param array the array
+   * @param path the path of the file
+   * @throws IOException if an IO error occurs
+   * @see #writeNpy(BaseArray, OutputStream)
+   */
+  public static void writeNpy(BaseArray<?> array, Path path) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+      Npy.write(array, channel);
+    }
+  }
+
+  /**
+   * Reads the arrays of a NumPy {@code .npz} archive.
+   *
+   * @param path the path of the archive
+   * @return the arrays (in archive order) by name
+   * @throws IOException if an IO error occurs
+   * @see #readNpy(InputStream)
+   */
+  public static Map<String, BaseArray<?>> readNpz(Path path) throws IOException {
+    Map<String, BaseArray<?>> arrays = new LinkedHashMap<>();
+    try (ZipFile zip = new ZipFile(path.toFile())) {
+      Enumeration<? extends ZipEntry> entries = zip.entries();
+      while (entries.hasMoreElements()) {
+        ZipEntry entry = entries.nextElement();
+        String name = entry.getName();
+        if (name.endsWith(".npy")) {
+          try (InputStream in = zip.getInputStream(entry)) {
+            arrays.put(name.substring(0, name.length() - 4), readNpy(in));
+          }
+        }
+      }
     }
-    throw new UnsupportedOperationException();
+    return arrays;
+  }
 
+  /**
+   * Writes the arrays to a (compressed) NumPy {@code .npz} archive.
+   *
+   * @param arrays the arrays by name
+   * @param path the path of the archive
+   * @throws IOException if an IO error occurs
+   * @see #writeNpy(BaseArray, OutputStream)
+   */
+  public static void writeNpz(Map<String, ? extends BaseArray<?>> arrays, Path path)
+      throws IOException {
+    try (ZipOutputStream zip = new ZipOutputStream(
+        new BufferedOutputStream(Files.newOutputStream(path)))) {
+      WritableByteChannel channel = Channels.newChannel(zip);
+      for (Map.Entry<String, ? extends BaseArray<?>> entry : arrays.entrySet()) {
+        zip.putNextEntry(new ZipEntry(entry.getKey() + ".npy"));
+        Npy.write(entry.getValue(), channel);
+        zip.closeEntry();
+      }
+    }
   }
 
   public static IntArray hist(DoubleArray array, double min, double max, int bins) {
@@ -246,7 +589,7 @@ public final class Arrays {
    * @see org.briljantframework.array.api.ArrayFactory#newArray(int...)
    */
   public static <T> Array<T> array(int... shape) {
-    return ARRAY_FACTORY.newArray(shape);
+    return factory().newArray(shape);
   }
 
   /**
@@ -254,186 +597,200 @@ public final class Arrays {
    */
   @SafeVarargs
   public static <T> Array<T> vector(T... data) {
-    return ARRAY_FACTORY.newVector(data);
+    return factory().newVector(data);
   }
 
   /**
    * @see org.briljantframework.array.api.ArrayFactory#newMatrix(Object[][])
    */
   public static <T> Array<T> matrix(T[][] data) {
-    return ARRAY_FACTORY.newMatrix(data);
+    return factory().newMatrix(data);
   }
 
   /**
    * @see org.briljantframework.array.api.ArrayFactory#ones(int...)
    */
   public static DoubleArray ones(int... shape) {
-    return ARRAY_FACTORY.ones(shape);
+    return factory().ones(shape);
   }
 
   public static DoubleArray zeros(int... shape) {
-    return ARRAY_FACTORY.newDoubleArray(shape);
+    return factory().newDoubleArray(shape);
   }
 
   /**
    * @see org.briljantframework.array.api.ArrayFactory#eye(int)
    */
   public static DoubleArray eye(int size) {
-    return ARRAY_FACTORY.eye(size);
+    return factory().eye(size);
   }
 
   /**
    * @see org.briljantframework.array.api.ArrayFactory#newDoubleVector(double[])
    */
   public static DoubleArray doubleVector(double... data) {
-    return ARRAY_FACTORY.newDoubleVector(data);
+    return factory().newDoubleVector(data);
   }
 
   /**
    * @see org.briljantframework.array.api.ArrayFactory#newDoubleMatrix(double[][])
    */
   public static DoubleArray doubleMatrix(double[][] data) {
-    return ARRAY_FACTORY.newDoubleMatrix(data);
+    return factory().newDoubleMatrix(data);
   }
 
   /**
    * @see org.briljantframework.array.api.ArrayFactory#linspace(double, double, int)
    */
   public static DoubleArray linspace(double start, double end, int size) {
-    return ARRAY_FACTORY.linspace(start, end, size);
+    return factory().linspace(start, end, size);
   }
 
   /**
    * @see org.briljantframework.array.api.ArrayFactory#newDoubleArray(int...)
    */
   public static DoubleArray doubleArray(int... shape) {
-    return ARRAY_FACTORY.newDoubleArray(shape);
+    return factory().newDoubleArray(shape);
   }
 
   /**
    * @see org.briljantframework.array.api.ArrayFactory#newComplexArray(int...)
    */
   public static ComplexArray complexArray(int... shape) {
-    return ARRAY_FACTORY.newComplexArray(shape);
+    return factory().newComplexArray(shape);
   }
 
   /**
    * @see org.briljantframework.array.api.ArrayFactory#newComplexVector(double[])
    */
   public static ComplexArray complexVector(double... data) {
-    return ARRAY_FACTORY.newComplexVector(data);
+    return factory().newComplexVector(data);
   }
 
   /**
    * @see org.briljantframework.array.api.ArrayFactory#newComplexVector(org.apache.commons.math3.complex.Complex[])
    */
   public static ComplexArray complexVector(Complex... data) {
-    return ARRAY_FACTORY.newComplexVector(data);
+    return factory().newComplexVector(data);
   }
 
   /**
    * @see org.briljantframework.array.api.ArrayFactory#newComplexMatrix(org.apache.commons.math3.complex.Complex[][])
    */
   public static ComplexArray complexMatrix(Complex[][] data) {
-    return ARRAY_FACTORY.newComplexMatrix(data);
+    return factory().newComplexMatrix(data);
   }
 
   /**
    * @see org.briljantframework.array.api.ArrayFactory#newIntVector(int[])
    */
   public static IntArray intVector(int... data) {
-    return ARRAY_FACTORY.newIntVector(data);
+    return factory().newIntVector(data);
   }
 
   /**
    * @see org.briljantframework.array.api.ArrayFactory#newIntMatrix(int[][])
    */
   public static IntArray intMatrix(int[][] data) {
-    return ARRAY_FACTORY.newIntMatrix(data);
+    return factory().newIntMatrix(data);
   }
 
   /**
    * @see org.briljantframework.array.api.ArrayFactory#range(int)
    */
   public static Range range(int end) {
-    return ARRAY_FACTORY.range(end);
+    return factory().range(end);
   }
 
   /**
    * @see org.briljantframework.array.api.ArrayFactory#range(int, int)
    */
   public static Range range(int start, int end) {
-    return ARRAY_FACTORY.range(start, end);
+    return factory().range(start, end);
   }
 
   /**
    * @see org.briljantframework.array.api.ArrayFactory#range(int, int, int)
    */
   public static Range range(int start, int end, int step) {
-    return ARRAY_FACTORY.range(start, end, step);
+    return factory().range(start, end, step);
   }
 
   /**
    * @see org.briljantframework.array.api.ArrayFactory#newIntArray(int...)
    */
   public static IntArray intArray(int... shape) {
-    return ARRAY_FACTORY.newIntArray(shape);
+    return factory().newIntArray(shape);
   }
 
   /**
    * @see org.briljantframework.array.api.ArrayFactory#newLongArray(int...)
    */
   public static LongArray longArray(int... shape) {
-    return ARRAY_FACTORY.newLongArray(shape);
+    return factory().newLongArray(shape);
   }
 
   /**
    * @see org.briljantframework.array.api.ArrayFactory#newLongVector(long[])
    */
   public static LongArray longVector(long... data) {
-    return ARRAY_FACTORY.newLongVector(data);
+    return factory().newLongVector(data);
+  }
+
+  /**
+   * @see org.briljantframework.array.api.ArrayFactory#newFloatArray(int...)
+   */
+  public static FloatArray floatArray(int... shape) {
+    return factory().newFloatArray(shape);
+  }
+
+  /**
+   * @see org.briljantframework.array.api.ArrayFactory#newFloatVector(float[])
+   */
+  public static FloatArray floatVector(float... data) {
+    return factory().newFloatVector(data);
   }
 
   /**
    * @see org.briljantframework.array.api.ArrayFactory#newLongMatrix(long[][])
    */
   public static LongArray longMatrix(long[][] data) {
-    return ARRAY_FACTORY.newLongMatrix(data);
+    return factory().newLongMatrix(data);
   }
 
   /**
    * @see org.briljantframework.array.api.ArrayFactory#newBooleanArray(int...)
    */
   public static BooleanArray booleanArray(int... shape) {
-    return ARRAY_FACTORY.newBooleanArray(shape);
+    return factory().newBooleanArray(shape);
   }
 
   /**
    * @see org.briljantframework.array.api.ArrayFactory#newBooleanVector(boolean[])
    */
   public static BooleanArray booleanVector(boolean[] data) {
-    return ARRAY_FACTORY.newBooleanVector(data);
+    return factory().newBooleanVector(data);
   }
 
   /**
    * @see org.briljantframework.array.api.ArrayFactory#newBooleanMatrix(boolean[][])
    */
   public static BooleanArray booleanMatrix(boolean[][] data) {
-    return ARRAY_FACTORY.newBooleanMatrix(data);
+    return factory().newBooleanMatrix(data);
   }
 
   /**
    * @see ArrayFactory#rand(int)
    */
   public static DoubleArray rand(int size) {
-    return ARRAY_FACTORY.rand(size);
+    return factory().rand(size);
   }
 
   /**
    * @see ArrayFactory#randn(int)
    */
   public static DoubleArray randn(int size) {
-    return ARRAY_FACTORY.randn(size);
+    return factory().randn(size);
   }
 
   /**
@@ -481,14 +838,14 @@ public final class Arrays {
    * @see org.briljantframework.array.api.ArrayFactory#diag(org.briljantframework.array.BaseArray)
    */
   public static <T, S extends BaseArray<S>> S diag(S data) {
-    return ARRAY_FACTORY.diag(data);
+    return factory().diag(data);
   }
 
   /**
    * @see org.briljantframework.array.api.ArrayRoutines#mean(org.briljantframework.array.DoubleArray)
    */
   public static double mean(DoubleArray x) {
-    return ARRAY_ROUTINES.mean(x);
+    return routines().mean(x);
   }
 
   /**
@@ -496,14 +853,14 @@ public final class Arrays {
    *      org.briljantframework.array.DoubleArray)
    */
   public static DoubleArray mean(int dim, DoubleArray x) {
-    return ARRAY_ROUTINES.mean(dim, x);
+    return routines().mean(dim, x);
   }
 
   /**
    * @see org.briljantframework.array.api.ArrayRoutines#var(org.briljantframework.array.DoubleArray)
    */
   public static double var(DoubleArray x) {
-    return ARRAY_ROUTINES.var(x);
+    return routines().var(x);
   }
 
   /**
@@ -511,14 +868,14 @@ public final class Arrays {
    *      org.briljantframework.array.DoubleArray)
    */
   public static DoubleArray var(int dim, DoubleArray x) {
-    return ARRAY_ROUTINES.var(dim, x);
+    return routines().var(dim, x);
   }
 
   /**
    * @see org.briljantframework.array.api.ArrayRoutines#std(org.briljantframework.array.DoubleArray)
    */
   public static double std(DoubleArray x) {
-    return ARRAY_ROUTINES.std(x);
+    return routines().std(x);
   }
 
   /**
@@ -526,18 +883,18 @@ public final class Arrays {
    *      org.briljantframework.array.DoubleArray)
    */
   public static DoubleArray std(int dim, DoubleArray x) {
-    return ARRAY_ROUTINES.std(dim, x);
+    return routines().std(dim, x);
   }
 
   public static int sum(BooleanArray x) {
-    return sum(x.intArray());
+    return routines().sum(x);
   }
 
   /**
    * @see org.briljantframework.array.api.ArrayRoutines#sum(org.briljantframework.array.IntArray)
    */
   public static int sum(IntArray x) {
-    return ARRAY_ROUTINES.sum(x);
+    return routines().sum(x);
   }
 
   public static IntArray sum(int dim, BooleanArray x) {
@@ -549,14 +906,14 @@ public final class Arrays {
    *      org.briljantframework.array.IntArray)
    */
   public static IntArray sum(int dim, IntArray x) {
-    return ARRAY_ROUTINES.sum(dim, x);
+    return routines().sum(dim, x);
   }
 
   /**
    * @see org.briljantframework.array.api.ArrayRoutines#sum(org.briljantframework.array.DoubleArray)
    */
   public static double sum(DoubleArray x) {
-    return ARRAY_ROUTINES.sum(x);
+    return routines().sum(x);
   }
 
   /**
@@ -564,14 +921,14 @@ public final class Arrays {
    *      org.briljantframework.array.DoubleArray)
    */
   public static DoubleArray sum(int dim, DoubleArray x) {
-    return ARRAY_ROUTINES.sum(dim, x);
+    return routines().sum(dim, x);
   }
 
   /**
    * @see org.briljantframework.array.api.ArrayRoutines#prod(org.briljantframework.array.DoubleArray)
    */
   public static double prod(DoubleArray x) {
-    return ARRAY_ROUTINES.prod(x);
+    return routines().prod(x);
   }
 
   /**
@@ -579,14 +936,14 @@ public final class Arrays {
    *      org.briljantframework.array.DoubleArray)
    */
   public static DoubleArray prod(int dim, DoubleArray x) {
-    return ARRAY_ROUTINES.prod(dim, x);
+    return routines().prod(dim, x);
   }
 
   /**
    * @see org.briljantframework.array.api.ArrayRoutines#min(org.briljantframework.array.DoubleArray)
    */
   public static double min(DoubleArray x) {
-    return ARRAY_ROUTINES.min(x);
+    return routines().min(x);
   }
 
   /**
@@ -594,14 +951,14 @@ public final class Arrays {
    *      org.briljantframework.array.DoubleArray)
    */
   public static DoubleArray min(int dim, DoubleArray x) {
-    return ARRAY_ROUTINES.min(dim, x);
+    return routines().min(dim, x);
   }
 
   /**
    * @see org.briljantframework.array.api.ArrayRoutines#min(org.briljantframework.array.IntArray)
    */
   public static int min(IntArray x) {
-    return ARRAY_ROUTINES.min(x);
+    return routines().min(x);
   }
 
   /**
@@ -609,14 +966,14 @@ public final class Arrays {
    *      org.briljantframework.array.IntArray)
    */
   public static IntArray min(int dim, IntArray x) {
-    return ARRAY_ROUTINES.min(dim, x);
+    return routines().min(dim, x);
   }
 
   /**
    * @see org.briljantframework.array.api.ArrayRoutines#min(org.briljantframework.array.LongArray)
    */
   public static long min(LongArray x) {
-    return ARRAY_ROUTINES.min(x);
+    return routines().min(x);
   }
 
   /**
@@ -624,7 +981,7 @@ public final class Arrays {
    *      org.briljantframework.array.LongArray)
    */
   public static LongArray min(int dim, LongArray x) {
-    return ARRAY_ROUTINES.min(dim, x);
+    return routines().min(dim, x);
   }
 
   /**
@@ -632,7 +989,7 @@ public final class Arrays {
    *      java.util.Comparator)
    */
   public static <T> T min(Array<T> x, Comparator<T> cmp) {
-    return ARRAY_ROUTINES.min(x, cmp);
+    return routines().min(x, cmp);
   }
 
   /**
@@ -640,28 +997,28 @@ public final class Arrays {
    *      java.util.Comparator)
    */
   public static <T> Array<T> min(int dim, Array<T> x, Comparator<T> cmp) {
-    return ARRAY_ROUTINES.min(dim, x, cmp);
+    return routines().min(dim, x, cmp);
   }
 
   /**
    * @see org.briljantframework.array.api.ArrayRoutines#min(org.briljantframework.array.Array)
    */
   public static <T extends Comparable<T>> T min(Array<T> x) {
-    return ARRAY_ROUTINES.min(x);
+    return routines().min(x);
   }
 
   /**
    * @see org.briljantframework.array.api.ArrayRoutines#min(int, org.briljantframework.array.Array)
    */
   public static <T extends Comparable<T>> Array<T> min(int dim, Array<T> x) {
-    return ARRAY_ROUTINES.min(dim, x);
+    return routines().min(dim, x);
   }
 
   /**
    * @see org.briljantframework.array.api.ArrayRoutines#max(org.briljantframework.array.DoubleArray)
    */
   public static double max(DoubleArray x) {
-    return ARRAY_ROUTINES.max(x);
+    return routines().max(x);
   }
 
   /**
@@ -669,14 +1026,14 @@ public final class Arrays {
    *      org.briljantframework.array.DoubleArray)
    */
   public static DoubleArray max(int dim, DoubleArray x) {
-    return ARRAY_ROUTINES.max(dim, x);
+    return routines().max(dim, x);
   }
 
   /**
    * @see org.briljantframework.array.api.ArrayRoutines#max(org.briljantframework.array.IntArray)
    */
   public static int max(IntArray x) {
-    return ARRAY_ROUTINES.max(x);
+    return routines().max(x);
   }
 
   /**
@@ -684,14 +1041,14 @@ public final class Arrays {
    *      org.briljantframework.array.IntArray)
    */
   public static IntArray max(int dim, IntArray x) {
-    return ARRAY_ROUTINES.max(dim, x);
+    return routines().max(dim, x);
   }
 
   /**
    * @see org.briljantframework.array.api.ArrayRoutines#max(org.briljantframework.array.LongArray)
    */
   public static long max(LongArray x) {
-    return ARRAY_ROUTINES.max(x);
+    return routines().max(x);
   }
 
   /**
@@ -699,7 +1056,7 @@ public final class Arrays {
    *      org.briljantframework.array.LongArray)
    */
   public static LongArray max(int dim, LongArray x) {
-    return ARRAY_ROUTINES.max(dim, x);
+    return routines().max(dim, x);
   }
 
   /**
@@ -707,7 +1064,7 @@ public final class Arrays {
    *      java.util.Comparator)
    */
   public static <T> T max(Array<T> x, Comparator<T> cmp) {
-    return ARRAY_ROUTINES.max(x, cmp);
+    return routines().max(x, cmp);
   }
 
   /**
@@ -715,74 +1072,74 @@ public final class Arrays {
    *      java.util.Comparator)
    */
   public static <T> Array<T> max(int dim, Array<T> x, Comparator<T> cmp) {
-    return ARRAY_ROUTINES.max(dim, x, cmp);
+    return routines().max(dim, x, cmp);
   }
 
   /**
    * @see org.briljantframework.array.api.ArrayRoutines#max(org.briljantframework.array.Array)
    */
   public static <T extends Comparable<T>> T max(Array<T> x) {
-    return ARRAY_ROUTINES.max(x);
+    return routines().max(x);
   }
 
   /**
    * @see org.briljantframework.array.api.ArrayRoutines#max(int, org.briljantframework.array.Array)
    */
   public static <T extends Comparable<T>> Array<T> max(int dim, Array<T> x) {
-    return ARRAY_ROUTINES.max(dim, x);
+    return routines().max(dim, x);
   }
 
   /**
    * @see org.briljantframework.array.api.ArrayRoutines#norm2(org.briljantframework.array.DoubleArray)
    */
   public static double norm2(DoubleArray a) {
-    return ARRAY_ROUTINES.norm2(a);
+    return routines().norm2(a);
   }
 
   public static DoubleArray norm2(int dim, DoubleArray a) {
-    return ARRAY_ROUTINES.norm2(dim, a);
+    return routines().norm2(dim, a);
   }
 
   /**
    * @see org.briljantframework.array.api.ArrayRoutines#norm2(org.briljantframework.array.ComplexArray)
    */
   public static Complex norm2(ComplexArray a) {
-    return ARRAY_ROUTINES.norm2(a);
+    return routines().norm2(a);
   }
 
   /**
    * @see org.briljantframework.array.api.ArrayRoutines#asum(org.briljantframework.array.DoubleArray)
    */
   public static double asum(DoubleArray a) {
-    return ARRAY_ROUTINES.asum(a);
+    return routines().asum(a);
   }
 
   /**
    * @see org.briljantframework.array.api.ArrayRoutines#asum(org.briljantframework.array.ComplexArray)
    */
   public static double asum(ComplexArray a) {
-    return ARRAY_ROUTINES.asum(a);
+    return routines().asum(a);
   }
 
   /**
    * @see org.briljantframework.array.api.ArrayRoutines#iamax(org.briljantframework.array.DoubleArray)
    */
   public static int iamax(DoubleArray x) {
-    return ARRAY_ROUTINES.iamax(x);
+    return routines().iamax(x);
   }
 
   /**
    * @see org.briljantframework.array.api.ArrayRoutines#iamax(org.briljantframework.array.ComplexArray)
    */
   public static int iamax(ComplexArray x) {
-    return ARRAY_ROUTINES.iamax(x);
+    return routines().iamax(x);
   }
 
   /**
    * @see org.briljantframework.array.api.ArrayRoutines#cumsum(org.briljantframework.array.DoubleArray)
    */
   public static DoubleArray cumsum(DoubleArray x) {
-    return ARRAY_ROUTINES.cumsum(x);
+    return routines().cumsum(x);
   }
 
   /**
@@ -790,170 +1147,170 @@ public final class Arrays {
    *      org.briljantframework.array.DoubleArray)
    */
   public static DoubleArray cumsum(int dim, DoubleArray x) {
-    return ARRAY_ROUTINES.cumsum(dim, x);
+    return routines().cumsum(dim, x);
   }
 
   public static DoubleArray cos(ComplexArray array) {
-    return ARRAY_ROUTINES.abs(array);
+    return routines().abs(array);
   }
 
   public static DoubleArray sqrt(DoubleArray array) {
-    return ARRAY_ROUTINES.sqrt(array);
+    return routines().sqrt(array);
   }
 
   public static DoubleArray pow(DoubleArray in, double power) {
-    return ARRAY_ROUTINES.pow(in, power);
+    return routines().pow(in, power);
   }
 
   public static DoubleArray log2(DoubleArray array) {
-    return ARRAY_ROUTINES.log2(array);
+    return routines().log2(array);
   }
 
   public static DoubleArray acos(DoubleArray array) {
-    return ARRAY_ROUTINES.acos(array);
+    return routines().acos(array);
   }
 
   public static DoubleArray cosh(DoubleArray array) {
-    return ARRAY_ROUTINES.cosh(array);
+    return routines().cosh(array);
   }
 
   public static DoubleArray signum(DoubleArray in) {
-    return ARRAY_ROUTINES.signum(in);
+    return routines().signum(in);
   }
 
   public static DoubleArray cos(DoubleArray array) {
-    return ARRAY_ROUTINES.cos(array);
+    return routines().cos(array);
   }
 
   public static DoubleArray asin(DoubleArray array) {
-    return ARRAY_ROUTINES.asin(array);
+    return routines().asin(array);
   }
 
   public static LongArray abs(LongArray array) {
-    return ARRAY_ROUTINES.abs(array);
+    return routines().abs(array);
   }
 
   public static DoubleArray cbrt(DoubleArray array) {
-    return ARRAY_ROUTINES.cbrt(array);
+    return routines().cbrt(array);
   }
 
   public static DoubleArray abs(DoubleArray array) {
-    return ARRAY_ROUTINES.abs(array);
+    return routines().abs(array);
   }
 
   public static DoubleArray ceil(DoubleArray array) {
-    return ARRAY_ROUTINES.ceil(array);
+    return routines().ceil(array);
   }
 
   public static DoubleArray sinh(DoubleArray array) {
-    return ARRAY_ROUTINES.sinh(array);
+    return routines().sinh(array);
   }
 
   public static DoubleArray log(DoubleArray array) {
-    return ARRAY_ROUTINES.log(array);
+    return routines().log(array);
   }
 
   public static DoubleArray tanh(DoubleArray array) {
-    return ARRAY_ROUTINES.tanh(array);
+    return routines().tanh(array);
   }
 
   public static DoubleArray sin(DoubleArray array) {
-    return ARRAY_ROUTINES.sin(array);
+    return routines().sin(array);
   }
 
   public static DoubleArray scalb(DoubleArray array, int scaleFactor) {
-    return ARRAY_ROUTINES.scalb(array, scaleFactor);
+    return routines().scalb(array, scaleFactor);
   }
 
   public static DoubleArray exp(DoubleArray array) {
-    return ARRAY_ROUTINES.exp(array);
+    return routines().exp(array);
   }
 
   public static DoubleArray log10(DoubleArray in) {
-    return ARRAY_ROUTINES.log10(in);
+    return routines().log10(in);
   }
 
   public static DoubleArray floor(DoubleArray array) {
-    return ARRAY_ROUTINES.floor(array);
+    return routines().floor(array);
   }
 
   public static DoubleArray tan(DoubleArray array) {
-    return ARRAY_ROUTINES.tan(array);
+    return routines().tan(array);
   }
 
   public static IntArray abs(IntArray array) {
-    return ARRAY_ROUTINES.abs(array);
+    return routines().abs(array);
   }
 
   public static LongArray round(DoubleArray in) {
-    return ARRAY_ROUTINES.round(in);
+    return routines().round(in);
   }
 
   public static DoubleArray atan(DoubleArray array) {
-    return ARRAY_ROUTINES.atan(array);
+    return routines().atan(array);
   }
 
   public static ComplexArray sinh(ComplexArray array) {
-    return ARRAY_ROUTINES.sinh(array);
+    return routines().sinh(array);
   }
 
   public static ComplexArray exp(ComplexArray array) {
-    return ARRAY_ROUTINES.exp(array);
+    return routines().exp(array);
   }
 
   public static ComplexArray acos(ComplexArray array) {
-    return ARRAY_ROUTINES.acos(array);
+    return routines().acos(array);
   }
 
   public static ComplexArray sin(ComplexArray array) {
-    return ARRAY_ROUTINES.sin(array);
+    return routines().sin(array);
   }
 
   public static DoubleArray abs(ComplexArray array) {
-    return ARRAY_ROUTINES.abs(array);
+    return routines().abs(array);
   }
 
   public static ComplexArray sqrt(ComplexArray array) {
-    return ARRAY_ROUTINES.sqrt(array);
+    return routines().sqrt(array);
   }
 
   public static ComplexArray log(ComplexArray array) {
-    return ARRAY_ROUTINES.log(array);
+    return routines().log(array);
   }
 
   public static ComplexArray floor(ComplexArray array) {
-    return ARRAY_ROUTINES.floor(array);
+    return routines().floor(array);
   }
 
   public static ComplexArray tan(ComplexArray array) {
-    return ARRAY_ROUTINES.tan(array);
+    return routines().tan(array);
   }
 
   public static ComplexArray tanh(ComplexArray array) {
-    return ARRAY_ROUTINES.tanh(array);
+    return routines().tanh(array);
   }
 
   public static ComplexArray asin(ComplexArray array) {
-    return ARRAY_ROUTINES.asin(array);
+    return routines().asin(array);
   }
 
   public static ComplexArray cosh(ComplexArray array) {
-    return ARRAY_ROUTINES.cosh(array);
+    return routines().cosh(array);
   }
 
   public static ComplexArray atan(ComplexArray array) {
-    return ARRAY_ROUTINES.atan(array);
+    return routines().atan(array);
   }
 
   public static ComplexArray ceil(ComplexArray array) {
-    return ARRAY_ROUTINES.ceil(array);
+    return routines().ceil(array);
   }
 
   /**
    * @see org.briljantframework.array.api.ArrayRoutines#trace(org.briljantframework.array.DoubleArray)
    */
   public static double trace(DoubleArray x) {
-    return ARRAY_ROUTINES.trace(x);
+    return routines().trace(x);
   }
 
   /**
@@ -1198,7 +1555,7 @@ public final class Arrays {
    *      org.briljantframework.array.BaseArray)
    */
   public static <T extends BaseArray<T>> void copy(T from, T to) {
-    ARRAY_ROUTINES.copy(from, to);
+    routines().copy(from, to);
   }
 
   /**
@@ -1206,7 +1563,7 @@ public final class Arrays {
    *      org.briljantframework.array.BaseArray)
    */
   public static <T extends BaseArray<T>> void swap(T a, T b) {
-    ARRAY_ROUTINES.swap(a, b);
+    routines().swap(a, b);
   }
 
   /**
@@ -1618,6 +1975,35 @@ public final class Arrays {
     return new Broadcast<>(array);
   }
 
+  /**
+   * Returns a deferred expression over the given array. Element-wise operations on the expression
+   * are evaluated in a single pass, without allocating temporary arrays, when the expression is
+   * materialized.
+   *
+   * <pre>
+   * // computes a + b * exp(c) allocating only the result
+   * DoubleArray z = Arrays.lazy(c).exp().times(b).plus(a).materialize();
+   * </pre>
+   *
+   * @param array the array
+   * @return a new expression
+   * @see DoubleExpression
+   */
+  public static DoubleExpression lazy(DoubleArray array) {
+    return DoubleExpression.of(array);
+  }
+
+  /**
+   * Returns a deferred expression over the given array.
+   *
+   * @param array the array
+   * @return a new expression
+   * @see #lazy(DoubleArray)
+   */
+  public static IntExpression lazy(IntArray array) {
+    return IntExpression.of(array);
+  }
+
   /**
    * Interchange two dimensions of an array.
    *
@@ -1693,7 +2079,7 @@ public final class Arrays {
    * @return an array of sums
    */
   public static ComplexArray sum(int dim, ComplexArray x) {
-    return ARRAY_ROUTINES.sum(dim, x);
+    return routines().sum(dim, x);
   }
 
   /**
@@ -1703,7 +2089,7 @@ public final class Arrays {
    * @return the sum
    */
   public static Complex sum(ComplexArray x) {
-    return ARRAY_ROUTINES.sum(x);
+    return routines().sum(x);
   }
 
   /**
@@ -1713,7 +2099,7 @@ public final class Arrays {
    * @return the sum
    */
   public static long sum(LongArray x) {
-    return ARRAY_ROUTINES.sum(x);
+    return routines().sum(x);
   }
 
   /**
@@ -1724,7 +2110,7 @@ public final class Arrays {
    * @return an array of sums
    */
   public static LongArray sum(int dim, LongArray x) {
-    return ARRAY_ROUTINES.sum(dim, x);
+    return routines().sum(dim, x);
   }
 
   /**
@@ -1735,7 +2121,9 @@ public final class Arrays {
    * @see DoubleArray#sort()
    */
   public static DoubleArray sort(DoubleArray x) {
-    return sort(x, Double::compare);
+    DoubleArray c = x.copy();
+    c.sort();
+    return c;
   }
 
   /**
@@ -1759,7 +2147,9 @@ public final class Arrays {
    * @return a new array
    */
   public static DoubleArray sort(int dim, DoubleArray x) {
-    return sort(dim, x, Double::compare);
+    DoubleArray c = x.copy();
+    forEachVector(dim, c, i -> c.getVector(dim, i).sort());
+    return c;
   }
 
   /**
@@ -1771,10 +2161,7 @@ public final class Arrays {
    */
   public static DoubleArray sort(int dim, DoubleArray x, DoubleComparator comparator) {
     DoubleArray c = x.copy();
-    int vectors = c.vectors(dim);
-    for (int i = 0; i < vectors; i++) {
-      c.getVector(dim, i).sort(comparator);
-    }
+    forEachVector(dim, c, i -> c.getVector(dim, i).sort(comparator));
     return c;
   }
 
@@ -1786,7 +2173,9 @@ public final class Arrays {
    * @see IntArray#sort()
    */
   public static IntArray sort(IntArray x) {
-    return sort(x, Integer::compare);
+    IntArray c = x.copy();
+    c.sort();
+    return c;
   }
 
   /**
@@ -1810,7 +2199,9 @@ public final class Arrays {
    * @return a new array
    */
   public static IntArray sort(int dim, IntArray x) {
-    return sort(dim, x, Integer::compare);
+    IntArray c = x.copy();
+    forEachVector(dim, c, i -> c.getVector(dim, i).sort());
+    return c;
   }
 
   /**
@@ -1822,10 +2213,7 @@ public final class Arrays {
    */
   public static IntArray sort(int dim, IntArray x, IntComparator comparator) {
     IntArray c = x.copy();
-    int vectors = c.vectors(dim);
-    for (int i = 0; i < vectors; i++) {
-      c.getVector(dim, i).sort(comparator);
-    }
+    forEachVector(dim, c, i -> c.getVector(dim, i).sort(comparator));
     return c;
   }
 
@@ -1837,7 +2225,9 @@ public final class Arrays {
    * @see LongArray#sort()
    */
   public static LongArray sort(LongArray x) {
-    return sort(x, Long::compare);
+    LongArray c = x.copy();
+    c.sort();
+    return c;
   }
 
   /**
@@ -1861,7 +2251,9 @@ public final class Arrays {
    * @return a new array
    */
   public static LongArray sort(int dim, LongArray x) {
-    return sort(dim, x, Long::compare);
+    LongArray c = x.copy();
+    forEachVector(dim, c, i -> c.getVector(dim, i).sort());
+    return c;
   }
 
   /**
@@ -1873,10 +2265,7 @@ public final class Arrays {
    */
   public static LongArray sort(int dim, LongArray x, LongComparator comparator) {
     LongArray c = x.copy();
-    int vectors = c.vectors(dim);
-    for (int i = 0; i < vectors; i++) {
-      c.getVector(dim, i).sort(comparator);
-    }
+    forEachVector(dim, c, i -> c.getVector(dim, i).sort(comparator));
     return c;
   }
 
@@ -1929,12 +2318,10 @@ public final class Arrays {
    */
   public static <S extends BaseArray<S>> S sort(int dim, S x, IndexComparator<S> cmp) {
     S out = x.copy();
-    int m = x.vectors(dim);
-    for (int i = 0; i < m; i++) {
+    forEachVector(dim, out, i -> {
       S v = out.getVector(dim, i);
       QuickSort.quickSort(0, v.size(), (a, b) -> cmp.compare(v, a, b), v);
-    }
-
+    });
     return out;
   }
 
@@ -1964,26 +2351,53 @@ public final class Arrays {
   }
 
   /**
-   * Return the order of the values in array (with smallest index first).
+   * Return the order of the values in array (with smallest index first). Equal values retain their
+   * relative order and {@code NaN} (and {@code NA}) values are placed last.
    *
    * @param array the array
    * @return the indexes in order
    */
   public static IntArray order(DoubleArray array) {
-    return order(array, Double::compare);
+    double[] elements = AbstractDoubleArray.strided(array).elements();
+    return factory().newIntVector(RadixSort.order(elements, 0, elements.length));
   }
 
   /**
-   * Return the order of the values in the given array (according to the comparator).
+   * Return the order of the values in the given array (according to the comparator). Equal values
+   * retain their relative order.
    *
    * @param array the array
    * @param cmp the comparator
    * @return the indexes in order
    */
   public static IntArray order(DoubleArray array, DoubleComparator cmp) {
-    IntArray order = Arrays.range(array.size()).copy();
-    order.sort((a, b) -> cmp.compare(array.get(a), array.get(b)));
-    return order;
+    double[] elements = AbstractDoubleArray.strided(array).elements();
+    return factory()
+        .newIntVector(MergeSort.order(parallelPolicy(), elements, 0, elements.length, cmp));
+  }
+
+  /**
+   * Return the order of the values in array (with smallest index first). Equal values retain their
+   * relative order.
+   *
+   * @param array the array
+   * @return the indexes in order
+   */
+  public static IntArray order(IntArray array) {
+    int[] elements = elements(array);
+    return factory().newIntVector(RadixSort.order(elements, 0, elements.length));
+  }
+
+  /**
+   * Return the order of the values in array (with smallest index first). Equal values retain their
+   * relative order.
+   *
+   * @param array the array
+   * @return the indexes in order
+   */
+  public static IntArray order(LongArray array) {
+    long[] elements = elements(array);
+    return factory().newIntVector(RadixSort.order(elements, 0, elements.length));
   }
 
   /**
@@ -1994,7 +2408,12 @@ public final class Arrays {
    * @return the order of each dimension
    */
   public static IntArray order(int dim, DoubleArray array) {
-    return order(dim, array, Double::compare);
+    IntArray order = IntArray.zeros(array.getShape());
+    forEachVector(dim, array, i -> {
+      double[] elements = AbstractDoubleArray.strided(array.getVector(dim, i)).elements();
+      order.getVector(dim, i).assign(RadixSort.order(elements, 0, elements.length));
+    });
+    return order;
   }
 
   /**
@@ -2006,14 +2425,199 @@ public final class Arrays {
    * @return the order of each dimension
    */
   public static IntArray order(int dim, DoubleArray array, DoubleComparator cmp) {
-    int vectors = array.vectors(dim);
     IntArray order = IntArray.zeros(array.getShape());
-    for (int i = 0; i < vectors; i++) {
-      order.setVector(dim, i, order(array.getVector(dim, i), cmp));
-    }
+    forEachVector(dim, array, i -> {
+      double[] elements = AbstractDoubleArray.strided(array.getVector(dim, i)).elements();
+      order.getVector(dim, i)
+          .assign(MergeSort.order(ParallelPolicy.serial(), elements, 0, elements.length, cmp));
+    });
     return order;
   }
 
+  /**
+   * Returns the {@code n}-th smallest (zero-based) element, i.e., the element which would be at
+   * position {@code n} if the array was sorted. The element is found in linear expected time
+   * without sorting the array. {@code NaN} (and {@code NA}) values are larger than all other
+   * values.
+   *
+   * @param x the array
+   * @param n the position
+   * @return the {@code n}-th smallest element
+   */
+  public static double nthElement(DoubleArray x, int n) {
+    Check.argument(n >= 0 && n < x.size(), "Illegal position %s (size %s)", n, x.size());
+    double[] elements = AbstractDoubleArray.strided(x).elements();
+    return Selection.select(elements, 0, elements.length, n);
+  }
+
+  /**
+   * Returns the {@code n}-th smallest element of each vector along the given dimension.
+   *
+   * @param dim the dimension
+   * @param x the array
+   * @param n the position
+   * @return an array of the {@code n}-th smallest elements
+   * @see #nthElement(DoubleArray, int)
+   */
+  public static DoubleArray nthElement(int dim, DoubleArray x, int n) {
+    Check.argument(n >= 0 && n < x.size(dim), "Illegal position %s (size %s)", n, x.size(dim));
+    DoubleArray out = factory().newDoubleArray(ArrayUtils.remove(x.getShape(), dim));
+    forEachVector(dim, x, i -> {
+      double[] elements = AbstractDoubleArray.strided(x.getVector(dim, i)).elements();
+      out.set(i, Selection.select(elements, 0, elements.length, n));
+    });
+    return out;
+  }
+
+  /**
+   * Returns the given percentiles (between {@code 0} and {@code 100}) of the elements of the
+   * array. Percentiles which fall between two elements are linearly interpolated. All percentiles
+   * are computed in a single (linear time) selection pass.
+   *
+   * @param x the array
+   * @param percentiles the percentiles
+   * @return a vector with the value of each percentile
+   */
+  public static DoubleArray percentile(DoubleArray x, double... percentiles) {
+    Check.argument(x.size() > 0, "Empty array");
+    double[] elements = AbstractDoubleArray.strided(x).elements();
+    return factory()
+        .newDoubleVector(Selection.percentile(elements, 0, elements.length, percentiles));
+  }
+
+  /**
+   * Returns the given percentile of each vector along the given dimension.
+   *
+   * @param dim the dimension
+   * @param x the array
+   * @param percentile the percentile (between {@code 0} and {@code 100})
+   * @return an array of percentiles
+   * @see #percentile(DoubleArray, double...)
+   */
+  public static DoubleArray percentile(int dim, DoubleArray x, double percentile) {
+    Check.argument(x.size(dim) > 0, "Empty dimension");
+    DoubleArray out = factory().newDoubleArray(ArrayUtils.remove(x.getShape(), dim));
+    forEachVector(dim, x, i -> {
+      double[] elements = AbstractDoubleArray.strided(x.getVector(dim, i)).elements();
+      out.set(i, Selection.percentile(elements, 0, elements.length, percentile)[0]);
+    });
+    return out;
+  }
+
+  /**
+   * Returns the median of the elements of the array.
+   *
+   * @param x the array
+   * @return the median
+   * @see #percentile(DoubleArray, double...)
+   */
+  public static double median(DoubleArray x) {
+    return percentile(x, 50).get(0);
+  }
+
+  /**
+   * Returns the median of each vector along the given dimension.
+   *
+   * @param dim the dimension
+   * @param x the array
+   * @return an array of medians
+   */
+  public static DoubleArray median(int dim, DoubleArray x) {
+    return percentile(dim, x, 50);
+  }
+
+  /**
+   * Returns the {@code k} largest elements of the array in descending order. The elements are found
+   * using a bounded heap, i.e., in {@code O(n log k)} time.
+   *
+   * @param x the array
+   * @param k the number of elements
+   * @return a vector of the largest elements
+   */
+  public static DoubleArray topK(DoubleArray x, int k) {
+    Check.argument(k >= 0 && k <= x.size(), "Illegal k %s (size %s)", k, x.size());
+    double[] elements = AbstractDoubleArray.strided(x).elements();
+    return factory().newDoubleVector(Selection.top(elements, 0, elements.length, k));
+  }
+
+  /**
+   * Returns the {@code k} largest elements of each vector along the given dimension in descending
+   * order.
+   *
+   * @param dim the dimension
+   * @param x the array
+   * @param k the number of elements
+   * @return an array with {@code k} elements along the given dimension
+   */
+  public static DoubleArray topK(int dim, DoubleArray x, int k) {
+    Check.argument(k >= 0 && k <= x.size(dim), "Illegal k %s (size %s)", k, x.size(dim));
+    int[] shape = x.getShape();
+    shape[dim] = k;
+    DoubleArray out = factory().newDoubleArray(shape);
+    forEachVector(dim, x, i -> {
+      double[] elements = AbstractDoubleArray.strided(x.getVector(dim, i)).elements();
+      out.getVector(dim, i).assign(Selection.top(elements, 0, elements.length, k));
+    });
+    return out;
+  }
+
+  /**
+   * Returns the indexes of the {@code k} largest elements of the array in descending order of the
+   * elements. Equal elements are ordered by index.
+   *
+   * @param x the array
+   * @param k the number of elements
+   * @return a vector of indexes
+   */
+  public static IntArray argTopK(DoubleArray x, int k) {
+    Check.argument(k >= 0 && k <= x.size(), "Illegal k %s (size %s)", k, x.size());
+    double[] elements = AbstractDoubleArray.strided(x).elements();
+    return factory().newIntVector(Selection.argTop(elements, 0, elements.length, k));
+  }
+
+  /**
+   * Returns the indexes of the {@code k} largest elements of each vector along the given dimension.
+   *
+   * @param dim the dimension
+   * @param x the array
+   * @param k the number of elements
+   * @return an array with {@code k} indexes along the given dimension
+   * @see #argTopK(DoubleArray, int)
+   */
+  public static IntArray argTopK(int dim, DoubleArray x, int k) {
+    Check.argument(k >= 0 && k <= x.size(dim), "Illegal k %s (size %s)", k, x.size(dim));
+    int[] shape = x.getShape();
+    shape[dim] = k;
+    IntArray out = factory().newIntArray(shape);
+    forEachVector(dim, x, i -> {
+      double[] elements = AbstractDoubleArray.strided(x.getVector(dim, i)).elements();
+      out.getVector(dim, i).assign(Selection.argTop(elements, 0, elements.length, k));
+    });
+    return out;
+  }
+
+  private static int[] elements(IntArray x) {
+    if (x instanceof AbstractIntArray) {
+      return ((AbstractIntArray) x).elements();
+    }
+    int[] elements = new int[x.size()];
+    for (int i = 0; i < elements.length; i++) {
+      elements[i] = x.get(i);
+    }
+    return elements;
+  }
+
+  private static long[] elements(LongArray x) {
+    if (x instanceof AbstractLongArray) {
+      return ((AbstractLongArray) x).elements();
+    }
+    long[] elements = new long[x.size()];
+    for (int i = 0; i < elements.length; i++) {
+      elements[i] = x.get(i);
+    }
+    return elements;
+  }
+
   /**
    * Searches the specified array for the specified object using the binary search algorithm. The
    * array must be sorted into ascending order
@@ -2137,35 +2741,35 @@ public final class Arrays {
   }
 
   public static DoubleArray div(DoubleArray nominator, DoubleArray denominator) {
-    return ARRAY_ROUTINES.div(nominator, denominator);
+    return routines().div(nominator, denominator);
   }
 
   public static void minusAssign(DoubleArray a, DoubleArray out) {
-    ARRAY_ROUTINES.minusAssign(a, out);
+    routines().minusAssign(a, out);
   }
 
   public static DoubleArray minus(DoubleArray a, DoubleArray b) {
-    return ARRAY_ROUTINES.minus(a, b);
+    return routines().minus(a, b);
   }
 
   public static void plusAssign(DoubleArray a, DoubleArray out) {
-    ARRAY_ROUTINES.plusAssign(a, out);
+    routines().plusAssign(a, out);
   }
 
   public static void timesAssign(DoubleArray a, DoubleArray out) {
-    ARRAY_ROUTINES.timesAssign(a, out);
+    routines().timesAssign(a, out);
   }
 
   public static DoubleArray plus(DoubleArray a, DoubleArray b) {
-    return ARRAY_ROUTINES.plus(a, b);
+    return routines().plus(a, b);
   }
 
   public static void divAssign(DoubleArray nominator, DoubleArray denominatorOut) {
-    ARRAY_ROUTINES.divAssign(nominator, denominatorOut);
+    routines().divAssign(nominator, denominatorOut);
   }
 
   public static DoubleArray times(DoubleArray a, DoubleArray b) {
-    return ARRAY_ROUTINES.times(a, b);
+    return routines().times(a, b);
   }
 
   public static DoubleArray times(DoubleArray a, double b) {
@@ -2173,111 +2777,111 @@ public final class Arrays {
   }
 
   public static IntArray plus(IntArray a, IntArray b) {
-    return ARRAY_ROUTINES.plus(a, b);
+    return routines().plus(a, b);
   }
 
   public static ComplexArray minus(ComplexArray a, ComplexArray b) {
-    return ARRAY_ROUTINES.minus(a, b);
+    return routines().minus(a, b);
   }
 
   public static IntArray minus(IntArray a, IntArray b) {
-    return ARRAY_ROUTINES.minus(a, b);
+    return routines().minus(a, b);
   }
 
   public static void timesAssign(ComplexArray a, ComplexArray out) {
-    ARRAY_ROUTINES.timesAssign(a, out);
+    routines().timesAssign(a, out);
   }
 
   public static void plusAssign(IntArray a, IntArray out) {
-    ARRAY_ROUTINES.plusAssign(a, out);
+    routines().plusAssign(a, out);
   }
 
   public static void plusAssign(LongArray a, LongArray out) {
-    ARRAY_ROUTINES.plusAssign(a, out);
+    routines().plusAssign(a, out);
   }
 
   public static void timesAssign(IntArray a, IntArray out) {
-    ARRAY_ROUTINES.timesAssign(a, out);
+    routines().timesAssign(a, out);
   }
 
   public static void divAssign(ComplexArray a, ComplexArray out) {
-    ARRAY_ROUTINES.divAssign(a, out);
+    routines().divAssign(a, out);
   }
 
   public static ComplexArray times(ComplexArray a, ComplexArray b) {
-    return ARRAY_ROUTINES.times(a, b);
+    return routines().times(a, b);
   }
 
   public static LongArray plus(LongArray a, LongArray b) {
-    return ARRAY_ROUTINES.plus(a, b);
+    return routines().plus(a, b);
   }
 
   public static void timesAssign(LongArray a, LongArray out) {
-    ARRAY_ROUTINES.timesAssign(a, out);
+    routines().timesAssign(a, out);
   }
 
   public static void minusAssign(IntArray a, IntArray out) {
-    ARRAY_ROUTINES.minusAssign(a, out);
+    routines().minusAssign(a, out);
   }
 
   public static BooleanArray xor(BooleanArray a, BooleanArray b) {
-    return ARRAY_ROUTINES.xor(a, b);
+    return routines().xor(a, b);
   }
 
   public static void minusAssign(LongArray a, LongArray out) {
-    ARRAY_ROUTINES.minusAssign(a, out);
+    routines().minusAssign(a, out);
   }
 
   public static BooleanArray and(BooleanArray a, BooleanArray b) {
-    return ARRAY_ROUTINES.and(a, b);
+    return routines().and(a, b);
   }
 
   public static IntArray div(IntArray a, IntArray b) {
-    return ARRAY_ROUTINES.div(a, b);
+    return routines().div(a, b);
   }
 
   public static void divAssign(LongArray a, LongArray out) {
-    ARRAY_ROUTINES.divAssign(a, out);
+    routines().divAssign(a, out);
   }
 
   public static IntArray times(IntArray a, IntArray b) {
-    return ARRAY_ROUTINES.times(a, b);
+    return routines().times(a, b);
   }
 
   public static void plusAssign(ComplexArray a, ComplexArray out) {
-    ARRAY_ROUTINES.plusAssign(a, out);
+    routines().plusAssign(a, out);
   }
 
   public static LongArray minus(LongArray a, LongArray b) {
-    return ARRAY_ROUTINES.minus(a, b);
+    return routines().minus(a, b);
   }
 
   public static BooleanArray or(BooleanArray a, BooleanArray b) {
-    return ARRAY_ROUTINES.or(a, b);
+    return routines().or(a, b);
   }
 
   public static void minusAssign(ComplexArray a, ComplexArray out) {
-    ARRAY_ROUTINES.minusAssign(a, out);
+    routines().minusAssign(a, out);
   }
 
   public static void divAssign(IntArray a, IntArray out) {
-    ARRAY_ROUTINES.divAssign(a, out);
+    routines().divAssign(a, out);
   }
 
   public static LongArray div(LongArray a, LongArray b) {
-    return ARRAY_ROUTINES.div(a, b);
+    return routines().div(a, b);
   }
 
   public static ComplexArray div(ComplexArray a, ComplexArray b) {
-    return ARRAY_ROUTINES.div(a, b);
+    return routines().div(a, b);
   }
 
   public static LongArray times(LongArray a, LongArray b) {
-    return ARRAY_ROUTINES.times(a, b);
+    return routines().times(a, b);
   }
 
   public static ComplexArray plus(ComplexArray a, ComplexArray b) {
-    return ARRAY_ROUTINES.plus(a, b);
+    return routines().plus(a, b);
   }
 
   /**
@@ -2332,6 +2936,34 @@ public final class Arrays {
     return c;
   }
 
+  /**
+   * Dot product of two 2d-arrays, returning an array owned by the given workspace. The result is
+   * recycled when the current scope of the workspace is closed, which makes repeated
+   * multiplications (of the same shapes) in a loop allocation free.
+   *
+   * @param transA the transposition of the first array
+   * @param transB the transposition of the second array
+   * @param a the first array
+   * @param alpha scaling factor for the first array
+   * @param b the second array
+   * @param workspace the workspace
+   * @return an array owned by the workspace
+   * @see #dot(ArrayOperation, ArrayOperation, DoubleArray, double, DoubleArray)
+   */
+  public static DoubleArray dot(ArrayOperation transA, ArrayOperation transB, DoubleArray a,
+      double alpha, DoubleArray b, Workspace workspace) {
+    Check.argument(a.isMatrix() && b.isMatrix(), "require 2d-arrays");
+    int m = a.size(transA == ArrayOperation.KEEP ? 0 : 1);
+    int n = b.size(transB == ArrayOperation.KEEP ? 1 : 0);
+    if (b.size(transB == ArrayOperation.KEEP ? 0 : 1) != a
+        .size(transA == ArrayOperation.KEEP ? 1 : 0)) {
+      throw new MultiDimensionMismatchException(a, b);
+    }
+    DoubleArray c = workspace.doubleArray(m, n);
+    gemm(transA, transB, alpha, a, b, 0, c);
+    return c;
+  }
+
   /**
    * Dot product of two 2d-arrays. It is equivalent to matrix multiplication.
    *
@@ -2375,7 +3007,7 @@ public final class Arrays {
   public static double inner(DoubleArray a, DoubleArray b) {
     a = a.isVector() ? a : a.ravel();
     b = b.isVector() ? b : b.ravel();
-    return ARRAY_ROUTINES.inner(a.ravel(), b.ravel());
+    return routines().inner(a.ravel(), b.ravel());
   }
 
   /**
@@ -2419,7 +3051,7 @@ public final class Arrays {
    *      org.briljantframework.array.DoubleArray)
    */
   public static void ger(double alpha, DoubleArray x, DoubleArray y, DoubleArray a) {
-    ARRAY_ROUTINES.ger(alpha, x, y, a);
+    routines().ger(alpha, x, y, a);
   }
 
   /**
@@ -2427,7 +3059,7 @@ public final class Arrays {
    *      org.briljantframework.array.ComplexArray)
    */
   public static Complex inner(ComplexArray a, ComplexArray b) {
-    return ARRAY_ROUTINES.inner(a.ravel(), b.ravel());
+    return routines().inner(a.ravel(), b.ravel());
   }
 
   /**
@@ -2435,7 +3067,7 @@ public final class Arrays {
    *      org.briljantframework.array.ComplexArray)
    */
   public static Complex conjugateInner(ComplexArray a, ComplexArray b) {
-    return ARRAY_ROUTINES.conjugateInner(a.ravel(), b.ravel());
+    return routines().conjugateInner(a.ravel(), b.ravel());
   }
 
   /**
@@ -2443,7 +3075,7 @@ public final class Arrays {
    *      org.briljantframework.array.DoubleArray)
    */
   public static void scal(double alpha, DoubleArray x) {
-    ARRAY_ROUTINES.scal(alpha, x);
+    routines().scal(alpha, x);
   }
 
   /**
@@ -2451,7 +3083,7 @@ public final class Arrays {
    *      org.briljantframework.array.DoubleArray, org.briljantframework.array.DoubleArray)
    */
   public static void axpy(double alpha, DoubleArray x, DoubleArray y) {
-    ARRAY_ROUTINES.axpy(alpha, x, y);
+    routines().axpy(alpha, x, y);
   }
 
   /**
@@ -2486,7 +3118,7 @@ public final class Arrays {
    */
   public static void gemv(ArrayOperation transA, double alpha, DoubleArray a, DoubleArray x,
       double beta, DoubleArray y) {
-    ARRAY_ROUTINES.gemv(transA, alpha, a, x, beta, y);
+    routines().gemv(transA, alpha, a, x, beta, y);
   }
 
   /**
@@ -2495,7 +3127,7 @@ public final class Arrays {
    */
   public static void gemm(ArrayOperation transA, ArrayOperation transB, double alpha, DoubleArray a,
       DoubleArray b, double beta, DoubleArray c) {
-    ARRAY_ROUTINES.gemm(transA, transB, alpha, a, b, beta, c);
+    routines().gemm(transA, transB, alpha, a, b, beta, c);
   }
 
   public static void gemm(double alpha, DoubleArray a, DoubleArray b, double beta, DoubleArray c) {
@@ -2506,6 +3138,63 @@ public final class Arrays {
     gemm(ArrayOperation.KEEP, ArrayOperation.KEEP, 1, a, b, 1, c);
   }
 
+  /**
+   * @see ArrayRoutines#inner(FloatArray, FloatArray)
+   */
+  public static float inner(FloatArray a, FloatArray b) {
+    return routines().inner(a.isVector() ? a : a.ravel(), b.isVector() ? b : b.ravel());
+  }
+
+  /**
+   * @see ArrayRoutines#axpy(float, FloatArray, FloatArray)
+   */
+  public static void axpy(float alpha, FloatArray x, FloatArray y) {
+    routines().axpy(alpha, x, y);
+  }
+
+  /**
+   * @see ArrayRoutines#gemv(ArrayOperation, float, FloatArray, FloatArray, float, FloatArray)
+   */
+  public static void gemv(ArrayOperation transA, float alpha, FloatArray a, FloatArray x,
+      float beta, FloatArray y) {
+    routines().gemv(transA, alpha, a, x, beta, y);
+  }
+
+  /**
+   * @see ArrayRoutines#gemm(ArrayOperation, ArrayOperation, float, FloatArray, FloatArray, float,
+   *      FloatArray)
+   */
+  public static void gemm(ArrayOperation transA, ArrayOperation transB, float alpha, FloatArray a,
+      FloatArray b, float beta, FloatArray c) {
+    routines().gemm(transA, transB, alpha, a, b, beta, c);
+  }
+
+  public static void gemm(FloatArray a, FloatArray b, FloatArray c) {
+    gemm(ArrayOperation.KEEP, ArrayOperation.KEEP, 1, a, b, 1, c);
+  }
+
+  /**
+   * @see ArrayRoutines#gemmBatched(ArrayOperation, ArrayOperation, double, DoubleArray,
+   *      DoubleArray, double, DoubleArray)
+   */
+  public static void gemmBatched(ArrayOperation transA, ArrayOperation transB, double alpha,
+      DoubleArray a, DoubleArray b, double beta, DoubleArray c) {
+    routines().gemmBatched(transA, transB, alpha, a, b, beta, c);
+  }
+
+  public static void gemmBatched(DoubleArray a, DoubleArray b, DoubleArray c) {
+    gemmBatched(ArrayOperation.KEEP, ArrayOperation.KEEP, 1, a, b, 1, c);
+  }
+
+  /**
+   * @see ArrayRoutines#gemvBatched(ArrayOperation, double, DoubleArray, DoubleArray, double,
+   *      DoubleArray)
+   */
+  public static void gemvBatched(ArrayOperation transA, double alpha, DoubleArray a,
+      DoubleArray x, double beta, DoubleArray y) {
+    routines().gemvBatched(transA, alpha, a, x, beta, y);
+  }
+
   /**
    * Find argument with max value.
    *
@@ -2555,6 +3244,10 @@ public final class Arrays {
    */
   public static <T extends BaseArray<T>> T take(T array, IntArray indexes) {
     T taken = array.newEmptyArray(indexes.size());
+    if (Gather.isSupported(array)) {
+      Gather.take(array, Gather.indexes(indexes, 0, array.size()), taken, parallelPolicy());
+      return taken;
+    }
     for (int i = 0; i < indexes.size(); i++) {
       taken.set(i, array, indexes.get(i));
     }
@@ -2592,10 +3285,10 @@ public final class Arrays {
   public static <T extends BaseArray<T>> void putMask(T a, BooleanArray mask, T values) {
     Check.dimension(a, mask);
     Check.dimension(a, values);
-    for (int i = 0; i < a.size(); i++) {
-      if (mask.get(i)) {
-        a.set(i, values, i);
-      }
+    if (Gather.isSupported(a) && mask instanceof AbstractBooleanArray) {
+      Gather.putMask(a, mask, values, parallelPolicy());
+    } else {
+      mask.forEachTrue(i -> a.set(i, values, i));
     }
   }
 
@@ -2713,6 +3406,10 @@ public final class Arrays {
     y = broadcastTo(y, shape);
     int size = x.size();
     E selected = x.newEmptyArray(shape);
+    if (Gather.isSupported(x) && condition instanceof AbstractBooleanArray) {
+      Gather.where(condition, x, y, selected, parallelPolicy());
+      return selected;
+    }
     for (int i = 0; i < size; i++) {
       selected.set(i, condition.get(i) ? x : y, i);
     }
@@ -2726,12 +3423,9 @@ public final class Arrays {
     if (sum != from.size()) {
       from = broadcastTo(from, sum);
     }
-    int fromIndex = 0;
-    for (int i = 0; i < in.size(); i++) {
-      if (mask.get(i)) {
-        in.set(i, from, fromIndex++);
-      }
-    }
+    E values = from;
+    int[] fromIndex = {0};
+    mask.forEachTrue(i -> in.set(i, values, fromIndex[0]++));
   }
 
   public static DoubleArray select(DoubleBiPredicate predicate, DoubleArray x, DoubleArray y) {
@@ -3428,6 +4122,11 @@ public final class Arrays {
       array.forEachDouble(consumer);
     }
 
+    @Override
+    public void forEachDouble(int start, int end, DoubleConsumer consumer) {
+      array.forEachDouble(start, end, consumer);
+    }
+
     @Override
     public double reduce(double identity, DoubleBinaryOperator reduce) {
       return array.reduce(identity, reduce);
@@ -3764,6 +4463,28 @@ public final class Arrays {
       return unmodifiableArray(array.complexArray());
     }
 
+    @Override
+    public FloatArray floatArray() {
+      FloatArray floats = array.floatArray();
+      return new AsFloatArray(getArrayBackend(), 0, floats.getShape(),
+          StrideUtils.computeStride(floats.getShape())) {
+        @Override
+        protected float getElement(int i) {
+          return floats.get(i);
+        }
+
+        @Override
+        protected void setElement(int i, float value) {
+          throw new UnsupportedOperationException();
+        }
+
+        @Override
+        protected int elementSize() {
+          return floats.size();
+        }
+      };
+    }
+
     @Override
     public boolean isContiguous() {
       return array.isContiguous();
@@ -5698,6 +6419,11 @@ public final class Arrays {
       return array.all();
     }
 
+    @Override
+    public void forEachTrue(IntConsumer action) {
+      array.forEachTrue(action);
+    }
+
     public int[] getShape() {
       return array.getShape();
     }
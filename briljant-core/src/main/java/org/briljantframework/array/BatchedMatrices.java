@@ -0,0 +1,484 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 Isak Karlsson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.briljantframework.array;
+
+import java.util.function.IntConsumer;
+
+import org.briljantframework.array.api.ParallelPolicy;
+
+/**
+ * Operations on batches of small matrices, i.e., 3d-arrays of shape {@code [rows, columns, batch]}
+ * where {@code x.select(2, i)} is the {@code i}:th matrix. Each operation on a batch is performed
+ * without creating views of the individual matrices; instead the elements are accessed through the
+ * heap array of the operands (operands without one are copied once) by pure-Java kernels which
+ * compute {@code 2 x 2} tiles of the result in local variables. The matrices of a batch are split
+ * between parallel tasks according to a {@link ParallelPolicy}.
+ *
+ * <p/>
+ * The kernels are intended for matrices where the cost of creating views and calling native code
+ * dominates the actual computation. The callers are expected to handle larger matrices, i.e.,
+ * matrices for which {@link #isSupported(int...)} is false, in some other way.
+ *
+ * @author Isak Karlsson
+ */
+public final class BatchedMatrices {
+
+  /**
+   * The largest dimension of the matrices handled by the kernels
+   */
+  public static final int MAX_SIZE = 32;
+
+  private static final ThreadLocal<Buffers> buffers = new ThreadLocal<Buffers>() {
+    @Override
+    protected Buffers initialValue() {
+      return new Buffers();
+    }
+  };
+
+  private BatchedMatrices() {}
+
+  /**
+   * Returns true if no dimension exceeds {@link #MAX_SIZE}
+   *
+   * @param sizes the dimensions of the matrices
+   * @return true if the matrices are small enough
+   */
+  public static boolean isSupported(int... sizes) {
+    for (int size : sizes) {
+      if (size > MAX_SIZE) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Computes {@code c[i] = alpha * op(a[i]) * op(b[i]) + beta * c[i]} for each matrix of the batch
+   * {@code c}. If {@code a} (or {@code b}) is a 2d-array, the same matrix is used for all products.
+   * The dimensions are assumed to be validated by the caller.
+   *
+   * @param policy the policy deciding if the batch is computed in parallel
+   * @param transA true if the matrices of a should be transposed
+   * @param transB true if the matrices of b should be transposed
+   * @param m the number of rows of {@code op(a[i])} and {@code c[i]}
+   * @param n the number of columns of {@code op(b[i])} and {@code c[i]}
+   * @param k the number of columns of {@code op(a[i])} and rows of {@code op(b[i])}
+   * @param alpha the scalar for {@code op(a[i]) * op(b[i])}
+   * @param a the first operand (2d or 3d)
+   * @param b the second operand (2d or 3d)
+   * @param beta the scalar for {@code c[i]}
+   * @param c the output (3d)
+   */
+  public static void gemm(ParallelPolicy policy, boolean transA, boolean transB, int m, int n,
+      int k, double alpha, DoubleArray a, DoubleArray b, double beta, DoubleArray c) {
+    Operand oa = Operand.matrix(a, transA);
+    Operand ob = Operand.matrix(b, transB);
+    Operand oc = Operand.matrix(c, false);
+    forEach(policy, c.size(2), (long) m * n * Math.max(1, k), t -> gemm(m, n, k, alpha, oa.data,
+        oa.offset(t), oa.rs, oa.cs, ob.data, ob.offset(t), ob.rs, ob.cs, beta, oc.data,
+        oc.offset(t), oc.rs, oc.cs));
+    oc.writeBack();
+  }
+
+  /**
+   * Computes {@code y[i] = alpha * op(a[i]) * x[i] + beta * y[i]} for each vector of the batch
+   * {@code y}, i.e., each column of the 2d-array {@code y}. If {@code a} is a 2d-array (or
+   * {@code x} a 1d-array), the same matrix (or vector) is used for all products. The dimensions are
+   * assumed to be validated by the caller.
+   *
+   * @param policy the policy deciding if the batch is computed in parallel
+   * @param transA true if the matrices of a should be transposed
+   * @param m the number of rows of {@code op(a[i])} and elements of {@code y[i]}
+   * @param n the number of columns of {@code op(a[i])} and elements of {@code x[i]}
+   * @param alpha the scalar for {@code op(a[i]) * x[i]}
+   * @param a the matrices (2d or 3d)
+   * @param x the vectors (1d or 2d)
+   * @param beta the scalar for {@code y[i]}
+   * @param y the output (2d)
+   */
+  public static void gemv(ParallelPolicy policy, boolean transA, int m, int n, double alpha,
+      DoubleArray a, DoubleArray x, double beta, DoubleArray y) {
+    Operand oa = Operand.matrix(a, transA);
+    Operand ox = Operand.vector(x);
+    Operand oy = Operand.vector(y);
+    forEach(policy, y.size(1), (long) m * Math.max(1, n), t -> gemv(m, n, alpha, oa.data,
+        oa.offset(t), oa.rs, oa.cs, ox.data, ox.offset(t), ox.rs, beta, oy.data, oy.offset(t),
+        oy.rs));
+    oy.writeBack();
+  }
+
+  /**
+   * Computes the inverse of each {@code n x n} matrix of the batch {@code x} using an LU
+   * factorization with partial pivoting.
+   *
+   * @param policy the policy deciding if the batch is computed in parallel
+   * @param x the matrices (3d)
+   * @param out the inverses (3d, of the same shape as {@code x})
+   * @throws ArithmeticException if a matrix is singular
+   */
+  public static void inv(ParallelPolicy policy, DoubleArray x, DoubleArray out) {
+    int n = x.size(0);
+    Operand ox = Operand.matrix(x, false);
+    Operand oo = Operand.matrix(out, false);
+    forEach(policy, x.size(2), (long) n * n * n, t -> {
+      int xo = ox.offset(t), oOff = oo.offset(t);
+      if (n == 1) {
+        double v = ox.data[xo];
+        if (v == 0) {
+          throw singular(t);
+        }
+        oo.data[oOff] = 1 / v;
+      } else if (n == 2) {
+        inv2(t, ox.data, xo, ox.rs, ox.cs, oo.data, oOff, oo.rs, oo.cs);
+      } else {
+        Buffers w = buffers.get();
+        pack(n, ox.data, xo, ox.rs, ox.cs, w.lu);
+        if (factor(n, w.lu, w.pivots) == 0) {
+          throw singular(t);
+        }
+        invert(n, w.lu, w.pivots, w.column, oo.data, oOff, oo.rs, oo.cs);
+      }
+    });
+    oo.writeBack();
+  }
+
+  /**
+   * Computes the determinant of each {@code n x n} matrix of the batch {@code x}.
+   *
+   * @param policy the policy deciding if the batch is computed in parallel
+   * @param x the matrices (3d)
+   * @param out the determinants (1d, with one element per matrix)
+   */
+  public static void det(ParallelPolicy policy, DoubleArray x, DoubleArray out) {
+    int n = x.size(0);
+    Operand ox = Operand.matrix(x, false);
+    Operand oo = Operand.batch(out);
+    forEach(policy, x.size(2), (long) n * n * n, t -> {
+      double[] a = ox.data;
+      int o = ox.offset(t), rs = ox.rs, cs = ox.cs;
+      double det;
+      switch (n) {
+        case 0:
+          det = 1;
+          break;
+        case 1:
+          det = a[o];
+          break;
+        case 2:
+          det = a[o] * a[o + rs + cs] - a[o + cs] * a[o + rs];
+          break;
+        case 3:
+          det = a[o] * (a[o + rs + cs] * a[o + 2 * rs + 2 * cs]
+                  - a[o + rs + 2 * cs] * a[o + 2 * rs + cs])
+              - a[o + cs] * (a[o + rs] * a[o + 2 * rs + 2 * cs]
+                  - a[o + rs + 2 * cs] * a[o + 2 * rs])
+              + a[o + 2 * cs] * (a[o + rs] * a[o + 2 * rs + cs]
+                  - a[o + rs + cs] * a[o + 2 * rs]);
+          break;
+        default:
+          Buffers w = buffers.get();
+          pack(n, a, o, rs, cs, w.lu);
+          det = factor(n, w.lu, w.pivots);
+          for (int i = 0; i < n && det != 0; i++) {
+            det *= w.lu[i + i * n];
+          }
+      }
+      oo.data[oo.offset(t)] = det;
+    });
+    oo.writeBack();
+  }
+
+  /**
+   * Apply the action to each matrix of a batch, where each matrix requires (roughly) {@code work}
+   * operations
+   */
+  private static void forEach(ParallelPolicy policy, int batch, long work, IntConsumer action) {
+    if (batch == 0) {
+      return;
+    }
+    int size = (int) Math.min(Integer.MAX_VALUE, batch * Math.max(1, work));
+    policy.execute(size, (start, end) -> {
+      int from = (int) ((long) start * batch / size);
+      int to = (int) ((long) end * batch / size);
+      for (int t = from; t < to; t++) {
+        action.accept(t);
+      }
+    });
+  }
+
+  private static ArithmeticException singular(int t) {
+    return new ArithmeticException(String.format("matrix %d is singular", t));
+  }
+
+  private static void gemm(int m, int n, int k, double alpha, double[] a, int ao, int ars,
+      int acs, double[] b, int bo, int brs, int bcs, double beta, double[] c, int co, int crs,
+      int ccs) {
+    int j = 0;
+    for (; j + 1 < n; j += 2) {
+      int b0 = bo + j * bcs;
+      int i = 0;
+      for (; i + 1 < m; i += 2) {
+        int pa = ao + i * ars, pb = b0;
+        double s00 = 0, s10 = 0, s01 = 0, s11 = 0;
+        for (int p = 0; p < k; p++, pa += acs, pb += brs) {
+          double x0 = a[pa], x1 = a[pa + ars];
+          double y0 = b[pb], y1 = b[pb + bcs];
+          s00 += x0 * y0;
+          s10 += x1 * y0;
+          s01 += x0 * y1;
+          s11 += x1 * y1;
+        }
+        int pc = co + i * crs + j * ccs;
+        update(c, pc, alpha * s00, beta);
+        update(c, pc + crs, alpha * s10, beta);
+        update(c, pc + ccs, alpha * s01, beta);
+        update(c, pc + crs + ccs, alpha * s11, beta);
+      }
+      if (i < m) {
+        int pa = ao + i * ars, pb = b0;
+        double s0 = 0, s1 = 0;
+        for (int p = 0; p < k; p++, pa += acs, pb += brs) {
+          s0 += a[pa] * b[pb];
+          s1 += a[pa] * b[pb + bcs];
+        }
+        int pc = co + i * crs + j * ccs;
+        update(c, pc, alpha * s0, beta);
+        update(c, pc + ccs, alpha * s1, beta);
+      }
+    }
+    if (j < n) {
+      int b0 = bo + j * bcs;
+      for (int i = 0; i < m; i++) {
+        int pa = ao + i * ars, pb = b0;
+        double s = 0;
+        for (int p = 0; p < k; p++, pa += acs, pb += brs) {
+          s += a[pa] * b[pb];
+        }
+        update(c, co + i * crs + j * ccs, alpha * s, beta);
+      }
+    }
+  }
+
+  private static void gemv(int m, int n, double alpha, double[] a, int ao, int ars, int acs,
+      double[] x, int xo, int xs, double beta, double[] y, int yo, int ys) {
+    int i = 0;
+    for (; i + 1 < m; i += 2) {
+      int pa = ao + i * ars, px = xo;
+      double s0 = 0, s1 = 0;
+      for (int p = 0; p < n; p++, pa += acs, px += xs) {
+        double v = x[px];
+        s0 += a[pa] * v;
+        s1 += a[pa + ars] * v;
+      }
+      update(y, yo + i * ys, alpha * s0, beta);
+      update(y, yo + (i + 1) * ys, alpha * s1, beta);
+    }
+    if (i < m) {
+      int pa = ao + i * ars, px = xo;
+      double s = 0;
+      for (int p = 0; p < n; p++, pa += acs, px += xs) {
+        s += a[pa] * x[px];
+      }
+      update(y, yo + i * ys, alpha * s, beta);
+    }
+  }
+
+  private static void update(double[] c, int i, double value, double beta) {
+    // as in BLAS, c is not read if beta is zero
+    c[i] = beta == 0 ? value : value + beta * c[i];
+  }
+
+  private static void inv2(int t, double[] a, int ao, int rs, int cs, double[] out, int oo,
+      int ors, int ocs) {
+    double a00 = a[ao], a10 = a[ao + rs], a01 = a[ao + cs], a11 = a[ao + rs + cs];
+    double det = a00 * a11 - a01 * a10;
+    if (det == 0) {
+      throw singular(t);
+    }
+    out[oo] = a11 / det;
+    out[oo + ors] = -a10 / det;
+    out[oo + ocs] = -a01 / det;
+    out[oo + ors + ocs] = a00 / det;
+  }
+
+  /**
+   * Copy the {@code n x n} matrix to the column-major buffer
+   */
+  private static void pack(int n, double[] a, int ao, int rs, int cs, double[] dst) {
+    for (int j = 0; j < n; j++) {
+      for (int i = 0, p = ao + j * cs; i < n; i++, p += rs) {
+        dst[i + j * n] = a[p];
+      }
+    }
+  }
+
+  /**
+   * Factor the column-major {@code n x n} matrix as {@code P * L * U} in place, where row
+   * {@code i} was interchanged with row {@code pivots[i]}. Returns the sign of the permutation or
+   * zero if the matrix is singular.
+   */
+  private static int factor(int n, double[] lu, int[] pivots) {
+    int sign = 1;
+    for (int j = 0; j < n; j++) {
+      int col = j * n;
+      int p = j;
+      double max = Math.abs(lu[j + col]);
+      for (int i = j + 1; i < n; i++) {
+        double v = Math.abs(lu[i + col]);
+        if (v > max) {
+          max = v;
+          p = i;
+        }
+      }
+      pivots[j] = p;
+      if (max == 0) {
+        return 0;
+      }
+      if (p != j) {
+        for (int c = 0; c < n * n; c += n) {
+          double tmp = lu[p + c];
+          lu[p + c] = lu[j + c];
+          lu[j + c] = tmp;
+        }
+        sign = -sign;
+      }
+      double d = lu[j + col];
+      for (int i = j + 1; i < n; i++) {
+        lu[i + col] /= d;
+      }
+      for (int c = col + n; c < n * n; c += n) {
+        double f = lu[j + c];
+        if (f != 0) {
+          for (int i = j + 1; i < n; i++) {
+            lu[i + c] -= lu[i + col] * f;
+          }
+        }
+      }
+    }
+    return sign;
+  }
+
+  /**
+   * Solve {@code P * L * U * X = I} one column at a time
+   */
+  private static void invert(int n, double[] lu, int[] pivots, double[] v, double[] out, int oo,
+      int ors, int ocs) {
+    for (int j = 0; j < n; j++) {
+      java.util.Arrays.fill(v, 0, n, 0);
+      v[j] = 1;
+      for (int i = 0; i < n; i++) {
+        int p = pivots[i];
+        if (p != i) {
+          double tmp = v[p];
+          v[p] = v[i];
+          v[i] = tmp;
+        }
+      }
+      for (int c = 0; c < n; c++) {
+        double f = v[c];
+        if (f != 0) {
+          for (int i = c + 1; i < n; i++) {
+            v[i] -= lu[i + c * n] * f;
+          }
+        }
+      }
+      for (int c = n - 1; c >= 0; c--) {
+        double f = v[c] /= lu[c + c * n];
+        for (int i = 0; i < c; i++) {
+          v[i] -= lu[i + c * n] * f;
+        }
+      }
+      for (int i = 0, p = oo + j * ocs; i < n; i++, p += ors) {
+        out[p] = v[i];
+      }
+    }
+  }
+
+  /**
+   * The elements of a batch of matrices (or vectors), accessed through a heap array
+   */
+  private static final class Operand {
+    private final DoubleArray array;
+    private final double[] data;
+    private final boolean copied;
+    private final int offset, rs, cs, bs;
+
+    private Operand(DoubleArray array, int rowDim, int colDim, int batchDim, boolean transpose) {
+      this.array = array;
+      double[] backing = array instanceof AbstractDoubleArray
+          ? ((AbstractDoubleArray) array).getBackingArray() : null;
+      int[] stride;
+      if (backing != null) {
+        this.data = backing;
+        this.copied = false;
+        this.offset = array.getOffset();
+        stride = array.getStride();
+      } else {
+        this.data = new double[array.size()];
+        this.copied = true;
+        this.offset = 0;
+        for (int i = 0; i < data.length; i++) {
+          data[i] = array.get(i);
+        }
+        stride = StrideUtils.computeStride(array.getShape());
+      }
+      int rows = stride[rowDim];
+      int cols = colDim >= 0 ? stride[colDim] : 0;
+      this.rs = transpose ? cols : rows;
+      this.cs = transpose ? rows : cols;
+      this.bs = batchDim < array.dims() ? stride[batchDim] : 0;
+    }
+
+    static Operand matrix(DoubleArray x, boolean transpose) {
+      return new Operand(x, 0, 1, 2, transpose);
+    }
+
+    static Operand vector(DoubleArray x) {
+      return new Operand(x, 0, -1, 1, false);
+    }
+
+    /**
+     * Returns an operand with one element per matrix of the batch, i.e., a 1d-array whose only
+     * dimension is the batch dimension
+     */
+    static Operand batch(DoubleArray x) {
+      return new Operand(x, 0, -1, 0, false);
+    }
+
+    int offset(int t) {
+      return offset + t * bs;
+    }
+
+    void writeBack() {
+      if (copied) {
+        for (int i = 0; i < data.length; i++) {
+          array.set(i, data[i]);
+        }
+      }
+    }
+  }
+
+  private static final class Buffers {
+    private final double[] lu = new double[MAX_SIZE * MAX_SIZE];
+    private final double[] column = new double[MAX_SIZE];
+    private final int[] pivots = new int[MAX_SIZE];
+  }
+}
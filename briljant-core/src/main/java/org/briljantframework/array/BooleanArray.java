@@ -24,6 +24,7 @@ import java.util.Collection;
 import java.util.List;
 import java.util.function.BinaryOperator;
 import java.util.function.Function;
+import java.util.function.IntConsumer;
 import java.util.function.Supplier;
 import java.util.function.UnaryOperator;
 import java.util.stream.Stream;
@@ -160,6 +161,20 @@ public interface BooleanArray extends BaseArray<BooleanArray>, Iterable<Boolean>
    */
   boolean all();
 
+  /**
+   * Perform the given action for the (linear) index of each element which is true, in increasing
+   * order.
+   *
+   * @param action the action
+   */
+  default void forEachTrue(IntConsumer action) {
+    for (int i = 0, size = size(); i < size; i++) {
+      if (get(i)) {
+        action.accept(i);
+      }
+    }
+  }
+
   Array<Boolean> boxed();
 
   Stream<Boolean> stream();
@@ -0,0 +1,287 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 Isak Karlsson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.briljantframework.array;
+
+import org.apache.commons.lang3.ArrayUtils;
+import org.briljantframework.Check;
+import org.briljantframework.array.api.ParallelPolicy;
+
+/**
+ * Reductions of double arrays along a dimension which, unlike
+ * {@link DoubleArray#reduceVectors(int, java.util.function.ToDoubleFunction)}, do not create one
+ * view per reduced vector. Instead, the elements are visited in the order they are laid out in
+ * memory (i.e., the dimensions are traversed in order of increasing stride) and accumulated into
+ * a buffer holding one value per output element. For example, the row sums of a column-major
+ * matrix are computed by adding each (contiguous) column to the buffer. The work is split between
+ * tasks owning disjoint parts of the output, so the result does not depend on the
+ * {@link ParallelPolicy}.
+ *
+ * <p/>
+ * The variance is computed in a single pass using the elements of the first slice along the
+ * dimension as shift, i.e., {@code var = (sum((x - k)^2) - sum(x - k)^2 / n) / n}, which avoids
+ * the cancellation of the textbook formula.
+ *
+ * @author Isak Karlsson
+ */
+public final class DimensionReductions {
+
+  private static final int SUM = 0;
+  private static final int MIN = 1;
+  private static final int MAX = 2;
+  private static final int SHIFTED = 3;
+  private static final int FIRST = 4;
+
+  private DimensionReductions() {}
+
+  /**
+   * Returns true if {@code x} can be reduced along {@code dim} by the methods of this class, i.e.,
+   * if {@code x} has at least two dimensions and at least one element.
+   *
+   * @param dim the dimension
+   * @param x the array
+   * @return true if supported
+   */
+  public static boolean isSupported(int dim, DoubleArray x) {
+    Check.argument(dim >= 0 && dim < x.dims(), "illegal dimension %s for %s-array", dim, x.dims());
+    return x.dims() > 1 && x.size() > 0;
+  }
+
+  /**
+   * Returns the sum along the given dimension
+   *
+   * @param policy the parallel policy
+   * @param dim the dimension
+   * @param x the array
+   * @return an array of sums
+   */
+  public static DoubleArray sum(ParallelPolicy policy, int dim, DoubleArray x) {
+    return result(x, dim, reduce(policy, dim, x, SUM, 0));
+  }
+
+  /**
+   * Returns the mean along the given dimension
+   *
+   * @see #sum(ParallelPolicy, int, DoubleArray)
+   */
+  public static DoubleArray mean(ParallelPolicy policy, int dim, DoubleArray x) {
+    double[] sum = reduce(policy, dim, x, SUM, 0);
+    int n = x.size(dim);
+    for (int i = 0; i < sum.length; i++) {
+      sum[i] /= n;
+    }
+    return result(x, dim, sum);
+  }
+
+  /**
+   * Returns the minimum along the given dimension
+   *
+   * @see #sum(ParallelPolicy, int, DoubleArray)
+   */
+  public static DoubleArray min(ParallelPolicy policy, int dim, DoubleArray x) {
+    return result(x, dim, reduce(policy, dim, x, MIN, Double.POSITIVE_INFINITY));
+  }
+
+  /**
+   * Returns the maximum along the given dimension
+   *
+   * @see #sum(ParallelPolicy, int, DoubleArray)
+   */
+  public static DoubleArray max(ParallelPolicy policy, int dim, DoubleArray x) {
+    return result(x, dim, reduce(policy, dim, x, MAX, Double.NEGATIVE_INFINITY));
+  }
+
+  /**
+   * Returns the (population) variance along the given dimension
+   *
+   * @see #sum(ParallelPolicy, int, DoubleArray)
+   */
+  public static DoubleArray var(ParallelPolicy policy, int dim, DoubleArray x) {
+    return result(x, dim, variance(policy, dim, x));
+  }
+
+  /**
+   * Returns the (population) standard deviation along the given dimension
+   *
+   * @see #sum(ParallelPolicy, int, DoubleArray)
+   */
+  public static DoubleArray std(ParallelPolicy policy, int dim, DoubleArray x) {
+    double[] var = variance(policy, dim, x);
+    for (int i = 0; i < var.length; i++) {
+      var[i] = Math.sqrt(var[i]);
+    }
+    return result(x, dim, var);
+  }
+
+  private static double[] variance(ParallelPolicy policy, int dim, DoubleArray x) {
+    AbstractDoubleArray a = AbstractDoubleArray.strided(x);
+    int n = x.size(dim);
+    double[] shift = new double[x.size() / n];
+    double[] sum = new double[shift.length];
+    double[] sumSq = new double[shift.length];
+    // the shift is the first slice along the dimension
+    int[] first = a.getShape();
+    first[dim] = 1;
+    reduce(ParallelPolicy.serial(), a, dim, first, FIRST, shift, null, null);
+    reduce(policy, a, dim, a.getShape(), SHIFTED, sum, sumSq, shift);
+    for (int i = 0; i < sum.length; i++) {
+      sumSq[i] = n > 1 ? Math.max(0, (sumSq[i] - sum[i] * sum[i] / n) / n) : 0;
+    }
+    return sumSq;
+  }
+
+  private static double[] reduce(ParallelPolicy policy, int dim, DoubleArray x, int op,
+      double init) {
+    double[] acc = new double[x.size() / x.size(dim)];
+    if (init != 0) {
+      java.util.Arrays.fill(acc, init);
+    }
+    AbstractDoubleArray a = AbstractDoubleArray.strided(x);
+    reduce(policy, a, dim, a.getShape(), op, acc, null, null);
+    return acc;
+  }
+
+  private static DoubleArray result(DoubleArray x, int dim, double[] values) {
+    DoubleArray result = x.newEmptyArray(ArrayUtils.remove(x.getShape(), dim));
+    for (int i = 0; i < values.length; i++) {
+      result.set(i, values[i]);
+    }
+    return result;
+  }
+
+  /**
+   * Accumulate the elements of {@code x} (of the given shape) into {@code acc}, whose elements
+   * are the column-major ordered output elements, i.e., the elements of {@code x} with all indexes
+   * but {@code dim} equal.
+   */
+  private static void reduce(ParallelPolicy policy, AbstractDoubleArray x, int dim, int[] shape,
+      int op, double[] acc, double[] acc2, double[] shift) {
+    int dims = shape.length;
+    int[] xStride = x.getStride();
+    int[] accStride = new int[dims];
+    for (int d = 0, s = 1; d < dims; d++) {
+      if (d != dim) {
+        accStride[d] = s;
+        s *= x.size(d);
+      }
+    }
+
+    // traverse the dimensions in order of increasing stride, i.e., in memory order
+    Integer[] order = new Integer[dims];
+    for (int d = 0; d < dims; d++) {
+      order[d] = d;
+    }
+    java.util.Arrays.sort(order, (i, j) -> Integer.compare(Math.abs(xStride[i]),
+        Math.abs(xStride[j])));
+    int[] loopShape = new int[dims];
+    int[][] loopStrides = new int[2][dims];
+    int split = -1;
+    for (int d = 0; d < dims; d++) {
+      int o = order[d];
+      loopShape[d] = shape[o];
+      loopStrides[0][d] = xStride[o];
+      loopStrides[1][d] = accStride[o];
+      if (o != dim && shape[o] > 1) {
+        split = d; // the outermost dimension indexing different output elements
+      }
+    }
+
+    int size = ShapeUtils.size(loopShape);
+    if (split < 0) {
+      reduce(x, new StridedLoop(loopShape, new int[] {x.getOffset(), 0}, loopStrides, 0, size), op,
+          acc, acc2, shift);
+    } else {
+      // each task reduces a range of the split dimension, i.e., disjoint output elements
+      int outer = split;
+      int extent = loopShape[outer];
+      policy.execute(size, (start, end) -> {
+        int from = (int) ((long) start * extent / size);
+        int to = (int) ((long) end * extent / size);
+        if (from < to) {
+          int[] rangeShape = loopShape.clone();
+          rangeShape[outer] = to - from;
+          int[] offsets = {x.getOffset() + from * loopStrides[0][outer],
+              from * loopStrides[1][outer]};
+          reduce(x, new StridedLoop(rangeShape, offsets, loopStrides, 0,
+              ShapeUtils.size(rangeShape)), op, acc, acc2, shift);
+        }
+      });
+    }
+  }
+
+  private static void reduce(AbstractDoubleArray x, StridedLoop loop, int op, double[] acc,
+      double[] acc2, double[] shift) {
+    while (loop.next()) {
+      int p = loop.offset(0), ps = loop.stride(0);
+      int q = loop.offset(1), qs = loop.stride(1);
+      int n = loop.length();
+      switch (op) {
+        case SUM:
+          if (qs == 0) {
+            double sum = acc[q];
+            for (int i = 0; i < n; i++, p += ps) {
+              sum += x.getElement(p);
+            }
+            acc[q] = sum;
+          } else {
+            for (int i = 0; i < n; i++, p += ps, q += qs) {
+              acc[q] += x.getElement(p);
+            }
+          }
+          break;
+        case MIN:
+          for (int i = 0; i < n; i++, p += ps, q += qs) {
+            acc[q] = Math.min(acc[q], x.getElement(p));
+          }
+          break;
+        case MAX:
+          for (int i = 0; i < n; i++, p += ps, q += qs) {
+            acc[q] = Math.max(acc[q], x.getElement(p));
+          }
+          break;
+        case SHIFTED:
+          if (qs == 0) {
+            double k = shift[q], sum = acc[q], sumSq = acc2[q];
+            for (int i = 0; i < n; i++, p += ps) {
+              double v = x.getElement(p) - k;
+              sum += v;
+              sumSq += v * v;
+            }
+            acc[q] = sum;
+            acc2[q] = sumSq;
+          } else {
+            for (int i = 0; i < n; i++, p += ps, q += qs) {
+              double v = x.getElement(p) - shift[q];
+              acc[q] += v;
+              acc2[q] += v * v;
+            }
+          }
+          break;
+        case FIRST:
+          for (int i = 0; i < n; i++, p += ps, q += qs) {
+            acc[q] = x.getElement(p);
+          }
+          break;
+        default:
+          throw new IllegalArgumentException();
+      }
+    }
+  }
+}
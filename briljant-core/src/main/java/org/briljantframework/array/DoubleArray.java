@@ -269,6 +269,20 @@ public interface DoubleArray
    */
   void forEachDouble(DoubleConsumer consumer);
 
+  /**
+   * For each double in the range {@code [start, end)} (in linear order) perform the side-effect,
+   * e.g., to process disjoint ranges in parallel.
+   *
+   * @param start the first index (inclusive)
+   * @param end the last index (exclusive)
+   * @param consumer the consumer
+   */
+  default void forEachDouble(int start, int end, DoubleConsumer consumer) {
+    for (int i = start; i < end; i++) {
+      consumer.accept(get(i));
+    }
+  }
+
   // Reduce
 
   /**
@@ -443,6 +457,15 @@ public interface DoubleArray
 
   ComplexArray complexArray();
 
+  /**
+   * Returns this array viewed as a single precision array. Values read from the view are narrowed
+   * to floats. To get a single precision copy (using half the memory), use
+   * {@code floatArray().copy()}.
+   *
+   * @return a float array view
+   */
+  FloatArray floatArray();
+
   @Override
   default double getDouble(int index) {
     return get(index);
@@ -0,0 +1,563 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 Isak Karlsson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.briljantframework.array;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.DoubleAccumulator;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleUnaryOperator;
+
+import org.briljantframework.array.api.ArrayBackend;
+import org.briljantframework.array.api.ParallelPolicy;
+
+/**
+ * A deferred, element-wise, expression over double arrays. Instead of allocating a temporary array
+ * for each operation (as, e.g., {@code Arrays.plus(a, Arrays.times(b, Arrays.exp(c)))}), the
+ * operations are recorded in an expression tree which is evaluated in a single (fused) pass when
+ * the expression is {@linkplain #materialize() materialized}, {@linkplain #assignTo(DoubleArray)
+ * assigned} to an array or {@linkplain #sum() reduced}.
+ *
+ * <pre>
+ * DoubleArray z = Arrays.lazy(a).plus(Arrays.lazy(c).exp().times(b)).materialize();
+ * </pre>
+ *
+ * <p/>
+ * The operands are broadcast to a common shape (following the rules of
+ * {@link Arrays#broadcastTo(BaseArray, int...)}) and the expression is evaluated in parallel
+ * according to the {@linkplain ParallelPolicy#current(ParallelPolicy) current} parallel policy of
+ * the array routines. Since the expression refers to its operands, changes to the operands before
+ * the expression is evaluated are visible in the result.
+ *
+ * @author Isak Karlsson
+ * @see IntExpression
+ */
+public abstract class DoubleExpression {
+
+  private final int[] shape;
+
+  DoubleExpression(int[] shape) {
+    this.shape = shape;
+  }
+
+  /**
+   * Returns an expression evaluating to the elements of the given array
+   *
+   * @param array the array
+   * @return a new expression
+   */
+  public static DoubleExpression of(DoubleArray array) {
+    return new ArrayExpression(AbstractDoubleArray.strided(array));
+  }
+
+  /**
+   * Returns an expression evaluating to the given value (broadcast to the shape of the other
+   * operands)
+   *
+   * @param value the value
+   * @return a new expression
+   */
+  public static DoubleExpression constant(double value) {
+    return new ConstantExpression(value);
+  }
+
+  /**
+   * Returns the shape of the result of this expression
+   *
+   * @return the shape
+   */
+  public final int[] getShape() {
+    return shape.clone();
+  }
+
+  /**
+   * Returns the number of elements in the result of this expression
+   *
+   * @return the size
+   */
+  public final int size() {
+    return ShapeUtils.size(shape);
+  }
+
+  public DoubleExpression plus(DoubleExpression other) {
+    return new BinaryExpression(Op.PLUS, null, this, other);
+  }
+
+  public DoubleExpression plus(DoubleArray other) {
+    return plus(of(other));
+  }
+
+  public DoubleExpression plus(double value) {
+    return plus(constant(value));
+  }
+
+  public DoubleExpression minus(DoubleExpression other) {
+    return new BinaryExpression(Op.MINUS, null, this, other);
+  }
+
+  public DoubleExpression minus(DoubleArray other) {
+    return minus(of(other));
+  }
+
+  public DoubleExpression minus(double value) {
+    return minus(constant(value));
+  }
+
+  public DoubleExpression times(DoubleExpression other) {
+    return new BinaryExpression(Op.TIMES, null, this, other);
+  }
+
+  public DoubleExpression times(DoubleArray other) {
+    return times(of(other));
+  }
+
+  public DoubleExpression times(double value) {
+    return times(constant(value));
+  }
+
+  public DoubleExpression div(DoubleExpression other) {
+    return new BinaryExpression(Op.DIV, null, this, other);
+  }
+
+  public DoubleExpression div(DoubleArray other) {
+    return div(of(other));
+  }
+
+  public DoubleExpression div(double value) {
+    return div(constant(value));
+  }
+
+  /**
+   * Combine the elements of this expression with the elements of the given expression using the
+   * given operator
+   *
+   * @param other the other expression
+   * @param operator the operator
+   * @return a new expression
+   */
+  public DoubleExpression combine(DoubleExpression other, DoubleBinaryOperator operator) {
+    return new BinaryExpression(Op.OPERATOR, Objects.requireNonNull(operator), this, other);
+  }
+
+  /**
+   * Apply the given operator to the elements of this expression
+   *
+   * @param operator the operator
+   * @return a new expression
+   */
+  public DoubleExpression map(DoubleUnaryOperator operator) {
+    return new UnaryExpression(Op.OPERATOR, Objects.requireNonNull(operator), this);
+  }
+
+  public DoubleExpression negate() {
+    return new UnaryExpression(Op.NEGATE, null, this);
+  }
+
+  public DoubleExpression abs() {
+    return new UnaryExpression(Op.ABS, null, this);
+  }
+
+  public DoubleExpression sqrt() {
+    return new UnaryExpression(Op.SQRT, null, this);
+  }
+
+  public DoubleExpression exp() {
+    return new UnaryExpression(Op.EXP, null, this);
+  }
+
+  public DoubleExpression log() {
+    return new UnaryExpression(Op.LOG, null, this);
+  }
+
+  public DoubleExpression pow(double power) {
+    if (power == 2) {
+      return new UnaryExpression(Op.SQUARE, null, this);
+    }
+    return map(v -> Math.pow(v, power));
+  }
+
+  /**
+   * Evaluate the expression into a new array
+   *
+   * @return a new array
+   */
+  public DoubleArray materialize() {
+    DoubleArray out = getArrayBackend().getArrayFactory().newDoubleArray(getShape());
+    assignTo(out);
+    return out;
+  }
+
+  /**
+   * Evaluate the expression into the given array. The expression is broadcast to the shape of the
+   * array. The array can be an operand of the expression, but not an overlapping view of an
+   * operand.
+   *
+   * @param out the array
+   */
+  public void assignTo(DoubleArray out) {
+    int[] shape = out.getShape();
+    Expressions.checkAssignable(this.shape, shape);
+    Expressions.parallelPolicy(out).execute(out.size(), (start, end) -> {
+      Expressions.Operands operands = new Expressions.Operands(shape);
+      AbstractDoubleArray dest = operands.add(out);
+      Kernel kernel = compile(operands);
+      StridedLoop loop = operands.loop(start, end);
+      double[] values = kernel.values;
+      while (loop.next()) {
+        int p = loop.offset(0), ps = loop.stride(0);
+        for (int from = 0; from < loop.length(); from += Expressions.BLOCK) {
+          int n = Math.min(Expressions.BLOCK, loop.length() - from);
+          kernel.evaluate(loop, from, n);
+          for (int i = 0; i < n; i++, p += ps) {
+            dest.setElement(p, values[i]);
+          }
+        }
+      }
+    });
+  }
+
+  /**
+   * Returns the sum of the elements of this expression, without storing the elements
+   *
+   * @return the sum
+   */
+  public double sum() {
+    DoubleAdder sum = new DoubleAdder();
+    Expressions.parallelPolicy().execute(size(), (start, end) -> {
+      Expressions.Operands operands = new Expressions.Operands(shape);
+      Kernel kernel = compile(operands);
+      StridedLoop loop = operands.loop(start, end);
+      double[] values = kernel.values;
+      double partial = 0;
+      while (loop.next()) {
+        for (int from = 0; from < loop.length(); from += Expressions.BLOCK) {
+          int n = Math.min(Expressions.BLOCK, loop.length() - from);
+          kernel.evaluate(loop, from, n);
+          for (int i = 0; i < n; i++) {
+            partial += values[i];
+          }
+        }
+      }
+      sum.add(partial);
+    });
+    return sum.sum();
+  }
+
+  /**
+   * Returns the mean of the elements of this expression, without storing the elements
+   *
+   * @return the mean
+   */
+  public double mean() {
+    return sum() / size();
+  }
+
+  /**
+   * Reduce the elements of this expression, without storing the elements. Since the elements can
+   * be reduced in parallel, the operator must be associative and commutative and the identity
+   * must be an identity of the operator.
+   *
+   * @param identity the identity
+   * @param operator the operator
+   * @return the reduced value
+   */
+  public double reduce(double identity, DoubleBinaryOperator operator) {
+    DoubleAccumulator result = new DoubleAccumulator(operator, identity);
+    Expressions.parallelPolicy().execute(size(), (start, end) -> {
+      Expressions.Operands operands = new Expressions.Operands(shape);
+      Kernel kernel = compile(operands);
+      StridedLoop loop = operands.loop(start, end);
+      double[] values = kernel.values;
+      double partial = identity;
+      while (loop.next()) {
+        for (int from = 0; from < loop.length(); from += Expressions.BLOCK) {
+          int n = Math.min(Expressions.BLOCK, loop.length() - from);
+          kernel.evaluate(loop, from, n);
+          for (int i = 0; i < n; i++) {
+            partial = operator.applyAsDouble(partial, values[i]);
+          }
+        }
+      }
+      result.accumulate(partial);
+    });
+    return result.get();
+  }
+
+  @Override
+  public String toString() {
+    return "DoubleExpression" + java.util.Arrays.toString(shape);
+  }
+
+  /**
+   * Compile the expression into a kernel, adding the arrays referred to by the expression to the
+   * operands
+   *
+   * @param operands the operands
+   * @return a kernel
+   */
+  abstract Kernel compile(Expressions.Operands operands);
+
+  /**
+   * Returns the backend of the first array referred to by this expression (or null)
+   */
+  abstract ArrayBackend findArrayBackend();
+
+  private ArrayBackend getArrayBackend() {
+    ArrayBackend backend = findArrayBackend();
+    return backend != null ? backend : Arrays.getArrayBackend();
+  }
+
+  private enum Op {
+    PLUS, MINUS, TIMES, DIV, NEGATE, ABS, SQRT, EXP, LOG, SQUARE, OPERATOR
+  }
+
+  /**
+   * Computes (at most) {@link Expressions#BLOCK} elements of an expression at a time.
+   */
+  abstract static class Kernel {
+    final double[] values = new double[Expressions.BLOCK];
+
+    /**
+     * Compute the {@code n} elements starting at the {@code from}:th element of the current block
+     * of the loop into {@link #values}.
+     *
+     * @param loop the loop
+     * @param from the first element in the current block
+     * @param n the number of elements
+     */
+    abstract void evaluate(StridedLoop loop, int from, int n);
+  }
+
+  private static final class ArrayExpression extends DoubleExpression {
+    private final AbstractDoubleArray array;
+
+    ArrayExpression(AbstractDoubleArray array) {
+      super(array.getShape());
+      this.array = array;
+    }
+
+    @Override
+    Kernel compile(Expressions.Operands operands) {
+      AbstractDoubleArray x = operands.add(array);
+      int k = operands.last();
+      return new Kernel() {
+        @Override
+        void evaluate(StridedLoop loop, int from, int n) {
+          int s = loop.stride(k);
+          int p = loop.offset(k) + from * s;
+          for (int i = 0; i < n; i++, p += s) {
+            values[i] = x.getElement(p);
+          }
+        }
+      };
+    }
+
+    @Override
+    ArrayBackend findArrayBackend() {
+      return array.getArrayBackend();
+    }
+  }
+
+  private static final class ConstantExpression extends DoubleExpression {
+    private final double value;
+
+    ConstantExpression(double value) {
+      super(new int[] {1});
+      this.value = value;
+    }
+
+    @Override
+    Kernel compile(Expressions.Operands operands) {
+      Kernel kernel = new Kernel() {
+        @Override
+        void evaluate(StridedLoop loop, int from, int n) {}
+      };
+      java.util.Arrays.fill(kernel.values, value);
+      return kernel;
+    }
+
+    @Override
+    ArrayBackend findArrayBackend() {
+      return null;
+    }
+  }
+
+  /**
+   * An int expression converted to double
+   */
+  static final class IntToDoubleExpression extends DoubleExpression {
+    private final IntExpression expression;
+
+    IntToDoubleExpression(IntExpression expression) {
+      super(expression.getShape());
+      this.expression = expression;
+    }
+
+    @Override
+    Kernel compile(Expressions.Operands operands) {
+      IntExpression.Kernel operand = expression.compile(operands);
+      return new Kernel() {
+        @Override
+        void evaluate(StridedLoop loop, int from, int n) {
+          operand.evaluate(loop, from, n);
+          int[] x = operand.values;
+          for (int i = 0; i < n; i++) {
+            values[i] = x[i];
+          }
+        }
+      };
+    }
+
+    @Override
+    ArrayBackend findArrayBackend() {
+      return expression.findArrayBackend();
+    }
+  }
+
+  private static final class UnaryExpression extends DoubleExpression {
+    private final Op op;
+    private final DoubleUnaryOperator operator;
+    private final DoubleExpression operand;
+
+    UnaryExpression(Op op, DoubleUnaryOperator operator, DoubleExpression operand) {
+      super(operand.shape);
+      this.op = op;
+      this.operator = operator;
+      this.operand = operand;
+    }
+
+    @Override
+    Kernel compile(Expressions.Operands operands) {
+      Kernel operand = this.operand.compile(operands);
+      return new Kernel() {
+        @Override
+        void evaluate(StridedLoop loop, int from, int n) {
+          operand.evaluate(loop, from, n);
+          double[] x = operand.values;
+          switch (op) {
+            case NEGATE:
+              for (int i = 0; i < n; i++) {
+                values[i] = -x[i];
+              }
+              break;
+            case ABS:
+              for (int i = 0; i < n; i++) {
+                values[i] = Math.abs(x[i]);
+              }
+              break;
+            case SQRT:
+              for (int i = 0; i < n; i++) {
+                values[i] = Math.sqrt(x[i]);
+              }
+              break;
+            case EXP:
+              for (int i = 0; i < n; i++) {
+                values[i] = Math.exp(x[i]);
+              }
+              break;
+            case LOG:
+              for (int i = 0; i < n; i++) {
+                values[i] = Math.log(x[i]);
+              }
+              break;
+            case SQUARE:
+              for (int i = 0; i < n; i++) {
+                values[i] = x[i] * x[i];
+              }
+              break;
+            default:
+              for (int i = 0; i < n; i++) {
+                values[i] = operator.applyAsDouble(x[i]);
+              }
+          }
+        }
+      };
+    }
+
+    @Override
+    ArrayBackend findArrayBackend() {
+      return operand.findArrayBackend();
+    }
+  }
+
+  private static final class BinaryExpression extends DoubleExpression {
+    private final Op op;
+    private final DoubleBinaryOperator operator;
+    private final DoubleExpression left;
+    private final DoubleExpression right;
+
+    BinaryExpression(Op op, DoubleBinaryOperator operator, DoubleExpression left,
+        DoubleExpression right) {
+      super(Expressions.combineShape(left.shape, right.shape));
+      this.op = op;
+      this.operator = operator;
+      this.left = left;
+      this.right = right;
+    }
+
+    @Override
+    Kernel compile(Expressions.Operands operands) {
+      Kernel left = this.left.compile(operands);
+      Kernel right = this.right.compile(operands);
+      return new Kernel() {
+        @Override
+        void evaluate(StridedLoop loop, int from, int n) {
+          left.evaluate(loop, from, n);
+          right.evaluate(loop, from, n);
+          double[] x = left.values;
+          double[] y = right.values;
+          switch (op) {
+            case PLUS:
+              for (int i = 0; i < n; i++) {
+                values[i] = x[i] + y[i];
+              }
+              break;
+            case MINUS:
+              for (int i = 0; i < n; i++) {
+                values[i] = x[i] - y[i];
+              }
+              break;
+            case TIMES:
+              for (int i = 0; i < n; i++) {
+                values[i] = x[i] * y[i];
+              }
+              break;
+            case DIV:
+              for (int i = 0; i < n; i++) {
+                values[i] = x[i] / y[i];
+              }
+              break;
+            default:
+              for (int i = 0; i < n; i++) {
+                values[i] = operator.applyAsDouble(x[i], y[i]);
+              }
+          }
+        }
+      };
+    }
+
+    @Override
+    ArrayBackend findArrayBackend() {
+      ArrayBackend backend = left.findArrayBackend();
+      return backend != null ? backend : right.findArrayBackend();
+    }
+  }
+}
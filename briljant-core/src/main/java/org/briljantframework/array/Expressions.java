@@ -0,0 +1,137 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 Isak Karlsson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.briljantframework.array;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.briljantframework.Check;
+import org.briljantframework.array.api.ParallelPolicy;
+import org.briljantframework.array.sparse.SparseDoubleArray;
+
+/**
+ * Shared machinery for evaluating {@link DoubleExpression} and {@link IntExpression}.
+ *
+ * <p/>
+ * An expression is evaluated by compiling it into a tree of kernels. Each kernel computes (at
+ * most) {@link #BLOCK} elements at a time into a buffer, which is small enough to stay in the
+ * cache, and the elements are visited using a {@link StridedLoop} over the (broadcast) operands.
+ * Each parallel task compiles its own kernels.
+ *
+ * @author Isak Karlsson
+ */
+final class Expressions {
+
+  /**
+   * The number of elements computed by each kernel at a time
+   */
+  static final int BLOCK = 256;
+
+  private Expressions() {}
+
+  /**
+   * Returns the parallel policy used for evaluating expressions, i.e., the policy set for the
+   * current thread (if any) or the policy of the default array routines.
+   *
+   * @return the policy
+   */
+  static ParallelPolicy parallelPolicy() {
+    return ParallelPolicy.current(Arrays.getArrayBackend().getArrayRoutines().getParallelPolicy());
+  }
+
+  /**
+   * Returns the parallel policy used for evaluating expressions into {@code out}, which is serial
+   * for sparse arrays since setting an element may move the stored elements.
+   *
+   * @param out the array written to
+   * @return the policy
+   */
+  static ParallelPolicy parallelPolicy(DoubleArray out) {
+    return out instanceof SparseDoubleArray ? ParallelPolicy.serial() : parallelPolicy();
+  }
+
+  /**
+   * Returns the shape of the result of an element-wise operation on two expressions.
+   */
+  static int[] combineShape(int[] a, int[] b) {
+    return ShapeUtils.findCombinedBroadcastShape(a, b);
+  }
+
+  /**
+   * Check that an expression of the given shape can be assigned to an array of the given shape.
+   */
+  static void checkAssignable(int[] shape, int[] to) {
+    Check.argument(java.util.Arrays.equals(combineShape(shape, to), to),
+        "Can't assign expression with shape %s to array with shape %s",
+        java.util.Arrays.toString(shape), java.util.Arrays.toString(to));
+  }
+
+  /**
+   * The operands of an expression, broadcast to the shape of the result.
+   */
+  static final class Operands {
+
+    private final int[] shape;
+    private final List<BaseArray<?>> arrays = new ArrayList<>();
+
+    Operands(int[] shape) {
+      this.shape = shape;
+    }
+
+    /**
+     * Broadcast the given array to the shape of the result and add it as an operand.
+     *
+     * @param array the array
+     * @return the array broadcast to the shape of the result
+     */
+    AbstractDoubleArray add(DoubleArray array) {
+      AbstractDoubleArray x = AbstractDoubleArray.strided(Arrays.broadcastTo(array, shape));
+      arrays.add(x);
+      return x;
+    }
+
+    AbstractIntArray add(IntArray array) {
+      AbstractIntArray x = AbstractIntArray.strided(Arrays.broadcastTo(array, shape));
+      arrays.add(x);
+      return x;
+    }
+
+    /**
+     * Returns the index of the most recently added operand, i.e., the index used in the loop.
+     */
+    int last() {
+      return arrays.size() - 1;
+    }
+
+    /**
+     * Returns a loop over the elements {@code [start, end)} of the operands.
+     */
+    StridedLoop loop(int start, int end) {
+      int[] offsets = new int[arrays.size()];
+      int[][] strides = new int[arrays.size()][];
+      for (int k = 0; k < offsets.length; k++) {
+        offsets[k] = arrays.get(k).getOffset();
+        strides[k] = arrays.get(k).getStride();
+      }
+      return new StridedLoop(shape, offsets, strides, start, end);
+    }
+  }
+}
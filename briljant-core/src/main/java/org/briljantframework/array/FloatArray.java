@@ -0,0 +1,162 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 Isak Karlsson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.briljantframework.array;
+
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoublePredicate;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * A n-dimensional array of single precision (float) values. Float arrays use half the memory of
+ * double arrays, which makes them suitable for large arrays (e.g., embedding matrices) that do not
+ * need double precision.
+ *
+ * <p>
+ * Since there are no primitive float specializations of the functional interfaces, the
+ * element-wise operations accept double operators; values are widened before applying the
+ * operator and the result is narrowed to a float.
+ *
+ * @author Isak Karlsson
+ */
+public interface FloatArray extends NumberArray, BaseArray<FloatArray>, Iterable<Float> {
+
+  static FloatArray ones(int... shape) {
+    FloatArray array = zeros(shape);
+    array.assign(1);
+    return array;
+  }
+
+  static FloatArray zeros(int... shape) {
+    return Arrays.floatArray(shape);
+  }
+
+  /**
+   * @see Arrays#floatVector(float...)
+   */
+  static FloatArray of(float... data) {
+    return Arrays.floatVector(data);
+  }
+
+  // Assignments
+
+  /**
+   * Assign {@code value} to {@code this}
+   *
+   * @param value the value to assign
+   * @return receiver modified
+   */
+  FloatArray assign(float value);
+
+  void assign(float[] values);
+
+  /**
+   * Assign {@code array} to {@code this}, applying {@code operator} to each value.
+   *
+   * @param array the array
+   * @param operator the operator
+   */
+  void assign(FloatArray array, DoubleUnaryOperator operator);
+
+  void combineAssign(FloatArray array, DoubleBinaryOperator combine);
+
+  /**
+   * Assign the values of {@code array} (narrowed to floats) to {@code this}.
+   *
+   * @param array the array
+   */
+  void assign(DoubleArray array);
+
+  // Transform
+
+  /**
+   * Perform {@code operator} element wise to receiver, returning a new array.
+   *
+   * @param operator the operator to apply to each element
+   * @return a new array
+   */
+  FloatArray map(DoubleUnaryOperator operator);
+
+  /**
+   * Perform {@code operator} element wise to receiver, modifying it.
+   *
+   * @param operator the operator to apply to each element
+   */
+  void apply(DoubleUnaryOperator operator);
+
+  BooleanArray where(DoublePredicate predicate);
+
+  float reduce(float identity, DoubleBinaryOperator reduce);
+
+  // Get and set
+
+  float get(int i, int j);
+
+  float get(int index);
+
+  void set(int index, float value);
+
+  void set(int[] ix, float value);
+
+  float get(int... ix);
+
+  void set(int row, int column, float value);
+
+  // Arithmetical operations
+
+  FloatArray times(FloatArray other);
+
+  FloatArray times(float scalar);
+
+  FloatArray plus(FloatArray other);
+
+  FloatArray plus(float scalar);
+
+  FloatArray minus(FloatArray other);
+
+  FloatArray minus(float scalar);
+
+  FloatArray div(FloatArray other);
+
+  FloatArray div(float other);
+
+  FloatArray negate();
+
+  /**
+   * Returns this array viewed as a double array. Values written to the view are narrowed to
+   * floats. To get a double precision copy, use {@code doubleArray().copy()}.
+   *
+   * @return a double array view
+   */
+  DoubleArray doubleArray();
+
+  IntArray intArray();
+
+  LongArray longArray();
+
+  ComplexArray complexArray();
+
+  /**
+   * Returns a new primitive array with the elements of this array in linear (column-major) order.
+   *
+   * @return the elements
+   */
+  float[] data();
+}
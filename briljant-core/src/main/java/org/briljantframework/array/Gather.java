@@ -0,0 +1,534 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 Isak Karlsson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.briljantframework.array;
+
+import java.util.List;
+
+import org.briljantframework.array.api.ParallelPolicy;
+import org.briljantframework.array.sparse.SparseDoubleArray;
+
+/**
+ * Type-specialized gather (take) and scatter (put) kernels for {@code double}, {@code int} and
+ * {@code long} arrays.
+ *
+ * <p/>
+ * Instead of copying each element through the generic {@code set(int, E, int)} (which computes the
+ * location of both elements from their linear index) the kernels compute the memory locations
+ * incrementally and access the storage directly, either through the heap array backing the array
+ * (if any) or the element accessors. Runs of consecutive indexes are copied in bulk using
+ * {@link System#arraycopy(Object, int, Object, int, int)} and large index sets are processed in
+ * parallel according to the given {@link ParallelPolicy}.
+ *
+ * @author Isak Karlsson
+ */
+final class Gather {
+
+  /**
+   * The minimum length of a run of consecutive indexes copied using {@code System.arraycopy}
+   */
+  private static final int MIN_RUN = 8;
+  private static final int NOT_LINEAR = Integer.MIN_VALUE;
+
+  private Gather() {}
+
+  /**
+   * Returns true if the kernels support the given array. Sparse arrays are not supported, since
+   * setting an element may move the stored elements (so the kernels cannot write them in parallel).
+   */
+  static boolean isSupported(BaseArray<?> array) {
+    return array instanceof AbstractDoubleArray && !(array instanceof SparseDoubleArray)
+        || array instanceof AbstractIntArray || array instanceof AbstractLongArray;
+  }
+
+  /**
+   * Returns the dimension of the single (1d) advanced index in the given list of indexers, or
+   * {@code -1} if the list contains zero or several advanced indexes.
+   */
+  static int singleAdvancedIndex(List<? extends IntArray> arrays) {
+    int dim = -1;
+    for (int i = 0; i < arrays.size(); i++) {
+      IntArray index = arrays.get(i);
+      if (index == null || !AdvancedIndexer.isBasicIndexer(index)) {
+        if (dim != -1 || index == null || index.dims() != 1) {
+          return -1;
+        }
+        dim = i;
+      }
+    }
+    return dim;
+  }
+
+  /**
+   * Returns the elements of the index array as a primitive array, checking that each index is in
+   * the range {@code [0, size)}.
+   */
+  static int[] indexes(IntArray index, int dim, int size) {
+    int[] indexes;
+    if (index instanceof AbstractIntArray) {
+      indexes = ((AbstractIntArray) index).elements();
+    } else {
+      indexes = new int[index.size()];
+      for (int i = 0; i < indexes.length; i++) {
+        indexes[i] = index.get(i);
+      }
+    }
+    for (int idx : indexes) {
+      if (idx < 0 || idx >= size) {
+        throw new IndexOutOfBoundsException(
+            String.format(AbstractBaseArray.ILLEGAL_DIMENSION_INDEX, idx, dim, size));
+      }
+    }
+    return indexes;
+  }
+
+  /**
+   * Take the elements at the given linear indexes of {@code src} and store them in the 1d-array
+   * {@code dst}.
+   */
+  static <T extends BaseArray<T>> void take(T src, int[] indexes, T dst, ParallelPolicy policy) {
+    int offset = src.getOffset(), stride = linearStride(src);
+    if (stride == NOT_LINEAR) {
+      // compute the memory location of each index
+      int[] srcStride = src.getStride(), srcShape = src.getShape();
+      int[] positions = new int[indexes.length];
+      for (int i = 0; i < indexes.length; i++) {
+        positions[i] = StrideUtils.index(indexes[i], offset, srcStride, srcShape);
+      }
+      indexes = positions;
+      offset = 0;
+      stride = 1;
+    }
+    int[] idx = indexes;
+    int so = offset, ss = stride, dstOffset = dst.getOffset(), dstStride = dst.stride(0);
+    policy.execute(idx.length,
+        (start, end) -> gather(src, so, ss, idx, start, end, dst, dstOffset, dstStride));
+  }
+
+  /**
+   * Take the elements at the given indexes along the given dimension of {@code src} and store them
+   * in {@code dst}, which has the shape of {@code src} except for dimension {@code dim} which has
+   * {@code indexes.length} elements.
+   */
+  static <T extends BaseArray<T>> void takeAlong(T src, int dim, int[] indexes, T dst,
+      ParallelPolicy policy) {
+    int k = indexes.length;
+    if (k == 0 || dst.size() == 0) {
+      return;
+    }
+
+    if (dim == src.dims() - 1 && isCompact(src) && isCompact(dst)) {
+      // each index selects a contiguous slab of elements
+      int slab = dst.size() / k;
+      int srcOffset = src.getOffset(), dstOffset = dst.getOffset();
+      policy.execute(k, (start, end) -> {
+        for (int i = start; i < end; i++) {
+          copy(src, srcOffset + indexes[i] * slab, dst, dstOffset + i * slab, slab);
+        }
+      });
+      return;
+    }
+
+    // process each vector along the dimension
+    int srcStride = src.stride(dim), dstStride = dst.stride(dim);
+    policy.execute(dst.size(), (start, end) -> {
+      int v = start / k, i = start % k;
+      while (start < end) {
+        int last = Math.min(k, i + end - start);
+        gather(src, vectorOffset(src, dim, v), srcStride, indexes, i, last, dst,
+            vectorOffset(dst, dim, v), dstStride);
+        start += last - i;
+        i = 0;
+        v++;
+      }
+    });
+  }
+
+  /**
+   * Put the elements of {@code values} at the given indexes along the given dimension of
+   * {@code dst}. The values have the shape of {@code dst} except for dimension {@code dim} which
+   * has {@code indexes.length} elements. If an index is repeated, the last value is stored.
+   */
+  static <T extends BaseArray<T>> void putAlong(T dst, int dim, int[] indexes, T values,
+      ParallelPolicy policy) {
+    int k = indexes.length;
+    if (k == 0 || values.size() == 0) {
+      return;
+    }
+    // the vectors are processed in parallel, but each vector serially to retain the order of
+    // repeated indexes
+    int srcStride = values.stride(dim), dstStride = dst.stride(dim);
+    policy.execute(values.vectors(dim), (start, end) -> {
+      for (int v = start; v < end; v++) {
+        scatter(values, vectorOffset(values, dim, v), srcStride, indexes, 0, k, dst,
+            vectorOffset(dst, dim, v), dstStride);
+      }
+    });
+  }
+
+  /**
+   * Set the elements of {@code dst} to the elements of {@code values} where the mask is
+   * {@code true}. All arrays have the same shape.
+   */
+  static <T extends BaseArray<T>> void putMask(T dst, BooleanArray mask, T values,
+      ParallelPolicy policy) {
+    AbstractBooleanArray m = (AbstractBooleanArray) mask;
+    policy.execute(dst.size(), (start, end) -> {
+      StridedLoop loop = StridedLoop.range(start, end, dst, mask, values);
+      while (loop.next()) {
+        int n = loop.length();
+        int dp = loop.offset(0), ds = loop.stride(0);
+        int mp = loop.offset(1), ms = loop.stride(1);
+        int vp = loop.offset(2), vs = loop.stride(2);
+        if (dst instanceof AbstractDoubleArray) {
+          AbstractDoubleArray d = (AbstractDoubleArray) dst, s = (AbstractDoubleArray) values;
+          for (int i = 0; i < n; i++, dp += ds, mp += ms, vp += vs) {
+            if (m.getElement(mp)) {
+              d.setElement(dp, s.getElement(vp));
+            }
+          }
+        } else if (dst instanceof AbstractIntArray) {
+          AbstractIntArray d = (AbstractIntArray) dst, s = (AbstractIntArray) values;
+          for (int i = 0; i < n; i++, dp += ds, mp += ms, vp += vs) {
+            if (m.getElement(mp)) {
+              d.setElement(dp, s.getElement(vp));
+            }
+          }
+        } else {
+          AbstractLongArray d = (AbstractLongArray) dst, s = (AbstractLongArray) values;
+          for (int i = 0; i < n; i++, dp += ds, mp += ms, vp += vs) {
+            if (m.getElement(mp)) {
+              d.setElement(dp, s.getElement(vp));
+            }
+          }
+        }
+      }
+    });
+  }
+
+  /**
+   * Set the elements of {@code dst} to the elements of {@code x} where the condition is
+   * {@code true} and to the elements of {@code y} otherwise. All arrays have the same shape.
+   */
+  static <T extends BaseArray<T>> void where(BooleanArray condition, T x, T y, T dst,
+      ParallelPolicy policy) {
+    AbstractBooleanArray c = (AbstractBooleanArray) condition;
+    policy.execute(dst.size(), (start, end) -> {
+      StridedLoop loop = StridedLoop.range(start, end, dst, condition, x, y);
+      while (loop.next()) {
+        int n = loop.length();
+        int dp = loop.offset(0), ds = loop.stride(0);
+        int cp = loop.offset(1), cs = loop.stride(1);
+        int xp = loop.offset(2), xs = loop.stride(2);
+        int yp = loop.offset(3), ys = loop.stride(3);
+        if (dst instanceof AbstractDoubleArray) {
+          AbstractDoubleArray d = (AbstractDoubleArray) dst;
+          AbstractDoubleArray a = (AbstractDoubleArray) x, b = (AbstractDoubleArray) y;
+          for (int i = 0; i < n; i++, dp += ds, cp += cs, xp += xs, yp += ys) {
+            d.setElement(dp, c.getElement(cp) ? a.getElement(xp) : b.getElement(yp));
+          }
+        } else if (dst instanceof AbstractIntArray) {
+          AbstractIntArray d = (AbstractIntArray) dst;
+          AbstractIntArray a = (AbstractIntArray) x, b = (AbstractIntArray) y;
+          for (int i = 0; i < n; i++, dp += ds, cp += cs, xp += xs, yp += ys) {
+            d.setElement(dp, c.getElement(cp) ? a.getElement(xp) : b.getElement(yp));
+          }
+        } else {
+          AbstractLongArray d = (AbstractLongArray) dst;
+          AbstractLongArray a = (AbstractLongArray) x, b = (AbstractLongArray) y;
+          for (int i = 0; i < n; i++, dp += ds, cp += cs, xp += xs, yp += ys) {
+            d.setElement(dp, c.getElement(cp) ? a.getElement(xp) : b.getElement(yp));
+          }
+        }
+      }
+    });
+  }
+
+  /**
+   * Returns the stride {@code s} such that the linear index {@code i} of the array is located at
+   * {@code offset + i * s} or {@link #NOT_LINEAR} if there is no such stride.
+   */
+  private static int linearStride(BaseArray<?> a) {
+    boolean first = true;
+    int stride = 1, expected = 0;
+    for (int i = 0; i < a.dims(); i++) {
+      int size = a.size(i);
+      if (size == 1) {
+        continue;
+      }
+      if (first) {
+        stride = a.stride(i);
+        expected = stride * size;
+        first = false;
+      } else if (a.stride(i) != expected) {
+        return NOT_LINEAR;
+      } else {
+        expected *= size;
+      }
+    }
+    return stride;
+  }
+
+  /**
+   * Returns true if the elements are stored contiguously in linear order
+   */
+  private static boolean isCompact(BaseArray<?> a) {
+    return linearStride(a) == 1;
+  }
+
+  /**
+   * Returns the memory location of the first element of the {@code v}:th vector along the given
+   * dimension, i.e., the location of the first element of {@code a.getVector(dim, v)}.
+   */
+  private static int vectorOffset(BaseArray<?> a, int dim, int v) {
+    int offset = a.getOffset();
+    for (int i = 0, dims = a.dims(); i < dims && v > 0; i++) {
+      if (i != dim) {
+        int size = a.size(i);
+        offset += (v % size) * a.stride(i);
+        v /= size;
+      }
+    }
+    return offset;
+  }
+
+  private static void gather(BaseArray<?> src, int so, int ss, int[] idx, int from, int to,
+      BaseArray<?> dst, int dOff, int ds) {
+    if (src instanceof AbstractDoubleArray) {
+      gather((AbstractDoubleArray) src, so, ss, idx, from, to, (AbstractDoubleArray) dst, dOff,
+          ds);
+    } else if (src instanceof AbstractIntArray) {
+      gather((AbstractIntArray) src, so, ss, idx, from, to, (AbstractIntArray) dst, dOff, ds);
+    } else {
+      gather((AbstractLongArray) src, so, ss, idx, from, to, (AbstractLongArray) dst, dOff, ds);
+    }
+  }
+
+  private static void scatter(BaseArray<?> src, int so, int ss, int[] idx, int from, int to,
+      BaseArray<?> dst, int dOff, int ds) {
+    if (src instanceof AbstractDoubleArray) {
+      scatter((AbstractDoubleArray) src, so, ss, idx, from, to, (AbstractDoubleArray) dst, dOff,
+          ds);
+    } else if (src instanceof AbstractIntArray) {
+      scatter((AbstractIntArray) src, so, ss, idx, from, to, (AbstractIntArray) dst, dOff, ds);
+    } else {
+      scatter((AbstractLongArray) src, so, ss, idx, from, to, (AbstractLongArray) dst, dOff, ds);
+    }
+  }
+
+  private static void copy(BaseArray<?> src, int sp, BaseArray<?> dst, int dp, int length) {
+    Object s = backingArray(src), d = backingArray(dst);
+    if (s != null && d != null) {
+      System.arraycopy(s, sp, d, dp, length);
+    } else if (src instanceof AbstractDoubleArray) {
+      AbstractDoubleArray from = (AbstractDoubleArray) src, to = (AbstractDoubleArray) dst;
+      for (int i = 0; i < length; i++) {
+        to.setElement(dp + i, from.getElement(sp + i));
+      }
+    } else if (src instanceof AbstractIntArray) {
+      AbstractIntArray from = (AbstractIntArray) src, to = (AbstractIntArray) dst;
+      for (int i = 0; i < length; i++) {
+        to.setElement(dp + i, from.getElement(sp + i));
+      }
+    } else {
+      AbstractLongArray from = (AbstractLongArray) src, to = (AbstractLongArray) dst;
+      for (int i = 0; i < length; i++) {
+        to.setElement(dp + i, from.getElement(sp + i));
+      }
+    }
+  }
+
+  private static Object backingArray(BaseArray<?> a) {
+    if (a instanceof AbstractDoubleArray) {
+      return ((AbstractDoubleArray) a).getBackingArray();
+    } else if (a instanceof AbstractIntArray) {
+      return ((AbstractIntArray) a).getBackingArray();
+    } else {
+      return ((AbstractLongArray) a).getBackingArray();
+    }
+  }
+
+  /**
+   * Returns the end (exclusive) of the run of consecutive indexes starting at {@code i}
+   */
+  private static int runEnd(int[] idx, int i, int to) {
+    int j = i + 1;
+    while (j < to && idx[j] == idx[j - 1] + 1) {
+      j++;
+    }
+    return j;
+  }
+
+  private static void gather(AbstractDoubleArray src, int so, int ss, int[] idx, int from, int to,
+      AbstractDoubleArray dst, int dOff, int ds) {
+    double[] s = src.getBackingArray(), d = dst.getBackingArray();
+    if (s == null || d == null) {
+      for (int i = from; i < to; i++) {
+        dst.setElement(dOff + i * ds, src.getElement(so + idx[i] * ss));
+      }
+    } else if (ss == 1 && ds == 1) {
+      for (int i = from; i < to;) {
+        int j = runEnd(idx, i, to);
+        if (j - i >= MIN_RUN) {
+          System.arraycopy(s, so + idx[i], d, dOff + i, j - i);
+        } else {
+          for (int k = i; k < j; k++) {
+            d[dOff + k] = s[so + idx[k]];
+          }
+        }
+        i = j;
+      }
+    } else {
+      for (int i = from; i < to; i++) {
+        d[dOff + i * ds] = s[so + idx[i] * ss];
+      }
+    }
+  }
+
+  private static void gather(AbstractIntArray src, int so, int ss, int[] idx, int from, int to,
+      AbstractIntArray dst, int dOff, int ds) {
+    int[] s = src.getBackingArray(), d = dst.getBackingArray();
+    if (s == null || d == null) {
+      for (int i = from; i < to; i++) {
+        dst.setElement(dOff + i * ds, src.getElement(so + idx[i] * ss));
+      }
+    } else if (ss == 1 && ds == 1) {
+      for (int i = from; i < to;) {
+        int j = runEnd(idx, i, to);
+        if (j - i >= MIN_RUN) {
+          System.arraycopy(s, so + idx[i], d, dOff + i, j - i);
+        } else {
+          for (int k = i; k < j; k++) {
+            d[dOff + k] = s[so + idx[k]];
+          }
+        }
+        i = j;
+      }
+    } else {
+      for (int i = from; i < to; i++) {
+        d[dOff + i * ds] = s[so + idx[i] * ss];
+      }
+    }
+  }
+
+  private static void gather(AbstractLongArray src, int so, int ss, int[] idx, int from, int to,
+      AbstractLongArray dst, int dOff, int ds) {
+    long[] s = src.getBackingArray(), d = dst.getBackingArray();
+    if (s == null || d == null) {
+      for (int i = from; i < to; i++) {
+        dst.setElement(dOff + i * ds, src.getElement(so + idx[i] * ss));
+      }
+    } else if (ss == 1 && ds == 1) {
+      for (int i = from; i < to;) {
+        int j = runEnd(idx, i, to);
+        if (j - i >= MIN_RUN) {
+          System.arraycopy(s, so + idx[i], d, dOff + i, j - i);
+        } else {
+          for (int k = i; k < j; k++) {
+            d[dOff + k] = s[so + idx[k]];
+          }
+        }
+        i = j;
+      }
+    } else {
+      for (int i = from; i < to; i++) {
+        d[dOff + i * ds] = s[so + idx[i] * ss];
+      }
+    }
+  }
+
+  private static void scatter(AbstractDoubleArray src, int so, int ss, int[] idx, int from,
+      int to, AbstractDoubleArray dst, int dOff, int ds) {
+    double[] s = src.getBackingArray(), d = dst.getBackingArray();
+    if (s == null || d == null) {
+      for (int i = from; i < to; i++) {
+        dst.setElement(dOff + idx[i] * ds, src.getElement(so + i * ss));
+      }
+    } else if (ss == 1 && ds == 1) {
+      for (int i = from; i < to;) {
+        int j = runEnd(idx, i, to);
+        if (j - i >= MIN_RUN) {
+          System.arraycopy(s, so + i, d, dOff + idx[i], j - i);
+        } else {
+          for (int k = i; k < j; k++) {
+            d[dOff + idx[k]] = s[so + k];
+          }
+        }
+        i = j;
+      }
+    } else {
+      for (int i = from; i < to; i++) {
+        d[dOff + idx[i] * ds] = s[so + i * ss];
+      }
+    }
+  }
+
+  private static void scatter(AbstractIntArray src, int so, int ss, int[] idx, int from, int to,
+      AbstractIntArray dst, int dOff, int ds) {
+    int[] s = src.getBackingArray(), d = dst.getBackingArray();
+    if (s == null || d == null) {
+      for (int i = from; i < to; i++) {
+        dst.setElement(dOff + idx[i] * ds, src.getElement(so + i * ss));
+      }
+    } else if (ss == 1 && ds == 1) {
+      for (int i = from; i < to;) {
+        int j = runEnd(idx, i, to);
+        if (j - i >= MIN_RUN) {
+          System.arraycopy(s, so + i, d, dOff + idx[i], j - i);
+        } else {
+          for (int k = i; k < j; k++) {
+            d[dOff + idx[k]] = s[so + k];
+          }
+        }
+        i = j;
+      }
+    } else {
+      for (int i = from; i < to; i++) {
+        d[dOff + idx[i] * ds] = s[so + i * ss];
+      }
+    }
+  }
+
+  private static void scatter(AbstractLongArray src, int so, int ss, int[] idx, int from, int to,
+      AbstractLongArray dst, int dOff, int ds) {
+    long[] s = src.getBackingArray(), d = dst.getBackingArray();
+    if (s == null || d == null) {
+      for (int i = from; i < to; i++) {
+        dst.setElement(dOff + idx[i] * ds, src.getElement(so + i * ss));
+      }
+    } else if (ss == 1 && ds == 1) {
+      for (int i = from; i < to;) {
+        int j = runEnd(idx, i, to);
+        if (j - i >= MIN_RUN) {
+          System.arraycopy(s, so + i, d, dOff + idx[i], j - i);
+        } else {
+          for (int k = i; k < j; k++) {
+            d[dOff + idx[k]] = s[so + k];
+          }
+        }
+        i = j;
+      }
+    } else {
+      for (int i = from; i < to; i++) {
+        d[dOff + idx[i] * ds] = s[so + i * ss];
+      }
+    }
+  }
+}
@@ -0,0 +1,328 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 Isak Karlsson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.briljantframework.array;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+
+import org.briljantframework.Check;
+
+/**
+ * Reading and writing of arrays in the IDX format, i.e., a header with the element type and the
+ * shape followed by the (big-endian) elements in row-major order.
+ *
+ * <p/>
+ * Since arrays are column-major, the elements of an IDX file form a column-major array with the
+ * reversed shape. Hence, the elements are decoded in bulk, in file order, and the result is the
+ * transpose of that array.
+ *
+ * @author Isak Karlsson
+ */
+final class Idx {
+
+  static final int UBYTE = 0x08;
+  static final int BYTE = 0x09;
+  static final int SHORT = 0x0B;
+  static final int INT = 0x0C;
+  static final int FLOAT = 0x0D;
+  static final int DOUBLE = 0x0E;
+
+  /**
+   * The (maximum) number of bytes decoded from a mapped region or a stream at a time
+   */
+  private static final int CHUNK_BYTES = 1 << 20;
+  private static final long MAP_BYTES = 1L << 30;
+
+  private Idx() {}
+
+  /**
+   * The header of an IDX file
+   */
+  static final class Header {
+
+    final int type;
+    final int[] shape;
+    final int size;
+
+    Header(int type, int[] shape) {
+      elementBytes(type); // throws for unknown types
+      this.type = type;
+      this.shape = shape;
+      this.size = shape.length == 0 ? 1 : ShapeUtils.size(shape);
+    }
+
+    /**
+     * Returns the number of bytes of the header, i.e., the position of the first element.
+     */
+    int length() {
+      return 4 + 4 * shape.length;
+    }
+
+    /**
+     * Returns the shape of the column-major array of the elements in file order.
+     */
+    int[] reversedShape() {
+      return StrideUtils.reverse(shape);
+    }
+
+    boolean isInteger() {
+      return type != FLOAT && type != DOUBLE;
+    }
+  }
+
+  static Header readHeader(DataInputStream in) throws IOException {
+    int magic = in.readInt();
+    int[] shape = new int[checkMagic(magic)];
+    for (int i = 0; i < shape.length; i++) {
+      shape[i] = in.readInt();
+    }
+    return new Header(magic >> 8 & 0xFF, shape);
+  }
+
+  static Header readHeader(FileChannel channel) throws IOException {
+    ByteBuffer magic = read(channel, 0, 4);
+    int m = magic.getInt(0);
+    int dims = checkMagic(m);
+    ByteBuffer dimensions = read(channel, 4, 4 * dims);
+    int[] shape = new int[dims];
+    for (int i = 0; i < dims; i++) {
+      shape[i] = dimensions.getInt(4 * i);
+    }
+    return new Header(m >> 8 & 0xFF, shape);
+  }
+
+  private static int checkMagic(int magic) {
+    Check.state((magic >>> 16) == 0, "Not an IDX file");
+    return magic & 0xFF;
+  }
+
+  private static ByteBuffer read(FileChannel channel, long position, int length)
+      throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.BIG_ENDIAN);
+    while (buffer.hasRemaining()) {
+      if (channel.read(buffer, position + buffer.position()) < 0) {
+        throw new EOFException();
+      }
+    }
+    return buffer;
+  }
+
+  static int elementBytes(int type) {
+    switch (type) {
+      case UBYTE:
+      case BYTE:
+        return 1;
+      case SHORT:
+        return 2;
+      case INT:
+      case FLOAT:
+        return 4;
+      case DOUBLE:
+        return 8;
+      default:
+        throw new IllegalArgumentException(String.format("Illegal IDX type 0x%02X", type));
+    }
+  }
+
+  /**
+   * Decode the elements of the given stream (positioned after the header) into {@code dst}.
+   */
+  static void read(DataInputStream in, Header header, double[] dst) throws IOException {
+    int elementBytes = elementBytes(header.type);
+    byte[] bytes = new byte[(int) Math.min(CHUNK_BYTES, (long) header.size * elementBytes)];
+    ByteBuffer buffer = ByteBuffer.wrap(bytes).order(ByteOrder.BIG_ENDIAN);
+    for (int i = 0; i < header.size;) {
+      int count = Math.min(bytes.length / elementBytes, header.size - i);
+      in.readFully(bytes, 0, count * elementBytes);
+      decode(buffer, header.type, dst, i, count);
+      i += count;
+    }
+  }
+
+  /**
+   * Decode the elements of the given channel into {@code dst}. The elements are memory mapped one
+   * region at a time.
+   */
+  static void read(FileChannel channel, Header header, double[] dst) throws IOException {
+    int elementBytes = elementBytes(header.type);
+    long position = header.length();
+    int regionSize = (int) (MAP_BYTES / elementBytes);
+    for (int i = 0; i < header.size;) {
+      int count = Math.min(regionSize, header.size - i);
+      ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position,
+          (long) count * elementBytes).order(ByteOrder.BIG_ENDIAN);
+      decode(buffer, header.type, dst, i, count);
+      position += (long) count * elementBytes;
+      i += count;
+    }
+  }
+
+  /**
+   * Decode the (integer) elements of the given channel into {@code dst}.
+   */
+  static void read(FileChannel channel, Header header, int[] dst) throws IOException {
+    Check.argument(header.isInteger(), "Not an integer IDX file");
+    int elementBytes = elementBytes(header.type);
+    long position = header.length();
+    int regionSize = (int) (MAP_BYTES / elementBytes);
+    for (int i = 0; i < header.size;) {
+      int count = Math.min(regionSize, header.size - i);
+      ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position,
+          (long) count * elementBytes).order(ByteOrder.BIG_ENDIAN);
+      decode(buffer, header.type, dst, i, count);
+      position += (long) count * elementBytes;
+      i += count;
+    }
+  }
+
+  private static void decode(ByteBuffer src, int type, double[] dst, int offset, int count) {
+    switch (type) {
+      case UBYTE:
+        for (int i = 0; i < count; i++) {
+          dst[offset + i] = src.get(i) & 0xFF;
+        }
+        break;
+      case BYTE:
+        for (int i = 0; i < count; i++) {
+          dst[offset + i] = src.get(i);
+        }
+        break;
+      case SHORT:
+        for (int i = 0; i < count; i++) {
+          dst[offset + i] = src.getShort(i << 1);
+        }
+        break;
+      case INT:
+        for (int i = 0; i < count; i++) {
+          dst[offset + i] = src.getInt(i << 2);
+        }
+        break;
+      case FLOAT:
+        for (int i = 0; i < count; i++) {
+          dst[offset + i] = src.getFloat(i << 2);
+        }
+        break;
+      case DOUBLE:
+        src.asDoubleBuffer().get(dst, offset, count);
+        break;
+      default:
+        throw new IllegalArgumentException(String.format("Illegal IDX type 0x%02X", type));
+    }
+  }
+
+  private static void decode(ByteBuffer src, int type, int[] dst, int offset, int count) {
+    switch (type) {
+      case UBYTE:
+        for (int i = 0; i < count; i++) {
+          dst[offset + i] = src.get(i) & 0xFF;
+        }
+        break;
+      case BYTE:
+        for (int i = 0; i < count; i++) {
+          dst[offset + i] = src.get(i);
+        }
+        break;
+      case SHORT:
+        for (int i = 0; i < count; i++) {
+          dst[offset + i] = src.getShort(i << 1);
+        }
+        break;
+      case INT:
+        src.asIntBuffer().get(dst, offset, count);
+        break;
+      default:
+        throw new IllegalArgumentException(String.format("Illegal IDX type 0x%02X", type));
+    }
+  }
+
+  /**
+   * Write the given array to the channel. Double arrays are written as {@link #DOUBLE} and int
+   * arrays as {@link #INT}. The elements are read directly from the memory of the array (in
+   * row-major order) and encoded in bulk.
+   */
+  static void write(BaseArray<?> array, WritableByteChannel channel) throws IOException {
+    int type;
+    if (array instanceof DoubleArray) {
+      type = DOUBLE;
+    } else if (array instanceof IntArray) {
+      type = INT;
+    } else {
+      throw new IllegalArgumentException("Only double and int arrays can be written as IDX");
+    }
+    Check.argument(array.dims() <= 0xFF, "Too many dimensions");
+
+    int[] shape = array.getShape();
+    ByteBuffer buffer = ByteBuffer.allocate(CHUNK_BYTES).order(ByteOrder.BIG_ENDIAN);
+    buffer.putInt(type << 8 | shape.length);
+    for (int dim : shape) {
+      buffer.putInt(dim);
+    }
+
+    // the column-major order of the transpose is the row-major order of the array
+    if (type == DOUBLE) {
+      AbstractDoubleArray x = AbstractDoubleArray.strided(((DoubleArray) array).transpose());
+      StridedLoop loop = StridedLoop.of(x);
+      while (loop.next()) {
+        int p = loop.offset(0), ps = loop.stride(0);
+        for (int i = 0, n = loop.length(); i < n; i++, p += ps) {
+          if (buffer.remaining() < Double.BYTES) {
+            flush(buffer, channel);
+          }
+          buffer.putDouble(x.getElement(p));
+        }
+      }
+    } else if (array instanceof AbstractIntArray) {
+      AbstractIntArray x = (AbstractIntArray) ((IntArray) array).transpose();
+      StridedLoop loop = StridedLoop.of(x);
+      while (loop.next()) {
+        int p = loop.offset(0), ps = loop.stride(0);
+        for (int i = 0, n = loop.length(); i < n; i++, p += ps) {
+          if (buffer.remaining() < Integer.BYTES) {
+            flush(buffer, channel);
+          }
+          buffer.putInt(x.getElement(p));
+        }
+      }
+    } else {
+      IntArray x = ((IntArray) array).transpose();
+      for (int i = 0, n = x.size(); i < n; i++) {
+        if (buffer.remaining() < Integer.BYTES) {
+          flush(buffer, channel);
+        }
+        buffer.putInt(x.get(i));
+      }
+    }
+    flush(buffer, channel);
+  }
+
+  private static void flush(ByteBuffer buffer, WritableByteChannel channel) throws IOException {
+    buffer.flip();
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+    buffer.clear();
+  }
+}
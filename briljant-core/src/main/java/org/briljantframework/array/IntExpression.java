@@ -0,0 +1,448 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 Isak Karlsson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.briljantframework.array;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.function.IntBinaryOperator;
+import java.util.function.IntUnaryOperator;
+
+import org.briljantframework.array.api.ArrayBackend;
+
+/**
+ * A deferred, element-wise, expression over int arrays, evaluated in a single pass.
+ *
+ * @author Isak Karlsson
+ * @see DoubleExpression
+ */
+public abstract class IntExpression {
+
+  private final int[] shape;
+
+  IntExpression(int[] shape) {
+    this.shape = shape;
+  }
+
+  /**
+   * Returns an expression evaluating to the elements of the given array
+   *
+   * @param array the array
+   * @return a new expression
+   */
+  public static IntExpression of(IntArray array) {
+    return new ArrayExpression(AbstractIntArray.strided(array));
+  }
+
+  /**
+   * Returns an expression evaluating to the given value (broadcast to the shape of the other
+   * operands)
+   *
+   * @param value the value
+   * @return a new expression
+   */
+  public static IntExpression constant(int value) {
+    return new ConstantExpression(value);
+  }
+
+  /**
+   * Returns the shape of the result of this expression
+   *
+   * @return the shape
+   */
+  public final int[] getShape() {
+    return shape.clone();
+  }
+
+  /**
+   * Returns the number of elements in the result of this expression
+   *
+   * @return the size
+   */
+  public final int size() {
+    return ShapeUtils.size(shape);
+  }
+
+  public IntExpression plus(IntExpression other) {
+    return new BinaryExpression(Op.PLUS, null, this, other);
+  }
+
+  public IntExpression plus(IntArray other) {
+    return plus(of(other));
+  }
+
+  public IntExpression plus(int value) {
+    return plus(constant(value));
+  }
+
+  public IntExpression minus(IntExpression other) {
+    return new BinaryExpression(Op.MINUS, null, this, other);
+  }
+
+  public IntExpression minus(IntArray other) {
+    return minus(of(other));
+  }
+
+  public IntExpression minus(int value) {
+    return minus(constant(value));
+  }
+
+  public IntExpression times(IntExpression other) {
+    return new BinaryExpression(Op.TIMES, null, this, other);
+  }
+
+  public IntExpression times(IntArray other) {
+    return times(of(other));
+  }
+
+  public IntExpression times(int value) {
+    return times(constant(value));
+  }
+
+  public IntExpression div(IntExpression other) {
+    return new BinaryExpression(Op.DIV, null, this, other);
+  }
+
+  public IntExpression div(IntArray other) {
+    return div(of(other));
+  }
+
+  public IntExpression div(int value) {
+    return div(constant(value));
+  }
+
+  /**
+   * Combine the elements of this expression with the elements of the given expression using the
+   * given operator
+   *
+   * @param other the other expression
+   * @param operator the operator
+   * @return a new expression
+   */
+  public IntExpression combine(IntExpression other, IntBinaryOperator operator) {
+    return new BinaryExpression(Op.OPERATOR, Objects.requireNonNull(operator), this, other);
+  }
+
+  /**
+   * Apply the given operator to the elements of this expression
+   *
+   * @param operator the operator
+   * @return a new expression
+   */
+  public IntExpression map(IntUnaryOperator operator) {
+    return new UnaryExpression(Op.OPERATOR, Objects.requireNonNull(operator), this);
+  }
+
+  public IntExpression negate() {
+    return new UnaryExpression(Op.NEGATE, null, this);
+  }
+
+  public IntExpression abs() {
+    return new UnaryExpression(Op.ABS, null, this);
+  }
+
+  /**
+   * Returns this expression as a double expression
+   *
+   * @return a double expression
+   */
+  public DoubleExpression asDouble() {
+    return new DoubleExpression.IntToDoubleExpression(this);
+  }
+
+  /**
+   * Evaluate the expression into a new array
+   *
+   * @return a new array
+   */
+  public IntArray materialize() {
+    ArrayBackend backend = findArrayBackend();
+    if (backend == null) {
+      backend = Arrays.getArrayBackend();
+    }
+    IntArray out = backend.getArrayFactory().newIntArray(getShape());
+    assignTo(out);
+    return out;
+  }
+
+  /**
+   * Evaluate the expression into the given array.
+   *
+   * @param out the array
+   * @see DoubleExpression#assignTo(DoubleArray)
+   */
+  public void assignTo(IntArray out) {
+    int[] shape = out.getShape();
+    Expressions.checkAssignable(this.shape, shape);
+    Expressions.parallelPolicy().execute(out.size(), (start, end) -> {
+      Expressions.Operands operands = new Expressions.Operands(shape);
+      AbstractIntArray dest = operands.add(out);
+      Kernel kernel = compile(operands);
+      StridedLoop loop = operands.loop(start, end);
+      int[] values = kernel.values;
+      while (loop.next()) {
+        int p = loop.offset(0), ps = loop.stride(0);
+        for (int from = 0; from < loop.length(); from += Expressions.BLOCK) {
+          int n = Math.min(Expressions.BLOCK, loop.length() - from);
+          kernel.evaluate(loop, from, n);
+          for (int i = 0; i < n; i++, p += ps) {
+            dest.setElement(p, values[i]);
+          }
+        }
+      }
+    });
+  }
+
+  /**
+   * Returns the sum of the elements of this expression, without storing the elements
+   *
+   * @return the sum
+   */
+  public int sum() {
+    return reduce(0, Integer::sum);
+  }
+
+  /**
+   * Reduce the elements of this expression, without storing the elements.
+   *
+   * @param identity the identity
+   * @param operator the operator
+   * @return the reduced value
+   * @see DoubleExpression#reduce(double, java.util.function.DoubleBinaryOperator)
+   */
+  public int reduce(int identity, IntBinaryOperator operator) {
+    LongAccumulator result =
+        new LongAccumulator((a, b) -> operator.applyAsInt((int) a, (int) b), identity);
+    Expressions.parallelPolicy().execute(size(), (start, end) -> {
+      Expressions.Operands operands = new Expressions.Operands(shape);
+      Kernel kernel = compile(operands);
+      StridedLoop loop = operands.loop(start, end);
+      int[] values = kernel.values;
+      int partial = identity;
+      while (loop.next()) {
+        for (int from = 0; from < loop.length(); from += Expressions.BLOCK) {
+          int n = Math.min(Expressions.BLOCK, loop.length() - from);
+          kernel.evaluate(loop, from, n);
+          for (int i = 0; i < n; i++) {
+            partial = operator.applyAsInt(partial, values[i]);
+          }
+        }
+      }
+      result.accumulate(partial);
+    });
+    return (int) result.get();
+  }
+
+  @Override
+  public String toString() {
+    return "IntExpression" + java.util.Arrays.toString(shape);
+  }
+
+  /**
+   * Compile the expression into a kernel, adding the arrays referred to by the expression to the
+   * operands
+   *
+   * @param operands the operands
+   * @return a kernel
+   */
+  abstract Kernel compile(Expressions.Operands operands);
+
+  /**
+   * Returns the backend of the first array referred to by this expression (or null)
+   */
+  abstract ArrayBackend findArrayBackend();
+
+  private enum Op {
+    PLUS, MINUS, TIMES, DIV, NEGATE, ABS, OPERATOR
+  }
+
+  /**
+   * Computes (at most) {@link Expressions#BLOCK} elements of an expression at a time.
+   *
+   * @see DoubleExpression.Kernel
+   */
+  abstract static class Kernel {
+    final int[] values = new int[Expressions.BLOCK];
+
+    abstract void evaluate(StridedLoop loop, int from, int n);
+  }
+
+  private static final class ArrayExpression extends IntExpression {
+    private final AbstractIntArray array;
+
+    ArrayExpression(AbstractIntArray array) {
+      super(array.getShape());
+      this.array = array;
+    }
+
+    @Override
+    Kernel compile(Expressions.Operands operands) {
+      AbstractIntArray x = operands.add(array);
+      int k = operands.last();
+      return new Kernel() {
+        @Override
+        void evaluate(StridedLoop loop, int from, int n) {
+          int s = loop.stride(k);
+          int p = loop.offset(k) + from * s;
+          for (int i = 0; i < n; i++, p += s) {
+            values[i] = x.getElement(p);
+          }
+        }
+      };
+    }
+
+    @Override
+    ArrayBackend findArrayBackend() {
+      return array.getArrayBackend();
+    }
+  }
+
+  private static final class ConstantExpression extends IntExpression {
+    private final int value;
+
+    ConstantExpression(int value) {
+      super(new int[] {1});
+      this.value = value;
+    }
+
+    @Override
+    Kernel compile(Expressions.Operands operands) {
+      Kernel kernel = new Kernel() {
+        @Override
+        void evaluate(StridedLoop loop, int from, int n) {}
+      };
+      java.util.Arrays.fill(kernel.values, value);
+      return kernel;
+    }
+
+    @Override
+    ArrayBackend findArrayBackend() {
+      return null;
+    }
+  }
+
+  private static final class UnaryExpression extends IntExpression {
+    private final Op op;
+    private final IntUnaryOperator operator;
+    private final IntExpression operand;
+
+    UnaryExpression(Op op, IntUnaryOperator operator, IntExpression operand) {
+      super(operand.shape);
+      this.op = op;
+      this.operator = operator;
+      this.operand = operand;
+    }
+
+    @Override
+    Kernel compile(Expressions.Operands operands) {
+      Kernel operand = this.operand.compile(operands);
+      return new Kernel() {
+        @Override
+        void evaluate(StridedLoop loop, int from, int n) {
+          operand.evaluate(loop, from, n);
+          int[] x = operand.values;
+          switch (op) {
+            case NEGATE:
+              for (int i = 0; i < n; i++) {
+                values[i] = -x[i];
+              }
+              break;
+            case ABS:
+              for (int i = 0; i < n; i++) {
+                values[i] = Math.abs(x[i]);
+              }
+              break;
+            default:
+              for (int i = 0; i < n; i++) {
+                values[i] = operator.applyAsInt(x[i]);
+              }
+          }
+        }
+      };
+    }
+
+    @Override
+    ArrayBackend findArrayBackend() {
+      return operand.findArrayBackend();
+    }
+  }
+
+  private static final class BinaryExpression extends IntExpression {
+    private final Op op;
+    private final IntBinaryOperator operator;
+    private final IntExpression left;
+    private final IntExpression right;
+
+    BinaryExpression(Op op, IntBinaryOperator operator, IntExpression left, IntExpression right) {
+      super(Expressions.combineShape(left.shape, right.shape));
+      this.op = op;
+      this.operator = operator;
+      this.left = left;
+      this.right = right;
+    }
+
+    @Override
+    Kernel compile(Expressions.Operands operands) {
+      Kernel left = this.left.compile(operands);
+      Kernel right = this.right.compile(operands);
+      return new Kernel() {
+        @Override
+        void evaluate(StridedLoop loop, int from, int n) {
+          left.evaluate(loop, from, n);
+          right.evaluate(loop, from, n);
+          int[] x = left.values;
+          int[] y = right.values;
+          switch (op) {
+            case PLUS:
+              for (int i = 0; i < n; i++) {
+                values[i] = x[i] + y[i];
+              }
+              break;
+            case MINUS:
+              for (int i = 0; i < n; i++) {
+                values[i] = x[i] - y[i];
+              }
+              break;
+            case TIMES:
+              for (int i = 0; i < n; i++) {
+                values[i] = x[i] * y[i];
+              }
+              break;
+            case DIV:
+              for (int i = 0; i < n; i++) {
+                values[i] = x[i] / y[i];
+              }
+              break;
+            default:
+              for (int i = 0; i < n; i++) {
+                values[i] = operator.applyAsInt(x[i], y[i]);
+              }
+          }
+        }
+      };
+    }
+
+    @Override
+    ArrayBackend findArrayBackend() {
+      ArrayBackend backend = left.findArrayBackend();
+      return backend != null ? backend : right.findArrayBackend();
+    }
+  }
+}
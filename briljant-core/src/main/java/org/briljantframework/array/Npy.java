@@ -0,0 +1,458 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 Isak Karlsson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.briljantframework.array;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.commons.math3.complex.Complex;
+import org.briljantframework.Check;
+import org.briljantframework.array.api.ArrayFactory;
+
+/**
+ * Reading and writing of arrays in the NumPy {@code .npy} format, i.e., a magic string, a version,
+ * a header (a Python dictionary literal with the {@code descr}, {@code fortran_order} and
+ * {@code shape} of the array) and the elements.
+ *
+ * <p/>
+ * Since arrays are column-major, the elements of a Fortran ordered file are in the linear order of
+ * the array. The elements of a C ordered file form a column-major array with the reversed shape,
+ * whose transpose is the array. Arrays are always written in Fortran order.
+ *
+ * @author Isak Karlsson
+ */
+final class Npy {
+
+  private static final byte[] MAGIC = {(byte) 0x93, 'N', 'U', 'M', 'P', 'Y'};
+  private static final Pattern DESCR = Pattern.compile("'descr'\\s*:\\s*'([^']*)'");
+  private static final Pattern FORTRAN_ORDER =
+      Pattern.compile("'fortran_order'\\s*:\\s*(True|False)");
+  private static final Pattern SHAPE = Pattern.compile("'shape'\\s*:\\s*\\(([^)]*)\\)");
+  private static final int CHUNK_BYTES = 1 << 20;
+  private static final long MAP_BYTES = 1L << 30;
+
+  private Npy() {}
+
+  /**
+   * The element type and the layout of an array
+   */
+  static final class Header {
+
+    final ByteOrder order;
+    final char kind;
+    final int elementBytes;
+    final boolean fortranOrder;
+    final int[] shape;
+    final int size;
+    final int length;
+
+    Header(String descr, boolean fortranOrder, int[] shape, int length) {
+      Check.argument(descr.length() >= 3, "Illegal descr '%s'", descr);
+      this.order = descr.charAt(0) == '>' ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN;
+      this.kind = descr.charAt(1);
+      this.elementBytes = Integer.parseInt(descr.substring(2));
+      this.fortranOrder = fortranOrder;
+      this.shape = shape;
+      this.size = shape.length == 0 ? 1 : ShapeUtils.size(shape);
+      this.length = length;
+    }
+
+    /**
+     * Returns the shape of the column-major array of the elements in file order.
+     */
+    int[] fileShape() {
+      return fortranOrder ? shape : StrideUtils.reverse(shape);
+    }
+
+    String descr() {
+      return (order == ByteOrder.BIG_ENDIAN ? ">" : "<") + kind + elementBytes;
+    }
+  }
+
+  static Header readHeader(DataInputStream in) throws IOException {
+    byte[] preamble = new byte[MAGIC.length + 2];
+    in.readFully(preamble);
+    checkMagic(preamble);
+    int major = preamble[MAGIC.length];
+    byte[] len = new byte[major == 1 ? 2 : 4];
+    in.readFully(len);
+    int headerLength = (int) littleEndian(len);
+    byte[] header = new byte[headerLength];
+    in.readFully(header);
+    return parseHeader(new String(header, StandardCharsets.ISO_8859_1),
+        preamble.length + len.length + headerLength);
+  }
+
+  static Header readHeader(FileChannel channel) throws IOException {
+    ByteBuffer preamble = read(channel, 0, MAGIC.length + 2);
+    checkMagic(preamble.array());
+    int major = preamble.get(MAGIC.length);
+    int lenBytes = major == 1 ? 2 : 4;
+    int headerLength = (int) littleEndian(read(channel, preamble.capacity(), lenBytes).array());
+    ByteBuffer header = read(channel, preamble.capacity() + lenBytes, headerLength);
+    return parseHeader(new String(header.array(), StandardCharsets.ISO_8859_1),
+        preamble.capacity() + lenBytes + headerLength);
+  }
+
+  private static void checkMagic(byte[] preamble) {
+    for (int i = 0; i < MAGIC.length; i++) {
+      Check.state(preamble[i] == MAGIC[i], "Not an npy file");
+    }
+  }
+
+  private static long littleEndian(byte[] bytes) {
+    long value = 0;
+    for (int i = bytes.length - 1; i >= 0; i--) {
+      value = value << 8 | bytes[i] & 0xFF;
+    }
+    return value;
+  }
+
+  private static Header parseHeader(String header, int length) {
+    Matcher descr = DESCR.matcher(header);
+    Matcher fortranOrder = FORTRAN_ORDER.matcher(header);
+    Matcher shape = SHAPE.matcher(header);
+    Check.state(descr.find() && fortranOrder.find() && shape.find(), "Illegal npy header");
+    String[] dims = shape.group(1).split(",");
+    int[] values = java.util.Arrays.stream(dims).map(String::trim).filter(s -> !s.isEmpty())
+        .mapToInt(Integer::parseInt).toArray();
+    return new Header(descr.group(1), fortranOrder.group(1).equals("True"), values, length);
+  }
+
+  private static ByteBuffer read(FileChannel channel, long position, int length)
+      throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocate(length);
+    while (buffer.hasRemaining()) {
+      if (channel.read(buffer, position + buffer.position()) < 0) {
+        throw new EOFException();
+      }
+    }
+    return buffer;
+  }
+
+  /**
+   * Read the elements of the given stream (positioned after the header).
+   */
+  static BaseArray<?> read(DataInputStream in, Header header, ArrayFactory factory)
+      throws IOException {
+    Decoder decoder = new Decoder(header, factory);
+    byte[] bytes = new byte[(int) Math.min(CHUNK_BYTES, (long) header.size * header.elementBytes)];
+    ByteBuffer buffer = ByteBuffer.wrap(bytes).order(header.order);
+    for (int i = 0; i < header.size;) {
+      int count = Math.min(bytes.length / header.elementBytes, header.size - i);
+      in.readFully(bytes, 0, count * header.elementBytes);
+      decoder.decode(buffer, i, count);
+      i += count;
+    }
+    return decoder.finish();
+  }
+
+  /**
+   * Read the elements of the given channel. The elements are memory mapped one region at a time
+   * and decoded in bulk.
+   */
+  static BaseArray<?> read(FileChannel channel, Header header, ArrayFactory factory)
+      throws IOException {
+    Decoder decoder = new Decoder(header, factory);
+    long position = header.length;
+    int regionSize = (int) (MAP_BYTES / header.elementBytes);
+    for (int i = 0; i < header.size;) {
+      int count = Math.min(regionSize, header.size - i);
+      long bytes = (long) count * header.elementBytes;
+      ByteBuffer buffer =
+          channel.map(FileChannel.MapMode.READ_ONLY, position, bytes).order(header.order);
+      decoder.decode(buffer, i, count);
+      position += bytes;
+      i += count;
+    }
+    return decoder.finish();
+  }
+
+  /**
+   * Returns the array with the elements in file order (i.e., a column-major array with the shape
+   * {@link Header#fileShape()}) with the shape of the header.
+   */
+  static <E extends BaseArray<E>> E fromFileOrder(E x, Header header) {
+    if (header.shape.length <= 1) {
+      return x;
+    }
+    E array = x.reshape(header.fileShape());
+    return header.fortranOrder ? array : array.transpose();
+  }
+
+  /**
+   * Decodes elements into a primitive array of the widest Java type of the kind
+   */
+  private static final class Decoder {
+
+    private final Header header;
+    private final ArrayFactory factory;
+    private double[] doubles;
+    private int[] ints;
+    private long[] longs;
+    private boolean[] booleans;
+
+    Decoder(Header header, ArrayFactory factory) {
+      this.header = header;
+      this.factory = factory;
+      int n = header.size;
+      int bytes = header.elementBytes;
+      switch (header.kind) {
+        case 'f':
+          Check.argument(bytes == 4 || bytes == 8, "Unsupported type %s", header.descr());
+          doubles = new double[n];
+          break;
+        case 'c':
+          Check.argument(bytes == 8 || bytes == 16, "Unsupported type %s", header.descr());
+          doubles = new double[2 * n];
+          break;
+        case 'i':
+          Check.argument(bytes == 1 || bytes == 2 || bytes == 4 || bytes == 8,
+              "Unsupported type %s", header.descr());
+          if (bytes == 8) {
+            longs = new long[n];
+          } else {
+            ints = new int[n];
+          }
+          break;
+        case 'u':
+          Check.argument(bytes == 1 || bytes == 2 || bytes == 4, "Unsupported type %s",
+              header.descr());
+          if (bytes == 4) {
+            longs = new long[n];
+          } else {
+            ints = new int[n];
+          }
+          break;
+        case 'b':
+          Check.argument(bytes == 1, "Unsupported type %s", header.descr());
+          booleans = new boolean[n];
+          break;
+        default:
+          throw new IllegalArgumentException("Unsupported type " + header.descr());
+      }
+    }
+
+    void decode(ByteBuffer src, int offset, int count) {
+      int bytes = header.elementBytes;
+      switch (header.kind) {
+        case 'f':
+          if (bytes == 8) {
+            src.asDoubleBuffer().get(doubles, offset, count);
+          } else {
+            for (int i = 0; i < count; i++) {
+              doubles[offset + i] = src.getFloat(i << 2);
+            }
+          }
+          break;
+        case 'c':
+          if (bytes == 16) {
+            src.asDoubleBuffer().get(doubles, 2 * offset, 2 * count);
+          } else {
+            for (int i = 0; i < 2 * count; i++) {
+              doubles[2 * offset + i] = src.getFloat(i << 2);
+            }
+          }
+          break;
+        case 'i':
+          if (bytes == 8) {
+            src.asLongBuffer().get(longs, offset, count);
+          } else if (bytes == 4) {
+            src.asIntBuffer().get(ints, offset, count);
+          } else if (bytes == 2) {
+            for (int i = 0; i < count; i++) {
+              ints[offset + i] = src.getShort(i << 1);
+            }
+          } else {
+            for (int i = 0; i < count; i++) {
+              ints[offset + i] = src.get(i);
+            }
+          }
+          break;
+        case 'u':
+          if (bytes == 4) {
+            for (int i = 0; i < count; i++) {
+              longs[offset + i] = src.getInt(i << 2) & 0xFFFFFFFFL;
+            }
+          } else if (bytes == 2) {
+            for (int i = 0; i < count; i++) {
+              ints[offset + i] = src.getShort(i << 1) & 0xFFFF;
+            }
+          } else {
+            for (int i = 0; i < count; i++) {
+              ints[offset + i] = src.get(i) & 0xFF;
+            }
+          }
+          break;
+        case 'b':
+          for (int i = 0; i < count; i++) {
+            booleans[offset + i] = src.get(i) != 0;
+          }
+          break;
+        default:
+          throw new IllegalStateException();
+      }
+    }
+
+    BaseArray<?> finish() {
+      if (header.kind == 'c') {
+        ComplexArray array = factory.newComplexArray(header.size);
+        for (int i = 0; i < header.size; i++) {
+          array.set(i, new Complex(doubles[2 * i], doubles[2 * i + 1]));
+        }
+        return fromFileOrder(array, header);
+      } else if (doubles != null) {
+        return fromFileOrder(factory.newDoubleVector(doubles), header);
+      } else if (ints != null) {
+        return fromFileOrder(factory.newIntVector(ints), header);
+      } else if (longs != null) {
+        return fromFileOrder(factory.newLongVector(longs), header);
+      } else {
+        return fromFileOrder(factory.newBooleanVector(booleans), header);
+      }
+    }
+  }
+
+  /**
+   * Write the array (in Fortran order and little-endian byte order) to the channel. The elements
+   * are read directly from the memory of the array and encoded in bulk.
+   */
+  static void write(BaseArray<?> array, WritableByteChannel channel) throws IOException {
+    String descr;
+    if (array instanceof DoubleArray) {
+      descr = "<f8";
+    } else if (array instanceof IntArray) {
+      descr = "<i4";
+    } else if (array instanceof LongArray) {
+      descr = "<i8";
+    } else if (array instanceof BooleanArray) {
+      descr = "|b1";
+    } else if (array instanceof ComplexArray) {
+      descr = "<c16";
+    } else {
+      throw new IllegalArgumentException(
+          "Only double, int, long, boolean and complex arrays can be written as npy");
+    }
+
+    ByteBuffer buffer = ByteBuffer.allocate(CHUNK_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+    buffer.put(header(descr, array.getShape()));
+    if (array instanceof AbstractDoubleArray) {
+      AbstractDoubleArray x = (AbstractDoubleArray) array;
+      StridedLoop loop = StridedLoop.of(x);
+      while (loop.next()) {
+        int p = loop.offset(0), ps = loop.stride(0);
+        for (int i = 0, n = loop.length(); i < n; i++, p += ps) {
+          ensure(buffer, Double.BYTES, channel).putDouble(x.getElement(p));
+        }
+      }
+    } else if (array instanceof AbstractIntArray) {
+      AbstractIntArray x = (AbstractIntArray) array;
+      StridedLoop loop = StridedLoop.of(x);
+      while (loop.next()) {
+        int p = loop.offset(0), ps = loop.stride(0);
+        for (int i = 0, n = loop.length(); i < n; i++, p += ps) {
+          ensure(buffer, Integer.BYTES, channel).putInt(x.getElement(p));
+        }
+      }
+    } else if (array instanceof AbstractLongArray) {
+      AbstractLongArray x = (AbstractLongArray) array;
+      StridedLoop loop = StridedLoop.of(x);
+      while (loop.next()) {
+        int p = loop.offset(0), ps = loop.stride(0);
+        for (int i = 0, n = loop.length(); i < n; i++, p += ps) {
+          ensure(buffer, Long.BYTES, channel).putLong(x.getElement(p));
+        }
+      }
+    } else {
+      for (int i = 0, n = array.size(); i < n; i++) {
+        if (array instanceof DoubleArray) {
+          ensure(buffer, Double.BYTES, channel).putDouble(((DoubleArray) array).get(i));
+        } else if (array instanceof IntArray) {
+          ensure(buffer, Integer.BYTES, channel).putInt(((IntArray) array).get(i));
+        } else if (array instanceof LongArray) {
+          ensure(buffer, Long.BYTES, channel).putLong(((LongArray) array).get(i));
+        } else if (array instanceof BooleanArray) {
+          ensure(buffer, 1, channel).put((byte) (((BooleanArray) array).get(i) ? 1 : 0));
+        } else {
+          Complex c = ((ComplexArray) array).get(i);
+          ensure(buffer, 2 * Double.BYTES, channel).putDouble(c.getReal())
+              .putDouble(c.getImaginary());
+        }
+      }
+    }
+    flush(buffer, channel);
+  }
+
+  /**
+   * Returns the magic string, the version (1.0), the header length and the header, padded so that
+   * the elements are aligned to 64 bytes.
+   */
+  private static byte[] header(String descr, int[] shape) {
+    StringBuilder dict = new StringBuilder();
+    dict.append("{'descr': '").append(descr).append("', 'fortran_order': True, 'shape': (");
+    for (int dim : shape) {
+      dict.append(dim).append(", ");
+    }
+    if (shape.length > 1) {
+      dict.setLength(dict.length() - 2);
+    } else if (shape.length == 1) {
+      dict.setLength(dict.length() - 1);
+    }
+    dict.append("), }");
+    int unpadded = MAGIC.length + 2 + 2 + dict.length() + 1;
+    int padding = (64 - unpadded % 64) % 64;
+    for (int i = 0; i < padding; i++) {
+      dict.append(' ');
+    }
+    dict.append('\n');
+    Check.state(dict.length() <= 0xFFFF, "Too large header");
+
+    ByteBuffer header = ByteBuffer.allocate(MAGIC.length + 4 + dict.length())
+        .order(ByteOrder.LITTLE_ENDIAN);
+    header.put(MAGIC).put((byte) 1).put((byte) 0).putShort((short) dict.length());
+    header.put(dict.toString().getBytes(StandardCharsets.ISO_8859_1));
+    return header.array();
+  }
+
+  private static ByteBuffer ensure(ByteBuffer buffer, int bytes, WritableByteChannel channel)
+      throws IOException {
+    if (buffer.remaining() < bytes) {
+      flush(buffer, channel);
+    }
+    return buffer;
+  }
+
+  private static void flush(ByteBuffer buffer, WritableByteChannel channel) throws IOException {
+    buffer.flip();
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+    buffer.clear();
+  }
+}
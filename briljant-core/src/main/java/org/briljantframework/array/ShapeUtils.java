@@ -108,6 +108,22 @@ public class ShapeUtils {
     return size;
   }
 
+  /**
+   * Compute the size of an array with the given shape, for arrays with more elements than can be
+   * indexed by an int.
+   *
+   * @param shape the shape
+   * @return the size
+   * @throws ArithmeticException if the size is larger than a long
+   */
+  public static long longSize(int[] shape) throws ArithmeticException {
+    long size = shape[0];
+    for (int i = 1; i < shape.length; i++) {
+      size = Math.multiplyExact(size, shape[i]);
+    }
+    return size;
+  }
+
   /**
    * Return the shape of the given array brodcasted to the specified shape.
    *
@@ -148,20 +164,32 @@ public class ShapeUtils {
 
 
   public static int[] findCombinedBroadcastShape(Collection<? extends BaseArray<?>> arrays) {
-    int dims = arrays.stream().mapToInt(BaseArray::dims).max()
+    return findCombinedBroadcastShape(
+        arrays.stream().map(BaseArray::getShape).toArray(int[][]::new));
+  }
+
+  /**
+   * Returns the shape which arrays with the given shapes can be broadcast to.
+   *
+   * @param shapes the shapes
+   * @return the combined shape
+   * @throws IllegalArgumentException if the shapes cannot be broadcast to the same shape
+   */
+  public static int[] findCombinedBroadcastShape(int[]... shapes) {
+    int dims = java.util.Arrays.stream(shapes).mapToInt(s -> s.length).max()
         .orElseThrow(() -> new IllegalArgumentException("no arrays given."));
     int[] shape = new int[dims];
     java.util.Arrays.fill(shape, 1);
-    for (BaseArray<?> array : arrays) {
+    for (int[] arrayShape : shapes) {
       for (int i = 0; i < shape.length; i++) {
         int shapeIndex = shape.length - 1 - i;
-        int arrayIndex = array.dims() - 1 - i;
-        if (i < array.dims()) {
-          if (shape[shapeIndex] != array.size(arrayIndex)
-              && (shape[shapeIndex] != 1 && array.size(arrayIndex) != 1)) {
+        int arrayIndex = arrayShape.length - 1 - i;
+        if (i < arrayShape.length) {
+          if (shape[shapeIndex] != arrayShape[arrayIndex]
+              && (shape[shapeIndex] != 1 && arrayShape[arrayIndex] != 1)) {
             throw new IllegalArgumentException("arrays cannot be broadcast to the same shape");
           }
-          shape[shapeIndex] = Math.max(shape[shapeIndex], array.size(arrayIndex));
+          shape[shapeIndex] = Math.max(shape[shapeIndex], arrayShape[arrayIndex]);
         } else {
           shape[shapeIndex] = Math.max(shape[shapeIndex], 1);
         }
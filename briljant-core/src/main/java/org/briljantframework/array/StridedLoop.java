@@ -0,0 +1,241 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 Isak Karlsson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.briljantframework.array;
+
+import org.briljantframework.Check;
+
+/**
+ * Walks the elements of one or more strided arrays of the same shape in linear (column-major)
+ * order, computing the memory locations of each element incrementally instead of dividing the
+ * linear index by the shape for each element (as in
+ * {@link StrideUtils#index(int, int, int[], int[])}).
+ *
+ * <p/>
+ * Similar to NumPy's {@code nditer} with an external loop, the elements are visited in blocks
+ * along the innermost dimension: for each block, the caller loops over {@link #length()} elements,
+ * starting at {@link #offset(int)} and advancing by {@link #stride(int)} for each operand. Adjacent
+ * dimensions which are contiguous in all operands are collapsed into one, so for contiguous arrays
+ * (or, e.g., a contiguous array and a broadcast scalar) the complete array is a single block.
+ * Dimensions of size one are ignored.
+ *
+ * <pre>
+ * StridedLoop loop = StridedLoop.of(a, b);
+ * while (loop.next()) {
+ *   int ai = loop.offset(0), as = loop.stride(0);
+ *   int bi = loop.offset(1), bs = loop.stride(1);
+ *   for (int i = 0; i &lt; loop.length(); i++, ai += as, bi += bs) {
+ *     // visit the elements at memory location ai and bi
+ *   }
+ * }
+ * </pre>
+ *
+ * @author Isak Karlsson
+ */
+public final class StridedLoop {
+
+  private final int operands;
+  private final int[] shape;
+  private final int[][] strides;
+  private final int[] base;
+  private final int[] offsets;
+  private final int[] index;
+  private final int end;
+
+  private int position;
+  private int length;
+  private boolean started = false;
+
+  /**
+   * Create a new loop over the elements {@code [start, end)} (in linear order) of operands with
+   * the given shape, offsets and strides.
+   *
+   * @param shape the common shape of the operands
+   * @param offsets the offset of each operand
+   * @param strides the strides of each operand
+   * @param start the first linear index (inclusive)
+   * @param end the last linear index (exclusive)
+   */
+  public StridedLoop(int[] shape, int[] offsets, int[][] strides, int start, int end) {
+    Check.argument(offsets.length == strides.length, "offsets and strides must match");
+    Check.argument(0 <= start && start <= end && end <= ShapeUtils.size(shape), "illegal range");
+    this.operands = offsets.length;
+
+    // collapse the dimensions; ignoring dimensions of size 1 and merging a dimension into the
+    // previous if it is contiguous with the previous for all operands
+    int[] collapsedShape = new int[Math.max(1, shape.length)];
+    int[][] collapsedStrides = new int[operands][collapsedShape.length];
+    int dims = 0;
+    for (int d = 0; d < shape.length; d++) {
+      if (shape[d] == 1) {
+        continue;
+      }
+      boolean contiguous = dims > 0;
+      for (int k = 0; k < operands && contiguous; k++) {
+        int prev = dims - 1;
+        contiguous = strides[k][d] == collapsedStrides[k][prev] * collapsedShape[prev];
+      }
+      if (contiguous) {
+        collapsedShape[dims - 1] *= shape[d];
+      } else {
+        collapsedShape[dims] = shape[d];
+        for (int k = 0; k < operands; k++) {
+          collapsedStrides[k][dims] = strides[k][d];
+        }
+        dims++;
+      }
+    }
+    if (dims == 0) {
+      // all dimensions are of size 1
+      collapsedShape[0] = 1;
+      dims = 1;
+    }
+
+    this.shape = java.util.Arrays.copyOf(collapsedShape, dims);
+    this.strides = new int[operands][];
+    for (int k = 0; k < operands; k++) {
+      this.strides[k] = java.util.Arrays.copyOf(collapsedStrides[k], dims);
+    }
+    this.base = offsets.clone();
+    this.offsets = new int[operands];
+    this.index = new int[dims];
+    this.end = end;
+    this.position = start;
+
+    // position the outer dimensions at the first element
+    int rest = start;
+    for (int d = 0; d < dims && start < end; d++) {
+      int size = this.shape[d];
+      int sub = rest / size;
+      index[d] = rest - sub * size;
+      rest = sub;
+      if (d > 0) {
+        for (int k = 0; k < operands; k++) {
+          base[k] += index[d] * this.strides[k][d];
+        }
+      }
+    }
+  }
+
+  /**
+   * Create a new loop over all elements of the given arrays.
+   *
+   * @param arrays the arrays (of the same shape)
+   * @return a new loop
+   */
+  public static StridedLoop of(BaseArray<?>... arrays) {
+    return range(0, arrays[0].size(), arrays);
+  }
+
+  /**
+   * Create a new loop over the elements {@code [start, end)} (in linear order) of the given arrays.
+   *
+   * @param start the first linear index (inclusive)
+   * @param end the last linear index (exclusive)
+   * @param arrays the arrays (of the same shape)
+   * @return a new loop
+   */
+  public static StridedLoop range(int start, int end, BaseArray<?>... arrays) {
+    int[] shape = arrays[0].getShape();
+    int[] offsets = new int[arrays.length];
+    int[][] strides = new int[arrays.length][];
+    for (int k = 0; k < arrays.length; k++) {
+      Check.dimension(arrays[k].getShape(), shape);
+      offsets[k] = arrays[k].getOffset();
+      strides[k] = arrays[k].getStride();
+    }
+    return new StridedLoop(shape, offsets, strides, start, end);
+  }
+
+  /**
+   * Advance to the next block of elements.
+   *
+   * @return false if there are no more elements
+   */
+  public boolean next() {
+    if (started) {
+      position += length;
+      // advance the outer dimensions
+      index[0] = 0;
+      for (int d = 1; d < index.length; d++) {
+        if (++index[d] < shape[d]) {
+          for (int k = 0; k < operands; k++) {
+            base[k] += strides[k][d];
+          }
+          break;
+        }
+        index[d] = 0;
+        for (int k = 0; k < operands; k++) {
+          base[k] -= strides[k][d] * (shape[d] - 1);
+        }
+      }
+    }
+    started = true;
+    if (position >= end) {
+      length = 0;
+      return false;
+    }
+
+    length = Math.min(shape[0] - index[0], end - position);
+    for (int k = 0; k < operands; k++) {
+      offsets[k] = base[k] + index[0] * strides[k][0];
+    }
+    return true;
+  }
+
+  /**
+   * Returns the number of elements in the current block
+   *
+   * @return the number of elements
+   */
+  public int length() {
+    return length;
+  }
+
+  /**
+   * Returns the linear index of the first element of the current block
+   *
+   * @return the linear index
+   */
+  public int position() {
+    return position;
+  }
+
+  /**
+   * Returns the memory location of the first element of the current block for the given operand
+   *
+   * @param operand the operand
+   * @return the memory location
+   */
+  public int offset(int operand) {
+    return offsets[operand];
+  }
+
+  /**
+   * Returns the distance (in memory) between consecutive elements of the current block for the
+   * given operand
+   *
+   * @param operand the operand
+   * @return the stride
+   */
+  public int stride(int operand) {
+    return strides[operand][0];
+  }
+}
@@ -21,17 +21,22 @@
 package org.briljantframework.array.api;
 
 
-import static org.briljantframework.array.StrideUtils.columnMajor;
-import static org.briljantframework.array.StrideUtils.rowMajor;
-
 import java.util.Comparator;
+import java.util.Objects;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.IntUnaryOperator;
+import java.util.function.LongUnaryOperator;
+import java.util.function.ToDoubleFunction;
+import java.util.function.UnaryOperator;
 
 import org.apache.commons.math3.complex.Complex;
 import org.apache.commons.math3.util.FastMath;
 import org.apache.commons.math3.util.Precision;
 import org.briljantframework.Check;
 import org.briljantframework.array.*;
-import org.briljantframework.data.statistics.FastStatistics;
+import org.briljantframework.array.sparse.SparseDoubleArray;
+import org.briljantframework.array.sparse.SparseMatrices;
+import org.briljantframework.data.statistics.StatisticsAccumulator;
 import org.briljantframework.exceptions.MultiDimensionMismatchException;
 import org.briljantframework.util.complex.MutableComplex;
 
@@ -46,11 +51,43 @@ public class AbstractArrayRoutines implements ArrayRoutines {
   private static final double LOG_2 = Math.log(2);
   private static final double EPS = 1e-10;
   protected final ArrayBackend backend;
+  private volatile ParallelPolicy parallelPolicy = ParallelPolicy.getDefault();
 
   protected AbstractArrayRoutines(ArrayBackend backend) {
     this.backend = backend;
   }
 
+  @Override
+  public ParallelPolicy getParallelPolicy() {
+    return parallelPolicy;
+  }
+
+  @Override
+  public void setParallelPolicy(ParallelPolicy parallelPolicy) {
+    this.parallelPolicy = Objects.requireNonNull(parallelPolicy);
+  }
+
+  /**
+   * Returns the policy of the current invocation, i.e., the policy set for the current thread (if
+   * any) or the policy of this instance.
+   *
+   * @return the current policy
+   */
+  protected ParallelPolicy parallelPolicy() {
+    return ParallelPolicy.current(parallelPolicy);
+  }
+
+  /**
+   * Returns the policy for setting the elements of {@code out} in place, which is serial for
+   * sparse arrays since setting an element may move the stored elements.
+   *
+   * @param out the array written to
+   * @return the current policy
+   */
+  protected ParallelPolicy parallelPolicy(DoubleArray out) {
+    return out instanceof SparseDoubleArray ? ParallelPolicy.serial() : parallelPolicy();
+  }
+
   @Override
   public double mean(DoubleArray x) {
     Check.argument(x.isVector(), VECTOR_REQUIRED);
@@ -59,19 +96,29 @@ public class AbstractArrayRoutines implements ArrayRoutines {
 
   @Override
   public DoubleArray mean(int dim, DoubleArray x) {
+    if (SparseMatrices.isSparse(x)) {
+      return SparseMatrices.mean(dim, (SparseDoubleArray) x);
+    }
+    if (DimensionReductions.isSupported(dim, x)) {
+      return DimensionReductions.mean(parallelPolicy(), dim, x);
+    }
     return x.reduceVectors(dim, this::mean);
   }
 
   @Override
   public double var(DoubleArray x) {
     Check.argument(x.isVector(), VECTOR_REQUIRED);
-    FastStatistics s = new FastStatistics();
-    x.forEachDouble(s::addValue);
-    return s.getVariance();
+    return StatisticsAccumulator.of(parallelPolicy(), x).getVariance();
   }
 
   @Override
   public DoubleArray var(int dim, DoubleArray x) {
+    if (SparseMatrices.isSparse(x)) {
+      return SparseMatrices.var(dim, (SparseDoubleArray) x);
+    }
+    if (DimensionReductions.isSupported(dim, x)) {
+      return DimensionReductions.var(parallelPolicy(), dim, x);
+    }
     return x.reduceVectors(dim, this::var);
   }
 
@@ -83,6 +130,12 @@ public class AbstractArrayRoutines implements ArrayRoutines {
 
   @Override
   public DoubleArray std(int dim, DoubleArray x) {
+    if (SparseMatrices.isSparse(x)) {
+      return SparseMatrices.std(dim, (SparseDoubleArray) x);
+    }
+    if (DimensionReductions.isSupported(dim, x)) {
+      return DimensionReductions.std(parallelPolicy(), dim, x);
+    }
     return x.reduceVectors(dim, this::std);
   }
 
@@ -127,6 +180,12 @@ public class AbstractArrayRoutines implements ArrayRoutines {
 
   @Override
   public DoubleArray min(int dim, DoubleArray x) {
+    if (SparseMatrices.isSparse(x)) {
+      return SparseMatrices.min(dim, (SparseDoubleArray) x);
+    }
+    if (DimensionReductions.isSupported(dim, x)) {
+      return DimensionReductions.min(parallelPolicy(), dim, x);
+    }
     return x.reduceVectors(dim, this::min);
   }
 
@@ -191,6 +250,12 @@ public class AbstractArrayRoutines implements ArrayRoutines {
 
   @Override
   public DoubleArray max(int dim, DoubleArray x) {
+    if (SparseMatrices.isSparse(x)) {
+      return SparseMatrices.max(dim, (SparseDoubleArray) x);
+    }
+    if (DimensionReductions.isSupported(dim, x)) {
+      return DimensionReductions.max(parallelPolicy(), dim, x);
+    }
     return x.reduceVectors(dim, this::max);
   }
 
@@ -216,6 +281,9 @@ public class AbstractArrayRoutines implements ArrayRoutines {
 
   @Override
   public double sum(DoubleArray x) {
+    if (SparseMatrices.isSparse(x)) {
+      return SparseMatrices.sum((SparseDoubleArray) x);
+    }
     return x.reduce(0, Double::sum);
   }
 
@@ -224,6 +292,13 @@ public class AbstractArrayRoutines implements ArrayRoutines {
     return x.reduce(0, Integer::sum);
   }
 
+  @Override
+  public int sum(BooleanArray x) {
+    int[] sum = {0};
+    x.forEachTrue(i -> sum[0]++);
+    return sum[0];
+  }
+
   @Override
   public long sum(LongArray x) {
     return x.reduce(0, Long::sum);
@@ -240,6 +315,12 @@ public class AbstractArrayRoutines implements ArrayRoutines {
 
   @Override
   public DoubleArray sum(int dim, DoubleArray x) {
+    if (SparseMatrices.isSparse(x)) {
+      return SparseMatrices.sum(dim, (SparseDoubleArray) x);
+    }
+    if (DimensionReductions.isSupported(dim, x)) {
+      return DimensionReductions.sum(parallelPolicy(), dim, x);
+    }
     return x.reduceVectors(dim, this::sum);
   }
 
@@ -307,6 +388,11 @@ public class AbstractArrayRoutines implements ArrayRoutines {
   public double inner(DoubleArray a, DoubleArray b) {
     Check.argument(a.isVector() && b.isVector(), VECTOR_REQUIRED);
     Check.size(a, b);
+    if (SparseMatrices.isSparse(a)) {
+      return SparseMatrices.inner((SparseDoubleArray) a, b);
+    } else if (SparseMatrices.isSparse(b)) {
+      return SparseMatrices.inner((SparseDoubleArray) b, a);
+    }
     double s = 0;
     for (int i = 0; i < a.size(); i++) {
       s += a.get(i) * b.get(i);
@@ -316,12 +402,28 @@ public class AbstractArrayRoutines implements ArrayRoutines {
 
   @Override
   public Complex inner(ComplexArray a, ComplexArray b) {
-    throw new UnsupportedOperationException();
+    Check.argument(a.isVector() && b.isVector(), VECTOR_REQUIRED);
+    Check.size(a, b);
+    double re = 0, im = 0;
+    for (int i = 0; i < a.size(); i++) {
+      Complex x = a.get(i), y = b.get(i);
+      re += x.getReal() * y.getReal() - x.getImaginary() * y.getImaginary();
+      im += x.getReal() * y.getImaginary() + x.getImaginary() * y.getReal();
+    }
+    return new Complex(re, im);
   }
 
   @Override
   public Complex conjugateInner(ComplexArray a, ComplexArray b) {
-    return null;
+    Check.argument(a.isVector() && b.isVector(), VECTOR_REQUIRED);
+    Check.size(a, b);
+    double re = 0, im = 0;
+    for (int i = 0; i < a.size(); i++) {
+      Complex x = a.get(i), y = b.get(i);
+      re += x.getReal() * y.getReal() + x.getImaginary() * y.getImaginary();
+      im += x.getReal() * y.getImaginary() - x.getImaginary() * y.getReal();
+    }
+    return new Complex(re, im);
   }
 
   @Override
@@ -344,11 +446,12 @@ public class AbstractArrayRoutines implements ArrayRoutines {
   @Override
   public Complex norm2(ComplexArray a) {
     Check.argument(a.isVector(), VECTOR_REQUIRED);
-    MutableComplex c = new MutableComplex(a.get(0).pow(2));
-    for (int i = 1; i < a.size(); i++) {
-      c.plus(a.get(i).pow(2));
+    double sum = 0;
+    for (int i = 0; i < a.size(); i++) {
+      Complex v = a.get(i);
+      sum += v.getReal() * v.getReal() + v.getImaginary() * v.getImaginary();
     }
-    return c.toComplex().sqrt();
+    return Complex.valueOf(Math.sqrt(sum));
   }
 
   @Override
@@ -421,6 +524,10 @@ public class AbstractArrayRoutines implements ArrayRoutines {
     if (alpha == 0) {
       return;
     }
+    if (SparseMatrices.isSparse(x)) {
+      SparseMatrices.axpy(alpha, (SparseDoubleArray) x, y);
+      return;
+    }
     int size = x.size();
     for (int i = 0; i < size; i++) {
       y.set(i, alpha * x.get(i) + y.get(i));
@@ -430,7 +537,23 @@ public class AbstractArrayRoutines implements ArrayRoutines {
   @Override
   public void gemv(ArrayOperation transA, double alpha, DoubleArray a, DoubleArray x, double beta,
       DoubleArray y) {
-    throw new UnsupportedOperationException();
+    Check.argument(a.isMatrix() && x.isVector() && y.isVector());
+    boolean transpose = transA.isTranspose();
+    int m = transpose ? a.columns() : a.rows();
+    int n = transpose ? a.rows() : a.columns();
+    Check.dimension(x.size(), n);
+    Check.dimension(y.size(), m);
+    if (SparseMatrices.isSparse(a)) {
+      SparseMatrices.gemv(parallelPolicy(), transpose, alpha, (SparseDoubleArray) a, x, beta, y);
+      return;
+    }
+    for (int i = 0; i < m; i++) {
+      double sum = 0;
+      for (int j = 0; j < n; j++) {
+        sum += (transpose ? a.get(j, i) : a.get(i, j)) * x.get(j);
+      }
+      y.set(i, alpha * sum + (beta == 0 ? 0 : beta * y.get(i)));
+    }
   }
 
   @Override
@@ -440,7 +563,7 @@ public class AbstractArrayRoutines implements ArrayRoutines {
     Check.dimension(y.size(), a.columns());
     for (int i = 0; i < x.size(); i++) {
       for (int j = 0; j < y.size(); j++) {
-        a.set(i, j, alpha * x.get(i) * y.get(j));
+        a.set(i, j, a.get(i, j) + alpha * x.get(i) * y.get(j));
       }
     }
   }
@@ -448,6 +571,9 @@ public class AbstractArrayRoutines implements ArrayRoutines {
   @Override
   public void gemm(ArrayOperation transA, ArrayOperation transB, double alpha, DoubleArray a,
       DoubleArray b, double beta, DoubleArray c) {
+    Check.argument(a.dims() == 2, "'a' has %s dims", a.dims());
+    Check.argument(b.dims() == 2, "'b' has %s dims", b.dims());
+    Check.argument(c.dims() == 2, "'c' has %s dims", c.dims());
 
     int thisRows = a.rows();
     int thisCols = a.columns();
@@ -474,17 +600,148 @@ public class AbstractArrayRoutines implements ArrayRoutines {
               c.size(0), c.size(1)));
     }
 
-    for (int row = 0; row < thisRows; row++) {
-      for (int col = 0; col < otherColumns; col++) {
-        double sum = 0.0;
-        for (int k = 0; k < thisCols; k++) {
-          int thisIndex = transA.isTranspose() ? rowMajor(row, k, thisRows, thisCols)
-              : columnMajor(0, row, k, thisRows, thisCols);
-          int otherIndex = transB.isTranspose() ? rowMajor(k, col, otherRows, otherColumns)
-              : columnMajor(0, k, col, otherRows, otherColumns);
-          sum += a.get(thisIndex) * b.get(otherIndex);
+    if (SparseMatrices.isSparse(a)) {
+      SparseMatrices.gemm(parallelPolicy(), transA.isTranspose(), transB.isTranspose(), alpha,
+          (SparseDoubleArray) a, b, beta, c);
+    } else if (SparseMatrices.isSparse(b)) {
+      // c' = op(b)' * op(a)'
+      SparseMatrices.gemm(parallelPolicy(), !transB.isTranspose(), !transA.isTranspose(), alpha,
+          (SparseDoubleArray) b, a, beta, c.transpose());
+    } else {
+      BlockedGemm.gemm(parallelPolicy(), transA.isTranspose(), transB.isTranspose(), m, n, dk,
+          alpha, a, b, beta, c);
+    }
+  }
+
+  @Override
+  public float inner(FloatArray a, FloatArray b) {
+    Check.argument(a.isVector() && b.isVector(), VECTOR_REQUIRED);
+    Check.size(a, b);
+    float s = 0;
+    for (int i = 0; i < a.size(); i++) {
+      s += a.get(i) * b.get(i);
+    }
+    return s;
+  }
+
+  @Override
+  public void axpy(float alpha, FloatArray x, FloatArray y) {
+    Check.size(x, y);
+    if (alpha == 0) {
+      return;
+    }
+    int size = x.size();
+    for (int i = 0; i < size; i++) {
+      y.set(i, alpha * x.get(i) + y.get(i));
+    }
+  }
+
+  @Override
+  public void gemv(ArrayOperation transA, float alpha, FloatArray a, FloatArray x, float beta,
+      FloatArray y) {
+    Check.argument(a.isMatrix() && x.isVector() && y.isVector());
+    boolean transpose = transA.isTranspose();
+    int m = transpose ? a.columns() : a.rows();
+    int n = transpose ? a.rows() : a.columns();
+    Check.dimension(x.size(), n);
+    Check.dimension(y.size(), m);
+    for (int i = 0; i < m; i++) {
+      float sum = 0;
+      for (int j = 0; j < n; j++) {
+        sum += (transpose ? a.get(j, i) : a.get(i, j)) * x.get(j);
+      }
+      y.set(i, alpha * sum + (beta == 0 ? 0 : beta * y.get(i)));
+    }
+  }
+
+  @Override
+  public void gemm(ArrayOperation transA, ArrayOperation transB, float alpha, FloatArray a,
+      FloatArray b, float beta, FloatArray c) {
+    Check.argument(a.dims() == 2, "'a' has %s dims", a.dims());
+    Check.argument(b.dims() == 2, "'b' has %s dims", b.dims());
+    Check.argument(c.dims() == 2, "'c' has %s dims", c.dims());
+    boolean ta = transA.isTranspose(), tb = transB.isTranspose();
+    int m = a.size(ta ? 1 : 0);
+    int k = a.size(ta ? 0 : 1);
+    int n = b.size(tb ? 0 : 1);
+    if (k != b.size(tb ? 1 : 0)) {
+      throw new MultiDimensionMismatchException(m, k, b.size(tb ? 1 : 0), n);
+    }
+    if (m != c.size(0) || n != c.size(1)) {
+      throw new IllegalArgumentException(
+          String.format("a has size (%d,%d), b has size (%d,%d), c has size (%d, %d)", m, k, k, n,
+              c.size(0), c.size(1)));
+    }
+    for (int j = 0; j < n; j++) {
+      for (int i = 0; i < m; i++) {
+        float sum = 0;
+        for (int l = 0; l < k; l++) {
+          sum += (ta ? a.get(l, i) : a.get(i, l)) * (tb ? b.get(j, l) : b.get(l, j));
         }
-        c.set(row, col, alpha * sum + beta * c.get(row, col));
+        c.set(i, j, alpha * sum + (beta == 0 ? 0 : beta * c.get(i, j)));
+      }
+    }
+  }
+
+  @Override
+  public void gemmBatched(ArrayOperation transA, ArrayOperation transB, double alpha,
+      DoubleArray a, DoubleArray b, double beta, DoubleArray c) {
+    Check.argument(a.dims() == 2 || a.dims() == 3, "'a' has %s dims", a.dims());
+    Check.argument(b.dims() == 2 || b.dims() == 3, "'b' has %s dims", b.dims());
+    Check.argument(c.dims() == 3, "'c' has %s dims", c.dims());
+    int batch = c.size(2);
+    Check.argument(a.dims() == 2 || a.size(2) == batch, "'a' has %s matrices (expected %s)",
+        a.dims() == 3 ? a.size(2) : 1, batch);
+    Check.argument(b.dims() == 2 || b.size(2) == batch, "'b' has %s matrices (expected %s)",
+        b.dims() == 3 ? b.size(2) : 1, batch);
+
+    int m = a.size(transA.isTranspose() ? 1 : 0);
+    int k = a.size(transA.isTranspose() ? 0 : 1);
+    int otherRows = b.size(transB.isTranspose() ? 1 : 0);
+    int n = b.size(transB.isTranspose() ? 0 : 1);
+    if (k != otherRows) {
+      throw new MultiDimensionMismatchException(m, k, otherRows, n);
+    }
+    if (m != c.size(0) || n != c.size(1)) {
+      throw new IllegalArgumentException(
+          String.format("a has size (%d,%d), b has size (%d,%d), c has size (%d, %d)", m, k, k, n,
+              c.size(0), c.size(1)));
+    }
+
+    if (BatchedMatrices.isSupported(m, n, k)) {
+      BatchedMatrices.gemm(parallelPolicy(), transA.isTranspose(), transB.isTranspose(), m, n, k,
+          alpha, a, b, beta, c);
+    } else {
+      for (int i = 0; i < batch; i++) {
+        gemm(transA, transB, alpha, a.dims() == 3 ? a.select(2, i) : a,
+            b.dims() == 3 ? b.select(2, i) : b, beta, c.select(2, i));
+      }
+    }
+  }
+
+  @Override
+  public void gemvBatched(ArrayOperation transA, double alpha, DoubleArray a, DoubleArray x,
+      double beta, DoubleArray y) {
+    Check.argument(a.dims() == 2 || a.dims() == 3, "'a' has %s dims", a.dims());
+    Check.argument(x.dims() == 1 || x.dims() == 2, "'x' has %s dims", x.dims());
+    Check.argument(y.dims() == 2, "'y' has %s dims", y.dims());
+    int batch = y.size(1);
+    Check.argument(a.dims() == 2 || a.size(2) == batch, "'a' has %s matrices (expected %s)",
+        a.dims() == 3 ? a.size(2) : 1, batch);
+    Check.argument(x.dims() == 1 || x.size(1) == batch, "'x' has %s vectors (expected %s)",
+        x.dims() == 2 ? x.size(1) : 1, batch);
+    boolean transpose = transA.isTranspose();
+    int m = a.size(transpose ? 1 : 0);
+    int n = a.size(transpose ? 0 : 1);
+    Check.dimension(x.size(0), n);
+    Check.dimension(y.size(0), m);
+
+    if (BatchedMatrices.isSupported(m, n)) {
+      BatchedMatrices.gemv(parallelPolicy(), transpose, m, n, alpha, a, x, beta, y);
+    } else {
+      for (int i = 0; i < batch; i++) {
+        gemv(transA, alpha, a.dims() == 3 ? a.select(2, i) : a,
+            x.dims() == 2 ? x.select(1, i) : x, beta, y.select(1, i));
       }
     }
   }
@@ -512,9 +769,11 @@ public class AbstractArrayRoutines implements ArrayRoutines {
   public DoubleArray plus(DoubleArray a, DoubleArray b) {
     return Arrays.broadcastCombine(a, b, (x, y) -> {
       DoubleArray out = x.newEmptyArray(x.getShape());
-      for (int i = 0, size = x.size(); i < size; i++) {
-        out.set(i, x.get(i) + y.get(i));
-      }
+      parallelPolicy().execute(x.size(), (start, end) -> {
+        for (int i = start; i < end; i++) {
+          out.set(i, x.get(i) + y.get(i));
+        }
+      });
       return out;
     });
   }
@@ -522,9 +781,11 @@ public class AbstractArrayRoutines implements ArrayRoutines {
   @Override
   public void plusAssign(DoubleArray a, final DoubleArray out) {
     Arrays.broadcastWith(out, a, (x, y) -> {
-      for (int i = 0, size = x.size(); i < size; i++) {
-        x.set(i, x.get(i) + y.get(i));
-      }
+      parallelPolicy(x).execute(x.size(), (start, end) -> {
+        for (int i = start; i < end; i++) {
+          x.set(i, x.get(i) + y.get(i));
+        }
+      });
     });
   }
 
@@ -532,9 +793,11 @@ public class AbstractArrayRoutines implements ArrayRoutines {
   public DoubleArray minus(DoubleArray a, DoubleArray b) {
     return Arrays.broadcastCombine(a, b, (x, y) -> {
       DoubleArray out = x.newEmptyArray(x.getShape());
-      for (int i = 0, size = x.size(); i < size; i++) {
-        out.set(i, x.get(i) - y.get(i));
-      }
+      parallelPolicy().execute(x.size(), (start, end) -> {
+        for (int i = start; i < end; i++) {
+          out.set(i, x.get(i) - y.get(i));
+        }
+      });
       return out;
     });
   }
@@ -542,9 +805,11 @@ public class AbstractArrayRoutines implements ArrayRoutines {
   @Override
   public void minusAssign(DoubleArray a, DoubleArray out) {
     Arrays.broadcastWith(out, a, (x, y) -> {
-      for (int i = 0, size = x.size(); i < size; i++) {
-        x.set(i, y.get(i) - x.get(i));
-      }
+      parallelPolicy(x).execute(x.size(), (start, end) -> {
+        for (int i = start; i < end; i++) {
+          x.set(i, y.get(i) - x.get(i));
+        }
+      });
     });
   }
 
@@ -552,9 +817,11 @@ public class AbstractArrayRoutines implements ArrayRoutines {
   public DoubleArray times(DoubleArray a, DoubleArray b) {
     return Arrays.broadcastCombine(a, b, (x, y) -> {
       DoubleArray out = x.newEmptyArray(x.getShape());
-      for (int i = 0, size = x.size(); i < size; i++) {
-        out.set(i, x.get(i) * y.get(i));
-      }
+      parallelPolicy().execute(x.size(), (start, end) -> {
+        for (int i = start; i < end; i++) {
+          out.set(i, x.get(i) * y.get(i));
+        }
+      });
       return out;
     });
   }
@@ -562,9 +829,11 @@ public class AbstractArrayRoutines implements ArrayRoutines {
   @Override
   public void timesAssign(DoubleArray a, DoubleArray out) {
     Arrays.broadcastWith(out, a, (x, y) -> {
-      for (int i = 0, size = x.size(); i < size; i++) {
-        x.set(i, x.get(i) * y.get(i));
-      }
+      parallelPolicy(x).execute(x.size(), (start, end) -> {
+        for (int i = start; i < end; i++) {
+          x.set(i, x.get(i) * y.get(i));
+        }
+      });
     });
   }
 
@@ -572,9 +841,11 @@ public class AbstractArrayRoutines implements ArrayRoutines {
   public DoubleArray div(DoubleArray nominator, DoubleArray denominator) {
     return Arrays.broadcastCombine(nominator, denominator, (x, y) -> {
       DoubleArray out = x.newEmptyArray(x.getShape());
-      for (int i = 0, size = x.size(); i < size; i++) {
-        out.set(i, x.get(i) / y.get(i));
-      }
+      parallelPolicy().execute(x.size(), (start, end) -> {
+        for (int i = start; i < end; i++) {
+          out.set(i, x.get(i) / y.get(i));
+        }
+      });
       return out;
     });
   }
@@ -582,9 +853,11 @@ public class AbstractArrayRoutines implements ArrayRoutines {
   @Override
   public void divAssign(DoubleArray nominator, DoubleArray denominatorOut) {
     Arrays.broadcastWith(denominatorOut, nominator, (x, y) -> {
-      for (int i = 0, size = x.size(); i < size; i++) {
-        x.set(i, y.get(i) / x.get(i));
-      }
+      parallelPolicy(x).execute(x.size(), (start, end) -> {
+        for (int i = start; i < end; i++) {
+          x.set(i, y.get(i) / x.get(i));
+        }
+      });
     });
   }
 
@@ -592,9 +865,11 @@ public class AbstractArrayRoutines implements ArrayRoutines {
   public IntArray plus(IntArray a, IntArray b) {
     return Arrays.broadcastCombine(a, b, (x, y) -> {
       IntArray out = x.newEmptyArray(x.getShape());
-      for (int i = 0, size = x.size(); i < size; i++) {
-        out.set(i, x.get(i) + y.get(i));
-      }
+      parallelPolicy().execute(x.size(), (start, end) -> {
+        for (int i = start; i < end; i++) {
+          out.set(i, x.get(i) + y.get(i));
+        }
+      });
       return out;
     });
   }
@@ -602,9 +877,11 @@ public class AbstractArrayRoutines implements ArrayRoutines {
   @Override
   public void plusAssign(IntArray a, final IntArray out) {
     Arrays.broadcastWith(out, a, (x, y) -> {
-      for (int i = 0, size = x.size(); i < size; i++) {
-        x.set(i, x.get(i) + y.get(i));
-      }
+      parallelPolicy().execute(x.size(), (start, end) -> {
+        for (int i = start; i < end; i++) {
+          x.set(i, x.get(i) + y.get(i));
+        }
+      });
     });
   }
 
@@ -612,9 +889,11 @@ public class AbstractArrayRoutines implements ArrayRoutines {
   public IntArray minus(IntArray a, IntArray b) {
     return Arrays.broadcastCombine(a, b, (x, y) -> {
       IntArray out = x.newEmptyArray(x.getShape());
-      for (int i = 0, size = x.size(); i < size; i++) {
-        out.set(i, x.get(i) - y.get(i));
-      }
+      parallelPolicy().execute(x.size(), (start, end) -> {
+        for (int i = start; i < end; i++) {
+          out.set(i, x.get(i) - y.get(i));
+        }
+      });
       return out;
     });
   }
@@ -622,9 +901,11 @@ public class AbstractArrayRoutines implements ArrayRoutines {
   @Override
   public void minusAssign(IntArray a, IntArray out) {
     Arrays.broadcastWith(out, a, (x, y) -> {
-      for (int i = 0, size = x.size(); i < size; i++) {
-        x.set(i, y.get(i) - x.get(i));
-      }
+      parallelPolicy().execute(x.size(), (start, end) -> {
+        for (int i = start; i < end; i++) {
+          x.set(i, y.get(i) - x.get(i));
+        }
+      });
     });
   }
 
@@ -632,9 +913,11 @@ public class AbstractArrayRoutines implements ArrayRoutines {
   public IntArray times(IntArray a, IntArray b) {
     return Arrays.broadcastCombine(a, b, (x, y) -> {
       IntArray out = x.newEmptyArray(x.getShape());
-      for (int i = 0, size = x.size(); i < size; i++) {
-        out.set(i, x.get(i) * y.get(i));
-      }
+      parallelPolicy().execute(x.size(), (start, end) -> {
+        for (int i = start; i < end; i++) {
+          out.set(i, x.get(i) * y.get(i));
+        }
+      });
       return out;
     });
   }
@@ -642,9 +925,11 @@ public class AbstractArrayRoutines implements ArrayRoutines {
   @Override
   public void timesAssign(IntArray a, IntArray out) {
     Arrays.broadcastWith(out, a, (x, y) -> {
-      for (int i = 0, size = x.size(); i < size; i++) {
-        x.set(i, x.get(i) * y.get(i));
-      }
+      parallelPolicy().execute(x.size(), (start, end) -> {
+        for (int i = start; i < end; i++) {
+          x.set(i, x.get(i) * y.get(i));
+        }
+      });
     });
   }
 
@@ -652,9 +937,11 @@ public class AbstractArrayRoutines implements ArrayRoutines {
   public IntArray div(IntArray nominator, IntArray denominator) {
     return Arrays.broadcastCombine(nominator, denominator, (x, y) -> {
       IntArray out = x.newEmptyArray(x.getShape());
-      for (int i = 0, size = x.size(); i < size; i++) {
-        out.set(i, x.get(i) / y.get(i));
-      }
+      parallelPolicy().execute(x.size(), (start, end) -> {
+        for (int i = start; i < end; i++) {
+          out.set(i, x.get(i) / y.get(i));
+        }
+      });
       return out;
     });
   }
@@ -662,9 +949,11 @@ public class AbstractArrayRoutines implements ArrayRoutines {
   @Override
   public void divAssign(IntArray nominator, IntArray denominatorOut) {
     Arrays.broadcastWith(denominatorOut, nominator, (x, y) -> {
-      for (int i = 0, size = x.size(); i < size; i++) {
-        x.set(i, y.get(i) / x.get(i));
-      }
+      parallelPolicy().execute(x.size(), (start, end) -> {
+        for (int i = start; i < end; i++) {
+          x.set(i, y.get(i) / x.get(i));
+        }
+      });
     });
   }
 
@@ -672,9 +961,11 @@ public class AbstractArrayRoutines implements ArrayRoutines {
   public LongArray plus(LongArray a, LongArray b) {
     return Arrays.broadcastCombine(a, b, (x, y) -> {
       LongArray out = x.newEmptyArray(x.getShape());
-      for (int i = 0, size = x.size(); i < size; i++) {
-        out.set(i, x.get(i) + y.get(i));
-      }
+      parallelPolicy().execute(x.size(), (start, end) -> {
+        for (int i = start; i < end; i++) {
+          out.set(i, x.get(i) + y.get(i));
+        }
+      });
       return out;
     });
   }
@@ -682,9 +973,11 @@ public class AbstractArrayRoutines implements ArrayRoutines {
   @Override
   public void plusAssign(LongArray a, final LongArray out) {
     Arrays.broadcastWith(out, a, (x, y) -> {
-      for (int i = 0, size = x.size(); i < size; i++) {
-        x.set(i, x.get(i) + y.get(i));
-      }
+      parallelPolicy().execute(x.size(), (start, end) -> {
+        for (int i = start; i < end; i++) {
+          x.set(i, x.get(i) + y.get(i));
+        }
+      });
     });
   }
 
@@ -692,9 +985,11 @@ public class AbstractArrayRoutines implements ArrayRoutines {
   public LongArray minus(LongArray a, LongArray b) {
     return Arrays.broadcastCombine(a, b, (x, y) -> {
       LongArray out = x.newEmptyArray(x.getShape());
-      for (int i = 0, size = x.size(); i < size; i++) {
-        out.set(i, x.get(i) - y.get(i));
-      }
+      parallelPolicy().execute(x.size(), (start, end) -> {
+        for (int i = start; i < end; i++) {
+          out.set(i, x.get(i) - y.get(i));
+        }
+      });
       return out;
     });
   }
@@ -702,9 +997,11 @@ public class AbstractArrayRoutines implements ArrayRoutines {
   @Override
   public void minusAssign(LongArray a, LongArray out) {
     Arrays.broadcastWith(out, a, (x, y) -> {
-      for (int i = 0, size = x.size(); i < size; i++) {
-        x.set(i, y.get(i) - x.get(i));
-      }
+      parallelPolicy().execute(x.size(), (start, end) -> {
+        for (int i = start; i < end; i++) {
+          x.set(i, y.get(i) - x.get(i));
+        }
+      });
     });
   }
 
@@ -712,9 +1009,11 @@ public class AbstractArrayRoutines implements ArrayRoutines {
   public LongArray times(LongArray a, LongArray b) {
     return Arrays.broadcastCombine(a, b, (x, y) -> {
       LongArray out = x.newEmptyArray(x.getShape());
-      for (int i = 0, size = x.size(); i < size; i++) {
-        out.set(i, x.get(i) * y.get(i));
-      }
+      parallelPolicy().execute(x.size(), (start, end) -> {
+        for (int i = start; i < end; i++) {
+          out.set(i, x.get(i) * y.get(i));
+        }
+      });
       return out;
     });
   }
@@ -722,9 +1021,11 @@ public class AbstractArrayRoutines implements ArrayRoutines {
   @Override
   public void timesAssign(LongArray a, LongArray out) {
     Arrays.broadcastWith(out, a, (x, y) -> {
-      for (int i = 0, size = x.size(); i < size; i++) {
-        x.set(i, x.get(i) * y.get(i));
-      }
+      parallelPolicy().execute(x.size(), (start, end) -> {
+        for (int i = start; i < end; i++) {
+          x.set(i, x.get(i) * y.get(i));
+        }
+      });
     });
   }
 
@@ -732,9 +1033,11 @@ public class AbstractArrayRoutines implements ArrayRoutines {
   public LongArray div(LongArray nominator, LongArray denominator) {
     return Arrays.broadcastCombine(nominator, denominator, (x, y) -> {
       LongArray out = x.newEmptyArray(x.getShape());
-      for (int i = 0, size = x.size(); i < size; i++) {
-        out.set(i, x.get(i) / y.get(i));
-      }
+      parallelPolicy().execute(x.size(), (start, end) -> {
+        for (int i = start; i < end; i++) {
+          out.set(i, x.get(i) / y.get(i));
+        }
+      });
       return out;
     });
   }
@@ -742,9 +1045,11 @@ public class AbstractArrayRoutines implements ArrayRoutines {
   @Override
   public void divAssign(LongArray nominator, LongArray denominatorOut) {
     Arrays.broadcastWith(denominatorOut, nominator, (x, y) -> {
-      for (int i = 0, size = x.size(); i < size; i++) {
-        x.set(i, y.get(i) / x.get(i));
-      }
+      parallelPolicy().execute(x.size(), (start, end) -> {
+        for (int i = start; i < end; i++) {
+          x.set(i, y.get(i) / x.get(i));
+        }
+      });
     });
   }
 
@@ -752,9 +1057,11 @@ public class AbstractArrayRoutines implements ArrayRoutines {
   public ComplexArray plus(ComplexArray a, ComplexArray b) {
     return Arrays.broadcastCombine(a, b, (x, y) -> {
       ComplexArray out = x.newEmptyArray(x.getShape());
-      for (int i = 0, size = x.size(); i < size; i++) {
-        out.set(i, x.get(i).add(y.get(i)));
-      }
+      parallelPolicy().execute(x.size(), (start, end) -> {
+        for (int i = start; i < end; i++) {
+          out.set(i, x.get(i).add(y.get(i)));
+        }
+      });
       return out;
     });
   }
@@ -762,9 +1069,11 @@ public class AbstractArrayRoutines implements ArrayRoutines {
   @Override
   public void plusAssign(ComplexArray a, final ComplexArray out) {
     Arrays.broadcastWith(out, a, (x, y) -> {
-      for (int i = 0, size = x.size(); i < size; i++) {
-        x.set(i, x.get(i).add(y.get(i)));
-      }
+      parallelPolicy().execute(x.size(), (start, end) -> {
+        for (int i = start; i < end; i++) {
+          x.set(i, x.get(i).add(y.get(i)));
+        }
+      });
     });
   }
 
@@ -772,9 +1081,11 @@ public class AbstractArrayRoutines implements ArrayRoutines {
   public ComplexArray minus(ComplexArray a, ComplexArray b) {
     return Arrays.broadcastCombine(a, b, (x, y) -> {
       ComplexArray out = x.newEmptyArray(x.getShape());
-      for (int i = 0, size = x.size(); i < size; i++) {
-        out.set(i, x.get(i).subtract(y.get(i)));
-      }
+      parallelPolicy().execute(x.size(), (start, end) -> {
+        for (int i = start; i < end; i++) {
+          out.set(i, x.get(i).subtract(y.get(i)));
+        }
+      });
       return out;
     });
   }
@@ -782,9 +1093,11 @@ public class AbstractArrayRoutines implements ArrayRoutines {
   @Override
   public void minusAssign(ComplexArray a, ComplexArray out) {
     Arrays.broadcastWith(out, a, (x, y) -> {
-      for (int i = 0, size = x.size(); i < size; i++) {
-        x.set(i, y.get(i).subtract(x.get(i)));
-      }
+      parallelPolicy().execute(x.size(), (start, end) -> {
+        for (int i = start; i < end; i++) {
+          x.set(i, y.get(i).subtract(x.get(i)));
+        }
+      });
     });
   }
 
@@ -792,9 +1105,11 @@ public class AbstractArrayRoutines implements ArrayRoutines {
   public ComplexArray times(ComplexArray a, ComplexArray b) {
     return Arrays.broadcastCombine(a, b, (x, y) -> {
       ComplexArray out = x.newEmptyArray(x.getShape());
-      for (int i = 0, size = x.size(); i < size; i++) {
-        out.set(i, x.get(i).multiply(y.get(i)));
-      }
+      parallelPolicy().execute(x.size(), (start, end) -> {
+        for (int i = start; i < end; i++) {
+          out.set(i, x.get(i).multiply(y.get(i)));
+        }
+      });
       return out;
     });
   }
@@ -802,9 +1117,11 @@ public class AbstractArrayRoutines implements ArrayRoutines {
   @Override
   public void timesAssign(ComplexArray a, ComplexArray out) {
     Arrays.broadcastWith(out, a, (x, y) -> {
-      for (int i = 0, size = x.size(); i < size; i++) {
-        x.set(i, x.get(i).multiply(y.get(i)));
-      }
+      parallelPolicy().execute(x.size(), (start, end) -> {
+        for (int i = start; i < end; i++) {
+          x.set(i, x.get(i).multiply(y.get(i)));
+        }
+      });
     });
   }
 
@@ -812,9 +1129,11 @@ public class AbstractArrayRoutines implements ArrayRoutines {
   public ComplexArray div(ComplexArray nominator, ComplexArray denominator) {
     return Arrays.broadcastCombine(nominator, denominator, (x, y) -> {
       ComplexArray out = x.newEmptyArray(x.getShape());
-      for (int i = 0, size = x.size(); i < size; i++) {
-        out.set(i, x.get(i).divide(y.get(i)));
-      }
+      parallelPolicy().execute(x.size(), (start, end) -> {
+        for (int i = start; i < end; i++) {
+          out.set(i, x.get(i).divide(y.get(i)));
+        }
+      });
       return out;
     });
   }
@@ -822,9 +1141,11 @@ public class AbstractArrayRoutines implements ArrayRoutines {
   @Override
   public void divAssign(ComplexArray nominator, ComplexArray denominatorOut) {
     Arrays.broadcastWith(denominatorOut, nominator, (x, y) -> {
-      for (int i = 0, size = x.size(); i < size; i++) {
-        x.set(i, y.get(i).divide(x.get(i)));
-      }
+      parallelPolicy().execute(x.size(), (start, end) -> {
+        for (int i = start; i < end; i++) {
+          x.set(i, y.get(i).divide(x.get(i)));
+        }
+      });
     });
   }
 
@@ -863,200 +1184,202 @@ public class AbstractArrayRoutines implements ArrayRoutines {
 
   @Override
   public DoubleArray sin(DoubleArray array) {
-    return array.map(Math::sin);
+    return parallelMap(array, Math::sin);
   }
 
   @Override
   public ComplexArray sin(ComplexArray array) {
-    return array.map(Complex::sin);
+    return parallelMap(array, Complex::sin);
   }
 
   @Override
   public DoubleArray cos(DoubleArray array) {
-    return array.map(Math::cos);
+    return parallelMap(array, Math::cos);
   }
 
   @Override
   public ComplexArray cos(ComplexArray array) {
-    return array.map(Complex::cos);
+    return parallelMap(array, Complex::cos);
   }
 
   @Override
   public DoubleArray tan(DoubleArray array) {
-    return array.map(Math::tan);
+    return parallelMap(array, Math::tan);
   }
 
   @Override
   public ComplexArray tan(ComplexArray array) {
-    return array.map(Complex::tan);
+    return parallelMap(array, Complex::tan);
   }
 
   @Override
   public DoubleArray asin(DoubleArray array) {
-    return array.map(Math::asin);
+    return parallelMap(array, Math::asin);
   }
 
   @Override
   public ComplexArray asin(ComplexArray array) {
-    return array.map(Complex::asin);
+    return parallelMap(array, Complex::asin);
   }
 
   @Override
   public DoubleArray acos(DoubleArray array) {
-    return array.map(Math::acos);
+    return parallelMap(array, Math::acos);
   }
 
   @Override
   public ComplexArray acos(ComplexArray array) {
-    return array.map(Complex::acos);
+    return parallelMap(array, Complex::acos);
   }
 
   @Override
   public DoubleArray atan(DoubleArray array) {
-    return array.map(Math::atan);
+    return parallelMap(array, Math::atan);
   }
 
   @Override
   public ComplexArray atan(ComplexArray array) {
-    return array.map(Complex::atan);
+    return parallelMap(array, Complex::atan);
   }
 
   @Override
   public DoubleArray sinh(DoubleArray array) {
-    return array.map(Math::sinh);
+    return parallelMap(array, Math::sinh);
   }
 
   @Override
   public ComplexArray sinh(ComplexArray array) {
-    return array.map(Complex::sinh);
+    return parallelMap(array, Complex::sinh);
   }
 
   @Override
   public DoubleArray cosh(DoubleArray array) {
-    return array.map(Math::cosh);
+    return parallelMap(array, Math::cosh);
   }
 
   @Override
   public ComplexArray cosh(ComplexArray array) {
-    return array.map(Complex::cosh);
+    return parallelMap(array, Complex::cosh);
   }
 
   @Override
   public DoubleArray tanh(DoubleArray array) {
-    return array.map(Math::tanh);
+    return parallelMap(array, Math::tanh);
   }
 
   @Override
   public ComplexArray tanh(ComplexArray array) {
-    return array.map(Complex::tanh);
+    return parallelMap(array, Complex::tanh);
   }
 
   @Override
   public DoubleArray exp(DoubleArray array) {
-    return array.map(Math::exp);
+    return parallelMap(array, Math::exp);
   }
 
   @Override
   public ComplexArray exp(ComplexArray array) {
-    return array.map(Complex::exp);
+    return parallelMap(array, Complex::exp);
   }
 
   @Override
   public DoubleArray cbrt(DoubleArray array) {
-    return array.map(Math::cbrt);
+    return parallelMap(array, Math::cbrt);
   }
 
   @Override
   public DoubleArray ceil(DoubleArray array) {
-    return array.map(Math::ceil);
+    return parallelMap(array, Math::ceil);
   }
 
   @Override
   public ComplexArray ceil(ComplexArray array) {
-    return array.map(v -> new Complex(Math.ceil(v.getReal()), Math.ceil(v.getImaginary())));
+    return parallelMap(array,
+        v -> new Complex(Math.ceil(v.getReal()), Math.ceil(v.getImaginary())));
   }
 
   @Override
   public DoubleArray floor(DoubleArray array) {
-    return array.map(Math::floor);
+    return parallelMap(array, Math::floor);
   }
 
   @Override
   public ComplexArray floor(ComplexArray array) {
-    return array.map(v -> new Complex(Math.floor(v.getReal()), Math.floor(v.getImaginary())));
+    return parallelMap(array,
+        v -> new Complex(Math.floor(v.getReal()), Math.floor(v.getImaginary())));
   }
 
   @Override
   public IntArray abs(IntArray array) {
-    return array.map(Math::abs);
+    return parallelMap(array, Math::abs);
   }
 
   @Override
   public LongArray abs(LongArray array) {
-    return array.map(Math::abs);
+    return parallelMap(array, Math::abs);
   }
 
   @Override
   public DoubleArray abs(DoubleArray array) {
-    return array.map(Math::abs);
+    return parallelMap(array, Math::abs);
   }
 
   @Override
   public DoubleArray abs(ComplexArray array) {
-    return array.mapToDouble(Complex::abs);
+    return parallelMapToDouble(array, Complex::abs);
   }
 
   @Override
   public DoubleArray scalb(DoubleArray array, int scaleFactor) {
-    return array.map(v -> Math.scalb(v, scaleFactor));
+    return parallelMap(array, v -> Math.scalb(v, scaleFactor));
   }
 
   @Override
   public DoubleArray sqrt(DoubleArray array) {
-    return array.map(Math::sqrt);
+    return parallelMap(array, Math::sqrt);
   }
 
   @Override
   public ComplexArray sqrt(ComplexArray array) {
-    return array.map(Complex::sqrt);
+    return parallelMap(array, Complex::sqrt);
   }
 
   @Override
   public DoubleArray log(DoubleArray array) {
-    return array.map(Math::log);
+    return parallelMap(array, Math::log);
   }
 
   @Override
   public ComplexArray log(ComplexArray array) {
-    return array.map(Complex::log);
+    return parallelMap(array, Complex::log);
   }
 
   @Override
   public DoubleArray log2(DoubleArray array) {
-    return array.map(x -> Math.log(x) / LOG_2);
+    return parallelMap(array, x -> Math.log(x) / LOG_2);
   }
 
   @Override
   public DoubleArray pow(DoubleArray in, double power) {
     if (Precision.equals(power, 2, EPS)) {
-      return in.map(x -> x * x);
+      return parallelMap(in, x -> x * x);
     } else if (Precision.equals(power, 3, EPS)) {
-      return in.map(x -> x * x * x);
+      return parallelMap(in, x -> x * x * x);
     } else if (Precision.equals(power, 4, EPS)) {
-      return in.map(x -> x * x * x * x);
+      return parallelMap(in, x -> x * x * x * x);
     } else {
-      return in.map(x -> FastMath.pow(x, power));
+      return parallelMap(in, x -> FastMath.pow(x, power));
     }
   }
 
   @Override
   public DoubleArray log10(DoubleArray in) {
-    return in.map(Math::log10);
+    return parallelMap(in, Math::log10);
   }
 
   @Override
   public DoubleArray signum(DoubleArray in) {
-    return in.map(Math::signum);
+    return parallelMap(in, Math::signum);
   }
 
   @Override
@@ -1065,4 +1388,74 @@ public class AbstractArrayRoutines implements ArrayRoutines {
     out.assign(in, Math::round);
     return out;
   }
+
+  /**
+   * Returns a new array with the operator applied to each element of {@code x}, in parallel if
+   * permitted by the {@linkplain #parallelPolicy() current policy}.
+   *
+   * @param x the array
+   * @param operator the operator
+   * @return a new array
+   */
+  protected DoubleArray parallelMap(DoubleArray x, DoubleUnaryOperator operator) {
+    DoubleArray out = x.newEmptyArray(x.getShape());
+    parallelPolicy().execute(x.size(), (start, end) -> {
+      for (int i = start; i < end; i++) {
+        out.set(i, operator.applyAsDouble(x.get(i)));
+      }
+    });
+    return out;
+  }
+
+  /**
+   * @see #parallelMap(DoubleArray, DoubleUnaryOperator)
+   */
+  protected IntArray parallelMap(IntArray x, IntUnaryOperator operator) {
+    IntArray out = x.newEmptyArray(x.getShape());
+    parallelPolicy().execute(x.size(), (start, end) -> {
+      for (int i = start; i < end; i++) {
+        out.set(i, operator.applyAsInt(x.get(i)));
+      }
+    });
+    return out;
+  }
+
+  /**
+   * @see #parallelMap(DoubleArray, DoubleUnaryOperator)
+   */
+  protected LongArray parallelMap(LongArray x, LongUnaryOperator operator) {
+    LongArray out = x.newEmptyArray(x.getShape());
+    parallelPolicy().execute(x.size(), (start, end) -> {
+      for (int i = start; i < end; i++) {
+        out.set(i, operator.applyAsLong(x.get(i)));
+      }
+    });
+    return out;
+  }
+
+  /**
+   * @see #parallelMap(DoubleArray, DoubleUnaryOperator)
+   */
+  protected ComplexArray parallelMap(ComplexArray x, UnaryOperator<Complex> operator) {
+    ComplexArray out = x.newEmptyArray(x.getShape());
+    parallelPolicy().execute(x.size(), (start, end) -> {
+      for (int i = start; i < end; i++) {
+        out.set(i, operator.apply(x.get(i)));
+      }
+    });
+    return out;
+  }
+
+  /**
+   * @see #parallelMap(DoubleArray, DoubleUnaryOperator)
+   */
+  protected DoubleArray parallelMapToDouble(ComplexArray x, ToDoubleFunction<Complex> operator) {
+    DoubleArray out = backend.getArrayFactory().newDoubleArray(x.getShape());
+    parallelPolicy().execute(x.size(), (start, end) -> {
+      for (int i = start; i < end; i++) {
+        out.set(i, operator.applyAsDouble(x.get(i)));
+      }
+    });
+    return out;
+  }
 }
@@ -26,8 +26,10 @@ import org.apache.commons.math3.util.Precision;
 import org.briljantframework.Check;
 import org.briljantframework.array.ArrayOperation;
 import org.briljantframework.array.Arrays;
+import org.briljantframework.array.BatchedMatrices;
 import org.briljantframework.array.DoubleArray;
 import org.briljantframework.array.IntArray;
+import org.briljantframework.array.linalg.decomposition.CholeskyDecomposition;
 import org.briljantframework.array.linalg.decomposition.EigenDecomposition;
 import org.briljantframework.array.linalg.decomposition.LuDecomposition;
 import org.briljantframework.array.linalg.decomposition.SingularValueDecomposition;
@@ -40,6 +42,9 @@ import org.briljantframework.array.linalg.decomposition.SingularValueDecompositi
 public abstract class AbstractLinearAlgebraRoutines implements LinearAlgebraRoutines {
   public static final double EPS = 1e-10;
   protected final static double MACHINE_EPSILON = Math.ulp(1);
+  private static final int SVD_OVERSAMPLING = 10;
+  private static final int SVD_POWER_ITERATIONS = 2;
+  private static final int EIGSH_MAX_RESTARTS = 300;
   private final ArrayBackend arrayBackend;
 
   protected AbstractLinearAlgebraRoutines(ArrayBackend matrixFactory) {
@@ -54,6 +59,16 @@ public abstract class AbstractLinearAlgebraRoutines implements LinearAlgebraRout
     return arrayBackend;
   }
 
+  /**
+   * Returns the parallel policy of the array routines of the backend (or the policy set for the
+   * current thread)
+   *
+   * @return the current parallel policy
+   */
+  protected ParallelPolicy parallelPolicy() {
+    return ParallelPolicy.current(getArrayBackend().getArrayRoutines().getParallelPolicy());
+  }
+
   @Override
   public EigenDecomposition eig(DoubleArray x) {
     Check.argument(x.isMatrix() && x.isSquare(), "require square 2d-array.");
@@ -67,6 +82,135 @@ public abstract class AbstractLinearAlgebraRoutines implements LinearAlgebraRout
     return new GeeVEigenDecomposition(wr, wi, vl);
   }
 
+  @Override
+  public EigenDecomposition eigsh(DoubleArray x, int k) {
+    return eigsh(x, k, EIGSH_MAX_RESTARTS, EPS);
+  }
+
+  @Override
+  public EigenDecomposition eigsh(DoubleArray x, int k, int maxRestarts, double tolerance) {
+    Check.argument(x.isMatrix() && x.isSquare(), "require square 2d-array.");
+    final int n = x.size(0);
+    Check.argument(k > 0 && k <= n, "illegal number of eigenvalues: %d", k);
+    Check.argument(maxRestarts >= 0, "illegal number of restarts: %d", maxRestarts);
+    Check.argument(tolerance > 0, "illegal tolerance: %f", tolerance);
+    ArrayRoutines routines = getArrayBackend().getArrayRoutines();
+    int m = Math.min(n, Math.max(2 * k, k + 20));
+    int keep = Math.min(m - 1, k + (m - k) / 2);
+
+    // The projection t = V' * x * V of x onto the first columns of the basis V. It is tridiagonal,
+    // except that after a restart the kept Ritz vectors are coupled to the next basis vector (only)
+    DoubleArray t = getArrayFactory().newDoubleArray(m, m);
+    DoubleArray basis = getArrayFactory().newDoubleArray(n, m + 1);
+    DoubleArray ritz = getArrayFactory().newDoubleArray(n, keep);
+    DoubleArray w = getArrayFactory().newDoubleArray(n);
+    randomUnitVector(routines, basis, 0, w);
+    basis.select(1, 0).assign(w);
+
+    int j = 0;
+    for (int restart = 0;; restart++) {
+      double beta = 0;
+      for (; j < m; j++) {
+        DoubleArray v = basis.select(1, j);
+        routines.gemv(ArrayOperation.KEEP, 1, x, v, 0, w);
+        double alpha = routines.inner(w, v);
+        t.set(j, j, alpha);
+
+        // Orthogonalizing against all previous basis vectors subsumes the three-term recurrence
+        // (and the coupling to the kept Ritz vectors) and prevents the loss of orthogonality
+        orthogonalize(routines, basis, j + 1, w);
+        beta = Math.sqrt(routines.inner(w, w));
+        if (beta <= EPS * Math.abs(alpha) || beta == 0) {
+          // The Krylov subspace is invariant; continue with a new vector orthogonal to it, which
+          // decouples the projection
+          beta = 0;
+          if (j + 1 < n) {
+            randomUnitVector(routines, basis, j + 1, w);
+          }
+        } else {
+          routines.scal(1 / beta, w);
+        }
+        basis.select(1, j + 1).assign(w);
+        if (j + 1 < m) {
+          t.set(j + 1, j, beta);
+          t.set(j, j + 1, beta);
+        }
+      }
+
+      DoubleArray y = t.copy();
+      DoubleArray theta = getArrayFactory().newDoubleArray(m);
+      syev('v', 'l', y, theta);
+
+      // The residual of the Ritz pair (theta(i), V * y(:, i)) is |beta * y(m - 1, i)|
+      double scale = Math.max(Math.abs(theta.get(0)), Math.abs(theta.get(m - 1)));
+      boolean converged = m == n;
+      if (!converged) {
+        converged = true;
+        for (int i = m - k; i < m && converged; i++) {
+          converged = Math.abs(beta * y.get(m - 1, i)) <= tolerance * Math.max(1, scale);
+        }
+      }
+      if (converged) {
+        DoubleArray wr = getArrayFactory().newDoubleArray(k);
+        DoubleArray s = getArrayFactory().newDoubleArray(m, k);
+        for (int i = 0; i < k; i++) {
+          wr.set(i, theta.get(m - 1 - i));
+          s.select(1, i).assign(y.select(1, m - 1 - i));
+        }
+        DoubleArray vectors = getArrayFactory().newDoubleArray(n, k);
+        routines.gemm(ArrayOperation.KEEP, ArrayOperation.KEEP, 1, basis.getView(0, 0, n, m), s, 0,
+            vectors);
+        return new GeeVEigenDecomposition(wr, getArrayFactory().newDoubleArray(k), vectors);
+      }
+      if (restart == maxRestarts) {
+        throw new ArithmeticException(String.format(
+            "eigsh did not converge in %d restarts (tolerance %e)", maxRestarts, tolerance));
+      }
+
+      // Thick restart: keep the largest Ritz vectors and continue from the residual vector, so the
+      // memory is bounded by the m + 1 basis vectors
+      DoubleArray s = y.getView(0, m - keep, m, keep);
+      routines.gemm(ArrayOperation.KEEP, ArrayOperation.KEEP, 1, basis.getView(0, 0, n, m), s, 0,
+          ritz);
+      basis.getView(0, 0, n, keep).assign(ritz);
+      basis.select(1, keep).assign(basis.select(1, m));
+      t.assign(0);
+      for (int i = 0; i < keep; i++) {
+        double coupling = beta * s.get(m - 1, i);
+        t.set(i, i, theta.get(m - keep + i));
+        t.set(keep, i, coupling);
+        t.set(i, keep, coupling);
+      }
+      j = keep;
+    }
+  }
+
+  /**
+   * Orthogonalizes w against the first columns of the basis (classical Gram-Schmidt, repeated
+   * twice for numerical stability)
+   */
+  private void orthogonalize(ArrayRoutines routines, DoubleArray basis, int columns,
+      DoubleArray w) {
+    DoubleArray v = basis.getView(0, 0, basis.rows(), columns);
+    DoubleArray h = getArrayFactory().newDoubleArray(columns);
+    for (int pass = 0; pass < 2; pass++) {
+      routines.gemv(ArrayOperation.TRANSPOSE, 1, v, w, 0, h);
+      routines.gemv(ArrayOperation.KEEP, -1, v, h, 1, w);
+    }
+  }
+
+  /**
+   * Sets w to a random unit vector orthogonal to the first columns of the basis
+   */
+  private void randomUnitVector(ArrayRoutines routines, DoubleArray basis, int columns,
+      DoubleArray w) {
+    w.assign(getArrayFactory().randn(w.size()));
+    if (columns > 0) {
+      orthogonalize(routines, basis, columns, w);
+    }
+    routines.scal(1 / Math.sqrt(routines.inner(w, w)), w);
+  }
+
   @Override
   public LuDecomposition lu(DoubleArray array) {
     Check.argument(array.isMatrix(), "require square 2d-array");
@@ -78,6 +222,18 @@ public abstract class AbstractLinearAlgebraRoutines implements LinearAlgebraRout
     return new LuDecomposition(lu, pivots);
   }
 
+  @Override
+  public CholeskyDecomposition chol(DoubleArray x) {
+    Check.argument(x.isMatrix() && x.isSquare(), "require square 2d-array");
+    DoubleArray l = x.copy();
+    int info = potrf('l', l);
+    if (info > 0) {
+      throw new IllegalArgumentException(
+          String.format("matrix is not positive definite (leading minor of order %d)", info));
+    }
+    return new CholeskyDecomposition(l, this);
+  }
+
   @Override
   public SingularValueDecomposition svd(DoubleArray x) {
     Check.argument(x.isMatrix(), "require 2d-array");
@@ -95,6 +251,74 @@ public abstract class AbstractLinearAlgebraRoutines implements LinearAlgebraRout
     return new GesddSingularValueDecomposition(s, u, vt.transpose());
   }
 
+  @Override
+  public SingularValueDecomposition svd(DoubleArray x, int k) {
+    return svd(x, k, SVD_OVERSAMPLING, SVD_POWER_ITERATIONS);
+  }
+
+  @Override
+  public SingularValueDecomposition svd(DoubleArray x, int k, int oversampling,
+      int powerIterations) {
+    Check.argument(x.isMatrix(), "require 2d-array");
+    int m = x.rows();
+    int n = x.columns();
+    Check.argument(k > 0 && k <= Math.min(m, n), "illegal number of singular values: %d", k);
+    Check.argument(oversampling >= 0, "illegal oversampling: %d", oversampling);
+    Check.argument(powerIterations >= 0, "illegal number of power iterations: %d",
+        powerIterations);
+    ArrayRoutines routines = getArrayBackend().getArrayRoutines();
+    int l = Math.min(k + oversampling, Math.min(m, n));
+
+    // Q is an orthonormal basis (m x l) approximating the range of x
+    DoubleArray g = getArrayFactory().randn(n * l).reshape(n, l);
+    DoubleArray q = orthonormalBasis(multiply(routines, ArrayOperation.KEEP, x, g));
+    for (int i = 0; i < powerIterations; i++) {
+      DoubleArray z = orthonormalBasis(multiply(routines, ArrayOperation.TRANSPOSE, x, q));
+      q = orthonormalBasis(multiply(routines, ArrayOperation.KEEP, x, z));
+    }
+
+    // Decompose B' = x' * Q = U * S * Vt (n x l), i.e., B = Q' * x = Vt' * S * U' and
+    // x ~ (Q * Vt') * S * U'
+    DoubleArray bt = multiply(routines, ArrayOperation.TRANSPOSE, x, q);
+    DoubleArray s = getArrayFactory().newDoubleArray(l);
+    DoubleArray u = getArrayFactory().newDoubleArray(n, l);
+    DoubleArray vt = getArrayFactory().newDoubleArray(l, l);
+    gesdd('s', bt, s, u, vt);
+
+    DoubleArray left = getArrayFactory().newDoubleArray(m, k);
+    routines.gemm(ArrayOperation.KEEP, ArrayOperation.TRANSPOSE, 1, q, vt.getView(0, 0, k, l), 0,
+        left);
+    DoubleArray right = u.getView(0, 0, n, k).copy();
+    return new GesddSingularValueDecomposition(s.get(getArrayFactory().range(k)).copy(), left,
+        right);
+  }
+
+  /**
+   * Returns {@code op(a) * b}
+   */
+  private DoubleArray multiply(ArrayRoutines routines, ArrayOperation op, DoubleArray a,
+      DoubleArray b) {
+    int m = a.size(op == ArrayOperation.KEEP ? 0 : 1);
+    DoubleArray c = getArrayFactory().newDoubleArray(m, b.columns());
+    routines.gemm(op, ArrayOperation.KEEP, 1, a, b, 0, c);
+    return c;
+  }
+
+  /**
+   * Returns an orthonormal basis ({@code m x n}) of the columns of the {@code m x n} matrix
+   * {@code y}, with {@code m >= n}. The matrix {@code y} is overwritten.
+   */
+  private DoubleArray orthonormalBasis(DoubleArray y) {
+    int m = y.rows();
+    int n = y.columns();
+    DoubleArray tau = getArrayFactory().newDoubleArray(n);
+    geqrf(y, tau);
+    DoubleArray q = getArrayFactory().newDoubleArray(m, n);
+    q.getDiagonal().assign(1);
+    ormqr('l', ArrayOperation.KEEP, y, tau, q);
+    return q;
+  }
+
   @Override
   public DoubleArray inv(DoubleArray x) {
     LuDecomposition lu = lu(x);
@@ -157,6 +381,34 @@ public abstract class AbstractLinearAlgebraRoutines implements LinearAlgebraRout
     }
   }
 
+  @Override
+  public DoubleArray invBatched(DoubleArray x) {
+    Check.argument(x.dims() == 3 && x.size(0) == x.size(1), "require [n, n, batch] array");
+    DoubleArray out = getArrayFactory().newDoubleArray(x.getShape());
+    if (BatchedMatrices.isSupported(x.size(0))) {
+      BatchedMatrices.inv(parallelPolicy(), x, out);
+    } else {
+      for (int i = 0; i < x.size(2); i++) {
+        out.select(2, i).assign(inv(x.select(2, i)));
+      }
+    }
+    return out;
+  }
+
+  @Override
+  public DoubleArray detBatched(DoubleArray x) {
+    Check.argument(x.dims() == 3 && x.size(0) == x.size(1), "require [n, n, batch] array");
+    DoubleArray out = getArrayFactory().newDoubleArray(x.size(2));
+    if (BatchedMatrices.isSupported(x.size(0))) {
+      BatchedMatrices.det(parallelPolicy(), x, out);
+    } else {
+      for (int i = 0; i < x.size(2); i++) {
+        out.set(i, det(x.select(2, i)));
+      }
+    }
+    return out;
+  }
+
   @Override
   public double rank(DoubleArray x) {
     SingularValueDecomposition svd = svd(x);
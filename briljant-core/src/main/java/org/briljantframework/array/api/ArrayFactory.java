@@ -22,6 +22,7 @@ package org.briljantframework.array.api;
 
 import org.apache.commons.math3.complex.Complex;
 import org.briljantframework.array.*;
+import org.briljantframework.array.sparse.SparseDoubleArray;
 
 
 /**
@@ -124,6 +125,22 @@ public interface ArrayFactory {
    */
   LongArray newLongArray(int... shape);
 
+  /**
+   * Create a single precision vector with the given data.
+   *
+   * @param data the data array
+   * @return a new array
+   */
+  FloatArray newFloatVector(float... data);
+
+  /**
+   * Create a single precision array with designated shape filled with {@code 0}.
+   *
+   * @param shape the shape
+   * @return a new array
+   */
+  FloatArray newFloatArray(int... shape);
+
   /**
    * Create a matrix with given data in row-major order.
    *
@@ -165,6 +182,43 @@ public interface ArrayFactory {
    */
   DoubleArray newDoubleArray(int... shape);
 
+  /**
+   * Create a sparse matrix from the coordinates of its non-zero elements. Duplicate coordinates
+   * are summed and explicit zeros are dropped.
+   *
+   * @param layout the storage layout
+   * @param rows the number of rows
+   * @param columns the number of columns
+   * @param rowIndexes the row index of each element
+   * @param columnIndexes the column index of each element
+   * @param values the value of each element
+   * @return a new sparse matrix
+   */
+  SparseDoubleArray newSparseDoubleArray(SparseDoubleArray.Layout layout, int rows, int columns,
+      int[] rowIndexes, int[] columnIndexes, double[] values);
+
+  /**
+   * Create an empty sparse matrix with the given layout and shape.
+   *
+   * @param layout the storage layout
+   * @param rows the number of rows
+   * @param columns the number of columns
+   * @return a new sparse matrix
+   */
+  default SparseDoubleArray newSparseDoubleArray(SparseDoubleArray.Layout layout, int rows,
+      int columns) {
+    return newSparseDoubleArray(layout, rows, columns, new int[0], new int[0], new double[0]);
+  }
+
+  /**
+   * Convert the given 2d-array to a sparse matrix with the given layout.
+   *
+   * @param layout the storage layout
+   * @param dense the matrix
+   * @return a new sparse matrix
+   */
+  SparseDoubleArray toSparseDoubleArray(SparseDoubleArray.Layout layout, DoubleArray dense);
+
   /**
    * Create a matrix with given data
    *
@@ -305,4 +359,14 @@ public interface ArrayFactory {
   DoubleArray linspace(double start, double end, int size);
 
   DoubleArray eye(int size);
+
+  /**
+   * Create a new workspace of reusable scratch arrays allocated by this factory.
+   *
+   * @return a new workspace
+   * @see Workspace
+   */
+  default Workspace newWorkspace() {
+    return new Workspace(this);
+  }
 }
@@ -32,6 +32,21 @@ import org.briljantframework.array.*;
  */
 public interface ArrayRoutines {
 
+  /**
+   * Returns the policy deciding if element-wise routines are executed in parallel
+   *
+   * @return the parallel policy
+   */
+  ParallelPolicy getParallelPolicy();
+
+  /**
+   * Set the policy deciding if element-wise routines are executed in parallel. A policy set for
+   * the current thread using {@link ParallelPolicy#run(Runnable)} takes precedence.
+   *
+   * @param parallelPolicy the parallel policy
+   */
+  void setParallelPolicy(ParallelPolicy parallelPolicy);
+
   /**
    * Computes the mean of {@code x}
    *
@@ -272,6 +287,14 @@ public interface ArrayRoutines {
    */
   int sum(IntArray x);
 
+  /**
+   * Return the number of elements which are true.
+   *
+   * @param x the array
+   * @return the number of true elements
+   */
+  int sum(BooleanArray x);
+
   /**
    * Return the sum.
    *
@@ -402,7 +425,8 @@ public interface ArrayRoutines {
   DoubleArray norm2(int dim, DoubleArray a);
 
   /**
-   * Return the square norm.
+   * Return the euclidean norm, i.e., the square root of the sum of the squared absolute values
+   * (the imaginary part of the result is zero).
    *
    * @param a the array
    * @return the norm
@@ -503,6 +527,80 @@ public interface ArrayRoutines {
   void gemm(ArrayOperation transA, ArrayOperation transB, double alpha, DoubleArray a,
       DoubleArray b, double beta, DoubleArray c);
 
+  /**
+   * Return the inner product of two single precision vectors.
+   *
+   * @param a the first vector
+   * @param b the second vector
+   * @return the inner product
+   * @see #inner(DoubleArray, DoubleArray)
+   */
+  float inner(FloatArray a, FloatArray b);
+
+  /**
+   * Compute y <- alpha*x+y in single precision
+   *
+   * @param alpha the scalar
+   * @param x the array x
+   * @param y the array y
+   * @see #axpy(double, DoubleArray, DoubleArray)
+   */
+  void axpy(float alpha, FloatArray x, FloatArray y);
+
+  /**
+   * Compute y <- alpha*op(a)*x + beta * y in single precision
+   *
+   * @see #gemv(ArrayOperation, double, DoubleArray, DoubleArray, double, DoubleArray)
+   */
+  void gemv(ArrayOperation transA, float alpha, FloatArray a, FloatArray x, float beta,
+      FloatArray y);
+
+  /**
+   * Computes c <- alpha * transA(a) * transB(b) + beta * c in single precision
+   *
+   * @see #gemm(ArrayOperation, ArrayOperation, double, DoubleArray, DoubleArray, double,
+   *      DoubleArray)
+   */
+  void gemm(ArrayOperation transA, ArrayOperation transB, float alpha, FloatArray a, FloatArray b,
+      float beta, FloatArray c);
+
+  /**
+   * Computes {@code c[i] <- alpha * transA(a[i]) * transB(b[i]) + beta * c[i]} for each matrix
+   * {@code c[i] = c.select(2, i)} of the 3d-array {@code c}. If {@code a} (or {@code b}) is a
+   * 2d-array, the same matrix is used in every product.
+   *
+   * <p/>
+   * Unlike calling {@link #gemm(ArrayOperation, ArrayOperation, double, DoubleArray, DoubleArray,
+   * double, DoubleArray)} for each matrix, no views are created and small matrices are multiplied
+   * by pure-Java kernels, in parallel over the batch.
+   *
+   * @param transA transpose of the matrices of a
+   * @param transB transpose of the matrices of b
+   * @param alpha the scalar for a
+   * @param a a {@code [m, k, batch]} (or {@code [m, k]}) array
+   * @param b a {@code [k, n, batch]} (or {@code [k, n]}) array
+   * @param beta the scalar for c
+   * @param c the {@code [m, n, batch]} result array
+   * @see org.briljantframework.array.BatchedMatrices
+   */
+  void gemmBatched(ArrayOperation transA, ArrayOperation transB, double alpha, DoubleArray a,
+      DoubleArray b, double beta, DoubleArray c);
+
+  /**
+   * Computes {@code y[i] <- alpha * transA(a[i]) * x[i] + beta * y[i]} for each column
+   * {@code y[i]} of the 2d-array {@code y} and matrix {@code a[i] = a.select(2, i)}. If {@code a}
+   * is a 2d-array (or {@code x} a vector), the same matrix (or vector) is used in every product.
+   *
+   * @param transA transpose of the matrices of a
+   * @param alpha the scalar alpha
+   * @param a a {@code [m, n, batch]} (or {@code [m, n]}) array
+   * @param x a {@code [n, batch]} (or {@code [n]}) array
+   * @param beta the scalar beta
+   * @param y the {@code [m, batch]} result array
+   */
+  void gemvBatched(ArrayOperation transA, double alpha, DoubleArray a, DoubleArray x, double beta,
+      DoubleArray y);
+
   /**
    * Copy the contents of {@code from} to {@code to}
    *
@@ -0,0 +1,319 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 Isak Karlsson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.briljantframework.array.api;
+
+import java.util.concurrent.RecursiveAction;
+
+import org.briljantframework.array.DoubleArray;
+
+/**
+ * A cache-blocked, register-tiled implementation of the level-3 BLAS routine {@code dgemm} written
+ * in pure Java.
+ *
+ * <p/>
+ * The implementation follows the layered approach of Goto and van de Geijn: {@code op(b)} is packed
+ * into panels of {@link #KC} rows and at most {@link #NC} columns, {@code op(a)} is packed into
+ * blocks of {@link #MC} rows and the innermost kernel updates a {@code MR x NR} tile of {@code c}
+ * held in local variables. Since the operands are only touched when packing (and {@code c} once
+ * per panel), transposed and arbitrarily strided arrays are supported without copying.
+ *
+ * <p/>
+ * Large products are split into disjoint tiles of {@code c} that are computed in parallel.
+ *
+ * @author Isak Karlsson
+ */
+final class BlockedGemm {
+
+  /**
+   * The number of rows in the register tile
+   */
+  static final int MR = 4;
+
+  /**
+   * The number of columns in the register tile
+   */
+  static final int NR = 4;
+
+  /**
+   * The depth of a packed panel (chosen so that a {@code KC x NR} sliver of b fits in L1)
+   */
+  static final int KC = 256;
+
+  /**
+   * The number of rows of a packed block of a (chosen so that a {@code MC x KC} block fits in L2)
+   */
+  static final int MC = 64;
+
+  /**
+   * The maximum number of columns of a packed panel of b
+   */
+  static final int NC = 512;
+
+  /**
+   * Products with fewer multiply-adds than this are computed in the calling thread
+   */
+  private static final long PARALLEL_THRESHOLD = 1L << 18;
+
+  /**
+   * Tiles of c are split until the number of multiply-adds is smaller than this
+   */
+  private static final long TASK_GRAIN = 1L << 25;
+
+  /**
+   * Packing buffers are reused by each thread to avoid allocating in the inner loops
+   */
+  private static final ThreadLocal<double[][]> buffers = new ThreadLocal<double[][]>() {
+    @Override
+    protected double[][] initialValue() {
+      return new double[][] {new double[MC * KC], new double[KC * NC]};
+    }
+  };
+
+  private BlockedGemm() {}
+
+  /**
+   * Computes {@code c = alpha * op(a) * op(b) + beta * c} where {@code op(a)} is {@code m x k},
+   * {@code op(b)} is {@code k x n} and {@code c} is {@code m x n}. The dimensions are assumed to be
+   * validated by the caller.
+   *
+   * @param policy the policy deciding if the product is computed in parallel
+   * @param transA true if a should be transposed
+   * @param transB true if b should be transposed
+   * @param m the number of rows of {@code op(a)} and {@code c}
+   * @param n the number of columns of {@code op(b)} and {@code c}
+   * @param k the number of columns of {@code op(a)} and rows of {@code op(b)}
+   * @param alpha the scalar for {@code op(a) * op(b)}
+   * @param a the first operand
+   * @param b the second operand
+   * @param beta the scalar for {@code c}
+   * @param c the output
+   */
+  static void gemm(ParallelPolicy policy, boolean transA, boolean transB, int m, int n, int k,
+      double alpha, DoubleArray a, DoubleArray b, double beta, DoubleArray c) {
+    if (m == 0 || n == 0) {
+      return;
+    }
+    if (beta != 1) {
+      scale(beta, m, n, c);
+    }
+    if (alpha == 0 || k == 0) {
+      return;
+    }
+
+    Tile tile = new Tile(transA, transB, k, alpha, a, b, c, 0, m, 0, n);
+    if (policy.isSerial() || (long) m * n * k < PARALLEL_THRESHOLD) {
+      tile.compute();
+    } else {
+      policy.getPool().invoke(tile);
+    }
+  }
+
+  private static void scale(double beta, int m, int n, DoubleArray c) {
+    // as in the reference BLAS, c is not read when beta is zero
+    for (int j = 0; j < n; j++) {
+      for (int i = 0; i < m; i++) {
+        c.set(i, j, beta == 0 ? 0 : beta * c.get(i, j));
+      }
+    }
+  }
+
+  /**
+   * Computes the product for the rows {@code [rowStart, rowEnd)} and columns
+   * {@code [colStart, colEnd)} of {@code c}.
+   */
+  private static final class Tile extends RecursiveAction {
+
+    private final boolean transA, transB;
+    private final int k;
+    private final double alpha;
+    private final DoubleArray a, b, c;
+    private final int rowStart, rowEnd, colStart, colEnd;
+
+    Tile(boolean transA, boolean transB, int k, double alpha, DoubleArray a, DoubleArray b,
+        DoubleArray c, int rowStart, int rowEnd, int colStart, int colEnd) {
+      this.transA = transA;
+      this.transB = transB;
+      this.k = k;
+      this.alpha = alpha;
+      this.a = a;
+      this.b = b;
+      this.c = c;
+      this.rowStart = rowStart;
+      this.rowEnd = rowEnd;
+      this.colStart = colStart;
+      this.colEnd = colEnd;
+    }
+
+    @Override
+    protected void compute() {
+      int rows = rowEnd - rowStart;
+      int cols = colEnd - colStart;
+      if ((long) rows * cols * k > TASK_GRAIN && Math.max(rows, cols) >= 2 * MC) {
+        // split the largest dimension at a position aligned with the register tile
+        if (rows >= cols) {
+          int mid = rowStart + (rows / 2 + MR - 1) / MR * MR;
+          invokeAll(new Tile(transA, transB, k, alpha, a, b, c, rowStart, mid, colStart, colEnd),
+              new Tile(transA, transB, k, alpha, a, b, c, mid, rowEnd, colStart, colEnd));
+        } else {
+          int mid = colStart + (cols / 2 + NR - 1) / NR * NR;
+          invokeAll(new Tile(transA, transB, k, alpha, a, b, c, rowStart, rowEnd, colStart, mid),
+              new Tile(transA, transB, k, alpha, a, b, c, rowStart, rowEnd, mid, colEnd));
+        }
+      } else {
+        multiply();
+      }
+    }
+
+    private void multiply() {
+      double[][] buffer = buffers.get();
+      double[] packedA = buffer[0];
+      double[] packedB = buffer[1];
+      for (int jc = colStart; jc < colEnd; jc += NC) {
+        int nc = Math.min(NC, colEnd - jc);
+        for (int pc = 0; pc < k; pc += KC) {
+          int kc = Math.min(KC, k - pc);
+          packB(pc, kc, jc, nc, packedB);
+          for (int ic = rowStart; ic < rowEnd; ic += MC) {
+            int mc = Math.min(MC, rowEnd - ic);
+            packA(ic, mc, pc, kc, packedA);
+            macroKernel(ic, mc, jc, nc, kc, packedA, packedB);
+          }
+        }
+      }
+    }
+
+    /**
+     * Pack {@code op(a)[row:row+mc, p:p+kc]} into slivers of {@code MR} rows stored with the
+     * {@code MR} elements of each column adjacent. The last sliver is padded with zeros.
+     */
+    private void packA(int row, int mc, int p, int kc, double[] packed) {
+      int idx = 0;
+      for (int ir = 0; ir < mc; ir += MR) {
+        int mr = Math.min(MR, mc - ir);
+        for (int l = 0; l < kc; l++) {
+          int col = p + l;
+          for (int i = 0; i < mr; i++) {
+            int r = row + ir + i;
+            packed[idx++] = transA ? a.get(col, r) : a.get(r, col);
+          }
+          for (int i = mr; i < MR; i++) {
+            packed[idx++] = 0;
+          }
+        }
+      }
+    }
+
+    /**
+     * Pack {@code op(b)[p:p+kc, col:col+nc]} into slivers of {@code NR} columns stored with the
+     * {@code NR} elements of each row adjacent. The last sliver is padded with zeros.
+     */
+    private void packB(int p, int kc, int col, int nc, double[] packed) {
+      int idx = 0;
+      for (int jr = 0; jr < nc; jr += NR) {
+        int nr = Math.min(NR, nc - jr);
+        for (int l = 0; l < kc; l++) {
+          int row = p + l;
+          for (int j = 0; j < nr; j++) {
+            int column = col + jr + j;
+            packed[idx++] = transB ? b.get(column, row) : b.get(row, column);
+          }
+          for (int j = nr; j < NR; j++) {
+            packed[idx++] = 0;
+          }
+        }
+      }
+    }
+
+    private void macroKernel(int row, int mc, int col, int nc, int kc, double[] packedA,
+        double[] packedB) {
+      for (int jr = 0; jr < nc; jr += NR) {
+        int nr = Math.min(NR, nc - jr);
+        int bOffset = jr * kc;
+        for (int ir = 0; ir < mc; ir += MR) {
+          int mr = Math.min(MR, mc - ir);
+          microKernel(kc, packedA, ir * kc, packedB, bOffset, row + ir, mr, col + jr, nr);
+        }
+      }
+    }
+
+    /**
+     * Compute the {@code MR x NR} outer-product update of a packed sliver of a and b and add the
+     * valid {@code mr x nr} part to c.
+     */
+    private void microKernel(int kc, double[] pa, int ai, double[] pb, int bi, int row, int mr,
+        int col, int nr) {
+      double c00 = 0, c01 = 0, c02 = 0, c03 = 0;
+      double c10 = 0, c11 = 0, c12 = 0, c13 = 0;
+      double c20 = 0, c21 = 0, c22 = 0, c23 = 0;
+      double c30 = 0, c31 = 0, c32 = 0, c33 = 0;
+      for (int l = 0; l < kc; l++) {
+        double a0 = pa[ai];
+        double a1 = pa[ai + 1];
+        double a2 = pa[ai + 2];
+        double a3 = pa[ai + 3];
+        double b0 = pb[bi];
+        double b1 = pb[bi + 1];
+        double b2 = pb[bi + 2];
+        double b3 = pb[bi + 3];
+        c00 += a0 * b0;
+        c01 += a0 * b1;
+        c02 += a0 * b2;
+        c03 += a0 * b3;
+        c10 += a1 * b0;
+        c11 += a1 * b1;
+        c12 += a1 * b2;
+        c13 += a1 * b3;
+        c20 += a2 * b0;
+        c21 += a2 * b1;
+        c22 += a2 * b2;
+        c23 += a2 * b3;
+        c30 += a3 * b0;
+        c31 += a3 * b1;
+        c32 += a3 * b2;
+        c33 += a3 * b3;
+        ai += MR;
+        bi += NR;
+      }
+
+      if (mr == MR && nr == NR) {
+        update(row, col, c00, c10, c20, c30);
+        update(row, col + 1, c01, c11, c21, c31);
+        update(row, col + 2, c02, c12, c22, c32);
+        update(row, col + 3, c03, c13, c23, c33);
+      } else {
+        double[] tile = {c00, c01, c02, c03, c10, c11, c12, c13, c20, c21, c22, c23, c30, c31,
+            c32, c33};
+        for (int j = 0; j < nr; j++) {
+          for (int i = 0; i < mr; i++) {
+            c.set(row + i, col + j, c.get(row + i, col + j) + alpha * tile[i * NR + j]);
+          }
+        }
+      }
+    }
+
+    private void update(int row, int col, double v0, double v1, double v2, double v3) {
+      c.set(row, col, c.get(row, col) + alpha * v0);
+      c.set(row + 1, col, c.get(row + 1, col) + alpha * v1);
+      c.set(row + 2, col, c.get(row + 2, col) + alpha * v2);
+      c.set(row + 3, col, c.get(row + 3, col) + alpha * v3);
+    }
+  }
+}
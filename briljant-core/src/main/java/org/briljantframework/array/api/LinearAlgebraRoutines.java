@@ -23,6 +23,7 @@ package org.briljantframework.array.api;
 import org.briljantframework.array.ArrayOperation;
 import org.briljantframework.array.DoubleArray;
 import org.briljantframework.array.IntArray;
+import org.briljantframework.array.linalg.decomposition.CholeskyDecomposition;
 import org.briljantframework.array.linalg.decomposition.EigenDecomposition;
 import org.briljantframework.array.linalg.decomposition.LuDecomposition;
 import org.briljantframework.array.linalg.decomposition.SingularValueDecomposition;
@@ -36,16 +37,112 @@ public interface LinearAlgebraRoutines {
 
   EigenDecomposition eig(DoubleArray x);
 
+  /**
+   * Returns the {@code k} largest (algebraic) eigenvalues, in decreasing order, and the
+   * corresponding eigenvectors of the symmetric matrix {@code x}, computed using the thick-restart
+   * Lanczos method with full reorthogonalization. The matrix is only accessed through
+   * matrix-vector products (i.e., {@code x} can be sparse) and the memory required is
+   * proportional to {@code n} times the number of Lanczos vectors, {@code max(2 * k, k + 20)}.
+   *
+   * <p/>
+   * Equivalent to {@code eigsh(x, k, 300, 1e-10)}.
+   *
+   * @param x the symmetric matrix
+   * @param k the number of eigenvalues
+   * @return the partial eigen decomposition with an {@code n x k} matrix of eigenvectors
+   * @throws ArithmeticException if the eigenpairs have not converged after 300 restarts
+   */
+  EigenDecomposition eigsh(DoubleArray x, int k);
+
+  /**
+   * Returns the {@code k} largest (algebraic) eigenvalues, in decreasing order, and the
+   * corresponding eigenvectors of the symmetric matrix {@code x} (see
+   * {@link #eigsh(DoubleArray, int)}). An eigenpair {@code (theta, v)} has converged when the norm
+   * of its residual {@code x * v - theta * v} is at most {@code tolerance} times the largest
+   * absolute Ritz value (or {@code tolerance}, if the Ritz values are smaller than one).
+   *
+   * @param x the symmetric matrix
+   * @param k the number of eigenvalues
+   * @param maxRestarts the maximum number of restarts of the Lanczos method
+   * @param tolerance the relative tolerance of the residuals
+   * @return the partial eigen decomposition with an {@code n x k} matrix of eigenvectors
+   * @throws ArithmeticException if the eigenpairs have not converged after {@code maxRestarts}
+   *         restarts
+   */
+  EigenDecomposition eigsh(DoubleArray x, int k, int maxRestarts, double tolerance);
+
   LuDecomposition lu(DoubleArray x);
 
+  /**
+   * Returns the Cholesky decomposition {@code x = L * L'} of a symmetric positive definite matrix.
+   * Only the lower triangle of {@code x} is referenced.
+   *
+   * @param x the matrix
+   * @return the decomposition
+   * @throws IllegalArgumentException if {@code x} is not positive definite
+   */
+  CholeskyDecomposition chol(DoubleArray x);
+
   SingularValueDecomposition svd(DoubleArray x);
 
+  /**
+   * Returns the truncated singular value decomposition of the {@code k} largest singular values,
+   * computed using a randomized range finder with {@code 10} oversampled columns and {@code 2}
+   * power iterations.
+   *
+   * @param x the matrix
+   * @param k the number of singular values
+   * @return the truncated decomposition
+   * @see #svd(DoubleArray, int, int, int)
+   */
+  SingularValueDecomposition svd(DoubleArray x, int k);
+
+  /**
+   * Returns the truncated singular value decomposition of the {@code k} largest singular values of
+   * the {@code m x n} matrix {@code x}, using a randomized range finder (Halko, Martinsson and
+   * Tropp, 2011). The range of {@code x} is approximated by an orthonormal basis {@code Q} of
+   * {@code x * G}, where {@code G} is a gaussian {@code n x (k + oversampling)} matrix, refined by
+   * power iterations, and the decomposition is computed from the small matrix {@code Q' * x}.
+   *
+   * <p/>
+   * The cost is dominated by {@code 2 * (powerIterations + 1)} matrix products with {@code x} (or
+   * its transpose), i.e., {@code O(m * n * k)} instead of {@code O(m * n * min(m, n))}. Power
+   * iterations improve the accuracy when the singular values decay slowly.
+   *
+   * @param x the (dense or sparse) matrix
+   * @param k the number of singular values
+   * @param oversampling the number of additional random columns
+   * @param powerIterations the number of power iterations
+   * @return the truncated decomposition, with {@code k} singular values, {@code m x k} left and
+   *         {@code n x k} right singular vectors
+   */
+  SingularValueDecomposition svd(DoubleArray x, int k, int oversampling, int powerIterations);
+
   DoubleArray inv(DoubleArray x);
 
   DoubleArray pinv(DoubleArray x);
 
   double det(DoubleArray x);
 
+  /**
+   * Returns the inverse of each matrix {@code x.select(2, i)} of the {@code [n, n, batch]} array
+   * {@code x}, as an array of the same shape.
+   *
+   * @param x the matrices
+   * @return the inverses
+   * @throws ArithmeticException if a matrix is singular
+   */
+  DoubleArray invBatched(DoubleArray x);
+
+  /**
+   * Returns the determinant of each matrix {@code x.select(2, i)} of the {@code [n, n, batch]}
+   * array {@code x}, as an array of {@code batch} elements.
+   *
+   * @param x the matrices
+   * @return the determinants
+   */
+  DoubleArray detBatched(DoubleArray x);
+
   double rank(DoubleArray x);
 
   /**
@@ -210,6 +307,47 @@ public interface LinearAlgebraRoutines {
 
   int getri(DoubleArray a, IntArray ipiv);
 
+  /**
+   * Computes the Cholesky factorization of a real symmetric positive definite matrix A. The
+   * factorization has the form A = U**T * U, if UPLO = 'U', or A = L * L**T, if UPLO = 'L', where U
+   * is an upper triangular matrix and L is lower triangular.
+   *
+   * @param uplo 'U': Upper triangle of A is stored; 'L': Lower triangle of A is stored.
+   * @param a (input/output) On entry, the symmetric matrix A. If UPLO = 'U', the leading N-by-N
+   *        upper triangular part of A contains the upper triangular part of the matrix A, and the
+   *        strictly lower triangular part of A is not referenced (and vice versa if UPLO = 'L'). On
+   *        exit, the factor U or L.
+   * @return 0 if the factorization completed correctly and i > 0 if the leading minor of order i
+   *         is not positive definite, and the factorization could not be completed.
+   */
+  int potrf(char uplo, DoubleArray a);
+
+  /**
+   * Solves a system of linear equations A*X = B with a symmetric positive definite matrix A using
+   * the Cholesky factorization A = U**T*U or A = L*L**T computed by
+   * {@link #potrf(char, DoubleArray)}.
+   *
+   * @param uplo 'U': Upper triangle of A is stored; 'L': Lower triangle of A is stored.
+   * @param a (input) The triangular factor U or L from the Cholesky factorization.
+   * @param b (input/output) On entry, the N-by-NRHS right hand side matrix B. On exit, the solution
+   *        matrix X.
+   * @return 0 if successful
+   */
+  int potrs(char uplo, DoubleArray a, DoubleArray b);
+
+  /**
+   * Computes the inverse of a real symmetric positive definite matrix A using the Cholesky
+   * factorization A = U**T*U or A = L*L**T computed by {@link #potrf(char, DoubleArray)}.
+   *
+   * @param uplo 'U': Upper triangle of A is stored; 'L': Lower triangle of A is stored.
+   * @param a (input/output) On entry, the triangular factor U or L from the Cholesky factorization.
+   *        On exit, the upper or lower triangle of the (symmetric) inverse of A, overwriting the
+   *        input factor U or L.
+   * @return 0 if successful and i > 0 if the (i,i) element of the factor U or L is zero, and the
+   *         inverse could not be computed.
+   */
+  int potri(char uplo, DoubleArray a);
+
   /**
    * Computes the minimum-norm solution to a real linear least squares problem: minimize || A * X -
    * B || using a complete orthogonal factorization of A. A is an M- by-N matrix which may be
@@ -0,0 +1,350 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 Isak Karlsson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.briljantframework.array.api;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BinaryOperator;
+import java.util.function.Supplier;
+
+import org.briljantframework.Check;
+
+/**
+ * Decides if, and how, the element-wise routines of an {@link ArrayRoutines} instance are executed
+ * in parallel. Arrays with at least {@linkplain #getThreshold() threshold} elements are split into
+ * contiguous ranges of at least {@linkplain #getGrain() grain} elements which are processed by the
+ * tasks of a {@link ForkJoinPool}. Since each element is computed independently, and in the same
+ * way, the results are identical to the serial results.
+ *
+ * <p/>
+ * A policy is either set for all routines of a backend (see
+ * {@link ArrayRoutines#setParallelPolicy(ParallelPolicy)}) or for the routines invoked by the
+ * current thread in a scope:
+ *
+ * <pre>
+ * DoubleArray z = ParallelPolicy.serial().call(() -&gt; Arrays.plus(x, y));
+ * </pre>
+ *
+ * @author Isak Karlsson
+ */
+public final class ParallelPolicy {
+
+  private static final ParallelPolicy SERIAL = new ParallelPolicy(null, Integer.MAX_VALUE, 1);
+  private static final ParallelPolicy DEFAULT =
+      new ParallelPolicy(ForkJoinPool.commonPool(), 1 << 16, 1 << 13);
+  private static final ThreadLocal<ParallelPolicy> scoped = new ThreadLocal<>();
+
+  /**
+   * The number of tasks created per worker thread (to balance the load)
+   */
+  private static final int TASKS_PER_THREAD = 4;
+
+  private final ForkJoinPool pool;
+  private final int threshold;
+  private final int grain;
+
+  private ParallelPolicy(ForkJoinPool pool, int threshold, int grain) {
+    this.pool = pool;
+    this.threshold = threshold;
+    this.grain = grain;
+  }
+
+  /**
+   * Returns a policy which never executes routines in parallel.
+   *
+   * @return the serial policy
+   */
+  public static ParallelPolicy serial() {
+    return SERIAL;
+  }
+
+  /**
+   * Returns the default policy which executes routines on arrays with at least {@code 65536}
+   * elements in the {@linkplain ForkJoinPool#commonPool() common pool}.
+   *
+   * @return the default policy
+   */
+  public static ParallelPolicy getDefault() {
+    return DEFAULT;
+  }
+
+  /**
+   * Returns a policy executing routines on arrays with at least {@code threshold} elements in the
+   * given pool, using tasks of at least {@code grain} elements.
+   *
+   * @param pool the pool
+   * @param threshold the minimum number of elements for parallel execution
+   * @param grain the minimum number of elements per task
+   * @return a new policy
+   */
+  public static ParallelPolicy of(ForkJoinPool pool, int threshold, int grain) {
+    Check.argument(pool != null, "pool is required");
+    Check.argument(threshold >= 0, "negative threshold");
+    Check.argument(grain > 0, "grain must be positive");
+    return new ParallelPolicy(pool, threshold, grain);
+  }
+
+  /**
+   * Returns the policy set for the current thread using {@link #run(Runnable)} or
+   * {@link #call(Supplier)} or {@code defaultPolicy} if no policy is set.
+   *
+   * @param defaultPolicy the policy to use if no scoped policy is set
+   * @return the current policy
+   */
+  public static ParallelPolicy current(ParallelPolicy defaultPolicy) {
+    ParallelPolicy policy = scoped.get();
+    return policy != null ? policy : defaultPolicy;
+  }
+
+  /**
+   * Returns a copy of this policy using the given pool
+   *
+   * @param pool the pool
+   * @return a new policy
+   */
+  public ParallelPolicy withPool(ForkJoinPool pool) {
+    return of(pool, isSerial() ? DEFAULT.threshold : threshold, grain);
+  }
+
+  /**
+   * Returns a copy of this policy using the given threshold
+   *
+   * @param threshold the minimum number of elements for parallel execution
+   * @return a new policy
+   */
+  public ParallelPolicy withThreshold(int threshold) {
+    return of(isSerial() ? DEFAULT.pool : pool, threshold, grain);
+  }
+
+  /**
+   * Returns a copy of this policy using the given grain
+   *
+   * @param grain the minimum number of elements per task
+   * @return a new policy
+   */
+  public ParallelPolicy withGrain(int grain) {
+    return of(isSerial() ? DEFAULT.pool : pool, isSerial() ? DEFAULT.threshold : threshold, grain);
+  }
+
+  /**
+   * Returns the pool used for parallel execution or {@code null} if the policy is serial
+   *
+   * @return the pool
+   */
+  public ForkJoinPool getPool() {
+    return pool;
+  }
+
+  /**
+   * Returns the minimum number of elements for parallel execution
+   *
+   * @return the threshold
+   */
+  public int getThreshold() {
+    return threshold;
+  }
+
+  /**
+   * Returns the minimum number of elements per task
+   *
+   * @return the grain
+   */
+  public int getGrain() {
+    return grain;
+  }
+
+  /**
+   * Returns true if this policy never executes routines in parallel
+   *
+   * @return true if serial
+   */
+  public boolean isSerial() {
+    return pool == null || pool.getParallelism() < 2;
+  }
+
+  /**
+   * Run the given action with this policy as the policy of all routines invoked by the current
+   * thread.
+   *
+   * @param action the action
+   */
+  public void run(Runnable action) {
+    call(() -> {
+      action.run();
+      return null;
+    });
+  }
+
+  /**
+   * Call the given function with this policy as the policy of all routines invoked by the current
+   * thread.
+   *
+   * @param function the function
+   * @param <T> the return type
+   * @return the value returned by the function
+   */
+  public <T> T call(Supplier<T> function) {
+    ParallelPolicy previous = scoped.get();
+    scoped.set(this);
+    try {
+      return function.get();
+    } finally {
+      if (previous == null) {
+        scoped.remove();
+      } else {
+        scoped.set(previous);
+      }
+    }
+  }
+
+  /**
+   * Apply the action to disjoint ranges covering {@code [0, size)}. The ranges are processed in
+   * parallel if the policy allows it; otherwise the action is applied once to the full range in the
+   * calling thread.
+   *
+   * @param size the number of elements
+   * @param action the action
+   */
+  public void execute(int size, RangeAction action) {
+    if (size < threshold || isSerial()) {
+      action.apply(0, size);
+    } else {
+      int tasks = pool.getParallelism() * TASKS_PER_THREAD;
+      int chunk = Math.max(grain, (size + tasks - 1) / tasks);
+      pool.invoke(new Range(action, 0, size, chunk));
+    }
+  }
+
+  /**
+   * Apply the function to disjoint ranges covering {@code [0, size)} and combine the results.
+   * Adjacent ranges are combined pairwise, from the smallest ranges and up, so the order of
+   * combination only depends on how the elements are split. If the policy does not allow parallel
+   * execution, the function is applied once to the full range in the calling thread.
+   *
+   * @param size the number of elements
+   * @param function the function
+   * @param combiner the (associative) combiner of the results of adjacent ranges
+   * @param <T> the result type
+   * @return the combined result
+   */
+  public <T> T reduce(int size, RangeFunction<T> function, BinaryOperator<T> combiner) {
+    if (size < threshold || isSerial()) {
+      return function.apply(0, size);
+    } else {
+      int tasks = pool.getParallelism() * TASKS_PER_THREAD;
+      int chunk = Math.max(grain, (size + tasks - 1) / tasks);
+      return pool.invoke(new RangeReduction<>(function, combiner, 0, size, chunk));
+    }
+  }
+
+  @Override
+  public String toString() {
+    return isSerial() ? "ParallelPolicy(serial)"
+        : String.format("ParallelPolicy(parallelism=%d, threshold=%d, grain=%d)",
+            pool.getParallelism(), threshold, grain);
+  }
+
+  /**
+   * An action applied to the elements in the range {@code [start, end)}.
+   */
+  @FunctionalInterface
+  public interface RangeAction {
+
+    /**
+     * Apply the action to the given range
+     *
+     * @param start the first element (inclusive)
+     * @param end the last element (exclusive)
+     */
+    void apply(int start, int end);
+  }
+
+  /**
+   * A function of the elements in the range {@code [start, end)}.
+   *
+   * @param <T> the result type
+   */
+  @FunctionalInterface
+  public interface RangeFunction<T> {
+
+    /**
+     * Apply the function to the given range
+     *
+     * @param start the first element (inclusive)
+     * @param end the last element (exclusive)
+     * @return the result
+     */
+    T apply(int start, int end);
+  }
+
+  private static final class RangeReduction<T> extends RecursiveTask<T> {
+
+    private final RangeFunction<T> function;
+    private final BinaryOperator<T> combiner;
+    private final int start, end, chunk;
+
+    private RangeReduction(RangeFunction<T> function, BinaryOperator<T> combiner, int start,
+        int end, int chunk) {
+      this.function = function;
+      this.combiner = combiner;
+      this.start = start;
+      this.end = end;
+      this.chunk = chunk;
+    }
+
+    @Override
+    protected T compute() {
+      if (end - start <= chunk) {
+        return function.apply(start, end);
+      } else {
+        int mid = start + (end - start) / 2;
+        RangeReduction<T> left = new RangeReduction<>(function, combiner, start, mid, chunk);
+        left.fork();
+        T right = new RangeReduction<>(function, combiner, mid, end, chunk).compute();
+        return combiner.apply(left.join(), right);
+      }
+    }
+  }
+
+  private static final class Range extends RecursiveAction {
+
+    private final RangeAction action;
+    private final int start, end, chunk;
+
+    private Range(RangeAction action, int start, int end, int chunk) {
+      this.action = action;
+      this.start = start;
+      this.end = end;
+      this.chunk = chunk;
+    }
+
+    @Override
+    protected void compute() {
+      if (end - start <= chunk) {
+        action.apply(start, end);
+      } else {
+        int mid = start + (end - start) / 2;
+        invokeAll(new Range(action, start, mid, chunk), new Range(action, mid, end, chunk));
+      }
+    }
+  }
+}
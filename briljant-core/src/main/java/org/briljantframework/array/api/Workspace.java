@@ -0,0 +1,225 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 Isak Karlsson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.briljantframework.array.api;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.math3.complex.Complex;
+import org.briljantframework.Check;
+import org.briljantframework.array.BaseArray;
+import org.briljantframework.array.ComplexArray;
+import org.briljantframework.array.DoubleArray;
+import org.briljantframework.array.IntArray;
+
+/**
+ * A workspace (or arena) of reusable scratch arrays for iterative algorithms. Arrays are requested
+ * by shape and are recycled when the scope in which they were requested is closed. Once the
+ * workspace has served a shape, subsequent requests for the same shape reuse the recycled arrays
+ * instead of allocating new ones, i.e., steady-state loops allocate nothing.
+ *
+ * <p/>
+ * Scopes are opened using {@link #open()} and closed in reverse order, preferably using
+ * try-with-resources:
+ *
+ * <pre>
+ * Workspace workspace = Arrays.getArrayBackend().getArrayFactory().newWorkspace();
+ * for (int i = 0; i &lt; iterations; i++) {
+ *   try (Workspace ws = workspace.open()) {
+ *     DoubleArray tmp = ws.doubleArray(n, n); // reused in each iteration
+ *     ...
+ *   }
+ * }
+ * </pre>
+ *
+ * <p/>
+ * Arrays handed out by a workspace are filled with zeros and must not be used after their scope is
+ * closed. A workspace is not thread-safe; use one workspace per thread (see
+ * {@code Arrays.workspace()}).
+ *
+ * @author Isak Karlsson
+ */
+public final class Workspace implements AutoCloseable {
+
+  private final ArrayFactory factory;
+  private final List<Pool> pools = new ArrayList<>();
+  private final List<Pool> owners = new ArrayList<>();
+  private final List<BaseArray<?>> inUse = new ArrayList<>();
+  private int[] marks = new int[8];
+  private int depth = 0;
+
+  /**
+   * Create a new workspace allocating arrays using the given factory.
+   *
+   * @param factory the factory
+   * @see ArrayFactory#newWorkspace()
+   */
+  public Workspace(ArrayFactory factory) {
+    Check.argument(factory != null, "factory is required");
+    this.factory = factory;
+  }
+
+  /**
+   * Returns the factory used to allocate the arrays of this workspace
+   *
+   * @return the factory
+   */
+  public ArrayFactory getArrayFactory() {
+    return factory;
+  }
+
+  /**
+   * Open a new scope. All arrays requested after this call are recycled when the scope is
+   * {@linkplain #close() closed}.
+   *
+   * @return this workspace
+   */
+  public Workspace open() {
+    if (depth == marks.length) {
+      marks = java.util.Arrays.copyOf(marks, depth * 2);
+    }
+    marks[depth++] = inUse.size();
+    return this;
+  }
+
+  /**
+   * Returns a zero-filled {@code double} array with the given shape
+   *
+   * @param shape the shape
+   * @return a double array
+   */
+  public DoubleArray doubleArray(int... shape) {
+    DoubleArray array = (DoubleArray) take(DoubleArray.class, shape);
+    if (array == null) {
+      return (DoubleArray) retain(DoubleArray.class, shape, factory.newDoubleArray(shape));
+    }
+    array.assign(0.0);
+    return array;
+  }
+
+  /**
+   * Returns a zero-filled {@code int} array with the given shape
+   *
+   * @param shape the shape
+   * @return an int array
+   */
+  public IntArray intArray(int... shape) {
+    IntArray array = (IntArray) take(IntArray.class, shape);
+    if (array == null) {
+      return (IntArray) retain(IntArray.class, shape, factory.newIntArray(shape));
+    }
+    array.assign(0);
+    return array;
+  }
+
+  /**
+   * Returns a zero-filled {@code complex} array with the given shape
+   *
+   * @param shape the shape
+   * @return a complex array
+   */
+  public ComplexArray complexArray(int... shape) {
+    ComplexArray array = (ComplexArray) take(ComplexArray.class, shape);
+    if (array == null) {
+      return (ComplexArray) retain(ComplexArray.class, shape, factory.newComplexArray(shape));
+    }
+    array.assign(Complex.ZERO);
+    return array;
+  }
+
+  /**
+   * Returns the number of arrays currently in use, i.e., requested in an open scope.
+   *
+   * @return the number of arrays in use
+   */
+  public int inUse() {
+    return inUse.size();
+  }
+
+  /**
+   * Returns the number of arrays available for reuse
+   *
+   * @return the number of recycled arrays
+   */
+  public int available() {
+    int available = 0;
+    for (int i = 0; i < pools.size(); i++) {
+      available += pools.get(i).free.size();
+    }
+    return available;
+  }
+
+  /**
+   * Close the innermost scope and recycle the arrays requested in it. If no scope is open, all
+   * arrays in use are recycled.
+   */
+  @Override
+  public void close() {
+    int mark = depth > 0 ? marks[--depth] : 0;
+    for (int i = inUse.size() - 1; i >= mark; i--) {
+      owners.remove(i).free.push(inUse.remove(i));
+    }
+  }
+
+  private BaseArray<?> take(Class<?> type, int[] shape) {
+    Pool pool = pool(type, shape);
+    BaseArray<?> array = pool.free.poll();
+    if (array != null) {
+      inUse.add(array);
+      owners.add(pool);
+    }
+    return array;
+  }
+
+  private BaseArray<?> retain(Class<?> type, int[] shape, BaseArray<?> array) {
+    inUse.add(array);
+    owners.add(pool(type, shape));
+    return array;
+  }
+
+  /*
+   * A workspace typically serves a handful of shapes, so a linear search (without allocating a
+   * key) is faster than hashing.
+   */
+  private Pool pool(Class<?> type, int[] shape) {
+    for (int i = 0; i < pools.size(); i++) {
+      Pool pool = pools.get(i);
+      if (pool.type == type && java.util.Arrays.equals(pool.shape, shape)) {
+        return pool;
+      }
+    }
+    Pool pool = new Pool(type, shape.clone());
+    pools.add(pool);
+    return pool;
+  }
+
+  private static final class Pool {
+    private final Class<?> type;
+    private final int[] shape;
+    private final ArrayDeque<BaseArray<?>> free = new ArrayDeque<>();
+
+    private Pool(Class<?> type, int[] shape) {
+      this.type = type;
+      this.shape = shape;
+    }
+  }
+}
@@ -0,0 +1,225 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 Isak Karlsson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.briljantframework.array.direct;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+
+import org.briljantframework.Check;
+import org.briljantframework.array.BaseArray;
+import org.briljantframework.array.DoubleArray;
+import org.briljantframework.array.FloatArray;
+import org.briljantframework.array.IntArray;
+import org.briljantframework.array.LongArray;
+import org.briljantframework.array.ShapeUtils;
+import org.briljantframework.array.api.ArrayBackend;
+import org.briljantframework.array.api.ArrayFactory;
+import org.briljantframework.array.api.ArrayRoutines;
+import org.briljantframework.array.api.LinearAlgebraRoutines;
+import org.briljantframework.array.netlib.NetlibArrayBackend;
+
+/**
+ * Provides {@code double}, {@code float}, {@code int} and {@code long} arrays stored in direct
+ * (off-heap) memory. Since the elements are not stored on the Java heap, large arrays do not
+ * increase the heap size or the time spent on garbage collection. Arrays can also be memory mapped
+ * from files, e.g., to share them between processes.
+ *
+ * <p/>
+ * The memory of an array is reclaimed only by the garbage collector, when the array (and all its
+ * views) are unreachable. Arrays can also be invalidated explicitly using
+ * {@link #release(BaseArray)}, which drops the references to the memory so that it can be
+ * reclaimed even if stale views remain reachable. Releasing does not free the memory
+ * deterministically: direct memory counts towards {@code -XX:MaxDirectMemorySize} (and mapped
+ * files stay mapped) until a garbage collection finds the buffers unreachable.
+ *
+ * <p/>
+ * Priority: 50
+ *
+ * @author Isak Karlsson
+ */
+public class DirectArrayBackend implements ArrayBackend {
+
+  private final ArrayBackend heap = new NetlibArrayBackend();
+  private ArrayFactory arrayFactory;
+  private ArrayRoutines arrayRoutines;
+  private LinearAlgebraRoutines linearAlgebraRoutines;
+
+  /**
+   * Release the direct memory held by the given array. The memory is shared with all views of the
+   * array, and all views are hence released. Accessing a released array throws
+   * {@link IllegalStateException}.
+   *
+   * <p/>
+   * This method does not free the memory. It only drops the references to it, and the memory is
+   * reclaimed (or unmapped) by a later garbage collection that finds it unreachable. Freeing it
+   * here would let an access racing with the release on another thread touch freed memory.
+   *
+   * @param array the array
+   * @throws IllegalArgumentException if the array is not stored in direct memory
+   */
+  public static void release(BaseArray<?> array) {
+    getStorage(array).release();
+  }
+
+  /**
+   * Returns true if the direct memory of the given array has been released.
+   *
+   * @param array the array
+   * @return true if released
+   * @throws IllegalArgumentException if the array is not stored in direct memory
+   */
+  public static boolean isReleased(BaseArray<?> array) {
+    return getStorage(array).isReleased();
+  }
+
+  private static DirectStorage getStorage(BaseArray<?> array) {
+    if (!(array instanceof DirectArray)) {
+      throw new IllegalArgumentException("Not stored in direct memory");
+    }
+    return ((DirectArray) array).getStorage();
+  }
+
+  /**
+   * Memory map a double array of the given shape, with elements stored in column-major order
+   * starting at {@code position}. Changes to the array are written to the file if the mode is
+   * {@link FileChannel.MapMode#READ_WRITE}.
+   *
+   * @param channel the file channel
+   * @param mode the map mode
+   * @param position the position (in bytes) of the first element
+   * @param order the byte order of the elements
+   * @param shape the shape of the array
+   * @return a new array
+   * @throws IOException if an IO error occurs
+   */
+  public DoubleArray mapDoubleArray(FileChannel channel, FileChannel.MapMode mode, long position,
+      ByteOrder order, int... shape) throws IOException {
+    DirectStorage storage =
+        DirectStorage.map(channel, mode, position, ShapeUtils.size(shape), Double.BYTES, order);
+    return new DirectDoubleArray(this, shape, storage);
+  }
+
+  /**
+   * Memory map an int array of the given shape.
+   *
+   * @see #mapDoubleArray(FileChannel, FileChannel.MapMode, long, ByteOrder, int...)
+   */
+  public IntArray mapIntArray(FileChannel channel, FileChannel.MapMode mode, long position,
+      ByteOrder order, int... shape) throws IOException {
+    DirectStorage storage =
+        DirectStorage.map(channel, mode, position, ShapeUtils.size(shape), Integer.BYTES, order);
+    return new DirectIntArray(this, shape, storage);
+  }
+
+  /**
+   * Memory map a long array of the given shape.
+   *
+   * @see #mapDoubleArray(FileChannel, FileChannel.MapMode, long, ByteOrder, int...)
+   */
+  public LongArray mapLongArray(FileChannel channel, FileChannel.MapMode mode, long position,
+      ByteOrder order, int... shape) throws IOException {
+    DirectStorage storage =
+        DirectStorage.map(channel, mode, position, ShapeUtils.size(shape), Long.BYTES, order);
+    return new DirectLongArray(this, shape, storage);
+  }
+
+  /**
+   * Memory map a float array of the given shape.
+   *
+   * @see #mapDoubleArray(FileChannel, FileChannel.MapMode, long, ByteOrder, int...)
+   */
+  public FloatArray mapFloatArray(FileChannel channel, FileChannel.MapMode mode, long position,
+      ByteOrder order, int... shape) throws IOException {
+    DirectStorage storage =
+        DirectStorage.map(channel, mode, position, ShapeUtils.size(shape), Float.BYTES, order);
+    return new DirectFloatArray(this, shape, storage);
+  }
+
+  /**
+   * Create a new zero-initialized vector ({@code shape = [size]}) or matrix
+   * ({@code shape = [rows, columns]}) whose number of elements may exceed {@code 2^31 - 1}.
+   *
+   * @param shape the shape
+   * @return a new array
+   */
+  public LargeDoubleArray newLargeDoubleArray(int... shape) {
+    Check.argument(shape.length == 1 || shape.length == 2, "Only vectors and matrices supported");
+    ShapeUtils.longSize(shape); // throws on overflow
+    return new LargeDoubleArray(this, shape[0], shape.length == 1 ? 1 : shape[1]);
+  }
+
+  /**
+   * Create a new zero-initialized vector with {@code size} elements.
+   *
+   * @param size the number of elements
+   * @return a new array
+   */
+  public LargeDoubleArray newLargeDoubleVector(long size) {
+    return new LargeDoubleArray(this, size, 1);
+  }
+
+  /**
+   * Memory map a (possibly large) column-major matrix of doubles.
+   *
+   * @see #mapDoubleArray(FileChannel, FileChannel.MapMode, long, ByteOrder, int...)
+   */
+  public LargeDoubleArray mapLargeDoubleArray(FileChannel channel, FileChannel.MapMode mode,
+      long position, ByteOrder order, long rows, int columns) throws IOException {
+    DirectStorage storage = DirectStorage.map(channel, mode, position,
+        Math.multiplyExact(rows, columns), Double.BYTES, order);
+    return new LargeDoubleArray(this, rows, columns, storage);
+  }
+
+  @Override
+  public boolean isAvailable() {
+    return true;
+  }
+
+  @Override
+  public int getPriority() {
+    return 50;
+  }
+
+  @Override
+  public ArrayFactory getArrayFactory() {
+    if (arrayFactory == null) {
+      arrayFactory = new DirectArrayFactory(this, heap.getArrayFactory());
+    }
+    return arrayFactory;
+  }
+
+  @Override
+  public ArrayRoutines getArrayRoutines() {
+    if (arrayRoutines == null) {
+      arrayRoutines = new DirectArrayRoutines(this);
+    }
+    return arrayRoutines;
+  }
+
+  @Override
+  public LinearAlgebraRoutines getLinearAlgebraRoutines() {
+    if (linearAlgebraRoutines == null) {
+      linearAlgebraRoutines = new DirectLinearAlgebraRoutines(this, heap);
+    }
+    return linearAlgebraRoutines;
+  }
+}
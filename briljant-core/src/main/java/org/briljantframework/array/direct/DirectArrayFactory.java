@@ -0,0 +1,302 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 Isak Karlsson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.briljantframework.array.direct;
+
+import org.apache.commons.math3.complex.Complex;
+import org.apache.commons.math3.distribution.NormalDistribution;
+import org.apache.commons.math3.distribution.RealDistribution;
+import org.apache.commons.math3.distribution.UniformRealDistribution;
+import org.briljantframework.Check;
+import org.briljantframework.array.*;
+import org.briljantframework.array.api.ArrayBackend;
+import org.briljantframework.array.api.ArrayFactory;
+import org.briljantframework.array.sparse.SparseDoubleArray;
+
+/**
+ * Creates {@code double}, {@code int} and {@code long} arrays in direct memory. The remaining
+ * array types, which are not numerical storage, are created on the heap by the given factory.
+ *
+ * @author Isak Karlsson
+ */
+class DirectArrayFactory implements ArrayFactory {
+  private static final ThreadLocal<RealDistribution> normalDistribution =
+      new ThreadLocal<RealDistribution>() {
+        @Override
+        protected RealDistribution initialValue() {
+          return new NormalDistribution(0, 1);
+        }
+      };
+
+  private static final ThreadLocal<RealDistribution> uniformDistribution =
+      new ThreadLocal<RealDistribution>() {
+        @Override
+        protected RealDistribution initialValue() {
+          return new UniformRealDistribution(0, 1);
+        }
+      };
+
+  private final ArrayBackend backend;
+  private final ArrayFactory heap;
+
+  DirectArrayFactory(ArrayBackend backend, ArrayFactory heap) {
+    this.backend = backend;
+    this.heap = heap;
+  }
+
+  @Override
+  public <T> Array<T> newVector(T[] data) {
+    return heap.newVector(data);
+  }
+
+  @Override
+  public <T> Array<T> newMatrix(T[][] data) {
+    return heap.newMatrix(data);
+  }
+
+  @Override
+  public <T> Array<T> newArray(int... shape) {
+    return heap.newArray(shape);
+  }
+
+  @Override
+  public BooleanArray newBooleanMatrix(boolean[][] data) {
+    return heap.newBooleanMatrix(data);
+  }
+
+  @Override
+  public BooleanArray newBooleanVector(boolean... data) {
+    return heap.newBooleanVector(data);
+  }
+
+  @Override
+  public BooleanArray newBooleanArray(int... shape) {
+    return heap.newBooleanArray(shape);
+  }
+
+  @Override
+  public IntArray newIntMatrix(int[][] data) {
+    Check.argument(data.length > 0, "illegal row count");
+    Check.argument(data[0].length > 0, "illegal column count");
+
+    int m = data.length;
+    int n = data[0].length;
+    IntArray array = newIntArray(m, n);
+    for (int i = 0; i < m; i++) {
+      int[] row = data[i];
+      Check.argument(row.length == n, "illegal row count");
+      for (int j = 0; j < n; j++) {
+        array.set(i, j, row[j]);
+      }
+    }
+    return array;
+  }
+
+  @Override
+  public IntArray newIntVector(int... data) {
+    IntArray array = newIntArray(data.length);
+    array.assign(data);
+    return array;
+  }
+
+  @Override
+  public IntArray newIntArray(int... shape) {
+    return new DirectIntArray(backend, shape);
+  }
+
+  @Override
+  public LongArray newLongMatrix(long[][] data) {
+    Check.argument(data.length > 0, "illegal row count");
+    Check.argument(data[0].length > 0, "illegal column count");
+
+    int m = data.length;
+    int n = data[0].length;
+    LongArray array = newLongArray(m, n);
+    for (int i = 0; i < m; i++) {
+      long[] row = data[i];
+      Check.argument(row.length == n, "illegal row count");
+      for (int j = 0; j < n; j++) {
+        array.set(i, j, row[j]);
+      }
+    }
+    return array;
+  }
+
+  @Override
+  public LongArray newLongVector(long... data) {
+    LongArray array = newLongArray(data.length);
+    array.assign(data);
+    return array;
+  }
+
+  @Override
+  public LongArray newLongArray(int... shape) {
+    return new DirectLongArray(backend, shape);
+  }
+
+  @Override
+  public FloatArray newFloatVector(float... data) {
+    FloatArray array = newFloatArray(data.length);
+    array.assign(data);
+    return array;
+  }
+
+  @Override
+  public FloatArray newFloatArray(int... shape) {
+    return new DirectFloatArray(backend, shape);
+  }
+
+  @Override
+  public DoubleArray newDoubleMatrix(double[][] data) {
+    Check.argument(data.length > 0, "illegal row count");
+    Check.argument(data[0].length > 0, "illegal column count");
+
+    int m = data.length;
+    int n = data[0].length;
+    DoubleArray array = newDoubleArray(m, n);
+    for (int i = 0; i < m; i++) {
+      double[] row = data[i];
+      Check.argument(row.length == n, "illegal row count");
+      for (int j = 0; j < n; j++) {
+        array.set(i, j, row[j]);
+      }
+    }
+    return array;
+  }
+
+  @Override
+  public DoubleArray newDoubleVector(double... data) {
+    DoubleArray array = newDoubleArray(data.length);
+    array.assign(data);
+    return array;
+  }
+
+  @Override
+  public DoubleArray newDoubleArray(int... shape) {
+    return new DirectDoubleArray(backend, shape);
+  }
+
+  @Override
+  public ComplexArray newComplexMatrix(Complex[][] data) {
+    return heap.newComplexMatrix(data);
+  }
+
+  @Override
+  public ComplexArray newComplexVector(Complex... data) {
+    return heap.newComplexVector(data);
+  }
+
+  @Override
+  public ComplexArray newComplexVector(double... data) {
+    return heap.newComplexVector(data);
+  }
+
+  @Override
+  public ComplexArray newComplexArray(int... shape) {
+    return heap.newComplexArray(shape);
+  }
+
+  @Override
+  public DoubleArray randn(int size) {
+    RealDistribution distribution = normalDistribution.get();
+    DoubleArray array = newDoubleArray(size);
+    for (int i = 0; i < size; i++) {
+      array.set(i, distribution.sample());
+    }
+    return array;
+  }
+
+  @Override
+  public DoubleArray rand(int size) {
+    RealDistribution distribution = uniformDistribution.get();
+    DoubleArray array = newDoubleArray(size);
+    for (int i = 0; i < size; i++) {
+      array.set(i, distribution.sample());
+    }
+    return array;
+  }
+
+  @Override
+  public DoubleArray ones(int... shape) {
+    DoubleArray array = newDoubleArray(shape);
+    array.assign(1);
+    return array;
+  }
+
+  @Override
+  public <T extends BaseArray<T>> T diag(T data) {
+    if (data.isVector()) {
+      int n = data.size();
+      T arr = data.newEmptyArray(n, n);
+      arr.getDiagonal().assign(data);
+      return arr;
+    } else if (data.isMatrix()) {
+      return data.getDiagonal();
+    } else {
+      throw new IllegalArgumentException("Input must be 1- or 2-d");
+    }
+  }
+
+  @Override
+  public Range range(int start, int end, int step) {
+    return heap.range(start, end, step);
+  }
+
+  @Override
+  public Range range(int start, int end) {
+    return range(start, end, 1);
+  }
+
+  @Override
+  public Range range(int end) {
+    return range(0, end);
+  }
+
+  @Override
+  public DoubleArray linspace(double start, double end, int size) {
+    DoubleArray values = newDoubleArray(size);
+    double step = (end - start) / (size - 1);
+    double value = start;
+    for (int index = 0; index < size; index++) {
+      values.set(index, value);
+      value += step;
+    }
+    return values;
+  }
+
+  @Override
+  public DoubleArray eye(int size) {
+    DoubleArray eye = newDoubleArray(size, size);
+    eye.getDiagonal().assign(1);
+    return eye;
+  }
+
+  @Override
+  public SparseDoubleArray newSparseDoubleArray(SparseDoubleArray.Layout layout, int rows,
+      int columns, int[] rowIndexes, int[] columnIndexes, double[] values) {
+    return SparseDoubleArray.of(backend, layout, rows, columns, rowIndexes, columnIndexes, values);
+  }
+
+  @Override
+  public SparseDoubleArray toSparseDoubleArray(SparseDoubleArray.Layout layout,
+      DoubleArray dense) {
+    return SparseDoubleArray.of(backend, layout, dense);
+  }
+}
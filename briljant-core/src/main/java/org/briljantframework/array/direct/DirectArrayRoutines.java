@@ -0,0 +1,52 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 Isak Karlsson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.briljantframework.array.direct;
+
+import org.briljantframework.Check;
+import org.briljantframework.array.BaseArray;
+import org.briljantframework.array.api.AbstractArrayRoutines;
+import org.briljantframework.array.api.ArrayBackend;
+
+/**
+ * Array routines for arrays stored in direct memory. Since the native BLAS bindings require heap
+ * arrays, the routines are implemented in Java.
+ *
+ * @author Isak Karlsson
+ */
+class DirectArrayRoutines extends AbstractArrayRoutines {
+
+  DirectArrayRoutines(ArrayBackend backend) {
+    super(backend);
+  }
+
+  @Override
+  public <T extends BaseArray<T>> void copy(T from, T to) {
+    // arrays without views can be copied in bulk
+    if (from instanceof DirectArray && to instanceof DirectArray && !from.isView()
+        && !to.isView() && from.getClass() == to.getClass()) {
+      Check.size(from, to);
+      ((DirectArray) from).getStorage().copyTo(0, ((DirectArray) to).getStorage(), 0,
+          from.size());
+    } else {
+      super.copy(from, to);
+    }
+  }
+}
@@ -0,0 +1,206 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 Isak Karlsson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.briljantframework.array.direct;
+
+import org.briljantframework.array.ArrayOperation;
+import org.briljantframework.array.DoubleArray;
+import org.briljantframework.array.IntArray;
+import org.briljantframework.array.api.AbstractLinearAlgebraRoutines;
+import org.briljantframework.array.api.ArrayBackend;
+import org.briljantframework.array.api.ArrayFactory;
+import org.briljantframework.array.api.LinearAlgebraRoutines;
+
+/**
+ * Linear algebra routines for arrays stored in direct memory.
+ *
+ * <p>
+ * Since the LAPACK bindings operate on heap arrays, the arguments of each routine are staged in
+ * temporary heap arrays which are handed to the given routines and then copied back to simulate
+ * out-parameters. The heap memory is hence only held during the call.
+ *
+ * @author Isak Karlsson
+ */
+class DirectLinearAlgebraRoutines extends AbstractLinearAlgebraRoutines {
+
+  private final ArrayFactory heap;
+  private final LinearAlgebraRoutines lapack;
+
+  DirectLinearAlgebraRoutines(ArrayBackend backend, ArrayBackend heap) {
+    super(backend);
+    this.heap = heap.getArrayFactory();
+    this.lapack = heap.getLinearAlgebraRoutines();
+  }
+
+  @Override
+  public void geev(char jobvl, char jobvr, DoubleArray a, DoubleArray wr, DoubleArray wi,
+      DoubleArray vl, DoubleArray vr) {
+    DoubleArray ha = toHeap(a), hwr = toHeap(wr), hwi = toHeap(wi), hvl = toHeap(vl),
+        hvr = toHeap(vr);
+    lapack.geev(jobvl, jobvr, ha, hwr, hwi, hvl, hvr);
+    a.assign(ha);
+    wr.assign(hwr);
+    wi.assign(hwi);
+    vl.assign(hvl);
+    vr.assign(hvr);
+  }
+
+  @Override
+  public void ormqr(char side, ArrayOperation transA, DoubleArray a, DoubleArray tau,
+      DoubleArray c) {
+    DoubleArray hc = toHeap(c);
+    lapack.ormqr(side, transA, toHeap(a), toHeap(tau), hc);
+    c.assign(hc);
+  }
+
+  @Override
+  public void geqrf(DoubleArray a, DoubleArray tau) {
+    DoubleArray ha = toHeap(a), htau = toHeap(tau);
+    lapack.geqrf(ha, htau);
+    a.assign(ha);
+    tau.assign(htau);
+  }
+
+  @Override
+  public void syev(char jobz, char uplo, DoubleArray a, DoubleArray w) {
+    DoubleArray ha = toHeap(a), hw = toHeap(w);
+    lapack.syev(jobz, uplo, ha, hw);
+    a.assign(ha);
+    w.assign(hw);
+  }
+
+  @Override
+  public void syevd(char jobz, char uplo, DoubleArray a, DoubleArray w) {
+    DoubleArray ha = toHeap(a), hw = toHeap(w);
+    lapack.syevd(jobz, uplo, ha, hw);
+    a.assign(ha);
+    w.assign(hw);
+  }
+
+  @Override
+  public int syevr(char jobz, char range, char uplo, DoubleArray a, double vl, double vu, int il,
+      int iu, double abstol, DoubleArray w, DoubleArray z, IntArray isuppz) {
+    DoubleArray ha = toHeap(a), hw = toHeap(w), hz = toHeap(z);
+    IntArray hisuppz = toHeap(isuppz);
+    int m = lapack.syevr(jobz, range, uplo, ha, vl, vu, il, iu, abstol, hw, hz, hisuppz);
+    a.assign(ha);
+    w.assign(hw);
+    z.assign(hz);
+    isuppz.assign(hisuppz);
+    return m;
+  }
+
+  @Override
+  public int getrf(DoubleArray a, IntArray ipiv) {
+    DoubleArray ha = toHeap(a);
+    IntArray hipiv = toHeap(ipiv);
+    int info = lapack.getrf(ha, hipiv);
+    a.assign(ha);
+    ipiv.assign(hipiv);
+    return info;
+  }
+
+  @Override
+  public int getri(DoubleArray a, IntArray ipiv) {
+    DoubleArray ha = toHeap(a);
+    int info = lapack.getri(ha, toHeap(ipiv));
+    a.assign(ha);
+    return info;
+  }
+
+  @Override
+  public int potrf(char uplo, DoubleArray a) {
+    DoubleArray ha = toHeap(a);
+    int info = lapack.potrf(uplo, ha);
+    a.assign(ha);
+    return info;
+  }
+
+  @Override
+  public int potrs(char uplo, DoubleArray a, DoubleArray b) {
+    DoubleArray hb = toHeap(b);
+    int info = lapack.potrs(uplo, toHeap(a), hb);
+    b.assign(hb);
+    return info;
+  }
+
+  @Override
+  public int potri(char uplo, DoubleArray a) {
+    DoubleArray ha = toHeap(a);
+    int info = lapack.potri(uplo, ha);
+    a.assign(ha);
+    return info;
+  }
+
+  @Override
+  public int gelsy(DoubleArray a, DoubleArray b, IntArray jpvt, double rcond) {
+    DoubleArray ha = toHeap(a), hb = toHeap(b);
+    IntArray hjpvt = toHeap(jpvt);
+    int rank = lapack.gelsy(ha, hb, hjpvt, rcond);
+    a.assign(ha);
+    b.assign(hb);
+    jpvt.assign(hjpvt);
+    return rank;
+  }
+
+  @Override
+  public int gesv(DoubleArray a, IntArray ipiv, DoubleArray b) {
+    DoubleArray ha = toHeap(a), hb = toHeap(b);
+    IntArray hipiv = toHeap(ipiv);
+    int info = lapack.gesv(ha, hipiv, hb);
+    a.assign(ha);
+    ipiv.assign(hipiv);
+    b.assign(hb);
+    return info;
+  }
+
+  @Override
+  public void gesvd(char jobu, char jobvt, DoubleArray a, DoubleArray s, DoubleArray u,
+      DoubleArray vt) {
+    DoubleArray ha = toHeap(a), hs = toHeap(s), hu = toHeap(u), hvt = toHeap(vt);
+    lapack.gesvd(jobu, jobvt, ha, hs, hu, hvt);
+    a.assign(ha);
+    s.assign(hs);
+    u.assign(hu);
+    vt.assign(hvt);
+  }
+
+  @Override
+  public void gesdd(char jobz, DoubleArray a, DoubleArray s, DoubleArray u, DoubleArray vt) {
+    DoubleArray ha = toHeap(a), hs = toHeap(s), hu = toHeap(u), hvt = toHeap(vt);
+    lapack.gesdd(jobz, ha, hs, hu, hvt);
+    a.assign(ha);
+    s.assign(hs);
+    u.assign(hu);
+    vt.assign(hvt);
+  }
+
+  private DoubleArray toHeap(DoubleArray array) {
+    DoubleArray copy = heap.newDoubleArray(array.getShape());
+    copy.assign(array);
+    return copy;
+  }
+
+  private IntArray toHeap(IntArray array) {
+    IntArray copy = heap.newIntArray(array.getShape());
+    copy.assign(array);
+    return copy;
+  }
+}
@@ -0,0 +1,81 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 Isak Karlsson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.briljantframework.array.direct;
+
+import org.briljantframework.array.AbstractLongArray;
+import org.briljantframework.array.LongArray;
+import org.briljantframework.array.api.ArrayBackend;
+
+/**
+ * A long array stored in direct (off-heap) memory.
+ *
+ * @author Isak Karlsson
+ */
+class DirectLongArray extends AbstractLongArray implements DirectArray {
+
+  private final DirectStorage storage;
+
+  DirectLongArray(ArrayBackend bj, int[] shape) {
+    super(bj, shape);
+    this.storage = DirectStorage.allocate(size(), Long.BYTES);
+  }
+
+  DirectLongArray(ArrayBackend bj, int[] shape, DirectStorage storage) {
+    super(bj, shape);
+    this.storage = storage;
+  }
+
+  private DirectLongArray(ArrayBackend bj, int offset, int[] shape, int[] stride,
+      DirectStorage storage) {
+    super(bj, offset, shape, stride);
+    this.storage = storage;
+  }
+
+  @Override
+  public LongArray asView(int offset, int[] shape, int[] stride) {
+    return new DirectLongArray(getArrayBackend(), offset, shape, stride, storage);
+  }
+
+  @Override
+  public LongArray newEmptyArray(int... shape) {
+    return new DirectLongArray(getArrayBackend(), shape);
+  }
+
+  @Override
+  protected long getElement(int i) {
+    return storage.getLong(i);
+  }
+
+  @Override
+  protected void setElement(int i, long value) {
+    storage.setLong(i, value);
+  }
+
+  @Override
+  protected int elementSize() {
+    return (int) storage.size();
+  }
+
+  @Override
+  public DirectStorage getStorage() {
+    return storage;
+  }
+}
@@ -0,0 +1,282 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 Isak Karlsson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.briljantframework.array.direct;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+
+import org.briljantframework.Check;
+
+/**
+ * Element storage in direct (off-heap) memory.
+ *
+ * <p/>
+ * Since a single {@link ByteBuffer} can address at most {@code 2^31} bytes, the storage is split
+ * into chunks of {@code 2^30} bytes. The memory is either allocated using
+ * {@link ByteBuffer#allocateDirect(int)} or memory mapped from a file and can be released
+ * explicitly using {@link #release()}, after which accesses throw {@link IllegalStateException}.
+ *
+ * <p/>
+ * Releasing only drops the references to the buffers; the memory itself is freed (or unmapped)
+ * only by the garbage collector once it is unreachable, i.e., not deterministically. Hence, an
+ * access racing with a release on another thread either completes on memory that is still valid or
+ * throws, but never touches freed memory, and accesses do not pay for synchronization.
+ *
+ * @author Isak Karlsson
+ */
+final class DirectStorage {
+
+  private static final int CHUNK_SHIFT = 30;
+  private static final String RELEASED = "The memory of the array has been released";
+
+  private final DirectStorage root;
+  private final long base;
+  private final long size;
+  private final int elementShift;
+  private final int chunkShift;
+  private final int chunkMask;
+
+  // only used by the root, set to null when released
+  private ByteBuffer[] chunks;
+
+  private DirectStorage(ByteBuffer[] chunks, long size, int elementBytes, int chunkBytesShift) {
+    Check.argument(Integer.bitCount(elementBytes) == 1, "illegal element size");
+    this.chunks = chunks;
+    this.root = this;
+    this.base = 0;
+    this.size = size;
+    this.elementShift = Integer.numberOfTrailingZeros(elementBytes);
+    this.chunkShift = chunkBytesShift - elementShift;
+    this.chunkMask = (1 << chunkShift) - 1;
+  }
+
+  private DirectStorage(DirectStorage root, long base, long size) {
+    this.chunks = null;
+    this.root = root;
+    this.base = base;
+    this.size = size;
+    this.elementShift = root.elementShift;
+    this.chunkShift = root.chunkShift;
+    this.chunkMask = root.chunkMask;
+  }
+  /**
+   * Allocate zero-initialized storage for {@code size} elements of {@code elementBytes} bytes.
+   *
+   * @param size the number of elements
+   * @param elementBytes the number of bytes per element (a power of two)
+   * @return a new storage
+   */
+  static DirectStorage allocate(long size, int elementBytes) {
+    return allocate(size, elementBytes, CHUNK_SHIFT);
+  }
+
+  /**
+   * Allocate zero-initialized storage split into chunks of {@code 2^chunkBytesShift} bytes.
+   */
+  static DirectStorage allocate(long size, int elementBytes, int chunkBytesShift) {
+    Check.argument(size >= 0, "negative size");
+    Check.argument(chunkBytesShift <= CHUNK_SHIFT && 1 << chunkBytesShift >= elementBytes,
+        "illegal chunk size");
+    ByteBuffer[] chunks = new ByteBuffer[numberOfChunks(size, elementBytes, chunkBytesShift)];
+    long remaining = size * elementBytes;
+    for (int i = 0; i < chunks.length; i++) {
+      int bytes = (int) Math.min(remaining, 1L << chunkBytesShift);
+      chunks[i] = ByteBuffer.allocateDirect(bytes).order(ByteOrder.nativeOrder());
+      remaining -= bytes;
+    }
+    return new DirectStorage(chunks, size, elementBytes, chunkBytesShift);
+  }
+
+  /**
+   * Memory map {@code size} elements starting at {@code position} in the given file channel.
+   *
+   * @param channel the channel
+   * @param mode the map mode
+   * @param position the position (in bytes) of the first element
+   * @param size the number of elements
+   * @param elementBytes the number of bytes per element
+   * @param order the byte order of the elements in the file
+   * @return a new storage
+   * @throws IOException if an IO error occurs
+   */
+  static DirectStorage map(FileChannel channel, FileChannel.MapMode mode, long position, long size,
+      int elementBytes, ByteOrder order) throws IOException {
+    ByteBuffer[] chunks = new ByteBuffer[numberOfChunks(size, elementBytes, CHUNK_SHIFT)];
+    long remaining = size * elementBytes;
+    for (int i = 0; i < chunks.length; i++) {
+      long bytes = Math.min(remaining, 1L << CHUNK_SHIFT);
+      chunks[i] = channel.map(mode, position, bytes).order(order);
+      position += bytes;
+      remaining -= bytes;
+    }
+    return new DirectStorage(chunks, size, elementBytes, CHUNK_SHIFT);
+  }
+
+  /**
+   * Wrap an existing buffer. The memory of the buffer is freed when the buffer is garbage
+   * collected.
+   *
+   * @param buffer the buffer
+   * @param elementBytes the number of bytes per element
+   * @return a new storage
+   */
+  static DirectStorage wrap(ByteBuffer buffer, int elementBytes) {
+    ByteBuffer slice = buffer.slice();
+    int size = slice.capacity() / elementBytes;
+    ByteBuffer[] chunks = new ByteBuffer[numberOfChunks(size, elementBytes, CHUNK_SHIFT)];
+    for (int i = 0; i < chunks.length; i++) {
+      int from = i << CHUNK_SHIFT;
+      int to = (int) Math.min((long) size * elementBytes, (long) from + (1 << CHUNK_SHIFT));
+      slice.limit(to).position(from);
+      chunks[i] = slice.slice().order(buffer.order());
+    }
+    return new DirectStorage(chunks, size, elementBytes, CHUNK_SHIFT);
+  }
+
+  private static int numberOfChunks(long size, int elementBytes, int chunkBytesShift) {
+    long bytes = size * elementBytes;
+    return (int) ((bytes + (1L << chunkBytesShift) - 1) >>> chunkBytesShift);
+  }
+
+  /**
+   * Returns a storage sharing memory with this storage, starting at the (possibly larger than
+   * {@code 2^31}) element {@code start}. The slice shares its life-cycle with this storage, i.e.,
+   * releasing either releases both.
+   *
+   * @param start the first element
+   * @param size the number of elements
+   * @return a new storage
+   */
+  DirectStorage slice(long start, long size) {
+    Check.argument(start >= 0 && size >= 0 && start + size <= this.size, "illegal slice");
+    return new DirectStorage(root, base + start, size);
+  }
+
+  /**
+   * Returns the number of elements in the storage
+   *
+   * @return the number of elements
+   */
+  long size() {
+    return size;
+  }
+
+  double getDouble(long index) {
+    long i = base + index;
+    return chunks()[chunk(i)].getDouble(position(i));
+  }
+
+  void setDouble(long index, double value) {
+    long i = base + index;
+    chunks()[chunk(i)].putDouble(position(i), value);
+  }
+
+  float getFloat(long index) {
+    long i = base + index;
+    return chunks()[chunk(i)].getFloat(position(i));
+  }
+
+  void setFloat(long index, float value) {
+    long i = base + index;
+    chunks()[chunk(i)].putFloat(position(i), value);
+  }
+
+  int getInt(long index) {
+    long i = base + index;
+    return chunks()[chunk(i)].getInt(position(i));
+  }
+
+  void setInt(long index, int value) {
+    long i = base + index;
+    chunks()[chunk(i)].putInt(position(i), value);
+  }
+
+  long getLong(long index) {
+    long i = base + index;
+    return chunks()[chunk(i)].getLong(position(i));
+  }
+
+  void setLong(long index, long value) {
+    long i = base + index;
+    chunks()[chunk(i)].putLong(position(i), value);
+  }
+
+  /**
+   * Copy {@code length} elements from this storage, starting at {@code srcIndex}, into
+   * {@code dest} starting at {@code destIndex}.
+   */
+  void copyTo(long srcIndex, DirectStorage dest, long destIndex, long length) {
+    Check.argument(elementShift == dest.elementShift, "incompatible element size");
+    while (length > 0) {
+      long srcAddress = base + srcIndex;
+      long dstAddress = dest.base + destIndex;
+      ByteBuffer src = chunks()[chunk(srcAddress)].duplicate();
+      ByteBuffer dst = dest.chunks()[dest.chunk(dstAddress)].duplicate();
+      int srcPos = position(srcAddress);
+      int dstPos = dest.position(dstAddress);
+      int bytes = (int) Math.min(length << elementShift,
+          Math.min(src.capacity() - srcPos, dst.capacity() - dstPos));
+      src.limit(srcPos + bytes).position(srcPos);
+      dst.position(dstPos);
+      dst.put(src);
+
+      int elements = bytes >> elementShift;
+      srcIndex += elements;
+      destIndex += elements;
+      length -= elements;
+    }
+  }
+
+  /**
+   * Release the memory held by this storage. Subsequent accesses throw
+   * {@link IllegalStateException}. The memory is not freed here, but only when the garbage
+   * collector finds the buffers unreachable.
+   */
+  void release() {
+    synchronized (root) {
+      root.chunks = null;
+    }
+  }
+
+  boolean isReleased() {
+    synchronized (root) {
+      return root.chunks == null;
+    }
+  }
+
+  private ByteBuffer[] chunks() {
+    ByteBuffer[] chunks = root.chunks;
+    if (chunks == null) {
+      throw new IllegalStateException(RELEASED);
+    }
+    return chunks;
+  }
+
+  private int chunk(long address) {
+    return (int) (address >>> chunkShift);
+  }
+
+  private int position(long address) {
+    return ((int) address & chunkMask) << elementShift;
+  }
+}
@@ -0,0 +1,640 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 Isak Karlsson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.briljantframework.array.direct;
+
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleSupplier;
+import java.util.function.DoubleUnaryOperator;
+
+import org.briljantframework.Check;
+import org.briljantframework.array.ArrayOperation;
+import org.briljantframework.array.DoubleArray;
+import org.briljantframework.array.api.ArrayBackend;
+import org.briljantframework.exceptions.MultiDimensionMismatchException;
+
+/**
+ * A vector or column-major matrix of doubles indexed by {@code long}, i.e., with more than
+ * {@code 2^31 - 1} elements. The elements are stored in chunked direct memory (see
+ * {@link DirectArrayBackend}).
+ *
+ * <p/>
+ * Since the {@link DoubleArray}-family is indexed by {@code int}, large arrays are a separate type
+ * with the most commonly used element-wise operations, reductions and BLAS-style routines. Parts of
+ * the array that fit in an ordinary array (e.g., a {@linkplain #getColumn(int) column} or a
+ * {@linkplain #getRange(long, int) range} of elements) are exposed as {@link DoubleArray}-views
+ * sharing memory with the large array, so that the complete api is available piecewise.
+ *
+ * <p/>
+ * Routines that take or return a {@link DoubleArray} with one element per row (e.g.,
+ * {@link #sum(int) sum(1)} and
+ * {@link #gemv(ArrayOperation, double, DoubleArray, double, DoubleArray) gemv}) require that the
+ * number of rows is at most {@code 2^31 - 1} and throw {@link IllegalStateException} otherwise.
+ * The overloads of {@code gemv} and {@code gemm} taking {@code LargeDoubleArray} operands have no
+ * such limit.
+ *
+ * <pre>
+ * DirectArrayBackend backend = new DirectArrayBackend();
+ * LargeDoubleArray distances = backend.newLargeDoubleArray(50000, 50000);
+ * for (int j = 0; j &lt; distances.columns(); j++) {
+ *   DoubleArray column = distances.getColumn(j); // a view
+ *   ...
+ * }
+ * </pre>
+ *
+ * @author Isak Karlsson
+ */
+public final class LargeDoubleArray {
+
+  /**
+   * The number of elements summed before the partial sum is added to the total, to reduce the
+   * accumulated rounding error for very large arrays.
+   */
+  private static final int SUM_BLOCK = 4096;
+
+  private final ArrayBackend bj;
+  private final DirectStorage storage;
+  private final long rows;
+  private final int columns;
+
+  LargeDoubleArray(ArrayBackend bj, long rows, int columns, DirectStorage storage) {
+    Check.argument(rows >= 0 && columns >= 0, "negative shape");
+    Check.argument(storage.size() == rows * columns, "storage size does not match the shape");
+    this.bj = bj;
+    this.rows = rows;
+    this.columns = columns;
+    this.storage = storage;
+  }
+
+  LargeDoubleArray(ArrayBackend bj, long rows, int columns) {
+    this(bj, rows, columns,
+        DirectStorage.allocate(Math.multiplyExact(rows, columns), Double.BYTES));
+  }
+
+  /**
+   * Returns the number of elements
+   *
+   * @return the number of elements
+   */
+  public long size() {
+    return storage.size();
+  }
+
+  /**
+   * Returns the number of rows, or the number of elements if the array is a vector
+   *
+   * @return the number of rows
+   */
+  public long rows() {
+    return rows;
+  }
+
+  /**
+   * Returns the number of columns, or {@code 1} if the array is a vector
+   *
+   * @return the number of columns
+   */
+  public int columns() {
+    return columns;
+  }
+
+  /**
+   * Get the element at the given linear (column-major) index
+   *
+   * @param index the index
+   * @return the element
+   */
+  public double get(long index) {
+    return storage.getDouble(checkIndex(index));
+  }
+
+  /**
+   * Set the element at the given linear (column-major) index
+   *
+   * @param index the index
+   * @param value the value
+   */
+  public void set(long index, double value) {
+    storage.setDouble(checkIndex(index), value);
+  }
+
+  /**
+   * Get the element at the given row and column
+   *
+   * @param i the row
+   * @param j the column
+   * @return the element
+   */
+  public double get(long i, int j) {
+    return storage.getDouble(index(i, j));
+  }
+
+  /**
+   * Set the element at the given row and column
+   *
+   * @param i the row
+   * @param j the column
+   * @param value the value
+   */
+  public void set(long i, int j, double value) {
+    storage.setDouble(index(i, j), value);
+  }
+
+  /**
+   * Returns a view of the {@code j}:th column. Changes to the view are reflected in this array.
+   *
+   * @param j the column
+   * @return a view of the column
+   * @throws IllegalStateException if the number of rows is larger than {@code 2^31 - 1}
+   */
+  public DoubleArray getColumn(int j) {
+    Check.index(j, columns);
+    Check.state(rows <= Integer.MAX_VALUE, "Too many rows for a DoubleArray (%d)", rows);
+    return getRange(j * rows, (int) rows);
+  }
+
+  /**
+   * Returns a view of {@code length} consecutive elements (in column-major order) starting at
+   * {@code start}. Changes to the view are reflected in this array.
+   *
+   * @param start the first element
+   * @param length the number of elements
+   * @return a view of the range
+   */
+  public DoubleArray getRange(long start, int length) {
+    Check.argument(start >= 0 && length >= 0 && start + length <= size(), "illegal range");
+    return new DirectDoubleArray(bj, new int[] {length}, storage.slice(start, length));
+  }
+
+  /**
+   * Returns a copy of this array
+   *
+   * @return a copy
+   */
+  public LargeDoubleArray copy() {
+    LargeDoubleArray copy = new LargeDoubleArray(bj, rows, columns);
+    storage.copyTo(0, copy.storage, 0, size());
+    return copy;
+  }
+
+  /**
+   * Assign the given value to all elements
+   *
+   * @param value the value
+   * @return this array
+   */
+  public LargeDoubleArray assign(double value) {
+    long size = size();
+    for (long i = 0; i < size; i++) {
+      storage.setDouble(i, value);
+    }
+    return this;
+  }
+
+  /**
+   * Assign the values produced by the supplier to all elements (in column-major order)
+   *
+   * @param supplier the supplier
+   * @return this array
+   */
+  public LargeDoubleArray assign(DoubleSupplier supplier) {
+    long size = size();
+    for (long i = 0; i < size; i++) {
+      storage.setDouble(i, supplier.getAsDouble());
+    }
+    return this;
+  }
+
+  /**
+   * Assign the elements of the given array (of the same shape) to this array
+   *
+   * @param other the other array
+   * @return this array
+   */
+  public LargeDoubleArray assign(LargeDoubleArray other) {
+    checkSameShape(other);
+    other.storage.copyTo(0, storage, 0, size());
+    return this;
+  }
+
+  /**
+   * Apply the given operator to each element, in place
+   *
+   * @param operator the operator
+   * @return this array
+   */
+  public LargeDoubleArray apply(DoubleUnaryOperator operator) {
+    long size = size();
+    for (long i = 0; i < size; i++) {
+      storage.setDouble(i, operator.applyAsDouble(storage.getDouble(i)));
+    }
+    return this;
+  }
+
+  /**
+   * Returns a new array with the given operator applied to each element
+   *
+   * @param operator the operator
+   * @return a new array
+   */
+  public LargeDoubleArray map(DoubleUnaryOperator operator) {
+    LargeDoubleArray result = new LargeDoubleArray(bj, rows, columns);
+    long size = size();
+    for (long i = 0; i < size; i++) {
+      result.storage.setDouble(i, operator.applyAsDouble(storage.getDouble(i)));
+    }
+    return result;
+  }
+
+  /**
+   * Combine each element of this array with the corresponding element of {@code other} (of the
+   * same shape), in place
+   *
+   * @param other the other array
+   * @param combine the combining operator
+   * @return this array
+   */
+  public LargeDoubleArray combineAssign(LargeDoubleArray other, DoubleBinaryOperator combine) {
+    checkSameShape(other);
+    long size = size();
+    for (long i = 0; i < size; i++) {
+      storage.setDouble(i,
+          combine.applyAsDouble(storage.getDouble(i), other.storage.getDouble(i)));
+    }
+    return this;
+  }
+
+  /**
+   * Element-wise addition, in place
+   *
+   * @param other the other array
+   * @return this array
+   */
+  public LargeDoubleArray plusAssign(LargeDoubleArray other) {
+    return axpy(1, other);
+  }
+
+  /**
+   * Element-wise multiplication, in place
+   *
+   * @param other the other array
+   * @return this array
+   */
+  public LargeDoubleArray timesAssign(LargeDoubleArray other) {
+    return combineAssign(other, (a, b) -> a * b);
+  }
+
+  /**
+   * Multiply each element by the given scalar, in place
+   *
+   * @param alpha the scalar
+   * @return this array
+   */
+  public LargeDoubleArray timesAssign(double alpha) {
+    long size = size();
+    for (long i = 0; i < size; i++) {
+      storage.setDouble(i, alpha * storage.getDouble(i));
+    }
+    return this;
+  }
+
+  /**
+   * Compute {@code this = alpha * x + this}, in place
+   *
+   * @param alpha the scalar
+   * @param x the array to add
+   * @return this array
+   */
+  public LargeDoubleArray axpy(double alpha, LargeDoubleArray x) {
+    checkSameShape(x);
+    long size = size();
+    for (long i = 0; i < size; i++) {
+      storage.setDouble(i, alpha * x.storage.getDouble(i) + storage.getDouble(i));
+    }
+    return this;
+  }
+
+  /**
+   * Reduce the elements (in column-major order) using the given operator
+   *
+   * @param identity the initial value
+   * @param reduce the operator
+   * @return the reduced value
+   */
+  public double reduce(double identity, DoubleBinaryOperator reduce) {
+    long size = size();
+    double value = identity;
+    for (long i = 0; i < size; i++) {
+      value = reduce.applyAsDouble(value, storage.getDouble(i));
+    }
+    return value;
+  }
+
+  /**
+   * Returns the sum of all elements
+   *
+   * @return the sum
+   */
+  public double sum() {
+    return sum(0, size());
+  }
+
+  /**
+   * Returns the mean of all elements
+   *
+   * @return the mean
+   */
+  public double mean() {
+    return sum() / size();
+  }
+
+  /**
+   * Returns the smallest element
+   *
+   * @return the smallest element
+   */
+  public double min() {
+    return reduce(Double.POSITIVE_INFINITY, Math::min);
+  }
+
+  /**
+   * Returns the largest element
+   *
+   * @return the largest element
+   */
+  public double max() {
+    return reduce(Double.NEGATIVE_INFINITY, Math::max);
+  }
+
+  /**
+   * Returns the inner product of this array and the given array (of the same size)
+   *
+   * @param other the other array
+   * @return the inner product
+   */
+  public double inner(LargeDoubleArray other) {
+    Check.argument(size() == other.size(), "size mismatch %d != %d", size(), other.size());
+    long size = size();
+    double total = 0;
+    for (long start = 0; start < size; start += SUM_BLOCK) {
+      long end = Math.min(size, start + SUM_BLOCK);
+      double partial = 0;
+      for (long i = start; i < end; i++) {
+        partial += storage.getDouble(i) * other.storage.getDouble(i);
+      }
+      total += partial;
+    }
+    return total;
+  }
+
+  /**
+   * Sum the matrix along the given dimension; {@code 0} sums the rows of each column (returning a
+   * vector with one element per column) and {@code 1} sums the columns of each row (returning a
+   * vector with one element per row).
+   *
+   * @param dim the dimension
+   * @return a new array
+   * @throws IllegalStateException if {@code dim == 1} and the number of rows is larger than
+   *         {@code 2^31 - 1} (use {@code gemv} with a {@code LargeDoubleArray} of ones instead)
+   */
+  public DoubleArray sum(int dim) {
+    Check.argument(dim == 0 || dim == 1, "illegal dimension %d", dim);
+    if (dim == 0) {
+      DoubleArray sums = bj.getArrayFactory().newDoubleArray(columns);
+      for (int j = 0; j < columns; j++) {
+        sums.set(j, sum(j * rows, rows));
+      }
+      return sums;
+    } else {
+      Check.state(rows <= Integer.MAX_VALUE, "Too many rows for a DoubleArray (%d)", rows);
+      // traverse the matrix in memory order and accumulate each column in the result
+      int n = (int) rows;
+      double[] sums = new double[n];
+      for (int j = 0; j < columns; j++) {
+        long offset = j * rows;
+        for (int i = 0; i < n; i++) {
+          sums[i] += storage.getDouble(offset + i);
+        }
+      }
+      return bj.getArrayFactory().newDoubleVector(sums);
+    }
+  }
+
+  /**
+   * Matrix-vector multiplication, i.e., {@code y = alpha * op(this) * x + beta * y} where
+   * {@code op(this)} is this matrix or its transpose.
+   *
+   * @param transA transpose this matrix
+   * @param alpha the scalar for {@code op(this) * x}
+   * @param x the vector to multiply
+   * @param beta the scalar for {@code y}
+   * @param y the result vector
+   * @throws IllegalStateException if the number of rows is larger than {@code 2^31 - 1}, since
+   *         {@code x} or {@code y} would then have more elements than a {@code DoubleArray} (use
+   *         {@link #gemv(ArrayOperation, double, LargeDoubleArray, double, LargeDoubleArray)})
+   */
+  public void gemv(ArrayOperation transA, double alpha, DoubleArray x, double beta, DoubleArray y) {
+    Check.argument(x.isVector() && y.isVector(), "x and y must be vectors");
+    Check.state(rows <= Integer.MAX_VALUE, "Too many rows for a DoubleArray (%d)", rows);
+    boolean transpose = transA.isTranspose();
+    int m = transpose ? columns : (int) rows;
+    int n = transpose ? (int) rows : columns;
+    if (n != x.size()) {
+      throw new MultiDimensionMismatchException(m, n, x.size(), 1);
+    }
+    Check.argument(m == y.size(), "y must have %d elements", m);
+
+    if (transpose) {
+      // y[j] = alpha * <A[:, j], x> + beta * y[j]
+      for (int j = 0; j < columns; j++) {
+        long offset = j * rows;
+        double dot = 0;
+        for (int i = 0; i < rows; i++) {
+          dot += storage.getDouble(offset + i) * x.get(i);
+        }
+        y.set(j, alpha * dot + (beta == 0 ? 0 : beta * y.get(j)));
+      }
+    } else {
+      // y = beta * y + sum_j alpha * x[j] * A[:, j]; traverses the matrix in memory order
+      int size = y.size();
+      for (int i = 0; i < size; i++) {
+        y.set(i, beta == 0 ? 0 : beta * y.get(i));
+      }
+      for (int j = 0; j < columns; j++) {
+        double ax = alpha * x.get(j);
+        if (ax != 0) {
+          long offset = j * rows;
+          for (int i = 0; i < size; i++) {
+            y.set(i, y.get(i) + ax * storage.getDouble(offset + i));
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Matrix-vector multiplication, i.e., {@code y = alpha * op(this) * x + beta * y} where
+   * {@code op(this)} is this matrix or its transpose and {@code x} and {@code y} are large vectors
+   * (i.e., with a single column).
+   *
+   * @param transA transpose this matrix
+   * @param alpha the scalar for {@code op(this) * x}
+   * @param x the vector to multiply
+   * @param beta the scalar for {@code y}
+   * @param y the result vector
+   */
+  public void gemv(ArrayOperation transA, double alpha, LargeDoubleArray x, double beta,
+      LargeDoubleArray y) {
+    Check.argument(x.columns == 1 && y.columns == 1, "x and y must be vectors");
+    boolean transpose = transA.isTranspose();
+    long m = transpose ? columns : rows;
+    long n = transpose ? rows : columns;
+    if (n != x.rows) {
+      throw new IllegalArgumentException(
+          String.format("nonconformant arguments (op1 is %dx%d, op2 is %dx1)", m, n, x.rows));
+    }
+    Check.argument(m == y.rows, "y must have %d elements", m);
+    gemm(transA, ArrayOperation.KEEP, alpha, x, beta, y);
+  }
+
+  /**
+   * Matrix-matrix multiplication, i.e., {@code c = alpha * op(this) * op(b) + beta * c} where
+   * {@code op(x)} is the matrix or its transpose. All dimensions are indexed by {@code long}.
+   *
+   * @param transA transpose this matrix
+   * @param transB transpose {@code b}
+   * @param alpha the scalar for {@code op(this) * op(b)}
+   * @param b the matrix to multiply
+   * @param beta the scalar for {@code c}
+   * @param c the result matrix
+   */
+  public void gemm(ArrayOperation transA, ArrayOperation transB, double alpha, LargeDoubleArray b,
+      double beta, LargeDoubleArray c) {
+    boolean ta = transA.isTranspose(), tb = transB.isTranspose();
+    long m = ta ? columns : rows;
+    long k = ta ? rows : columns;
+    long bm = tb ? b.columns : b.rows;
+    long bn = tb ? b.rows : b.columns;
+    if (k != bm) {
+      throw new IllegalArgumentException(String.format(
+          "nonconformant arguments (op1 is %dx%d, op2 is %dx%d)", m, k, bm, bn));
+    }
+    Check.argument(c.rows == m && c.columns == bn, "c must be a %dx%d matrix", m, bn);
+
+    int n = c.columns;
+    for (int j = 0; j < n; j++) {
+      long cOffset = j * c.rows;
+      if (ta) {
+        // c[i, j] = alpha * <A[:, i], op(b)[:, j]> + beta * c[i, j]
+        for (long i = 0; i < m; i++) {
+          long aOffset = i * rows;
+          double dot = 0;
+          for (long p = 0; p < k; p++) {
+            dot += storage.getDouble(aOffset + p) * b.storage.getDouble(b.index(p, j, tb));
+          }
+          double v = beta == 0 ? 0 : beta * c.storage.getDouble(cOffset + i);
+          c.storage.setDouble(cOffset + i, alpha * dot + v);
+        }
+      } else {
+        // c[:, j] = beta * c[:, j] + sum_p alpha * op(b)[p, j] * A[:, p]; in memory order
+        for (long i = 0; i < m; i++) {
+          double v = beta == 0 ? 0 : beta * c.storage.getDouble(cOffset + i);
+          c.storage.setDouble(cOffset + i, v);
+        }
+        for (long p = 0; p < k; p++) {
+          double ab = alpha * b.storage.getDouble(b.index(p, j, tb));
+          if (ab != 0) {
+            long aOffset = p * rows;
+            for (long i = 0; i < m; i++) {
+              c.storage.setDouble(cOffset + i,
+                  c.storage.getDouble(cOffset + i) + ab * storage.getDouble(aOffset + i));
+            }
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Release the direct memory of this array and all views of it.
+   *
+   * @see DirectArrayBackend#release(org.briljantframework.array.BaseArray)
+   */
+  public void release() {
+    storage.release();
+  }
+
+  /**
+   * Returns true if the memory of this array has been released
+   *
+   * @return true if released
+   */
+  public boolean isReleased() {
+    return storage.isReleased();
+  }
+
+  @Override
+  public String toString() {
+    return String.format("LargeDoubleArray(%d, %d)", rows, columns);
+  }
+
+  private double sum(long start, long length) {
+    double total = 0;
+    long end = start + length;
+    for (long s = start; s < end; s += SUM_BLOCK) {
+      long e = Math.min(end, s + SUM_BLOCK);
+      double partial = 0;
+      for (long i = s; i < e; i++) {
+        partial += storage.getDouble(i);
+      }
+      total += partial;
+    }
+    return total;
+  }
+
+  private long checkIndex(long index) {
+    if (index < 0 || index >= size()) {
+      throw new IndexOutOfBoundsException(String.format("index %d out of bounds", index));
+    }
+    return index;
+  }
+
+  private long index(long i, int j) {
+    if (i < 0 || i >= rows || j < 0 || j >= columns) {
+      throw new IndexOutOfBoundsException(String.format("index (%d, %d) out of bounds", i, j));
+    }
+    return j * rows + i;
+  }
+
+  /**
+   * Returns the linear index of element {@code (i, j)} of this matrix or (if {@code transpose}) its
+   * transpose, without checking the bounds
+   */
+  private long index(long i, long j, boolean transpose) {
+    return transpose ? i * rows + j : j * rows + i;
+  }
+
+  private void checkSameShape(LargeDoubleArray other) {
+    if (rows != other.rows || columns != other.columns) {
+      throw new IllegalArgumentException(String.format("shape mismatch (%d, %d) != (%d, %d)", rows,
+          columns, other.rows, other.columns));
+    }
+  }
+}
@@ -0,0 +1,150 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 Isak Karlsson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.briljantframework.array.linalg.decomposition;
+
+import java.util.Objects;
+
+import org.briljantframework.Check;
+import org.briljantframework.array.DoubleArray;
+import org.briljantframework.array.api.LinearAlgebraRoutines;
+
+/**
+ * Represents the Cholesky decomposition {@code A = L * L'} of a symmetric positive definite
+ * matrix. Once computed, the factorization can be used to solve any number of systems
+ * {@code A * X = B} (using {@link LinearAlgebraRoutines#potrs(char, DoubleArray, DoubleArray)})
+ * without factoring {@code A} again or computing its inverse.
+ *
+ * @author Isak Karlsson
+ */
+public class CholeskyDecomposition {
+
+  private final DoubleArray factor;
+  private final LinearAlgebraRoutines linalg;
+  private DoubleArray lower;
+
+  /**
+   * Construct a new decomposition
+   *
+   * @param factor a square matrix with the factor {@code L} in the lower triangle (as computed by
+   *        {@code potrf('l', a)}); the strictly upper triangle is not referenced
+   * @param linalg the routines used to solve systems using the factor
+   */
+  public CholeskyDecomposition(DoubleArray factor, LinearAlgebraRoutines linalg) {
+    Check.argument(factor.isMatrix() && factor.isSquare(), "require square 2d-array");
+    this.factor = factor;
+    this.linalg = Objects.requireNonNull(linalg);
+  }
+
+  /**
+   * Returns the factorization, with {@code L} in the lower triangle. The strictly upper triangle
+   * is left as it was in the decomposed matrix.
+   *
+   * @return the factorization
+   */
+  public DoubleArray getDecomposition() {
+    return factor;
+  }
+
+  /**
+   * Returns the lower triangular factor {@code L}
+   *
+   * @return the lower triangular factor
+   */
+  public DoubleArray getLower() {
+    if (lower == null) {
+      DoubleArray l = factor.copy();
+      for (int j = 1; j < l.columns(); j++) {
+        for (int i = 0; i < j; i++) {
+          l.set(i, j, 0);
+        }
+      }
+      lower = l;
+    }
+    return lower;
+  }
+
+  /**
+   * Returns the determinant of the decomposed matrix, i.e., the squared product of the diagonal of
+   * {@code L}
+   *
+   * @return the determinant
+   */
+  public double getDeterminant() {
+    double det = 1;
+    for (int i = 0; i < factor.rows(); i++) {
+      double v = factor.get(i, i);
+      det *= v * v;
+    }
+    return det;
+  }
+
+  /**
+   * Returns the natural logarithm of the determinant of the decomposed matrix. Unlike
+   * {@link #getDeterminant()}, this does not overflow (or underflow) for large matrices.
+   *
+   * @return the log determinant
+   */
+  public double getLogDeterminant() {
+    double logDet = 0;
+    for (int i = 0; i < factor.rows(); i++) {
+      logDet += Math.log(factor.get(i, i));
+    }
+    return 2 * logDet;
+  }
+
+  /**
+   * Returns the solution {@code X} of {@code A * X = B}
+   *
+   * @param b the right hand side vector or matrix (one column per system)
+   * @return the solution (of the same shape as {@code b})
+   */
+  public DoubleArray solve(DoubleArray b) {
+    DoubleArray x = b.copy();
+    solveAssign(x);
+    return x;
+  }
+
+  /**
+   * Solves {@code A * X = B}, overwriting {@code b} with the solution
+   *
+   * @param b the right hand side vector or matrix (one column per system)
+   */
+  public void solveAssign(DoubleArray b) {
+    linalg.potrs('l', factor, b);
+  }
+
+  /**
+   * Returns the (symmetric) inverse of the decomposed matrix
+   *
+   * @return the inverse
+   */
+  public DoubleArray getInverse() {
+    DoubleArray inv = factor.copy();
+    linalg.potri('l', inv);
+    // potri only computes the lower triangle
+    for (int j = 1; j < inv.columns(); j++) {
+      for (int i = 0; i < j; i++) {
+        inv.set(i, j, inv.get(j, i));
+      }
+    }
+    return inv;
+  }
+}
@@ -60,7 +60,8 @@ public class LuDecomposition {
       double det = 1;
       IntArray pivots = getPivot();
       for (int i = 0; i < lu.rows(); i++) {
-        if (pivots.get(i) != i) {
+        // the pivot indices are one-based (as returned by getrf)
+        if (pivots.get(i) == i + 1) {
           det = det * lu.get(i, i);
         } else {
           det = -det * lu.get(i, i);
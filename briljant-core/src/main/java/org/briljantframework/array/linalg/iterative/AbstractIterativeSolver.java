@@ -0,0 +1,114 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 Isak Karlsson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.briljantframework.array.linalg.iterative;
+
+import org.briljantframework.Check;
+import org.briljantframework.array.Arrays;
+import org.briljantframework.array.DoubleArray;
+import org.briljantframework.array.api.Workspace;
+
+/**
+ * Base class for iterative solvers, stopping when the relative residual
+ * {@code ||b - A * x|| / ||b||} is below the tolerance or the maximum number of iterations is
+ * reached. The vectors used by the solvers are requested from a {@link Workspace} and recycled
+ * before returning, so that repeated solves of systems of the same size allocate no new arrays.
+ *
+ * @author Isak Karlsson
+ */
+public abstract class AbstractIterativeSolver implements IterativeSolver {
+
+  private final Preconditioner preconditioner;
+  private final int maxIterations;
+  private final double tolerance;
+
+  protected AbstractIterativeSolver(Preconditioner preconditioner, int maxIterations,
+      double tolerance) {
+    Check.argument(preconditioner != null, "preconditioner is required");
+    Check.argument(maxIterations > 0, "Invalid maxIterations: " + maxIterations);
+    Check.argument(tolerance >= 0, "Invalid tolerance: " + tolerance);
+    this.preconditioner = preconditioner;
+    this.maxIterations = maxIterations;
+    this.tolerance = tolerance;
+  }
+
+  @Override
+  public SolverResult solve(LinearOperator a, DoubleArray b, DoubleArray x) {
+    return solve(a, b, x, Arrays.workspace());
+  }
+
+  @Override
+  public SolverResult solve(LinearOperator a, DoubleArray b, DoubleArray x, Workspace workspace) {
+    Check.argument(a.rows() == a.columns(), "require square operator");
+    Check.argument(b.isVector() && b.size() == a.rows(), "b has %d elements; expected %d",
+        b.size(), a.rows());
+    Check.argument(x.isVector() && x.size() == a.columns(), "x has %d elements; expected %d",
+        x.size(), a.columns());
+    double normB = norm(b);
+    if (normB == 0) {
+      x.assign(0.0);
+      return new SolverResult(0, 0, true);
+    }
+    try (Workspace ws = workspace.open()) {
+      return solve(a, b, x, normB, ws);
+    }
+  }
+
+  /**
+   * Solve {@code A * x = b}, using the given {@code x} as the initial guess.
+   *
+   * @param a the (square) linear operator
+   * @param b the right-hand side
+   * @param x the initial guess (overwritten with the solution)
+   * @param normB the norm of {@code b} (non-zero)
+   * @param ws the workspace from which vectors are requested
+   * @return the outcome of the solver
+   */
+  protected abstract SolverResult solve(LinearOperator a, DoubleArray b, DoubleArray x,
+      double normB, Workspace ws);
+
+  public Preconditioner getPreconditioner() {
+    return preconditioner;
+  }
+
+  public int getMaxIterations() {
+    return maxIterations;
+  }
+
+  public double getTolerance() {
+    return tolerance;
+  }
+
+  /**
+   * Computes {@code r = b - A * x}
+   */
+  protected static void residual(LinearOperator a, DoubleArray b, DoubleArray x, DoubleArray r) {
+    a.apply(x, r);
+    Arrays.scal(-1, r);
+    Arrays.axpy(1, b, r);
+  }
+
+  /**
+   * Returns the euclidean norm of the vector
+   */
+  protected static double norm(DoubleArray x) {
+    return Math.sqrt(Arrays.inner(x, x));
+  }
+}
@@ -0,0 +1,111 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 Isak Karlsson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.briljantframework.array.linalg.iterative;
+
+import org.briljantframework.array.Arrays;
+import org.briljantframework.array.DoubleArray;
+import org.briljantframework.array.api.Workspace;
+
+/**
+ * The (right) preconditioned biconjugate gradient stabilized method (BiCGSTAB) for general
+ * (non-symmetric) systems. Each iteration requires two matrix-vector products and two
+ * applications of the preconditioner.
+ *
+ * @author Isak Karlsson
+ */
+public class BiConjugateGradientStabilized extends AbstractIterativeSolver {
+
+  public BiConjugateGradientStabilized(int maxIterations, double tolerance) {
+    this(Preconditioner.identity(), maxIterations, tolerance);
+  }
+
+  public BiConjugateGradientStabilized(Preconditioner preconditioner, int maxIterations,
+      double tolerance) {
+    super(preconditioner, maxIterations, tolerance);
+  }
+
+  @Override
+  protected SolverResult solve(LinearOperator a, DoubleArray b, DoubleArray x, double normB,
+      Workspace ws) {
+    int n = b.size();
+    Preconditioner preconditioner = getPreconditioner();
+    DoubleArray r = ws.doubleArray(n);
+    DoubleArray shadow = ws.doubleArray(n);
+    DoubleArray p = ws.doubleArray(n);
+    DoubleArray v = ws.doubleArray(n);
+    DoubleArray pHat = ws.doubleArray(n);
+    DoubleArray s = ws.doubleArray(n);
+    DoubleArray sHat = ws.doubleArray(n);
+    DoubleArray t = ws.doubleArray(n);
+
+    residual(a, b, x, r);
+    double residual = norm(r) / normB;
+    if (residual <= getTolerance()) {
+      return new SolverResult(0, residual, true);
+    }
+    shadow.assign(r);
+    double rho = 1, alpha = 1, omega = 1;
+    for (int i = 1; i <= getMaxIterations(); i++) {
+      double rhoNext = Arrays.inner(shadow, r);
+      if (rhoNext == 0) {
+        return new SolverResult(i - 1, residual, false);
+      }
+      if (i == 1) {
+        p.assign(r);
+      } else {
+        // p = r + beta * (p - omega * v)
+        double beta = (rhoNext / rho) * (alpha / omega);
+        Arrays.axpy(-omega, v, p);
+        Arrays.scal(beta, p);
+        Arrays.axpy(1, r, p);
+      }
+      rho = rhoNext;
+
+      preconditioner.apply(p, pHat);
+      a.apply(pHat, v);
+      alpha = rho / Arrays.inner(shadow, v);
+      s.assign(r);
+      Arrays.axpy(-alpha, v, s);
+      residual = norm(s) / normB;
+      if (residual <= getTolerance()) {
+        Arrays.axpy(alpha, pHat, x);
+        return new SolverResult(i, residual, true);
+      }
+
+      preconditioner.apply(s, sHat);
+      a.apply(sHat, t);
+      double tt = Arrays.inner(t, t);
+      omega = tt == 0 ? 0 : Arrays.inner(t, s) / tt;
+      Arrays.axpy(alpha, pHat, x);
+      Arrays.axpy(omega, sHat, x);
+      r.assign(s);
+      Arrays.axpy(-omega, t, r);
+      residual = norm(r) / normB;
+      if (residual <= getTolerance()) {
+        return new SolverResult(i, residual, true);
+      }
+      if (omega == 0) {
+        return new SolverResult(i, residual, false);
+      }
+    }
+    return new SolverResult(getMaxIterations(), residual, false);
+  }
+}
@@ -0,0 +1,87 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 Isak Karlsson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.briljantframework.array.linalg.iterative;
+
+import org.briljantframework.array.Arrays;
+import org.briljantframework.array.DoubleArray;
+import org.briljantframework.array.api.Workspace;
+
+/**
+ * The preconditioned conjugate gradient method for symmetric positive definite systems. Each
+ * iteration requires one matrix-vector product and one application of the preconditioner (which
+ * must also be symmetric positive definite).
+ *
+ * @author Isak Karlsson
+ */
+public class ConjugateGradient extends AbstractIterativeSolver {
+
+  public ConjugateGradient(int maxIterations, double tolerance) {
+    this(Preconditioner.identity(), maxIterations, tolerance);
+  }
+
+  public ConjugateGradient(Preconditioner preconditioner, int maxIterations, double tolerance) {
+    super(preconditioner, maxIterations, tolerance);
+  }
+
+  @Override
+  protected SolverResult solve(LinearOperator a, DoubleArray b, DoubleArray x, double normB,
+      Workspace ws) {
+    int n = b.size();
+    Preconditioner preconditioner = getPreconditioner();
+    DoubleArray r = ws.doubleArray(n);
+    DoubleArray z = ws.doubleArray(n);
+    DoubleArray p = ws.doubleArray(n);
+    DoubleArray q = ws.doubleArray(n);
+
+    residual(a, b, x, r);
+    double residual = norm(r) / normB;
+    if (residual <= getTolerance()) {
+      return new SolverResult(0, residual, true);
+    }
+    preconditioner.apply(r, z);
+    p.assign(z);
+    double rz = Arrays.inner(r, z);
+    for (int i = 1; i <= getMaxIterations(); i++) {
+      a.apply(p, q);
+      double pq = Arrays.inner(p, q);
+      if (pq == 0) {
+        return new SolverResult(i - 1, residual, false);
+      }
+      double alpha = rz / pq;
+      Arrays.axpy(alpha, p, x);
+      Arrays.axpy(-alpha, q, r);
+      residual = norm(r) / normB;
+      if (residual <= getTolerance()) {
+        return new SolverResult(i, residual, true);
+      }
+
+      preconditioner.apply(r, z);
+      double rzNext = Arrays.inner(r, z);
+      double beta = rzNext / rz;
+      rz = rzNext;
+
+      // p = z + beta * p
+      Arrays.scal(beta, p);
+      Arrays.axpy(1, z, p);
+    }
+    return new SolverResult(getMaxIterations(), residual, false);
+  }
+}
@@ -0,0 +1,142 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 Isak Karlsson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.briljantframework.array.linalg.iterative;
+
+import org.briljantframework.Check;
+import org.briljantframework.array.Arrays;
+import org.briljantframework.array.DoubleArray;
+import org.briljantframework.array.api.Workspace;
+
+/**
+ * The (right) preconditioned generalized minimal residual method, restarted after a fixed number
+ * of iterations (GMRES(m)), for general (non-symmetric) systems. Each iteration requires one
+ * matrix-vector product and one application of the preconditioner, and the memory required is
+ * {@code m + 1} vectors.
+ *
+ * @author Isak Karlsson
+ */
+public class Gmres extends AbstractIterativeSolver {
+
+  private final int restart;
+
+  public Gmres(int restart, int maxIterations, double tolerance) {
+    this(Preconditioner.identity(), restart, maxIterations, tolerance);
+  }
+
+  public Gmres(Preconditioner preconditioner, int restart, int maxIterations, double tolerance) {
+    super(preconditioner, maxIterations, tolerance);
+    Check.argument(restart > 0, "Invalid restart: " + restart);
+    this.restart = restart;
+  }
+
+  public int getRestart() {
+    return restart;
+  }
+
+  @Override
+  protected SolverResult solve(LinearOperator a, DoubleArray b, DoubleArray x, double normB,
+      Workspace ws) {
+    int n = b.size();
+    int m = Math.min(restart, n);
+    Preconditioner preconditioner = getPreconditioner();
+    DoubleArray r = ws.doubleArray(n);
+    DoubleArray w = ws.doubleArray(n);
+    DoubleArray z = ws.doubleArray(n);
+    DoubleArray basis = ws.doubleArray(n, m + 1);
+
+    // The Hessenberg matrix, reduced to upper triangular form by Givens rotations
+    double[][] h = new double[m + 1][m];
+    double[] cos = new double[m];
+    double[] sin = new double[m];
+    double[] g = new double[m + 1];
+    double[] y = new double[m];
+
+    int iterations = 0;
+    while (true) {
+      residual(a, b, x, r);
+      double beta = norm(r);
+      double residual = beta / normB;
+      if (residual <= getTolerance()) {
+        return new SolverResult(iterations, residual, true);
+      } else if (iterations >= getMaxIterations()) {
+        return new SolverResult(iterations, residual, false);
+      }
+
+      DoubleArray v = basis.select(1, 0);
+      v.assign(r);
+      Arrays.scal(1 / beta, v);
+      java.util.Arrays.fill(g, 0);
+      g[0] = beta;
+
+      int k = 0;
+      while (k < m && iterations < getMaxIterations()) {
+        preconditioner.apply(basis.select(1, k), z);
+        a.apply(z, w);
+
+        // Modified Gram-Schmidt
+        for (int i = 0; i <= k; i++) {
+          DoubleArray vi = basis.select(1, i);
+          h[i][k] = Arrays.inner(w, vi);
+          Arrays.axpy(-h[i][k], vi, w);
+        }
+        double hNext = norm(w);
+        h[k + 1][k] = hNext;
+
+        for (int i = 0; i < k; i++) {
+          double tmp = cos[i] * h[i][k] + sin[i] * h[i + 1][k];
+          h[i + 1][k] = -sin[i] * h[i][k] + cos[i] * h[i + 1][k];
+          h[i][k] = tmp;
+        }
+        double rho = Math.hypot(h[k][k], h[k + 1][k]);
+        cos[k] = rho == 0 ? 1 : h[k][k] / rho;
+        sin[k] = rho == 0 ? 0 : h[k + 1][k] / rho;
+        h[k][k] = rho;
+        h[k + 1][k] = 0;
+        g[k + 1] = -sin[k] * g[k];
+        g[k] = cos[k] * g[k];
+
+        k++;
+        iterations++;
+        if (hNext == 0 || Math.abs(g[k]) / normB <= getTolerance()) {
+          break;
+        }
+        v = basis.select(1, k);
+        v.assign(w);
+        Arrays.scal(1 / hNext, v);
+      }
+
+      // Solve the triangular system H * y = g and update x = x + M^-1 * V * y
+      for (int i = k - 1; i >= 0; i--) {
+        double s = g[i];
+        for (int j = i + 1; j < k; j++) {
+          s -= h[i][j] * y[j];
+        }
+        y[i] = h[i][i] == 0 ? 0 : s / h[i][i];
+      }
+      w.assign(0.0);
+      for (int i = 0; i < k; i++) {
+        Arrays.axpy(y[i], basis.select(1, i), w);
+      }
+      preconditioner.apply(w, z);
+      Arrays.axpy(1, z, x);
+    }
+  }
+}
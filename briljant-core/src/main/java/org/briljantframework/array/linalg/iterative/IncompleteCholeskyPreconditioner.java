@@ -0,0 +1,199 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 Isak Karlsson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.briljantframework.array.linalg.iterative;
+
+import java.util.function.Consumer;
+
+import org.briljantframework.Check;
+import org.briljantframework.array.DoubleArray;
+import org.briljantframework.array.sparse.SparseDoubleArray;
+import org.briljantframework.array.sparse.SparseMatrices;
+import org.briljantframework.array.sparse.SparseMatrix;
+
+/**
+ * The zero fill-in incomplete Cholesky preconditioner, {@code IC(0)}. The preconditioner is a
+ * lower triangular matrix {@code L}, with the same sparsity pattern as the lower triangle of the
+ * symmetric positive definite matrix {@code A}, such that {@code M = L * L'} approximates
+ * {@code A}.
+ *
+ * <p/>
+ * For {@linkplain SparseDoubleArray sparse matrices} and {@link SparseMatrix}, the factorization
+ * visits only the non-zero elements. Dense matrices are supported, but since the pattern is the
+ * full lower triangle, the factorization is then a complete (and {@code O(n^3)}) Cholesky
+ * factorization.
+ *
+ * @author Isak Karlsson
+ */
+public final class IncompleteCholeskyPreconditioner implements Preconditioner {
+
+  /**
+   * The start of the strictly lower part of row {@code i} in {@link #columns} and {@link #values}
+   */
+  private final int[] pointers;
+  private final int[] columns;
+  private final double[] values;
+  private final double[] diagonal;
+
+  /**
+   * Create an incomplete Cholesky preconditioner for the given symmetric positive definite matrix.
+   * Only the lower triangle of the matrix is used.
+   *
+   * @param a the (dense or sparse) matrix
+   * @throws IllegalArgumentException if the factorization breaks down, i.e., if a pivot is not
+   *         positive
+   */
+  public IncompleteCholeskyPreconditioner(DoubleArray a) {
+    this(checkSquare(a).rows(), lowerElements(a));
+  }
+
+  /**
+   * Create an incomplete Cholesky preconditioner for the given symmetric positive definite sparse
+   * matrix. Only the lower triangle of the matrix is used.
+   *
+   * @param a the sparse matrix
+   * @throws IllegalArgumentException if the factorization breaks down, i.e., if a pivot is not
+   *         positive
+   */
+  public IncompleteCholeskyPreconditioner(SparseMatrix a) {
+    this(checkSquare(a).rows(), a::forEachNonZero);
+  }
+
+  /**
+   * Factorize the matrix whose (at least) lower elements are visited by {@code elements}. The
+   * columns of each row must be visited in increasing order, which holds both for the non-zeros
+   * of a sparse matrix (in either layout) and for a dense matrix visited in column-major order.
+   */
+  private IncompleteCholeskyPreconditioner(int n,
+      Consumer<SparseDoubleArray.NonZeroConsumer> elements) {
+    this.pointers = new int[n + 1];
+    this.diagonal = new double[n];
+
+    // Count the strictly lower elements of each row
+    elements.accept((i, j, v) -> {
+      if (j < i) {
+        pointers[i + 1]++;
+      }
+    });
+    for (int i = 0; i < n; i++) {
+      pointers[i + 1] += pointers[i];
+    }
+
+    this.columns = new int[pointers[n]];
+    this.values = new double[pointers[n]];
+    int[] next = java.util.Arrays.copyOf(pointers, n);
+    elements.accept((i, j, v) -> insert(next, i, j, v));
+    factorize();
+  }
+
+  private static DoubleArray checkSquare(DoubleArray a) {
+    Check.argument(a.isSquare(), "require square matrix");
+    return a;
+  }
+
+  private static SparseMatrix checkSquare(SparseMatrix a) {
+    Check.argument(a.rows() == a.columns(), "require square matrix");
+    return a;
+  }
+
+  /**
+   * Returns the elements of the lower triangle (all of them for dense matrices)
+   */
+  private static Consumer<SparseDoubleArray.NonZeroConsumer> lowerElements(DoubleArray a) {
+    if (SparseMatrices.isSparse(a)) {
+      return ((SparseDoubleArray) a)::forEachNonZero;
+    }
+    return action -> {
+      int n = a.rows();
+      for (int j = 0; j < n; j++) {
+        for (int i = j; i < n; i++) {
+          action.accept(i, j, a.get(i, j));
+        }
+      }
+    };
+  }
+
+  private void insert(int[] next, int i, int j, double v) {
+    if (j < i) {
+      int p = next[i]++;
+      columns[p] = j;
+      values[p] = v;
+    } else if (i == j) {
+      diagonal[i] = v;
+    }
+  }
+
+  private void factorize() {
+    for (int i = 0; i < diagonal.length; i++) {
+      int rowStart = pointers[i];
+      int rowEnd = pointers[i + 1];
+      double d = diagonal[i];
+      for (int p = rowStart; p < rowEnd; p++) {
+        int k = columns[p];
+
+        // L(i, k) = (A(i, k) - sum_{j < k} L(i, j) * L(k, j)) / L(k, k), restricted to the pattern
+        double s = values[p];
+        int q = rowStart, r = pointers[k], kEnd = pointers[k + 1];
+        while (q < p && r < kEnd) {
+          int cq = columns[q], cr = columns[r];
+          if (cq == cr) {
+            s -= values[q++] * values[r++];
+          } else if (cq < cr) {
+            q++;
+          } else {
+            r++;
+          }
+        }
+        double l = s / diagonal[k];
+        values[p] = l;
+        d -= l * l;
+      }
+      if (!(d > 0)) {
+        throw new IllegalArgumentException(
+            String.format("incomplete Cholesky factorization broke down at row %d", i));
+      }
+      diagonal[i] = Math.sqrt(d);
+    }
+  }
+
+  @Override
+  public void apply(DoubleArray r, DoubleArray z) {
+    int n = diagonal.length;
+
+    // Forward substitution L * y = r (y is stored in z)
+    for (int i = 0; i < n; i++) {
+      double s = r.get(i);
+      for (int p = pointers[i]; p < pointers[i + 1]; p++) {
+        s -= values[p] * z.get(columns[p]);
+      }
+      z.set(i, s / diagonal[i]);
+    }
+
+    // Backward substitution L' * z = y, scattering the rows of L (i.e., the columns of L')
+    for (int i = n - 1; i >= 0; i--) {
+      double zi = z.get(i) / diagonal[i];
+      z.set(i, zi);
+      for (int p = pointers[i]; p < pointers[i + 1]; p++) {
+        int j = columns[p];
+        z.set(j, z.get(j) - values[p] * zi);
+      }
+    }
+  }
+}
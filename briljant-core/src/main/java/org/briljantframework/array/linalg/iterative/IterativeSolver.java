@@ -0,0 +1,62 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 Isak Karlsson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.briljantframework.array.linalg.iterative;
+
+import org.briljantframework.array.DoubleArray;
+import org.briljantframework.array.api.Workspace;
+
+/**
+ * An iterative solver of the linear system {@code A * x = b}. Iterative solvers access {@code A}
+ * only through matrix-vector products, which makes them suitable for large sparse (or implicit)
+ * systems where the {@code O(n^3)} direct solvers of
+ * {@link org.briljantframework.array.api.LinearAlgebraRoutines} are infeasible.
+ *
+ * @author Isak Karlsson
+ * @see ConjugateGradient
+ * @see BiConjugateGradientStabilized
+ * @see Gmres
+ */
+public interface IterativeSolver {
+
+  /**
+   * Solve {@code A * x = b}, using the given {@code x} as the initial guess.
+   *
+   * @param a the linear operator
+   * @param b the right-hand side
+   * @param x the initial guess (overwritten with the solution)
+   * @return the outcome of the solver
+   */
+  SolverResult solve(LinearOperator a, DoubleArray b, DoubleArray x);
+
+  /**
+   * Solve {@code A * x = b}, requesting the vectors used by the solver from the given workspace.
+   * By default, the workspace is ignored.
+   *
+   * @param a the linear operator
+   * @param b the right-hand side
+   * @param x the initial guess (overwritten with the solution)
+   * @param workspace the workspace
+   * @return the outcome of the solver
+   */
+  default SolverResult solve(LinearOperator a, DoubleArray b, DoubleArray x, Workspace workspace) {
+    return solve(a, b, x);
+  }
+}
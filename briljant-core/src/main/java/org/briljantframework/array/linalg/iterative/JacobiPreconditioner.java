@@ -0,0 +1,104 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 Isak Karlsson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.briljantframework.array.linalg.iterative;
+
+import org.briljantframework.Check;
+import org.briljantframework.array.DoubleArray;
+import org.briljantframework.array.sparse.SparseMatrix;
+
+/**
+ * The Jacobi (or diagonal) preconditioner {@code M = diag(A)}.
+ *
+ * @author Isak Karlsson
+ */
+public final class JacobiPreconditioner implements Preconditioner {
+
+  private final double[] inverseDiagonal;
+
+  /**
+   * Create a Jacobi preconditioner for the given (dense or sparse) square matrix.
+   *
+   * @param a the matrix
+   */
+  public JacobiPreconditioner(DoubleArray a) {
+    this(diagonal(a));
+  }
+
+  /**
+   * Create a Jacobi preconditioner for the given square sparse matrix.
+   *
+   * @param a the matrix
+   */
+  public JacobiPreconditioner(SparseMatrix a) {
+    this(diagonal(a));
+  }
+
+  private JacobiPreconditioner(double[] diagonal) {
+    this.inverseDiagonal = new double[diagonal.length];
+    for (int i = 0; i < diagonal.length; i++) {
+      Check.argument(diagonal[i] != 0, "zero on the diagonal (%d)", i);
+      inverseDiagonal[i] = 1 / diagonal[i];
+    }
+  }
+
+  /**
+   * Create a Jacobi preconditioner from the diagonal of a matrix, e.g., when the matrix is only
+   * available as a matrix-free {@link LinearOperator}.
+   *
+   * @param diagonal the diagonal
+   * @return a new preconditioner
+   */
+  public static JacobiPreconditioner fromDiagonal(DoubleArray diagonal) {
+    Check.argument(diagonal.isVector(), "require 1d-array");
+    double[] d = new double[diagonal.size()];
+    for (int i = 0; i < d.length; i++) {
+      d[i] = diagonal.get(i);
+    }
+    return new JacobiPreconditioner(d);
+  }
+
+  private static double[] diagonal(DoubleArray a) {
+    Check.argument(a.isSquare(), "require square matrix");
+    double[] d = new double[a.rows()];
+    for (int i = 0; i < d.length; i++) {
+      d[i] = a.get(i, i);
+    }
+    return d;
+  }
+
+  private static double[] diagonal(SparseMatrix a) {
+    Check.argument(a.rows() == a.columns(), "require square matrix");
+    double[] d = new double[a.rows()];
+    a.forEachNonZero((i, j, v) -> {
+      if (i == j) {
+        d[i] = v;
+      }
+    });
+    return d;
+  }
+
+  @Override
+  public void apply(DoubleArray r, DoubleArray z) {
+    for (int i = 0; i < inverseDiagonal.length; i++) {
+      z.set(i, r.get(i) * inverseDiagonal[i]);
+    }
+  }
+}
@@ -0,0 +1,117 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 Isak Karlsson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.briljantframework.array.linalg.iterative;
+
+import java.util.function.BiConsumer;
+
+import org.briljantframework.Check;
+import org.briljantframework.array.Arrays;
+import org.briljantframework.array.ArrayOperation;
+import org.briljantframework.array.DoubleArray;
+import org.briljantframework.array.sparse.SparseMatrix;
+
+/**
+ * A linear operator {@code y = A * x}. The iterative solvers only access the system matrix through
+ * this interface, so the matrix can be a dense {@link DoubleArray}, a
+ * {@linkplain org.briljantframework.array.sparse.SparseDoubleArray sparse matrix}, a
+ * {@link SparseMatrix} (e.g., with more than {@code 2^31} elements) or a matrix-free callback
+ * computing the product.
+ *
+ * @author Isak Karlsson
+ */
+public interface LinearOperator {
+
+  /**
+   * Returns a linear operator computing the product of the given matrix and a vector using
+   * {@link Arrays#gemv(double, DoubleArray, DoubleArray, double, DoubleArray) gemv}.
+   *
+   * @param a the matrix
+   * @return a linear operator
+   */
+  static LinearOperator of(DoubleArray a) {
+    Check.argument(a.isMatrix(), "require 2d-array");
+    int rows = a.rows(), columns = a.columns();
+    return of(rows, columns, (x, y) -> Arrays.gemv(1, a, x, 0, y));
+  }
+
+  /**
+   * Returns a linear operator computing the product of the given sparse matrix and a vector,
+   * visiting only the non-zero elements.
+   *
+   * @param a the matrix
+   * @return a linear operator
+   */
+  static LinearOperator of(SparseMatrix a) {
+    return of(a.rows(), a.columns(), (x, y) -> a.gemv(ArrayOperation.KEEP, 1, x, 0, y));
+  }
+
+  /**
+   * Returns a matrix-free linear operator, computing the product using the given function. The
+   * function receives {@code x} and must set the elements of {@code y} to {@code A * x}.
+   *
+   * @param rows the number of rows of the (implicit) matrix
+   * @param columns the number of columns of the (implicit) matrix
+   * @param apply the function computing {@code y = A * x}
+   * @return a linear operator
+   */
+  static LinearOperator of(int rows, int columns, BiConsumer<DoubleArray, DoubleArray> apply) {
+    Check.argument(rows >= 0 && columns >= 0, "illegal shape");
+    Check.argument(apply != null, "apply is required");
+    return new LinearOperator() {
+      @Override
+      public int rows() {
+        return rows;
+      }
+
+      @Override
+      public int columns() {
+        return columns;
+      }
+
+      @Override
+      public void apply(DoubleArray x, DoubleArray y) {
+        apply.accept(x, y);
+      }
+    };
+  }
+
+  /**
+   * Returns the number of rows
+   *
+   * @return the number of rows
+   */
+  int rows();
+
+  /**
+   * Returns the number of columns
+   *
+   * @return the number of columns
+   */
+  int columns();
+
+  /**
+   * Computes {@code y = A * x}
+   *
+   * @param x a vector with {@link #columns()} elements
+   * @param y a vector with {@link #rows()} elements (overwritten)
+   */
+  void apply(DoubleArray x, DoubleArray y);
+}
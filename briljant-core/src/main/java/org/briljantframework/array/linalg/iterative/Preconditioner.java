@@ -0,0 +1,52 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 Isak Karlsson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.briljantframework.array.linalg.iterative;
+
+import org.briljantframework.array.DoubleArray;
+
+/**
+ * A preconditioner {@code M} approximating the system matrix {@code A}, such that systems
+ * {@code M * z = r} are cheap to solve and {@code M^-1 * A} is better conditioned than {@code A}.
+ *
+ * @author Isak Karlsson
+ * @see JacobiPreconditioner
+ * @see IncompleteCholeskyPreconditioner
+ */
+@FunctionalInterface
+public interface Preconditioner {
+
+  /**
+   * Returns the identity preconditioner, i.e., no preconditioning
+   *
+   * @return the identity preconditioner
+   */
+  static Preconditioner identity() {
+    return (r, z) -> z.assign(r);
+  }
+
+  /**
+   * Solves {@code M * z = r}
+   *
+   * @param r the right-hand side
+   * @param z the solution (overwritten)
+   */
+  void apply(DoubleArray r, DoubleArray z);
+}
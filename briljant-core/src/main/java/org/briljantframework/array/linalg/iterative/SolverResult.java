@@ -0,0 +1,72 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 Isak Karlsson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.briljantframework.array.linalg.iterative;
+
+/**
+ * The outcome of an {@link IterativeSolver}.
+ *
+ * @author Isak Karlsson
+ */
+public final class SolverResult {
+
+  private final int iterations;
+  private final double residual;
+  private final boolean converged;
+
+  public SolverResult(int iterations, double residual, boolean converged) {
+    this.iterations = iterations;
+    this.residual = residual;
+    this.converged = converged;
+  }
+
+  /**
+   * Returns the number of iterations (i.e., approximately the number of matrix-vector products)
+   *
+   * @return the number of iterations
+   */
+  public int getIterations() {
+    return iterations;
+  }
+
+  /**
+   * Returns the relative residual {@code ||b - A * x|| / ||b||} of the solution
+   *
+   * @return the relative residual
+   */
+  public double getResidual() {
+    return residual;
+  }
+
+  /**
+   * Returns true if the relative residual is below the tolerance of the solver
+   *
+   * @return true if the solver converged
+   */
+  public boolean isConverged() {
+    return converged;
+  }
+
+  @Override
+  public String toString() {
+    return "SolverResult{" + "iterations=" + iterations + ", residual=" + residual
+        + ", converged=" + converged + '}';
+  }
+}
@@ -0,0 +1,292 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 Isak Karlsson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.briljantframework.array.netlib;
+
+import java.util.Random;
+import java.util.function.IntFunction;
+import java.util.function.IntToLongFunction;
+import java.util.function.Supplier;
+
+import org.briljantframework.Check;
+
+import com.github.fommil.netlib.BLAS;
+
+/**
+ * Decides when {@link NetlibArrayBackend} calls the native BLAS and when it uses its own
+ * (pure-Java) kernels. Calling native code has a fixed overhead which dominates the cost of small
+ * operations, e.g., the product of two {@code 10 x 10} matrices. Hence, native routines are only
+ * called for operations involving at least
+ * <ul>
+ * <li>{@linkplain #getVectorThreshold() vector threshold} elements (e.g., {@code ddot});</li>
+ * <li>{@linkplain #getMatrixVectorThreshold() matrix-vector threshold} multiplications (e.g.,
+ * {@code dgemv} with {@code m * n} multiplications);</li>
+ * <li>{@linkplain #getMatrixMatrixThreshold() matrix-matrix threshold} multiplications (e.g.,
+ * {@code dgemm} with {@code m * n * k} multiplications).</li>
+ * </ul>
+ *
+ * <p/>
+ * The default thresholds can be set using the system properties
+ * {@code briljant.blas.vectorThreshold}, {@code briljant.blas.matrixVectorThreshold} and
+ * {@code briljant.blas.matrixMatrixThreshold} or calibrated for the current machine when the
+ * backend is created by setting {@code briljant.blas.calibrate=true} (see {@link #calibrate()}).
+ * Like {@link org.briljantframework.array.api.ParallelPolicy}, a policy can also be set for the
+ * routines invoked by the current thread in a scope:
+ *
+ * <pre>
+ * DoubleArray c = BlasPolicy.alwaysNative().call(() -&gt; Arrays.dot(a, b));
+ * </pre>
+ *
+ * @author Isak Karlsson
+ */
+public final class BlasPolicy {
+
+  private static final String PREFIX = "briljant.blas.";
+  private static final BlasPolicy ALWAYS_NATIVE = new BlasPolicy(0, 0, 0);
+  private static final BlasPolicy NEVER_NATIVE =
+      new BlasPolicy(Long.MAX_VALUE, Long.MAX_VALUE, Long.MAX_VALUE);
+  private static final ThreadLocal<BlasPolicy> scoped = new ThreadLocal<>();
+  private static volatile BlasPolicy defaultPolicy;
+
+  private final long vectorThreshold;
+  private final long matrixVectorThreshold;
+  private final long matrixMatrixThreshold;
+
+  private BlasPolicy(long vectorThreshold, long matrixVectorThreshold,
+      long matrixMatrixThreshold) {
+    this.vectorThreshold = vectorThreshold;
+    this.matrixVectorThreshold = matrixVectorThreshold;
+    this.matrixMatrixThreshold = matrixMatrixThreshold;
+  }
+
+  /**
+   * Returns a policy with the given thresholds
+   *
+   * @param vectorThreshold the minimum vector length for native level 1 routines
+   * @param matrixVectorThreshold the minimum {@code m * n} for native level 2 routines
+   * @param matrixMatrixThreshold the minimum {@code m * n * k} for native level 3 routines
+   * @return a new policy
+   */
+  public static BlasPolicy of(long vectorThreshold, long matrixVectorThreshold,
+      long matrixMatrixThreshold) {
+    Check.argument(vectorThreshold >= 0 && matrixVectorThreshold >= 0
+        && matrixMatrixThreshold >= 0, "negative threshold");
+    return new BlasPolicy(vectorThreshold, matrixVectorThreshold, matrixMatrixThreshold);
+  }
+
+  /**
+   * Returns a policy which always calls the native BLAS
+   *
+   * @return the native policy
+   */
+  public static BlasPolicy alwaysNative() {
+    return ALWAYS_NATIVE;
+  }
+
+  /**
+   * Returns a policy which never calls the native BLAS
+   *
+   * @return the Java policy
+   */
+  public static BlasPolicy neverNative() {
+    return NEVER_NATIVE;
+  }
+
+  /**
+   * Returns the default policy, as configured by the system properties (see above). If no
+   * properties are set, the thresholds are {@code 512}, {@code 64 * 64} and {@code 32 * 32 * 32}.
+   *
+   * @return the default policy
+   */
+  public static BlasPolicy getDefault() {
+    BlasPolicy policy = defaultPolicy;
+    if (policy == null) {
+      synchronized (BlasPolicy.class) {
+        policy = defaultPolicy;
+        if (policy == null) {
+          policy = Boolean.getBoolean(PREFIX + "calibrate") ? calibrate()
+              : of(Long.getLong(PREFIX + "vectorThreshold", 512),
+                  Long.getLong(PREFIX + "matrixVectorThreshold", 64 * 64),
+                  Long.getLong(PREFIX + "matrixMatrixThreshold", 32 * 32 * 32));
+          defaultPolicy = policy;
+        }
+      }
+    }
+    return policy;
+  }
+
+  /**
+   * Measure the crossover points between the Java kernels and the native BLAS on this machine.
+   * For each level, the routine is timed for increasing sizes and the threshold is set to the
+   * smallest size for which the native routine is faster. The calibration takes a fraction of a
+   * second.
+   *
+   * @return a calibrated policy
+   */
+  public static BlasPolicy calibrate() {
+    BLAS blas = BLAS.getInstance();
+    long vector = crossover(new int[] {16, 64, 256, 1024, 4096, 16384}, n -> n, n -> {
+      double[] x = random(n), y = random(n);
+      return new Runnable[] {() -> JavaBlas.ddot(n, x, 0, 1, y, 0, 1),
+          () -> blas.ddot(n, x, 0, 1, y, 0, 1)};
+    });
+    long matrixVector = crossover(new int[] {4, 8, 16, 32, 64, 128, 256}, n -> n * n, n -> {
+      double[] a = random(n * n), x = random(n), y = new double[n];
+      return new Runnable[] {
+          () -> JavaBlas.dgemv("n", n, n, 1, a, 0, n, x, 0, 1, 0, y, 0, 1),
+          () -> blas.dgemv("n", n, n, 1, a, 0, n, x, 0, 1, 0, y, 0, 1)};
+    });
+    long matrixMatrix = crossover(new int[] {2, 4, 8, 16, 32, 64, 128}, n -> n * n * n, n -> {
+      double[] a = random(n * n), b = random(n * n), c = new double[n * n];
+      return new Runnable[] {
+          () -> JavaBlas.dgemm("n", "n", n, n, n, 1, a, 0, n, b, 0, n, 0, c, 0, n),
+          () -> blas.dgemm("n", "n", n, n, n, 1, a, 0, n, b, 0, n, 0, c, 0, n)};
+    });
+    return new BlasPolicy(vector, matrixVector, matrixMatrix);
+  }
+
+  /**
+   * Returns the work of the smallest size for which the native routine is faster or
+   * {@code Long.MAX_VALUE} if the Java routine is faster for all sizes.
+   */
+  private static long crossover(int[] sizes, IntToLongFunction work,
+      IntFunction<Runnable[]> routines) {
+    for (int n : sizes) {
+      Runnable[] pair = routines.apply(n);
+      // repeat such that each measurement performs roughly the same amount of work
+      int repeat = (int) Math.max(8, (1 << 20) / work.applyAsLong(n));
+      time(pair[0], repeat); // warm up
+      time(pair[1], repeat);
+      if (time(pair[1], repeat) < time(pair[0], repeat)) {
+        return work.applyAsLong(n);
+      }
+    }
+    return Long.MAX_VALUE;
+  }
+
+  private static long time(Runnable routine, int repeat) {
+    long start = System.nanoTime();
+    for (int i = 0; i < repeat; i++) {
+      routine.run();
+    }
+    return System.nanoTime() - start;
+  }
+
+  private static double[] random(int n) {
+    double[] x = new double[n];
+    Random random = new Random(n);
+    for (int i = 0; i < n; i++) {
+      x[i] = random.nextDouble();
+    }
+    return x;
+  }
+
+  /**
+   * Returns the policy set for the current thread using {@link #run(Runnable)} or
+   * {@link #call(Supplier)} or {@code defaultPolicy} if no policy is set.
+   *
+   * @param defaultPolicy the policy to use if no scoped policy is set
+   * @return the current policy
+   */
+  public static BlasPolicy current(BlasPolicy defaultPolicy) {
+    BlasPolicy policy = scoped.get();
+    return policy != null ? policy : defaultPolicy;
+  }
+
+  /**
+   * Returns the minimum vector length for which level 1 routines are native
+   *
+   * @return the threshold
+   */
+  public long getVectorThreshold() {
+    return vectorThreshold;
+  }
+
+  /**
+   * Returns the minimum number of multiplications for which level 2 routines are native
+   *
+   * @return the threshold
+   */
+  public long getMatrixVectorThreshold() {
+    return matrixVectorThreshold;
+  }
+
+  /**
+   * Returns the minimum number of multiplications for which level 3 routines are native
+   *
+   * @return the threshold
+   */
+  public long getMatrixMatrixThreshold() {
+    return matrixMatrixThreshold;
+  }
+
+  /**
+   * Run the given action with this policy as the policy of all routines invoked by the current
+   * thread.
+   *
+   * @param action the action
+   */
+  public void run(Runnable action) {
+    call(() -> {
+      action.run();
+      return null;
+    });
+  }
+
+  /**
+   * Call the given function with this policy as the policy of all routines invoked by the current
+   * thread.
+   *
+   * @param function the function
+   * @param <T> the return type
+   * @return the value returned by the function
+   */
+  public <T> T call(Supplier<T> function) {
+    BlasPolicy previous = scoped.get();
+    scoped.set(this);
+    try {
+      return function.get();
+    } finally {
+      if (previous == null) {
+        scoped.remove();
+      } else {
+        scoped.set(previous);
+      }
+    }
+  }
+
+  boolean isNativeVector(long n) {
+    return n >= vectorThreshold;
+  }
+
+  boolean isNativeMatrixVector(long m, long n) {
+    return m * n >= matrixVectorThreshold;
+  }
+
+  boolean isNativeMatrixMatrix(long m, long n, long k) {
+    return m * n * k >= matrixMatrixThreshold;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("BlasPolicy(vector=%d, matrixVector=%d, matrixMatrix=%d)",
+        vectorThreshold, matrixVectorThreshold, matrixMatrixThreshold);
+  }
+}
@@ -0,0 +1,302 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 Isak Karlsson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.briljantframework.array.netlib;
+
+/**
+ * Pure-Java versions of the BLAS routines used by {@link NetlibArrayRoutines}, with the same
+ * arguments as the corresponding methods of {@link com.github.fommil.netlib.BLAS}. For small
+ * operands, these avoid the cost of calling native code (and checking the arguments) which
+ * otherwise dominates the cost of the routine.
+ *
+ * @author Isak Karlsson
+ * @see BlasPolicy
+ */
+final class JavaBlas {
+
+  private JavaBlas() {}
+
+  static double ddot(int n, double[] x, int xo, int incx, double[] y, int yo, int incy) {
+    double s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+    int i = 0;
+    if (incx == 1 && incy == 1) {
+      for (; i + 3 < n; i += 4) {
+        s0 += x[xo + i] * y[yo + i];
+        s1 += x[xo + i + 1] * y[yo + i + 1];
+        s2 += x[xo + i + 2] * y[yo + i + 2];
+        s3 += x[xo + i + 3] * y[yo + i + 3];
+      }
+      for (; i < n; i++) {
+        s0 += x[xo + i] * y[yo + i];
+      }
+    } else {
+      for (int p = xo, q = yo; i < n; i++, p += incx, q += incy) {
+        s0 += x[p] * y[q];
+      }
+    }
+    return (s0 + s1) + (s2 + s3);
+  }
+
+  static void daxpy(int n, double alpha, double[] x, int xo, int incx, double[] y, int yo,
+      int incy) {
+    int i = 0;
+    if (incx == 1 && incy == 1) {
+      for (; i + 3 < n; i += 4) {
+        y[yo + i] += alpha * x[xo + i];
+        y[yo + i + 1] += alpha * x[xo + i + 1];
+        y[yo + i + 2] += alpha * x[xo + i + 2];
+        y[yo + i + 3] += alpha * x[xo + i + 3];
+      }
+      for (; i < n; i++) {
+        y[yo + i] += alpha * x[xo + i];
+      }
+    } else {
+      for (int p = xo, q = yo; i < n; i++, p += incx, q += incy) {
+        y[q] += alpha * x[p];
+      }
+    }
+  }
+
+  static void dscal(int n, double alpha, double[] x, int xo, int incx) {
+    for (int i = 0, p = xo; i < n; i++, p += incx) {
+      x[p] *= alpha;
+    }
+  }
+
+  static double dasum(int n, double[] x, int xo, int incx) {
+    double sum = 0;
+    for (int i = 0, p = xo; i < n; i++, p += incx) {
+      sum += Math.abs(x[p]);
+    }
+    return sum;
+  }
+
+  static double dnrm2(int n, double[] x, int xo, int incx) {
+    // scale by the largest absolute value to avoid overflow (and underflow)
+    double scale = 0;
+    for (int i = 0, p = xo; i < n; i++, p += incx) {
+      scale = Math.max(scale, Math.abs(x[p]));
+    }
+    if (scale == 0 || Double.isInfinite(scale)) {
+      return scale;
+    }
+    double ssq = 0;
+    for (int i = 0, p = xo; i < n; i++, p += incx) {
+      double v = x[p] / scale;
+      ssq += v * v;
+    }
+    return scale * Math.sqrt(ssq);
+  }
+
+  /**
+   * {@code y := alpha * op(A) * x + beta * y}, where {@code A} is a column-major {@code m x n}
+   * matrix.
+   */
+  static void dgemv(String trans, int m, int n, double alpha, double[] a, int ao, int lda,
+      double[] x, int xo, int incx, double beta, double[] y, int yo, int incy) {
+    boolean transpose = isTranspose(trans);
+    int leny = transpose ? n : m;
+    int lenx = transpose ? m : n;
+    scale(leny, beta, y, yo, incy);
+    if (alpha == 0) {
+      return;
+    }
+    if (transpose) {
+      // y[j] += alpha * A(:, j)' * x
+      for (int j = 0, q = yo; j < n; j++, q += incy) {
+        y[q] += alpha * ddot(m, a, ao + j * lda, 1, x, xo, incx);
+      }
+    } else {
+      // y += alpha * x[j] * A(:, j)
+      for (int j = 0, p = xo; j < lenx; j++, p += incx) {
+        double temp = alpha * x[p];
+        if (temp != 0) {
+          daxpy(m, temp, a, ao + j * lda, 1, y, yo, incy);
+        }
+      }
+    }
+  }
+
+  /**
+   * {@code A := alpha * x * y' + A}, where {@code A} is a column-major {@code m x n} matrix.
+   */
+  static void dger(int m, int n, double alpha, double[] x, int xo, int incx, double[] y, int yo,
+      int incy, double[] a, int ao, int lda) {
+    for (int j = 0, q = yo; j < n; j++, q += incy) {
+      double temp = alpha * y[q];
+      if (temp != 0) {
+        daxpy(m, temp, x, xo, incx, a, ao + j * lda, 1);
+      }
+    }
+  }
+
+  /**
+   * {@code C := alpha * op(A) * op(B) + beta * C}, where {@code C} is a column-major
+   * {@code m x n} matrix and {@code op(A)} is {@code m x k}.
+   */
+  static void dgemm(String transa, String transb, int m, int n, int k, double alpha, double[] a,
+      int ao, int lda, double[] b, int bo, int ldb, double beta, double[] c, int co, int ldc) {
+    boolean ta = isTranspose(transa), tb = isTranspose(transb);
+    for (int j = 0; j < n; j++) {
+      int cj = co + j * ldc;
+      scale(m, beta, c, cj, 1);
+      if (alpha == 0) {
+        continue;
+      }
+      for (int l = 0; l < k; l++) {
+        double blj = tb ? b[bo + j + l * ldb] : b[bo + l + j * ldb];
+        double temp = alpha * blj;
+        if (temp == 0) {
+          continue;
+        }
+        if (ta) {
+          // op(A)(i, l) = A(l, i)
+          for (int i = 0, p = ao + l; i < m; i++, p += lda) {
+            c[cj + i] += temp * a[p];
+          }
+        } else {
+          daxpy(m, temp, a, ao + l * lda, 1, c, cj, 1);
+        }
+      }
+    }
+  }
+
+  static float sdot(int n, float[] x, int xo, int incx, float[] y, int yo, int incy) {
+    float s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+    int i = 0;
+    if (incx == 1 && incy == 1) {
+      for (; i + 3 < n; i += 4) {
+        s0 += x[xo + i] * y[yo + i];
+        s1 += x[xo + i + 1] * y[yo + i + 1];
+        s2 += x[xo + i + 2] * y[yo + i + 2];
+        s3 += x[xo + i + 3] * y[yo + i + 3];
+      }
+      for (; i < n; i++) {
+        s0 += x[xo + i] * y[yo + i];
+      }
+    } else {
+      for (int p = xo, q = yo; i < n; i++, p += incx, q += incy) {
+        s0 += x[p] * y[q];
+      }
+    }
+    return (s0 + s1) + (s2 + s3);
+  }
+
+  static void saxpy(int n, float alpha, float[] x, int xo, int incx, float[] y, int yo, int incy) {
+    int i = 0;
+    if (incx == 1 && incy == 1) {
+      for (; i + 3 < n; i += 4) {
+        y[yo + i] += alpha * x[xo + i];
+        y[yo + i + 1] += alpha * x[xo + i + 1];
+        y[yo + i + 2] += alpha * x[xo + i + 2];
+        y[yo + i + 3] += alpha * x[xo + i + 3];
+      }
+      for (; i < n; i++) {
+        y[yo + i] += alpha * x[xo + i];
+      }
+    } else {
+      for (int p = xo, q = yo; i < n; i++, p += incx, q += incy) {
+        y[q] += alpha * x[p];
+      }
+    }
+  }
+
+  /**
+   * Single precision version of {@link #dgemv}.
+   */
+  static void sgemv(String trans, int m, int n, float alpha, float[] a, int ao, int lda, float[] x,
+      int xo, int incx, float beta, float[] y, int yo, int incy) {
+    boolean transpose = isTranspose(trans);
+    int leny = transpose ? n : m;
+    int lenx = transpose ? m : n;
+    scale(leny, beta, y, yo, incy);
+    if (alpha == 0) {
+      return;
+    }
+    if (transpose) {
+      for (int j = 0, q = yo; j < n; j++, q += incy) {
+        y[q] += alpha * sdot(m, a, ao + j * lda, 1, x, xo, incx);
+      }
+    } else {
+      for (int j = 0, p = xo; j < lenx; j++, p += incx) {
+        float temp = alpha * x[p];
+        if (temp != 0) {
+          saxpy(m, temp, a, ao + j * lda, 1, y, yo, incy);
+        }
+      }
+    }
+  }
+
+  /**
+   * Single precision version of {@link #dgemm}.
+   */
+  static void sgemm(String transa, String transb, int m, int n, int k, float alpha, float[] a,
+      int ao, int lda, float[] b, int bo, int ldb, float beta, float[] c, int co, int ldc) {
+    boolean ta = isTranspose(transa), tb = isTranspose(transb);
+    for (int j = 0; j < n; j++) {
+      int cj = co + j * ldc;
+      scale(m, beta, c, cj, 1);
+      if (alpha == 0) {
+        continue;
+      }
+      for (int l = 0; l < k; l++) {
+        float blj = tb ? b[bo + j + l * ldb] : b[bo + l + j * ldb];
+        float temp = alpha * blj;
+        if (temp == 0) {
+          continue;
+        }
+        if (ta) {
+          for (int i = 0, p = ao + l; i < m; i++, p += lda) {
+            c[cj + i] += temp * a[p];
+          }
+        } else {
+          saxpy(m, temp, a, ao + l * lda, 1, c, cj, 1);
+        }
+      }
+    }
+  }
+
+  private static void scale(int n, double beta, double[] y, int yo, int incy) {
+    if (beta == 0) {
+      for (int i = 0, q = yo; i < n; i++, q += incy) {
+        y[q] = 0;
+      }
+    } else if (beta != 1) {
+      dscal(n, beta, y, yo, incy);
+    }
+  }
+
+  private static void scale(int n, float beta, float[] y, int yo, int incy) {
+    if (beta == 0) {
+      for (int i = 0, q = yo; i < n; i++, q += incy) {
+        y[q] = 0;
+      }
+    } else if (beta != 1) {
+      for (int i = 0, q = yo; i < n; i++, q += incy) {
+        y[q] *= beta;
+      }
+    }
+  }
+
+  private static boolean isTranspose(String trans) {
+    char t = Character.toUpperCase(trans.charAt(0));
+    return t == 'T' || t == 'C';
+  }
+}
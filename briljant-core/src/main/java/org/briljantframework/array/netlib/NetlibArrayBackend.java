@@ -20,6 +20,7 @@
  */
 package org.briljantframework.array.netlib;
 
+import java.util.Objects;
 import java.util.logging.Handler;
 import java.util.logging.LogManager;
 import java.util.logging.Logger;
@@ -30,7 +31,9 @@ import org.briljantframework.array.api.ArrayRoutines;
 import org.briljantframework.array.api.LinearAlgebraRoutines;
 
 /**
- * Provides arrays with operations optimized using Netlib.
+ * Provides arrays with operations optimized using Netlib. Small BLAS operations, for which the
+ * overhead of calling native code dominates, are computed by Java kernels instead (see
+ * {@link BlasPolicy}).
  * 
  * <p/>
  * Priority: 100
@@ -53,6 +56,47 @@ public class NetlibArrayBackend implements ArrayBackend {
   private ArrayFactory arrayFactory;
   private ArrayRoutines arrayRoutines;
   private LinearAlgebraRoutines linearAlgebraRoutines;
+  private volatile BlasPolicy blasPolicy;
+
+  /**
+   * Create a new backend using the {@linkplain BlasPolicy#getDefault() default} BLAS policy
+   */
+  public NetlibArrayBackend() {
+    this(null);
+  }
+
+  /**
+   * Create a new backend using the given BLAS policy
+   *
+   * @param blasPolicy the policy
+   */
+  public NetlibArrayBackend(BlasPolicy blasPolicy) {
+    this.blasPolicy = blasPolicy;
+  }
+
+  /**
+   * Returns the policy deciding when the native BLAS is called (unless a policy is set for the
+   * current thread)
+   *
+   * @return the BLAS policy
+   */
+  public BlasPolicy getBlasPolicy() {
+    BlasPolicy policy = blasPolicy;
+    if (policy == null) {
+      // the default policy is resolved lazily since it might be calibrated
+      policy = blasPolicy = BlasPolicy.getDefault();
+    }
+    return policy;
+  }
+
+  /**
+   * Set the policy deciding when the native BLAS is called
+   *
+   * @param blasPolicy the BLAS policy
+   */
+  public void setBlasPolicy(BlasPolicy blasPolicy) {
+    this.blasPolicy = Objects.requireNonNull(blasPolicy);
+  }
 
   @Override
   public boolean isAvailable() {
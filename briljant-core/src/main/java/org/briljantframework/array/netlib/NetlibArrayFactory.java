@@ -28,6 +28,7 @@ import org.briljantframework.Check;
 import org.briljantframework.array.*;
 import org.briljantframework.array.api.ArrayBackend;
 import org.briljantframework.array.api.ArrayFactory;
+import org.briljantframework.array.sparse.SparseDoubleArray;
 
 /**
  * @author Isak Karlsson
@@ -167,6 +168,16 @@ class NetlibArrayFactory implements ArrayFactory {
     return new NetlibLongArray(backend, shape);
   }
 
+  @Override
+  public FloatArray newFloatVector(float... data) {
+    return new NetlibFloatArray(backend, data);
+  }
+
+  @Override
+  public FloatArray newFloatArray(int... shape) {
+    return new NetlibFloatArray(backend, shape);
+  }
+
   @Override
   public DoubleArray newDoubleMatrix(double[][] data) {
     Check.argument(data.length > 0, "illegal row count");
@@ -209,11 +220,11 @@ class NetlibArrayFactory implements ArrayFactory {
   }
 
   public ComplexArray newComplexVector(double... data) {
-    Complex[] c = new Complex[data.length];
+    double[] c = new double[data.length * 2];
     for (int i = 0; i < data.length; i++) {
-      c[i] = Complex.valueOf(data[i]);
+      c[i * 2] = data[i];
     }
-    return newComplexVector(c);
+    return new NetlibComplexArray(backend, c);
   }
 
   @Override
@@ -305,4 +316,16 @@ class NetlibArrayFactory implements ArrayFactory {
   public DoubleArray newDoubleArray(int... shape) {
     return new NetlibDoubleArray(backend, shape);
   }
+
+  @Override
+  public SparseDoubleArray newSparseDoubleArray(SparseDoubleArray.Layout layout, int rows,
+      int columns, int[] rowIndexes, int[] columnIndexes, double[] values) {
+    return SparseDoubleArray.of(backend, layout, rows, columns, rowIndexes, columnIndexes, values);
+  }
+
+  @Override
+  public SparseDoubleArray toSparseDoubleArray(SparseDoubleArray.Layout layout,
+      DoubleArray dense) {
+    return SparseDoubleArray.of(backend, layout, dense);
+  }
 }
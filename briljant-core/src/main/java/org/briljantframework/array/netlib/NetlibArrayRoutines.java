@@ -20,13 +20,19 @@
  */
 package org.briljantframework.array.netlib;
 
+import org.apache.commons.math3.complex.Complex;
 import org.briljantframework.Check;
 import org.briljantframework.array.ArrayOperation;
 import org.briljantframework.array.Arrays;
 import org.briljantframework.array.BaseArray;
+import org.briljantframework.array.BooleanArray;
+import org.briljantframework.array.ComplexArray;
 import org.briljantframework.array.DoubleArray;
+import org.briljantframework.array.FloatArray;
+import org.briljantframework.array.StridedLoop;
 import org.briljantframework.array.api.ArrayBackend;
 import org.briljantframework.array.api.AbstractArrayRoutines;
+import org.briljantframework.array.sparse.SparseMatrices;
 
 import com.github.fommil.netlib.BLAS;
 
@@ -65,8 +71,13 @@ class NetlibArrayRoutines extends AbstractArrayRoutines {
       Check.argument(a.isVector() && b.isVector(), VECTOR_REQUIRED);
       Check.size(a, b);
       int n = a.size();
-      return blas.ddot(n, getBackingArray(a), a.getOffset(), getVectorMajorStride(a), getBackingArray(b), b.getOffset(),
-          getVectorMajorStride(b));
+      double[] x = getBackingArray(a), y = getBackingArray(b);
+      int incx = getVectorMajorStride(a), incy = getVectorMajorStride(b);
+      if (blasPolicy().isNativeVector(n)) {
+        return blas.ddot(n, x, a.getOffset(), incx, y, b.getOffset(), incy);
+      } else {
+        return JavaBlas.ddot(n, x, a.getOffset(), incx, y, b.getOffset(), incy);
+      }
     } else {
       return super.inner(a, b);
     }
@@ -80,7 +91,12 @@ class NetlibArrayRoutines extends AbstractArrayRoutines {
   public double norm2(DoubleArray a) {
     if (isContinuousNetlibArray(a)) {
       Check.argument(a.isVector(), VECTOR_REQUIRED);
-      return blas.dnrm2(a.size(), getBackingArray(a), a.getOffset(), getVectorMajorStride(a));
+      if (blasPolicy().isNativeVector(a.size())) {
+        return blas.dnrm2(a.size(), getBackingArray(a), a.getOffset(), getVectorMajorStride(a));
+      } else {
+        return JavaBlas.dnrm2(a.size(), getBackingArray(a), a.getOffset(),
+            getVectorMajorStride(a));
+      }
     } else {
       return super.norm2(a);
     }
@@ -90,7 +106,12 @@ class NetlibArrayRoutines extends AbstractArrayRoutines {
   public double asum(DoubleArray a) {
     if (isContinuousNetlibArray(a)) {
       Check.argument(a.isVector(), VECTOR_REQUIRED);
-      return blas.dasum(a.size(), getBackingArray(a), a.getOffset(), getVectorMajorStride(a));
+      if (blasPolicy().isNativeVector(a.size())) {
+        return blas.dasum(a.size(), getBackingArray(a), a.getOffset(), getVectorMajorStride(a));
+      } else {
+        return JavaBlas.dasum(a.size(), getBackingArray(a), a.getOffset(),
+            getVectorMajorStride(a));
+      }
     } else {
       return super.asum(a);
     }
@@ -110,7 +131,12 @@ class NetlibArrayRoutines extends AbstractArrayRoutines {
   public void scal(double alpha, DoubleArray a) {
     if (isContinuousNetlibArray(a) && alpha != 1) {
       Check.argument(a.isVector(), VECTOR_REQUIRED);
-      blas.dscal(a.size(), alpha, getBackingArray(a), a.getOffset(), getVectorMajorStride(a));
+      if (blasPolicy().isNativeVector(a.size())) {
+        blas.dscal(a.size(), alpha, getBackingArray(a), a.getOffset(), getVectorMajorStride(a));
+      } else {
+        JavaBlas.dscal(a.size(), alpha, getBackingArray(a), a.getOffset(),
+            getVectorMajorStride(a));
+      }
     } else {
       super.scal(alpha, a);
     }
@@ -125,8 +151,18 @@ class NetlibArrayRoutines extends AbstractArrayRoutines {
       // TODO: 5/27/16 we need to rework this
       // Check.argument(x.isVector() && y.isVector(), VECTOR_REQUIRED);
       // Check.size(x, y);
-      blas.daxpy(x.size(), alpha, getBackingArray(x), x.getOffset(), getVectorMajorStride(x), getBackingArray(y),
-          y.getOffset(), getVectorMajorStride(y));
+      double[] xa = getBackingArray(x), ya = getBackingArray(y);
+      int incx = getVectorMajorStride(x), incy = getVectorMajorStride(y);
+      int xo = x.getOffset(), yo = y.getOffset();
+      if (!blasPolicy().isNativeVector(x.size())) {
+        JavaBlas.daxpy(x.size(), alpha, xa, xo, incx, ya, yo, incy);
+      } else if (incx > 0 && incy > 0) {
+        // each range is an independent daxpy; the result is identical to a single call
+        parallelPolicy().execute(x.size(), (start, end) -> blas.daxpy(end - start, alpha, xa,
+            xo + start * incx, incx, ya, yo + start * incy, incy));
+      } else {
+        blas.daxpy(x.size(), alpha, xa, xo, incx, ya, yo, incy);
+      }
     } else {
       super.axpy(alpha, x, y);
     }
@@ -135,21 +171,33 @@ class NetlibArrayRoutines extends AbstractArrayRoutines {
   @Override
   public void gemv(ArrayOperation transA, double alpha, DoubleArray a, DoubleArray x, double beta,
       DoubleArray y) {
+    if (SparseMatrices.isSparse(a)) {
+      super.gemv(transA, alpha, a, x, beta, y);
+      return;
+    }
     Check.argument(a.isMatrix());
     Check.argument(x.isVector());
     Check.argument(y.isVector());
+    int m = a.rows(), n = a.columns();
+    Check.dimension(x.size(), transA.isTranspose() ? m : n);
+    Check.dimension(y.size(), transA.isTranspose() ? n : m);
 
-    if (a instanceof NetlibDoubleArray && a.stride(0) == 1 && a.stride(1) >= a.size(1)
-        && x instanceof NetlibDoubleArray && y instanceof NetlibDoubleArray) {
-
-      int m = a.size(transA == ArrayOperation.KEEP ? 0 : 1);
-      int n = a.size(transA == ArrayOperation.KEEP ? 1 : 0);
-      // TODO: 5/2/16 ensure correctness
-      blas.dgemv(transA.getCblasString(), m, n, alpha, getBackingArray(a), a.getOffset(),
-          Math.max(1, a.stride(1)), getBackingArray(x), x.getOffset(), x.stride(0), beta, getBackingArray(y),
-          y.getOffset(), y.stride(0));
+    a = asBlasMatrix(a);
+    x = asBlasVector(x);
+    DoubleArray maybeY = asBlasVector(y);
+    double[] aa = getBackingArray(a), xa = getBackingArray(x), ya = getBackingArray(maybeY);
+    int lda = Math.max(1, a.stride(1));
+    int incx = getVectorMajorStride(x), incy = getVectorMajorStride(maybeY);
+    // the dimensions are the dimensions of a (not op(a))
+    if (blasPolicy().isNativeMatrixVector(m, n)) {
+      blas.dgemv(transA.getCblasString(), m, n, alpha, aa, a.getOffset(), lda, xa, x.getOffset(),
+          incx, beta, ya, maybeY.getOffset(), incy);
     } else {
-      super.gemv(transA, alpha, a, x, beta, y);
+      JavaBlas.dgemv(transA.getCblasString(), m, n, alpha, aa, a.getOffset(), lda, xa,
+          x.getOffset(), incx, beta, ya, maybeY.getOffset(), incy);
+    }
+    if (maybeY != y) {
+      y.assign(maybeY);
     }
   }
 
@@ -158,19 +206,32 @@ class NetlibArrayRoutines extends AbstractArrayRoutines {
     Check.argument(a.isMatrix() && x.isVector() && y.isVector());
     Check.dimension(x.size(), a.rows());
     Check.dimension(y.size(), a.columns());
-    if (x instanceof NetlibDoubleArray && y instanceof NetlibDoubleArray
-        && a instanceof NetlibDoubleArray && a.stride(0) == 1 && a.stride(1) >= a.size(1)) {
-      // TODO: 5/3/16 ensure correctness
-      blas.dger(a.rows(), a.columns(), alpha, getBackingArray(x), x.getOffset(), y.stride(0), getBackingArray(y),
-          y.getOffset(), y.stride(0), getBackingArray(a), a.getOffset(), Math.max(1, a.stride(1)));
+    x = asBlasVector(x);
+    y = asBlasVector(y);
+    DoubleArray maybeA = asBlasMatrix(a);
+    int m = a.rows(), n = a.columns();
+    double[] xa = getBackingArray(x), ya = getBackingArray(y), aa = getBackingArray(maybeA);
+    int incx = getVectorMajorStride(x), incy = getVectorMajorStride(y);
+    int lda = Math.max(1, maybeA.stride(1));
+    if (blasPolicy().isNativeMatrixVector(m, n)) {
+      blas.dger(m, n, alpha, xa, x.getOffset(), incx, ya, y.getOffset(), incy, aa,
+          maybeA.getOffset(), lda);
     } else {
-      super.ger(alpha, x, y, a);
+      JavaBlas.dger(m, n, alpha, xa, x.getOffset(), incx, ya, y.getOffset(), incy, aa,
+          maybeA.getOffset(), lda);
+    }
+    if (maybeA != a) {
+      a.assign(maybeA);
     }
   }
 
   @Override
   public void gemm(ArrayOperation transA, ArrayOperation transB, double alpha, DoubleArray a,
       DoubleArray b, double beta, DoubleArray c) {
+    if (SparseMatrices.isSparse(a) || SparseMatrices.isSparse(b)) {
+      super.gemm(transA, transB, alpha, a, b, beta, c);
+      return;
+    }
     Check.argument(a.dims() == 2, "'a' has %s dims", a.dims());
     Check.argument(b.dims() == 2, "'b' has %s dims", a.dims());
     Check.argument(c.dims() == 2, "'c' has %s dims", a.dims());
@@ -192,18 +253,21 @@ class NetlibArrayRoutines extends AbstractArrayRoutines {
               c.size(0), c.size(1)));
     }
 
-    // Issue: is a or b is non-netlib arrays it might be beneficial to copy here if
-    // the array is a small view of a large array since the view performs a copy of
-    // the large array and, while the copy here might be small.
-    a = !a.isView() && a.isContiguous() && a.stride(0) == 1 ? a : a.copy();
-    b = !b.isView() && b.isContiguous() && b.stride(0) == 1 ? b : b.copy();
-    DoubleArray maybeC =
-        c instanceof NetlibDoubleArray && c.isContiguous() && c.stride(0) == 1 ? c : c.copy();
-
-
-    blas.dgemm(transA.getCblasString(), transB.getCblasString(), m, n, k, alpha, getBackingArray(a),
-        a.getOffset(), Math.max(1, a.stride(1)), getBackingArray(b), b.getOffset(), Math.max(1, b.stride(1)),
-        beta, getBackingArray(maybeC), maybeC.getOffset(), Math.max(1, maybeC.stride(1)));
+    // Views with unit row stride (e.g., a block of a larger matrix) are used as is, with the
+    // column stride as leading dimension. Other arrays are copied.
+    a = asBlasMatrix(a);
+    b = asBlasMatrix(b);
+    DoubleArray maybeC = asBlasMatrix(c);
+    double[] aa = getBackingArray(a), ba = getBackingArray(b), ca = getBackingArray(maybeC);
+    int lda = Math.max(1, a.stride(1)), ldb = Math.max(1, b.stride(1));
+    int ldc = Math.max(1, maybeC.stride(1));
+    if (blasPolicy().isNativeMatrixMatrix(m, n, k)) {
+      blas.dgemm(transA.getCblasString(), transB.getCblasString(), m, n, k, alpha, aa,
+          a.getOffset(), lda, ba, b.getOffset(), ldb, beta, ca, maybeC.getOffset(), ldc);
+    } else {
+      JavaBlas.dgemm(transA.getCblasString(), transB.getCblasString(), m, n, k, alpha, aa,
+          a.getOffset(), lda, ba, b.getOffset(), ldb, beta, ca, maybeC.getOffset(), ldc);
+    }
 
     // If c was copied, maybeC and c won't be the same instance.
     // To simulate an out parameter, c is assigned the new data if this is the case.
@@ -212,6 +276,328 @@ class NetlibArrayRoutines extends AbstractArrayRoutines {
     }
   }
 
+  @Override
+  public float inner(FloatArray a, FloatArray b) {
+    if (a instanceof NetlibFloatArray && b instanceof NetlibFloatArray) {
+      Check.argument(a.isVector() && b.isVector(), VECTOR_REQUIRED);
+      Check.size(a, b);
+      int n = a.size();
+      float[] x = getBackingArray(a), y = getBackingArray(b);
+      int incx = getVectorMajorStride(a), incy = getVectorMajorStride(b);
+      if (blasPolicy().isNativeVector(n) && incx > 0 && incy > 0) {
+        return blas.sdot(n, x, a.getOffset(), incx, y, b.getOffset(), incy);
+      } else {
+        return JavaBlas.sdot(n, x, a.getOffset(), incx, y, b.getOffset(), incy);
+      }
+    } else {
+      return super.inner(a, b);
+    }
+  }
+
+  @Override
+  public void axpy(float alpha, FloatArray x, FloatArray y) {
+    if (alpha == 0) {
+      return;
+    }
+    if (x instanceof NetlibFloatArray && y instanceof NetlibFloatArray && x.isVector()
+        && y.isVector()) {
+      Check.size(x, y);
+      float[] xa = getBackingArray(x), ya = getBackingArray(y);
+      int incx = getVectorMajorStride(x), incy = getVectorMajorStride(y);
+      int xo = x.getOffset(), yo = y.getOffset();
+      if (!blasPolicy().isNativeVector(x.size()) || incx <= 0 || incy <= 0) {
+        JavaBlas.saxpy(x.size(), alpha, xa, xo, incx, ya, yo, incy);
+      } else {
+        parallelPolicy().execute(x.size(), (start, end) -> blas.saxpy(end - start, alpha, xa,
+            xo + start * incx, incx, ya, yo + start * incy, incy));
+      }
+    } else {
+      super.axpy(alpha, x, y);
+    }
+  }
+
+  @Override
+  public void gemv(ArrayOperation transA, float alpha, FloatArray a, FloatArray x, float beta,
+      FloatArray y) {
+    Check.argument(a.isMatrix());
+    Check.argument(x.isVector());
+    Check.argument(y.isVector());
+    int m = a.rows(), n = a.columns();
+    Check.dimension(x.size(), transA.isTranspose() ? m : n);
+    Check.dimension(y.size(), transA.isTranspose() ? n : m);
+
+    a = asBlasMatrix(a);
+    x = asBlasVector(x);
+    FloatArray maybeY = asBlasVector(y);
+    float[] aa = getBackingArray(a), xa = getBackingArray(x), ya = getBackingArray(maybeY);
+    int lda = Math.max(1, a.stride(1));
+    int incx = getVectorMajorStride(x), incy = getVectorMajorStride(maybeY);
+    if (blasPolicy().isNativeMatrixVector(m, n)) {
+      blas.sgemv(transA.getCblasString(), m, n, alpha, aa, a.getOffset(), lda, xa, x.getOffset(),
+          incx, beta, ya, maybeY.getOffset(), incy);
+    } else {
+      JavaBlas.sgemv(transA.getCblasString(), m, n, alpha, aa, a.getOffset(), lda, xa,
+          x.getOffset(), incx, beta, ya, maybeY.getOffset(), incy);
+    }
+    if (maybeY != y) {
+      y.assign(maybeY);
+    }
+  }
+
+  @Override
+  public void gemm(ArrayOperation transA, ArrayOperation transB, float alpha, FloatArray a,
+      FloatArray b, float beta, FloatArray c) {
+    Check.argument(a.dims() == 2, "'a' has %s dims", a.dims());
+    Check.argument(b.dims() == 2, "'b' has %s dims", b.dims());
+    Check.argument(c.dims() == 2, "'c' has %s dims", c.dims());
+    boolean ta = transA.isTranspose(), tb = transB.isTranspose();
+    int m = a.size(ta ? 1 : 0);
+    int k = a.size(ta ? 0 : 1);
+    int n = b.size(tb ? 0 : 1);
+    if (k != b.size(tb ? 1 : 0)) {
+      throw new IllegalArgumentException(String.format("a has size (%d, %d), b has size(%d, %d)",
+          m, k, b.size(tb ? 1 : 0), n));
+    }
+    if (m != c.size(0) || n != c.size(1)) {
+      throw new IllegalArgumentException(
+          String.format("a has size (%d,%d), b has size (%d,%d), c has size (%d, %d)", m, k, k, n,
+              c.size(0), c.size(1)));
+    }
+
+    a = asBlasMatrix(a);
+    b = asBlasMatrix(b);
+    FloatArray maybeC = asBlasMatrix(c);
+    float[] aa = getBackingArray(a), ba = getBackingArray(b), ca = getBackingArray(maybeC);
+    int lda = Math.max(1, a.stride(1)), ldb = Math.max(1, b.stride(1));
+    int ldc = Math.max(1, maybeC.stride(1));
+    if (blasPolicy().isNativeMatrixMatrix(m, n, k)) {
+      blas.sgemm(transA.getCblasString(), transB.getCblasString(), m, n, k, alpha, aa,
+          a.getOffset(), lda, ba, b.getOffset(), ldb, beta, ca, maybeC.getOffset(), ldc);
+    } else {
+      JavaBlas.sgemm(transA.getCblasString(), transB.getCblasString(), m, n, k, alpha, aa,
+          a.getOffset(), lda, ba, b.getOffset(), ldb, beta, ca, maybeC.getOffset(), ldc);
+    }
+    if (maybeC != c) {
+      c.assign(maybeC);
+    }
+  }
+
+  private float[] getBackingArray(FloatArray a) {
+    return ((NetlibFloatArray) a).getBackingArray();
+  }
+
+  private FloatArray asBlasMatrix(FloatArray a) {
+    if (a instanceof NetlibFloatArray && a.stride(0) == 1 && a.stride(1) >= a.size(0)) {
+      return a;
+    }
+    FloatArray copy = backend.getArrayFactory().newFloatArray(a.getShape());
+    copy.assign(a);
+    return copy;
+  }
+
+  private FloatArray asBlasVector(FloatArray x) {
+    if (x instanceof NetlibFloatArray && getVectorMajorStride(x) > 0) {
+      return x;
+    }
+    FloatArray copy = backend.getArrayFactory().newFloatArray(x.getShape());
+    copy.assign(x);
+    return copy;
+  }
+
+  /**
+   * Returns the policy deciding if the native BLAS or the Java kernels are used
+   */
+  private BlasPolicy blasPolicy() {
+    BlasPolicy policy = backend instanceof NetlibArrayBackend
+        ? ((NetlibArrayBackend) backend).getBlasPolicy() : BlasPolicy.getDefault();
+    return BlasPolicy.current(policy);
+  }
+
+  /**
+   * Returns the given matrix if it can be passed to the BLAS (with the column stride as leading
+   * dimension) or a copy which can.
+   */
+  private DoubleArray asBlasMatrix(DoubleArray a) {
+    if (a instanceof NetlibDoubleArray && a.stride(0) == 1 && a.stride(1) >= a.size(0)) {
+      return a;
+    }
+    DoubleArray copy = backend.getArrayFactory().newDoubleArray(a.getShape());
+    copy.assign(a);
+    return copy;
+  }
+
+  /**
+   * Returns the given vector if it can be passed to the BLAS or a copy which can.
+   */
+  private DoubleArray asBlasVector(DoubleArray x) {
+    if (x instanceof NetlibDoubleArray && getVectorMajorStride(x) > 0) {
+      return x;
+    }
+    DoubleArray copy = backend.getArrayFactory().newDoubleArray(x.getShape());
+    copy.assign(x);
+    return copy;
+  }
+
+  @Override
+  public ComplexArray plus(ComplexArray a, ComplexArray b) {
+    if (a instanceof NetlibComplexArray && b instanceof NetlibComplexArray) {
+      return Arrays.broadcastCombine(a, b, (x, y) -> {
+        ComplexArray out = x.newEmptyArray(x.getShape());
+        combine(x, y, out, false);
+        return out;
+      });
+    } else {
+      return super.plus(a, b);
+    }
+  }
+
+  @Override
+  public void plusAssign(ComplexArray a, ComplexArray out) {
+    if (a instanceof NetlibComplexArray && out instanceof NetlibComplexArray) {
+      Arrays.broadcastWith(out, a, (x, y) -> combine(x, y, x, false));
+    } else {
+      super.plusAssign(a, out);
+    }
+  }
+
+  @Override
+  public ComplexArray times(ComplexArray a, ComplexArray b) {
+    if (a instanceof NetlibComplexArray && b instanceof NetlibComplexArray) {
+      return Arrays.broadcastCombine(a, b, (x, y) -> {
+        ComplexArray out = x.newEmptyArray(x.getShape());
+        combine(x, y, out, true);
+        return out;
+      });
+    } else {
+      return super.times(a, b);
+    }
+  }
+
+  @Override
+  public void timesAssign(ComplexArray a, ComplexArray out) {
+    if (a instanceof NetlibComplexArray && out instanceof NetlibComplexArray) {
+      Arrays.broadcastWith(out, a, (x, y) -> combine(x, y, x, true));
+    } else {
+      super.timesAssign(a, out);
+    }
+  }
+
+  /**
+   * Computes {@code out = x + y} (or {@code out = x * y} if {@code multiply} is true) directly on
+   * the interleaved storage of the arrays (of the same shape).
+   */
+  private void combine(ComplexArray x, ComplexArray y, ComplexArray out, boolean multiply) {
+    double[] xa = getBackingArray(x), ya = getBackingArray(y), oa = getBackingArray(out);
+    parallelPolicy().execute(out.size(), (start, end) -> {
+      StridedLoop loop = StridedLoop.range(start, end, out, x, y);
+      while (loop.next()) {
+        int o = loop.offset(0) * 2, os = loop.stride(0) * 2;
+        int p = loop.offset(1) * 2, ps = loop.stride(1) * 2;
+        int q = loop.offset(2) * 2, qs = loop.stride(2) * 2;
+        int n = loop.length();
+        if (multiply) {
+          for (int i = 0; i < n; i++, o += os, p += ps, q += qs) {
+            double re = xa[p] * ya[q] - xa[p + 1] * ya[q + 1];
+            double im = xa[p] * ya[q + 1] + xa[p + 1] * ya[q];
+            oa[o] = re;
+            oa[o + 1] = im;
+          }
+        } else {
+          for (int i = 0; i < n; i++, o += os, p += ps, q += qs) {
+            oa[o] = xa[p] + ya[q];
+            oa[o + 1] = xa[p + 1] + ya[q + 1];
+          }
+        }
+      }
+    });
+  }
+
+  @Override
+  public Complex conjugateInner(ComplexArray a, ComplexArray b) {
+    if (a instanceof NetlibComplexArray && b instanceof NetlibComplexArray) {
+      Check.argument(a.isVector() && b.isVector(), VECTOR_REQUIRED);
+      Check.size(a, b);
+      double[] xa = getBackingArray(a), ya = getBackingArray(b);
+      int ps = getVectorMajorStride(a) * 2, qs = getVectorMajorStride(b) * 2;
+      int p = a.getOffset() * 2, q = b.getOffset() * 2;
+      double re = 0, im = 0;
+      for (int i = 0, n = a.size(); i < n; i++, p += ps, q += qs) {
+        re += xa[p] * ya[q] + xa[p + 1] * ya[q + 1];
+        im += xa[p] * ya[q + 1] - xa[p + 1] * ya[q];
+      }
+      return new Complex(re, im);
+    } else {
+      return super.conjugateInner(a, b);
+    }
+  }
+
+  @Override
+  public Complex norm2(ComplexArray a) {
+    int inc = getVectorMajorStride(a);
+    if (a instanceof NetlibComplexArray && inc > 0) {
+      Check.argument(a.isVector(), VECTOR_REQUIRED);
+      double[] data = getBackingArray(a);
+      int n = a.size(), offset = a.getOffset() * 2;
+      if (inc == 1) {
+        // the real and imaginary parts of contiguous elements are a contiguous vector
+        return Complex.valueOf(blas.dnrm2(n * 2, data, offset, 1));
+      } else {
+        return Complex.valueOf(Math.hypot(blas.dnrm2(n, data, offset, inc * 2),
+            blas.dnrm2(n, data, offset + 1, inc * 2)));
+      }
+    } else {
+      return super.norm2(a);
+    }
+  }
+
+  private double[] getBackingArray(ComplexArray a) {
+    return ((NetlibComplexArray) a).getBackingArray();
+  }
+
+  @Override
+  public int sum(BooleanArray x) {
+    if (x instanceof NetlibBooleanArray) {
+      return ((NetlibBooleanArray) x).cardinality();
+    } else {
+      return super.sum(x);
+    }
+  }
+
+  @Override
+  public BooleanArray and(BooleanArray a, BooleanArray b) {
+    if (a instanceof NetlibBooleanArray && b instanceof NetlibBooleanArray) {
+      return combine(a, b, NetlibBooleanArray.AND);
+    } else {
+      return super.and(a, b);
+    }
+  }
+
+  @Override
+  public BooleanArray or(BooleanArray a, BooleanArray b) {
+    if (a instanceof NetlibBooleanArray && b instanceof NetlibBooleanArray) {
+      return combine(a, b, NetlibBooleanArray.OR);
+    } else {
+      return super.or(a, b);
+    }
+  }
+
+  @Override
+  public BooleanArray xor(BooleanArray a, BooleanArray b) {
+    if (a instanceof NetlibBooleanArray && b instanceof NetlibBooleanArray) {
+      return combine(a, b, NetlibBooleanArray.XOR);
+    } else {
+      return super.xor(a, b);
+    }
+  }
+
+  private BooleanArray combine(BooleanArray a, BooleanArray b, int op) {
+    return Arrays.broadcastCombine(a, b, (x, y) -> {
+      NetlibBooleanArray out = (NetlibBooleanArray) x.newEmptyArray(x.getShape());
+      NetlibBooleanArray.combine((NetlibBooleanArray) x, (NetlibBooleanArray) y, out, op);
+      return out;
+    });
+  }
+
   @Override
   public <T extends BaseArray<T>> void copy(T from, T to) {
     // This is a naive optimization that relies on the fact that netlib arrays expose their
@@ -21,41 +21,76 @@
 package org.briljantframework.array.netlib;
 
 import java.util.Objects;
+import java.util.function.IntConsumer;
 
 import org.briljantframework.array.AbstractBooleanArray;
 import org.briljantframework.array.BooleanArray;
+import org.briljantframework.array.StridedLoop;
 import org.briljantframework.array.api.ArrayBackend;
 
 /**
+ * A boolean array packing 64 elements in each {@code long}, i.e., the element at memory location
+ * {@code i} is the {@code i % 64}:th bit of the {@code i / 64}:th word.
+ *
+ * <p/>
+ * Logical operations ({@link #not()} and the {@code and}, {@code or} and {@code xor} routines of
+ * {@link NetlibArrayRoutines}), counting and iterating the elements which are true process 64
+ * elements at a time for each block of consecutive elements. Note that setting an element writes
+ * the complete word, so (as for {@link java.util.BitSet}) concurrently setting elements stored in
+ * the same word requires external synchronization.
+ *
  * @author Isak Karlsson
  */
 class NetlibBooleanArray extends AbstractBooleanArray {
 
-  private final boolean[] data;
+  static final int AND = 0;
+  static final int OR = 1;
+  static final int XOR = 2;
+  static final int NOT = 3;
+
+  private static final int ADDRESS_BITS = 6;
+  private static final int WORD_MASK = 63;
+
+  private final long[] words;
+  private final int length;
 
   NetlibBooleanArray(ArrayBackend backend, int size) {
     super(backend, size);
-    data = new boolean[size];
+    this.length = size;
+    this.words = new long[numberOfWords(size)];
   }
 
   NetlibBooleanArray(ArrayBackend backend, boolean[] data) {
     super(backend, Objects.requireNonNull(data).length);
-    this.data = data;
+    this.length = data.length;
+    this.words = new long[numberOfWords(data.length)];
+    for (int i = 0; i < data.length; i++) {
+      if (data[i]) {
+        words[i >>> ADDRESS_BITS] |= 1L << i;
+      }
+    }
   }
 
   NetlibBooleanArray(ArrayBackend bj, int[] shape) {
     super(bj, shape);
-    this.data = new boolean[size()];
+    this.length = size();
+    this.words = new long[numberOfWords(length)];
   }
 
-  private NetlibBooleanArray(ArrayBackend bj, int offset, int[] shape, int[] stride, boolean[] data) {
+  private NetlibBooleanArray(ArrayBackend bj, int offset, int[] shape, int[] stride, long[] words,
+      int length) {
     super(bj, offset, shape, stride);
-    this.data = data;
+    this.words = words;
+    this.length = length;
+  }
+
+  private static int numberOfWords(int size) {
+    return (size + WORD_MASK) >>> ADDRESS_BITS;
   }
 
   @Override
   public BooleanArray asView(int offset, int[] shape, int[] stride) {
-    return new NetlibBooleanArray(getArrayBackend(), offset, shape, stride, data);
+    return new NetlibBooleanArray(getArrayBackend(), offset, shape, stride, words, length);
   }
 
   @Override
@@ -63,18 +98,222 @@ class NetlibBooleanArray extends AbstractBooleanArray {
     return new NetlibBooleanArray(getArrayBackend(), shape);
   }
 
+  @Override
+  public BooleanArray copy() {
+    if (getOffset() == 0 && size() == length && isDense()) {
+      return new NetlibBooleanArray(getArrayBackend(), 0, getShape(), getStride(), words.clone(),
+          length);
+    }
+    return super.copy();
+  }
+
   @Override
   protected int elementSize() {
-    return data.length;
+    return length;
   }
 
   @Override
   public boolean getElement(int index) {
-    return data[index];
+    return (words[index >>> ADDRESS_BITS] & (1L << index)) != 0;
   }
 
   @Override
   public void setElement(int index, boolean value) {
-    data[index] = value;
+    if (value) {
+      words[index >>> ADDRESS_BITS] |= 1L << index;
+    } else {
+      words[index >>> ADDRESS_BITS] &= ~(1L << index);
+    }
+  }
+
+  @Override
+  public BooleanArray not() {
+    NetlibBooleanArray out = (NetlibBooleanArray) newEmptyArray(getShape());
+    combine(this, this, out, NOT);
+    return out;
+  }
+
+  @Override
+  public boolean any() {
+    StridedLoop loop = StridedLoop.of(this);
+    while (loop.next()) {
+      int p = loop.offset(0), ps = loop.stride(0), n = loop.length();
+      if (ps == 1) {
+        if (countBits(words, p, n, true) > 0) {
+          return true;
+        }
+      } else {
+        for (int i = 0; i < n; i++, p += ps) {
+          if (getElement(p)) {
+            return true;
+          }
+        }
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public boolean all() {
+    StridedLoop loop = StridedLoop.of(this);
+    while (loop.next()) {
+      int p = loop.offset(0), ps = loop.stride(0), n = loop.length();
+      if (ps == 1) {
+        if (countBits(words, p, n, false) < n) {
+          return false;
+        }
+      } else {
+        for (int i = 0; i < n; i++, p += ps) {
+          if (!getElement(p)) {
+            return false;
+          }
+        }
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public void forEachTrue(IntConsumer action) {
+    StridedLoop loop = StridedLoop.of(this);
+    while (loop.next()) {
+      int p = loop.offset(0), ps = loop.stride(0), n = loop.length();
+      if (ps == 1) {
+        // the linear index of the element at memory location p
+        int base = loop.position() - p;
+        int end = p + n;
+        while (p < end) {
+          int k = p >>> ADDRESS_BITS;
+          int len = Math.min(64 - (p & WORD_MASK), end - p);
+          long word = words[k] & mask(p, len);
+          while (word != 0) {
+            action.accept(base + (k << ADDRESS_BITS) + Long.numberOfTrailingZeros(word));
+            word &= word - 1;
+          }
+          p += len;
+        }
+      } else {
+        int index = loop.position();
+        for (int i = 0; i < n; i++, p += ps) {
+          if (getElement(p)) {
+            action.accept(index + i);
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns the number of elements which are true
+   *
+   * @return the number of true elements
+   */
+  int cardinality() {
+    int count = 0;
+    StridedLoop loop = StridedLoop.of(this);
+    while (loop.next()) {
+      int p = loop.offset(0), ps = loop.stride(0), n = loop.length();
+      if (ps == 1) {
+        count += countBits(words, p, n, false);
+      } else {
+        for (int i = 0; i < n; i++, p += ps) {
+          if (getElement(p)) {
+            count++;
+          }
+        }
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Computes {@code out = x op y} (or {@code out = !x} if {@code op} is {@link #NOT}) for arrays
+   * of the same shape. Blocks of consecutive elements are computed a word at a time.
+   */
+  static void combine(NetlibBooleanArray x, NetlibBooleanArray y, NetlibBooleanArray out, int op) {
+    long[] xw = x.words, yw = y.words, ow = out.words;
+    StridedLoop loop = StridedLoop.of(out, x, y);
+    while (loop.next()) {
+      int o = loop.offset(0), os = loop.stride(0);
+      int p = loop.offset(1), ps = loop.stride(1);
+      int q = loop.offset(2), qs = loop.stride(2);
+      int n = loop.length();
+      if (os == 1 && ps == 1 && qs == 1) {
+        int end = o + n;
+        while (o < end) {
+          int len = Math.min(64 - (o & WORD_MASK), end - o);
+          long v = apply(op, bits(xw, p), bits(yw, q)) << o;
+          long mask = mask(o, len);
+          int k = o >>> ADDRESS_BITS;
+          ow[k] = (ow[k] & ~mask) | (v & mask);
+          o += len;
+          p += len;
+          q += len;
+        }
+      } else {
+        for (int i = 0; i < n; i++, o += os, p += ps, q += qs) {
+          out.setElement(o, (apply(op, x.getElement(p) ? 1 : 0, y.getElement(q) ? 1 : 0) & 1) != 0);
+        }
+      }
+    }
+  }
+
+  private static long apply(int op, long a, long b) {
+    switch (op) {
+      case AND:
+        return a & b;
+      case OR:
+        return a | b;
+      case XOR:
+        return a ^ b;
+      case NOT:
+        return ~a;
+      default:
+        throw new IllegalArgumentException();
+    }
+  }
+
+  /**
+   * Returns the (at most) 64 bits starting at the given bit
+   */
+  private static long bits(long[] words, int bit) {
+    int k = bit >>> ADDRESS_BITS;
+    int shift = bit & WORD_MASK;
+    long value = words[k] >>> shift;
+    if (shift != 0 && k + 1 < words.length) {
+      value |= words[k + 1] << (64 - shift);
+    }
+    return value;
+  }
+
+  /**
+   * Returns a mask of the {@code len} bits starting at bit {@code bit % 64} of a word (where
+   * {@code bit % 64 + len <= 64})
+   */
+  private static long mask(int bit, int len) {
+    return (len == 64 ? -1L : (1L << len) - 1) << bit;
+  }
+
+  /**
+   * Count the number of set bits among the {@code n} bits starting at {@code bit}, optionally
+   * stopping at the first set bit
+   */
+  private static int countBits(long[] words, int bit, int n, boolean stopAtFirst) {
+    int count = 0;
+    int end = bit + n;
+    while (bit < end) {
+      int len = Math.min(64 - (bit & WORD_MASK), end - bit);
+      count += Long.bitCount(words[bit >>> ADDRESS_BITS] & mask(bit, len));
+      if (stopAtFirst && count > 0) {
+        return count;
+      }
+      bit += len;
+    }
+    return count;
+  }
+
+  private boolean isDense() {
+    StridedLoop loop = StridedLoop.of(this);
+    return !loop.next() || loop.length() == size() && (size() == 1 || loop.stride(0) == 1);
   }
 }
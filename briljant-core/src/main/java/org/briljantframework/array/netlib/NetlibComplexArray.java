@@ -25,32 +25,53 @@ import java.util.Objects;
 import org.apache.commons.math3.complex.Complex;
 import org.briljantframework.array.AbstractComplexArray;
 import org.briljantframework.array.ComplexArray;
+import org.briljantframework.array.StridedLoop;
 import org.briljantframework.array.api.ArrayBackend;
 
 /**
+ * A complex array storing the real and imaginary parts of the elements interleaved in a
+ * {@code double[]}, i.e., the element at memory location {@code i} is stored at {@code 2 * i}
+ * (real) and {@code 2 * i + 1} (imaginary). Setting an element does not allocate and the storage
+ * is compatible with the {@code z}-routines of BLAS and LAPACK.
+ *
  * @author Isak Karlsson
  */
 class NetlibComplexArray extends AbstractComplexArray {
 
-  private Complex[] data;
-  private Complex defaultValue = Complex.ZERO;
+  private final double[] data;
 
   NetlibComplexArray(ArrayBackend bj, int size) {
     super(bj, size);
-    this.data = new Complex[size];
+    this.data = new double[size * 2];
   }
 
   NetlibComplexArray(ArrayBackend bj, Complex[] data) {
     super(bj, Objects.requireNonNull(data).length);
-    this.data = data;
+    this.data = new double[data.length * 2];
+    for (int i = 0; i < data.length; i++) {
+      Complex c = data[i];
+      if (c != null) {
+        this.data[i * 2] = c.getReal();
+        this.data[i * 2 + 1] = c.getImaginary();
+      }
+    }
   }
 
   NetlibComplexArray(ArrayBackend bj, int[] shape) {
     super(bj, shape);
-    this.data = new Complex[size()];
+    this.data = new double[size() * 2];
+  }
+
+  /**
+   * Create a new vector from interleaved real and imaginary parts (the array is not copied)
+   */
+  NetlibComplexArray(ArrayBackend bj, double[] data) {
+    super(bj, Objects.requireNonNull(data).length / 2);
+    this.data = data;
   }
 
-  private NetlibComplexArray(ArrayBackend bj, int offset, int[] shape, int[] stride, Complex[] data) {
+  private NetlibComplexArray(ArrayBackend bj, int offset, int[] shape, int[] stride,
+      double[] data) {
     super(bj, offset, shape, stride);
     this.data = data;
   }
@@ -65,23 +86,51 @@ class NetlibComplexArray extends AbstractComplexArray {
     return new NetlibComplexArray(getArrayBackend(), shape);
   }
 
+  @Override
+  public ComplexArray copy() {
+    return new NetlibComplexArray(getArrayBackend(), data()).reshape(getShape());
+  }
+
+  @Override
+  public double[] data() {
+    double[] copy = new double[size() * 2];
+    StridedLoop loop = StridedLoop.of(this);
+    int j = 0;
+    while (loop.next()) {
+      int p = loop.offset(0) * 2, ps = loop.stride(0) * 2, n = loop.length();
+      if (ps == 2) {
+        System.arraycopy(data, p, copy, j, n * 2);
+        j += n * 2;
+      } else {
+        for (int i = 0; i < n; i++, p += ps) {
+          copy[j++] = data[p];
+          copy[j++] = data[p + 1];
+        }
+      }
+    }
+    return copy;
+  }
+
   @Override
   protected int elementSize() {
-    return data.length;
+    return data.length / 2;
   }
 
   @Override
   protected Complex getElement(int i) {
-    Complex r = data[i];
-    if (r == null) {
-      return defaultValue;
-    } else {
-      return r;
-    }
+    return new Complex(data[i * 2], data[i * 2 + 1]);
   }
 
   @Override
   protected void setElement(int i, Complex value) {
-    data[i] = value;
+    data[i * 2] = value.getReal();
+    data[i * 2 + 1] = value.getImaginary();
+  }
+
+  /**
+   * Returns the interleaved real and imaginary parts of the elements
+   */
+  double[] getBackingArray() {
+    return data;
   }
 }
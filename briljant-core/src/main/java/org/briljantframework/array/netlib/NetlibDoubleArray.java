@@ -23,12 +23,13 @@ package org.briljantframework.array.netlib;
 import java.util.Arrays;
 import java.util.Objects;
 
-import net.mintern.primitive.Primitive;
 import net.mintern.primitive.comparators.DoubleComparator;
 
 import org.briljantframework.array.AbstractDoubleArray;
 import org.briljantframework.array.DoubleArray;
 import org.briljantframework.array.api.ArrayBackend;
+import org.briljantframework.util.sort.MergeSort;
+import org.briljantframework.util.sort.RadixSort;
 
 import com.github.fommil.netlib.BLAS;
 
@@ -79,10 +80,19 @@ class NetlibDoubleArray extends AbstractDoubleArray {
     return super.copy();
   }
 
+  @Override
+  public void sort() {
+    if (!isView() && isVector() && stride(0) == 1) {
+      RadixSort.sort(data, getOffset(), getOffset() + size());
+    } else {
+      super.sort();
+    }
+  }
+
   @Override
   public void sort(DoubleComparator cmp) {
     if (!isView() && isVector() && stride(0) == 1) {
-      Primitive.sort(data, getOffset(), size(), cmp);
+      MergeSort.sort(parallelPolicy(), data, getOffset(), getOffset() + size(), cmp);
     } else {
       super.sort(cmp);
     }
@@ -98,7 +108,8 @@ class NetlibDoubleArray extends AbstractDoubleArray {
     data[i] = value;
   }
 
-  double[] getBackingArray() {
+  @Override
+  protected double[] getBackingArray() {
     return data;
   }
 }
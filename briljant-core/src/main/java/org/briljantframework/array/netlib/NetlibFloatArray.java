@@ -0,0 +1,92 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 Isak Karlsson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.briljantframework.array.netlib;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+import org.briljantframework.array.AbstractFloatArray;
+import org.briljantframework.array.FloatArray;
+import org.briljantframework.array.api.ArrayBackend;
+
+/**
+ * A float array stored in a {@code float[]}, which can be passed to the single precision BLAS
+ * routines.
+ *
+ * @author Isak Karlsson
+ */
+class NetlibFloatArray extends AbstractFloatArray {
+
+  private final float[] data;
+
+  NetlibFloatArray(ArrayBackend bj, float[] data) {
+    super(bj, new int[] {Objects.requireNonNull(data).length});
+    this.data = data;
+  }
+
+  NetlibFloatArray(ArrayBackend bj, int[] shape) {
+    super(bj, shape);
+    this.data = new float[size()];
+  }
+
+  private NetlibFloatArray(ArrayBackend bj, int offset, int[] shape, int[] stride, float[] data) {
+    super(bj, offset, shape, stride);
+    this.data = data;
+  }
+
+  @Override
+  public FloatArray asView(int offset, int[] shape, int[] stride) {
+    return new NetlibFloatArray(getArrayBackend(), offset, shape, stride, data);
+  }
+
+  @Override
+  public FloatArray newEmptyArray(int... shape) {
+    return new NetlibFloatArray(getArrayBackend(), shape);
+  }
+
+  @Override
+  protected int elementSize() {
+    return data.length;
+  }
+
+  @Override
+  public FloatArray copy() {
+    if (dims() == 1 && stride(0) == 1 && getOffset() == 0) {
+      return new NetlibFloatArray(getArrayBackend(), Arrays.copyOf(data, size()));
+    }
+    return super.copy();
+  }
+
+  @Override
+  protected float getElement(int i) {
+    return data[i];
+  }
+
+  @Override
+  protected void setElement(int i, float value) {
+    data[i] = value;
+  }
+
+  @Override
+  protected float[] getBackingArray() {
+    return data;
+  }
+}
@@ -20,12 +20,13 @@
  */
 package org.briljantframework.array.netlib;
 
-import net.mintern.primitive.Primitive;
 import net.mintern.primitive.comparators.IntComparator;
 
 import org.briljantframework.array.AbstractIntArray;
 import org.briljantframework.array.IntArray;
 import org.briljantframework.array.api.ArrayBackend;
+import org.briljantframework.util.sort.MergeSort;
+import org.briljantframework.util.sort.RadixSort;
 
 /**
  * @author Isak Karlsson
@@ -54,10 +55,19 @@ class NetlibIntArray extends AbstractIntArray {
     this.data = data;
   }
 
+  @Override
+  public void sort() {
+    if (!isView() && isVector() && stride(0) == 1) {
+      RadixSort.sort(data, getOffset(), getOffset() + size());
+    } else {
+      super.sort();
+    }
+  }
+
   @Override
   public void sort(IntComparator cmp) {
     if (!isView() && isVector() && stride(0) == 1) {
-      Primitive.sort(data, getOffset(), size(), cmp);
+      MergeSort.sort(parallelPolicy(), data, getOffset(), getOffset() + size(), cmp);
     } else {
       super.sort(cmp);
     }
@@ -88,7 +98,8 @@ class NetlibIntArray extends AbstractIntArray {
     return data.length;
   }
 
-  int[] getBackingArray() {
+  @Override
+  protected int[] getBackingArray() {
     return data;
   }
 }
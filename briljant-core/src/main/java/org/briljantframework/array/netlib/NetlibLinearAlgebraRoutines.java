@@ -127,20 +127,15 @@ class NetlibLinearAlgebraRoutines extends AbstractLinearAlgebraRoutines {
     }
     int m = c.rows();
     int n = c.columns();
-    int k = m;
-    if (side == 'r') {
-      k = n;
-    }
-    int lda = Math.max(1, m);
-    if (side == 'r') {
-      lda = Math.max(1, n);
-    }
-    Check.argument(tau.isVector() && tau.size() == k);
 
-    int ldc = c.rows();
-    if (c.columns() != n) {
-      throw new IllegalArgumentException();
-    }
+    // The number of elementary reflectors defining Q (i.e., min(m, n) of the factorized matrix)
+    int k = tau.size();
+    Check.argument(tau.isVector(), "tau must be a vector");
+    Check.argument(a.rows() == (side == 'l' ? m : n) && a.columns() >= k,
+        "a has size (%d, %d); expected (%d, >= %d)", a.rows(), a.columns(), side == 'l' ? m : n,
+        k);
+    int lda = Math.max(1, a.rows());
+    int ldc = Math.max(1, c.rows());
 
     double[] aa = getData(a);
     double[] ta = getData(tau);
@@ -398,6 +393,61 @@ class NetlibLinearAlgebraRoutines extends AbstractLinearAlgebraRoutines {
     return info.val;
   }
 
+  @Override
+  public int potrf(char uplo, DoubleArray a) {
+    uplo = Character.toLowerCase(uplo);
+    if (!UPLO_CHAR.contains(uplo)) {
+      throw invalidCharacter("uplo", uplo, UPLO_CHAR);
+    }
+    Check.argument(a.isMatrix() && a.isSquare(), "a must be a square 2d-array");
+    int n = a.rows();
+    DoubleArray aCopy = copyIfView(a);
+    intW info = new intW(0);
+    lapack.dpotrf(String.valueOf(uplo), n, getBackingArray(aCopy), Math.max(1, n), info);
+    ensureValidParameterInfo(info);
+    copyToIfNeeded(a, aCopy);
+    return info.val;
+  }
+
+  @Override
+  public int potrs(char uplo, DoubleArray a, DoubleArray b) {
+    uplo = Character.toLowerCase(uplo);
+    if (!UPLO_CHAR.contains(uplo)) {
+      throw invalidCharacter("uplo", uplo, UPLO_CHAR);
+    }
+    Check.argument(a.isMatrix() && a.isSquare(), "a must be a square 2d-array");
+    Check.argument(b.dims() <= 2, "b must be a 1d- or 2d-array");
+    if (a.rows() != b.size(0)) {
+      throw new MultiDimensionMismatchException(a, b);
+    }
+    int n = a.rows();
+    int nrhs = b.dims() == 2 ? b.columns() : 1;
+    DoubleArray aCopy = copyIfView(a);
+    DoubleArray bCopy = copyIfView(b);
+    intW info = new intW(0);
+    lapack.dpotrs(String.valueOf(uplo), n, nrhs, getBackingArray(aCopy), Math.max(1, n),
+        getBackingArray(bCopy), Math.max(1, n), info);
+    ensureValidParameterInfo(info);
+    copyToIfNeeded(b, bCopy);
+    return info.val;
+  }
+
+  @Override
+  public int potri(char uplo, DoubleArray a) {
+    uplo = Character.toLowerCase(uplo);
+    if (!UPLO_CHAR.contains(uplo)) {
+      throw invalidCharacter("uplo", uplo, UPLO_CHAR);
+    }
+    Check.argument(a.isMatrix() && a.isSquare(), "a must be a square 2d-array");
+    int n = a.rows();
+    DoubleArray aCopy = copyIfView(a);
+    intW info = new intW(0);
+    lapack.dpotri(String.valueOf(uplo), n, getBackingArray(aCopy), Math.max(1, n), info);
+    ensureValidParameterInfo(info);
+    copyToIfNeeded(a, aCopy);
+    return info.val;
+  }
+
   @Override
   public int gelsy(DoubleArray a, DoubleArray b, IntArray jpvt, double rcond) {
     int m = a.rows();
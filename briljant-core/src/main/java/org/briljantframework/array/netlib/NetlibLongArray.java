@@ -22,12 +22,13 @@ package org.briljantframework.array.netlib;
 
 import java.util.Objects;
 
-import net.mintern.primitive.Primitive;
 import net.mintern.primitive.comparators.LongComparator;
 
 import org.briljantframework.array.AbstractLongArray;
 import org.briljantframework.array.LongArray;
 import org.briljantframework.array.api.ArrayBackend;
+import org.briljantframework.util.sort.MergeSort;
+import org.briljantframework.util.sort.RadixSort;
 
 /**
  * @author Isak Karlsson
@@ -51,10 +52,19 @@ class NetlibLongArray extends AbstractLongArray {
     this.data = data;
   }
 
+  @Override
+  public void sort() {
+    if (!isView() && isVector() && stride(0) == 1) {
+      RadixSort.sort(data, getOffset(), getOffset() + size());
+    } else {
+      super.sort();
+    }
+  }
+
   @Override
   public void sort(LongComparator cmp) {
     if (!isView() && isVector() && stride(0) == 1) {
-      Primitive.sort(data(), getOffset(), size(), cmp);
+      MergeSort.sort(parallelPolicy(), data, getOffset(), getOffset() + size(), cmp);
     } else {
       super.sort(cmp);
     }
@@ -84,4 +94,9 @@ class NetlibLongArray extends AbstractLongArray {
   protected int elementSize() {
     return data.length;
   }
+
+  @Override
+  protected long[] getBackingArray() {
+    return data;
+  }
 }
@@ -0,0 +1,243 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 Isak Karlsson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.briljantframework.array.sparse;
+
+import java.util.Arrays;
+
+import org.briljantframework.Check;
+
+/**
+ * The non-zero elements of a sparse matrix stored in compressed form, i.e., as the minor indexes
+ * and values of the non-zero elements ordered by major and then minor index together with one
+ * pointer per major index to the position of its first element. For a compressed sparse row (CSR)
+ * matrix the major index is the row; for a compressed sparse column (CSC) matrix it is the column.
+ *
+ * @author Isak Karlsson
+ */
+final class CompressedStorage {
+
+  private final int majors;
+  private final int minors;
+  private final int[] pointers;
+  private int[] indexes;
+  private double[] values;
+
+  private CompressedStorage(int majors, int minors, int[] pointers, int[] indexes,
+      double[] values) {
+    this.majors = majors;
+    this.minors = minors;
+    this.pointers = pointers;
+    this.indexes = indexes;
+    this.values = values;
+  }
+
+  /**
+   * Create a storage from the given (unordered) elements. Duplicate elements are summed and zeros
+   * are dropped.
+   *
+   * @param majors the number of major indexes
+   * @param minors the number of minor indexes
+   * @param major the major index of each element
+   * @param minor the minor index of each element
+   * @param value the value of each element
+   * @return a new storage
+   */
+  static CompressedStorage of(int majors, int minors, int[] major, int[] minor, double[] value) {
+    Check.argument(majors >= 0 && minors >= 0, "negative shape");
+    Check.argument(major.length == minor.length && minor.length == value.length,
+        "index and value arrays must have the same length");
+    int n = value.length;
+    for (int i = 0; i < n; i++) {
+      if (major[i] < 0 || major[i] >= majors || minor[i] < 0 || minor[i] >= minors) {
+        throw new IndexOutOfBoundsException(
+            String.format("(%d, %d) is out of bounds", major[i], minor[i]));
+      }
+    }
+
+    // a stable counting sort by minor followed by one by major orders the elements by both
+    int[] byMinor = countingSort(minor, minors, identity(n));
+    int[] order = countingSort(major, majors, byMinor);
+
+    int[] pointers = new int[majors + 1];
+    int[] indexes = new int[n];
+    double[] values = new double[n];
+    int nnz = 0;
+    for (int k = 0; k < n;) {
+      int e = order[k];
+      int ma = major[e], mi = minor[e];
+      double sum = 0;
+      for (; k < n && major[order[k]] == ma && minor[order[k]] == mi; k++) {
+        sum += value[order[k]];
+      }
+      if (sum != 0) {
+        indexes[nnz] = mi;
+        values[nnz] = sum;
+        pointers[ma + 1]++;
+        nnz++;
+      }
+    }
+    for (int i = 0; i < majors; i++) {
+      pointers[i + 1] += pointers[i];
+    }
+    return new CompressedStorage(majors, minors, pointers, indexes, values);
+  }
+
+  private static int[] identity(int n) {
+    int[] identity = new int[n];
+    for (int i = 0; i < n; i++) {
+      identity[i] = i;
+    }
+    return identity;
+  }
+
+  /**
+   * Returns the elements of {@code order} stably sorted by {@code key[order[i]]}
+   */
+  private static int[] countingSort(int[] key, int keys, int[] order) {
+    int[] start = new int[keys + 1];
+    for (int e : order) {
+      start[key[e] + 1]++;
+    }
+    for (int i = 0; i < keys; i++) {
+      start[i + 1] += start[i];
+    }
+    int[] sorted = new int[order.length];
+    for (int e : order) {
+      sorted[start[key[e]]++] = e;
+    }
+    return sorted;
+  }
+
+  int majors() {
+    return majors;
+  }
+
+  int minors() {
+    return minors;
+  }
+
+  int nonZeros() {
+    return pointers[majors];
+  }
+
+  /**
+   * Returns the pointers, where the elements of major index {@code i} are at the positions
+   * {@code [pointers[i], pointers[i + 1])} of {@link #indexes()} and {@link #values()}
+   */
+  int[] pointers() {
+    return pointers;
+  }
+
+  int[] indexes() {
+    return indexes;
+  }
+
+  double[] values() {
+    return values;
+  }
+
+  /**
+   * Apply the action to each stored element, passing the (row, column) coordinates of a CSR
+   * matrix or a CSC matrix depending on the layout
+   */
+  void forEachNonZero(SparseDoubleArray.Layout layout, SparseDoubleArray.NonZeroConsumer action) {
+    boolean csr = layout == SparseDoubleArray.Layout.CSR;
+    for (int i = 0; i < majors; i++) {
+      for (int k = pointers[i]; k < pointers[i + 1]; k++) {
+        if (csr) {
+          action.accept(i, indexes[k], values[k]);
+        } else {
+          action.accept(indexes[k], i, values[k]);
+        }
+      }
+    }
+  }
+
+  double get(int major, int minor) {
+    int p = find(major, minor);
+    return p >= 0 ? values[p] : 0;
+  }
+
+  /**
+   * Set the value of the element. Setting an element not already stored requires moving all
+   * elements with larger major index and is hence proportional to the number of non-zeros.
+   */
+  void set(int major, int minor, double value) {
+    int p = find(major, minor);
+    if (p >= 0) {
+      values[p] = value;
+    } else if (value != 0) {
+      insert(-p - 1, major, minor, value);
+    }
+  }
+
+  private int find(int major, int minor) {
+    return Arrays.binarySearch(indexes, pointers[major], pointers[major + 1], minor);
+  }
+
+  private void insert(int position, int major, int minor, double value) {
+    int nnz = nonZeros();
+    if (nnz == indexes.length) {
+      int capacity = Math.max(8, nnz + (nnz >> 1));
+      indexes = Arrays.copyOf(indexes, capacity);
+      values = Arrays.copyOf(values, capacity);
+    }
+    System.arraycopy(indexes, position, indexes, position + 1, nnz - position);
+    System.arraycopy(values, position, values, position + 1, nnz - position);
+    indexes[position] = minor;
+    values[position] = value;
+    for (int i = major + 1; i <= majors; i++) {
+      pointers[i]++;
+    }
+  }
+
+  /**
+   * Returns the transpose of this storage, i.e., the storage with major and minor indexes swapped
+   * (which for the same matrix is the storage in the other layout).
+   */
+  CompressedStorage transpose() {
+    int nnz = nonZeros();
+    int[] tPointers = new int[minors + 1];
+    for (int k = 0; k < nnz; k++) {
+      tPointers[indexes[k] + 1]++;
+    }
+    for (int i = 0; i < minors; i++) {
+      tPointers[i + 1] += tPointers[i];
+    }
+    int[] next = Arrays.copyOf(tPointers, minors);
+    int[] tIndexes = new int[nnz];
+    double[] tValues = new double[nnz];
+    for (int i = 0; i < majors; i++) {
+      for (int k = pointers[i]; k < pointers[i + 1]; k++) {
+        int p = next[indexes[k]]++;
+        tIndexes[p] = i;
+        tValues[p] = values[k];
+      }
+    }
+    return new CompressedStorage(minors, majors, tPointers, tIndexes, tValues);
+  }
+
+  CompressedStorage copy() {
+    int nnz = nonZeros();
+    return new CompressedStorage(majors, minors, pointers.clone(), Arrays.copyOf(indexes, nnz),
+        Arrays.copyOf(values, nnz));
+  }
+}
@@ -0,0 +1,297 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 Isak Karlsson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.briljantframework.array.sparse;
+
+import org.briljantframework.Check;
+import org.briljantframework.array.AbstractDoubleArray;
+import org.briljantframework.array.DoubleArray;
+import org.briljantframework.array.api.ArrayBackend;
+
+/**
+ * A sparse matrix storing only its non-zero elements, in either compressed sparse row
+ * ({@link Layout#CSR}) or compressed sparse column ({@link Layout#CSC}) layout. The memory
+ * required is proportional to the number of non-zero elements and the number of rows (CSR) or
+ * columns (CSC).
+ *
+ * <p/>
+ * A sparse matrix is a complete {@link DoubleArray}, but only some operations are proportional to
+ * the number of non-zero elements. The routines {@code gemv}, {@code gemm}, {@code axpy},
+ * {@code inner} and the row and column reductions of
+ * {@link org.briljantframework.array.api.ArrayRoutines} are (when the sparse matrix is not a view),
+ * as are {@link #forEachNonZero(NonZeroConsumer)}, {@link #copy()}, {@link #toLayout(Layout)} and
+ * {@link #toDense()}. Other operations, and operations on views (e.g. the {@link #transpose()}),
+ * access the elements one at a time using a binary search. Operations that create new arrays (e.g.
+ * {@link #map(java.util.function.DoubleUnaryOperator)}) create dense arrays.
+ *
+ * <p/>
+ * Setting an element which is not already stored is proportional to the number of non-zeros, so
+ * sparse matrices should be created from the coordinates of their non-zero elements:
+ *
+ * <pre>
+ * ArrayFactory bj = Arrays.getArrayBackend().getArrayFactory();
+ * SparseDoubleArray x =
+ *     bj.newSparseDoubleArray(SparseDoubleArray.Layout.CSR, 100000, 10000, rows, cols, values);
+ * DoubleArray y = Arrays.dot(x, w);
+ * </pre>
+ *
+ * Since the {@link DoubleArray}-family is indexed by {@code int}, the number of rows times the
+ * number of columns must be smaller than {@code 2^31}. Larger matrices (e.g., with {@code 10^6}
+ * rows and {@code 10^5} columns) are represented by {@link SparseMatrix}, which only requires the
+ * number of non-zero elements to be smaller than {@code 2^31}.
+ *
+ * @author Isak Karlsson
+ */
+public final class SparseDoubleArray extends AbstractDoubleArray {
+
+  private final Layout layout;
+  private final CompressedStorage storage;
+  private final int storageRows;
+
+  SparseDoubleArray(ArrayBackend bj, Layout layout, CompressedStorage storage) {
+    super(bj, layout == Layout.CSR ? new int[] {storage.majors(), storage.minors()}
+        : new int[] {storage.minors(), storage.majors()});
+    this.layout = layout;
+    this.storage = storage;
+    this.storageRows = rows();
+  }
+
+  private SparseDoubleArray(ArrayBackend bj, int offset, int[] shape, int[] stride, Layout layout,
+      CompressedStorage storage, int storageRows) {
+    super(bj, offset, shape, stride);
+    this.layout = layout;
+    this.storage = storage;
+    this.storageRows = storageRows;
+  }
+
+  /**
+   * Create a sparse matrix from the coordinates and values of its non-zero elements. The elements
+   * may be given in any order. Duplicate elements are summed.
+   *
+   * @param bj the array backend
+   * @param layout the layout
+   * @param rows the number of rows
+   * @param columns the number of columns
+   * @param rowIndexes the row index of each element
+   * @param columnIndexes the column index of each element
+   * @param values the value of each element
+   * @return a new sparse matrix
+   */
+  public static SparseDoubleArray of(ArrayBackend bj, Layout layout, int rows, int columns,
+      int[] rowIndexes, int[] columnIndexes, double[] values) {
+    Check.argument((long) rows * columns <= Integer.MAX_VALUE,
+        "too many elements for a DoubleArray (use SparseMatrix)");
+    CompressedStorage storage = layout == Layout.CSR
+        ? CompressedStorage.of(rows, columns, rowIndexes, columnIndexes, values)
+        : CompressedStorage.of(columns, rows, columnIndexes, rowIndexes, values);
+    return new SparseDoubleArray(bj, layout, storage);
+  }
+
+  /**
+   * Create a sparse matrix with the non-zero elements of the given dense matrix.
+   *
+   * @param bj the array backend
+   * @param layout the layout
+   * @param dense the matrix
+   * @return a new sparse matrix
+   */
+  public static SparseDoubleArray of(ArrayBackend bj, Layout layout, DoubleArray dense) {
+    Check.argument(dense.isMatrix(), "require 2d-array");
+    int rows = dense.rows(), columns = dense.columns();
+    int nnz = 0;
+    for (int j = 0; j < columns; j++) {
+      for (int i = 0; i < rows; i++) {
+        if (dense.get(i, j) != 0) {
+          nnz++;
+        }
+      }
+    }
+    int[] rowIndexes = new int[nnz], columnIndexes = new int[nnz];
+    double[] values = new double[nnz];
+    for (int j = 0, k = 0; j < columns; j++) {
+      for (int i = 0; i < rows; i++) {
+        double v = dense.get(i, j);
+        if (v != 0) {
+          rowIndexes[k] = i;
+          columnIndexes[k] = j;
+          values[k++] = v;
+        }
+      }
+    }
+    return of(bj, layout, rows, columns, rowIndexes, columnIndexes, values);
+  }
+
+  /**
+   * Returns the layout of the non-zero elements
+   *
+   * @return the layout
+   */
+  public Layout getLayout() {
+    return layout;
+  }
+
+  /**
+   * Returns the number of stored elements (of the full matrix, if this is a view)
+   *
+   * @return the number of non-zero elements
+   */
+  public int nonZeros() {
+    return storage.nonZeros();
+  }
+
+  /**
+   * Apply the action to each stored element (of the full matrix, if this is a view) in the order
+   * of the layout, i.e., row by row for CSR and column by column for CSC.
+   *
+   * @param action the action
+   */
+  public void forEachNonZero(NonZeroConsumer action) {
+    storage.forEachNonZero(layout, action);
+  }
+
+  /**
+   * Returns a dense copy of this matrix
+   *
+   * @return a dense matrix
+   */
+  public DoubleArray toDense() {
+    DoubleArray dense = getArrayBackend().getArrayFactory().newDoubleArray(rows(), columns());
+    if (isStorage()) {
+      forEachNonZero(dense::set);
+    } else {
+      dense.assign(this);
+    }
+    return dense;
+  }
+
+  /**
+   * Returns a copy of this matrix in the given layout
+   *
+   * @param layout the layout
+   * @return a new sparse matrix
+   */
+  public SparseDoubleArray toLayout(Layout layout) {
+    if (!isStorage()) {
+      return of(getArrayBackend(), layout, this);
+    }
+    return new SparseDoubleArray(getArrayBackend(), layout,
+        layout == this.layout ? storage.copy() : storage.transpose());
+  }
+
+  /**
+   * Returns true if this array is the full matrix of the storage (i.e., not a view of it)
+   */
+  boolean isStorage() {
+    return !isView() && isMatrix() && rows() == storageRows
+        && size() == storage.majors() * storage.minors();
+  }
+
+  /**
+   * Returns a {@link SparseMatrix} with the elements of this array, sharing the non-zero elements
+   * unless this array is a view
+   *
+   * @return a sparse matrix
+   */
+  public SparseMatrix toSparseMatrix() {
+    if (isStorage()) {
+      return new SparseMatrix(getArrayBackend(), layout, storage);
+    }
+    SparseDoubleArray copy = of(getArrayBackend(), layout, this);
+    return new SparseMatrix(getArrayBackend(), layout, copy.storage);
+  }
+
+  CompressedStorage getStorage() {
+    return storage;
+  }
+
+  @Override
+  public DoubleArray asView(int offset, int[] shape, int[] stride) {
+    return new SparseDoubleArray(getArrayBackend(), offset, shape, stride, layout, storage,
+        storageRows);
+  }
+
+  /**
+   * Returns a new dense array, since the results of (most) operations are dense
+   */
+  @Override
+  public DoubleArray newEmptyArray(int... shape) {
+    return getArrayBackend().getArrayFactory().newDoubleArray(shape);
+  }
+
+  @Override
+  public DoubleArray copy() {
+    if (isStorage()) {
+      return new SparseDoubleArray(getArrayBackend(), layout, storage.copy());
+    }
+    return super.copy();
+  }
+
+  @Override
+  protected double getElement(int i) {
+    int row = i % storageRows, column = i / storageRows;
+    return layout == Layout.CSR ? storage.get(row, column) : storage.get(column, row);
+  }
+
+  @Override
+  protected void setElement(int i, double value) {
+    int row = i % storageRows, column = i / storageRows;
+    if (layout == Layout.CSR) {
+      storage.set(row, column, value);
+    } else {
+      storage.set(column, row, value);
+    }
+  }
+
+  @Override
+  protected int elementSize() {
+    return storage.majors() * storage.minors();
+  }
+
+  /**
+   * The layout of the non-zero elements of a sparse matrix
+   */
+  public enum Layout {
+    /**
+     * Compressed sparse row, i.e., the non-zero elements are stored row by row
+     */
+    CSR,
+
+    /**
+     * Compressed sparse column, i.e., the non-zero elements are stored column by column
+     */
+    CSC
+  }
+
+  /**
+   * An action applied to a non-zero element of a sparse matrix
+   */
+  @FunctionalInterface
+  public interface NonZeroConsumer {
+
+    /**
+     * Apply the action to the element
+     *
+     * @param row the row index
+     * @param column the column index
+     * @param value the value
+     */
+    void accept(int row, int column, double value);
+  }
+}
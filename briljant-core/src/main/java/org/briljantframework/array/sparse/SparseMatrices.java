@@ -0,0 +1,402 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 Isak Karlsson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.briljantframework.array.sparse;
+
+import org.briljantframework.Check;
+import org.briljantframework.array.DoubleArray;
+import org.briljantframework.array.api.ParallelPolicy;
+
+/**
+ * Routines on {@linkplain SparseDoubleArray sparse matrices} whose cost is proportional to the
+ * number of non-zero elements (and the size of the dense operands), rather than to the number of
+ * elements of the sparse matrix. The routines are used by
+ * {@link org.briljantframework.array.api.ArrayRoutines} for sparse operands that are not views
+ * (see {@link #isSparse(DoubleArray)}); the dimensions are assumed to be validated by the caller.
+ *
+ * <p/>
+ * Products are computed in one of two ways: if each row of {@code op(a)} is a stored vector (i.e.,
+ * a CSR matrix or a transposed CSC matrix), each element of the result is the inner product of a
+ * stored vector and the dense operand, and the rows are computed in parallel. Otherwise, each
+ * stored vector is scaled and added to the result.
+ *
+ * @author Isak Karlsson
+ */
+public final class SparseMatrices {
+
+  private static final int SUM = 0;
+  private static final int MIN = 1;
+  private static final int MAX = 2;
+
+  private SparseMatrices() {}
+
+  /**
+   * Returns true if {@code x} is a sparse matrix which is not a view, i.e., if the routines of
+   * this class can be used.
+   *
+   * @param x the array
+   * @return true if sparse
+   */
+  public static boolean isSparse(DoubleArray x) {
+    return x instanceof SparseDoubleArray && ((SparseDoubleArray) x).isStorage();
+  }
+
+  /**
+   * Computes {@code y = alpha * op(a) * x + beta * y}
+   *
+   * @param policy the policy deciding if the rows are computed in parallel
+   * @param transA true if a should be transposed
+   * @param alpha the scalar for {@code op(a) * x}
+   * @param a the sparse matrix
+   * @param x the vector
+   * @param beta the scalar for y
+   * @param y the output vector
+   */
+  public static void gemv(ParallelPolicy policy, boolean transA, double alpha,
+      SparseDoubleArray a, DoubleArray x, double beta, DoubleArray y) {
+    gemv(policy, a.getStorage(), isRowMajor(a.getLayout(), transA), alpha, x, beta, y);
+  }
+
+  static void gemv(ParallelPolicy policy, CompressedStorage s, boolean rowMajor, double alpha,
+      DoubleArray x, double beta, DoubleArray y) {
+    double[] xs = toArray(x);
+    double[] ys = beta == 0 ? new double[y.size()] : toArray(y);
+    if (rowMajor) {
+      policy.execute(s.majors(), (from, to) -> gather(s, alpha, xs, 0, beta, ys, 0, from, to));
+    } else {
+      scatter(s, alpha, xs, 0, beta, ys, 0);
+    }
+    for (int i = 0; i < ys.length; i++) {
+      y.set(i, ys[i]);
+    }
+  }
+
+  /**
+   * Computes {@code c = alpha * op(a) * op(b) + beta * c} for a sparse matrix {@code a} and a
+   * dense matrix {@code b}. The columns of {@code c} are computed in parallel.
+   *
+   * @param policy the policy deciding if the columns are computed in parallel
+   * @param transA true if a should be transposed
+   * @param transB true if b should be transposed
+   * @param alpha the scalar for {@code op(a) * op(b)}
+   * @param a the sparse matrix
+   * @param b the dense matrix
+   * @param beta the scalar for c
+   * @param c the output matrix
+   */
+  public static void gemm(ParallelPolicy policy, boolean transA, boolean transB, double alpha,
+      SparseDoubleArray a, DoubleArray b, double beta, DoubleArray c) {
+    gemm(policy, a.getStorage(), isRowMajor(a.getLayout(), transA),
+        transA ? a.rows() : a.columns(), transB, alpha, b, beta, c);
+  }
+
+  /**
+   * Computes {@code c = alpha * op(a) * op(b) + beta * c}, where {@code op(a)} is given by its
+   * storage, the orientation of the stored vectors and its number of columns {@code k}
+   */
+  static void gemm(ParallelPolicy policy, CompressedStorage s, boolean rowMajor, int k,
+      boolean transB, double alpha, DoubleArray b, double beta, DoubleArray c) {
+    int m = c.rows(), n = c.columns();
+    if (n == 0) {
+      return;
+    }
+    long work = Math.max(1, s.nonZeros() + m + k);
+    int size = (int) Math.min(Integer.MAX_VALUE, n * work);
+    policy.execute(size, (start, end) -> {
+      int from = (int) ((long) start * n / size);
+      int to = (int) ((long) end * n / size);
+      double[] bs = new double[k];
+      double[] cs = new double[m];
+      for (int j = from; j < to; j++) {
+        for (int p = 0; p < k; p++) {
+          bs[p] = transB ? b.get(j, p) : b.get(p, j);
+        }
+        for (int i = 0; i < m; i++) {
+          cs[i] = beta == 0 ? 0 : c.get(i, j);
+        }
+        if (rowMajor) {
+          gather(s, alpha, bs, 0, beta, cs, 0, 0, s.majors());
+        } else {
+          scatter(s, alpha, bs, 0, beta, cs, 0);
+        }
+        for (int i = 0; i < m; i++) {
+          c.set(i, j, cs[i]);
+        }
+      }
+    });
+  }
+
+  /**
+   * Computes {@code y = alpha * x + y} (visiting only the non-zero elements of {@code x})
+   *
+   * @param alpha the scalar
+   * @param x the sparse matrix
+   * @param y an array with the same number of elements
+   */
+  public static void axpy(double alpha, SparseDoubleArray x, DoubleArray y) {
+    if (alpha == 0) {
+      return;
+    }
+    int rows = x.rows();
+    x.forEachNonZero((i, j, v) -> {
+      int index = i + j * rows;
+      y.set(index, y.get(index) + alpha * v);
+    });
+  }
+
+  /**
+   * Returns the inner product of a sparse (row or column) vector and an array with the same number
+   * of elements
+   *
+   * @param a the sparse vector
+   * @param b the array
+   * @return the inner product
+   */
+  public static double inner(SparseDoubleArray a, DoubleArray b) {
+    CompressedStorage s = a.getStorage();
+    int[] pointers = s.pointers(), indexes = s.indexes();
+    double[] values = s.values();
+    int rows = a.rows();
+    boolean csr = a.getLayout() == SparseDoubleArray.Layout.CSR;
+    double sum = 0;
+    for (int i = 0; i < s.majors(); i++) {
+      for (int p = pointers[i]; p < pointers[i + 1]; p++) {
+        int index = csr ? i + indexes[p] * rows : indexes[p] + i * rows;
+        sum += values[p] * b.get(index);
+      }
+    }
+    return sum;
+  }
+
+  /**
+   * Returns the sum of all elements
+   *
+   * @param x the sparse matrix
+   * @return the sum
+   */
+  public static double sum(SparseDoubleArray x) {
+    CompressedStorage s = x.getStorage();
+    double[] values = s.values();
+    double sum = 0;
+    for (int i = 0, nnz = s.nonZeros(); i < nnz; i++) {
+      sum += values[i];
+    }
+    return sum;
+  }
+
+  /**
+   * Returns the sum along the given dimension, i.e., the column sums ({@code dim = 0}) or the row
+   * sums ({@code dim = 1})
+   *
+   * @param dim the dimension
+   * @param x the sparse matrix
+   * @return a dense vector of sums
+   */
+  public static DoubleArray sum(int dim, SparseDoubleArray x) {
+    return result(x, dim, reduce(dim, x, SUM));
+  }
+
+  /**
+   * Returns the mean along the given dimension
+   *
+   * @see #sum(int, SparseDoubleArray)
+   */
+  public static DoubleArray mean(int dim, SparseDoubleArray x) {
+    double[] sum = reduce(dim, x, SUM);
+    int n = x.size(dim);
+    for (int i = 0; i < sum.length; i++) {
+      sum[i] /= n;
+    }
+    return result(x, dim, sum);
+  }
+
+  /**
+   * Returns the (population) variance along the given dimension. The variance is computed in two
+   * passes over the non-zero elements: the squared deviations of the implicit zeros from the mean
+   * are added without visiting them.
+   *
+   * @see #sum(int, SparseDoubleArray)
+   */
+  public static DoubleArray var(int dim, SparseDoubleArray x) {
+    return result(x, dim, variance(dim, x));
+  }
+
+  /**
+   * Returns the (population) standard deviation along the given dimension
+   *
+   * @see #var(int, SparseDoubleArray)
+   */
+  public static DoubleArray std(int dim, SparseDoubleArray x) {
+    double[] var = variance(dim, x);
+    for (int i = 0; i < var.length; i++) {
+      var[i] = Math.sqrt(var[i]);
+    }
+    return result(x, dim, var);
+  }
+
+  /**
+   * Returns the minimum along the given dimension (including the implicit zeros)
+   *
+   * @see #sum(int, SparseDoubleArray)
+   */
+  public static DoubleArray min(int dim, SparseDoubleArray x) {
+    return result(x, dim, reduce(dim, x, MIN));
+  }
+
+  /**
+   * Returns the maximum along the given dimension (including the implicit zeros)
+   *
+   * @see #sum(int, SparseDoubleArray)
+   */
+  public static DoubleArray max(int dim, SparseDoubleArray x) {
+    return result(x, dim, reduce(dim, x, MAX));
+  }
+
+  /**
+   * Returns true if the rows of {@code op(a)} are the stored vectors of a
+   */
+  static boolean isRowMajor(SparseDoubleArray.Layout layout, boolean transA) {
+    return (layout == SparseDoubleArray.Layout.CSR) != transA;
+  }
+
+  /**
+   * Computes {@code y[i] = alpha * dot(a[i], x) + beta * y[i]} for the stored vectors
+   * {@code [from, to)}
+   */
+  private static void gather(CompressedStorage a, double alpha, double[] x, int xo, double beta,
+      double[] y, int yo, int from, int to) {
+    int[] pointers = a.pointers(), indexes = a.indexes();
+    double[] values = a.values();
+    for (int i = from; i < to; i++) {
+      double sum = 0;
+      for (int p = pointers[i], end = pointers[i + 1]; p < end; p++) {
+        sum += values[p] * x[xo + indexes[p]];
+      }
+      y[yo + i] = beta == 0 ? alpha * sum : alpha * sum + beta * y[yo + i];
+    }
+  }
+
+  /**
+   * Computes {@code y = alpha * sum(a[j] * x[j]) + beta * y} for the stored vectors {@code a[j]}
+   */
+  private static void scatter(CompressedStorage a, double alpha, double[] x, int xo, double beta,
+      double[] y, int yo) {
+    if (beta != 1) {
+      for (int i = 0; i < a.minors(); i++) {
+        y[yo + i] = beta == 0 ? 0 : beta * y[yo + i];
+      }
+    }
+    int[] pointers = a.pointers(), indexes = a.indexes();
+    double[] values = a.values();
+    for (int j = 0; j < a.majors(); j++) {
+      double xj = alpha * x[xo + j];
+      if (xj != 0) {
+        for (int p = pointers[j], end = pointers[j + 1]; p < end; p++) {
+          y[yo + indexes[p]] += values[p] * xj;
+        }
+      }
+    }
+  }
+
+  /**
+   * Reduce the stored elements of each vector along {@code dim}, accounting for the implicit zeros
+   */
+  private static double[] reduce(int dim, SparseDoubleArray x, int op) {
+    Check.argument(dim == 0 || dim == 1, "illegal dimension %s for 2d-array", dim);
+    CompressedStorage s = x.getStorage();
+    int[] pointers = s.pointers(), indexes = s.indexes();
+    double[] values = s.values();
+    // the output has one element per column (dim = 0) or row (dim = 1)
+    boolean perMajor = (x.getLayout() == SparseDoubleArray.Layout.CSR) == (dim == 1);
+    double[] acc = new double[perMajor ? s.majors() : s.minors()];
+    int[] count = new int[acc.length];
+    if (op != SUM) {
+      java.util.Arrays.fill(acc, op == MIN ? Double.POSITIVE_INFINITY : Double.NEGATIVE_INFINITY);
+    }
+    for (int i = 0; i < s.majors(); i++) {
+      for (int p = pointers[i]; p < pointers[i + 1]; p++) {
+        int o = perMajor ? i : indexes[p];
+        double v = values[p];
+        switch (op) {
+          case SUM:
+            acc[o] += v;
+            break;
+          case MIN:
+            acc[o] = Math.min(acc[o], v);
+            break;
+          default:
+            acc[o] = Math.max(acc[o], v);
+        }
+        count[o]++;
+      }
+    }
+    if (op != SUM) {
+      int n = x.size(dim);
+      for (int o = 0; o < acc.length; o++) {
+        if (count[o] < n) {
+          acc[o] = op == MIN ? Math.min(acc[o], 0) : Math.max(acc[o], 0);
+        }
+      }
+    }
+    return acc;
+  }
+
+  private static double[] variance(int dim, SparseDoubleArray x) {
+    double[] mean = reduce(dim, x, SUM);
+    int n = x.size(dim);
+    for (int o = 0; o < mean.length; o++) {
+      mean[o] /= n;
+    }
+    CompressedStorage s = x.getStorage();
+    int[] pointers = s.pointers(), indexes = s.indexes();
+    double[] values = s.values();
+    boolean perMajor = (x.getLayout() == SparseDoubleArray.Layout.CSR) == (dim == 1);
+    double[] ss = new double[mean.length];
+    int[] count = new int[mean.length];
+    for (int i = 0; i < s.majors(); i++) {
+      for (int p = pointers[i]; p < pointers[i + 1]; p++) {
+        int o = perMajor ? i : indexes[p];
+        double d = values[p] - mean[o];
+        ss[o] += d * d;
+        count[o]++;
+      }
+    }
+    for (int o = 0; o < ss.length; o++) {
+      ss[o] = (ss[o] + (n - count[o]) * mean[o] * mean[o]) / n;
+    }
+    return ss;
+  }
+
+  private static DoubleArray result(SparseDoubleArray x, int dim, double[] values) {
+    DoubleArray result = x.newEmptyArray(x.size(dim == 0 ? 1 : 0));
+    for (int i = 0; i < values.length; i++) {
+      result.set(i, values[i]);
+    }
+    return result;
+  }
+
+  private static double[] toArray(DoubleArray x) {
+    double[] array = new double[x.size()];
+    for (int i = 0; i < array.length; i++) {
+      array[i] = x.get(i);
+    }
+    return array;
+  }
+}
@@ -0,0 +1,267 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 Isak Karlsson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.briljantframework.array.sparse;
+
+import org.briljantframework.Check;
+import org.briljantframework.array.ArrayOperation;
+import org.briljantframework.array.DoubleArray;
+import org.briljantframework.array.api.ArrayBackend;
+import org.briljantframework.array.api.ParallelPolicy;
+import org.briljantframework.exceptions.MultiDimensionMismatchException;
+
+/**
+ * A sparse matrix in compressed sparse row ({@link SparseDoubleArray.Layout#CSR}) or column
+ * ({@link SparseDoubleArray.Layout#CSC}) layout whose number of elements may exceed
+ * {@code 2^31 - 1}, e.g., a design matrix with {@code 10^6} rows and {@code 10^5} columns. Only
+ * the number of rows, the number of columns and the number of non-zero elements must each be
+ * smaller than {@code 2^31}, and the memory required is proportional to the number of non-zero
+ * elements.
+ *
+ * <p/>
+ * Since the {@link DoubleArray}-family is indexed by {@code int}, such matrices are a separate type
+ * (cf. {@link org.briljantframework.array.direct.LargeDoubleArray}) with the operations that only
+ * visit the non-zero elements: {@link #forEachNonZero(SparseDoubleArray.NonZeroConsumer)},
+ * {@link #gemv(ArrayOperation, double, DoubleArray, double, DoubleArray) gemv},
+ * {@link #gemm(ArrayOperation, ArrayOperation, double, DoubleArray, double, DoubleArray) gemm},
+ * {@link #transpose()} and {@link #toLayout(SparseDoubleArray.Layout)}. Matrices with fewer than
+ * {@code 2^31} elements can be viewed as a {@link SparseDoubleArray} using
+ * {@link #asDoubleArray()}.
+ *
+ * <pre>
+ * SparseMatrix x = SparseMatrix.of(Arrays.getArrayBackend(), SparseDoubleArray.Layout.CSR,
+ *     1000000, 100000, rows, cols, values);
+ * DoubleArray y = Arrays.doubleArray(x.rows());
+ * x.gemv(ArrayOperation.KEEP, 1, w, 0, y);
+ * </pre>
+ *
+ * @author Isak Karlsson
+ */
+public final class SparseMatrix {
+
+  private final ArrayBackend bj;
+  private final SparseDoubleArray.Layout layout;
+  private final CompressedStorage storage;
+
+  SparseMatrix(ArrayBackend bj, SparseDoubleArray.Layout layout, CompressedStorage storage) {
+    this.bj = bj;
+    this.layout = layout;
+    this.storage = storage;
+  }
+
+  /**
+   * Create a sparse matrix from the coordinates and values of its non-zero elements. The elements
+   * may be given in any order. Duplicate elements are summed.
+   *
+   * @param bj the array backend
+   * @param layout the layout
+   * @param rows the number of rows
+   * @param columns the number of columns
+   * @param rowIndexes the row index of each element
+   * @param columnIndexes the column index of each element
+   * @param values the value of each element
+   * @return a new sparse matrix
+   */
+  public static SparseMatrix of(ArrayBackend bj, SparseDoubleArray.Layout layout, int rows,
+      int columns, int[] rowIndexes, int[] columnIndexes, double[] values) {
+    CompressedStorage storage = layout == SparseDoubleArray.Layout.CSR
+        ? CompressedStorage.of(rows, columns, rowIndexes, columnIndexes, values)
+        : CompressedStorage.of(columns, rows, columnIndexes, rowIndexes, values);
+    return new SparseMatrix(bj, layout, storage);
+  }
+
+  /**
+   * Returns the layout of the non-zero elements
+   *
+   * @return the layout
+   */
+  public SparseDoubleArray.Layout getLayout() {
+    return layout;
+  }
+
+  /**
+   * Returns the number of rows
+   *
+   * @return the number of rows
+   */
+  public int rows() {
+    return layout == SparseDoubleArray.Layout.CSR ? storage.majors() : storage.minors();
+  }
+
+  /**
+   * Returns the number of columns
+   *
+   * @return the number of columns
+   */
+  public int columns() {
+    return layout == SparseDoubleArray.Layout.CSR ? storage.minors() : storage.majors();
+  }
+
+  /**
+   * Returns the number of elements (including the zeros)
+   *
+   * @return the number of elements
+   */
+  public long size() {
+    return (long) storage.majors() * storage.minors();
+  }
+
+  /**
+   * Returns the number of stored elements
+   *
+   * @return the number of non-zero elements
+   */
+  public int nonZeros() {
+    return storage.nonZeros();
+  }
+
+  /**
+   * Get the element at the given row and column. Requires a binary search among the elements of
+   * the row (CSR) or column (CSC).
+   *
+   * @param i the row
+   * @param j the column
+   * @return the element
+   */
+  public double get(int i, int j) {
+    Check.index(i, rows(), j, columns());
+    return layout == SparseDoubleArray.Layout.CSR ? storage.get(i, j) : storage.get(j, i);
+  }
+
+  /**
+   * Apply the action to each stored element in the order of the layout, i.e., row by row for CSR
+   * and column by column for CSC.
+   *
+   * @param action the action
+   */
+  public void forEachNonZero(SparseDoubleArray.NonZeroConsumer action) {
+    storage.forEachNonZero(layout, action);
+  }
+
+  /**
+   * Returns the diagonal of this matrix as a dense vector
+   *
+   * @return the diagonal
+   */
+  public DoubleArray getDiagonal() {
+    DoubleArray diagonal = bj.getArrayFactory().newDoubleArray(Math.min(rows(), columns()));
+    forEachNonZero((i, j, v) -> {
+      if (i == j) {
+        diagonal.set(i, v);
+      }
+    });
+    return diagonal;
+  }
+
+  /**
+   * Returns the transpose of this matrix. The transpose shares the non-zero elements with this
+   * matrix, since a CSR matrix is the CSC matrix of its transpose (and vice versa).
+   *
+   * @return the transpose
+   */
+  public SparseMatrix transpose() {
+    return new SparseMatrix(bj,
+        layout == SparseDoubleArray.Layout.CSR ? SparseDoubleArray.Layout.CSC
+            : SparseDoubleArray.Layout.CSR,
+        storage);
+  }
+
+  /**
+   * Returns a copy of this matrix in the given layout
+   *
+   * @param layout the layout
+   * @return a new sparse matrix
+   */
+  public SparseMatrix toLayout(SparseDoubleArray.Layout layout) {
+    return new SparseMatrix(bj, layout,
+        layout == this.layout ? storage.copy() : storage.transpose());
+  }
+
+  /**
+   * Returns a {@link SparseDoubleArray} sharing the non-zero elements with this matrix
+   *
+   * @return a sparse double array
+   * @throws IllegalStateException if the matrix has {@code 2^31} or more elements
+   */
+  public SparseDoubleArray asDoubleArray() {
+    Check.state(size() <= Integer.MAX_VALUE, "Too many elements for a DoubleArray (%d)", size());
+    return new SparseDoubleArray(bj, layout, storage);
+  }
+
+  /**
+   * Matrix-vector multiplication, i.e., {@code y = alpha * op(this) * x + beta * y} where
+   * {@code op(this)} is this matrix or its transpose. Only the non-zero elements are visited.
+   *
+   * @param transA transpose this matrix
+   * @param alpha the scalar for {@code op(this) * x}
+   * @param x the vector to multiply
+   * @param beta the scalar for {@code y}
+   * @param y the result vector
+   */
+  public void gemv(ArrayOperation transA, double alpha, DoubleArray x, double beta, DoubleArray y) {
+    Check.argument(x.isVector() && y.isVector(), "x and y must be vectors");
+    boolean transpose = transA.isTranspose();
+    int m = transpose ? columns() : rows();
+    int n = transpose ? rows() : columns();
+    if (n != x.size()) {
+      throw new MultiDimensionMismatchException(m, n, x.size(), 1);
+    }
+    Check.argument(m == y.size(), "y must have %d elements", m);
+    SparseMatrices.gemv(policy(), storage, SparseMatrices.isRowMajor(layout, transpose), alpha, x,
+        beta, y);
+  }
+
+  /**
+   * Matrix-matrix multiplication, i.e., {@code c = alpha * op(this) * op(b) + beta * c}, where
+   * {@code b} and {@code c} are dense. Only the non-zero elements of this matrix are visited.
+   *
+   * @param transA transpose this matrix
+   * @param transB transpose {@code b}
+   * @param alpha the scalar for {@code op(this) * op(b)}
+   * @param b the dense matrix to multiply
+   * @param beta the scalar for {@code c}
+   * @param c the result matrix
+   */
+  public void gemm(ArrayOperation transA, ArrayOperation transB, double alpha, DoubleArray b,
+      double beta, DoubleArray c) {
+    Check.argument(b.isMatrix() && c.isMatrix(), "b and c must be 2d-arrays");
+    boolean ta = transA.isTranspose(), tb = transB.isTranspose();
+    int m = ta ? columns() : rows();
+    int k = ta ? rows() : columns();
+    int bm = tb ? b.columns() : b.rows();
+    int bn = tb ? b.rows() : b.columns();
+    if (k != bm) {
+      throw new MultiDimensionMismatchException(m, k, bm, bn);
+    }
+    Check.argument(c.rows() == m && c.columns() == bn, "c must be a %dx%d matrix", m, bn);
+    SparseMatrices.gemm(policy(), storage, SparseMatrices.isRowMajor(layout, ta), k, tb, alpha,
+        b, beta, c);
+  }
+
+  private ParallelPolicy policy() {
+    return ParallelPolicy.current(bj.getArrayRoutines().getParallelPolicy());
+  }
+
+  @Override
+  public String toString() {
+    return String.format("SparseMatrix(%d, %d, %s, nnz=%d)", rows(), columns(), layout,
+        nonZeros());
+  }
+}
@@ -34,7 +34,9 @@ import org.briljantframework.data.index.Index;
 import org.briljantframework.data.series.Series;
 import org.briljantframework.data.series.TypeInferenceBuilder;
 import org.briljantframework.data.series.Types;
-import org.briljantframework.data.statistics.FastStatistics;
+import org.briljantframework.data.statistics.StatisticsAccumulator;
+import org.briljantframework.util.primitive.DoubleList;
+import org.briljantframework.util.sort.Selection;
 
 /**
  * Define som common collectors for vectors and data frames.
@@ -263,13 +265,11 @@ public final class Collectors {
   }
 
   public static Collector<Number, ?, StatisticalSummary> statisticalSummary() {
-    return Collector.of(FastStatistics::new, (FastStatistics a, Number v) -> {
+    return Collector.of(StatisticsAccumulator::new, (StatisticsAccumulator a, Number v) -> {
       if (!Is.NA(v)) {
         a.addValue(v.doubleValue());
       }
-    }, (left, right) -> {
-      throw new IllegalStateException("Can't collect statistics in parallel yet.");
-    }, FastStatistics::getSummary);
+    }, StatisticsAccumulator::combine, StatisticsAccumulator::getSummary);
   }
 
   public static <T, A, R, F> Collector<T, ?, F> withFinisher(Collector<T, A, R> collector,
@@ -322,29 +322,22 @@ public final class Collectors {
   }
 
   /**
+   * Returns an aggregator that computes the median. The values are collected without boxing and
+   * the median is selected in linear time (without sorting the values).
+   *
    * @return an aggregator that computes the median.
    */
   public static Collector<Number, ?, Double> median() {
-    return Collector.of(ArrayList::new, ArrayList::add, (left, right) -> {
-      left.addAll(right);
+    return Collector.of(DoubleList::new, (list, v) -> list.add(v.doubleValue()), (left, right) -> {
+      for (int i = 0; i < right.size(); i++) {
+        left.add(right.elementData[i]);
+      }
       return left;
-    }, (ArrayList<Number> list) -> {
-      int size = list.size();
-      if (size == 0) {
+    }, (DoubleList list) -> {
+      if (list.isEmpty()) {
         return Na.of(Double.class);
-      } else if (size == 1) {
-        return list.get(0).doubleValue();
-      } else if (size == 2) {
-        return (list.get(0).doubleValue() + list.get(1).doubleValue()) / 2;
-      } else {
-        list.sort((a, b) -> Double.compare(a.doubleValue(), b.doubleValue()));
-        int index = (size - 1) / 2;
-        if (size % 2 == 0) {
-          return (list.get(index).doubleValue() + list.get(index + 1).doubleValue()) / 2;
-        } else {
-          return list.get(index).doubleValue();
-        }
       }
+      return Selection.percentile(list.elementData, 0, list.size(), 50)[0];
     });
   }
 
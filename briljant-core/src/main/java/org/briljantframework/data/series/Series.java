@@ -36,6 +36,7 @@ import org.apache.commons.math3.stat.descriptive.StatisticalSummary;
 import org.briljantframework.Check;
 import org.briljantframework.array.*;
 import org.briljantframework.data.Collectors;
+import org.briljantframework.data.Is;
 import org.briljantframework.data.Na;
 import org.briljantframework.data.SortOrder;
 import org.briljantframework.data.index.Index;
@@ -781,7 +782,8 @@ public interface Series extends BaseArray<Series>, Collection<Object>, Serializa
    * @return the standard deviation
    */
   default double std() {
-    return collect(Double.class, Collectors.std());
+    double var = var();
+    return Is.NA(var) ? var : Math.sqrt(var);
   }
 
   /**
@@ -790,7 +792,7 @@ public interface Series extends BaseArray<Series>, Collection<Object>, Serializa
    * @return the variance
    */
   default double var() {
-    return collect(Double.class, Collectors.var());
+    return SeriesUtils.var(this);
   }
 
   /**
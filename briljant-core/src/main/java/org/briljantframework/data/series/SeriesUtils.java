@@ -32,12 +32,14 @@ import org.briljantframework.array.Array;
 import org.briljantframework.array.ComplexArray;
 import org.briljantframework.array.DoubleArray;
 import org.briljantframework.array.IntArray;
+import org.briljantframework.array.api.ParallelPolicy;
 import org.briljantframework.data.Is;
 import org.briljantframework.data.Na;
 import org.briljantframework.data.index.Index;
 import org.briljantframework.data.index.RangeIndex;
-import org.briljantframework.data.statistics.FastStatistics;
+import org.briljantframework.data.statistics.StatisticsAccumulator;
 import org.briljantframework.util.sort.QuickSort;
+import org.briljantframework.util.sort.Selection;
 
 /**
  * Utilities for handling series.
@@ -327,14 +329,7 @@ public final class SeriesUtils {
    * @return the descriptive statistics
    */
   public static StatisticalSummary statisticalSummary(Series series) {
-    FastStatistics r = new FastStatistics();
-    for (int i = 0; i < series.size(); i++) {
-      double v = series.loc().getDouble(i);
-      if (!Is.NA(v)) {
-        r.addValue(v);
-      }
-    }
-    return r.getSummary();
+    return StatisticsAccumulator.of(parallelPolicy(), series).getSummary();
   }
 
   /**
@@ -389,7 +384,8 @@ public final class SeriesUtils {
    * @return the variance
    */
   public static double var(Series series) {
-    return var(series, mean(series));
+    StatisticsAccumulator statistics = StatisticsAccumulator.of(parallelPolicy(), series);
+    return statistics.getN() > 0 ? statistics.getVariance() : Na.of(Double.class);
   }
 
   /**
@@ -415,6 +411,42 @@ public final class SeriesUtils {
     return nonNA == 0 ? Na.of(Double.class) : mean / (double) nonNA;
   }
 
+  /**
+   * Computes the given percentiles (between {@code 0} and {@code 100}) of the values in
+   * {@code series}. Ignores {@code NA} values. The percentiles are selected in linear time without
+   * sorting the values.
+   *
+   * @param series the series
+   * @param percentiles the percentiles
+   * @return the value of each percentile; or NA if all values are NA
+   */
+  public static double[] percentile(Series series, double... percentiles) {
+    double[] values = new double[series.size()];
+    int n = 0;
+    for (int i = 0; i < series.size(); i++) {
+      double v = series.loc().getDouble(i);
+      if (!Is.NA(v)) {
+        values[n++] = v;
+      }
+    }
+    if (n == 0) {
+      double[] na = new double[percentiles.length];
+      java.util.Arrays.fill(na, Na.DOUBLE);
+      return na;
+    }
+    return Selection.percentile(values, 0, n, percentiles);
+  }
+
+  /**
+   * Computes the median of the values in {@code series}. Ignores {@code NA} values.
+   *
+   * @param series the series
+   * @return the median; or NA
+   */
+  public static double median(Series series) {
+    return percentile(series, 50)[0];
+  }
+
   /**
    * Computes the sum of values in {@code series}. Ignores {@code NA} values.
    *
@@ -611,6 +643,15 @@ public final class SeriesUtils {
     return builder.build();
   }
 
+  /**
+   * Returns the policy for computing statistics of large series in parallel, i.e., the policy of
+   * the current array routines.
+   */
+  private static ParallelPolicy parallelPolicy() {
+    return ParallelPolicy.current(org.briljantframework.array.Arrays.getArrayBackend()
+        .getArrayRoutines().getParallelPolicy());
+  }
+
   @FunctionalInterface
   public interface IntCmp {
 
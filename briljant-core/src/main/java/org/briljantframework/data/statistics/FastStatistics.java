@@ -25,7 +25,8 @@ import org.apache.commons.math3.stat.descriptive.StatisticalSummaryValues;
 import org.briljantframework.DoubleSequence;
 
 /**
- * A fast implementation of the {@link StatisticalSummary} interface.
+ * A fast implementation of the {@link StatisticalSummary} interface. Use
+ * {@link StatisticsAccumulator} to accumulate values in parallel or to compute higher moments.
  *
  * @author Isak Karlsson
  */
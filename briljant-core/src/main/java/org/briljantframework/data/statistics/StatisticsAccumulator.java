@@ -0,0 +1,251 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 Isak Karlsson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.briljantframework.data.statistics;
+
+import java.util.function.DoubleConsumer;
+
+import org.apache.commons.math3.stat.descriptive.StatisticalSummary;
+import org.apache.commons.math3.stat.descriptive.StatisticalSummaryValues;
+import org.briljantframework.DoubleSequence;
+import org.briljantframework.array.DoubleArray;
+import org.briljantframework.array.api.ParallelPolicy;
+import org.briljantframework.data.Is;
+import org.briljantframework.data.series.Series;
+
+/**
+ * Accumulates the count, sum, minimum, maximum and the first four central moments of a sequence of
+ * values. Unlike {@link FastStatistics}, two accumulators (e.g., of disjoint parts of an array
+ * accumulated by different threads) can be {@linkplain #combine(StatisticsAccumulator) combined}
+ * into the accumulator of all values, using the pairwise update formulas of Chan et al. and Pébay.
+ * The sum is compensated (Neumaier's variant of Kahan summation), so it does not lose precision
+ * when adding many values of different magnitude.
+ *
+ * <pre>
+ * StatisticsAccumulator s = StatisticsAccumulator.of(ParallelPolicy.getDefault(), x);
+ * double skewness = s.getSkewness();
+ * </pre>
+ *
+ * @author Isak Karlsson
+ */
+public class StatisticsAccumulator implements StatisticalSummary, DoubleConsumer {
+
+  private long n = 0;
+  private double mean = 0, m2 = 0, m3 = 0, m4 = 0;
+  private double sum = 0, compensation = 0;
+  private double min = Double.POSITIVE_INFINITY, max = Double.NEGATIVE_INFINITY;
+
+  /**
+   * Accumulate the values of the given array, in parallel if allowed by the policy
+   *
+   * @param policy the parallel policy
+   * @param x the array
+   * @return the accumulated statistics
+   */
+  public static StatisticsAccumulator of(ParallelPolicy policy, DoubleArray x) {
+    return policy.reduce(x.size(), (start, end) -> {
+      StatisticsAccumulator statistics = new StatisticsAccumulator();
+      x.forEachDouble(start, end, statistics);
+      return statistics;
+    }, StatisticsAccumulator::combine);
+  }
+
+  /**
+   * Accumulate the (non-NA) values of the given series, in parallel if allowed by the policy
+   *
+   * @param policy the parallel policy
+   * @param series the series
+   * @return the accumulated statistics
+   */
+  public static StatisticsAccumulator of(ParallelPolicy policy, Series series) {
+    return policy.reduce(series.size(), (start, end) -> {
+      StatisticsAccumulator statistics = new StatisticsAccumulator();
+      for (int i = start; i < end; i++) {
+        double v = series.loc().getDouble(i);
+        if (!Is.NA(v)) {
+          statistics.addValue(v);
+        }
+      }
+      return statistics;
+    }, StatisticsAccumulator::combine);
+  }
+
+  public void addAll(double[] arr) {
+    for (double v : arr) {
+      addValue(v);
+    }
+  }
+
+  public void addAll(DoubleSequence arr) {
+    for (int i = 0; i < arr.size(); i++) {
+      addValue(arr.getDouble(i));
+    }
+  }
+
+  @Override
+  public void accept(double value) {
+    addValue(value);
+  }
+
+  public void addValue(double x) {
+    long n1 = n++;
+    double delta = x - mean;
+    double deltaN = delta / n;
+    double deltaN2 = deltaN * deltaN;
+    double term = delta * deltaN * n1;
+    mean += deltaN;
+    m4 += term * deltaN2 * ((double) n * n - 3 * n + 3) + 6 * deltaN2 * m2 - 4 * deltaN * m3;
+    m3 += term * deltaN * (n - 2) - 3 * deltaN * m2;
+    m2 += term;
+    addToSum(x);
+    if (x < min) {
+      min = x;
+    }
+    if (x > max) {
+      max = x;
+    }
+  }
+
+  /**
+   * Add the values accumulated by {@code other} to this accumulator
+   *
+   * @param other the other accumulator
+   * @return this accumulator
+   */
+  public StatisticsAccumulator combine(StatisticsAccumulator other) {
+    if (other.n == 0) {
+      return this;
+    } else if (n == 0) {
+      n = other.n;
+      mean = other.mean;
+      m2 = other.m2;
+      m3 = other.m3;
+      m4 = other.m4;
+      sum = other.sum;
+      compensation = other.compensation;
+      min = other.min;
+      max = other.max;
+      return this;
+    }
+
+    double na = n, nb = other.n, nx = na + nb;
+    double delta = other.mean - mean;
+    double delta2 = delta * delta;
+    double m2x = m2 + other.m2 + delta2 * na * nb / nx;
+    double m3x = m3 + other.m3 + delta2 * delta * na * nb * (na - nb) / (nx * nx)
+        + 3 * delta * (na * other.m2 - nb * m2) / nx;
+    double m4x = m4 + other.m4
+        + delta2 * delta2 * na * nb * (na * na - na * nb + nb * nb) / (nx * nx * nx)
+        + 6 * delta2 * (na * na * other.m2 + nb * nb * m2) / (nx * nx)
+        + 4 * delta * (na * other.m3 - nb * m3) / nx;
+    mean += delta * nb / nx;
+    m2 = m2x;
+    m3 = m3x;
+    m4 = m4x;
+    n += other.n;
+    addToSum(other.sum);
+    compensation += other.compensation;
+    min = Math.min(min, other.min);
+    max = Math.max(max, other.max);
+    return this;
+  }
+
+  private void addToSum(double x) {
+    double t = sum + x;
+    if (Math.abs(sum) >= Math.abs(x)) {
+      compensation += (sum - t) + x;
+    } else {
+      compensation += (x - t) + sum;
+    }
+    sum = t;
+  }
+
+  public StatisticalSummary getSummary() {
+    return new StatisticalSummaryValues(getMean(), getVariance(), getN(), getMax(), getMin(),
+        getSum());
+  }
+
+  @Override
+  public double getMean() {
+    return mean;
+  }
+
+  /**
+   * Returns the population variance (i.e., the second central moment) or {@code 0} if less than
+   * two values are accumulated.
+   *
+   * @return the variance
+   */
+  @Override
+  public double getVariance() {
+    return n > 1 ? m2 / n : 0;
+  }
+
+  @Override
+  public double getStandardDeviation() {
+    return Math.sqrt(getVariance());
+  }
+
+  /**
+   * Returns the population skewness, i.e., {@code m3 / m2^(3/2)} where {@code mk} is the k:th
+   * central moment or {@code NaN} if the variance is zero.
+   *
+   * @return the skewness
+   */
+  public double getSkewness() {
+    return m2 > 0 ? Math.sqrt(n) * m3 / Math.pow(m2, 1.5) : Double.NaN;
+  }
+
+  /**
+   * Returns the population excess kurtosis, i.e., {@code m4 / m2^2 - 3} where {@code mk} is the
+   * k:th central moment or {@code NaN} if the variance is zero.
+   *
+   * @return the kurtosis
+   */
+  public double getKurtosis() {
+    return m2 > 0 ? n * m4 / (m2 * m2) - 3 : Double.NaN;
+  }
+
+  @Override
+  public double getMax() {
+    return max;
+  }
+
+  @Override
+  public double getMin() {
+    return min;
+  }
+
+  @Override
+  public long getN() {
+    return n;
+  }
+
+  @Override
+  public double getSum() {
+    return sum + compensation;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("StatisticsAccumulator(n=%d, mean=%f, var=%f, min=%f, max=%f)", n,
+        getMean(), getVariance(), min, max);
+  }
+}
@@ -20,12 +20,16 @@
  */
 package org.briljantframework.math.transform;
 
-import org.apache.commons.math3.complex.Complex;
 import org.briljantframework.array.ComplexArray;
 import org.briljantframework.array.DoubleArray;
+import org.briljantframework.array.api.Workspace;
 
 /**
- * Computes the discrete fourier transform.
+ * Computes the discrete fourier transform. The transforms are computed using a cached
+ * {@link FftPlan} for the length of the array, but each call still allocates a copy of the
+ * elements (and the work buffer of the plan, for lengths that are not powers of two). Only
+ * {@link FftPlan#transform(double[], double[])} and {@link FftPlan#inverse(double[], double[])},
+ * given a reused work buffer, are allocation-free.
  * 
  * @author Isak Karlsson
  */
@@ -33,13 +37,28 @@ public final class DiscreteFourierTransform {
 
   private DiscreteFourierTransform() {}
 
-  private static void fftInplace(ComplexArray a) {
-    int n = a.size();
-    if ((n & (n - 1)) == 0) { // n is a power of 2?
-      transformRadix2(a);
-    } else {
-      transformBluestein(a);
-    }
+  /**
+   * Computes the discrete fourier transform of the given array in place.
+   *
+   * @param a the array
+   */
+  public static void fftInplace(ComplexArray a) {
+    FftPlan plan = FftPlan.of(a.size());
+    double[] x = a.data();
+    plan.transform(x, workBuffer(plan));
+    a.assign(x);
+  }
+
+  /**
+   * Computes the discrete fourier transform of the given array in place. The trigonometric tables
+   * are taken from the cached {@link FftPlan} for the length of the array, so the transform
+   * requests no arrays from the workspace.
+   *
+   * @param a the array
+   * @param workspace the workspace
+   */
+  public static void fftInplace(ComplexArray a, Workspace workspace) {
+    fftInplace(a);
   }
 
   public static ComplexArray fft(ComplexArray a) {
@@ -49,147 +68,27 @@ public final class DiscreteFourierTransform {
   }
 
   public static ComplexArray fft(DoubleArray a) {
-    return fft(a.complexArray());
-  }
-
-  public static ComplexArray ifft(ComplexArray a) {
-    ComplexArray copy = ComplexArray.zeros(a.size());
+    FftPlan plan = FftPlan.of(a.size());
+    double[] x = new double[2 * a.size()];
     for (int i = 0; i < a.size(); i++) {
-      Complex c = a.get(i);
-      copy.set(i, new Complex(c.getImaginary(), c.getReal()));
-    }
-    fftInplace(copy);
-
-    int n = copy.size();
-
-    // Reversing and scaling
-    for (int i = 0; i < n; i++) {
-      Complex c = copy.get(i);
-      copy.set(i, new Complex(c.getImaginary() / n, c.getReal() / n));
-    }
-    return copy;
-  }
-
-  private static void transformBluestein(ComplexArray a) {
-    // Find a power-of-2 convolution length m such that m >= n * 2 + 1
-    int n = a.size();
-    if (n >= 0x20000000) { // n >= 536870912
-      throw new IllegalArgumentException("");
-    }
-    int m = Integer.highestOneBit(n * 2 + 1) << 1;
-
-    // Trigonometric tables
-    DoubleArray cosTable = DoubleArray.zeros(n);
-    DoubleArray sinTable = DoubleArray.zeros(n);
-    for (int i = 0; i < n; i++) {
-      int j = (int) ((long) i * i % (n * 2));
-      cosTable.set(i, Math.cos(Math.PI * j / n));
-      sinTable.set(i, Math.sin(Math.PI * j / n));
-    }
-
-    ComplexArray an = ComplexArray.zeros(m);
-    ComplexArray bn = ComplexArray.zeros(m);
-
-    bn.set(0, new Complex(cosTable.get(0), sinTable.get(0)));
-    for (int i = 0; i < n; i++) {
-      double cos = cosTable.get(i);
-      double sin = sinTable.get(i);
-      Complex complex = a.get(i);
-      double real = complex.getReal() * cos + complex.getImaginary() * sin;
-      double imag = -complex.getReal() * sin + complex.getImaginary() * cos;
-      an.set(i, new Complex(real, imag));
-
-      int j = i + 1;
-      if (j < n) {
-        Complex bcVal = Complex.valueOf(cosTable.get(j), sinTable.get(j));
-        bn.set(j, bcVal);
-        bn.set(m - j, bcVal);
-      }
-    }
-
-    // Convolution
-    ComplexArray cc = convolve(an, bn);
-    for (int i = 0; i < n; i++) {
-      double cos = cosTable.get(i);
-      double sin = sinTable.get(i);
-
-      Complex cv = cc.get(i);
-      double real = cv.getReal() * cos + cv.getImaginary() * sin;
-      double imag = -cv.getReal() * sin + cv.getImaginary() * cos;
-      a.set(i, new Complex(real, imag));
+      x[2 * i] = a.get(i);
     }
+    plan.transform(x, workBuffer(plan));
+    ComplexArray transform = ComplexArray.zeros(a.getShape());
+    transform.assign(x);
+    return transform;
   }
 
-  /*
-   * Computes the circular convolution of the given complex vectors. Each series's length must be
-   * the same.
-   */
-  private static ComplexArray convolve(ComplexArray x, ComplexArray y) {
-    int n = x.size();
-    ComplexArray xt = fft(x);
-    ComplexArray yt = fft(y);
-
-    for (int i = 0; i < n; i++) {
-      xt.set(i, xt.get(i).multiply(yt.get(i)));
-    }
-
-    // TODO: 02/12/15 performance
-    for (int i = 0; i < n; i++) {
-      Complex complex = xt.get(i);
-      xt.set(i, new Complex(complex.getImaginary(), complex.getReal()));
-    }
-
-    fftInplace(xt); // inverse transform, since xt is reversed above
-    for (int i = 0; i < n; i++) {
-      Complex c = xt.get(i);
-      xt.set(i, Complex.valueOf(c.getImaginary() / n, c.getReal() / n));
-    }
-    return xt;
+  public static ComplexArray ifft(ComplexArray a) {
+    FftPlan plan = FftPlan.of(a.size());
+    double[] x = a.data();
+    plan.inverse(x, workBuffer(plan));
+    ComplexArray inverse = ComplexArray.zeros(a.size());
+    inverse.assign(x);
+    return inverse;
   }
 
-  private static void transformRadix2(ComplexArray a) {
-    final int n = a.size();
-    int levels = (int) Math.floor(Math.log(n) / Math.log(2));
-    if (1 << levels != n) {
-      throw new IllegalArgumentException();
-    }
-
-    DoubleArray cosTable = DoubleArray.zeros(n / 2);
-    DoubleArray sinTable = DoubleArray.zeros(n / 2);
-    final double v = 2 * Math.PI;
-    for (int i = 0; i < n / 2; i++) {
-      cosTable.set(i, Math.cos(v * i / n));
-      sinTable.set(i, Math.sin(v * i / n));
-    }
-
-    // Bit-reversed addressing permutation (i.e. even addresses in the first half and odd in the
-    // second half)
-    for (int i = 0; i < n; i++) {
-      int j = Integer.reverse(i) >>> (32 - levels);
-      if (j > i) {
-        a.swap(j, i);
-      }
-    }
-
-    // Cooley-Tukey decimation-in-time radix-2 FFT
-    for (int size = 2; size <= n; size *= 2) {
-      int halfSize = size / 2;
-      int tableStep = n / size;
-      for (int i = 0; i < n; i += size) {
-        for (int j = i, k = 0; j < i + halfSize; j++, k += tableStep) {
-          Complex hjVal = a.get(j + halfSize);
-          Complex jVal = a.get(j);
-          double cos = cosTable.get(k);
-          double sin = sinTable.get(k);
-          double tpre = hjVal.getReal() * cos + hjVal.getImaginary() * sin;
-          double tpim = -hjVal.getReal() * sin + hjVal.getImaginary() * cos;
-          a.set(j + halfSize, new Complex(jVal.getReal() - tpre, jVal.getImaginary() - tpim));
-          a.set(j, new Complex(jVal.getReal() + tpre, jVal.getImaginary() + tpim));
-        }
-      }
-      if (size == n) {
-        break;
-      }
-    }
+  private static double[] workBuffer(FftPlan plan) {
+    return plan.workSize() == 0 ? null : new double[plan.workSize()];
   }
 }
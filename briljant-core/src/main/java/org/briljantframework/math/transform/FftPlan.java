@@ -0,0 +1,265 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 Isak Karlsson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.briljantframework.math.transform;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.briljantframework.Check;
+
+/**
+ * A precomputed plan for computing the discrete fourier transform of a given length. A plan holds
+ * the twiddle factors and bit-reversal permutation (and, for lengths that are not a power of two,
+ * the transformed Bluestein chirp), so that repeated transforms of the same length only perform
+ * the butterflies.
+ *
+ * <p/>
+ * Plans transform complex vectors stored in interleaved {@code double[]} buffers, i.e., the real
+ * part of element {@code i} is stored at {@code 2 * i} and the imaginary part at {@code 2 * i + 1}
+ * (the same layout as {@link org.briljantframework.array.ComplexArray#data()}). Given a work
+ * buffer of (at least) {@link #workSize()} elements, a transform allocates nothing.
+ *
+ * <pre>
+ * FftPlan plan = FftPlan.of(4096);
+ * double[] work = new double[plan.workSize()];
+ * for (double[] frame : frames) {
+ *   plan.transform(frame, work);
+ * }
+ * </pre>
+ *
+ * <p/>
+ * Plans are immutable and can be shared between threads (the work buffer can not).
+ *
+ * @author Isak Karlsson
+ */
+public final class FftPlan {
+
+  /**
+   * The maximum number of plans retained by {@link #of(int)}
+   */
+  private static final int MAX_CACHED_PLANS = 16;
+
+  private static final Map<Integer, FftPlan> CACHE =
+      new LinkedHashMap<Integer, FftPlan>(MAX_CACHED_PLANS, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, FftPlan> eldest) {
+          return size() > MAX_CACHED_PLANS;
+        }
+      };
+
+  private final int n;
+
+  // radix-2: twiddle factors exp(-2 pi i k / n) for k < n / 2 and the bit-reversal permutation
+  private final double[] cos;
+  private final double[] sin;
+  private final int[] reverse;
+
+  // Bluestein: the chirp exp(pi i k^2 / n) and the transform of the (wrapped) chirp, which are
+  // convolved using a radix-2 plan of length m >= 2 * n - 1
+  private final double[] chirp;
+  private final double[] chirpTransform;
+  private final FftPlan convolution;
+
+  private FftPlan(int n) {
+    Check.argument(n > 0, "Illegal transform length: %s", n);
+    this.n = n;
+    if ((n & (n - 1)) == 0) { // n is a power of 2?
+      int levels = Integer.numberOfTrailingZeros(n);
+      this.cos = new double[n / 2];
+      this.sin = new double[n / 2];
+      for (int i = 0; i < n / 2; i++) {
+        cos[i] = Math.cos(2 * Math.PI * i / n);
+        sin[i] = Math.sin(2 * Math.PI * i / n);
+      }
+      this.reverse = new int[n];
+      for (int i = 0; i < n; i++) {
+        reverse[i] = levels == 0 ? 0 : Integer.reverse(i) >>> (32 - levels);
+      }
+      this.chirp = null;
+      this.chirpTransform = null;
+      this.convolution = null;
+    } else {
+      Check.argument(n < 0x20000000, "Illegal transform length: %s", n);
+      int m = Integer.highestOneBit(n * 2 + 1) << 1;
+      this.cos = null;
+      this.sin = null;
+      this.reverse = null;
+      this.chirp = new double[2 * n];
+      for (int i = 0; i < n; i++) {
+        int j = (int) ((long) i * i % (n * 2));
+        chirp[2 * i] = Math.cos(Math.PI * j / n);
+        chirp[2 * i + 1] = Math.sin(Math.PI * j / n);
+      }
+      this.convolution = new FftPlan(m);
+      this.chirpTransform = new double[2 * m];
+      chirpTransform[0] = chirp[0];
+      chirpTransform[1] = chirp[1];
+      for (int i = 1; i < n; i++) {
+        chirpTransform[2 * i] = chirpTransform[2 * (m - i)] = chirp[2 * i];
+        chirpTransform[2 * i + 1] = chirpTransform[2 * (m - i) + 1] = chirp[2 * i + 1];
+      }
+      convolution.transform(chirpTransform, null);
+    }
+  }
+
+  /**
+   * Returns a plan for transforms of length {@code n}. The most recently used plans are cached,
+   * i.e., repeatedly requesting a plan for the same length returns the same plan.
+   *
+   * @param n the length of the transform
+   * @return a plan
+   */
+  public static FftPlan of(int n) {
+    synchronized (CACHE) {
+      FftPlan plan = CACHE.get(n);
+      if (plan == null) {
+        plan = new FftPlan(n);
+        CACHE.put(n, plan);
+      }
+      return plan;
+    }
+  }
+
+  /**
+   * Returns the length of the transforms computed by this plan
+   *
+   * @return the length
+   */
+  public int size() {
+    return n;
+  }
+
+  /**
+   * Returns the minimum size of the work buffer required by this plan (zero if the length is a
+   * power of two)
+   *
+   * @return the size of the work buffer
+   */
+  public int workSize() {
+    return convolution == null ? 0 : 2 * convolution.n;
+  }
+
+  /**
+   * Computes the discrete fourier transform of the {@link #size()} complex values (interleaved
+   * real and imaginary parts) in {@code x} in place.
+   *
+   * @param x the values
+   * @param work a work buffer of at least {@link #workSize()} elements ({@code null} if the size
+   *        is zero)
+   */
+  public void transform(double[] x, double[] work) {
+    execute(x, work, false);
+  }
+
+  /**
+   * Computes the (scaled) inverse discrete fourier transform of the {@link #size()} complex
+   * values (interleaved real and imaginary parts) in {@code x} in place.
+   *
+   * @param x the values
+   * @param work a work buffer of at least {@link #workSize()} elements ({@code null} if the size
+   *        is zero)
+   */
+  public void inverse(double[] x, double[] work) {
+    execute(x, work, true);
+    double scale = 1.0 / n;
+    for (int i = 0; i < 2 * n; i++) {
+      x[i] *= scale;
+    }
+  }
+
+  private void execute(double[] x, double[] work, boolean inverse) {
+    Check.argument(x.length >= 2 * n, "Illegal buffer size: %s < %s", x.length, 2 * n);
+    if (convolution == null) {
+      radix2(x, inverse);
+    } else {
+      Check.argument(work != null && work.length >= workSize(), "Illegal work buffer size");
+      bluestein(x, work, inverse);
+    }
+  }
+
+  /*
+   * Cooley-Tukey decimation-in-time radix-2 FFT. The inverse transform uses the conjugate twiddle
+   * factors and is not scaled.
+   */
+  private void radix2(double[] x, boolean inverse) {
+    for (int i = 0; i < n; i++) {
+      int j = reverse[i];
+      if (j > i) {
+        double re = x[2 * i], im = x[2 * i + 1];
+        x[2 * i] = x[2 * j];
+        x[2 * i + 1] = x[2 * j + 1];
+        x[2 * j] = re;
+        x[2 * j + 1] = im;
+      }
+    }
+
+    double sign = inverse ? -1 : 1;
+    for (int size = 2; size <= n; size *= 2) {
+      int halfSize = size / 2;
+      int tableStep = n / size;
+      for (int i = 0; i < n; i += size) {
+        for (int j = i, k = 0; j < i + halfSize; j++, k += tableStep) {
+          int p = 2 * j, q = 2 * (j + halfSize);
+          double c = cos[k], s = sign * sin[k];
+          double tpre = x[q] * c + x[q + 1] * s;
+          double tpim = -x[q] * s + x[q + 1] * c;
+          x[q] = x[p] - tpre;
+          x[q + 1] = x[p + 1] - tpim;
+          x[p] += tpre;
+          x[p + 1] += tpim;
+        }
+      }
+    }
+  }
+
+  /*
+   * Bluestein's algorithm, i.e., the transform is expressed as the circular convolution of the
+   * input (multiplied by the conjugate chirp) and the chirp. Since the chirp is symmetric, the
+   * transform of the conjugate chirp (used by the inverse) is the conjugate of the transform.
+   */
+  private void bluestein(double[] x, double[] work, boolean inverse) {
+    int m = convolution.n;
+    double sign = inverse ? -1 : 1;
+    for (int i = 0; i < n; i++) {
+      double c = chirp[2 * i], s = sign * chirp[2 * i + 1];
+      double re = x[2 * i], im = x[2 * i + 1];
+      work[2 * i] = re * c + im * s;
+      work[2 * i + 1] = -re * s + im * c;
+    }
+    java.util.Arrays.fill(work, 2 * n, 2 * m, 0);
+
+    convolution.transform(work, null);
+    for (int i = 0; i < m; i++) {
+      double re = work[2 * i], im = work[2 * i + 1];
+      double bre = chirpTransform[2 * i], bim = sign * chirpTransform[2 * i + 1];
+      work[2 * i] = re * bre - im * bim;
+      work[2 * i + 1] = re * bim + im * bre;
+    }
+    convolution.inverse(work, null);
+
+    for (int i = 0; i < n; i++) {
+      double c = chirp[2 * i], s = sign * chirp[2 * i + 1];
+      double re = work[2 * i], im = work[2 * i + 1];
+      x[2 * i] = re * c + im * s;
+      x[2 * i + 1] = -re * s + im * c;
+    }
+  }
+}
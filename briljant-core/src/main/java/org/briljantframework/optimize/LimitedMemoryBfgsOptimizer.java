@@ -23,6 +23,7 @@ package org.briljantframework.optimize;
 import org.briljantframework.Check;
 import org.briljantframework.array.Arrays;
 import org.briljantframework.array.DoubleArray;
+import org.briljantframework.array.api.Workspace;
 
 /**
  * @author Isak Karlsson
@@ -47,15 +48,32 @@ public class LimitedMemoryBfgsOptimizer implements NonlinearOptimizer {
 
   @Override
   public double optimize(DifferentialMultivariateFunction function, DoubleArray x) {
-    int n = x.size();
-    DoubleArray currentSolution = DoubleArray.zeros(n);
-    DoubleArray currentGradient = DoubleArray.zeros(n);
-    DoubleArray direction = DoubleArray.zeros(n);
-    DoubleArray solutions = DoubleArray.zeros(memory, n);
-    DoubleArray gradients = DoubleArray.zeros(memory, n);
-    DoubleArray gradient = DoubleArray.zeros(n);
-    DoubleArray scales = DoubleArray.zeros(memory);
-    DoubleArray a = DoubleArray.zeros(memory);
+    return optimize(function, x, Arrays.workspace());
+  }
+
+  /**
+   * Minimize the function. The state of the optimizer (i.e., the search history and the
+   * gradients) is requested from the workspace and recycled before returning, so that repeated
+   * optimizations of functions of the same dimension allocate no new arrays.
+   */
+  @Override
+  public double optimize(DifferentialMultivariateFunction function, DoubleArray x,
+      Workspace workspace) {
+    try (Workspace ws = workspace.open()) {
+      return optimize(function, x, ws, x.size());
+    }
+  }
+
+  private double optimize(DifferentialMultivariateFunction function, DoubleArray x, Workspace ws,
+      int n) {
+    DoubleArray currentSolution = ws.doubleArray(n);
+    DoubleArray currentGradient = ws.doubleArray(n);
+    DoubleArray direction = ws.doubleArray(n);
+    DoubleArray solutions = ws.doubleArray(memory, n);
+    DoubleArray gradients = ws.doubleArray(memory, n);
+    DoubleArray gradient = ws.doubleArray(n);
+    DoubleArray scales = ws.doubleArray(memory);
+    DoubleArray a = ws.doubleArray(memory);
 
     double f = function.gradientCost(x, gradient);
     double sum = 0;
@@ -21,6 +21,7 @@
 package org.briljantframework.optimize;
 
 import org.briljantframework.array.DoubleArray;
+import org.briljantframework.array.api.Workspace;
 // TODO: 02/12/15 (1) add observer to monitor the progress of the optimizer
 
 /**
@@ -36,4 +37,18 @@ public interface NonlinearOptimizer {
    * @return the final cost
    */
   double optimize(DifferentialMultivariateFunction function, DoubleArray x);
+
+  /**
+   * Minimize the function, requesting the state of the optimizer from the given workspace. By
+   * default, the workspace is ignored.
+   *
+   * @param function cost function to minimize
+   * @param x        the initial guess
+   * @param workspace the workspace
+   * @return the final cost
+   */
+  default double optimize(DifferentialMultivariateFunction function, DoubleArray x,
+      Workspace workspace) {
+    return optimize(function, x);
+  }
 }
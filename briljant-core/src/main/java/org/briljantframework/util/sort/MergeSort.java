@@ -0,0 +1,154 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 Isak Karlsson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.briljantframework.util.sort;
+
+import net.mintern.primitive.Primitive;
+import net.mintern.primitive.comparators.DoubleComparator;
+import net.mintern.primitive.comparators.IntComparator;
+import net.mintern.primitive.comparators.LongComparator;
+
+import org.briljantframework.array.api.ParallelPolicy;
+
+/**
+ * Stable parallel merge sort of primitive arrays using a primitive comparator. The range is split
+ * into disjoint runs (according to the {@link ParallelPolicy}) which are sorted in parallel and
+ * then merged pairwise.
+ *
+ * @author Isak Karlsson
+ */
+public final class MergeSort {
+
+  private MergeSort() {}
+
+  /**
+   * Sort the elements in the range {@code [from, to)} according to the given comparator.
+   *
+   * @param policy the parallel policy
+   * @param a the array
+   * @param from the first index (inclusive)
+   * @param to the last index (exclusive)
+   * @param cmp the comparator
+   */
+  public static void sort(ParallelPolicy policy, double[] a, int from, int to,
+      DoubleComparator cmp) {
+    int n = to - from;
+    if (n < 2 || n < policy.getThreshold() || policy.isSerial()) {
+      Primitive.sort(a, from, to, cmp, true);
+      return;
+    }
+    double[] buffer = new double[n];
+    policy.reduce(n, (start, end) -> {
+      Primitive.sort(a, from + start, from + end, cmp, true);
+      return new int[] {start, end};
+    }, (left, right) -> {
+      int lo = from + left[0], mid = from + left[1], hi = from + right[1];
+      if (cmp.compare(a[mid - 1], a[mid]) > 0) {
+        System.arraycopy(a, lo, buffer, lo - from, mid - lo);
+        int i = lo - from, iEnd = mid - from, j = mid, k = lo;
+        while (i < iEnd && j < hi) {
+          a[k++] = cmp.compare(a[j], buffer[i]) < 0 ? a[j++] : buffer[i++];
+        }
+        System.arraycopy(buffer, i, a, k, iEnd - i);
+      }
+      return new int[] {left[0], right[1]};
+    });
+  }
+
+  /**
+   * Sort the elements in the range {@code [from, to)} according to the given comparator.
+   *
+   * @see #sort(ParallelPolicy, double[], int, int, DoubleComparator)
+   */
+  public static void sort(ParallelPolicy policy, int[] a, int from, int to, IntComparator cmp) {
+    int n = to - from;
+    if (n < 2 || n < policy.getThreshold() || policy.isSerial()) {
+      Primitive.sort(a, from, to, cmp, true);
+      return;
+    }
+    int[] buffer = new int[n];
+    policy.reduce(n, (start, end) -> {
+      Primitive.sort(a, from + start, from + end, cmp, true);
+      return new int[] {start, end};
+    }, (left, right) -> {
+      int lo = from + left[0], mid = from + left[1], hi = from + right[1];
+      if (cmp.compare(a[mid - 1], a[mid]) > 0) {
+        System.arraycopy(a, lo, buffer, lo - from, mid - lo);
+        int i = lo - from, iEnd = mid - from, j = mid, k = lo;
+        while (i < iEnd && j < hi) {
+          a[k++] = cmp.compare(a[j], buffer[i]) < 0 ? a[j++] : buffer[i++];
+        }
+        System.arraycopy(buffer, i, a, k, iEnd - i);
+      }
+      return new int[] {left[0], right[1]};
+    });
+  }
+
+  /**
+   * Sort the elements in the range {@code [from, to)} according to the given comparator.
+   *
+   * @see #sort(ParallelPolicy, double[], int, int, DoubleComparator)
+   */
+  public static void sort(ParallelPolicy policy, long[] a, int from, int to, LongComparator cmp) {
+    int n = to - from;
+    if (n < 2 || n < policy.getThreshold() || policy.isSerial()) {
+      Primitive.sort(a, from, to, cmp, true);
+      return;
+    }
+    long[] buffer = new long[n];
+    policy.reduce(n, (start, end) -> {
+      Primitive.sort(a, from + start, from + end, cmp, true);
+      return new int[] {start, end};
+    }, (left, right) -> {
+      int lo = from + left[0], mid = from + left[1], hi = from + right[1];
+      if (cmp.compare(a[mid - 1], a[mid]) > 0) {
+        System.arraycopy(a, lo, buffer, lo - from, mid - lo);
+        int i = lo - from, iEnd = mid - from, j = mid, k = lo;
+        while (i < iEnd && j < hi) {
+          a[k++] = cmp.compare(a[j], buffer[i]) < 0 ? a[j++] : buffer[i++];
+        }
+        System.arraycopy(buffer, i, a, k, iEnd - i);
+      }
+      return new int[] {left[0], right[1]};
+    });
+  }
+
+  /**
+   * Returns the permutation which sorts the elements in the range {@code [from, to)} according to
+   * the given comparator, i.e., the (zero-based) position relative to {@code from} of the smallest
+   * element first. Equal elements retain their relative order.
+   *
+   * @param policy the parallel policy
+   * @param a the array
+   * @param from the first index (inclusive)
+   * @param to the last index (exclusive)
+   * @param cmp the comparator
+   * @return the permutation
+   */
+  public static int[] order(ParallelPolicy policy, double[] a, int from, int to,
+      DoubleComparator cmp) {
+    int[] order = new int[to - from];
+    for (int i = 0; i < order.length; i++) {
+      order[i] = i;
+    }
+    sort(policy, order, 0, order.length, (i, j) -> cmp.compare(a[from + i], a[from + j]));
+    return order;
+  }
+}
@@ -0,0 +1,325 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 Isak Karlsson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.briljantframework.util.sort;
+
+/**
+ * Least significant digit radix sort of primitive arrays in their natural order. The keys are
+ * sorted one byte at a time using counting sort, and passes where all keys share the same byte are
+ * skipped. The sort is stable, runs in linear time and is used for sorting (and computing the
+ * sorting permutation of) large arrays, where it outperforms comparison based sorting.
+ *
+ * <p/>
+ * Doubles are ordered as by {@link Double#compare(double, double)}, i.e., {@code -0.0} is smaller
+ * than {@code 0.0} and {@code NaN} (including {@code NA}) is larger than all other values. The
+ * sign of a {@code NaN} is ignored and the {@code NaN}-values are ordered by their payload, which
+ * places {@code NA} before the canonical {@code NaN}.
+ *
+ * @author Isak Karlsson
+ */
+public final class RadixSort {
+
+  /**
+   * Arrays smaller than this are sorted using a comparison based sort
+   */
+  static final int THRESHOLD = 256;
+
+  private static final int RADIX = 256;
+  private static final int MASK = RADIX - 1;
+
+  private RadixSort() {}
+
+  /**
+   * Sort the elements in the range {@code [from, to)} in ascending order.
+   *
+   * @param a the array
+   * @param from the first index (inclusive)
+   * @param to the last index (exclusive)
+   */
+  public static void sort(int[] a, int from, int to) {
+    checkBounds(a.length, from, to);
+    int n = to - from;
+    if (n < THRESHOLD) {
+      java.util.Arrays.sort(a, from, to);
+      return;
+    }
+
+    int[][] counts = new int[Integer.BYTES][RADIX];
+    for (int i = from; i < to; i++) {
+      int key = a[i] ^ Integer.MIN_VALUE;
+      for (int d = 0; d < Integer.BYTES; d++) {
+        counts[d][(key >>> (d << 3)) & MASK]++;
+      }
+    }
+
+    int[] src = a, dst = new int[n];
+    int srcFrom = from, dstFrom = 0;
+    for (int d = 0; d < Integer.BYTES; d++) {
+      int[] count = counts[d];
+      if (toOffsets(count, n)) {
+        continue;
+      }
+      int shift = d << 3;
+      for (int i = srcFrom, end = srcFrom + n; i < end; i++) {
+        int value = src[i];
+        dst[dstFrom + count[((value ^ Integer.MIN_VALUE) >>> shift) & MASK]++] = value;
+      }
+      int[] tmp = src;
+      src = dst;
+      dst = tmp;
+      int tmpFrom = srcFrom;
+      srcFrom = dstFrom;
+      dstFrom = tmpFrom;
+    }
+    if (src != a) {
+      System.arraycopy(src, 0, a, from, n);
+    }
+  }
+
+  /**
+   * Sort the elements in the range {@code [from, to)} in ascending order.
+   *
+   * @param a the array
+   * @param from the first index (inclusive)
+   * @param to the last index (exclusive)
+   */
+  public static void sort(long[] a, int from, int to) {
+    checkBounds(a.length, from, to);
+    int n = to - from;
+    if (n < THRESHOLD) {
+      java.util.Arrays.sort(a, from, to);
+      return;
+    }
+    long[] keys = new long[n];
+    for (int i = 0; i < n; i++) {
+      keys[i] = a[from + i] ^ Long.MIN_VALUE;
+    }
+    sortKeys(keys, null);
+    for (int i = 0; i < n; i++) {
+      a[from + i] = keys[i] ^ Long.MIN_VALUE;
+    }
+  }
+
+  /**
+   * Sort the elements in the range {@code [from, to)} in ascending order.
+   *
+   * @param a the array
+   * @param from the first index (inclusive)
+   * @param to the last index (exclusive)
+   */
+  public static void sort(double[] a, int from, int to) {
+    checkBounds(a.length, from, to);
+    int n = to - from;
+    long[] keys = new long[n];
+    for (int i = 0; i < n; i++) {
+      keys[i] = toKey(a[from + i]);
+    }
+    if (n < THRESHOLD) {
+      // unsigned order of the keys
+      for (int i = 0; i < n; i++) {
+        keys[i] ^= Long.MIN_VALUE;
+      }
+      java.util.Arrays.sort(keys);
+      for (int i = 0; i < n; i++) {
+        keys[i] ^= Long.MIN_VALUE;
+      }
+    } else {
+      sortKeys(keys, null);
+    }
+    for (int i = 0; i < n; i++) {
+      a[from + i] = fromKey(keys[i]);
+    }
+  }
+
+  /**
+   * Returns the permutation which sorts the elements in the range {@code [from, to)} in ascending
+   * order, i.e., the (zero-based) position relative to {@code from} of the smallest element first.
+   * Equal elements retain their relative order.
+   *
+   * @param a the array
+   * @param from the first index (inclusive)
+   * @param to the last index (exclusive)
+   * @return the permutation
+   */
+  public static int[] order(int[] a, int from, int to) {
+    checkBounds(a.length, from, to);
+    long[] keys = new long[to - from];
+    for (int i = 0; i < keys.length; i++) {
+      keys[i] = (a[from + i] ^ Integer.MIN_VALUE) & 0xFFFFFFFFL;
+    }
+    return orderKeys(keys);
+  }
+
+  /**
+   * Returns the permutation which sorts the elements in the range {@code [from, to)}.
+   *
+   * @see #order(int[], int, int)
+   */
+  public static int[] order(long[] a, int from, int to) {
+    checkBounds(a.length, from, to);
+    long[] keys = new long[to - from];
+    for (int i = 0; i < keys.length; i++) {
+      keys[i] = a[from + i] ^ Long.MIN_VALUE;
+    }
+    return orderKeys(keys);
+  }
+
+  /**
+   * Returns the permutation which sorts the elements in the range {@code [from, to)}.
+   *
+   * @see #order(int[], int, int)
+   */
+  public static int[] order(double[] a, int from, int to) {
+    checkBounds(a.length, from, to);
+    long[] keys = new long[to - from];
+    for (int i = 0; i < keys.length; i++) {
+      keys[i] = toKey(a[from + i]);
+    }
+    return orderKeys(keys);
+  }
+
+  /**
+   * Returns a key whose unsigned order is the order of the given double.
+   *
+   * @param value the value
+   * @return the key
+   */
+  static long toKey(double value) {
+    long bits = Double.doubleToRawLongBits(value);
+    if (value != value) {
+      bits &= Long.MAX_VALUE;
+    }
+    return bits ^ ((bits >> 63) | Long.MIN_VALUE);
+  }
+
+  /**
+   * Returns the double of the given key.
+   *
+   * @param key the key
+   * @return the value
+   * @see #toKey(double)
+   */
+  static double fromKey(long key) {
+    return Double.longBitsToDouble(key ^ ((~key >> 63) | Long.MIN_VALUE));
+  }
+
+  private static int[] orderKeys(long[] keys) {
+    int n = keys.length;
+    int[] index = new int[n];
+    for (int i = 0; i < n; i++) {
+      index[i] = i;
+    }
+    if (n < THRESHOLD) {
+      // stable insertion sort, for small arrays
+      for (int i = 1; i < n; i++) {
+        long key = keys[i];
+        int idx = index[i];
+        int j = i - 1;
+        for (; j >= 0 && Long.compareUnsigned(keys[j], key) > 0; j--) {
+          keys[j + 1] = keys[j];
+          index[j + 1] = index[j];
+        }
+        keys[j + 1] = key;
+        index[j + 1] = idx;
+      }
+    } else {
+      sortKeys(keys, index);
+    }
+    return index;
+  }
+
+  /**
+   * Sort the keys (in unsigned order) and permute the (optional) index accordingly.
+   */
+  private static void sortKeys(long[] keys, int[] index) {
+    int n = keys.length;
+    int[][] counts = new int[Long.BYTES][RADIX];
+    for (long key : keys) {
+      for (int d = 0; d < Long.BYTES; d++) {
+        counts[d][(int) (key >>> (d << 3)) & MASK]++;
+      }
+    }
+
+    long[] src = keys, dst = new long[n];
+    int[] srcIndex = index, dstIndex = index != null ? new int[n] : null;
+    for (int d = 0; d < Long.BYTES; d++) {
+      int[] count = counts[d];
+      if (toOffsets(count, n)) {
+        continue;
+      }
+      int shift = d << 3;
+      if (index == null) {
+        for (int i = 0; i < n; i++) {
+          long key = src[i];
+          dst[count[(int) (key >>> shift) & MASK]++] = key;
+        }
+      } else {
+        for (int i = 0; i < n; i++) {
+          long key = src[i];
+          int pos = count[(int) (key >>> shift) & MASK]++;
+          dst[pos] = key;
+          dstIndex[pos] = srcIndex[i];
+        }
+        int[] tmpIndex = srcIndex;
+        srcIndex = dstIndex;
+        dstIndex = tmpIndex;
+      }
+      long[] tmp = src;
+      src = dst;
+      dst = tmp;
+    }
+    if (src != keys) {
+      System.arraycopy(src, 0, keys, 0, n);
+      if (index != null) {
+        System.arraycopy(srcIndex, 0, index, 0, n);
+      }
+    }
+  }
+
+  /**
+   * Replace the counts with the starting offset of each digit. Returns true if all keys have the
+   * same digit, i.e., if the pass can be skipped.
+   */
+  private static boolean toOffsets(int[] count, int n) {
+    int sum = 0;
+    for (int i = 0; i < RADIX; i++) {
+      int c = count[i];
+      if (c == n) {
+        return true;
+      }
+      count[i] = sum;
+      sum += c;
+    }
+    return false;
+  }
+
+  private static void checkBounds(int length, int from, int to) {
+    if (from > to) {
+      throw new IllegalArgumentException(
+          String.format("Start index %d is greater than end index %d", from, to));
+    }
+    if (from < 0) {
+      throw new ArrayIndexOutOfBoundsException("Array index out of range " + from);
+    }
+    if (to > length) {
+      throw new ArrayIndexOutOfBoundsException("Array index out of range " + to);
+    }
+  }
+}
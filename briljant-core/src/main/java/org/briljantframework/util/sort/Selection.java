@@ -0,0 +1,344 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 Isak Karlsson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.briljantframework.util.sort;
+
+/**
+ * Selection of order statistics from primitive arrays without sorting the full array.
+ *
+ * <p/>
+ * The {@code k}-th smallest elements are found using introselect, i.e., quickselect with a
+ * three-way partition around a median-of-three pivot, which falls back to sorting the remaining
+ * range if the partitioning does not converge. Several order statistics (e.g., a set of
+ * percentiles) are selected in one pass by only partitioning the ranges which contain a requested
+ * rank. The largest {@code k} elements are found using a bounded heap.
+ *
+ * <p/>
+ * Values are ordered as by {@link Double#compare(double, double)}, i.e., {@code NaN} (including
+ * {@code NA}) is larger than all other values.
+ *
+ * @author Isak Karlsson
+ */
+public final class Selection {
+
+  private static final int INSERTION_THRESHOLD = 16;
+
+  private Selection() {}
+
+  /**
+   * Rearrange the elements in the range {@code [from, to)} so that the element at {@code k} is the
+   * element which would be at that position if the range was sorted, all elements before it are
+   * smaller than or equal and all elements after it are larger than or equal.
+   *
+   * @param a the array
+   * @param from the first index (inclusive)
+   * @param to the last index (exclusive)
+   * @param k the index (in the range) of the element to select
+   * @return the selected element
+   */
+  public static double select(double[] a, int from, int to, int k) {
+    select(a, from, to, new int[] {k});
+    return a[k];
+  }
+
+  /**
+   * Rearrange the elements in the range {@code [from, to)} so that the element at each of the given
+   * indexes is the element which would be at that position if the range was sorted.
+   *
+   * @param a the array
+   * @param from the first index (inclusive)
+   * @param to the last index (exclusive)
+   * @param ks the indexes (in the range) of the elements to select, in ascending order
+   * @see #select(double[], int, int, int)
+   */
+  public static void select(double[] a, int from, int to, int... ks) {
+    checkBounds(a.length, from, to);
+    for (int i = 0; i < ks.length; i++) {
+      if (ks[i] < from || ks[i] >= to || i > 0 && ks[i] < ks[i - 1]) {
+        throw new IllegalArgumentException("Illegal index " + ks[i]);
+      }
+    }
+
+    // NaN-values are the largest elements; move them to the end and select among the rest
+    int end = to;
+    for (int i = from; i < end;) {
+      if (Double.isNaN(a[i])) {
+        swap(a, i, --end);
+      } else {
+        i++;
+      }
+    }
+    int kEnd = ks.length;
+    while (kEnd > 0 && ks[kEnd - 1] >= end) {
+      kEnd--;
+    }
+    select(a, from, end, ks, 0, kEnd, 2 * (32 - Integer.numberOfLeadingZeros(end - from)));
+  }
+
+  private static void select(double[] a, int lo, int hi, int[] ks, int kFrom, int kTo,
+      int depth) {
+    while (kFrom < kTo) {
+      if (hi - lo <= INSERTION_THRESHOLD) {
+        insertionSort(a, lo, hi);
+        return;
+      }
+      if (depth-- == 0) {
+        java.util.Arrays.sort(a, lo, hi);
+        return;
+      }
+
+      double pivot = median(a[lo], a[(lo + hi) >>> 1], a[hi - 1]);
+      int lt = lo, i = lo, gt = hi;
+      while (i < gt) {
+        double v = a[i];
+        if (v < pivot) {
+          swap(a, lt++, i++);
+        } else if (v > pivot) {
+          swap(a, i, --gt);
+        } else {
+          i++;
+        }
+      }
+
+      // [lo, lt) < pivot, [lt, gt) == pivot and [gt, hi) > pivot
+      int left = kFrom;
+      while (left < kTo && ks[left] < lt) {
+        left++;
+      }
+      int right = left;
+      while (right < kTo && ks[right] < gt) {
+        right++;
+      }
+      if (left - kFrom < kTo - right) {
+        select(a, lo, lt, ks, kFrom, left, depth);
+        lo = gt;
+        kFrom = right;
+      } else {
+        select(a, gt, hi, ks, right, kTo, depth);
+        hi = lt;
+        kTo = left;
+      }
+    }
+  }
+
+  /**
+   * Returns the given percentiles of the elements in the range {@code [from, to)}. Percentiles
+   * which fall between two elements are linearly interpolated. The elements in the range are
+   * rearranged.
+   *
+   * @param a the array
+   * @param from the first index (inclusive)
+   * @param to the last index (exclusive)
+   * @param percentiles the percentiles (between 0 and 100)
+   * @return the value of each percentile
+   */
+  public static double[] percentile(double[] a, int from, int to, double... percentiles) {
+    int n = to - from;
+    if (n <= 0) {
+      throw new IllegalArgumentException("No elements");
+    }
+    int[] ks = new int[percentiles.length * 2];
+    for (int i = 0; i < percentiles.length; i++) {
+      double p = percentiles[i];
+      if (!(p >= 0 && p <= 100)) {
+        throw new IllegalArgumentException("Percentile must be between 0 and 100: " + p);
+      }
+      int k = (int) Math.floor((n - 1) * p / 100);
+      ks[2 * i] = from + k;
+      ks[2 * i + 1] = from + Math.min(k + 1, n - 1);
+    }
+    int[] sorted = java.util.Arrays.stream(ks).sorted().distinct().toArray();
+    select(a, from, to, sorted);
+
+    double[] values = new double[percentiles.length];
+    for (int i = 0; i < percentiles.length; i++) {
+      double h = (n - 1) * percentiles[i] / 100;
+      int lo = ks[2 * i], hi = ks[2 * i + 1];
+      double fraction = h - (lo - from);
+      values[i] = fraction == 0 ? a[lo] : a[lo] + fraction * (a[hi] - a[lo]);
+    }
+    return values;
+  }
+
+  /**
+   * Returns the {@code k} largest elements in the range {@code [from, to)} in descending order.
+   *
+   * @param a the array
+   * @param from the first index (inclusive)
+   * @param to the last index (exclusive)
+   * @param k the number of elements
+   * @return the largest elements
+   */
+  public static double[] top(double[] a, int from, int to, int k) {
+    checkBounds(a.length, from, to);
+    checkK(to - from, k);
+    double[] heap = new double[k];
+    if (k == 0) {
+      return heap;
+    }
+
+    // a min-heap of the k largest elements seen so far
+    System.arraycopy(a, from, heap, 0, k);
+    for (int i = k / 2 - 1; i >= 0; i--) {
+      siftDown(heap, i, k);
+    }
+    for (int i = from + k; i < to; i++) {
+      if (Double.compare(a[i], heap[0]) > 0) {
+        heap[0] = a[i];
+        siftDown(heap, 0, k);
+      }
+    }
+    for (int n = k - 1; n > 0; n--) {
+      double tmp = heap[0];
+      heap[0] = heap[n];
+      heap[n] = tmp;
+      siftDown(heap, 0, n);
+    }
+    return heap;
+  }
+
+  /**
+   * Returns the (zero-based) position relative to {@code from} of the {@code k} largest elements in
+   * the range {@code [from, to)} in descending order. Equal elements are ordered by position.
+   *
+   * @param a the array
+   * @param from the first index (inclusive)
+   * @param to the last index (exclusive)
+   * @param k the number of elements
+   * @return the positions of the largest elements
+   */
+  public static int[] argTop(double[] a, int from, int to, int k) {
+    checkBounds(a.length, from, to);
+    checkK(to - from, k);
+    int[] heap = new int[k];
+    if (k == 0) {
+      return heap;
+    }
+
+    for (int i = 0; i < k; i++) {
+      heap[i] = from + i;
+    }
+    for (int i = k / 2 - 1; i >= 0; i--) {
+      siftDown(a, heap, i, k);
+    }
+    for (int i = from + k; i < to; i++) {
+      // on ties, the element with the smallest position is preferred
+      if (Double.compare(a[i], a[heap[0]]) > 0) {
+        heap[0] = i;
+        siftDown(a, heap, 0, k);
+      }
+    }
+    for (int n = k - 1; n > 0; n--) {
+      int tmp = heap[0];
+      heap[0] = heap[n];
+      heap[n] = tmp;
+      siftDown(a, heap, 0, n);
+    }
+    for (int i = 0; i < k; i++) {
+      heap[i] -= from;
+    }
+    return heap;
+  }
+
+  private static void siftDown(double[] heap, int i, int n) {
+    double value = heap[i];
+    int child;
+    while ((child = 2 * i + 1) < n) {
+      if (child + 1 < n && Double.compare(heap[child + 1], heap[child]) < 0) {
+        child++;
+      }
+      if (Double.compare(heap[child], value) >= 0) {
+        break;
+      }
+      heap[i] = heap[child];
+      i = child;
+    }
+    heap[i] = value;
+  }
+
+  /**
+   * Sift down in a heap of indexes where the root is the smallest element and, among equal
+   * elements, the one with the largest index.
+   */
+  private static void siftDown(double[] a, int[] heap, int i, int n) {
+    int index = heap[i];
+    int child;
+    while ((child = 2 * i + 1) < n) {
+      if (child + 1 < n && isWorse(a, heap[child + 1], heap[child])) {
+        child++;
+      }
+      if (!isWorse(a, heap[child], index)) {
+        break;
+      }
+      heap[i] = heap[child];
+      i = child;
+    }
+    heap[i] = index;
+  }
+
+  private static boolean isWorse(double[] a, int i, int j) {
+    int cmp = Double.compare(a[i], a[j]);
+    return cmp < 0 || cmp == 0 && i > j;
+  }
+
+  private static double median(double a, double b, double c) {
+    if (a < b) {
+      return b < c ? b : a < c ? c : a;
+    } else {
+      return a < c ? a : b < c ? c : b;
+    }
+  }
+
+  private static void insertionSort(double[] a, int lo, int hi) {
+    for (int i = lo + 1; i < hi; i++) {
+      double v = a[i];
+      int j = i - 1;
+      for (; j >= lo && a[j] > v; j--) {
+        a[j + 1] = a[j];
+      }
+      a[j + 1] = v;
+    }
+  }
+
+  private static void swap(double[] a, int i, int j) {
+    double tmp = a[i];
+    a[i] = a[j];
+    a[j] = tmp;
+  }
+
+  private static void checkK(int n, int k) {
+    if (k < 0 || k > n) {
+      throw new IllegalArgumentException(String.format("Illegal k %d (size %d)", k, n));
+    }
+  }
+
+  private static void checkBounds(int length, int from, int to) {
+    if (from > to) {
+      throw new IllegalArgumentException(
+          String.format("Start index %d is greater than end index %d", from, to));
+    }
+    if (from < 0) {
+      throw new ArrayIndexOutOfBoundsException("Array index out of range " + from);
+    }
+    if (to > length) {
+      throw new ArrayIndexOutOfBoundsException("Array index out of range " + to);
+    }
+  }
+}
@@ -24,19 +24,35 @@ import static java.util.Arrays.asList;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
 import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
 
 import org.briljantframework.array.Array;
 import org.briljantframework.array.Arrays;
+import org.briljantframework.array.BooleanArray;
 import org.briljantframework.array.DoubleArray;
 import org.briljantframework.array.IntArray;
+import org.briljantframework.array.LongArray;
+import org.briljantframework.array.api.ParallelPolicy;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 /**
  * @author Isak Karlsson <isak-kar@dsv.su.se>
  */
 public class ArraysTest {
 
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
   @Test
   public void ReadIdx() throws Exception {
     // DoubleArray array = Arrays
@@ -289,6 +305,115 @@ public class ArraysTest {
     assertEquals(IntArray.of(0, 2, 1, 1, 2, 0).reshape(3, 2), Arrays.order(0, array));
   }
 
+  @Test
+  public void testOrder_NaNLast() throws Exception {
+    DoubleArray array = DoubleArray.of(2, Double.NaN, 1, 1, -3);
+    assertEquals(IntArray.of(4, 2, 3, 0, 1), Arrays.order(array));
+    assertEquals(IntArray.of(1, 0, 2, 3, 4), Arrays.order(array, (a, b) -> Double.compare(b, a)));
+  }
+
+  @Test
+  public void testOrder_LongArray() throws Exception {
+    LongArray array = LongArray.of(2, Long.MIN_VALUE, 1, Long.MAX_VALUE);
+    assertEquals(IntArray.of(1, 2, 0, 3), Arrays.order(array));
+  }
+
+  @Test
+  public void testSort_DimensionOfView() throws Exception {
+    DoubleArray x = Arrays.linspace(0, 1, 1000 * 30).reshape(1000, 30).transpose();
+    DoubleArray sorted = ParallelPolicy.of(new ForkJoinPool(4), 100, 10)
+        .call(() -> Arrays.sort(1, x, (a, b) -> Double.compare(b, a)));
+    for (int i = 0; i < x.rows(); i++) {
+      DoubleArray expected = Arrays.sort(x.getRow(i));
+      for (int j = 0; j < x.columns(); j++) {
+        assertEquals(expected.get(x.columns() - 1 - j), sorted.get(i, j), 0);
+      }
+    }
+  }
+
+  @Test
+  public void testSort_BooleanVectorsSharingWords() throws Exception {
+    Random random = new Random(13);
+    BooleanArray x = Arrays.booleanArray(200, 70);
+    for (int i = 0; i < x.size(); i++) {
+      x.set(i, random.nextBoolean());
+    }
+    for (int dim = 0; dim < 2; dim++) {
+      int d = dim;
+      BooleanArray sorted = ParallelPolicy.of(new ForkJoinPool(4), 100, 10)
+          .call(() -> Arrays.sort(d, x, (a, i, j) -> Boolean.compare(a.get(i), a.get(j))));
+      for (int i = 0; i < x.size(1 - dim); i++) {
+        BooleanArray expected = x.getVector(dim, i);
+        BooleanArray actual = sorted.getVector(dim, i);
+        int trues = 0;
+        for (int j = 0; j < expected.size(); j++) {
+          trues += expected.get(j) ? 1 : 0;
+        }
+        for (int j = 0; j < actual.size(); j++) {
+          assertEquals(j >= actual.size() - trues, actual.get(j));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testPercentile() throws Exception {
+    DoubleArray x = DoubleArray.of(7, 1, 3, 5, 9, 2, 4, 8, 6, 0);
+    assertEquals(DoubleArray.of(0, 2.25, 4.5, 9), Arrays.percentile(x, 0, 25, 50, 100));
+    assertEquals(4.5, Arrays.median(x), 0);
+    assertEquals(3, Arrays.nthElement(x, 3), 0);
+    assertEquals(DoubleArray.of(5, 4), Arrays.median(0, x.reshape(5, 2)));
+  }
+
+  @Test
+  public void testTopK() throws Exception {
+    DoubleArray x = DoubleArray.of(7, 1, 3, 5, 9, 2).reshape(3, 2);
+    assertEquals(DoubleArray.of(9, 7), Arrays.topK(x, 2));
+    assertEquals(IntArray.of(4, 0), Arrays.argTopK(x, 2));
+    assertEquals(DoubleArray.of(7, 3, 9, 5).reshape(2, 2), Arrays.topK(0, x, 2));
+    assertEquals(IntArray.of(0, 2, 1, 0).reshape(2, 2), Arrays.argTopK(0, x, 2));
+  }
+
+  @Test
+  public void testWriteAndReadIdx() throws Exception {
+    DoubleArray x = Arrays.linspace(-1, 1, 2 * 3 * 4).reshape(2, 3, 4);
+    File file = folder.newFile();
+    DoubleArray view = x.reshape(4, 6).getView(1, 2, 2, 3);
+    Arrays.writeIdx(view, file.toPath());
+    assertEquals(view, Arrays.readIdx(file.toPath()));
+    assertEquals(view, Arrays.readIdx(Files.newInputStream(file.toPath())));
+
+    Arrays.writeIdx(x, file.toPath());
+    assertEquals(x, Arrays.readIdx(file.toPath()));
+    assertEquals(x, Arrays.mapIdx(file.toPath(), FileChannel.MapMode.READ_ONLY));
+
+    IntArray y = Arrays.range(2 * 3 * 4).reshape(2, 3, 4).transpose();
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    Arrays.writeIdx(y, out);
+    Files.write(file.toPath(), out.toByteArray());
+    assertEquals(y, Arrays.readIntIdx(file.toPath()));
+    assertEquals(y, Arrays.mapIdx(file.toPath(), FileChannel.MapMode.READ_ONLY));
+  }
+
+  @Test
+  public void testReadIdx_UnsignedBytes() throws Exception {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    DataOutputStream out = new DataOutputStream(bytes);
+    out.writeInt(0x0802); // unsigned bytes, 2 dimensions
+    out.writeInt(2);
+    out.writeInt(3);
+    out.write(new byte[] {0, 1, 2, (byte) 253, (byte) 254, (byte) 255});
+    out.close();
+
+    DoubleArray expected = DoubleArray.of(0, 253, 1, 254, 2, 255).reshape(2, 3);
+    assertEquals(expected, Arrays.readIdx(new ByteArrayInputStream(bytes.toByteArray())));
+
+    File file = folder.newFile();
+    Files.write(file.toPath(), bytes.toByteArray());
+    assertEquals(IntArray.of(0, 253, 1, 254, 2, 255).reshape(2, 3),
+        Arrays.readIntIdx(file.toPath()));
+  }
+
   @Test
   public void testConcatenate() throws Exception {
     IntArray x = Arrays.range(2 * 2 * 3).reshape(2, 2, 3);
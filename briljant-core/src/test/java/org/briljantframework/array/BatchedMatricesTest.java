@@ -0,0 +1,141 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 Isak Karlsson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.briljantframework.array;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.concurrent.ForkJoinPool;
+
+import org.briljantframework.array.api.ParallelPolicy;
+import org.junit.Test;
+
+public class BatchedMatricesTest {
+
+  private final ParallelPolicy parallel = ParallelPolicy.of(ForkJoinPool.commonPool(), 0, 1);
+
+  private void assertGemm(ArrayOperation transA, ArrayOperation transB, DoubleArray a,
+      DoubleArray b, DoubleArray c) {
+    for (ParallelPolicy policy : new ParallelPolicy[] {ParallelPolicy.serial(), parallel}) {
+      DoubleArray actual = c.copy();
+      policy.run(() -> Arrays.gemmBatched(transA, transB, 2, a, b, 0.5, actual));
+      for (int i = 0; i < c.size(2); i++) {
+        DoubleArray expected = c.select(2, i).copy();
+        Arrays.gemm(transA, transB, 2, a.dims() == 3 ? a.select(2, i) : a,
+            b.dims() == 3 ? b.select(2, i) : b, 0.5, expected);
+        ArrayAssert.assertArrayEquals(expected, actual.select(2, i), 1e-9);
+      }
+    }
+  }
+
+  @Test
+  public void testGemmBatched() throws Exception {
+    for (int n : new int[] {1, 2, 3, 5, 8, 33}) {
+      DoubleArray a = Arrays.randn(n * (n + 1) * 7).reshape(n, n + 1, 7);
+      DoubleArray b = Arrays.randn((n + 1) * 3 * 7).reshape(n + 1, 3, 7);
+      DoubleArray c = Arrays.randn(n * 3 * 7).reshape(n, 3, 7);
+      assertGemm(ArrayOperation.KEEP, ArrayOperation.KEEP, a, b, c);
+      assertGemm(ArrayOperation.TRANSPOSE, ArrayOperation.KEEP, a, a,
+          Arrays.randn((n + 1) * (n + 1) * 7).reshape(n + 1, n + 1, 7));
+      assertGemm(ArrayOperation.KEEP, ArrayOperation.TRANSPOSE, a, a,
+          Arrays.randn(n * n * 7).reshape(n, n, 7));
+    }
+  }
+
+  @Test
+  public void testGemmBatchedSharedAndStridedOperands() throws Exception {
+    DoubleArray a = Arrays.randn(4 * 6).reshape(4, 6);
+    DoubleArray b = Arrays.randn(10 * 6 * 5).reshape(10, 6, 5).getView(Range.of(2, 8),
+        Range.of(0, 6), Range.of(0, 5));
+    DoubleArray c = Arrays.randn(4 * 6 * 5).reshape(4, 6, 5);
+    assertGemm(ArrayOperation.KEEP, ArrayOperation.KEEP, a, b, c);
+  }
+
+  @Test
+  public void testGemvBatched() throws Exception {
+    DoubleArray a = Arrays.randn(5 * 4 * 9).reshape(5, 4, 9);
+    for (ArrayOperation op : ArrayOperation.values()) {
+      int m = op.isTranspose() ? 4 : 5, n = op.isTranspose() ? 5 : 4;
+      DoubleArray x = Arrays.randn(n * 9).reshape(n, 9);
+      DoubleArray y = Arrays.randn(m * 9).reshape(m, 9);
+      DoubleArray actual = y.copy();
+      parallel.run(() -> Arrays.gemvBatched(op, 2, a, x, 0.5, actual));
+      for (int i = 0; i < 9; i++) {
+        DoubleArray expected = y.getColumn(i).copy();
+        Arrays.gemv(op, 2, a.select(2, i), x.getColumn(i), 0.5, expected);
+        ArrayAssert.assertArrayEquals(expected, actual.getColumn(i), 1e-9);
+      }
+    }
+  }
+
+  @Test
+  public void testInvBatched() throws Exception {
+    for (int n : new int[] {1, 2, 3, 6, 40}) {
+      DoubleArray x = Arrays.randn(n * n * 5).reshape(n, n, 5);
+      DoubleArray inv = Arrays.linalg.invBatched(x);
+      for (int i = 0; i < 5; i++) {
+        ArrayAssert.assertArrayEquals(Arrays.eye(n), Arrays.dot(x.select(2, i), inv.select(2, i)),
+            1e-8);
+      }
+    }
+  }
+
+  @Test(expected = ArithmeticException.class)
+  public void testInvBatchedSingular() throws Exception {
+    DoubleArray x = Arrays.randn(4 * 4 * 3).reshape(4, 4, 3);
+    x.select(2, 1).getColumn(2).assign(0);
+    Arrays.linalg.invBatched(x);
+  }
+
+  @Test
+  public void testDetBatched() throws Exception {
+    for (int n : new int[] {1, 2, 3, 4, 7}) {
+      DoubleArray x = Arrays.randn(n * n * 6).reshape(n, n, 6);
+      x.select(2, 5).getRow(0).assign(x.select(2, 5).getRow(n - 1));
+      DoubleArray det = Arrays.linalg.detBatched(x);
+      for (int i = 0; i < 6; i++) {
+        DoubleArray m = x.select(2, i);
+        double expected = Arrays.linalg.det(m);
+        assertEquals(expected, det.get(i), 1e-9 * Math.max(1, Math.abs(expected)));
+      }
+    }
+  }
+
+  @Test
+  public void testDetOfDiagonalMatrices() throws Exception {
+    for (int n : new int[] {1, 2, 3, 5}) {
+      DoubleArray x = Arrays.doubleArray(n, n, 4);
+      for (int t = 0; t < 4; t++) {
+        for (int i = 0; i < n; i++) {
+          x.select(2, t).set(i, i, i == 0 ? t + 1 : 1);
+        }
+      }
+      for (ParallelPolicy policy : new ParallelPolicy[] {ParallelPolicy.serial(), parallel}) {
+        DoubleArray det = Arrays.doubleArray(4);
+        BatchedMatrices.det(policy, x, det);
+        ArrayAssert.assertArrayEquals(Arrays.doubleVector(1, 2, 3, 4), det, 0);
+
+        DoubleArray strided = Arrays.doubleArray(8);
+        BatchedMatrices.det(policy, x, strided.getView(Range.of(0, 8, 2)));
+        ArrayAssert.assertArrayEquals(Arrays.doubleVector(1, 0, 2, 0, 3, 0, 4, 0), strided, 0);
+      }
+    }
+  }
+}
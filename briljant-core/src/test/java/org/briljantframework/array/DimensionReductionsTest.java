@@ -0,0 +1,89 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 Isak Karlsson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.briljantframework.array;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.ToDoubleFunction;
+
+import org.briljantframework.array.api.ParallelPolicy;
+import org.briljantframework.data.statistics.FastStatistics;
+import org.junit.Test;
+
+public class DimensionReductionsTest {
+
+  private final ParallelPolicy parallel = ParallelPolicy.of(ForkJoinPool.commonPool(), 0, 1);
+
+  private static double var(DoubleArray v) {
+    FastStatistics s = new FastStatistics();
+    v.forEachDouble(s::addValue);
+    return s.getVariance();
+  }
+
+  private void assertReductions(DoubleArray x) {
+    for (ParallelPolicy policy : new ParallelPolicy[] {ParallelPolicy.serial(), parallel}) {
+      for (int dim = 0; dim < x.dims(); dim++) {
+        assertReduction(x.reduceVectors(dim, v -> v.reduce(0, Double::sum)),
+            DimensionReductions.sum(policy, dim, x));
+        assertReduction(x.reduceVectors(dim, v -> v.reduce(0, Double::sum) / v.size()),
+            DimensionReductions.mean(policy, dim, x));
+        assertReduction(x.reduceVectors(dim, v -> v.reduce(Double.POSITIVE_INFINITY, Math::min)),
+            DimensionReductions.min(policy, dim, x));
+        assertReduction(x.reduceVectors(dim, v -> v.reduce(Double.NEGATIVE_INFINITY, Math::max)),
+            DimensionReductions.max(policy, dim, x));
+        assertReduction(x.reduceVectors(dim, DimensionReductionsTest::var),
+            DimensionReductions.var(policy, dim, x));
+        ToDoubleFunction<DoubleArray> std = v -> Math.sqrt(var(v));
+        assertReduction(x.reduceVectors(dim, std), DimensionReductions.std(policy, dim, x));
+      }
+    }
+  }
+
+  private void assertReduction(DoubleArray expected, DoubleArray actual) {
+    ArrayAssert.assertArrayEquals(expected, actual, 1e-9);
+  }
+
+  @Test
+  public void testMatrix() throws Exception {
+    assertReductions(Arrays.randn(37 * 11).reshape(37, 11));
+  }
+
+  @Test
+  public void testTransposedView() throws Exception {
+    DoubleArray x = Arrays.randn(30 * 40).reshape(30, 40);
+    assertReductions(x.transpose());
+    assertReductions(x.getView(3, 5, 10, 20));
+  }
+
+  @Test
+  public void testThreeDimensions() throws Exception {
+    assertReductions(Arrays.randn(5 * 6 * 7).reshape(5, 6, 7));
+    assertReductions(Arrays.randn(5 * 1 * 7).reshape(5, 1, 7));
+  }
+
+  @Test
+  public void testVarianceOfLargeOffset() throws Exception {
+    // the textbook formula loses all precision
+    DoubleArray x = Arrays.randn(100 * 3).reshape(100, 3);
+    DoubleArray shifted = x.map(v -> v + 1e9);
+    ArrayAssert.assertArrayEquals(DimensionReductions.var(parallel, 0, x),
+        DimensionReductions.var(parallel, 0, shifted), 1e-6);
+  }
+}
@@ -0,0 +1,150 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 Isak Karlsson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.briljantframework.array;
+
+import static org.junit.Assert.assertEquals;
+
+import org.briljantframework.array.api.ParallelPolicy;
+import org.briljantframework.array.sparse.SparseDoubleArray;
+import org.junit.Test;
+
+public class DoubleExpressionTest {
+
+  @Test
+  public void testMaterializeEqualsEager() throws Exception {
+    DoubleArray a = Arrays.rand(12 * 7).reshape(12, 7);
+    DoubleArray b = Arrays.rand(12 * 7).reshape(12, 7);
+    DoubleArray c = Arrays.rand(12 * 7).reshape(12, 7).transpose().transpose();
+
+    DoubleArray expected = Arrays.plus(a, Arrays.times(b, Arrays.exp(c)));
+    DoubleArray actual = Arrays.lazy(c).exp().times(b).plus(a).materialize();
+    ArrayAssert.assertArrayEquals(expected, actual, 1e-12);
+
+    expected = Arrays.div(Arrays.minus(a, b), Arrays.sqrt(c)).map(v -> -Math.abs(v));
+    actual = Arrays.lazy(a).minus(b).div(Arrays.lazy(c).sqrt()).abs().negate().materialize();
+    ArrayAssert.assertArrayEquals(expected, actual, 1e-12);
+  }
+
+  @Test
+  public void testBroadcast() throws Exception {
+    DoubleArray x = Arrays.linspace(0, 1, 20).reshape(4, 5);
+    DoubleArray row = Arrays.linspace(-1, 1, 5).reshape(1, 5);
+    DoubleArray column = Arrays.linspace(2, 3, 4).reshape(4, 1);
+
+    DoubleExpression expression =
+        Arrays.lazy(x).times(row).plus(column).times(2).plus(DoubleExpression.constant(1));
+    assertEquals(4, expression.getShape()[0]);
+    assertEquals(5, expression.getShape()[1]);
+
+    DoubleArray actual = expression.materialize();
+    for (int i = 0; i < 4; i++) {
+      for (int j = 0; j < 5; j++) {
+        double expected = (x.get(i, j) * row.get(0, j) + column.get(i, 0)) * 2 + 1;
+        assertEquals(expected, actual.get(i, j), 1e-12);
+      }
+    }
+
+    DoubleArray scalarOnly = DoubleExpression.constant(3).plus(4).materialize();
+    assertEquals(1, scalarOnly.size());
+    assertEquals(7, scalarOnly.get(0), 0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testIncompatibleShapes() throws Exception {
+    Arrays.lazy(Arrays.zeros(3, 4)).plus(Arrays.zeros(4, 3));
+  }
+
+  @Test
+  public void testAssignToViewAndOperand() throws Exception {
+    DoubleArray x = Arrays.linspace(0, 29, 30).reshape(5, 6);
+    DoubleArray out = Arrays.zeros(6, 5).transpose();
+    Arrays.lazy(x).pow(2).minus(x).assignTo(out);
+    for (int i = 0; i < x.size(); i++) {
+      assertEquals(x.get(i) * x.get(i) - x.get(i), out.get(i), 0);
+    }
+
+    DoubleArray copy = x.copy();
+    Arrays.lazy(x).times(0.5).plus(1).assignTo(x);
+    for (int i = 0; i < x.size(); i++) {
+      assertEquals(copy.get(i) * 0.5 + 1, x.get(i), 0);
+    }
+
+    // a scalar expression is broadcast to the shape of the array
+    DoubleExpression.constant(2).assignTo(out);
+    ArrayAssert.assertArrayEquals(2, out, 0);
+  }
+
+  @Test
+  public void testReductions() throws Exception {
+    DoubleArray x = Arrays.linspace(-1, 1, 1001);
+    DoubleArray y = Arrays.linspace(0, 2, 1001);
+    DoubleArray expected = Arrays.times(x, y);
+    assertEquals(Arrays.sum(expected), Arrays.lazy(x).times(y).sum(), 1e-9);
+    assertEquals(Arrays.mean(expected), Arrays.lazy(x).times(y).mean(), 1e-12);
+    assertEquals(Arrays.max(expected), Arrays.lazy(x).times(y).reduce(Double.NEGATIVE_INFINITY,
+        Math::max), 0);
+  }
+
+  @Test
+  public void testParallelEqualsSerial() throws Exception {
+    DoubleArray x = Arrays.rand(100 * 97).reshape(100, 97);
+    DoubleArray y = Arrays.rand(97 * 100).reshape(97, 100).transpose();
+    DoubleExpression expression = Arrays.lazy(x).combine(Arrays.lazy(y), Math::atan2).exp();
+
+    DoubleArray serial = ParallelPolicy.serial().call(expression::materialize);
+    ParallelPolicy parallel = ParallelPolicy.getDefault().withThreshold(1).withGrain(7);
+    DoubleArray actual = parallel.call(expression::materialize);
+    ArrayAssert.assertArrayEquals(serial, actual, 0);
+    assertEquals(ParallelPolicy.serial().call(expression::sum), parallel.call(expression::sum),
+        1e-9);
+  }
+
+  @Test
+  public void testAssignToSparse() throws Exception {
+    DoubleArray x = Arrays.rand(100 * 97).reshape(100, 97);
+    DoubleArray expected = x.map(v -> v > 0.9 ? v : 0);
+    ParallelPolicy parallel = ParallelPolicy.getDefault().withThreshold(1).withGrain(7);
+    for (SparseDoubleArray.Layout layout : SparseDoubleArray.Layout.values()) {
+      SparseDoubleArray out = Arrays.getArrayBackend().getArrayFactory()
+          .newSparseDoubleArray(layout, 100, 97, new int[0], new int[0], new double[0]);
+      parallel.run(() -> Arrays.lazy(expected).assignTo(out));
+      ArrayAssert.assertArrayEquals(expected, out, 0);
+    }
+  }
+
+  @Test
+  public void testIntExpression() throws Exception {
+    IntArray x = Arrays.range(24).reshape(4, 6);
+    IntArray y = Arrays.range(6).reshape(1, 6);
+    IntArray actual = Arrays.lazy(x).times(y).plus(3).div(2).negate().materialize();
+    for (int i = 0; i < 4; i++) {
+      for (int j = 0; j < 6; j++) {
+        assertEquals(-((x.get(i, j) * y.get(0, j) + 3) / 2), actual.get(i, j));
+      }
+    }
+    assertEquals(Arrays.sum(x), Arrays.lazy(x).sum());
+
+    DoubleArray halves = Arrays.lazy(x).asDouble().div(2).materialize();
+    for (int i = 0; i < x.size(); i++) {
+      assertEquals(x.get(i) / 2.0, halves.get(i), 0);
+    }
+  }
+}
@@ -0,0 +1,176 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 Isak Karlsson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.briljantframework.array;
+
+import static org.briljantframework.array.BasicIndex.ALL;
+import static org.junit.Assert.assertEquals;
+
+import java.util.concurrent.ForkJoinPool;
+
+import org.briljantframework.array.api.ParallelPolicy;
+import org.briljantframework.array.direct.DirectArrayBackend;
+import org.junit.Test;
+
+/**
+ * @author Isak Karlsson
+ */
+public class GatherTest {
+
+  private static final ParallelPolicy PARALLEL = ParallelPolicy.of(new ForkJoinPool(4), 0, 3);
+
+  private static IntArray indexes(int... indexes) {
+    return IntArray.of(indexes);
+  }
+
+  /*
+   * Indexes with a long run of consecutive indexes (copied in bulk) and some scattered indexes
+   */
+  private static IntArray runs(int size) {
+    IntArray indexes = IntArray.zeros(size / 2 + 3);
+    for (int i = 0; i < size / 2; i++) {
+      indexes.set(i, i + 1);
+    }
+    indexes.set(size / 2, size - 1);
+    indexes.set(size / 2 + 1, 0);
+    indexes.set(size / 2 + 2, 0);
+    return indexes;
+  }
+
+  @Test
+  public void testTake() throws Exception {
+    DoubleArray x = Arrays.linspace(0, 23, 24);
+    IntArray idx = runs(24);
+    DoubleArray taken = Arrays.take(x, idx);
+    for (int i = 0; i < idx.size(); i++) {
+      assertEquals(idx.get(i), taken.get(i), 0);
+    }
+    assertEquals(taken, PARALLEL.call(() -> Arrays.take(x, idx)));
+  }
+
+  @Test
+  public void testTake_strided() throws Exception {
+    IntArray x = Arrays.range(24).copy().reshape(4, 6);
+    IntArray idx = indexes(0, 5, 7, 23, 1);
+    assertEquals(indexes(0, 5, 7, 23, 1), Arrays.take(x, idx)); // linear
+    IntArray t = x.transpose(); // not linear
+    IntArray taken = Arrays.take(t, idx);
+    for (int i = 0; i < idx.size(); i++) {
+      assertEquals(t.get(idx.get(i)), taken.get(i));
+    }
+
+    LongArray v = LongArray.of(1, 2, 3, 4, 5, 6).getVector(0, 0);
+    assertEquals(LongArray.of(6, 1), Arrays.take(v, indexes(5, 0)));
+  }
+
+  @Test(expected = IndexOutOfBoundsException.class)
+  public void testTake_outOfBounds() throws Exception {
+    Arrays.take(DoubleArray.of(1, 2, 3), indexes(0, 3));
+  }
+
+  @Test
+  public void testGetRows() throws Exception {
+    DoubleArray x = Arrays.linspace(0, 1, 20 * 5).reshape(20, 5);
+    IntArray rows = runs(20);
+    DoubleArray expected = DoubleArray.zeros(rows.size(), 5);
+    for (int i = 0; i < rows.size(); i++) {
+      for (int j = 0; j < 5; j++) {
+        expected.set(i, j, x.get(rows.get(i), j));
+      }
+    }
+    assertEquals(expected, x.get(rows, ALL));
+    assertEquals(expected, x.get(rows));
+    assertEquals(expected, PARALLEL.call(() -> x.get(rows, ALL)));
+    assertEquals(expected.getView(0, 1, rows.size(), 2), x.get(rows, Arrays.range(1, 3)));
+  }
+
+  @Test
+  public void testGetColumns() throws Exception {
+    IntArray x = Arrays.range(4 * 6).copy().reshape(4, 6);
+    IntArray columns = indexes(5, 0, 0, 2);
+    IntArray expected = IntArray.zeros(4, columns.size());
+    for (int j = 0; j < columns.size(); j++) {
+      expected.getColumn(j).assign(x.getColumn(columns.get(j)));
+    }
+    assertEquals(expected, x.get(ALL, columns));
+    assertEquals(expected, PARALLEL.call(() -> x.get(ALL, columns)));
+    assertEquals(expected.transpose(), x.transpose().get(columns, ALL));
+  }
+
+  @Test
+  public void testGet_3d() throws Exception {
+    LongArray x = Arrays.range(2 * 3 * 4).copy().longArray().reshape(2, 3, 4);
+    IntArray idx = indexes(2, 0);
+    LongArray y = x.get(ALL, idx);
+    assertEquals(2, y.size(0));
+    assertEquals(2, y.size(1));
+    assertEquals(4, y.size(2));
+    for (int i = 0; i < 2; i++) {
+      for (int j = 0; j < idx.size(); j++) {
+        for (int k = 0; k < 4; k++) {
+          assertEquals(x.get(i, idx.get(j), k), y.get(i, j, k));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testSetRows() throws Exception {
+    DoubleArray x = DoubleArray.zeros(5, 3);
+    x.set(java.util.Arrays.asList(indexes(4, 1, 4), ALL), DoubleArray.of(1, 2, 3).reshape(1, 3));
+    DoubleArray expected =
+        DoubleArray.of(0, 1, 0, 0, 1, 0, 2, 0, 0, 2, 0, 3, 0, 0, 3).reshape(5, 3);
+    assertEquals(expected, x);
+
+    // the last value of a repeated index is stored
+    IntArray y = IntArray.zeros(4);
+    y.set(java.util.Arrays.asList(indexes(1, 2, 1)), IntArray.of(10, 20, 30));
+    assertEquals(IntArray.of(0, 30, 20, 0), y);
+  }
+
+  @Test
+  public void testPutMaskAndWhere() throws Exception {
+    DoubleArray x = Arrays.linspace(-1, 1, 12).reshape(3, 4);
+    BooleanArray mask = x.where(v -> v > 0);
+    DoubleArray masked = Arrays.mask(x, mask, DoubleArray.zeros(3, 4));
+    DoubleArray where = Arrays.where(mask, DoubleArray.zeros(3, 4), x);
+    for (int i = 0; i < x.size(); i++) {
+      double expected = mask.get(i) ? 0 : x.get(i);
+      assertEquals(expected, masked.get(i), 0);
+      assertEquals(expected, where.get(i), 0);
+    }
+    assertEquals(where, PARALLEL.call(() -> Arrays.where(mask, DoubleArray.zeros(3, 4), x)));
+
+    // broadcast
+    IntArray w = Arrays.where(BooleanArray.of(true, false, true), IntArray.of(1), IntArray.of(2));
+    assertEquals(IntArray.of(1, 2, 1), w);
+  }
+
+  @Test
+  public void testDirectArrays() throws Exception {
+    DirectArrayBackend backend = new DirectArrayBackend();
+    DoubleArray x = backend.getArrayFactory().newDoubleArray(6, 4);
+    x.assign(Arrays.linspace(0, 23, 24).reshape(6, 4));
+    IntArray rows = indexes(5, 0, 1, 2, 3);
+    DoubleArray expected = Arrays.linspace(0, 23, 24).reshape(6, 4).get(rows, ALL);
+    assertEquals(expected, x.get(rows, ALL));
+    assertEquals(DoubleArray.of(5, 0, 1, 2, 3), Arrays.take(x, rows));
+  }
+}
@@ -26,7 +26,9 @@ import static org.junit.Assert.assertEquals;
 import java.util.Arrays;
 import java.util.List;
 
+import org.apache.commons.math3.complex.Complex;
 import org.briljantframework.array.api.ArrayFactory;
+import org.junit.Test;
 
 /**
  * Created by isak on 5/3/16.
@@ -124,4 +126,13 @@ public abstract class IntArrayTest extends AbstractBaseArrayTest<IntArray> {
     };
   }
 
+  @Test
+  public void testMapToComplex() throws Exception {
+    IntArray x = getArrayFactory().newIntVector(1, 2, 3, 4, 5, 6).reshape(2, 3);
+    ComplexArray complex = x.mapToComplex(v -> Complex.valueOf(v, -v));
+    assertArrayEquals(new int[] {2, 3}, complex.getShape());
+    for (int i = 0; i < x.size(); i++) {
+      assertEquals(Complex.valueOf(x.get(i), -x.get(i)), complex.get(i));
+    }
+  }
 }
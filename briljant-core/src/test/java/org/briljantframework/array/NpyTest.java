@@ -0,0 +1,157 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 Isak Karlsson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.briljantframework.array;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.commons.math3.complex.Complex;
+import org.briljantframework.array.direct.DirectArrayBackend;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * @author Isak Karlsson
+ */
+public class NpyTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void testWriteAndReadNpy() throws Exception {
+    DoubleArray x = Arrays.linspace(-1, 1, 4 * 6).reshape(4, 6);
+    assertRoundTrip(x);
+    assertRoundTrip(x.getView(1, 2, 2, 3));
+    assertRoundTrip(Arrays.range(24).reshape(2, 3, 4).transpose());
+    assertRoundTrip(LongArray.of(1, Long.MIN_VALUE, Long.MAX_VALUE));
+    assertRoundTrip(BooleanArray.of(true, false, false, true).reshape(2, 2));
+
+    ComplexArray c = ComplexArray.zeros(2, 2);
+    c.set(0, new Complex(1, 2));
+    c.set(3, new Complex(-3, 4));
+    assertRoundTrip(c);
+  }
+
+  @Test
+  public void testHeaderIsAlignedTo64Bytes() throws Exception {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    Arrays.writeNpy(DoubleArray.of(1, 2, 3), out);
+    byte[] bytes = out.toByteArray();
+    int headerLength = (bytes[8] & 0xFF) | (bytes[9] & 0xFF) << 8;
+    assertEquals(0, (10 + headerLength) % 64);
+    String header = new String(bytes, 10, headerLength, StandardCharsets.ISO_8859_1);
+    assertTrue(header.startsWith("{'descr': '<f8', 'fortran_order': True, 'shape': (3,), }"));
+    assertEquals(10 + headerLength + 3 * Double.BYTES, bytes.length);
+  }
+
+  @Test
+  public void testReadCOrder() throws Exception {
+    // as written by numpy.save(file, numpy.arange(6).reshape(2, 3))
+    byte[] bytes = npy("{'descr': '<i8', 'fortran_order': False, 'shape': (2, 3), }",
+        ByteOrder.LITTLE_ENDIAN, 0, 1, 2, 3, 4, 5);
+    LongArray expected = LongArray.of(0, 3, 1, 4, 2, 5).reshape(2, 3);
+    assertEquals(expected, Arrays.readNpy(new ByteArrayInputStream(bytes)));
+
+    File file = folder.newFile();
+    Files.write(file.toPath(), bytes);
+    assertEquals(expected, Arrays.readNpy(file.toPath()));
+
+    BaseArray<?> mapped = Arrays.mapNpy(file.toPath(), FileChannel.MapMode.READ_ONLY);
+    assertEquals(expected, mapped);
+    assertFalse(DirectArrayBackend.isReleased(mapped)); // stored in direct memory
+  }
+
+  @Test
+  public void testMapNpyReadWrite() throws Exception {
+    File file = folder.newFile();
+    DoubleArray x = Arrays.linspace(0, 1, 12).reshape(3, 4);
+    Arrays.writeNpy(x, file.toPath());
+
+    DoubleArray mapped = (DoubleArray) Arrays.mapNpy(file.toPath(), FileChannel.MapMode.READ_WRITE);
+    assertEquals(x, mapped);
+    mapped.set(1, 2, 100);
+    DirectArrayBackend.release(mapped);
+
+    x.set(1, 2, 100);
+    assertEquals(x, Arrays.readNpy(file.toPath()));
+  }
+
+  @Test
+  public void testReadNpy_BigEndianFloats() throws Exception {
+    ByteBuffer data = ByteBuffer.allocate(12).order(ByteOrder.BIG_ENDIAN);
+    data.putFloat(1.5f).putFloat(-2).putFloat(3);
+    byte[] bytes = npy("{'descr': '>f4', 'fortran_order': False, 'shape': (3,), }", data.array());
+    assertEquals(DoubleArray.of(1.5, -2, 3), Arrays.readNpy(new ByteArrayInputStream(bytes)));
+  }
+
+  @Test
+  public void testWriteAndReadNpz() throws Exception {
+    Map<String, BaseArray<?>> arrays = new LinkedHashMap<>();
+    arrays.put("x", Arrays.linspace(0, 1, 10).reshape(2, 5));
+    arrays.put("y", IntArray.of(1, 2, 3));
+    File file = folder.newFile();
+    Arrays.writeNpz(arrays, file.toPath());
+    assertEquals(arrays, Arrays.readNpz(file.toPath()));
+  }
+
+  private void assertRoundTrip(BaseArray<?> array) throws Exception {
+    File file = folder.newFile();
+    Arrays.writeNpy(array, file.toPath());
+    assertEquals(array, Arrays.readNpy(file.toPath()));
+    assertEquals(array, Arrays.readNpy(Files.newInputStream(file.toPath())));
+  }
+
+  private static byte[] npy(String header, ByteOrder order, long... values) {
+    ByteBuffer data = ByteBuffer.allocate(values.length * Long.BYTES).order(order);
+    for (long value : values) {
+      data.putLong(value);
+    }
+    return npy(header, data.array());
+  }
+
+  private static byte[] npy(String header, byte[] data) {
+    StringBuilder padded = new StringBuilder(header);
+    while ((10 + padded.length() + 1) % 64 != 0) {
+      padded.append(' ');
+    }
+    padded.append('\n');
+    ByteBuffer buffer =
+        ByteBuffer.allocate(10 + padded.length() + data.length).order(ByteOrder.LITTLE_ENDIAN);
+    buffer.put((byte) 0x93).put("NUMPY".getBytes(StandardCharsets.ISO_8859_1)).put((byte) 1)
+        .put((byte) 0).putShort((short) padded.length());
+    buffer.put(padded.toString().getBytes(StandardCharsets.ISO_8859_1)).put(data);
+    return buffer.array();
+  }
+}
@@ -0,0 +1,113 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 Isak Karlsson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.briljantframework.array;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import org.junit.Test;
+
+public class StridedLoopTest {
+
+  /**
+   * Walk the loop and check that each visited location is the location computed by
+   * {@link StrideUtils#index(int, int, int[], int[])}.
+   */
+  private static void assertWalksInLinearOrder(int start, int end, BaseArray<?>... arrays) {
+    StridedLoop loop = StridedLoop.range(start, end, arrays);
+    int linear = start;
+    while (loop.next()) {
+      assertEquals(linear, loop.position());
+      for (int k = 0; k < arrays.length; k++) {
+        BaseArray<?> x = arrays[k];
+        for (int i = 0; i < loop.length(); i++) {
+          int expected = StrideUtils.index(linear + i, x.getOffset(), x.getStride(), x.getShape());
+          assertEquals(expected, loop.offset(k) + i * loop.stride(k));
+        }
+      }
+      linear += loop.length();
+    }
+    assertEquals(end, linear);
+    assertFalse(loop.next());
+  }
+
+  @Test
+  public void testContiguousIsSingleBlock() throws Exception {
+    DoubleArray x = Arrays.zeros(3, 4, 5);
+    StridedLoop loop = StridedLoop.of(x);
+    loop.next();
+    assertEquals(60, loop.length());
+    assertFalse(loop.next());
+  }
+
+  @Test
+  public void testViews() throws Exception {
+    DoubleArray x = Arrays.zeros(6, 7, 8);
+    DoubleArray sub = x.getView(Arrays.range(1, 5), Arrays.range(2, 7, 2), Arrays.range(0, 8, 3));
+    DoubleArray transposed = x.transpose();
+    assertWalksInLinearOrder(0, x.size(), x);
+    assertWalksInLinearOrder(0, sub.size(), sub);
+    assertWalksInLinearOrder(0, transposed.size(), transposed);
+    assertWalksInLinearOrder(0, transposed.size(), transposed, transposed.copy());
+    DoubleArray y = Arrays.zeros(7, 7);
+    assertWalksInLinearOrder(0, 7, y.getColumn(3), y.getRow(2).transpose());
+  }
+
+  @Test
+  public void testBroadcast() throws Exception {
+    DoubleArray x = Arrays.zeros(4, 5);
+    DoubleArray row = Arrays.broadcastTo(Arrays.zeros(1, 5), x.getShape());
+    DoubleArray column = Arrays.broadcastTo(Arrays.zeros(4, 1), x.getShape());
+    assertWalksInLinearOrder(0, x.size(), x, row, column);
+  }
+
+  @Test
+  public void testRange() throws Exception {
+    DoubleArray x = Arrays.zeros(7, 6, 5).transpose();
+    for (int start = 0; start < x.size(); start += 13) {
+      for (int end = start; end <= x.size(); end += 17) {
+        assertWalksInLinearOrder(start, end, x, x.copy());
+      }
+    }
+  }
+
+  @Test
+  public void testBulkOperationsOnViews() throws Exception {
+    DoubleArray x = Arrays.linspace(0, 59, 60).reshape(3, 4, 5);
+    DoubleArray view = x.transpose().getView(Arrays.range(1, 4), Arrays.range(0, 4, 2),
+        Arrays.range(0, 3));
+    DoubleArray expected = Arrays.zeros(view.getShape());
+    for (int i = 0; i < view.size(); i++) {
+      expected.set(i, view.get(i) * 2 + 1);
+    }
+
+    ArrayAssert.assertArrayEquals(expected, view.map(v -> v * 2 + 1), 0);
+    ArrayAssert.assertArrayEquals(expected, view.copy().combine(
+        Arrays.broadcastTo(Arrays.doubleVector(1).reshape(1, 1, 1), view.getShape()),
+        (a, b) -> a * 2 + b), 0);
+    assertEquals(expected.reduce(0, Double::sum), view.reduce(0, (a, v) -> a + 2 * v + 1), 0);
+
+    view.apply(v -> v * 2 + 1);
+    for (int i = 0; i < view.size(); i++) {
+      assertEquals(expected.get(i), view.get(i), 0);
+    }
+  }
+}
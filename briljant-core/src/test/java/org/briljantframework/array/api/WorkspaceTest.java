@@ -0,0 +1,123 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 Isak Karlsson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.briljantframework.array.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import org.apache.commons.math3.complex.Complex;
+import org.briljantframework.array.ArrayOperation;
+import org.briljantframework.array.Arrays;
+import org.briljantframework.array.ComplexArray;
+import org.briljantframework.array.DoubleArray;
+import org.briljantframework.array.netlib.NetlibArrayBackend;
+import org.briljantframework.math.transform.DiscreteFourierTransform;
+import org.junit.Test;
+
+/**
+ * @author Isak Karlsson
+ */
+public class WorkspaceTest {
+
+  private final ArrayFactory factory = new NetlibArrayBackend().getArrayFactory();
+
+  @Test
+  public void testArraysAreRecycledOnClose() throws Exception {
+    Workspace workspace = factory.newWorkspace();
+    DoubleArray first;
+    try (Workspace ws = workspace.open()) {
+      first = ws.doubleArray(3, 3);
+      first.assign(10);
+      assertEquals(1, ws.inUse());
+    }
+    assertEquals(0, workspace.inUse());
+    assertEquals(1, workspace.available());
+
+    try (Workspace ws = workspace.open()) {
+      DoubleArray second = ws.doubleArray(3, 3);
+      assertSame(first, second);
+      assertEquals(factory.newDoubleArray(3, 3), second); // zero filled
+      assertNotSame(second, ws.doubleArray(3, 3));
+      assertNotSame(second, ws.doubleArray(9));
+    }
+    assertEquals(3, workspace.available());
+  }
+
+  @Test
+  public void testNestedScopes() throws Exception {
+    Workspace workspace = factory.newWorkspace();
+    try (Workspace outer = workspace.open()) {
+      DoubleArray a = outer.doubleArray(4);
+      try (Workspace inner = workspace.open()) {
+        inner.doubleArray(4);
+        inner.intArray(4);
+        assertEquals(3, workspace.inUse());
+      }
+      assertEquals(1, workspace.inUse());
+      assertNotSame(a, outer.doubleArray(4));
+    }
+    assertEquals(0, workspace.inUse());
+  }
+
+  @Test
+  public void testComplexArray() throws Exception {
+    Workspace workspace = factory.newWorkspace();
+    try (Workspace ws = workspace.open()) {
+      ws.complexArray(2).assign(Complex.ONE);
+    }
+    try (Workspace ws = workspace.open()) {
+      ComplexArray c = ws.complexArray(2);
+      assertEquals(Complex.ZERO, c.get(0));
+      assertEquals(Complex.ZERO, c.get(1));
+    }
+  }
+
+  @Test
+  public void testDot() throws Exception {
+    DoubleArray a = Arrays.linspace(0, 5, 6).reshape(2, 3);
+    DoubleArray b = Arrays.linspace(0, 5, 6).reshape(3, 2);
+    Workspace workspace = factory.newWorkspace();
+    DoubleArray expected = Arrays.dot(ArrayOperation.KEEP, ArrayOperation.KEEP, a, 2, b);
+    for (int i = 0; i < 3; i++) {
+      try (Workspace ws = workspace.open()) {
+        assertEquals(expected,
+            Arrays.dot(ArrayOperation.KEEP, ArrayOperation.KEEP, a, 2, b, ws));
+      }
+    }
+    assertEquals(1, workspace.available());
+  }
+
+  @Test
+  public void testFftInplace() throws Exception {
+    Workspace workspace = factory.newWorkspace();
+    for (int n : new int[] {5, 8, 5}) {
+      ComplexArray x = Arrays.linspace(0, 1, n).complexArray().copy();
+      ComplexArray expected = DiscreteFourierTransform.fft(x);
+      DiscreteFourierTransform.fftInplace(x, workspace);
+      for (int i = 0; i < n; i++) {
+        assertEquals(expected.get(i).getReal(), x.get(i).getReal(), 1e-10);
+        assertEquals(expected.get(i).getImaginary(), x.get(i).getImaginary(), 1e-10);
+      }
+      assertEquals(0, workspace.inUse());
+    }
+  }
+}
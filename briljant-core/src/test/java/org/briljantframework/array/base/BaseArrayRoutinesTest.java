@@ -22,11 +22,19 @@ package org.briljantframework.array.base;
 
 import static org.junit.Assert.assertEquals;
 
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import org.briljantframework.array.ArrayAssert;
+import org.briljantframework.array.ArrayOperation;
 import org.briljantframework.array.ArrayPrinter;
 import org.briljantframework.array.DoubleArray;
+import org.briljantframework.array.Range;
+import org.briljantframework.array.api.AbstractArrayRoutines;
 import org.briljantframework.array.api.ArrayBackend;
 import org.briljantframework.array.api.ArrayFactory;
 import org.briljantframework.array.api.ArrayRoutines;
+import org.briljantframework.array.api.ParallelPolicy;
 import org.briljantframework.array.netlib.NetlibArrayBackend;
 import org.junit.Test;
 
@@ -173,7 +181,31 @@ public class BaseArrayRoutinesTest {
 
   @Test
   public void testGemv() throws Exception {
-
+    ArrayRoutines routines = new AbstractArrayRoutines(b) {};
+    DoubleArray a = bj.randn(7 * 5).reshape(7, 5);
+    for (ArrayOperation transA : ArrayOperation.values()) {
+      DoubleArray opA = transA.isTranspose() ? a.transpose() : a;
+      DoubleArray x = bj.randn(opA.columns());
+      DoubleArray y = bj.randn(opA.rows());
+      DoubleArray product = bj.newDoubleArray(opA.rows());
+      DoubleArray expected = bj.newDoubleArray(opA.rows());
+      for (int i = 0; i < opA.rows(); i++) {
+        double sum = 0;
+        for (int j = 0; j < opA.columns(); j++) {
+          sum += opA.get(i, j) * x.get(j);
+        }
+        product.set(i, sum);
+        expected.set(i, 2 * sum + 3 * y.get(i));
+      }
+      routines.gemv(transA, 2, a, x, 3, y);
+      ArrayAssert.assertArrayEquals(expected, y, 1e-10);
+
+      // y is not read if beta is zero
+      DoubleArray z = bj.newDoubleArray(opA.rows());
+      z.assign(Double.NaN);
+      routines.gemv(transA, 1, a, x, 0, z);
+      ArrayAssert.assertArrayEquals(product, z, 1e-10);
+    }
   }
 
   @Test
@@ -186,8 +218,71 @@ public class BaseArrayRoutinesTest {
   }
 
   @Test
-  public void testGemm() throws Exception {
+  public void testGerAddsToMatrix() throws Exception {
+    ArrayRoutines routines = new AbstractArrayRoutines(b) {};
+    DoubleArray x = bj.randn(4);
+    DoubleArray y = bj.randn(3);
+    DoubleArray a = bj.randn(4 * 3).reshape(4, 3);
+    DoubleArray expected = bj.newDoubleArray(4, 3);
+    for (int i = 0; i < 4; i++) {
+      for (int j = 0; j < 3; j++) {
+        expected.set(i, j, a.get(i, j) + 2 * x.get(i) * y.get(j));
+      }
+    }
+    routines.ger(2, x, y, a);
+    ArrayAssert.assertArrayEquals(expected, a, 1e-12);
+  }
 
+  @Test
+  public void testGemm() throws Exception {
+    ArrayRoutines routines = new AbstractArrayRoutines(b) {};
+    for (ArrayOperation transA : ArrayOperation.values()) {
+      for (ArrayOperation transB : ArrayOperation.values()) {
+        assertGemm(routines, transA, transB, 7, 5, 9);
+        assertGemm(routines, transA, transB, 67, 131, 259);
+        assertGemm(routines, transA, transB, 300, 261, 513);
+      }
+    }
+  }
+
+  @Test
+  public void testGemmStridedViews() throws Exception {
+    ArrayRoutines routines = new AbstractArrayRoutines(b) {};
+    DoubleArray a = bj.randn(40 * 30).reshape(40, 30).getView(Range.of(1, 40, 2), Range.of(3, 27));
+    DoubleArray x = bj.randn(24 * 19).reshape(19, 24).transpose();
+    DoubleArray c = bj.randn(60 * 40).reshape(60, 40).getView(Range.of(0, 60, 3), Range.of(2, 21));
+    DoubleArray expected = naiveGemm(ArrayOperation.KEEP, ArrayOperation.KEEP, 0.5, a, x, 2, c);
+    routines.gemm(ArrayOperation.KEEP, ArrayOperation.KEEP, 0.5, a, x, 2, c);
+    ArrayAssert.assertArrayEquals(expected, c, 1e-10);
+  }
+
+  private void assertGemm(ArrayRoutines routines, ArrayOperation transA, ArrayOperation transB,
+      int m, int n, int k) {
+    DoubleArray a = transA.isTranspose() ? bj.randn(k * m).reshape(k, m)
+        : bj.randn(m * k).reshape(m, k);
+    DoubleArray x = transB.isTranspose() ? bj.randn(n * k).reshape(n, k)
+        : bj.randn(k * n).reshape(k, n);
+    DoubleArray c = bj.randn(m * n).reshape(m, n);
+    DoubleArray expected = naiveGemm(transA, transB, 2, a, x, 3, c);
+    routines.gemm(transA, transB, 2, a, x, 3, c);
+    ArrayAssert.assertArrayEquals(expected, c, 1e-9);
+  }
+
+  private DoubleArray naiveGemm(ArrayOperation transA, ArrayOperation transB, double alpha,
+      DoubleArray a, DoubleArray x, double beta, DoubleArray c) {
+    DoubleArray opA = transA.isTranspose() ? a.transpose() : a;
+    DoubleArray opB = transB.isTranspose() ? x.transpose() : x;
+    DoubleArray out = bj.newDoubleArray(c.rows(), c.columns());
+    for (int i = 0; i < opA.rows(); i++) {
+      for (int j = 0; j < opB.columns(); j++) {
+        double sum = 0;
+        for (int k = 0; k < opA.columns(); k++) {
+          sum += opA.get(i, k) * opB.get(k, j);
+        }
+        out.set(i, j, alpha * sum + beta * c.get(i, j));
+      }
+    }
+    return out;
   }
 
   @Test
@@ -254,4 +349,52 @@ public class BaseArrayRoutinesTest {
   public void testScal() throws Exception {
 
   }
+
+  @Test
+  public void testParallelElementWiseEqualsSerial() throws Exception {
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      ArrayRoutines routines = new AbstractArrayRoutines(b) {};
+      routines.setParallelPolicy(ParallelPolicy.of(pool, 0, 7));
+      DoubleArray x = bj.rand(101 * 37).reshape(101, 37);
+      DoubleArray y = bj.rand(37 * 101).reshape(37, 101).transpose();
+      DoubleArray row = bj.rand(37).reshape(1, 37);
+
+      ParallelPolicy serial = ParallelPolicy.serial();
+      ArrayAssert.assertArrayEquals(serial.call(() -> routines.plus(x, y)), routines.plus(x, y),
+          0);
+      ArrayAssert.assertArrayEquals(serial.call(() -> routines.times(x, row)),
+          routines.times(x, row), 0);
+      ArrayAssert.assertArrayEquals(serial.call(() -> routines.div(y, x)), routines.div(y, x), 0);
+      ArrayAssert.assertArrayEquals(serial.call(() -> routines.exp(y)), routines.exp(y), 0);
+      ArrayAssert.assertArrayEquals(serial.call(() -> routines.pow(x, 2.5)), routines.pow(x, 2.5),
+          0);
+
+      DoubleArray expected = x.copy();
+      serial.run(() -> routines.minusAssign(y, expected));
+      DoubleArray actual = x.copy();
+      routines.minusAssign(y, actual);
+      ArrayAssert.assertArrayEquals(expected, actual, 0);
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  @Test
+  public void testParallelPolicyCoversRange() throws Exception {
+    ForkJoinPool pool = new ForkJoinPool(3);
+    try {
+      AtomicIntegerArray visits = new AtomicIntegerArray(1013);
+      ParallelPolicy.of(pool, 0, 10).execute(visits.length(), (start, end) -> {
+        for (int i = start; i < end; i++) {
+          visits.incrementAndGet(i);
+        }
+      });
+      for (int i = 0; i < visits.length(); i++) {
+        assertEquals(1, visits.get(i));
+      }
+    } finally {
+      pool.shutdown();
+    }
+  }
 }
@@ -0,0 +1,132 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 Isak Karlsson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.briljantframework.array.direct;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+
+import org.briljantframework.array.ArrayAssert;
+import org.briljantframework.array.Arrays;
+import org.briljantframework.array.DoubleArray;
+import org.briljantframework.array.FloatArray;
+import org.briljantframework.array.api.ArrayFactory;
+import org.briljantframework.array.api.LinearAlgebraRoutines;
+import org.briljantframework.array.netlib.NetlibArrayBackend;
+import org.junit.Test;
+
+public class DirectArrayBackendTest {
+
+  private DirectArrayBackend backend = new DirectArrayBackend();
+  private ArrayFactory bj = backend.getArrayFactory();
+
+  @Test
+  public void testViewsShareStorage() throws Exception {
+    DoubleArray x = bj.linspace(0, 11, 12).reshape(3, 4);
+    DoubleArray row = x.getRow(1);
+    row.assign(-1);
+    ArrayAssert.assertArrayEquals(bj.newDoubleVector(0, -1, 2, 3, -1, 5, 6, -1, 8, 9, -1, 11),
+        x.ravel(), 0);
+    assertEquals(-1, x.transpose().get(3, 1), 0);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testReleaseInvalidatesViews() throws Exception {
+    DoubleArray x = bj.ones(10, 10);
+    DoubleArray view = x.getColumn(2);
+    assertFalse(DirectArrayBackend.isReleased(view));
+    DirectArrayBackend.release(x);
+    assertTrue(DirectArrayBackend.isReleased(view));
+    view.get(0);
+  }
+
+  @Test
+  public void testMapDoubleArray() throws Exception {
+    File file = File.createTempFile("direct", ".bin");
+    file.deleteOnExit();
+    try (RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        FileChannel channel = raf.getChannel()) {
+      DoubleArray x = backend.mapDoubleArray(channel, FileChannel.MapMode.READ_WRITE, 8,
+          ByteOrder.LITTLE_ENDIAN, 2, 3);
+      x.assign(bj.linspace(1, 6, 6).reshape(2, 3));
+      DirectArrayBackend.release(x);
+
+      DoubleArray y = backend.mapDoubleArray(channel, FileChannel.MapMode.READ_ONLY, 8,
+          ByteOrder.LITTLE_ENDIAN, 3, 2);
+      ArrayAssert.assertValueEquals(y, bj.linspace(1, 6, 6), 0);
+      DirectArrayBackend.release(y);
+    }
+  }
+
+  @Test
+  public void testMapFloatArray() throws Exception {
+    File file = File.createTempFile("direct", ".bin");
+    file.deleteOnExit();
+    try (RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        FileChannel channel = raf.getChannel()) {
+      FloatArray x = backend.mapFloatArray(channel, FileChannel.MapMode.READ_WRITE, 4,
+          ByteOrder.LITTLE_ENDIAN, 2, 3);
+      x.assign(bj.linspace(1, 6, 6).reshape(2, 3));
+      assertTrue(x instanceof DirectArray);
+      DirectArrayBackend.release(x);
+
+      FloatArray y = backend.mapFloatArray(channel, FileChannel.MapMode.READ_ONLY, 4,
+          ByteOrder.LITTLE_ENDIAN, 6);
+      ArrayAssert.assertArrayEquals(bj.linspace(1, 6, 6), y.doubleArray(), 0);
+      assertEquals(6 * Float.BYTES + 4, file.length());
+      DirectArrayBackend.release(y);
+    }
+  }
+
+  @Test
+  public void testCallWithScopesBackend() throws Exception {
+    DoubleArray x = Arrays.callWith(backend, () -> {
+      assertTrue(Arrays.getArrayBackend() == backend);
+      return Arrays.plus(Arrays.ones(3, 3), Arrays.ones(3, 3));
+    });
+    assertTrue(x instanceof DirectArray);
+    assertFalse(Arrays.ones(3, 3) instanceof DirectArray);
+    DoubleArray expected = bj.newDoubleArray(3, 3);
+    expected.assign(2);
+    ArrayAssert.assertArrayEquals(expected, x, 0);
+  }
+
+  @Test
+  public void testLinearAlgebraRoutines() throws Exception {
+    LinearAlgebraRoutines linalg = backend.getLinearAlgebraRoutines();
+    double[][] data = {{4, 1, 2}, {1, 5, 3}, {2, 3, 6}};
+    DoubleArray x = bj.newDoubleMatrix(data);
+    DoubleArray expected = new NetlibArrayBackend().getLinearAlgebraRoutines()
+        .inv(new NetlibArrayBackend().getArrayFactory().newDoubleMatrix(data));
+
+    DoubleArray inv = linalg.inv(x);
+    assertTrue(inv.getClass() == x.getClass());
+    ArrayAssert.assertValueEquals(inv, expected, 1e-10);
+    assertEquals(new NetlibArrayBackend().getLinearAlgebraRoutines()
+        .det(new NetlibArrayBackend().getArrayFactory().newDoubleMatrix(data)), linalg.det(x),
+        1e-10);
+  }
+}
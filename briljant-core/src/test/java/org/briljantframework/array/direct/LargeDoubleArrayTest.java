@@ -0,0 +1,153 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 Isak Karlsson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.briljantframework.array.direct;
+
+import static org.junit.Assert.assertEquals;
+
+import org.briljantframework.array.ArrayAssert;
+import org.briljantframework.array.ArrayOperation;
+import org.briljantframework.array.DoubleArray;
+import org.briljantframework.array.api.ArrayFactory;
+import org.junit.Test;
+
+public class LargeDoubleArrayTest {
+
+  private DirectArrayBackend backend = new DirectArrayBackend();
+  private ArrayFactory bj = backend.getArrayFactory();
+
+  /**
+   * Create a matrix with chunks of 8 elements, so that columns cross chunk boundaries in the same
+   * way as they do for arrays larger than 2^31 elements.
+   */
+  private LargeDoubleArray newMatrix(int rows, int columns) {
+    DirectStorage storage = DirectStorage.allocate((long) rows * columns, Double.BYTES, 6);
+    LargeDoubleArray x = new LargeDoubleArray(backend, rows, columns, storage);
+    for (long i = 0; i < x.size(); i++) {
+      x.set(i, i);
+    }
+    return x;
+  }
+
+  @Test
+  public void testGetColumnAcrossChunks() throws Exception {
+    LargeDoubleArray x = newMatrix(5, 7);
+    DoubleArray column = x.getColumn(3);
+    ArrayAssert.assertArrayEquals(bj.newDoubleVector(15, 16, 17, 18, 19), column, 0);
+
+    column.set(1, -1);
+    assertEquals(-1, x.get(1, 3), 0);
+    assertEquals(-1, x.getRange(10, 8).get(6), 0);
+  }
+
+  @Test
+  public void testElementWiseAndReductions() throws Exception {
+    LargeDoubleArray x = newMatrix(5, 7);
+    LargeDoubleArray y = x.map(v -> 2 * v);
+    assertEquals(2 * 34, y.get(4, 6), 0);
+
+    y.axpy(-1, x).plusAssign(x).timesAssign(0.5);
+    assertEquals(34 * 35 / 2, y.sum(), 0);
+    assertEquals(17, y.mean(), 0);
+    assertEquals(0, y.min(), 0);
+    assertEquals(34, y.max(), 0);
+    assertEquals(x.inner(x), y.reduce(0, (a, v) -> a + v * v), 1e-10);
+  }
+
+  @Test
+  public void testSumAlongDimension() throws Exception {
+    LargeDoubleArray x = newMatrix(5, 7);
+    DoubleArray matrix = bj.linspace(0, 34, 35).reshape(5, 7);
+    ArrayAssert.assertArrayEquals(backend.getArrayRoutines().sum(0, matrix).ravel(), x.sum(0),
+        1e-10);
+    ArrayAssert.assertArrayEquals(backend.getArrayRoutines().sum(1, matrix).ravel(), x.sum(1),
+        1e-10);
+  }
+
+  @Test
+  public void testGemv() throws Exception {
+    LargeDoubleArray a = newMatrix(5, 7);
+    DoubleArray matrix = bj.linspace(0, 34, 35).reshape(5, 7);
+    DoubleArray x = bj.linspace(-1, 1, 7);
+    DoubleArray y = bj.ones(5);
+    DoubleArray expected = bj.ones(5);
+    backend.getArrayRoutines().gemm(ArrayOperation.KEEP, ArrayOperation.KEEP, 2, matrix,
+        x.reshape(7, 1), 3, expected.reshape(5, 1));
+    a.gemv(ArrayOperation.KEEP, 2, x, 3, y);
+    ArrayAssert.assertArrayEquals(expected, y, 1e-10);
+
+    DoubleArray z = bj.linspace(-1, 1, 5);
+    y = bj.ones(7);
+    expected = bj.ones(7);
+    backend.getArrayRoutines().gemm(ArrayOperation.TRANSPOSE, ArrayOperation.KEEP, 2, matrix,
+        z.reshape(5, 1), 0, expected.reshape(7, 1));
+    a.gemv(ArrayOperation.TRANSPOSE, 2, z, 0, y);
+    ArrayAssert.assertArrayEquals(expected, y, 1e-10);
+  }
+
+  @Test
+  public void testGemvLargeVectors() throws Exception {
+    LargeDoubleArray a = newMatrix(5, 7);
+    DoubleArray matrix = bj.linspace(0, 34, 35).reshape(5, 7);
+    for (ArrayOperation op : ArrayOperation.values()) {
+      int m = op.isTranspose() ? 7 : 5, n = op.isTranspose() ? 5 : 7;
+      LargeDoubleArray x = newMatrix(n, 1), y = newMatrix(m, 1);
+      DoubleArray expected = bj.linspace(0, m - 1, m).reshape(m, 1);
+      backend.getArrayRoutines().gemm(op, ArrayOperation.KEEP, 2, matrix,
+          bj.linspace(0, n - 1, n).reshape(n, 1), 3, expected);
+      a.gemv(op, 2, x, 3, y);
+      ArrayAssert.assertArrayEquals(expected.ravel(), y.getColumn(0), 1e-10);
+    }
+  }
+
+  @Test
+  public void testGemm() throws Exception {
+    LargeDoubleArray a = newMatrix(5, 7);
+    DoubleArray matrix = bj.linspace(0, 34, 35).reshape(5, 7);
+    for (ArrayOperation transA : ArrayOperation.values()) {
+      for (ArrayOperation transB : ArrayOperation.values()) {
+        int m = transA.isTranspose() ? 7 : 5, k = transA.isTranspose() ? 5 : 7;
+        int br = transB.isTranspose() ? 3 : k, bc = transB.isTranspose() ? k : 3;
+        LargeDoubleArray b = newMatrix(br, bc), c = newMatrix(m, 3);
+        DoubleArray expected = bj.linspace(0, m * 3 - 1, m * 3).reshape(m, 3);
+        backend.getArrayRoutines().gemm(transA, transB, 2, matrix,
+            bj.linspace(0, br * bc - 1, br * bc).reshape(br, bc), 0.5, expected);
+        a.gemm(transA, transB, 2, b, 0.5, c);
+        for (int j = 0; j < 3; j++) {
+          ArrayAssert.assertArrayEquals(expected.getColumn(j).ravel(), c.getColumn(j), 1e-9);
+        }
+      }
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testGemmNonconformant() throws Exception {
+    newMatrix(5, 7).gemm(ArrayOperation.KEEP, ArrayOperation.KEEP, 1, newMatrix(5, 2), 0,
+        newMatrix(5, 2));
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testReleaseInvalidatesColumns() throws Exception {
+    LargeDoubleArray x = newMatrix(5, 7);
+    DoubleArray column = x.getColumn(2);
+    x.release();
+    column.get(0);
+  }
+}
@@ -0,0 +1,189 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 Isak Karlsson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.briljantframework.array.linalg.iterative;
+
+import static org.junit.Assert.assertTrue;
+
+import org.briljantframework.array.ArrayAssert;
+import org.briljantframework.array.Arrays;
+import org.briljantframework.array.DoubleArray;
+import org.briljantframework.array.api.ArrayFactory;
+import org.briljantframework.array.sparse.SparseDoubleArray;
+import org.briljantframework.array.sparse.SparseMatrix;
+import org.junit.Test;
+
+public class IterativeSolverTest {
+
+  private static final double TOLERANCE = 1e-10;
+
+  private final ArrayFactory bj = Arrays.getArrayBackend().getArrayFactory();
+
+  /**
+   * The (symmetric positive definite) 2d Poisson matrix on a k-by-k grid
+   */
+  private SparseDoubleArray poisson(int k) {
+    int n = k * k, nnz = 0;
+    int[] rows = new int[5 * n], columns = new int[5 * n];
+    double[] values = new double[5 * n];
+    for (int i = 0; i < k; i++) {
+      for (int j = 0; j < k; j++) {
+        int p = i * k + j;
+        rows[nnz] = p;
+        columns[nnz] = p;
+        values[nnz++] = 4;
+        int[][] neighbours = {{i - 1, j}, {i + 1, j}, {i, j - 1}, {i, j + 1}};
+        for (int[] q : neighbours) {
+          if (q[0] >= 0 && q[0] < k && q[1] >= 0 && q[1] < k) {
+            rows[nnz] = p;
+            columns[nnz] = q[0] * k + q[1];
+            values[nnz++] = -1;
+          }
+        }
+      }
+    }
+    return bj.newSparseDoubleArray(SparseDoubleArray.Layout.CSR, n, n,
+        java.util.Arrays.copyOf(rows, nnz), java.util.Arrays.copyOf(columns, nnz),
+        java.util.Arrays.copyOf(values, nnz));
+  }
+
+  /**
+   * A (non-symmetric) diagonally dominant convection-diffusion like matrix
+   */
+  private DoubleArray nonSymmetric(int n) {
+    DoubleArray a = Arrays.doubleArray(n, n);
+    for (int i = 0; i < n; i++) {
+      a.set(i, i, 4);
+      if (i > 0) {
+        a.set(i, i - 1, -1.5);
+      }
+      if (i < n - 1) {
+        a.set(i, i + 1, -0.5);
+      }
+    }
+    return a;
+  }
+
+  private void assertSolution(DoubleArray a, DoubleArray b, DoubleArray x, SolverResult result) {
+    assertTrue(result.toString(), result.isConverged());
+    DoubleArray r = b.copy();
+    Arrays.gemv(-1, a, x, 1, r);
+    assertTrue(Math.sqrt(Arrays.inner(r, r)) <= 1e-8 * Math.sqrt(Arrays.inner(b, b)));
+  }
+
+  @Test
+  public void testConjugateGradient() throws Exception {
+    SparseDoubleArray a = poisson(12);
+    DoubleArray b = Arrays.randn(a.rows());
+    int previous = Integer.MAX_VALUE;
+    for (Preconditioner preconditioner : new Preconditioner[] {Preconditioner.identity(),
+        new IncompleteCholeskyPreconditioner(a)}) {
+      DoubleArray x = Arrays.doubleArray(a.rows());
+      SolverResult result = new ConjugateGradient(preconditioner, 1000, TOLERANCE)
+          .solve(LinearOperator.of(a), b, x);
+      assertSolution(a, b, x, result);
+      assertTrue(result.getIterations() < previous);
+      previous = result.getIterations();
+    }
+
+    DoubleArray x = Arrays.doubleArray(a.rows());
+    assertSolution(a, b, x, new ConjugateGradient(new JacobiPreconditioner(a), 1000, TOLERANCE)
+        .solve(LinearOperator.of(a.toDense()), b, x));
+  }
+
+  @Test
+  public void testBiConjugateGradientStabilized() throws Exception {
+    DoubleArray a = nonSymmetric(100);
+    DoubleArray b = Arrays.randn(100);
+    for (Preconditioner preconditioner : new Preconditioner[] {Preconditioner.identity(),
+        new JacobiPreconditioner(a)}) {
+      DoubleArray x = Arrays.doubleArray(100);
+      assertSolution(a, b, x, new BiConjugateGradientStabilized(preconditioner, 1000, TOLERANCE)
+          .solve(LinearOperator.of(a), b, x));
+    }
+  }
+
+  @Test
+  public void testGmres() throws Exception {
+    DoubleArray a = nonSymmetric(100);
+    DoubleArray b = Arrays.randn(100);
+    for (int restart : new int[] {5, 20, 200}) {
+      DoubleArray x = Arrays.doubleArray(100);
+      assertSolution(a, b, x,
+          new Gmres(new JacobiPreconditioner(a), restart, 1000, TOLERANCE)
+              .solve(LinearOperator.of(bj.toSparseDoubleArray(SparseDoubleArray.Layout.CSC, a)),
+                  b, x));
+    }
+  }
+
+  @Test
+  public void testSparseMatrix() throws Exception {
+    SparseDoubleArray a = poisson(12);
+    SparseMatrix m = a.toSparseMatrix();
+    DoubleArray b = Arrays.randn(a.rows());
+    for (Preconditioner preconditioner : new Preconditioner[] {new JacobiPreconditioner(m),
+        new IncompleteCholeskyPreconditioner(m)}) {
+      DoubleArray x = Arrays.doubleArray(a.rows());
+      assertSolution(a, b, x, new ConjugateGradient(preconditioner, 1000, TOLERANCE)
+          .solve(LinearOperator.of(m), b, x));
+    }
+  }
+
+  @Test
+  public void testMatrixFreeOperator() throws Exception {
+    DoubleArray a = nonSymmetric(50);
+    LinearOperator op = LinearOperator.of(50, 50, (x, y) -> {
+      for (int i = 0; i < 50; i++) {
+        double v = 4 * x.get(i);
+        v += i > 0 ? -1.5 * x.get(i - 1) : 0;
+        v += i < 49 ? -0.5 * x.get(i + 1) : 0;
+        y.set(i, v);
+      }
+    });
+    DoubleArray b = Arrays.randn(50);
+    IterativeSolver[] solvers = {new BiConjugateGradientStabilized(500, TOLERANCE),
+        new Gmres(10, 500, TOLERANCE)};
+    for (IterativeSolver solver : solvers) {
+      DoubleArray x = Arrays.doubleArray(50);
+      assertSolution(a, b, x, solver.solve(op, b, x));
+    }
+  }
+
+  @Test
+  public void testIncompleteCholeskyOfDenseMatrixIsExact() throws Exception {
+    DoubleArray a = poisson(3).toDense();
+    DoubleArray b = Arrays.randn(9);
+    DoubleArray z = Arrays.doubleArray(9);
+    new IncompleteCholeskyPreconditioner(a).apply(b, z);
+    DoubleArray az = Arrays.doubleArray(9);
+    Arrays.gemv(1, a, z, 0, az);
+    ArrayAssert.assertArrayEquals(b, az, 1e-10);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testIncompleteCholeskyNotPositiveDefinite() throws Exception {
+    DoubleArray a = Arrays.doubleArray(2, 2);
+    a.set(0, 0, 1);
+    a.set(1, 0, 2);
+    a.set(0, 1, 2);
+    a.set(1, 1, 1);
+    new IncompleteCholeskyPreconditioner(a);
+  }
+}
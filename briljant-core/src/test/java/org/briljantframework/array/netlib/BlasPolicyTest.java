@@ -0,0 +1,110 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 Isak Karlsson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.briljantframework.array.netlib;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.briljantframework.array.ArrayAssert;
+import org.briljantframework.array.ArrayOperation;
+import org.briljantframework.array.DoubleArray;
+import org.briljantframework.array.api.ArrayFactory;
+import org.briljantframework.array.api.ArrayRoutines;
+import org.junit.Test;
+
+public class BlasPolicyTest {
+
+  private NetlibArrayBackend backend = new NetlibArrayBackend(BlasPolicy.neverNative());
+  private ArrayFactory bj = backend.getArrayFactory();
+  private ArrayRoutines bjr = backend.getArrayRoutines();
+  private Random random = new Random(123);
+
+  private DoubleArray random(int... shape) {
+    DoubleArray x = bj.newDoubleArray(shape);
+    x.assign(random::nextGaussian);
+    return x;
+  }
+
+  @Test
+  public void testGemmJavaEqualsNative() throws Exception {
+    // a block of a larger matrix and a transposed matrix
+    DoubleArray a = random(9, 7).getView(1, 2, 5, 4);
+    DoubleArray b = random(6, 4).transpose();
+    for (ArrayOperation ta : new ArrayOperation[] {ArrayOperation.KEEP, ArrayOperation.TRANSPOSE}) {
+      DoubleArray x = ta == ArrayOperation.KEEP ? a : a.transpose().copy();
+      DoubleArray expected = random(5, 6);
+      DoubleArray actual = expected.copy();
+      BlasPolicy.alwaysNative()
+          .run(() -> bjr.gemm(ta, ArrayOperation.KEEP, 2, x, b, 0.5, expected));
+      bjr.gemm(ta, ArrayOperation.KEEP, 2, x, b, 0.5, actual);
+      ArrayAssert.assertArrayEquals(expected, actual, 1e-12);
+    }
+  }
+
+  @Test
+  public void testGemvJavaEqualsNative() throws Exception {
+    DoubleArray a = random(4, 6);
+    for (ArrayOperation ta : new ArrayOperation[] {ArrayOperation.KEEP, ArrayOperation.TRANSPOSE}) {
+      boolean t = ta.isTranspose();
+      DoubleArray x = random(2, t ? 4 : 6).getRow(1);
+      DoubleArray expected = random(t ? 6 : 4);
+      DoubleArray actual = expected.copy();
+      BlasPolicy.alwaysNative().run(() -> bjr.gemv(ta, 1.5, a, x, 2, expected));
+      bjr.gemv(ta, 1.5, a, x, 2, actual);
+      ArrayAssert.assertArrayEquals(expected, actual, 1e-12);
+    }
+  }
+
+  @Test
+  public void testGerJavaEqualsNative() throws Exception {
+    DoubleArray x = random(3, 5).getRow(2);
+    DoubleArray y = random(4);
+    DoubleArray expected = random(5, 4);
+    DoubleArray actual = expected.copy();
+    BlasPolicy.alwaysNative().run(() -> bjr.ger(0.5, x, y, expected));
+    bjr.ger(0.5, x, y, actual);
+    ArrayAssert.assertArrayEquals(expected, actual, 1e-12);
+  }
+
+  @Test
+  public void testLevel1JavaEqualsNative() throws Exception {
+    DoubleArray x = random(7, 9).getColumn(3);
+    DoubleArray y = random(9, 7).getRow(3);
+    double inner = BlasPolicy.alwaysNative().call(() -> bjr.inner(x, y));
+    double norm2 = BlasPolicy.alwaysNative().call(() -> bjr.norm2(y));
+    double asum = BlasPolicy.alwaysNative().call(() -> bjr.asum(y));
+    assertEquals(inner, bjr.inner(x, y), 1e-12);
+    assertEquals(norm2, bjr.norm2(y), 1e-12);
+    assertEquals(asum, bjr.asum(y), 1e-12);
+  }
+
+  @Test
+  public void testCalibrate() throws Exception {
+    BlasPolicy policy = BlasPolicy.calibrate();
+    DoubleArray a = random(8, 8);
+    DoubleArray expected = bj.newDoubleArray(8, 8);
+    DoubleArray actual = bj.newDoubleArray(8, 8);
+    bjr.gemm(ArrayOperation.KEEP, ArrayOperation.TRANSPOSE, 1, a, a, 0, expected);
+    policy.run(() -> bjr.gemm(ArrayOperation.KEEP, ArrayOperation.TRANSPOSE, 1, a, a, 0, actual));
+    ArrayAssert.assertArrayEquals(expected, actual, 1e-12);
+  }
+}
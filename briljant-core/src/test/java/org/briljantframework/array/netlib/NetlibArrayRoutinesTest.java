@@ -20,9 +20,13 @@
  */
 package org.briljantframework.array.netlib;
 
+import static org.junit.Assert.assertEquals;
+
+import org.apache.commons.math3.complex.Complex;
 import org.briljantframework.array.ArrayAssert;
 import org.briljantframework.array.ArrayOperation;
 import org.briljantframework.array.ArrayPrinter;
+import org.briljantframework.array.ComplexArray;
 import org.briljantframework.array.DoubleArray;
 import org.briljantframework.array.api.ArrayBackend;
 import org.briljantframework.array.api.ArrayFactory;
@@ -59,4 +63,72 @@ public class NetlibArrayRoutinesTest {
     bjr.gemv(ArrayOperation.TRANSPOSE, 1, a, x, 1, y);
     ArrayAssert.assertArrayEquals(bj.newDoubleVector(9, 15, 21), y, 0.0);
   }
+
+  private ComplexArray complexArray(int... shape) {
+    ComplexArray x = bj.newComplexArray(shape);
+    for (int i = 0; i < x.size(); i++) {
+      x.set(i, new Complex(i * 0.5 - 3, 2 - i * 0.25));
+    }
+    return x;
+  }
+
+  @Test
+  public void testComplexPlusAndTimes() throws Exception {
+    ComplexArray a = complexArray(4, 5);
+    ComplexArray b = complexArray(5, 4).transpose();
+    ComplexArray row = complexArray(1, 5);
+
+    ComplexArray plus = bjr.plus(a, b);
+    ComplexArray times = bjr.times(a, b);
+    ComplexArray broadcast = bjr.times(a, row);
+    for (int i = 0; i < a.size(); i++) {
+      assertEquals(a.get(i).add(b.get(i)), plus.get(i));
+      assertEquals(a.get(i).multiply(b.get(i)), times.get(i));
+    }
+    for (int i = 0; i < a.rows(); i++) {
+      for (int j = 0; j < a.columns(); j++) {
+        assertEquals(a.get(i, j).multiply(row.get(0, j)), broadcast.get(i, j));
+      }
+    }
+
+    ComplexArray c = a.copy();
+    bjr.plusAssign(b, c);
+    ArrayAssert.assertArrayEquals(plus, c);
+    c = a.copy();
+    bjr.timesAssign(b, c);
+    ArrayAssert.assertArrayEquals(times, c);
+  }
+
+  @Test
+  public void testComplexConjugateInnerAndNorm2() throws Exception {
+    ComplexArray a = complexArray(10);
+    ComplexArray b = complexArray(3, 10).getRow(1);
+    Complex expected = Complex.ZERO;
+    double sumOfSquares = 0;
+    for (int i = 0; i < a.size(); i++) {
+      expected = expected.add(a.get(i).conjugate().multiply(b.get(i)));
+      sumOfSquares += b.get(i).abs() * b.get(i).abs();
+    }
+    Complex actual = bjr.conjugateInner(a, b);
+    assertEquals(expected.getReal(), actual.getReal(), 1e-10);
+    assertEquals(expected.getImaginary(), actual.getImaginary(), 1e-10);
+    assertEquals(Math.sqrt(sumOfSquares), bjr.norm2(b).getReal(), 1e-10);
+    assertEquals(0, bjr.norm2(b).getImaginary(), 0);
+    assertEquals(bjr.norm2(b.copy()).getReal(), bjr.norm2(b).getReal(), 1e-10);
+  }
+
+  @Test
+  public void testComplexArrayViewsShareInterleavedStorage() throws Exception {
+    ComplexArray a = complexArray(3, 4);
+    ComplexArray column = a.getColumn(2);
+    column.set(1, new Complex(10, -10));
+    assertEquals(new Complex(10, -10), a.get(1, 2));
+
+    double[] data = a.transpose().data();
+    assertEquals(a.size() * 2, data.length);
+    assertEquals(a.get(0, 1).getReal(), data[2], 0);
+    assertEquals(a.get(0, 1).getImaginary(), data[3], 0);
+    ArrayAssert.assertArrayEquals(a.transpose(), a.transpose().copy());
+    assertEquals(new Complex(2, 0), bj.newComplexVector(1, 2).get(1));
+  }
 }
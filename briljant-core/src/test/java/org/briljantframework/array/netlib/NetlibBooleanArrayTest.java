@@ -0,0 +1,150 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 Isak Karlsson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.briljantframework.array.netlib;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.briljantframework.array.Arrays;
+import org.briljantframework.array.BooleanArray;
+import org.briljantframework.array.DoubleArray;
+import org.briljantframework.array.api.ArrayFactory;
+import org.briljantframework.array.api.ArrayRoutines;
+import org.junit.Test;
+
+public class NetlibBooleanArrayTest {
+
+  private NetlibArrayBackend backend = new NetlibArrayBackend();
+  private ArrayFactory bj = backend.getArrayFactory();
+  private ArrayRoutines bjr = backend.getArrayRoutines();
+
+  private BooleanArray random(Random random, int... shape) {
+    BooleanArray x = bj.newBooleanArray(shape);
+    for (int i = 0; i < x.size(); i++) {
+      x.set(i, random.nextBoolean());
+    }
+    return x;
+  }
+
+  /**
+   * Returns views of the given matrix with unaligned offsets and non-unit strides
+   */
+  private List<BooleanArray> views(BooleanArray x) {
+    List<BooleanArray> views = new ArrayList<>();
+    views.add(x);
+    views.add(x.transpose().transpose());
+    views.add(x.getView(Arrays.range(1, 12), Arrays.range(3, 140)));
+    views.add(x.getView(Arrays.range(0, 13), Arrays.range(70, 75)));
+    return views;
+  }
+
+  @Test
+  public void testLogicalOperations() throws Exception {
+    Random random = new Random(123);
+    List<BooleanArray> as = views(random(random, 13, 150));
+    List<BooleanArray> bs = views(random(random, 13, 150));
+    for (int v = 0; v < as.size(); v++) {
+      BooleanArray a = as.get(v), b = bs.get(v);
+      BooleanArray and = bjr.and(a, b), or = bjr.or(a, b), xor = bjr.xor(a, b), not = a.not();
+      for (int i = 0; i < a.size(); i++) {
+        assertEquals(a.get(i) && b.get(i), and.get(i));
+        assertEquals(a.get(i) || b.get(i), or.get(i));
+        assertEquals(a.get(i) ^ b.get(i), xor.get(i));
+        assertEquals(!a.get(i), not.get(i));
+      }
+    }
+
+    // broadcast and transposed operands are combined element by element
+    BooleanArray a = random(random, 13, 150);
+    BooleanArray row = random(random, 1, 150);
+    BooleanArray and = bjr.and(a, row);
+    BooleanArray transposed = bjr.and(a, random(random, 150, 13).transpose());
+    assertEquals(a.get(4, 77) && row.get(0, 77), and.get(4, 77));
+    assertEquals(13 * 150, transposed.size());
+  }
+
+  @Test
+  public void testCountingAndIteration() throws Exception {
+    Random random = new Random(321);
+    for (BooleanArray x : views(random(random, 13, 150))) {
+      int expected = 0;
+      List<Integer> indexes = new ArrayList<>();
+      for (int i = 0; i < x.size(); i++) {
+        if (x.get(i)) {
+          expected++;
+          indexes.add(i);
+        }
+      }
+      assertEquals(expected, Arrays.sum(x));
+      assertEquals(expected > 0, x.any());
+      assertEquals(expected == x.size(), x.all());
+
+      List<Integer> actual = new ArrayList<>();
+      x.forEachTrue(actual::add);
+      assertEquals(indexes, actual);
+    }
+
+    BooleanArray x = bj.newBooleanArray(200);
+    assertEquals(false, x.any());
+    x.assign(true);
+    assertEquals(true, x.all());
+    x.set(199, false);
+    assertEquals(false, x.all());
+    assertEquals(199, Arrays.sum(x));
+  }
+
+  @Test
+  public void testMask() throws Exception {
+    Random random = new Random(42);
+    BooleanArray mask = random(random, 13, 150);
+    DoubleArray x = Arrays.linspace(0, 1949, 1950).reshape(13, 150);
+    DoubleArray selected = x.get(mask);
+    DoubleArray masked = Arrays.mask(x, mask, Arrays.zeros(13, 150));
+    int j = 0;
+    for (int i = 0; i < x.size(); i++) {
+      if (mask.get(i)) {
+        assertEquals(x.get(i), selected.get(j++), 0);
+        assertEquals(0, masked.get(i), 0);
+      } else {
+        assertEquals(x.get(i), masked.get(i), 0);
+      }
+    }
+    assertEquals(j, selected.size());
+  }
+
+  @Test
+  public void testCopyAndVectorConstructor() throws Exception {
+    boolean[] values = new boolean[130];
+    for (int i = 0; i < values.length; i += 3) {
+      values[i] = true;
+    }
+    BooleanArray x = bj.newBooleanVector(values);
+    BooleanArray copy = x.copy();
+    copy.set(0, false);
+    for (int i = 0; i < values.length; i++) {
+      assertEquals(values[i], x.get(i));
+      assertEquals(i != 0 && values[i], copy.get(i));
+    }
+  }
+}
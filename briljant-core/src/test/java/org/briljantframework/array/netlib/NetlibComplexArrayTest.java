@@ -0,0 +1,47 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 Isak Karlsson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.briljantframework.array.netlib;
+
+import static org.junit.Assert.assertEquals;
+
+import org.apache.commons.math3.complex.Complex;
+import org.briljantframework.array.ComplexArray;
+import org.briljantframework.array.api.ArrayFactory;
+import org.junit.Test;
+
+public class NetlibComplexArrayTest {
+
+  private ArrayFactory bj = new NetlibArrayBackend().getArrayFactory();
+
+  @Test
+  public void testAssignInterleavedParts() throws Exception {
+    ComplexArray x = bj.newComplexArray(2, 2);
+    x.assign(new double[] {1, -1, 2, -2, 3, -3, 4, -4});
+    for (int i = 0; i < x.size(); i++) {
+      assertEquals(Complex.valueOf(i + 1, -(i + 1)), x.get(i));
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testAssignInterleavedPartsIllegalLength() throws Exception {
+    bj.newComplexArray(2, 2).assign(new double[] {1, 2, 3});
+  }
+}
@@ -0,0 +1,130 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 Isak Karlsson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.briljantframework.array.netlib;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.Random;
+
+import org.briljantframework.array.ArrayAssert;
+import org.briljantframework.array.ArrayOperation;
+import org.briljantframework.array.DoubleArray;
+import org.briljantframework.array.FloatArray;
+import org.briljantframework.array.api.ArrayFactory;
+import org.briljantframework.array.api.ArrayRoutines;
+import org.junit.Test;
+
+public class NetlibFloatArrayTest {
+
+  private NetlibArrayBackend backend = new NetlibArrayBackend(BlasPolicy.neverNative());
+  private ArrayFactory bj = backend.getArrayFactory();
+  private ArrayRoutines bjr = backend.getArrayRoutines();
+  private Random random = new Random(123);
+
+  private DoubleArray random(int... shape) {
+    DoubleArray x = bj.newDoubleArray(shape);
+    x.assign(random::nextGaussian);
+    return x;
+  }
+
+  @Test
+  public void testConversions() throws Exception {
+    DoubleArray x = random(3, 4);
+    FloatArray f = x.floatArray().copy();
+    assertFalse(f.isView());
+    for (int i = 0; i < x.size(); i++) {
+      assertEquals((float) x.get(i), f.get(i), 0);
+    }
+    ArrayAssert.assertArrayEquals(x, f.doubleArray(), 1e-6);
+    ArrayAssert.assertArrayEquals(x, f.doubleArray().copy(), 1e-6);
+
+    // writes through the views are narrowed (or widened)
+    f.doubleArray().set(1, 2, 0.1);
+    assertEquals(0.1f, f.get(1, 2), 0);
+    x.floatArray().set(0, 0, 0.1f);
+    assertEquals(0.1f, x.get(0, 0), 0);
+
+    FloatArray g = bj.newFloatArray(3, 4);
+    g.assign(x);
+    ArrayAssert.assertArrayEquals(x.floatArray().doubleArray(), g.doubleArray(), 0);
+  }
+
+  @Test
+  public void testElementwise() throws Exception {
+    FloatArray a = random(4, 5).floatArray().copy();
+    FloatArray b = random(4, 5).floatArray().copy().transpose().copy().transpose();
+    FloatArray plus = a.plus(b), times = a.times(b), minus = a.minus(2f), negate = a.negate();
+    for (int i = 0; i < a.size(); i++) {
+      assertEquals(a.get(i) + b.get(i), plus.get(i), 0);
+      assertEquals(a.get(i) * b.get(i), times.get(i), 0);
+      assertEquals(a.get(i) - 2f, minus.get(i), 0);
+      assertEquals(-a.get(i), negate.get(i), 0);
+    }
+    assertEquals(6f, bj.newFloatVector(1, 2, 3).reduce(0, Double::sum), 0);
+  }
+
+  @Test
+  public void testInnerAndAxpy() throws Exception {
+    DoubleArray x = random(3, 40).getRow(1), y = random(40);
+    FloatArray fx = x.floatArray().copy(), fy = y.floatArray().copy();
+    for (BlasPolicy policy : new BlasPolicy[] {BlasPolicy.neverNative(),
+        BlasPolicy.alwaysNative()}) {
+      policy.run(() -> {
+        assertEquals(bjr.inner(x, y), bjr.inner(fx, fy), 1e-4);
+        assertEquals(bjr.inner(x, y), bjr.inner(x.floatArray(), y.floatArray()), 1e-4);
+
+        DoubleArray expected = y.copy();
+        FloatArray actual = fy.copy();
+        bjr.axpy(0.5, x, expected);
+        bjr.axpy(0.5f, fx, actual);
+        ArrayAssert.assertArrayEquals(expected, actual.doubleArray(), 1e-5);
+      });
+    }
+  }
+
+  @Test
+  public void testGemvAndGemm() throws Exception {
+    // a block of a larger matrix and a transposed matrix
+    FloatArray a = random(9, 7).floatArray().copy().getView(1, 2, 5, 4);
+    FloatArray b = random(6, 4).floatArray().copy().transpose();
+    for (BlasPolicy policy : new BlasPolicy[] {BlasPolicy.neverNative(),
+        BlasPolicy.alwaysNative()}) {
+      for (ArrayOperation ta : new ArrayOperation[] {ArrayOperation.KEEP,
+          ArrayOperation.TRANSPOSE}) {
+        FloatArray x = ta == ArrayOperation.KEEP ? a : a.transpose().copy();
+        FloatArray c = random(5, 6).floatArray().copy();
+        DoubleArray expected = c.doubleArray().copy();
+        bjr.gemm(ta, ArrayOperation.KEEP, 2, x.doubleArray(), b.doubleArray(), 0.5, expected);
+        policy.run(() -> bjr.gemm(ta, ArrayOperation.KEEP, 2f, x, b, 0.5f, c));
+        ArrayAssert.assertArrayEquals(expected, c.doubleArray(), 1e-5);
+
+        boolean t = ta.isTranspose();
+        FloatArray v = random(2, t ? 4 : 5).floatArray().copy().getRow(1);
+        FloatArray y = random(t ? 5 : 4).floatArray().copy();
+        expected = y.doubleArray().copy();
+        bjr.gemv(ta, 1.5, a.transpose().doubleArray(), v.doubleArray(), 2, expected);
+        policy.run(() -> bjr.gemv(ta, 1.5f, a.transpose(), v, 2f, y));
+        ArrayAssert.assertArrayEquals(expected, y.doubleArray(), 1e-5);
+      }
+    }
+  }
+}
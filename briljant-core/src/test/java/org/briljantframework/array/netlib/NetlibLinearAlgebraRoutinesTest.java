@@ -25,13 +25,14 @@ import static org.junit.Assert.assertEquals;
 import java.util.Arrays;
 
 import org.apache.commons.math3.complex.Complex;
-import org.apache.commons.math3.linear.EigenDecomposition;
 import org.apache.commons.math3.linear.RealMatrix;
 import org.apache.commons.math3.util.Precision;
 import org.briljantframework.array.*;
 import org.briljantframework.array.api.ArrayBackend;
 import org.briljantframework.array.api.ArrayFactory;
 import org.briljantframework.array.api.LinearAlgebraRoutines;
+import org.briljantframework.array.linalg.decomposition.CholeskyDecomposition;
+import org.briljantframework.array.linalg.decomposition.EigenDecomposition;
 import org.briljantframework.array.linalg.decomposition.SingularValueDecomposition;
 import org.junit.Test;
 
@@ -66,7 +67,21 @@ public class NetlibLinearAlgebraRoutinesTest {
 
   @Test
   public void ormqr() throws Exception {
-
+    DoubleArray a = bj.newDoubleArray(6, 2);
+    a.assign(new java.util.Random(123)::nextGaussian);
+    DoubleArray qr = a.copy();
+    DoubleArray tau = bj.newDoubleArray(2);
+    linalg.geqrf(qr, tau);
+
+    // Q * R = A, using the first two columns of Q
+    DoubleArray q = bj.newDoubleArray(6, 2);
+    q.getDiagonal().assign(1);
+    linalg.ormqr('l', ArrayOperation.KEEP, qr, tau, q);
+    DoubleArray r = bj.newDoubleArray(2, 2);
+    r.set(0, 0, qr.get(0, 0));
+    r.set(0, 1, qr.get(0, 1));
+    r.set(1, 1, qr.get(1, 1));
+    ArrayAssert.assertArrayEquals(a, dot(ArrayOperation.KEEP, q, r), 1e-10);
   }
 
   @Test
@@ -179,7 +194,8 @@ public class NetlibLinearAlgebraRoutinesTest {
     System.out.println(a);
     System.out.println(w);
 
-    System.out.println(Matrices.toArray(new EigenDecomposition(Matrices.asRealMatrix(t)).getV()));
+    System.out.println(Matrices.toArray(
+        new org.apache.commons.math3.linear.EigenDecomposition(Matrices.asRealMatrix(t)).getV()));
 
   }
 
@@ -230,6 +246,158 @@ public class NetlibLinearAlgebraRoutinesTest {
         a, 0.01);
   }
 
+  private DoubleArray dot(ArrayOperation transA, DoubleArray x, DoubleArray y) {
+    DoubleArray c = bj.newDoubleArray(x.size(transA == ArrayOperation.KEEP ? 0 : 1), y.columns());
+    b.getArrayRoutines().gemm(transA, ArrayOperation.KEEP, 1, x, y, 0, c);
+    return c;
+  }
+
+  private DoubleArray spd(int n) {
+    DoubleArray x = bj.newDoubleArray(n, n);
+    x.assign(new java.util.Random(123)::nextGaussian);
+    DoubleArray a = bj.newDoubleArray(n, n);
+    b.getArrayRoutines().gemm(ArrayOperation.KEEP, ArrayOperation.TRANSPOSE, 1, x, x, 0, a);
+    for (int i = 0; i < n; i++) {
+      a.set(i, i, a.get(i, i) + n);
+    }
+    return a;
+  }
+
+  @Test
+  public void svdTruncated() throws Exception {
+    // A rank 5 matrix plus noise, whose 5 leading singular values are well separated
+    java.util.Random random = new java.util.Random(123);
+    DoubleArray x = bj.newDoubleArray(200, 5);
+    DoubleArray y = bj.newDoubleArray(5, 40);
+    x.assign(random::nextGaussian);
+    y.assign(random::nextGaussian);
+    DoubleArray a = dot(ArrayOperation.KEEP, x, y);
+    a.apply(v -> v + 1e-3 * random.nextGaussian());
+
+    DoubleArray expected = linalg.svd(a).getSingularValues();
+    for (SingularValueDecomposition svd : new SingularValueDecomposition[] {linalg.svd(a, 5),
+        linalg.svd(a, 5, 0, 0), linalg.svd(a, 40, 0, 1)}) {
+      DoubleArray s = svd.getSingularValues();
+      DoubleArray u = svd.getLeftSingularValues();
+      DoubleArray v = svd.getRightSingularValues();
+      assertEquals(200, u.rows());
+      assertEquals(40, v.rows());
+      assertEquals(s.size(), u.columns());
+      ArrayAssert.assertArrayEquals(expected.get(bj.range(5)), s.get(bj.range(5)), 1e-1);
+      ArrayAssert.assertArrayEquals(bj.eye(s.size()), dot(ArrayOperation.TRANSPOSE, u, u), 1e-10);
+      ArrayAssert.assertArrayEquals(bj.eye(s.size()), dot(ArrayOperation.TRANSPOSE, v, v), 1e-10);
+
+      // A * v = u * s
+      DoubleArray av = dot(ArrayOperation.KEEP, a, v);
+      for (int i = 0; i < 5; i++) {
+        double si = s.get(i);
+        ArrayAssert.assertArrayEquals(u.getColumn(i).map(e -> e * si), av.getColumn(i), 1e-1);
+      }
+    }
+  }
+
+  @Test
+  public void eigsh() throws Exception {
+    DoubleArray a = spd(60);
+    DoubleArray w = bj.newDoubleArray(60);
+    DoubleArray v = a.copy();
+    linalg.syev('v', 'u', v, w);
+
+    EigenDecomposition eig = linalg.eigsh(a, 4);
+    DoubleArray values = eig.getRealEigenvalues();
+    DoubleArray vectors = eig.getEigenVectors();
+    assertEquals(4, values.size());
+    assertEquals(60, vectors.rows());
+    assertEquals(4, vectors.columns());
+    for (int i = 0; i < 4; i++) {
+      assertEquals(w.get(59 - i), values.get(i), 1e-8);
+      double value = values.get(i);
+      DoubleArray av = dot(ArrayOperation.KEEP, a, vectors.getView(0, i, 60, 1));
+      ArrayAssert.assertArrayEquals(vectors.getColumn(i).map(e -> e * value), av.getColumn(0),
+          1e-6);
+    }
+  }
+
+  @Test
+  public void eigshInvariantSubspace() throws Exception {
+    // The Krylov subspace of the identity is one-dimensional
+    EigenDecomposition eig = linalg.eigsh(bj.eye(30), 3);
+    ArrayAssert.assertArrayEquals(1, eig.getRealEigenvalues(), 1e-12);
+    ArrayAssert.assertArrayEquals(bj.eye(3),
+        dot(ArrayOperation.TRANSPOSE, eig.getEigenVectors(), eig.getEigenVectors()), 1e-10);
+  }
+
+  @Test(expected = ArithmeticException.class)
+  public void eigshNotConverged() throws Exception {
+    linalg.eigsh(spd(60), 4, 0, 1e-14);
+  }
+
+  @Test
+  public void potrf() throws Exception {
+    DoubleArray a = spd(6);
+    DoubleArray l = a.copy();
+    assertEquals(0, linalg.potrf('l', l));
+    for (int j = 1; j < 6; j++) {
+      for (int i = 0; i < j; i++) {
+        l.set(i, j, 0);
+      }
+    }
+    DoubleArray actual = bj.newDoubleArray(6, 6);
+    b.getArrayRoutines().gemm(ArrayOperation.KEEP, ArrayOperation.TRANSPOSE, 1, l, l, 0, actual);
+    ArrayAssert.assertArrayEquals(a, actual, 1e-9);
+
+    DoubleArray notPositiveDefinite = bj.newDoubleMatrix(new double[][] {{1, 2}, {2, 1}});
+    assertEquals(2, linalg.potrf('l', notPositiveDefinite));
+  }
+
+  @Test
+  public void potrs() throws Exception {
+    DoubleArray a = spd(5);
+    DoubleArray x = bj.newDoubleArray(5, 3);
+    x.assign(new java.util.Random(321)::nextGaussian);
+    DoubleArray rhs = bj.newDoubleArray(5, 3);
+    b.getArrayRoutines().gemm(ArrayOperation.KEEP, ArrayOperation.KEEP, 1, a, x, 0, rhs);
+
+    DoubleArray factor = a.copy();
+    linalg.potrf('u', factor);
+    linalg.potrs('u', factor, rhs);
+    ArrayAssert.assertArrayEquals(x, rhs, 1e-9);
+  }
+
+  @Test
+  public void potri() throws Exception {
+    DoubleArray a = spd(4);
+    DoubleArray inv = linalg.chol(a).getInverse();
+    ArrayAssert.assertArrayEquals(linalg.inv(a), inv, 1e-9);
+  }
+
+  @Test
+  public void chol() throws Exception {
+    DoubleArray a = spd(7);
+    CholeskyDecomposition chol = linalg.chol(a);
+    assertEquals(linalg.det(a), chol.getDeterminant(), 1e-6 * linalg.det(a));
+    assertEquals(Math.log(linalg.det(a)), chol.getLogDeterminant(), 1e-9);
+
+    // solve for a vector and for a strided view without refactoring
+    DoubleArray rhs = bj.newDoubleArray(7, 4);
+    rhs.assign(new java.util.Random(1)::nextGaussian);
+    for (int j = 0; j < 4; j++) {
+      DoubleArray x = chol.solve(rhs.getColumn(j));
+      DoubleArray ax = bj.newDoubleArray(7);
+      b.getArrayRoutines().gemv(ArrayOperation.KEEP, 1, a, x, 0, ax);
+      ArrayAssert.assertArrayEquals(rhs.getColumn(j), ax, 1e-9);
+    }
+    DoubleArray view = rhs.getView(0, 1, 7, 2);
+    DoubleArray expected = view.copy();
+    linalg.gesv(a.copy(), bj.newIntArray(7), expected);
+    ArrayAssert.assertArrayEquals(expected, chol.solve(view), 1e-9);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void cholNotPositiveDefinite() throws Exception {
+    linalg.chol(bj.newDoubleMatrix(new double[][] {{1, 2}, {2, 1}}));
+  }
+
   @Test
   public void gesvd() throws Exception {
 
@@ -286,7 +454,8 @@ public class NetlibLinearAlgebraRoutinesTest {
     // System.out.println(v);
 
     RealMatrix matrix = Matrices.asRealMatrix(a);
-    EigenDecomposition d = new EigenDecomposition(matrix);
+    org.apache.commons.math3.linear.EigenDecomposition d =
+        new org.apache.commons.math3.linear.EigenDecomposition(matrix);
     System.out.println(Matrices.toArray(d.getD()));
     System.out.println(Matrices.toArray(d.getV()));
     // System.out.println(d.getEigenvector(0));
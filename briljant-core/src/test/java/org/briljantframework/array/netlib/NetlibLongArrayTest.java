@@ -0,0 +1,67 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 Isak Karlsson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.briljantframework.array.netlib;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import org.apache.commons.math3.complex.Complex;
+import org.briljantframework.array.BooleanArray;
+import org.briljantframework.array.ComplexArray;
+import org.briljantframework.array.IntArray;
+import org.briljantframework.array.LongArray;
+import org.briljantframework.array.api.ArrayFactory;
+import org.junit.Test;
+
+public class NetlibLongArrayTest {
+
+  private ArrayFactory bj = new NetlibArrayBackend().getArrayFactory();
+
+  @Test
+  public void testMapToInt() throws Exception {
+    LongArray x = bj.newLongVector(1, 2, 3, 4, 5, 6, 7, 8, 9, 10).reshape(2, 5);
+    IntArray y = x.mapToInt(v -> (int) v * 2);
+    assertArrayEquals(new int[] {2, 5}, y.getShape());
+    for (int i = 0; i < x.size(); i++) {
+      assertEquals(x.get(i) * 2, y.get(i));
+    }
+  }
+
+  @Test
+  public void testMapToComplex() throws Exception {
+    LongArray x = bj.newLongVector(1, 2, 3, 4, 5, 6).reshape(3, 2);
+    ComplexArray y = x.mapToComplex(v -> Complex.valueOf(v, 1));
+    assertArrayEquals(new int[] {3, 2}, y.getShape());
+    for (int i = 0; i < x.size(); i++) {
+      assertEquals(Complex.valueOf(x.get(i), 1), y.get(i));
+    }
+  }
+
+  @Test
+  public void testWhere() throws Exception {
+    LongArray x = bj.newLongVector(1, 2, 3, 4, 5, 6).reshape(2, 3);
+    BooleanArray y = x.where(v -> v % 2 == 0);
+    assertArrayEquals(new int[] {2, 3}, y.getShape());
+    for (int i = 0; i < x.size(); i++) {
+      assertEquals(x.get(i) % 2 == 0, y.get(i));
+    }
+  }
+}
@@ -0,0 +1,207 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 Isak Karlsson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.briljantframework.array.sparse;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.briljantframework.array.ArrayAssert;
+import org.briljantframework.array.ArrayOperation;
+import org.briljantframework.array.Arrays;
+import org.briljantframework.array.BooleanArray;
+import org.briljantframework.array.DoubleArray;
+import org.briljantframework.array.api.ArrayFactory;
+import org.briljantframework.array.api.ParallelPolicy;
+import org.junit.Test;
+
+public class SparseDoubleArrayTest {
+
+  private final ArrayFactory bj = Arrays.getArrayBackend().getArrayFactory();
+
+  private DoubleArray randomDense(int rows, int columns, double density, long seed) {
+    Random random = new Random(seed);
+    DoubleArray x = Arrays.doubleArray(rows, columns);
+    for (int i = 0; i < x.size(); i++) {
+      if (random.nextDouble() < density) {
+        x.set(i, random.nextGaussian());
+      }
+    }
+    return x;
+  }
+
+  @Test
+  public void testNewSparseDoubleArray_duplicatesAreSummed() throws Exception {
+    for (SparseDoubleArray.Layout layout : SparseDoubleArray.Layout.values()) {
+      SparseDoubleArray x = bj.newSparseDoubleArray(layout, 3, 4, new int[] {2, 0, 2, 1, 0},
+          new int[] {3, 1, 3, 0, 2}, new double[] {1, 2, 3, 0, 4});
+      assertEquals(layout, x.getLayout());
+      assertEquals(3, x.nonZeros());
+      DoubleArray expected = Arrays.doubleArray(3, 4);
+      expected.set(2, 3, 4);
+      expected.set(0, 1, 2);
+      expected.set(0, 2, 4);
+      ArrayAssert.assertArrayEquals(expected, x, 0);
+      ArrayAssert.assertArrayEquals(expected, x.toDense(), 0);
+    }
+  }
+
+  @Test
+  public void testToSparseDoubleArray() throws Exception {
+    DoubleArray dense = randomDense(7, 5, 0.3, 1);
+    for (SparseDoubleArray.Layout layout : SparseDoubleArray.Layout.values()) {
+      SparseDoubleArray x = bj.toSparseDoubleArray(layout, dense);
+      ArrayAssert.assertArrayEquals(dense, x.toDense(), 0);
+      ArrayAssert.assertArrayEquals(dense, x.copy(), 0);
+      ArrayAssert.assertArrayEquals(dense, x.toLayout(SparseDoubleArray.Layout.CSR), 0);
+      ArrayAssert.assertArrayEquals(dense, x.toLayout(SparseDoubleArray.Layout.CSC), 0);
+      ArrayAssert.assertArrayEquals(dense.transpose(), x.transpose(), 0);
+    }
+  }
+
+  @Test
+  public void testSet() throws Exception {
+    for (SparseDoubleArray.Layout layout : SparseDoubleArray.Layout.values()) {
+      SparseDoubleArray x = bj.newSparseDoubleArray(layout, 4, 4);
+      DoubleArray expected = Arrays.doubleArray(4, 4);
+      for (int i = 0; i < 4; i++) {
+        x.set(3 - i, i, i + 1);
+        expected.set(3 - i, i, i + 1);
+      }
+      x.set(0, 0, 10);
+      expected.set(0, 0, 10);
+      assertEquals(5, x.nonZeros());
+      ArrayAssert.assertArrayEquals(expected, x, 0);
+
+      int[] count = {0};
+      x.forEachNonZero((row, column, value) -> {
+        assertEquals(expected.get(row, column), value, 0);
+        count[0]++;
+      });
+      assertEquals(5, count[0]);
+    }
+  }
+
+  @Test
+  public void testGemv() throws Exception {
+    DoubleArray dense = randomDense(9, 6, 0.3, 2);
+    for (SparseDoubleArray.Layout layout : SparseDoubleArray.Layout.values()) {
+      SparseDoubleArray a = bj.toSparseDoubleArray(layout, dense);
+      for (ArrayOperation op : ArrayOperation.values()) {
+        if (op == ArrayOperation.CONJUGATE_TRANSPOSE) {
+          continue;
+        }
+        int n = op == ArrayOperation.KEEP ? 6 : 9;
+        int m = op == ArrayOperation.KEEP ? 9 : 6;
+        DoubleArray x = Arrays.randn(n);
+        DoubleArray y = Arrays.randn(m);
+        DoubleArray expected = y.copy();
+        Arrays.gemv(op, 2, dense, x, 0.5, expected);
+        Arrays.gemv(op, 2, a, x, 0.5, y);
+        ArrayAssert.assertArrayEquals(expected, y, 1e-10);
+      }
+    }
+  }
+
+  @Test
+  public void testGemm() throws Exception {
+    DoubleArray dense = randomDense(8, 5, 0.3, 3);
+    DoubleArray b = Arrays.randn(5 * 3).reshape(5, 3);
+    for (SparseDoubleArray.Layout layout : SparseDoubleArray.Layout.values()) {
+      SparseDoubleArray a = bj.toSparseDoubleArray(layout, dense);
+      ArrayAssert.assertArrayEquals(Arrays.dot(dense, b), Arrays.dot(a, b), 1e-10);
+      ArrayAssert.assertArrayEquals(Arrays.dot(b.transpose(), dense.transpose()),
+          Arrays.dot(b.transpose(), a.transpose()), 1e-10);
+      ArrayAssert.assertArrayEquals(
+          Arrays.dot(ArrayOperation.TRANSPOSE, ArrayOperation.KEEP, dense, 1, dense),
+          Arrays.dot(ArrayOperation.TRANSPOSE, ArrayOperation.KEEP, a, 1, dense), 1e-10);
+
+      DoubleArray c = Arrays.randn(3 * 8).reshape(3, 8);
+      DoubleArray expected = c.copy();
+      Arrays.gemm(ArrayOperation.TRANSPOSE, ArrayOperation.TRANSPOSE, 2, b, dense, 0.5, expected);
+      Arrays.gemm(ArrayOperation.TRANSPOSE, ArrayOperation.TRANSPOSE, 2, b, a, 0.5, c);
+      ArrayAssert.assertArrayEquals(expected, c, 1e-10);
+    }
+  }
+
+  @Test
+  public void testAxpyAndInner() throws Exception {
+    DoubleArray dense = randomDense(6, 4, 0.4, 4);
+    for (SparseDoubleArray.Layout layout : SparseDoubleArray.Layout.values()) {
+      SparseDoubleArray a = bj.toSparseDoubleArray(layout, dense);
+      DoubleArray y = Arrays.randn(6 * 4).reshape(6, 4);
+      DoubleArray expected = y.copy();
+      Arrays.axpy(3, dense, expected);
+      Arrays.axpy(3, a, y);
+      ArrayAssert.assertArrayEquals(expected, y, 1e-10);
+      assertEquals(Arrays.inner(dense, y), Arrays.inner(a, y), 1e-10);
+    }
+  }
+
+  @Test
+  public void testReductions() throws Exception {
+    DoubleArray dense = randomDense(7, 5, 0.3, 5);
+    dense.set(0, 0, -3);
+    dense.set(1, 1, 2);
+    for (SparseDoubleArray.Layout layout : SparseDoubleArray.Layout.values()) {
+      SparseDoubleArray a = bj.toSparseDoubleArray(layout, dense);
+      assertEquals(Arrays.sum(dense), Arrays.sum(a), 1e-10);
+      for (int dim = 0; dim < 2; dim++) {
+        ArrayAssert.assertArrayEquals(Arrays.sum(dim, dense), Arrays.sum(dim, a), 1e-10);
+        ArrayAssert.assertArrayEquals(Arrays.mean(dim, dense), Arrays.mean(dim, a), 1e-10);
+        ArrayAssert.assertArrayEquals(Arrays.var(dim, dense), Arrays.var(dim, a), 1e-10);
+        ArrayAssert.assertArrayEquals(Arrays.std(dim, dense), Arrays.std(dim, a), 1e-10);
+        ArrayAssert.assertArrayEquals(Arrays.min(dim, dense), Arrays.min(dim, a), 0);
+        ArrayAssert.assertArrayEquals(Arrays.max(dim, dense), Arrays.max(dim, a), 0);
+      }
+    }
+  }
+
+  @Test
+  public void testSortAlongDimension() throws Exception {
+    DoubleArray dense = randomDense(1000, 100, 0.05, 6);
+    ParallelPolicy policy = ParallelPolicy.of(new ForkJoinPool(4), 100, 10);
+    for (SparseDoubleArray.Layout layout : SparseDoubleArray.Layout.values()) {
+      SparseDoubleArray a = bj.toSparseDoubleArray(layout, dense);
+      for (int dim = 0; dim < 2; dim++) {
+        int d = dim;
+        DoubleArray sorted = policy.call(() -> Arrays.sort(d, a));
+        ArrayAssert.assertArrayEquals(Arrays.sort(dim, dense), sorted, 0);
+      }
+    }
+  }
+
+  @Test
+  public void testPutMask() throws Exception {
+    DoubleArray dense = randomDense(200, 50, 0.05, 7);
+    BooleanArray mask = Arrays.rand(dense.size()).reshape(200, 50).where(v -> v < 0.5);
+    DoubleArray values = Arrays.randn(dense.size()).reshape(200, 50);
+    DoubleArray expected = dense.copy();
+    Arrays.putMask(expected, mask, values);
+    ParallelPolicy policy = ParallelPolicy.of(new ForkJoinPool(4), 100, 10);
+    for (SparseDoubleArray.Layout layout : SparseDoubleArray.Layout.values()) {
+      SparseDoubleArray a = bj.toSparseDoubleArray(layout, dense);
+      policy.run(() -> Arrays.putMask(a, mask, values));
+      ArrayAssert.assertArrayEquals(expected, a, 0);
+    }
+  }
+}
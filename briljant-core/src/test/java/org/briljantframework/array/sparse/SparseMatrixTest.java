@@ -0,0 +1,115 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 Isak Karlsson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.briljantframework.array.sparse;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.briljantframework.array.ArrayAssert;
+import org.briljantframework.array.ArrayOperation;
+import org.briljantframework.array.Arrays;
+import org.briljantframework.array.DoubleArray;
+import org.briljantframework.array.api.ArrayBackend;
+import org.junit.Test;
+
+public class SparseMatrixTest {
+
+  private final ArrayBackend bj = Arrays.getArrayBackend();
+
+  @Test
+  public void testLargeMatrix() throws Exception {
+    int rows = 1000000, columns = 100000;
+    int[] r = {0, 999999, 500000, 3, 999999};
+    int[] c = {0, 99999, 12345, 99999, 0};
+    double[] v = {1, 2, 3, 4, 5};
+    for (SparseDoubleArray.Layout layout : SparseDoubleArray.Layout.values()) {
+      SparseMatrix x = SparseMatrix.of(bj, layout, rows, columns, r, c, v);
+      assertEquals(rows, x.rows());
+      assertEquals(columns, x.columns());
+      assertEquals((long) rows * columns, x.size());
+      assertEquals(5, x.nonZeros());
+      assertEquals(3, x.get(500000, 12345), 0);
+      assertEquals(0, x.get(500000, 12346), 0);
+
+      DoubleArray w = Arrays.ones(columns);
+      DoubleArray y = Arrays.doubleArray(rows);
+      x.gemv(ArrayOperation.KEEP, 2, w, 0, y);
+      assertEquals(2, y.get(0), 0);
+      assertEquals(14, y.get(999999), 0);
+      assertEquals(6, y.get(500000), 0);
+      assertEquals(8, y.get(3), 0);
+      assertEquals(30, Arrays.sum(y), 0);
+
+      DoubleArray z = Arrays.doubleArray(columns);
+      x.gemv(ArrayOperation.TRANSPOSE, 1, Arrays.ones(rows), 0, z);
+      assertEquals(6, z.get(0), 0);
+      assertEquals(6, z.get(99999), 0);
+      assertEquals(3, z.get(12345), 0);
+
+      SparseMatrix t = x.transpose();
+      assertEquals(columns, t.rows());
+      assertEquals(4, t.get(99999, 3), 0);
+      DoubleArray zt = Arrays.doubleArray(columns);
+      t.gemv(ArrayOperation.KEEP, 1, Arrays.ones(rows), 0, zt);
+      ArrayAssert.assertArrayEquals(z, zt, 0);
+    }
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testLargeMatrixAsDoubleArray() throws Exception {
+    SparseMatrix.of(bj, SparseDoubleArray.Layout.CSR, 1000000, 100000, new int[0], new int[0],
+        new double[0]).asDoubleArray();
+  }
+
+  @Test
+  public void testGemvAndGemm() throws Exception {
+    Random random = new Random(3);
+    DoubleArray dense = Arrays.doubleArray(6, 4);
+    for (int i = 0; i < dense.size(); i++) {
+      if (random.nextDouble() < 0.4) {
+        dense.set(i, random.nextGaussian());
+      }
+    }
+    DoubleArray b = Arrays.rand(12).reshape(4, 3);
+    DoubleArray bt = Arrays.rand(18).reshape(6, 3);
+    for (SparseDoubleArray.Layout layout : SparseDoubleArray.Layout.values()) {
+      SparseMatrix x = bj.getArrayFactory().toSparseDoubleArray(layout, dense).toSparseMatrix();
+      ArrayAssert.assertArrayEquals(dense, x.asDoubleArray(), 0);
+
+      DoubleArray c = Arrays.doubleArray(6, 3);
+      x.gemm(ArrayOperation.KEEP, ArrayOperation.KEEP, 1, b, 0, c);
+      ArrayAssert.assertArrayEquals(Arrays.dot(dense, b), c, 1e-12);
+
+      DoubleArray ct = Arrays.doubleArray(4, 3);
+      x.gemm(ArrayOperation.TRANSPOSE, ArrayOperation.KEEP, 1, bt, 0, ct);
+      ArrayAssert.assertArrayEquals(Arrays.dot(dense.transpose(), bt), ct, 1e-12);
+
+      DoubleArray y = Arrays.doubleArray(6);
+      x.gemv(ArrayOperation.KEEP, 1, b.getColumn(0).ravel(), 0, y);
+      ArrayAssert.assertArrayEquals(Arrays.dot(dense, b.getColumn(0)).ravel(), y, 1e-12);
+
+      ArrayAssert.assertArrayEquals(dense.transpose(), x.transpose().asDoubleArray(), 0);
+      ArrayAssert.assertArrayEquals(dense,
+          x.toLayout(SparseDoubleArray.Layout.CSR).asDoubleArray(), 0);
+    }
+  }
+}
@@ -0,0 +1,112 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 Isak Karlsson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.briljantframework.data.statistics;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import org.apache.commons.math3.stat.descriptive.StatisticalSummary;
+import org.briljantframework.array.Arrays;
+import org.briljantframework.array.DoubleArray;
+import org.briljantframework.array.api.ParallelPolicy;
+import org.briljantframework.data.Collectors;
+import org.briljantframework.data.series.Series;
+import org.junit.Test;
+
+public class StatisticsAccumulatorTest {
+
+  private final ParallelPolicy parallel = ParallelPolicy.of(ForkJoinPool.commonPool(), 0, 7);
+
+  private static double centralMoment(double[] x, double mean, int k) {
+    double sum = 0;
+    for (double v : x) {
+      sum += Math.pow(v - mean, k);
+    }
+    return sum / x.length;
+  }
+
+  @Test
+  public void testMoments() throws Exception {
+    DoubleArray r = Arrays.rand(1000);
+    double[] x = new double[r.size()];
+    for (int i = 0; i < x.length; i++) {
+      x[i] = r.get(i) * r.get(i) * 10 - 3;
+    }
+    StatisticsAccumulator s = new StatisticsAccumulator();
+    s.addAll(x);
+
+    double mean = java.util.Arrays.stream(x).sum() / x.length;
+    double m2 = centralMoment(x, mean, 2);
+    assertEquals(mean, s.getMean(), 1e-12);
+    assertEquals(m2, s.getVariance(), 1e-12);
+    assertEquals(centralMoment(x, mean, 3) / Math.pow(m2, 1.5), s.getSkewness(), 1e-10);
+    assertEquals(centralMoment(x, mean, 4) / (m2 * m2) - 3, s.getKurtosis(), 1e-10);
+    assertEquals(java.util.Arrays.stream(x).min().getAsDouble(), s.getMin(), 0);
+    assertEquals(java.util.Arrays.stream(x).max().getAsDouble(), s.getMax(), 0);
+  }
+
+  @Test
+  public void testCombineEqualsSequential() throws Exception {
+    DoubleArray x = Arrays.randn(1013);
+    StatisticsAccumulator expected = new StatisticsAccumulator();
+    x.forEachDouble(expected);
+    StatisticsAccumulator actual = StatisticsAccumulator.of(parallel, x);
+    assertEquals(expected.getN(), actual.getN());
+    assertEquals(expected.getMean(), actual.getMean(), 1e-12);
+    assertEquals(expected.getVariance(), actual.getVariance(), 1e-12);
+    assertEquals(expected.getSkewness(), actual.getSkewness(), 1e-10);
+    assertEquals(expected.getKurtosis(), actual.getKurtosis(), 1e-10);
+    assertEquals(expected.getSum(), actual.getSum(), 1e-10);
+    assertEquals(expected.getMin(), actual.getMin(), 0);
+    assertEquals(expected.getMax(), actual.getMax(), 0);
+  }
+
+  @Test
+  public void testCompensatedSum() throws Exception {
+    StatisticsAccumulator s = new StatisticsAccumulator();
+    s.addValue(1);
+    for (int i = 0; i < 10000; i++) {
+      s.addValue(1e100);
+      s.addValue(1);
+      s.addValue(-1e100);
+    }
+    assertEquals(10001, s.getSum(), 0);
+  }
+
+  @Test
+  public void testParallelCollector() throws Exception {
+    StatisticalSummary summary = IntStream.range(0, 10000).parallel().boxed()
+        .collect(Collectors.statisticalSummary());
+    assertEquals(10000, summary.getN());
+    assertEquals(4999.5, summary.getMean(), 1e-9);
+    assertEquals((10000.0 * 10000 - 1) / 12, summary.getVariance(), 1e-6);
+  }
+
+  @Test
+  public void testSeriesVariance() throws Exception {
+    Series series = Series.of(10.0, 20.0, null, 30.0);
+    double var = parallel.call(series::var);
+    assertEquals(66.66, var, 0.1);
+    assertEquals(Math.sqrt(var), series.std(), 1e-12);
+  }
+}
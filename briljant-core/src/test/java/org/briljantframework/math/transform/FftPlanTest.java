@@ -0,0 +1,119 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 Isak Karlsson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.briljantframework.math.transform;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.Random;
+
+import org.briljantframework.array.Arrays;
+import org.briljantframework.array.ComplexArray;
+import org.junit.Test;
+
+public class FftPlanTest {
+
+  private static double[] naive(double[] x, int n) {
+    double[] y = new double[2 * n];
+    for (int k = 0; k < n; k++) {
+      for (int j = 0; j < n; j++) {
+        double angle = -2 * Math.PI * ((long) j * k % n) / n;
+        double c = Math.cos(angle), s = Math.sin(angle);
+        y[2 * k] += x[2 * j] * c - x[2 * j + 1] * s;
+        y[2 * k + 1] += x[2 * j] * s + x[2 * j + 1] * c;
+      }
+    }
+    return y;
+  }
+
+  private static double[] random(int n) {
+    Random random = new Random(n);
+    double[] x = new double[2 * n];
+    for (int i = 0; i < x.length; i++) {
+      x[i] = random.nextGaussian();
+    }
+    return x;
+  }
+
+  @Test
+  public void testTransform() throws Exception {
+    for (int n : new int[] {1, 2, 8, 64, 3, 5, 12, 100}) {
+      FftPlan plan = FftPlan.of(n);
+      double[] work = new double[plan.workSize()];
+      double[] x = random(n);
+      double[] expected = naive(x, n);
+      plan.transform(x, work);
+      assertArrayEquals(expected, x, 1e-9);
+
+      // reusing the plan and the work buffer
+      x = random(n);
+      expected = naive(x, n);
+      plan.transform(x, work);
+      assertArrayEquals(expected, x, 1e-9);
+    }
+  }
+
+  @Test
+  public void testInverse() throws Exception {
+    for (int n : new int[] {16, 7, 30}) {
+      FftPlan plan = FftPlan.of(n);
+      double[] work = new double[plan.workSize()];
+      double[] x = random(n);
+      double[] y = x.clone();
+      plan.transform(y, work);
+      plan.inverse(y, work);
+      assertArrayEquals(x, y, 1e-10);
+    }
+  }
+
+  @Test
+  public void testPlansAreCached() throws Exception {
+    assertSame(FftPlan.of(4096), FftPlan.of(4096));
+    assertEquals(0, FftPlan.of(4096).workSize());
+    assertEquals(2 * 32, FftPlan.of(10).workSize());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testWorkBufferTooSmall() throws Exception {
+    FftPlan.of(5).transform(new double[10], new double[4]);
+  }
+
+  @Test
+  public void testDiscreteFourierTransform() throws Exception {
+    for (int n : new int[] {8, 6}) {
+      double[] x = random(n);
+      ComplexArray a = Arrays.complexArray(n);
+      a.assign(x);
+      ComplexArray expected = Arrays.complexArray(n);
+      expected.assign(naive(x, n));
+
+      ComplexArray y = DiscreteFourierTransform.fft(a);
+      ComplexArray z = DiscreteFourierTransform.ifft(y);
+      for (int i = 0; i < n; i++) {
+        assertEquals(expected.get(i).getReal(), y.get(i).getReal(), 1e-9);
+        assertEquals(expected.get(i).getImaginary(), y.get(i).getImaginary(), 1e-9);
+        assertEquals(a.get(i).getReal(), z.get(i).getReal(), 1e-10);
+        assertEquals(a.get(i).getImaginary(), z.get(i).getImaginary(), 1e-10);
+      }
+    }
+  }
+}
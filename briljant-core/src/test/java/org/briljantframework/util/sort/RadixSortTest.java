@@ -0,0 +1,126 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 Isak Karlsson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.briljantframework.util.sort;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.briljantframework.array.api.ParallelPolicy;
+import org.briljantframework.data.Na;
+import org.junit.Test;
+
+/**
+ * @author Isak Karlsson
+ */
+public class RadixSortTest {
+
+  private final Random random = new Random(123);
+
+  @Test
+  public void testSortInt() throws Exception {
+    for (int n : new int[] {0, 1, 10, 1000, 10000}) {
+      int[] a = random.ints(n).toArray();
+      int[] expected = a.clone();
+      java.util.Arrays.sort(expected);
+      RadixSort.sort(a, 0, n);
+      assertArrayEquals(expected, a);
+    }
+  }
+
+  @Test
+  public void testSortIntRange() throws Exception {
+    int[] a = random.ints(2000, -100, 100).toArray();
+    int[] expected = a.clone();
+    java.util.Arrays.sort(expected, 300, 1700);
+    RadixSort.sort(a, 300, 1700);
+    assertArrayEquals(expected, a);
+  }
+
+  @Test
+  public void testSortLong() throws Exception {
+    long[] a = random.longs(5000).toArray();
+    long[] expected = a.clone();
+    java.util.Arrays.sort(expected);
+    RadixSort.sort(a, 0, a.length);
+    assertArrayEquals(expected, a);
+  }
+
+  @Test
+  public void testSortDouble() throws Exception {
+    for (int n : new int[] {10, 5000}) {
+      double[] a = random.doubles(n).map(v -> (v - 0.5) * 1e6).toArray();
+      a[0] = Double.NaN;
+      a[1] = -0.0;
+      a[2] = 0.0;
+      a[3] = Double.NEGATIVE_INFINITY;
+      a[4] = Na.DOUBLE;
+      a[5] = Double.POSITIVE_INFINITY;
+      double[] expected = a.clone();
+      java.util.Arrays.sort(expected);
+      RadixSort.sort(a, 0, n);
+      assertArrayEquals(expected, a, 0);
+
+      // NA precedes NaN and both retain their bits
+      assertEquals(Double.doubleToRawLongBits(Na.DOUBLE), Double.doubleToRawLongBits(a[n - 2]));
+      assertEquals(Double.doubleToRawLongBits(Double.NaN), Double.doubleToRawLongBits(a[n - 1]));
+    }
+  }
+
+  @Test
+  public void testOrderIsStable() throws Exception {
+    for (int n : new int[] {10, 5000}) {
+      int[] a = random.ints(n, 0, 10).toArray();
+      int[] order = RadixSort.order(a, 0, n);
+      for (int i = 1; i < n; i++) {
+        int prev = a[order[i - 1]], curr = a[order[i]];
+        assertTrue(prev < curr || prev == curr && order[i - 1] < order[i]);
+      }
+    }
+  }
+
+  @Test
+  public void testOrderDouble() throws Exception {
+    double[] a = {2, Double.NaN, 3, 1, -9, 1};
+    assertArrayEquals(new int[] {4, 3, 5, 0, 2, 1}, RadixSort.order(a, 0, a.length));
+    assertArrayEquals(new int[] {2, 1, 0}, RadixSort.order(a, 2, 5));
+  }
+
+  @Test
+  public void testParallelMergeSort() throws Exception {
+    ParallelPolicy policy = ParallelPolicy.of(new ForkJoinPool(4), 100, 10);
+    double[] a = random.doubles(10000).toArray();
+    double[] expected = a.clone();
+    java.util.Arrays.sort(expected);
+    MergeSort.sort(policy, a, 0, a.length, (x, y) -> Double.compare(y, x));
+    for (int i = 0; i < a.length; i++) {
+      assertEquals(expected[a.length - 1 - i], a[i], 0);
+    }
+
+    int[] b = random.ints(10000, 0, 50).toArray();
+    int[] order = MergeSort.order(policy, java.util.Arrays.stream(b).asDoubleStream().toArray(),
+        0, b.length, Double::compare);
+    assertArrayEquals(RadixSort.order(b, 0, b.length), order);
+  }
+}
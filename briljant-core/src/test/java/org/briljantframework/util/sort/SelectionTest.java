@@ -0,0 +1,97 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 Isak Karlsson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.briljantframework.util.sort;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * @author Isak Karlsson
+ */
+public class SelectionTest {
+
+  private final Random random = new Random(321);
+
+  @Test
+  public void testSelect() throws Exception {
+    for (int n : new int[] {1, 10, 1000, 10000}) {
+      double[] a = random.ints(n, 0, n / 4 + 1).asDoubleStream().toArray();
+      double[] sorted = a.clone();
+      java.util.Arrays.sort(sorted);
+      for (int k : new int[] {0, n / 3, n / 2, n - 1}) {
+        double[] copy = a.clone();
+        assertEquals(sorted[k], Selection.select(copy, 0, n, k), 0);
+        for (int i = 0; i < k; i++) {
+          assertTrue(copy[i] <= copy[k]);
+        }
+        for (int i = k + 1; i < n; i++) {
+          assertTrue(copy[i] >= copy[k]);
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testSelectNaNLast() throws Exception {
+    double[] a = {3, Double.NaN, 1, 2, Double.NaN};
+    assertEquals(3, Selection.select(a.clone(), 0, 5, 2), 0);
+    assertTrue(Double.isNaN(Selection.select(a.clone(), 0, 5, 3)));
+  }
+
+  @Test
+  public void testPercentile() throws Exception {
+    double[] a = random.doubles(1001).toArray();
+    double[] sorted = a.clone();
+    java.util.Arrays.sort(sorted);
+    double[] p = Selection.percentile(a, 0, a.length, 0, 25, 50, 99.95, 100);
+    assertEquals(sorted[0], p[0], 0);
+    assertEquals(sorted[250], p[1], 0);
+    assertEquals(sorted[500], p[2], 0);
+    assertEquals(sorted[999] + 0.5 * (sorted[1000] - sorted[999]), p[3], 1e-12);
+    assertEquals(sorted[1000], p[4], 0);
+
+    assertArrayEquals(new double[] {2.5}, Selection.percentile(new double[] {4, 1, 3, 2}, 0, 4, 50),
+        0);
+  }
+
+  @Test
+  public void testTop() throws Exception {
+    double[] a = random.doubles(5000).toArray();
+    double[] sorted = a.clone();
+    java.util.Arrays.sort(sorted);
+    double[] top = Selection.top(a, 0, a.length, 100);
+    for (int i = 0; i < top.length; i++) {
+      assertEquals(sorted[a.length - 1 - i], top[i], 0);
+    }
+  }
+
+  @Test
+  public void testArgTopOrdersTiesByPosition() throws Exception {
+    double[] a = {1, 5, 3, 5, 0, 3, 5};
+    assertArrayEquals(new int[] {1, 3, 6, 2}, Selection.argTop(a, 0, a.length, 4));
+    assertArrayEquals(new int[] {0, 3}, Selection.argTop(a, 3, 7, 2));
+  }
+}
@@ -24,6 +24,7 @@ import org.apache.commons.math3.complex.Complex;
 import org.briljantframework.array.*;
 import org.briljantframework.array.api.ArrayBackend;
 import org.briljantframework.array.api.ArrayFactory;
+import org.briljantframework.array.sparse.SparseDoubleArray;
 
 /**
  * @author Isak Karlsson <isak-kar@dsv.su.se>
@@ -96,6 +97,16 @@ public class JCudaArrayFactory implements ArrayFactory {
     return null;
   }
 
+  @Override
+  public FloatArray newFloatVector(float... data) {
+    return null;
+  }
+
+  @Override
+  public FloatArray newFloatArray(int... shape) {
+    return null;
+  }
+
   @Override
   public DoubleArray newDoubleMatrix(double[][] data) {
     return null;
@@ -175,4 +186,16 @@ public class JCudaArrayFactory implements ArrayFactory {
   public DoubleArray eye(int size) {
     return null;
   }
+
+  @Override
+  public SparseDoubleArray newSparseDoubleArray(SparseDoubleArray.Layout layout, int rows,
+      int columns, int[] rowIndexes, int[] columnIndexes, double[] values) {
+    return SparseDoubleArray.of(backend, layout, rows, columns, rowIndexes, columnIndexes, values);
+  }
+
+  @Override
+  public SparseDoubleArray toSparseDoubleArray(SparseDoubleArray.Layout layout,
+      DoubleArray dense) {
+    return SparseDoubleArray.of(backend, layout, dense);
+  }
 }
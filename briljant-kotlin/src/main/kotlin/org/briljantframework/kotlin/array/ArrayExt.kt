@@ -20,6 +20,18 @@ operator fun IntArray.plus(x: IntArray): IntArray = Arrays.plus(this, x)
 operator fun IntArray.minus(x: IntArray): IntArray = Arrays.minus(this, x)
 operator fun IntArray.div(x: IntArray): IntArray = Arrays.div(this, x)
 
+// Deferred expressions, e.g., `(a.lazy() + b * c.lazy().exp()).materialize()`. Java members
+// named plus, minus, times and div are operators of the expressions.
+fun DoubleArray.lazy(): DoubleExpression = Arrays.lazy(this)
+fun IntArray.lazy(): IntExpression = Arrays.lazy(this)
+
+operator fun DoubleExpression.unaryMinus(): DoubleExpression = this.negate()
+operator fun DoubleArray.plus(x: DoubleExpression): DoubleExpression = Arrays.lazy(this).plus(x)
+operator fun DoubleArray.minus(x: DoubleExpression): DoubleExpression = Arrays.lazy(this).minus(x)
+operator fun DoubleArray.times(x: DoubleExpression): DoubleExpression = Arrays.lazy(this).times(x)
+operator fun DoubleArray.div(x: DoubleExpression): DoubleExpression = Arrays.lazy(this).div(x)
+operator fun IntExpression.unaryMinus(): IntExpression = this.negate()
+
 
 infix fun DoubleArray.pow(x: Double) = Arrays.pow(this, x)
 infix fun Double.pow(x: DoubleArray) = x.map { Math.pow(it, this) }